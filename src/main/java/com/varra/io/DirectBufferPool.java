@@ -0,0 +1,152 @@
+/*
+ * utils4j - DirectBufferPool.java, Oct 18, 2026 4:14:20 PM
+ * 
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.varra.io;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.varra.classification.InterfaceAudience;
+import com.varra.classification.InterfaceStability;
+import com.varra.util.RingBufferQueue;
+
+/**
+ * A lock-free pool of direct {@link ByteBuffer}s of the same size.<br>
+ * Allocating a direct buffer is expensive and its memory is released only
+ * when it is collected, hence the buffers are kept in a
+ * {@link RingBufferQueue} once released and handed out again. The pool
+ * allocates a new buffer when it is empty, and lets the released buffers go
+ * when it is full.
+ * 
+ * @author <a href="mailto:varra@outlook.com">Rajakrishna V.
+ *         Reddy</a>
+ * @version 1.0
+ */
+@InterfaceAudience.Public
+@InterfaceStability.Evolving
+public class DirectBufferPool
+{
+	
+	/** The size of each buffer. */
+	private final int bufferSize;
+	
+	/** The free buffers. */
+	private final RingBufferQueue<ByteBuffer> buffers;
+	
+	/** The no of buffers allocated so far. */
+	private final AtomicLong allocated = new AtomicLong();
+	
+	/**
+	 * Instantiates a new pool.
+	 * 
+	 * @param bufferSize
+	 *            the size of each buffer
+	 * @param maxPooled
+	 *            the max no of free buffers kept
+	 */
+	public DirectBufferPool(final int bufferSize, final int maxPooled)
+	{
+		if (bufferSize <= 0)
+		{
+			throw new IllegalArgumentException("Buffer size should be greater than zero, bufferSize: " + bufferSize);
+		}
+		this.bufferSize = bufferSize;
+		this.buffers = new RingBufferQueue<ByteBuffer>(maxPooled);
+	}
+	
+	/**
+	 * Acquires a cleared buffer, from the pool if there is a free one.
+	 * 
+	 * @return the byte buffer
+	 */
+	public ByteBuffer acquire()
+	{
+		final ByteBuffer buffer = buffers.poll();
+		if (buffer != null)
+		{
+			return buffer;
+		}
+		allocated.incrementAndGet();
+		return ByteBuffer.allocateDirect(bufferSize);
+	}
+	
+	/**
+	 * Releases the buffer back to the pool, it must not be used after this.
+	 * The buffers of other sizes are ignored.
+	 * 
+	 * @param buffer
+	 *            the buffer
+	 */
+	public void release(final ByteBuffer buffer)
+	{
+		if (buffer != null && buffer.isDirect() && buffer.capacity() == bufferSize)
+		{
+			buffer.clear();
+			buffers.offer(buffer);
+		}
+	}
+	
+	/**
+	 * Gets the size of each buffer.
+	 * 
+	 * @return the buffer size
+	 */
+	public int getBufferSize()
+	{
+		return bufferSize;
+	}
+	
+	/**
+	 * Gets the no of free buffers in the pool.
+	 * 
+	 * @return the pooled count
+	 */
+	public int getPooledCount()
+	{
+		return buffers.size();
+	}
+	
+	/**
+	 * Gets the no of buffers allocated so far.
+	 * 
+	 * @return the allocated count
+	 */
+	public long getAllocatedCount()
+	{
+		return allocated.get();
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString()
+	{
+		final StringBuilder builder = new StringBuilder();
+		builder.append("DirectBufferPool [bufferSize=");
+		builder.append(bufferSize);
+		builder.append(", pooled=");
+		builder.append(getPooledCount());
+		builder.append(", allocated=");
+		builder.append(getAllocatedCount());
+		builder.append("]");
+		return builder.toString();
+	}
+}
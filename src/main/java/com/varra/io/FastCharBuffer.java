@@ -377,6 +377,10 @@ public class FastCharBuffer implements CharSequence, Appendable
 	 */
 	public String toString()
 	{
+		if (currentBufferIndex == 0)
+		{
+			return new String(currentBuffer, 0, count);
+		}
 		return new String(toArray());
 	}
 	
@@ -419,7 +423,42 @@ public class FastCharBuffer implements CharSequence, Appendable
 	 */
 	public FastCharBuffer append(String string)
 	{
-		return append(string.toCharArray());
+		return append(string, 0, string.length());
+	}
+	
+	/**
+	 * Appends the part of the string content to buffer, copies the chars
+	 * straight into the inner chunks.
+	 * 
+	 * @param string
+	 *            the string
+	 * @param start
+	 *            the start
+	 * @param end
+	 *            the end
+	 * @return the fast char buffer
+	 */
+	public FastCharBuffer append(String string, int start, int end)
+	{
+		if ((start < 0) || (start > end) || (end > string.length()))
+		{
+			throw new IndexOutOfBoundsException();
+		}
+		int remaining = end - start;
+		while (remaining > 0)
+		{
+			if (offset == currentBuffer.length)
+			{
+				needNewBuffer(count + remaining);
+			}
+			final int part = Math.min(remaining, currentBuffer.length - offset);
+			final int from = end - remaining;
+			string.getChars(from, from + part, currentBuffer, offset);
+			remaining -= part;
+			offset += part;
+			count += part;
+		}
+		return this;
 	}
 	
 	/**
@@ -176,7 +176,7 @@ public class JMXUtility
 	{
 		logger.info("Attributes supported by this: " + mBeanStrName);
 		
-		final RapidFastMap<String, String> map = new RapidFastMap<String, String>();
+		final RapidFastMap<String, String> map = new RapidFastMap<String, String>(true, true);
 		try
 		{
 			final ObjectName name = new ObjectName(mBeanStrName);
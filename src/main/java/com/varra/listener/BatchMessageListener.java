@@ -0,0 +1,48 @@
+/*
+ * utils4j - BatchMessageListener.java, Oct 18, 2026 10:36:02 PM
+ * 
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.varra.listener;
+
+import com.varra.classification.InterfaceAudience;
+import com.varra.classification.InterfaceStability;
+
+/**
+ * A {@link MessageListener} that is also told when a batch of the messages
+ * of a {@link Topic} is delivered, to flush the work gathered from them at
+ * once, like writing them out.
+ * 
+ * @param <T>
+ *            the generic type
+ * @author <a href="mailto:varra@outlook.com">Rajakrishna V.
+ *         Reddy</a>
+ * @version 1.0
+ */
+@InterfaceAudience.Public
+@InterfaceStability.Evolving
+public interface BatchMessageListener<T> extends MessageListener<T>
+{
+	
+	/**
+	 * Notifies the end of the batch, after {@link #onMessage(Object)} is
+	 * called with all of its messages.
+	 * 
+	 * @param size
+	 *            the no of messages in the batch
+	 */
+	void onEndOfBatch(int size);
+}
@@ -0,0 +1,287 @@
+/*
+ * utils4j - EventBus.java, Oct 18, 2026 10:58:30 PM
+ * 
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.varra.listener;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import com.varra.classification.InterfaceAudience;
+import com.varra.classification.InterfaceStability;
+
+/**
+ * An in-process publish/subscribe bus of typed {@link Topic}s, the messages
+ * published to a topic are delivered to its {@link MessageListener}s in
+ * batches, on a consumer thread per topic. See {@link Topic} for the details.
+ * 
+ * <br>
+ * The topics are created on their first use, with the capacity,
+ * {@link ProducerType} and {@link WaitStrategy} of the bus unless given.
+ * 
+ * <pre>
+ * final EventBus bus = new EventBus(&quot;orders&quot;);
+ * bus.subscribe(&quot;created&quot;, Order.class, listener);
+ * bus.publish(&quot;created&quot;, Order.class, order);
+ * </pre>
+ * 
+ * @author <a href="mailto:varra@outlook.com">Rajakrishna V.
+ *         Reddy</a>
+ * @version 1.0
+ */
+@InterfaceAudience.Public
+@InterfaceStability.Evolving
+public class EventBus
+{
+	
+	/** The default capacity of the topics. */
+	public static final int DEFAULT_CAPACITY = 8192;
+	
+	/** The name. */
+	private final String name;
+	
+	/** The capacity of the topics. */
+	private final int capacity;
+	
+	/** The producer type of the topics. */
+	private final ProducerType producerType;
+	
+	/** The wait strategy of the topics. */
+	private final WaitStrategy waitStrategy;
+	
+	/** The topics by their names. */
+	private final ConcurrentMap<String, Topic<?>> topics = new ConcurrentHashMap<String, Topic<?>>();
+	
+	/** Whether it is shut down, no topic is created or got once it is. */
+	private volatile boolean shutdown;
+	
+	/**
+	 * Instantiates a new event bus, its topics are of the
+	 * {@link #DEFAULT_CAPACITY}, any number of producers and park while idle.
+	 * 
+	 * @param name
+	 *            the name
+	 */
+	public EventBus(final String name)
+	{
+		this(name, DEFAULT_CAPACITY, ProducerType.MULTI, WaitStrategy.PARK);
+	}
+	
+	/**
+	 * Instantiates a new event bus.
+	 * 
+	 * @param name
+	 *            the name
+	 * @param capacity
+	 *            the capacity of the topics
+	 * @param producerType
+	 *            the producer type of the topics
+	 * @param waitStrategy
+	 *            the wait strategy of the topics
+	 */
+	public EventBus(final String name, final int capacity, final ProducerType producerType, final WaitStrategy waitStrategy)
+	{
+		this.name = name;
+		this.capacity = capacity;
+		this.producerType = producerType;
+		this.waitStrategy = waitStrategy;
+	}
+	
+	/**
+	 * Gets the topic, creates it with the settings of the bus if not done so
+	 * far.
+	 * 
+	 * @param topic
+	 *            the topic name
+	 * @param type
+	 *            the type of the messages
+	 * @return the topic
+	 * @throws IllegalArgumentException
+	 *             if the topic exists with another type
+	 * @throws IllegalStateException
+	 *             if the bus is shut down
+	 */
+	public <T> Topic<T> getTopic(final String topic, final Class<T> type)
+	{
+		return getTopic(topic, type, capacity, producerType, waitStrategy);
+	}
+	
+	/**
+	 * Gets the topic, creates it with the given settings if not done so far.
+	 * 
+	 * @param topic
+	 *            the topic name
+	 * @param type
+	 *            the type of the messages
+	 * @param capacity
+	 *            the capacity
+	 * @param producerType
+	 *            the producer type
+	 * @param waitStrategy
+	 *            the wait strategy
+	 * @return the topic
+	 * @throws IllegalArgumentException
+	 *             if the topic exists with another type
+	 * @throws IllegalStateException
+	 *             if the bus is shut down
+	 */
+	@SuppressWarnings("unchecked")
+	public <T> Topic<T> getTopic(final String topic, final Class<T> type, final int capacity, final ProducerType producerType,
+			final WaitStrategy waitStrategy)
+	{
+		ensureRunning();
+		Topic<?> existing = topics.get(topic);
+		if (existing == null)
+		{
+			/** Created under the lock, as each topic starts a thread. */
+			synchronized (topics)
+			{
+				ensureRunning();
+				existing = topics.get(topic);
+				if (existing == null)
+				{
+					existing = new Topic<T>(topic, type, capacity, producerType, waitStrategy);
+					topics.put(topic, existing);
+				}
+			}
+		}
+		if (existing.getType() != type)
+		{
+			throw new IllegalArgumentException("The topic: " + topic + " of the bus: " + name + " is of the type: " + existing.getType().getName()
+					+ ", not: " + type.getName());
+		}
+		return (Topic<T>) existing;
+	}
+	
+	/**
+	 * Publishes the message to the topic, waits for the room if it is full.
+	 * 
+	 * @param topic
+	 *            the topic name
+	 * @param type
+	 *            the type of the messages
+	 * @param message
+	 *            the message
+	 * @throws IllegalStateException
+	 *             if the bus is shut down
+	 */
+	public <T> void publish(final String topic, final Class<T> type, final T message)
+	{
+		getTopic(topic, type).publish(message);
+	}
+	
+	/**
+	 * Subscribes the listener to the topic.
+	 * 
+	 * @param topic
+	 *            the topic name
+	 * @param type
+	 *            the type of the messages
+	 * @param listener
+	 *            the listener
+	 */
+	public <T> void subscribe(final String topic, final Class<T> type, final MessageListener<T> listener)
+	{
+		getTopic(topic, type).addListener(listener);
+	}
+	
+	/**
+	 * Unsubscribes the listener from the topic.
+	 * 
+	 * @param topic
+	 *            the topic name
+	 * @param type
+	 *            the type of the messages
+	 * @param listener
+	 *            the listener
+	 */
+	public <T> void unsubscribe(final String topic, final Class<T> type, final MessageListener<T> listener)
+	{
+		if (topics.containsKey(topic))
+		{
+			getTopic(topic, type).removeListener(listener);
+		}
+	}
+	
+	/**
+	 * Gets the names of the topics.
+	 * 
+	 * @return the topic names
+	 */
+	public Set<String> getTopicNames()
+	{
+		return Collections.unmodifiableSet(topics.keySet());
+	}
+	
+	/**
+	 * Gets the name.
+	 * 
+	 * @return the name
+	 */
+	public String getName()
+	{
+		return name;
+	}
+	
+	/**
+	 * Makes sure it is not shut down.
+	 */
+	private void ensureRunning()
+	{
+		if (shutdown)
+		{
+			throw new IllegalStateException("The bus: " + name + " is shut down.");
+		}
+	}
+	
+	/**
+	 * Shutdowns all the topics, after delivering the messages published so
+	 * far. The topics are not created or got any more, the publishes racing
+	 * it are either delivered or rejected.
+	 */
+	public void shutdown()
+	{
+		synchronized (topics)
+		{
+			shutdown = true;
+			for (final Topic<?> topic : topics.values())
+			{
+				topic.shutdown();
+			}
+			topics.clear();
+		}
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString()
+	{
+		final StringBuilder builder = new StringBuilder();
+		builder.append("EventBus [name=");
+		builder.append(name);
+		builder.append(", topics=");
+		builder.append(topics.values());
+		builder.append("]");
+		return builder.toString();
+	}
+}
@@ -0,0 +1,45 @@
+/*
+ * utils4j - ProducerType.java, Oct 18, 2026 10:34:40 PM
+ * 
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.varra.listener;
+
+import com.varra.classification.InterfaceAudience;
+import com.varra.classification.InterfaceStability;
+
+/**
+ * An {@link Enum} that tells how many threads publish to a {@link Topic} at
+ * a time.
+ * 
+ * @author <a href="mailto:varra@outlook.com">Rajakrishna V.
+ *         Reddy</a>
+ * @version 1.0
+ */
+@InterfaceAudience.Public
+@InterfaceStability.Evolving
+public enum ProducerType
+{
+	
+	/**
+	 * One thread at a time, the slots are claimed without a CAS. Publishing
+	 * from many threads at a time loses the messages.
+	 */
+	SINGLE,
+	
+	/** Any number of threads, the slots are claimed with a CAS. */
+	MULTI;
+}
@@ -0,0 +1,591 @@
+/*
+ * utils4j - Topic.java, Oct 18, 2026 10:41:55 PM
+ * 
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.varra.listener;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+import com.varra.classification.InterfaceAudience;
+import com.varra.classification.InterfaceStability;
+import com.varra.log.Logger;
+
+/**
+ * A topic of an {@link EventBus}, delivers the messages published to it to
+ * its {@link MessageListener}s, in the order they are published, on a
+ * consumer thread of its own.
+ * 
+ * <br>
+ * The messages go through a ring buffer allocated up front, hence publishing
+ * does not allocate any memory, and the consumer delivers all the messages
+ * available, up to a batch at a time, before it lets the producers reuse
+ * their slots. A {@link BatchMessageListener} is told when each batch ends.
+ * <br>
+ * The slots are claimed with a CAS for {@link ProducerType#MULTI} and
+ * without one for {@link ProducerType#SINGLE}, and the consumer and producers
+ * wait as per the {@link WaitStrategy}. {@link #publish(Object)} waits for
+ * the room once the ring buffer is full, {@link #tryPublish(Object)} does
+ * not.
+ * 
+ * <br>
+ * Note: <b>The listeners are called on the consumer thread, one after the
+ * other, a slow one holds up the whole topic. Whatever a listener throws,
+ * an {@link Error} too, is logged and the delivery goes on, as the
+ * producers would wait forever for a dead consumer.</b>
+ * 
+ * @param <T>
+ *            the generic type of the messages
+ * @author <a href="mailto:varra@outlook.com">Rajakrishna V.
+ *         Reddy</a>
+ * @version 1.0
+ */
+@InterfaceAudience.Public
+@InterfaceStability.Evolving
+public class Topic<T> implements ListenerManager<MessageListener<T>>
+{
+	
+	/** The max no of messages delivered before letting the producers in. */
+	private static final int BATCH_SIZE = 256;
+	
+	/** The max time the consumer parks for, in nanos. */
+	private static final long IDLE_WAIT_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+	
+	/** The time to wait for the consumer to deliver the messages left. */
+	private static final long SHUTDOWN_WAIT_MILLIS = 5000;
+	
+	/** The logger to log the debugging messages as application runs. */
+	private static final Logger logger = Logger.getLogger(Topic.class);
+	
+	/** The name. */
+	private final String name;
+	
+	/** The type of the messages. */
+	private final Class<T> type;
+	
+	/** The capacity, a power of two. */
+	private final int capacity;
+	
+	/** The mask to get the index of a position. */
+	private final int mask;
+	
+	/** The messages. */
+	private final Object[] buffer;
+	
+	/** The position of the message in each slot, once it is written. */
+	private final AtomicLongArray sequences;
+	
+	/** The position of the next message to be claimed. */
+	private final AtomicLong tail = new AtomicLong();
+	
+	/** The position of the next message to be delivered. */
+	private volatile long head;
+	
+	/** The producer type. */
+	private final ProducerType producerType;
+	
+	/** The wait strategy. */
+	private final WaitStrategy waitStrategy;
+	
+	/** to hold the Listeners List. */
+	private volatile MessageListener<T>[] listeners = newListenerArray(0);
+	
+	/** The consumer. */
+	private final Thread consumer;
+	
+	/** Whether it is accepting the messages. */
+	private volatile boolean running = true;
+	
+	/**
+	 * The no of producers publishing, the consumer waits for them once shut
+	 * down so a message published meanwhile is not lost.
+	 */
+	private final AtomicInteger publishing = new AtomicInteger();
+	
+	/** Whether the consumer is parked, waiting for the messages. */
+	private volatile boolean waiting;
+	
+	/**
+	 * Instantiates a new topic and starts its consumer.
+	 * 
+	 * @param name
+	 *            the name
+	 * @param type
+	 *            the type of the messages
+	 * @param capacity
+	 *            the capacity, rounded up to a power of two
+	 * @param producerType
+	 *            the producer type
+	 * @param waitStrategy
+	 *            the wait strategy
+	 */
+	public Topic(final String name, final Class<T> type, final int capacity, final ProducerType producerType, final WaitStrategy waitStrategy)
+	{
+		if (name == null || type == null || capacity <= 0 || capacity > 1 << 30 || producerType == null || waitStrategy == null)
+		{
+			throw new IllegalArgumentException("Invalid arguments, name: " + name + ", type: " + type + ", capacity: " + capacity + ", producerType: "
+					+ producerType + ", waitStrategy: " + waitStrategy);
+		}
+		this.name = name;
+		this.type = type;
+		this.capacity = capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+		this.mask = this.capacity - 1;
+		this.producerType = producerType;
+		this.waitStrategy = waitStrategy;
+		buffer = new Object[this.capacity];
+		sequences = new AtomicLongArray(this.capacity);
+		for (int index = 0; index < this.capacity; index++)
+		{
+			sequences.set(index, -1);
+		}
+		consumer = new Thread(new Runnable()
+		{
+			public void run()
+			{
+				consume();
+			}
+		}, "Topic-" + name);
+		consumer.setDaemon(true);
+		consumer.start();
+	}
+	
+	/**
+	 * Publishes the message, waits for the room if the ring buffer is full.
+	 * 
+	 * @param message
+	 *            the message
+	 * @throws IllegalStateException
+	 *             if the topic is shut down
+	 */
+	public void publish(final T message)
+	{
+		if (message == null)
+		{
+			throw new NullPointerException();
+		}
+		publishing.incrementAndGet();
+		try
+		{
+			int attempts = 0;
+			while (true)
+			{
+				if (!running)
+				{
+					throw new IllegalStateException("The topic: " + name + " is shut down.");
+				}
+				final long position = claim();
+				if (position >= 0)
+				{
+					write(position, message);
+					return;
+				}
+				wakeUpConsumer();
+				waitStrategy.idle(attempts++);
+			}
+		}
+		finally
+		{
+			publishing.decrementAndGet();
+		}
+	}
+	
+	/**
+	 * Publishes the message if there is room for it in the ring buffer.
+	 * 
+	 * @param message
+	 *            the message
+	 * @return true, if published, false if full or shut down
+	 */
+	public boolean tryPublish(final T message)
+	{
+		if (message == null)
+		{
+			throw new NullPointerException();
+		}
+		publishing.incrementAndGet();
+		try
+		{
+			if (!running)
+			{
+				return false;
+			}
+			final long position = claim();
+			if (position < 0)
+			{
+				return false;
+			}
+			write(position, message);
+			return true;
+		}
+		finally
+		{
+			publishing.decrementAndGet();
+		}
+	}
+	
+	/**
+	 * Claims the next slot.
+	 * 
+	 * @return the position of the slot, -1 if the ring buffer is full
+	 */
+	private long claim()
+	{
+		if (producerType == ProducerType.SINGLE)
+		{
+			final long position = tail.get();
+			if (position - head >= capacity)
+			{
+				return -1;
+			}
+			tail.lazySet(position + 1);
+			return position;
+		}
+		while (true)
+		{
+			final long position = tail.get();
+			if (position - head >= capacity)
+			{
+				return -1;
+			}
+			if (tail.compareAndSet(position, position + 1))
+			{
+				return position;
+			}
+		}
+	}
+	
+	/**
+	 * Writes the message to the claimed slot and wakes up the consumer, if
+	 * parked.
+	 * 
+	 * @param position
+	 *            the position
+	 * @param message
+	 *            the message
+	 */
+	private void write(final long position, final T message)
+	{
+		final int index = (int) position & mask;
+		buffer[index] = message;
+		sequences.set(index, position);
+		wakeUpConsumer();
+	}
+	
+	/**
+	 * Wakes up the consumer, if parked.
+	 */
+	private void wakeUpConsumer()
+	{
+		if (waiting)
+		{
+			LockSupport.unpark(consumer);
+		}
+	}
+	
+	/**
+	 * Delivers the messages till the topic is shut down and the messages
+	 * published so far are delivered. A producer checks the topic is running
+	 * after it is counted as publishing, so once none is publishing after the
+	 * shut down, no message can be published any more.
+	 */
+	@SuppressWarnings("unchecked")
+	private void consume()
+	{
+		long next = head;
+		int attempts = 0;
+		while (true)
+		{
+			final MessageListener<T>[] current = listeners;
+			int count = 0;
+			int index = (int) next & mask;
+			while (count < BATCH_SIZE && sequences.get(index) == next)
+			{
+				final T message = (T) buffer[index];
+				buffer[index] = null;
+				deliver(current, message);
+				next++;
+				count++;
+				index = (int) next & mask;
+			}
+			if (count > 0)
+			{
+				endOfBatch(current, count);
+				head = next;
+				attempts = 0;
+				continue;
+			}
+			if (!running && publishing.get() == 0 && tail.get() == next)
+			{
+				break;
+			}
+			if (waitStrategy == WaitStrategy.PARK && attempts >= WaitStrategy.SPIN_TRIES)
+			{
+				waiting = true;
+				if (sequences.get(index) != next && running)
+				{
+					LockSupport.parkNanos(this, IDLE_WAIT_NANOS);
+				}
+				waiting = false;
+			}
+			else
+			{
+				waitStrategy.idle(attempts++);
+			}
+		}
+	}
+	
+	/**
+	 * Delivers the message to the listeners.
+	 * 
+	 * @param current
+	 *            the listeners
+	 * @param message
+	 *            the message
+	 */
+	private void deliver(final MessageListener<T>[] current, final T message)
+	{
+		for (int index = 0; index < current.length; index++)
+		{
+			try
+			{
+				current[index].onMessage(message);
+			}
+			catch (Throwable e)
+			{
+				logger.error("Error while notifying the listener: {} of the topic: {}", current[index], name, e);
+			}
+		}
+	}
+	
+	/**
+	 * Tells the {@link BatchMessageListener}s the batch is delivered.
+	 * 
+	 * @param current
+	 *            the listeners
+	 * @param size
+	 *            the size of the batch
+	 */
+	@SuppressWarnings("unchecked")
+	private void endOfBatch(final MessageListener<T>[] current, final int size)
+	{
+		for (int index = 0; index < current.length; index++)
+		{
+			if (current[index] instanceof BatchMessageListener)
+			{
+				try
+				{
+					((BatchMessageListener<T>) current[index]).onEndOfBatch(size);
+				}
+				catch (Throwable e)
+				{
+					logger.error("Error while notifying the listener: {} of the topic: {}", current[index], name, e);
+				}
+			}
+		}
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see com.varra.listener.ListenerManager#addListener(java.lang.Object)
+	 */
+	public synchronized void addListener(final MessageListener<T> listener)
+	{
+		if (listener != null)
+		{
+			final MessageListener<T>[] current = listeners;
+			final MessageListener<T>[] updated = newListenerArray(current.length + 1);
+			System.arraycopy(current, 0, updated, 0, current.length);
+			updated[current.length] = listener;
+			listeners = updated;
+		}
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see com.varra.listener.ListenerManager#removeListener(java.lang.Object)
+	 */
+	public synchronized void removeListener(final MessageListener<T> listener)
+	{
+		final MessageListener<T>[] current = listeners;
+		for (int index = 0; index < current.length; index++)
+		{
+			if (current[index].equals(listener))
+			{
+				final MessageListener<T>[] updated = newListenerArray(current.length - 1);
+				System.arraycopy(current, 0, updated, 0, index);
+				System.arraycopy(current, index + 1, updated, index, current.length - index - 1);
+				listeners = updated;
+				return;
+			}
+		}
+	}
+	
+	/**
+	 * Creates an array of the listeners, generic arrays can't be created
+	 * directly.
+	 * 
+	 * @param length
+	 *            the length
+	 * @return the array
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private static <T> MessageListener<T>[] newListenerArray(final int length)
+	{
+		return new MessageListener[length];
+	}
+	
+	/**
+	 * Stops accepting the messages and waits for a while for the consumer to
+	 * deliver the ones published so far.
+	 */
+	public void shutdown()
+	{
+		running = false;
+		LockSupport.unpark(consumer);
+		if (Thread.currentThread() != consumer)
+		{
+			try
+			{
+				consumer.join(SHUTDOWN_WAIT_MILLIS);
+			}
+			catch (InterruptedException e)
+			{
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+	
+	/**
+	 * Checks if it is accepting the messages.
+	 * 
+	 * @return true, if is running
+	 */
+	public boolean isRunning()
+	{
+		return running;
+	}
+	
+	/**
+	 * Gets the name.
+	 * 
+	 * @return the name
+	 */
+	public String getName()
+	{
+		return name;
+	}
+	
+	/**
+	 * Gets the type of the messages.
+	 * 
+	 * @return the type
+	 */
+	public Class<T> getType()
+	{
+		return type;
+	}
+	
+	/**
+	 * Gets the capacity.
+	 * 
+	 * @return the capacity
+	 */
+	public int getCapacity()
+	{
+		return capacity;
+	}
+	
+	/**
+	 * Gets the producer type.
+	 * 
+	 * @return the producer type
+	 */
+	public ProducerType getProducerType()
+	{
+		return producerType;
+	}
+	
+	/**
+	 * Gets the wait strategy.
+	 * 
+	 * @return the wait strategy
+	 */
+	public WaitStrategy getWaitStrategy()
+	{
+		return waitStrategy;
+	}
+	
+	/**
+	 * Gets the no of messages published so far.
+	 * 
+	 * @return the published count
+	 */
+	public long getPublishedCount()
+	{
+		return tail.get();
+	}
+	
+	/**
+	 * Gets the no of messages delivered so far.
+	 * 
+	 * @return the delivered count
+	 */
+	public long getDeliveredCount()
+	{
+		return head;
+	}
+	
+	/**
+	 * Gets the no of messages waiting to be delivered.
+	 * 
+	 * @return the backlog
+	 */
+	public int getBacklog()
+	{
+		return (int) Math.max(0, tail.get() - head);
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString()
+	{
+		final StringBuilder builder = new StringBuilder();
+		builder.append("Topic [name=");
+		builder.append(name);
+		builder.append(", type=");
+		builder.append(type.getName());
+		builder.append(", capacity=");
+		builder.append(capacity);
+		builder.append(", producerType=");
+		builder.append(producerType);
+		builder.append(", waitStrategy=");
+		builder.append(waitStrategy);
+		builder.append(", backlog=");
+		builder.append(getBacklog());
+		builder.append("]");
+		return builder.toString();
+	}
+}
@@ -0,0 +1,120 @@
+/*
+ * utils4j - WaitStrategy.java, Oct 18, 2026 10:31:12 PM
+ * 
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.varra.listener;
+
+import java.util.concurrent.locks.LockSupport;
+
+import com.varra.classification.InterfaceAudience;
+import com.varra.classification.InterfaceStability;
+
+/**
+ * An {@link Enum} that lists the ways the consumer of a {@link Topic} waits
+ * for the messages, and its producers wait for the room, trading the CPU
+ * for the latency.
+ * 
+ * @author <a href="mailto:varra@outlook.com">Rajakrishna V.
+ *         Reddy</a>
+ * @version 1.0
+ */
+@InterfaceAudience.Public
+@InterfaceStability.Evolving
+public enum WaitStrategy
+{
+	
+	/**
+	 * Spins on the CPU, the lowest latency but burns a core per consumer, use
+	 * it only with a core to spare.
+	 */
+	BUSY_SPIN
+	{
+		@Override
+		void idle(final int attempts)
+		{
+			/** Just spins. */
+		}
+	},
+	
+	/** Spins for a while and yields the CPU to the other threads thereafter. */
+	YIELD
+	{
+		@Override
+		void idle(final int attempts)
+		{
+			if (attempts >= SPIN_TRIES)
+			{
+				Thread.yield();
+			}
+		}
+	},
+	
+	/**
+	 * Spins for a while and parks thereafter, till a message is published,
+	 * the least CPU and the default.
+	 */
+	PARK
+	{
+		@Override
+		void idle(final int attempts)
+		{
+			if (attempts >= SPIN_TRIES)
+			{
+				LockSupport.parkNanos(PARK_NANOS);
+			}
+		}
+	};
+	
+	/** The no of times to spin before yielding or parking. */
+	static final int SPIN_TRIES = 100;
+	
+	/** The time to park for, in nanos, while waiting for the room. */
+	static final long PARK_NANOS = 1000;
+	
+	/**
+	 * Waits a little, as nothing could be done the given no of times in a
+	 * row.
+	 * 
+	 * @param attempts
+	 *            the attempts
+	 */
+	abstract void idle(int attempts);
+	
+	/**
+	 * Gets the {@link WaitStrategy} for the given name, ignoring the case.
+	 * 
+	 * @param name
+	 *            the name
+	 * @param defValue
+	 *            the default value, returned if name is null or unknown
+	 * @return the wait strategy
+	 */
+	public static WaitStrategy getStrategy(final String name, final WaitStrategy defValue)
+	{
+		if (name != null)
+		{
+			for (final WaitStrategy strategy : values())
+			{
+				if (strategy.name().equalsIgnoreCase(name.trim()))
+				{
+					return strategy;
+				}
+			}
+		}
+		return defValue;
+	}
+}
@@ -0,0 +1,390 @@
+/*
+ * utils4j - AsyncLog.java, Oct 18, 2026 2:41:52 PM
+ * 
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.varra.log;
+
+import com.varra.util.ShutdownMode;
+
+/**
+ * A {@link Log} which publishes the events to the {@link AsyncLogDispatcher}
+ * instead of writing them on the caller thread, the actual writing is
+ * delegated to the wrapped {@link Log} by the dispatcher.<br>
+ * The events that are not enabled by the wrapped {@link Log} are filtered
+ * out before they are published.
+ * 
+ * @author <a href="mailto:varra@outlook.com">Rajakrishna V.
+ *         Reddy</a>
+ * @version 3.0
+ */
+final class AsyncLog implements Log
+{
+	
+	/** The wrapped log. */
+	private final Log log;
+	
+	/** The dispatcher. */
+	private final AsyncLogDispatcher dispatcher;
+	
+	/**
+	 * Instantiates a new async log.
+	 * 
+	 * @param log
+	 *            the log to be wrapped
+	 * @param dispatcher
+	 *            the dispatcher
+	 */
+	AsyncLog(final Log log, final AsyncLogDispatcher dispatcher)
+	{
+		this.log = log;
+		this.dispatcher = dispatcher;
+	}
+	
+	/**
+	 * Gets the wrapped log.
+	 * 
+	 * @return the log
+	 */
+	Log getLog()
+	{
+		return log;
+	}
+	
+	/**
+	 * Publishes the event if it is enabled.
+	 * 
+	 * @param level
+	 *            the level
+	 * @param message
+	 *            the message
+	 * @param t
+	 *            the error, can be null
+	 */
+	private void publish(final MyLogLevel level, final Object message, final Throwable t)
+	{
+		if (isEnabled(level))
+		{
+			dispatcher.publish(log, level, message, t, 0, null);
+		}
+	}
+	
+	/**
+	 * Checks whether the wrapped log writes the events of the given level.
+	 * 
+	 * @param level
+	 *            the level
+	 * @return true, if is enabled
+	 */
+	private boolean isEnabled(final MyLogLevel level)
+	{
+		if (log instanceof ConsoleLogger)
+		{
+			return ((ConsoleLogger) log).isEnabled(level);
+		}
+		if (log instanceof NoLogger)
+		{
+			return false;
+		}
+		switch (level)
+		{
+			case TRACE:
+				return log.isTraceEnabled();
+			case DEBUG:
+				return log.isDebugEnabled();
+			case INFO:
+				return log.isInfoEnabled();
+			case WARN:
+				return log.isWarnEnabled();
+			default:
+				return true;
+		}
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see com.varra.util.Shutdownable#shutdown(com.varra.util.ShutdownMode)
+	 */
+	public void shutdown(ShutdownMode mode)
+	{
+		if (mode != ShutdownMode.FORCED_SHUTDOWN)
+		{
+			dispatcher.flush();
+		}
+		log.shutdown(mode);
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see com.varra.log.Log#getName()
+	 */
+	public String getName()
+	{
+		return log.getName();
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see com.varra.log.Log#setName(java.lang.String)
+	 */
+	public void setName(String name)
+	{
+		log.setName(name);
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see com.varra.log.Log#trace(java.lang.Object)
+	 */
+	public void trace(Object message)
+	{
+		publish(MyLogLevel.TRACE, message, null);
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see com.varra.log.Log#trace(java.lang.Object, java.lang.Throwable)
+	 */
+	public void trace(Object message, Throwable t)
+	{
+		publish(MyLogLevel.TRACE, message, t);
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see com.varra.log.Log#info(java.lang.Object)
+	 */
+	public void info(Object message)
+	{
+		publish(MyLogLevel.INFO, message, null);
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see com.varra.log.Log#info(java.lang.Object, java.lang.Throwable)
+	 */
+	public void info(Object message, Throwable t)
+	{
+		publish(MyLogLevel.INFO, message, t);
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see com.varra.log.Log#debug(java.lang.Object)
+	 */
+	public void debug(Object message)
+	{
+		publish(MyLogLevel.DEBUG, message, null);
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see com.varra.log.Log#debug(java.lang.Object, java.lang.Throwable)
+	 */
+	public void debug(Object message, Throwable t)
+	{
+		publish(MyLogLevel.DEBUG, message, t);
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see com.varra.log.Log#warn(java.lang.Object)
+	 */
+	public void warn(Object message)
+	{
+		publish(MyLogLevel.WARN, message, null);
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see com.varra.log.Log#warn(java.lang.Object, java.lang.Throwable)
+	 */
+	public void warn(Object message, Throwable t)
+	{
+		publish(MyLogLevel.WARN, message, t);
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see com.varra.log.Log#error(java.lang.Object)
+	 */
+	public void error(Object message)
+	{
+		publish(MyLogLevel.ERROR, message, null);
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see com.varra.log.Log#error(java.lang.Object, java.lang.Throwable)
+	 */
+	public void error(Object message, Throwable t)
+	{
+		publish(MyLogLevel.ERROR, message, t);
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see com.varra.log.Log#fatal(java.lang.Object)
+	 */
+	public void fatal(Object message)
+	{
+		publish(MyLogLevel.FATAL, message, null);
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see com.varra.log.Log#fatal(java.lang.Object, java.lang.Throwable)
+	 */
+	public void fatal(Object message, Throwable t)
+	{
+		publish(MyLogLevel.FATAL, message, t);
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see com.varra.log.Log#test(java.lang.Object)
+	 */
+	public void test(Object message)
+	{
+		publish(MyLogLevel.TEST, message, null);
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see com.varra.log.Log#test(java.lang.Object, java.lang.Throwable)
+	 */
+	public void test(Object message, Throwable t)
+	{
+		publish(MyLogLevel.TEST, message, t);
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see com.varra.log.Log#log(java.lang.Object, int, java.lang.String)
+	 */
+	public void log(Object message, int level, String levelString)
+	{
+		if (isEnabled(MyLogLevel.LOG))
+		{
+			dispatcher.publish(log, MyLogLevel.LOG, message, null, level, levelString);
+		}
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see com.varra.log.Log#log(java.lang.Object, java.lang.Throwable)
+	 */
+	public void log(Object message, Throwable t)
+	{
+		publish(MyLogLevel.LOG, message, t);
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see com.varra.log.Log#isDebugEnabled()
+	 */
+	public boolean isDebugEnabled()
+	{
+		return log.isDebugEnabled();
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see com.varra.log.Log#isInfoEnabled()
+	 */
+	public boolean isInfoEnabled()
+	{
+		return log.isInfoEnabled();
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see com.varra.log.Log#isTraceEnabled()
+	 */
+	public boolean isTraceEnabled()
+	{
+		return log.isTraceEnabled();
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see com.varra.log.Log#isWarnEnabled()
+	 */
+	public boolean isWarnEnabled()
+	{
+		return log.isWarnEnabled();
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see com.varra.log.Log#setLevel(com.varra.log.MyLogLevel)
+	 */
+	@Override
+	public void setLevel(MyLogLevel level)
+	{
+		log.setLevel(level);
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see com.varra.log.Log#getLevel()
+	 */
+	@Override
+	public MyLogLevel getLevel()
+	{
+		return log.getLevel();
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString()
+	{
+		StringBuilder builder = new StringBuilder();
+		builder.append("AsyncLog [log=");
+		builder.append(log);
+		builder.append("]");
+		return builder.toString();
+	}
+}
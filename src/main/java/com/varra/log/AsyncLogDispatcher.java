@@ -0,0 +1,569 @@
+/*
+ * utils4j - AsyncLogDispatcher.java, Oct 18, 2026 2:20:08 PM
+ * 
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.varra.log;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+import com.varra.util.ShutdownMode;
+
+/**
+ * The background writer of the asynchronous {@link Logger}s.<br>
+ * The callers claim a slot of a lock-free ring, fill the pre-allocated
+ * {@link LogEvent} record and publish it. A single daemon thread drains the
+ * published events in batches, formats the {@link ConsoleLogger} ones into
+ * one buffer and writes it to the console in one go, the rest are handed
+ * over to their {@link Log} in the same order.
+ * <p>
+ * What happens when the ring is full is decided by the
+ * {@link OverflowPolicy}. Once it is shutdown, the events are written on the
+ * caller thread like the synchronous {@link Logger}s do.
+ * 
+ * @author <a href="mailto:varra@outlook.com">Rajakrishna V.
+ *         Reddy</a>
+ * @version 3.0
+ */
+final class AsyncLogDispatcher implements Runnable
+{
+	
+	/** The max no of events written in one go. */
+	private static final int BATCH_SIZE = 256;
+	
+	/** How long the writer sleeps when there is nothing to write. */
+	private static final long IDLE_WAIT_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+	
+	/** How long the graceful shutdown waits for the writer. */
+	private static final long SHUTDOWN_WAIT_MILLIS = 5000;
+	
+	/** The line separator. */
+	private static final String LINE_SEPARATOR = System.getProperty("line.separator");
+	
+	/** The capacity. */
+	private final int capacity;
+	
+	/** The pre-allocated events. */
+	private final LogEvent[] events;
+	
+	/**
+	 * The sequence of each slot, tells whether the slot is ready to be written
+	 * or read by the given position.
+	 */
+	private final AtomicLongArray sequences;
+	
+	/** The position of the next event to be claimed. */
+	private final AtomicLong tail = new AtomicLong();
+	
+	/** The position of the next event to be written, updated by the writer. */
+	private volatile long head;
+	
+	/** The overflow policy. */
+	private final OverflowPolicy policy;
+	
+	/** The least severe level which is not dropped by DROP_BELOW_LEVEL. */
+	private final MyLogLevel overflowLevel;
+	
+	/** The no of events dropped. */
+	private final AtomicLong dropped = new AtomicLong();
+	
+	/** The batch of formatted console lines, used by the writer only. */
+	private final StringBuilder batch = new StringBuilder(BATCH_SIZE * 128);
+	
+	/** The writer thread. */
+	private final Thread writer;
+	
+	/** The running. */
+	private volatile boolean running = true;
+	
+	/** Whether the pending events are to be discarded, on forced shutdown. */
+	private volatile boolean discard;
+	
+	/** Whether the writer is about to sleep. */
+	private volatile boolean waiting;
+	
+	/**
+	 * Instantiates and starts a new dispatcher.
+	 * 
+	 * @param capacity
+	 *            the no of events that can be buffered
+	 * @param policy
+	 *            the overflow policy
+	 * @param overflowLevel
+	 *            the overflow level, used by
+	 *            {@link OverflowPolicy#DROP_BELOW_LEVEL}
+	 */
+	AsyncLogDispatcher(final int capacity, final OverflowPolicy policy, final MyLogLevel overflowLevel)
+	{
+		if (capacity <= 0)
+		{
+			throw new IllegalArgumentException("Capacity should be greater than zero, capacity: " + capacity);
+		}
+		this.capacity = capacity;
+		this.policy = policy == null ? OverflowPolicy.BLOCK : policy;
+		this.overflowLevel = overflowLevel == null ? MyLogLevel.WARN : overflowLevel;
+		events = new LogEvent[capacity];
+		sequences = new AtomicLongArray(capacity);
+		for (int index = 0; index < capacity; index++)
+		{
+			events[index] = new LogEvent();
+			sequences.set(index, index);
+		}
+		writer = new Thread(this, "AsyncLogDispatcher");
+		writer.setDaemon(true);
+		writer.start();
+	}
+	
+	/**
+	 * Publishes the event to the writer, or writes it on the caller thread if
+	 * the dispatcher is shutdown or the caller is the writer itself.<br>
+	 * The message is turned into a {@link String} right away on the caller
+	 * thread, like the synchronous {@link Logger}s do, so a mutable message is
+	 * logged in the state it was in and its {@link Object#toString()} never
+	 * runs concurrently with the caller.
+	 * 
+	 * @param log
+	 *            the log to write to
+	 * @param level
+	 *            the level
+	 * @param message
+	 *            the message
+	 * @param error
+	 *            the error, can be null
+	 * @param levelNo
+	 *            the level no of {@link Log#log(Object, int, String)}
+	 * @param levelString
+	 *            the level string of {@link Log#log(Object, int, String)}
+	 */
+	void publish(final Log log, final MyLogLevel level, final Object message, final Throwable error, final int levelNo,
+			final String levelString)
+	{
+		final String text = message == null ? null : message.toString();
+		int attempts = 0;
+		while (true)
+		{
+			if (!running || Thread.currentThread() == writer)
+			{
+				deliver(log, level, message, error, levelNo, levelString);
+				return;
+			}
+			final long position = tail.get();
+			final int index = (int) (position % capacity);
+			final long difference = sequences.get(index) - position;
+			if (difference == 0)
+			{
+				if (tail.compareAndSet(position, position + 1))
+				{
+					events[index].set(log, level, text, error, levelNo, levelString);
+					sequences.set(index, position + 1);
+					if (waiting)
+					{
+						LockSupport.unpark(writer);
+					}
+					return;
+				}
+			}
+			else if (difference < 0)
+			{
+				/** Full. */
+				if (policy == OverflowPolicy.DROP
+						|| (policy == OverflowPolicy.DROP_BELOW_LEVEL && level.ordinal() > overflowLevel.ordinal()))
+				{
+					dropped.incrementAndGet();
+					return;
+				}
+				LockSupport.unpark(writer);
+				backOff(attempts++);
+			}
+		}
+	}
+	
+	/**
+	 * Waits till all the events published so far are written, returns
+	 * immediately if it is called by the writer itself or the writer is dead.
+	 */
+	void flush()
+	{
+		final long target = tail.get();
+		while (head < target && writer.isAlive() && Thread.currentThread() != writer)
+		{
+			LockSupport.unpark(writer);
+			LockSupport.parkNanos(this, TimeUnit.MICROSECONDS.toNanos(100));
+		}
+	}
+	
+	/**
+	 * Stops the writer. The pending events are written before it returns on
+	 * {@link ShutdownMode#GRACEFUL_SHUTDOWN}, and discarded on
+	 * {@link ShutdownMode#FORCED_SHUTDOWN}.
+	 * 
+	 * @param mode
+	 *            the mode
+	 */
+	void shutdown(final ShutdownMode mode)
+	{
+		discard = mode == ShutdownMode.FORCED_SHUTDOWN;
+		running = false;
+		LockSupport.unpark(writer);
+		if (Thread.currentThread() == writer)
+		{
+			return;
+		}
+		try
+		{
+			writer.join(discard ? 0 : SHUTDOWN_WAIT_MILLIS);
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+		}
+		if (!discard && !writer.isAlive())
+		{
+			/** The callers which claimed a slot before the stop was seen. */
+			while (drain() > 0)
+			{
+				
+			}
+		}
+	}
+	
+	/**
+	 * Gets the no of events dropped so far.
+	 * 
+	 * @return the dropped count
+	 */
+	long getDroppedCount()
+	{
+		return dropped.get();
+	}
+	
+	/**
+	 * Checks if is running.
+	 * 
+	 * @return true, if is running
+	 */
+	boolean isRunning()
+	{
+		return running;
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see java.lang.Runnable#run()
+	 */
+	public void run()
+	{
+		while (running)
+		{
+			if (drain() == 0)
+			{
+				waiting = true;
+				if (running && !isReadable())
+				{
+					LockSupport.parkNanos(this, IDLE_WAIT_NANOS);
+				}
+				waiting = false;
+			}
+		}
+		while (!discard && drain() > 0)
+		{
+			
+		}
+	}
+	
+	/**
+	 * Writes the next batch of the published events.
+	 * 
+	 * @return the no of events written
+	 */
+	private int drain()
+	{
+		long position = head;
+		int count = 0;
+		while (count < BATCH_SIZE)
+		{
+			final int index = (int) (position % capacity);
+			if (sequences.get(index) != position + 1)
+			{
+				break;
+			}
+			final LogEvent event = events[index];
+			try
+			{
+				write(event);
+			}
+			catch (Throwable e)
+			{
+				System.err.println("Unable to write the log event of " + event.log.getName() + ", Error: " + e.getMessage());
+			}
+			event.clear();
+			sequences.set(index, position + capacity);
+			position++;
+			count++;
+		}
+		writeBatch();
+		head = position;
+		return count;
+	}
+	
+	/**
+	 * Checks whether the event at the head is published.
+	 * 
+	 * @return true, if is readable
+	 */
+	private boolean isReadable()
+	{
+		final long position = head;
+		return sequences.get((int) (position % capacity)) == position + 1;
+	}
+	
+	/**
+	 * Formats the event into the batch if it is for a {@link ConsoleLogger},
+	 * else hands it over to its {@link Log} after writing the batch so far.
+	 * 
+	 * @param event
+	 *            the event
+	 */
+	private void write(final LogEvent event)
+	{
+		if (event.log instanceof ConsoleLogger)
+		{
+			final ConsoleLogger console = (ConsoleLogger) event.log;
+			if (console.isEnabled(event.level))
+			{
+				console.format(batch, event.time, event.level, event.message, event.error);
+				batch.append(LINE_SEPARATOR);
+				if (ConsoleLogger.printsStackTrace(event.level, event.error))
+				{
+					writeBatch();
+					event.error.printStackTrace();
+				}
+			}
+		}
+		else
+		{
+			writeBatch();
+			deliver(event.log, event.level, event.message, event.error, event.levelNo, event.levelString);
+		}
+	}
+	
+	/**
+	 * Writes the formatted console lines in one go.
+	 */
+	private void writeBatch()
+	{
+		if (batch.length() > 0)
+		{
+			System.out.print(batch);
+			System.out.flush();
+			batch.setLength(0);
+		}
+	}
+	
+	/**
+	 * Hands over the event to the {@link Log} method it was logged with.
+	 * 
+	 * @param log
+	 *            the log
+	 * @param level
+	 *            the level
+	 * @param message
+	 *            the message
+	 * @param error
+	 *            the error, can be null
+	 * @param levelNo
+	 *            the level no
+	 * @param levelString
+	 *            the level string
+	 */
+	static void deliver(final Log log, final MyLogLevel level, final Object message, final Throwable error, final int levelNo,
+			final String levelString)
+	{
+		switch (level)
+		{
+			case TRACE:
+				if (error == null)
+				{
+					log.trace(message);
+				}
+				else
+				{
+					log.trace(message, error);
+				}
+				break;
+			case DEBUG:
+				if (error == null)
+				{
+					log.debug(message);
+				}
+				else
+				{
+					log.debug(message, error);
+				}
+				break;
+			case INFO:
+				if (error == null)
+				{
+					log.info(message);
+				}
+				else
+				{
+					log.info(message, error);
+				}
+				break;
+			case WARN:
+				if (error == null)
+				{
+					log.warn(message);
+				}
+				else
+				{
+					log.warn(message, error);
+				}
+				break;
+			case ERROR:
+				if (error == null)
+				{
+					log.error(message);
+				}
+				else
+				{
+					log.error(message, error);
+				}
+				break;
+			case FATAL:
+				if (error == null)
+				{
+					log.fatal(message);
+				}
+				else
+				{
+					log.fatal(message, error);
+				}
+				break;
+			case TEST:
+				if (error == null)
+				{
+					log.test(message);
+				}
+				else
+				{
+					log.test(message, error);
+				}
+				break;
+			default:
+				if (error == null)
+				{
+					log.log(message, levelNo, levelString);
+				}
+				else
+				{
+					log.log(message, error);
+				}
+				break;
+		}
+	}
+	
+	/**
+	 * Backs off the caller waiting for a free slot, spins for a while and then
+	 * parks for a short time.
+	 * 
+	 * @param attempts
+	 *            the no of attempts so far
+	 */
+	private static void backOff(final int attempts)
+	{
+		if (attempts < 64)
+		{
+			Thread.yield();
+		}
+		else
+		{
+			LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(50));
+		}
+	}
+	
+	/**
+	 * A pre-allocated log event, reused by the ring.
+	 */
+	static final class LogEvent
+	{
+		
+		/** The log. */
+		Log log;
+		
+		/** The level. */
+		MyLogLevel level;
+		
+		/** The message, formatted by the caller. */
+		String message;
+		
+		/** The error. */
+		Throwable error;
+		
+		/** The time it was logged at. */
+		long time;
+		
+		/** The level no. */
+		int levelNo;
+		
+		/** The level string. */
+		String levelString;
+		
+		/**
+		 * Fills the event.
+		 * 
+		 * @param log
+		 *            the log
+		 * @param level
+		 *            the level
+		 * @param message
+		 *            the message
+		 * @param error
+		 *            the error
+		 * @param levelNo
+		 *            the level no
+		 * @param levelString
+		 *            the level string
+		 */
+		void set(final Log log, final MyLogLevel level, final String message, final Throwable error, final int levelNo,
+				final String levelString)
+		{
+			this.log = log;
+			this.level = level;
+			this.message = message;
+			this.error = error;
+			this.levelNo = levelNo;
+			this.levelString = levelString;
+			this.time = System.currentTimeMillis();
+		}
+		
+		/**
+		 * Clears the references, so that they can be collected.
+		 */
+		void clear()
+		{
+			log = null;
+			message = null;
+			error = null;
+			levelString = null;
+		}
+	}
+}
@@ -18,7 +18,6 @@
  */
 package com.varra.log;
 
-import java.text.MessageFormat;
 import java.text.SimpleDateFormat;
 import java.util.Date;
 
@@ -47,14 +46,25 @@ public class ConsoleLogger implements Log
 	/** The name. */
 	private String name;
 	
-	/** The date. */
-	private static final Date date = new Date(System.currentTimeMillis());
-	
-	/** The Constant builder. */
-	private static final StringBuilder builder = new StringBuilder(50);
+	/** The line of each thread, reused for every message. */
+	private static final ThreadLocal<StringBuilder> line = new ThreadLocal<StringBuilder>()
+	{
+		@Override
+		protected StringBuilder initialValue()
+		{
+			return new StringBuilder(128);
+		}
+	};
 	
-	/** The Date format. */
-	private static final SimpleDateFormat format = new SimpleDateFormat("dd-MM-yyyy HH:mm:ss.SSS");
+	/** The time stamp formatter of each thread, as {@link SimpleDateFormat} is not thread safe. */
+	private static final ThreadLocal<TimeStamp> timeStamp = new ThreadLocal<TimeStamp>()
+	{
+		@Override
+		protected TimeStamp initialValue()
+		{
+			return new TimeStamp();
+		}
+	};
 	
 	/**
 	 * Instantiates a new console logger.
@@ -266,13 +276,7 @@ public class ConsoleLogger implements Log
 	 */
 	private void logMe(Object message, MyLogLevel level)
 	{
-		if (level.ordinal() <= getLevel().ordinal())
-		{
-			date.setTime(System.currentTimeMillis());
-			final String dateString = format.format(date);
-			System.out.println(MessageFormat.format(getFormattedString(), dateString, level.name().toUpperCase(), name,
-					message));
-		}
+		logMe(message, level, null);
 	}
 	
 	/**
@@ -282,41 +286,105 @@ public class ConsoleLogger implements Log
 	 *            the message
 	 * @param level
 	 *            the level
+	 * @param t
+	 *            the error whose stack trace is printed, can be null
 	 */
 	private void logMe(Object message, MyLogLevel level, Throwable t)
 	{
-		if (level.ordinal() <= getLevel().ordinal())
+		if (isEnabled(level))
 		{
-			date.setTime(System.currentTimeMillis());
-			final String dateString = format.format(date);
-			System.out.println(MessageFormat.format(getFormattedString(), dateString, level.name().toUpperCase(), name, message));
-			t.printStackTrace();
+			final StringBuilder builder = line.get();
+			builder.setLength(0);
+			appendLine(builder, System.currentTimeMillis(), level, message);
+			System.out.println(builder);
+			if (t != null)
+			{
+				t.printStackTrace();
+			}
 		}
 	}
 	
 	/**
-	 * Gets the formatted string.
+	 * Checks whether the messages of the given level are logged.
+	 * 
+	 * @param level
+	 *            the level
+	 * @return true, if is enabled
+	 */
+	boolean isEnabled(MyLogLevel level)
+	{
+		return level.ordinal() <= getLevel().ordinal();
+	}
+	
+	/**
+	 * Formats the message logged at the given time into the builder, the same
+	 * way the {@link Log} method of the level would log it with the error.
+	 * Used by the {@link AsyncLogDispatcher} to format a batch of messages.
 	 * 
-	 * @return the formatted string
+	 * @param builder
+	 *            the builder
+	 * @param time
+	 *            the time it was logged at
+	 * @param level
+	 *            the level
+	 * @param message
+	 *            the message
+	 * @param t
+	 *            the error, can be null
 	 */
-	private String getFormattedString()
+	void format(StringBuilder builder, long time, MyLogLevel level, Object message, Throwable t)
 	{
-		if (builder.length() == 0)
+		if (t == null)
 		{
-			builder.append(StringPool.LEFT_SQ_BRACKET);
-			builder.append("{0}");
-			builder.append(StringPool.RIGHT_SQ_BRACKET);
-			builder.append(StringPool.LEFT_SQ_BRACKET);
-			builder.append("{1}");
-			builder.append(StringPool.RIGHT_SQ_BRACKET);
-			builder.append(StringPool.LEFT_SQ_BRACKET);
-			builder.append("{2}");
-			builder.append(StringPool.RIGHT_SQ_BRACKET);
-			builder.append(StringPool.COLON);
-			builder.append(StringPool.SPACE);
-			builder.append("{3}");
+			appendLine(builder, time, level, message);
 		}
-		return builder.toString();
+		else
+		{
+			appendLine(builder, time, level, message + ", Error: " + t.getMessage());
+		}
+	}
+	
+	/**
+	 * Checks whether the stack trace of the error is printed for the level,
+	 * like the {@link Log} methods of it do.
+	 * 
+	 * @param level
+	 *            the level
+	 * @param t
+	 *            the error, can be null
+	 * @return true, if it is printed
+	 */
+	static boolean printsStackTrace(MyLogLevel level, Throwable t)
+	{
+		return t != null && level != MyLogLevel.TEST && level != MyLogLevel.LOG;
+	}
+	
+	/**
+	 * Appends the line as [date][LEVEL][name]: message.
+	 * 
+	 * @param builder
+	 *            the builder
+	 * @param time
+	 *            the time
+	 * @param level
+	 *            the level
+	 * @param message
+	 *            the message
+	 */
+	private void appendLine(StringBuilder builder, long time, MyLogLevel level, Object message)
+	{
+		builder.append(StringPool.LEFT_SQ_BRACKET);
+		timeStamp.get().append(builder, time);
+		builder.append(StringPool.RIGHT_SQ_BRACKET);
+		builder.append(StringPool.LEFT_SQ_BRACKET);
+		builder.append(level.name());
+		builder.append(StringPool.RIGHT_SQ_BRACKET);
+		builder.append(StringPool.LEFT_SQ_BRACKET);
+		builder.append(name);
+		builder.append(StringPool.RIGHT_SQ_BRACKET);
+		builder.append(StringPool.COLON);
+		builder.append(StringPool.SPACE);
+		builder.append(message);
 	}
 	
 	/*
@@ -326,7 +394,7 @@ public class ConsoleLogger implements Log
 	 */
 	public boolean isDebugEnabled()
 	{
-		return true;
+		return isEnabled(MyLogLevel.DEBUG);
 	}
 	
 	/*
@@ -336,7 +404,27 @@ public class ConsoleLogger implements Log
 	 */
 	public boolean isInfoEnabled()
 	{
-		return true;
+		return isEnabled(MyLogLevel.INFO);
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see com.varra.log.Log#isTraceEnabled()
+	 */
+	public boolean isTraceEnabled()
+	{
+		return isEnabled(MyLogLevel.TRACE);
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see com.varra.log.Log#isWarnEnabled()
+	 */
+	public boolean isWarnEnabled()
+	{
+		return isEnabled(MyLogLevel.WARN);
 	}
 	
 	/**
@@ -390,4 +478,54 @@ public class ConsoleLogger implements Log
 		builder.append("]");
 		return builder.toString();
 	}
+	
+	/**
+	 * Formats the time as dd-MM-yyyy HH:mm:ss.SSS, the date and time part is
+	 * formatted only once per second. Not thread safe, used per thread.
+	 */
+	private static final class TimeStamp
+	{
+		
+		/** The Date format, without the millis. */
+		private final SimpleDateFormat format = new SimpleDateFormat("dd-MM-yyyy HH:mm:ss");
+		
+		/** The date. */
+		private final Date date = new Date();
+		
+		/** The second formatted last. */
+		private long second = Long.MIN_VALUE;
+		
+		/** The formatted second. */
+		private String formatted;
+		
+		/**
+		 * Appends the formatted time to the builder.
+		 * 
+		 * @param builder
+		 *            the builder
+		 * @param time
+		 *            the time
+		 */
+		void append(StringBuilder builder, long time)
+		{
+			final long millis = time % 1000 < 0 ? time % 1000 + 1000 : time % 1000;
+			if (time - millis != second)
+			{
+				second = time - millis;
+				date.setTime(second);
+				formatted = format.format(date);
+			}
+			builder.append(formatted);
+			builder.append('.');
+			if (millis < 100)
+			{
+				builder.append('0');
+			}
+			if (millis < 10)
+			{
+				builder.append('0');
+			}
+			builder.append(millis);
+		}
+	}
 }
@@ -295,6 +295,24 @@ public interface Log extends Shutdownable
 	 */
 	public boolean isInfoEnabled();
 	
+	/**
+	 * Check whether this category is enabled for the <code>TRACE</code> Level.
+	 * See also {@link #isDebugEnabled}.
+	 * 
+	 * @return boolean - <code>true</code> if this category is enabled for level
+	 *         trace, <code>false</code> otherwise.
+	 */
+	public boolean isTraceEnabled();
+	
+	/**
+	 * Check whether this category is enabled for the <code>WARN</code> Level.
+	 * See also {@link #isDebugEnabled}.
+	 * 
+	 * @return boolean - <code>true</code> if this category is enabled for level
+	 *         warn, <code>false</code> otherwise.
+	 */
+	public boolean isWarnEnabled();
+	
 	/**
 	 * Set the level of this Category. If you are passing any of
 	 * <code>MyLogLevel.DEBUG</code>, <code>MyLogLevel.INFO</code>,
@@ -258,6 +258,22 @@ public class Log4jLogger implements Log
 		return logger.isInfoEnabled();
 	}
 	
+	/* (non-Javadoc)
+	 * @see com.varra.log.Log#isTraceEnabled()
+	 */
+	public boolean isTraceEnabled()
+	{
+		return logger.isTraceEnabled();
+	}
+	
+	/* (non-Javadoc)
+	 * @see com.varra.log.Log#isWarnEnabled()
+	 */
+	public boolean isWarnEnabled()
+	{
+		return logger.isEnabledFor(Level.WARN);
+	}
+	
 	/* (non-Javadoc)
 	 * @see com.varra.log.Log#setLevel(com.varra.log.MyLogLevel)
 	 */
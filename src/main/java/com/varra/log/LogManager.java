@@ -18,6 +18,7 @@
  */
 package com.varra.log;
 
+import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.Map;
 
@@ -28,7 +29,14 @@ import com.varra.util.ObjectUtils;
 import com.varra.util.ShutdownMode;
 
 /**
- * TODO Description go here.
+ * Creates and holds the {@link Logger}s by their names.
+ * <p>
+ * The loggers write on the caller thread by default. In async mode, turned
+ * on by {@link #enableAsync(int, OverflowPolicy, MyLogLevel)} or the
+ * {@link #LOG_ASYNC} property, the log events are handed over to a lock-free
+ * ring and written in batches by a background thread, so the callers do not
+ * pay for the formatting and I/O. The pending events are written on
+ * {@link #flush()} and {@link #shutdownAll(ShutdownMode)}.
  * 
  * @author <a href="mailto:varra@outlook.com">Rajakrishna V.
  *         Reddy</a>
@@ -41,7 +49,7 @@ public class LogManager implements LoggerConstants
 {
 	
 	/** The loggers. */
-	private static final Map<String, Logger> loggers = new LinkedHashMap<String, Logger>();
+	private static final Map<String, Logger> loggers = Collections.synchronizedMap(new LinkedHashMap<String, Logger>());
 	
 	/** The log class name. */
 	private static String logClassName;
@@ -52,6 +60,12 @@ public class LogManager implements LoggerConstants
 	/** The first time. */
 	private static boolean firstTime = true;
 	
+	/** The dispatcher of the async mode, null if it is off. */
+	private static volatile AsyncLogDispatcher dispatcher;
+	
+	/** Whether the async mode properties are read. */
+	private static volatile boolean asyncConfigured;
+	
 	/**
 	 * Gets the logger.
 	 * 
@@ -61,13 +75,14 @@ public class LogManager implements LoggerConstants
 	 */
 	public static Logger getLogger(String name)
 	{
+		configureAsync();
 		if (loggers.get(name) == null)
 		{
 			try
 			{
 				final Log log = getLogClass(name).newInstance();
 				log.setName(name);
-				final Logger logger = new Logger(log, name);
+				final Logger logger = new Logger(wrap(log), name);
 				loggers.put(name, logger);
 			}
 			catch (InstantiationException e)
@@ -176,13 +191,153 @@ public class LogManager implements LoggerConstants
 	}
 	
 	/**
-	 * Shutdown all.
+	 * Turns on the async mode for all the loggers, the existing ones included.
+	 * If it is on already, the loggers are moved to a new buffer once the
+	 * pending events are written.
+	 * 
+	 * @param bufferSize
+	 *            the no of events that can be buffered
+	 * @param policy
+	 *            what to do with an event when the buffer is full
+	 * @param overflowLevel
+	 *            the least severe level that is not dropped by
+	 *            {@link OverflowPolicy#DROP_BELOW_LEVEL}
+	 */
+	public static synchronized void enableAsync(int bufferSize, OverflowPolicy policy, MyLogLevel overflowLevel)
+	{
+		asyncConfigured = true;
+		final AsyncLogDispatcher previous = dispatcher;
+		dispatcher = new AsyncLogDispatcher(bufferSize, policy, overflowLevel);
+		rewrap();
+		if (previous != null)
+		{
+			previous.shutdown(ShutdownMode.GRACEFUL_SHUTDOWN);
+		}
+	}
+	
+	/**
+	 * Turns off the async mode, the pending events are written before it
+	 * returns.
+	 */
+	public static synchronized void disableAsync()
+	{
+		asyncConfigured = true;
+		final AsyncLogDispatcher previous = dispatcher;
+		dispatcher = null;
+		rewrap();
+		if (previous != null)
+		{
+			previous.shutdown(ShutdownMode.GRACEFUL_SHUTDOWN);
+		}
+	}
+	
+	/**
+	 * Checks if the async mode is on.
+	 * 
+	 * @return true, if is async
+	 */
+	public static boolean isAsync()
+	{
+		return dispatcher != null;
+	}
+	
+	/**
+	 * Waits till the events logged so far are written, in async mode.
+	 */
+	public static void flush()
+	{
+		final AsyncLogDispatcher current = dispatcher;
+		if (current != null)
+		{
+			current.flush();
+		}
+	}
+	
+	/**
+	 * Gets the no of events dropped by the {@link OverflowPolicy} since the
+	 * async mode was turned on.
+	 * 
+	 * @return the dropped count
+	 */
+	public static long getDroppedCount()
+	{
+		final AsyncLogDispatcher current = dispatcher;
+		return current == null ? 0 : current.getDroppedCount();
+	}
+	
+	/**
+	 * Turns on the async mode if it is asked by the {@link #LOG_ASYNC}
+	 * property, only once.
+	 */
+	private static void configureAsync()
+	{
+		if (!asyncConfigured)
+		{
+			asyncConfigured = true;
+			try
+			{
+				final Object async = VarraProperties.getAppProperty(LOG_ASYNC);
+				if (ObjectUtils.isNotNull(async) && Boolean.parseBoolean(async.toString().trim()))
+				{
+					final Object bufferSize = VarraProperties.getAppProperty(LOG_ASYNC_BUFFER_SIZE);
+					final Object policy = VarraProperties.getAppProperty(LOG_ASYNC_OVERFLOW_POLICY);
+					final Object level = VarraProperties.getAppProperty(LOG_ASYNC_OVERFLOW_LEVEL);
+					enableAsync(ObjectUtils.isNotNull(bufferSize) ? Integer.parseInt(bufferSize.toString().trim())
+							: LOG_ASYNC_BUFFER_SIZE_DEFAULT_VALUE, OverflowPolicy.getPolicy(
+							ObjectUtils.isNotNull(policy) ? policy.toString() : null, OverflowPolicy.BLOCK),
+							ObjectUtils.isNotNull(level) ? MyLogLevel.valueOf(level.toString().trim().toUpperCase()) : MyLogLevel.WARN);
+				}
+			}
+			catch (Exception e)
+			{
+				System.err.println("Unable to turn on the async mode of the loggers, Error: " + e.getMessage());
+			}
+		}
+	}
+	
+	/**
+	 * Wraps the log for the current mode.
+	 * 
+	 * @param log
+	 *            the log
+	 * @return the log
+	 */
+	private static Log wrap(Log log)
+	{
+		final AsyncLogDispatcher current = dispatcher;
+		return current == null ? log : new AsyncLog(log, current);
+	}
+	
+	/**
+	 * Wraps the logs of the existing loggers for the current mode.
+	 */
+	private static void rewrap()
+	{
+		synchronized (loggers)
+		{
+			for (final Logger logger : loggers.values())
+			{
+				final Log log = logger.getLog();
+				logger.setLog(wrap(log instanceof AsyncLog ? ((AsyncLog) log).getLog() : log));
+			}
+		}
+	}
+	
+	/**
+	 * Shutdown all, the pending events of the async mode are written before it
+	 * returns on {@link ShutdownMode#GRACEFUL_SHUTDOWN}.
 	 * 
 	 * @param mode
 	 *            the mode
 	 */
-	public static void shutdownAll(ShutdownMode mode)
+	public static synchronized void shutdownAll(ShutdownMode mode)
 	{
+		final AsyncLogDispatcher previous = dispatcher;
+		dispatcher = null;
+		if (previous != null)
+		{
+			previous.shutdown(mode);
+		}
 		loggers.clear();
 	}
 }
@@ -40,8 +40,11 @@ import com.varra.util.Shutdownable;
 public class Logger implements Shutdownable
 {
 	
-	/** The customized actual log implementation. */
-	private final Log logger;
+	/**
+	 * The customized actual log implementation, swapped by the
+	 * {@link LogManager} when the async mode is turned on or off.
+	 */
+	private volatile Log logger;
 	
 	/** The name. */
 	private final String name;
@@ -88,6 +91,27 @@ public class Logger implements Shutdownable
 		return LogManager.getLogger(name);
 	}
 	
+	/**
+	 * Gets the actual log implementation.
+	 * 
+	 * @return the log
+	 */
+	Log getLog()
+	{
+		return logger;
+	}
+	
+	/**
+	 * Sets the actual log implementation.
+	 * 
+	 * @param log
+	 *            the log
+	 */
+	void setLog(Log log)
+	{
+		this.logger = log;
+	}
+	
 	/**
 	 * Gets the name.
 	 * 
@@ -128,6 +152,97 @@ public class Logger implements Shutdownable
 		logger.trace(message, t);
 	}
 	
+	/**
+	 * Log a message with the {@link Level#TRACE TRACE} level including the stack
+	 * trace of the {@link Throwable}<code>t</code> passed as parameter, same
+	 * as {@link #trace(Object, Throwable)}.
+	 * 
+	 * @param message
+	 *            the message
+	 * @param t
+	 *            the t
+	 */
+	public void trace(String message, Throwable t)
+	{
+		logger.trace(message, t);
+	}
+	
+	/**
+	 * Log a parameterized message with the {@link Level#TRACE TRACE} level, the
+	 * message is formatted only if the level is enabled. See
+	 * {@link MessageFormatter} for the format.
+	 * 
+	 * @param format
+	 *            the format, with <code>{}</code> placeholders
+	 * @param arg
+	 *            the arg
+	 */
+	public void trace(String format, Object arg)
+	{
+		if (isTraceEnabled())
+		{
+			formatAndLog(MyLogLevel.TRACE, format, new Object[] { arg });
+		}
+	}
+	
+	/**
+	 * Log a parameterized message with the {@link Level#TRACE TRACE} level, the
+	 * message is formatted only if the level is enabled.
+	 * 
+	 * @param format
+	 *            the format, with <code>{}</code> placeholders
+	 * @param arg1
+	 *            the arg1
+	 * @param arg2
+	 *            the arg2
+	 */
+	public void trace(String format, Object arg1, Object arg2)
+	{
+		if (isTraceEnabled())
+		{
+			formatAndLog(MyLogLevel.TRACE, format, new Object[] { arg1, arg2 });
+		}
+	}
+	
+	/**
+	 * Log a parameterized message with the {@link Level#TRACE TRACE} level, the
+	 * message is formatted only if the level is enabled.
+	 * 
+	 * @param format
+	 *            the format, with <code>{}</code> placeholders
+	 * @param arg1
+	 *            the arg1
+	 * @param arg2
+	 *            the arg2
+	 * @param arg3
+	 *            the arg3
+	 */
+	public void trace(String format, Object arg1, Object arg2, Object arg3)
+	{
+		if (isTraceEnabled())
+		{
+			formatAndLog(MyLogLevel.TRACE, format, new Object[] { arg1, arg2, arg3 });
+		}
+	}
+	
+	/**
+	 * Log a parameterized message with the {@link Level#TRACE TRACE} level, the
+	 * message is formatted only if the level is enabled.
+	 * 
+	 * @param format
+	 *            the format, with <code>{}</code> placeholders
+	 * @param args
+	 *            the args, the last one is logged as the error if it is a
+	 *            {@link Throwable} without a placeholder
+	 */
+	public void trace(String format, Object... args)
+	{
+		if (isTraceEnabled())
+		{
+			formatAndLog(MyLogLevel.TRACE, format, args);
+		}
+	}
+	
 	/**
 	 * Log a message object with the {@link Level#INFO INFO} Level.
 	 * 
@@ -156,6 +271,97 @@ public class Logger implements Shutdownable
 		logger.info(message, t);
 	}
 	
+	/**
+	 * Log a message with the {@link Level#INFO INFO} level including the stack
+	 * trace of the {@link Throwable}<code>t</code> passed as parameter, same
+	 * as {@link #info(Object, Throwable)}.
+	 * 
+	 * @param message
+	 *            the message
+	 * @param t
+	 *            the t
+	 */
+	public void info(String message, Throwable t)
+	{
+		logger.info(message, t);
+	}
+	
+	/**
+	 * Log a parameterized message with the {@link Level#INFO INFO} level, the
+	 * message is formatted only if the level is enabled. See
+	 * {@link MessageFormatter} for the format.
+	 * 
+	 * @param format
+	 *            the format, with <code>{}</code> placeholders
+	 * @param arg
+	 *            the arg
+	 */
+	public void info(String format, Object arg)
+	{
+		if (isInfoEnabled())
+		{
+			formatAndLog(MyLogLevel.INFO, format, new Object[] { arg });
+		}
+	}
+	
+	/**
+	 * Log a parameterized message with the {@link Level#INFO INFO} level, the
+	 * message is formatted only if the level is enabled.
+	 * 
+	 * @param format
+	 *            the format, with <code>{}</code> placeholders
+	 * @param arg1
+	 *            the arg1
+	 * @param arg2
+	 *            the arg2
+	 */
+	public void info(String format, Object arg1, Object arg2)
+	{
+		if (isInfoEnabled())
+		{
+			formatAndLog(MyLogLevel.INFO, format, new Object[] { arg1, arg2 });
+		}
+	}
+	
+	/**
+	 * Log a parameterized message with the {@link Level#INFO INFO} level, the
+	 * message is formatted only if the level is enabled.
+	 * 
+	 * @param format
+	 *            the format, with <code>{}</code> placeholders
+	 * @param arg1
+	 *            the arg1
+	 * @param arg2
+	 *            the arg2
+	 * @param arg3
+	 *            the arg3
+	 */
+	public void info(String format, Object arg1, Object arg2, Object arg3)
+	{
+		if (isInfoEnabled())
+		{
+			formatAndLog(MyLogLevel.INFO, format, new Object[] { arg1, arg2, arg3 });
+		}
+	}
+	
+	/**
+	 * Log a parameterized message with the {@link Level#INFO INFO} level, the
+	 * message is formatted only if the level is enabled.
+	 * 
+	 * @param format
+	 *            the format, with <code>{}</code> placeholders
+	 * @param args
+	 *            the args, the last one is logged as the error if it is a
+	 *            {@link Throwable} without a placeholder
+	 */
+	public void info(String format, Object... args)
+	{
+		if (isInfoEnabled())
+		{
+			formatAndLog(MyLogLevel.INFO, format, args);
+		}
+	}
+	
 	/**
 	 * Log a message object with the {@link Level#DEBUG DEBUG} level.
 	 * 
@@ -185,6 +391,97 @@ public class Logger implements Shutdownable
 		logger.debug(message, t);
 	}
 	
+	/**
+	 * Log a message with the {@link Level#DEBUG DEBUG} level including the stack
+	 * trace of the {@link Throwable}<code>t</code> passed as parameter, same
+	 * as {@link #debug(Object, Throwable)}.
+	 * 
+	 * @param message
+	 *            the message
+	 * @param t
+	 *            the t
+	 */
+	public void debug(String message, Throwable t)
+	{
+		logger.debug(message, t);
+	}
+	
+	/**
+	 * Log a parameterized message with the {@link Level#DEBUG DEBUG} level, the
+	 * message is formatted only if the level is enabled. See
+	 * {@link MessageFormatter} for the format.
+	 * 
+	 * @param format
+	 *            the format, with <code>{}</code> placeholders
+	 * @param arg
+	 *            the arg
+	 */
+	public void debug(String format, Object arg)
+	{
+		if (isDebugEnabled())
+		{
+			formatAndLog(MyLogLevel.DEBUG, format, new Object[] { arg });
+		}
+	}
+	
+	/**
+	 * Log a parameterized message with the {@link Level#DEBUG DEBUG} level, the
+	 * message is formatted only if the level is enabled.
+	 * 
+	 * @param format
+	 *            the format, with <code>{}</code> placeholders
+	 * @param arg1
+	 *            the arg1
+	 * @param arg2
+	 *            the arg2
+	 */
+	public void debug(String format, Object arg1, Object arg2)
+	{
+		if (isDebugEnabled())
+		{
+			formatAndLog(MyLogLevel.DEBUG, format, new Object[] { arg1, arg2 });
+		}
+	}
+	
+	/**
+	 * Log a parameterized message with the {@link Level#DEBUG DEBUG} level, the
+	 * message is formatted only if the level is enabled.
+	 * 
+	 * @param format
+	 *            the format, with <code>{}</code> placeholders
+	 * @param arg1
+	 *            the arg1
+	 * @param arg2
+	 *            the arg2
+	 * @param arg3
+	 *            the arg3
+	 */
+	public void debug(String format, Object arg1, Object arg2, Object arg3)
+	{
+		if (isDebugEnabled())
+		{
+			formatAndLog(MyLogLevel.DEBUG, format, new Object[] { arg1, arg2, arg3 });
+		}
+	}
+	
+	/**
+	 * Log a parameterized message with the {@link Level#DEBUG DEBUG} level, the
+	 * message is formatted only if the level is enabled.
+	 * 
+	 * @param format
+	 *            the format, with <code>{}</code> placeholders
+	 * @param args
+	 *            the args, the last one is logged as the error if it is a
+	 *            {@link Throwable} without a placeholder
+	 */
+	public void debug(String format, Object... args)
+	{
+		if (isDebugEnabled())
+		{
+			formatAndLog(MyLogLevel.DEBUG, format, args);
+		}
+	}
+	
 	/**
 	 * Log a message object with the {@link Level#WARN WARN} Level.
 	 * 
@@ -211,6 +508,97 @@ public class Logger implements Shutdownable
 		logger.warn(message, t);
 	}
 	
+	/**
+	 * Log a message with the {@link Level#WARN WARN} level including the stack
+	 * trace of the {@link Throwable}<code>t</code> passed as parameter, same
+	 * as {@link #warn(Object, Throwable)}.
+	 * 
+	 * @param message
+	 *            the message
+	 * @param t
+	 *            the t
+	 */
+	public void warn(String message, Throwable t)
+	{
+		logger.warn(message, t);
+	}
+	
+	/**
+	 * Log a parameterized message with the {@link Level#WARN WARN} level, the
+	 * message is formatted only if the level is enabled. See
+	 * {@link MessageFormatter} for the format.
+	 * 
+	 * @param format
+	 *            the format, with <code>{}</code> placeholders
+	 * @param arg
+	 *            the arg
+	 */
+	public void warn(String format, Object arg)
+	{
+		if (isWarnEnabled())
+		{
+			formatAndLog(MyLogLevel.WARN, format, new Object[] { arg });
+		}
+	}
+	
+	/**
+	 * Log a parameterized message with the {@link Level#WARN WARN} level, the
+	 * message is formatted only if the level is enabled.
+	 * 
+	 * @param format
+	 *            the format, with <code>{}</code> placeholders
+	 * @param arg1
+	 *            the arg1
+	 * @param arg2
+	 *            the arg2
+	 */
+	public void warn(String format, Object arg1, Object arg2)
+	{
+		if (isWarnEnabled())
+		{
+			formatAndLog(MyLogLevel.WARN, format, new Object[] { arg1, arg2 });
+		}
+	}
+	
+	/**
+	 * Log a parameterized message with the {@link Level#WARN WARN} level, the
+	 * message is formatted only if the level is enabled.
+	 * 
+	 * @param format
+	 *            the format, with <code>{}</code> placeholders
+	 * @param arg1
+	 *            the arg1
+	 * @param arg2
+	 *            the arg2
+	 * @param arg3
+	 *            the arg3
+	 */
+	public void warn(String format, Object arg1, Object arg2, Object arg3)
+	{
+		if (isWarnEnabled())
+		{
+			formatAndLog(MyLogLevel.WARN, format, new Object[] { arg1, arg2, arg3 });
+		}
+	}
+	
+	/**
+	 * Log a parameterized message with the {@link Level#WARN WARN} level, the
+	 * message is formatted only if the level is enabled.
+	 * 
+	 * @param format
+	 *            the format, with <code>{}</code> placeholders
+	 * @param args
+	 *            the args, the last one is logged as the error if it is a
+	 *            {@link Throwable} without a placeholder
+	 */
+	public void warn(String format, Object... args)
+	{
+		if (isWarnEnabled())
+		{
+			formatAndLog(MyLogLevel.WARN, format, args);
+		}
+	}
+	
 	/**
 	 * Log a message object with the {@link Level#ERROR ERROR} Level..
 	 * 
@@ -237,6 +625,85 @@ public class Logger implements Shutdownable
 		logger.error(message, t);
 	}
 	
+	/**
+	 * Log a message with the {@link Level#ERROR ERROR} level including the stack
+	 * trace of the {@link Throwable}<code>t</code> passed as parameter, same
+	 * as {@link #error(Object, Throwable)}.
+	 * 
+	 * @param message
+	 *            the message
+	 * @param t
+	 *            the t
+	 */
+	public void error(String message, Throwable t)
+	{
+		logger.error(message, t);
+	}
+	
+	/**
+	 * Log a parameterized message with the {@link Level#ERROR ERROR} level, the
+	 * message is formatted only if the level is enabled. See
+	 * {@link MessageFormatter} for the format.
+	 * 
+	 * @param format
+	 *            the format, with <code>{}</code> placeholders
+	 * @param arg
+	 *            the arg
+	 */
+	public void error(String format, Object arg)
+	{
+		formatAndLog(MyLogLevel.ERROR, format, new Object[] { arg });
+	}
+	
+	/**
+	 * Log a parameterized message with the {@link Level#ERROR ERROR} level, the
+	 * message is formatted only if the level is enabled.
+	 * 
+	 * @param format
+	 *            the format, with <code>{}</code> placeholders
+	 * @param arg1
+	 *            the arg1
+	 * @param arg2
+	 *            the arg2
+	 */
+	public void error(String format, Object arg1, Object arg2)
+	{
+		formatAndLog(MyLogLevel.ERROR, format, new Object[] { arg1, arg2 });
+	}
+	
+	/**
+	 * Log a parameterized message with the {@link Level#ERROR ERROR} level, the
+	 * message is formatted only if the level is enabled.
+	 * 
+	 * @param format
+	 *            the format, with <code>{}</code> placeholders
+	 * @param arg1
+	 *            the arg1
+	 * @param arg2
+	 *            the arg2
+	 * @param arg3
+	 *            the arg3
+	 */
+	public void error(String format, Object arg1, Object arg2, Object arg3)
+	{
+		formatAndLog(MyLogLevel.ERROR, format, new Object[] { arg1, arg2, arg3 });
+	}
+	
+	/**
+	 * Log a parameterized message with the {@link Level#ERROR ERROR} level, the
+	 * message is formatted only if the level is enabled.
+	 * 
+	 * @param format
+	 *            the format, with <code>{}</code> placeholders
+	 * @param args
+	 *            the args, the last one is logged as the error if it is a
+	 *            {@link Throwable} without a placeholder
+	 */
+	public void error(String format, Object... args)
+	{
+		formatAndLog(MyLogLevel.ERROR, format, args);
+	}
+	
 	/**
 	 * Log a message object with the {@link Level#FATAL FATAL} Level.
 	 * 
@@ -264,6 +731,85 @@ public class Logger implements Shutdownable
 		logger.fatal(message, t);
 	}
 	
+	/**
+	 * Log a message with the {@link Level#FATAL FATAL} level including the stack
+	 * trace of the {@link Throwable}<code>t</code> passed as parameter, same
+	 * as {@link #fatal(Object, Throwable)}.
+	 * 
+	 * @param message
+	 *            the message
+	 * @param t
+	 *            the t
+	 */
+	public void fatal(String message, Throwable t)
+	{
+		logger.fatal(message, t);
+	}
+	
+	/**
+	 * Log a parameterized message with the {@link Level#FATAL FATAL} level, the
+	 * message is formatted only if the level is enabled. See
+	 * {@link MessageFormatter} for the format.
+	 * 
+	 * @param format
+	 *            the format, with <code>{}</code> placeholders
+	 * @param arg
+	 *            the arg
+	 */
+	public void fatal(String format, Object arg)
+	{
+		formatAndLog(MyLogLevel.FATAL, format, new Object[] { arg });
+	}
+	
+	/**
+	 * Log a parameterized message with the {@link Level#FATAL FATAL} level, the
+	 * message is formatted only if the level is enabled.
+	 * 
+	 * @param format
+	 *            the format, with <code>{}</code> placeholders
+	 * @param arg1
+	 *            the arg1
+	 * @param arg2
+	 *            the arg2
+	 */
+	public void fatal(String format, Object arg1, Object arg2)
+	{
+		formatAndLog(MyLogLevel.FATAL, format, new Object[] { arg1, arg2 });
+	}
+	
+	/**
+	 * Log a parameterized message with the {@link Level#FATAL FATAL} level, the
+	 * message is formatted only if the level is enabled.
+	 * 
+	 * @param format
+	 *            the format, with <code>{}</code> placeholders
+	 * @param arg1
+	 *            the arg1
+	 * @param arg2
+	 *            the arg2
+	 * @param arg3
+	 *            the arg3
+	 */
+	public void fatal(String format, Object arg1, Object arg2, Object arg3)
+	{
+		formatAndLog(MyLogLevel.FATAL, format, new Object[] { arg1, arg2, arg3 });
+	}
+	
+	/**
+	 * Log a parameterized message with the {@link Level#FATAL FATAL} level, the
+	 * message is formatted only if the level is enabled.
+	 * 
+	 * @param format
+	 *            the format, with <code>{}</code> placeholders
+	 * @param args
+	 *            the args, the last one is logged as the error if it is a
+	 *            {@link Throwable} without a placeholder
+	 */
+	public void fatal(String format, Object... args)
+	{
+		formatAndLog(MyLogLevel.FATAL, format, args);
+	}
+	
 	/**
 	 * Log a message object with the test Level. <br>
 	 * <br>
@@ -389,6 +935,111 @@ public class Logger implements Shutdownable
 		return logger.isInfoEnabled();
 	}
 	
+	/**
+	 * Check whether this category is enabled for the trace Level. See also
+	 * {@link #isDebugEnabled}.
+	 * 
+	 * @return boolean - <code>true</code> if this category is enabled for level
+	 *         trace, <code>false</code> otherwise.
+	 */
+	public boolean isTraceEnabled()
+	{
+		return logger.isTraceEnabled();
+	}
+	
+	/**
+	 * Check whether this category is enabled for the warn Level. See also
+	 * {@link #isDebugEnabled}.
+	 * 
+	 * @return boolean - <code>true</code> if this category is enabled for level
+	 *         warn, <code>false</code> otherwise.
+	 */
+	public boolean isWarnEnabled()
+	{
+		return logger.isWarnEnabled();
+	}
+	
+	/**
+	 * Formats the parameterized message and logs it with the level, along with
+	 * the trailing {@link Throwable} of the args if any.
+	 * 
+	 * @param level
+	 *            the level
+	 * @param format
+	 *            the format
+	 * @param args
+	 *            the args
+	 */
+	private void formatAndLog(MyLogLevel level, String format, Object[] args)
+	{
+		final Log log = logger;
+		final String message = MessageFormatter.format(format, args);
+		final Throwable t = MessageFormatter.getThrowable(format, args);
+		switch (level)
+		{
+			case TRACE:
+				if (t == null)
+				{
+					log.trace(message);
+				}
+				else
+				{
+					log.trace(message, t);
+				}
+				break;
+			case DEBUG:
+				if (t == null)
+				{
+					log.debug(message);
+				}
+				else
+				{
+					log.debug(message, t);
+				}
+				break;
+			case INFO:
+				if (t == null)
+				{
+					log.info(message);
+				}
+				else
+				{
+					log.info(message, t);
+				}
+				break;
+			case WARN:
+				if (t == null)
+				{
+					log.warn(message);
+				}
+				else
+				{
+					log.warn(message, t);
+				}
+				break;
+			case ERROR:
+				if (t == null)
+				{
+					log.error(message);
+				}
+				else
+				{
+					log.error(message, t);
+				}
+				break;
+			default:
+				if (t == null)
+				{
+					log.fatal(message);
+				}
+				else
+				{
+					log.fatal(message, t);
+				}
+				break;
+		}
+	}
+	
 	/**
 	 * Set the level of this Category. If you are passing any of
 	 * <code>MyLogLevel.DEBUG</code>, <code>MyLogLevel.INFO</code>,
@@ -35,5 +35,20 @@ public interface LoggerConstants
 {
 	
 	String LOG_CLASS_FQ_NAME = "logClassName";
+	
+	/** Turns on the async mode of the loggers, true or false. */
+	String LOG_ASYNC = "log.async";
+	
+	/** The no of events the async loggers can buffer. */
+	String LOG_ASYNC_BUFFER_SIZE = "log.async.bufferSize";
+	
+	/** The {@link OverflowPolicy} of the async loggers. */
+	String LOG_ASYNC_OVERFLOW_POLICY = "log.async.overflowPolicy";
+	
+	/** The overflow level of {@link OverflowPolicy#DROP_BELOW_LEVEL}. */
+	String LOG_ASYNC_OVERFLOW_LEVEL = "log.async.overflowLevel";
+	
+	/** The default no of events the async loggers can buffer. */
+	int LOG_ASYNC_BUFFER_SIZE_DEFAULT_VALUE = 8192;
 }
 
@@ -0,0 +1,251 @@
+/*
+ * utils4j - MessageFormatter.java, Oct 18, 2026 3:26:40 PM
+ * 
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.varra.log;
+
+import java.util.Arrays;
+
+import com.varra.classification.InterfaceAudience;
+import com.varra.classification.InterfaceStability;
+import com.varra.io.FastCharBuffer;
+
+/**
+ * Formats the parameterized log messages, like
+ * <code>"Received a new Timer Task: {}"</code>, by replacing each
+ * <code>{}</code> with the next argument. A placeholder can be escaped as
+ * <code>\{}</code>.
+ * <p>
+ * If there are more arguments than the placeholders and the last one is a
+ * {@link Throwable}, it is not formatted but treated as the error of the
+ * message, see {@link #getThrowable(String, Object[])}.
+ * <p>
+ * The message is built in a {@link FastCharBuffer} of the caller thread, which
+ * is reused by every call.
+ * 
+ * @author <a href="mailto:varra@outlook.com">Rajakrishna V.
+ *         Reddy</a>
+ * @version 3.0
+ */
+@InterfaceAudience.Public
+@InterfaceStability.Evolving
+public final class MessageFormatter
+{
+	
+	/** The buffers bigger than this are not kept for the next message. */
+	private static final int MAX_REUSED_SIZE = 8192;
+	
+	/** The buffer of each thread. */
+	private static final ThreadLocal<FastCharBuffer> buffer = new ThreadLocal<FastCharBuffer>()
+	{
+		@Override
+		protected FastCharBuffer initialValue()
+		{
+			return new FastCharBuffer(256);
+		}
+	};
+	
+	/**
+	 * Instantiates a new message formatter.
+	 */
+	private MessageFormatter()
+	{
+		
+	}
+	
+	/**
+	 * Formats the pattern with the arguments.
+	 * 
+	 * @param pattern
+	 *            the pattern
+	 * @param args
+	 *            the arguments
+	 * @return the formatted message
+	 */
+	public static String format(final String pattern, final Object... args)
+	{
+		if (pattern == null || args == null || args.length == 0)
+		{
+			return pattern;
+		}
+		FastCharBuffer builder = buffer.get();
+		if (builder.length() > 0)
+		{
+			/** Re-entered by the toString() of an argument. */
+			builder = new FastCharBuffer(pattern.length() + 64);
+		}
+		try
+		{
+			int start = 0;
+			int argIndex = 0;
+			final int length = pattern.length();
+			while (argIndex < args.length)
+			{
+				final int index = pattern.indexOf("{}", start);
+				if (index < 0)
+				{
+					break;
+				}
+				if (index > 0 && pattern.charAt(index - 1) == '\\')
+				{
+					if (index > 1 && pattern.charAt(index - 2) == '\\')
+					{
+						/** The escape char is escaped, \\{} is \ plus a placeholder. */
+						builder.append(pattern, start, index - 1);
+						appendArg(builder, args[argIndex++]);
+					}
+					else
+					{
+						builder.append(pattern, start, index - 1);
+						builder.append("{}");
+					}
+				}
+				else
+				{
+					builder.append(pattern, start, index);
+					appendArg(builder, args[argIndex++]);
+				}
+				start = index + 2;
+			}
+			if (start == 0)
+			{
+				return pattern;
+			}
+			builder.append(pattern, start, length);
+			return builder.toString();
+		}
+		finally
+		{
+			if (builder == buffer.get())
+			{
+				if (builder.length() > MAX_REUSED_SIZE)
+				{
+					buffer.remove();
+				}
+				else
+				{
+					builder.clear();
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Gets the error of the message, the last argument if it is a
+	 * {@link Throwable} which is not consumed by a placeholder.
+	 * 
+	 * @param pattern
+	 *            the pattern
+	 * @param args
+	 *            the arguments
+	 * @return the throwable, null if there is none
+	 */
+	public static Throwable getThrowable(final String pattern, final Object... args)
+	{
+		if (args == null || args.length == 0 || !(args[args.length - 1] instanceof Throwable))
+		{
+			return null;
+		}
+		return countPlaceholders(pattern) < args.length ? (Throwable) args[args.length - 1] : null;
+	}
+	
+	/**
+	 * Counts the placeholders of the pattern, the escaped ones excluded.
+	 * 
+	 * @param pattern
+	 *            the pattern
+	 * @return the no of placeholders
+	 */
+	static int countPlaceholders(final String pattern)
+	{
+		if (pattern == null)
+		{
+			return 0;
+		}
+		int count = 0;
+		int index = pattern.indexOf("{}");
+		while (index >= 0)
+		{
+			if (index == 0 || pattern.charAt(index - 1) != '\\' || (index > 1 && pattern.charAt(index - 2) == '\\'))
+			{
+				count++;
+			}
+			index = pattern.indexOf("{}", index + 2);
+		}
+		return count;
+	}
+	
+	/**
+	 * Appends the argument, the arrays are appended with their elements.
+	 * 
+	 * @param builder
+	 *            the builder
+	 * @param arg
+	 *            the arg
+	 */
+	private static void appendArg(final FastCharBuffer builder, final Object arg)
+	{
+		if (arg == null)
+		{
+			builder.append("null");
+		}
+		else if (arg instanceof String)
+		{
+			builder.append((String) arg);
+		}
+		else if (!arg.getClass().isArray())
+		{
+			builder.append(String.valueOf(arg));
+		}
+		else if (arg instanceof Object[])
+		{
+			builder.append(Arrays.deepToString((Object[]) arg));
+		}
+		else if (arg instanceof int[])
+		{
+			builder.append(Arrays.toString((int[]) arg));
+		}
+		else if (arg instanceof long[])
+		{
+			builder.append(Arrays.toString((long[]) arg));
+		}
+		else if (arg instanceof byte[])
+		{
+			builder.append(Arrays.toString((byte[]) arg));
+		}
+		else if (arg instanceof char[])
+		{
+			builder.append(Arrays.toString((char[]) arg));
+		}
+		else if (arg instanceof short[])
+		{
+			builder.append(Arrays.toString((short[]) arg));
+		}
+		else if (arg instanceof boolean[])
+		{
+			builder.append(Arrays.toString((boolean[]) arg));
+		}
+		else if (arg instanceof float[])
+		{
+			builder.append(Arrays.toString((float[]) arg));
+		}
+		else
+		{
+			builder.append(Arrays.toString((double[]) arg));
+		}
+	}
+}
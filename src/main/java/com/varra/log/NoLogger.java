@@ -288,6 +288,28 @@ public class NoLogger implements Log
 		return false;
 	}
 	
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see com.varra.log.Log#isTraceEnabled()
+	 */
+	@Override
+	public boolean isTraceEnabled()
+	{
+		return false;
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see com.varra.log.Log#isWarnEnabled()
+	 */
+	@Override
+	public boolean isWarnEnabled()
+	{
+		return false;
+	}
+	
 	/*
 	 * (non-Javadoc)
 	 * 
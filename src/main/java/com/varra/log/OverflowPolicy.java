@@ -0,0 +1,79 @@
+/*
+ * utils4j - OverflowPolicy.java, Oct 18, 2026 2:14:36 PM
+ * 
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.varra.log;
+
+import com.varra.classification.InterfaceAudience;
+import com.varra.classification.InterfaceStability;
+
+/**
+ * An {@link Enum} that lists what an asynchronous {@link Logger} does with a
+ * log event when its buffer is full, see
+ * {@link LogManager#enableAsync(int, OverflowPolicy, MyLogLevel)}.
+ * <p>
+ * In {@link #BLOCK} mode the caller waits till the background writer frees a
+ * slot, no event is lost.
+ * <p>
+ * In {@link #DROP} mode the event is discarded right away and counted, see
+ * {@link LogManager#getDroppedCount()}.
+ * <p>
+ * In {@link #DROP_BELOW_LEVEL} mode the events less severe than the overflow
+ * level are discarded, the rest wait like in {@link #BLOCK} mode.
+ * 
+ * @author <a href="mailto:varra@outlook.com">Rajakrishna V.
+ *         Reddy</a>
+ * @version 3.0
+ */
+@InterfaceAudience.Public
+@InterfaceStability.Evolving
+public enum OverflowPolicy
+{
+	
+	/** Waits till a slot is free. */
+	BLOCK,
+	
+	/** Discards the event. */
+	DROP,
+	
+	/** Discards the events below the overflow level, waits for the rest. */
+	DROP_BELOW_LEVEL;
+	
+	/**
+	 * Gets the {@link OverflowPolicy} for the given name, ignoring the case.
+	 * 
+	 * @param name
+	 *            the name
+	 * @param defValue
+	 *            the default value, returned if name is null or unknown
+	 * @return the overflow policy
+	 */
+	public static OverflowPolicy getPolicy(final String name, final OverflowPolicy defValue)
+	{
+		if (name != null)
+		{
+			for (final OverflowPolicy policy : values())
+			{
+				if (policy.name().equalsIgnoreCase(name.trim()))
+				{
+					return policy;
+				}
+			}
+		}
+		return defValue;
+	}
+}
@@ -28,9 +28,12 @@ import java.net.URL;
 import java.net.URLConnection;
 
 import com.varra.log.Logger;
+import com.varra.util.RateLimiter;
 
 /**
- * The Class AutomatedMailSenderClient.
+ * The Class AutomatedMailSenderClient.<br>
+ * The mails can be throttled with a {@link RateLimiter}, see
+ * {@link #setRateLimiter(RateLimiter)}.
  * 
  * @author Rajakrishna V. Reddy
  * @version 1.0
@@ -41,6 +44,9 @@ public class AutomatedMailerClient
 	/** The logger. */
 	private final Logger logger;
 	
+	/** The rate limiter, null if not throttled. */
+	private volatile RateLimiter rateLimiter;
+	
 	/**
 	 * Instantiates a new automated mail sender client.
 	 */
@@ -176,9 +182,56 @@ public class AutomatedMailerClient
 			final String mailContent, final String targetUrl)
 	{
 		logger.info("Sending the mail with the given Details: "+to+", cc: "+cc+", bcc: "+bcc);
+		final RateLimiter rateLimiter = this.rateLimiter;
+		if (rateLimiter != null)
+		{
+			try
+			{
+				rateLimiter.acquire(1);
+			}
+			catch (InterruptedException e)
+			{
+				Thread.currentThread().interrupt();
+				logger.error("Interrupted while waiting to send the mail to: " + to, e);
+				return;
+			}
+			try
+			{
+				makeSOAPCall(from, to, cc, bcc, mailType, subject, mailContent, targetUrl);
+			}
+			finally
+			{
+				/** Gives it back for the limiters of the mails in flight, a no-op for the others. */
+				rateLimiter.release(1);
+			}
+			return;
+		}
 		makeSOAPCall(from, to, cc, bcc, mailType, subject, mailContent, targetUrl);
 	}
 	
+	/**
+	 * Sets the rate limiter, {@link #sendMail} waits for a permit before
+	 * sending every mail and gives it back once sent, so a
+	 * {@link com.varra.util.ConcurrencyLimiter} limits the mails in flight.
+	 * 
+	 * @param rateLimiter
+	 *            the rate limiter, null not to throttle
+	 */
+	public void setRateLimiter(final RateLimiter rateLimiter)
+	{
+		this.rateLimiter = rateLimiter;
+	}
+	
+	/**
+	 * Gets the rate limiter.
+	 * 
+	 * @return the rate limiter, null if not throttled
+	 */
+	public RateLimiter getRateLimiter()
+	{
+		return rateLimiter;
+	}
+	
 	/**
 	 * The main method.
 	 * 
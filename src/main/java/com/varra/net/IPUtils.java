@@ -21,7 +21,9 @@ package com.varra.net;
 import java.net.InetAddress;
 import java.net.UnknownHostException;
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
 
 import com.varra.classification.InterfaceAudience;
 import com.varra.classification.InterfaceStability;
@@ -53,7 +55,8 @@ public class IPUtils
 	 */
 	public static boolean isItInRange(InetAddress begin, InetAddress end, InetAddress check)
 	{
-		return isItInRange(new IpFeilds(begin), new IpFeilds(end), new IpFeilds(check));
+		final long ipAsLong = getIpAsLong(check);
+		return (ipAsLong >= getIpAsLong(begin) && ipAsLong <= getIpAsLong(end));
 	}
 	
 	/**
@@ -69,8 +72,8 @@ public class IPUtils
 	 */
 	public static boolean isItInRange(IpFeilds begin, IpFeilds end, IpFeilds check)
 	{
-		final int ipAsInt = getIpAsInt(check);
-		return (ipAsInt >= getIpAsInt(begin) && ipAsInt <= getIpAsInt(end));
+		final long ipAsLong = getIpAsLong(check);
+		return (ipAsLong >= getIpAsLong(begin) && ipAsLong <= getIpAsLong(end));
 	}
 	
 	/**
@@ -82,7 +85,26 @@ public class IPUtils
 	 */
 	public static int getIpAsInt(InetAddress host)
 	{
-		return getIpAsInt(new IpFeilds(host));
+		return getIpAsInt(host.getAddress());
+	}
+	
+	/**
+	 * Gets the IpAddress, in network byte order as given by
+	 * {@link InetAddress#getAddress()}, as 32 bit signed integer.
+	 * 
+	 * @param address
+	 *            the address
+	 * @return the ip as int
+	 * @throws IllegalArgumentException
+	 *             if it is not an IPv4 address
+	 */
+	public static int getIpAsInt(byte[] address)
+	{
+		if (address.length != 4)
+		{
+			throw new IllegalArgumentException("Not an IPv4 address, length: " + address.length);
+		}
+		return ((address[0] & 0xFF) << 24) | ((address[1] & 0xFF) << 16) | ((address[2] & 0xFF) << 8) | (address[3] & 0xFF);
 	}
 	
 	/**
@@ -106,7 +128,7 @@ public class IPUtils
 	 */
 	public static long getIpAsLong(InetAddress host)
 	{
-		return getIpAsLong(new IpFeilds(host));
+		return getIpAsInt(host) & 0xFFFFFFFFL;
 	}
 	
 	/**
@@ -119,12 +141,15 @@ public class IPUtils
 	 */
 	public static long getIpAsLong(IpFeilds feilds)
 	{
-		return ((long) (feilds.getA() * 256 * 256 * 256)) + ((long) (feilds.getB() * 256 * 256)) + ((long) (feilds.getC() * 256)) + feilds.getD();
+		return getIpAsInt(feilds) & 0xFFFFFFFFL;
 	}
 	
 	/**
 	 * Gets all the IPs in the given range including the begin and end IP
-	 * Addresses.
+	 * Addresses.<br>
+	 * Note: <b>It creates all of them up front, use
+	 * {@link #iterateIpsInRange(InetAddress, InetAddress)} for the large
+	 * ranges.</b>
 	 * 
 	 * @param begin
 	 *            the begin
@@ -144,6 +169,57 @@ public class IPUtils
 		return ips;
 	}
 	
+	/**
+	 * Iterates all the IPs in the given range including the begin and end IP
+	 * Addresses, creating them one by one as they are iterated.
+	 * 
+	 * @param begin
+	 *            the begin
+	 * @param end
+	 *            the end
+	 * @return the IPs in range
+	 * @see IpRangeSet#iterator()
+	 */
+	public static Iterable<String> iterateIpsInRange(InetAddress begin, InetAddress end)
+	{
+		final long beginLong = getIpAsLong(begin);
+		final long endLong = getIpAsLong(end);
+		return new Iterable<String>()
+		{
+			@Override
+			public Iterator<String> iterator()
+			{
+				return new Iterator<String>()
+				{
+					/** The next ip. */
+					private long ip = beginLong;
+					
+					@Override
+					public boolean hasNext()
+					{
+						return ip <= endLong;
+					}
+					
+					@Override
+					public String next()
+					{
+						if (!hasNext())
+						{
+							throw new NoSuchElementException();
+						}
+						return getLongAsIPString(ip++);
+					}
+					
+					@Override
+					public void remove()
+					{
+						throw new UnsupportedOperationException("Not supported in this version.");
+					}
+				};
+			}
+		};
+	}
+	
 	/**
 	 * Gets the long as ip.
 	 * 
@@ -0,0 +1,746 @@
+/*
+ * utils4j - IpRangeSet.java, Oct 18, 2026 6:41:05 PM
+ * 
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.varra.net;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import com.varra.classification.InterfaceAudience;
+import com.varra.classification.InterfaceStability;
+
+/**
+ * A compact set of IPv4 and IPv6 address ranges, to check whether an IP is in
+ * any of the allowed or denied ranges.<br>
+ * The ranges are kept as sorted, merged and non overlapping 128 bit intervals
+ * in primitive long arrays, the IPv4 ones as IPv4 mapped IPv6 addresses
+ * (::ffff:a.b.c.d). So the membership check is a binary search, O(log n), and
+ * {@link #contains(int)}, {@link #contains(byte[])} and
+ * {@link #contains(long, long)} do not allocate any memory.
+ * 
+ * <br>
+ * The ranges can be given as a single IP (10.1.2.3), a CIDR block
+ * (10.0.0.0/8, 2001:db8::/32) or a begin and end IP (10.0.0.1-10.0.0.99).
+ * Adding the ranges rebuilds the intervals, hence add them in bulk with
+ * {@link #addAll(Collection)} where possible. The checks read an immutable
+ * snapshot of the intervals, so they are thread safe and never block.
+ * 
+ * <br>
+ * The {@link #iterator()} returns the addresses of the ranges one by one as
+ * they are iterated, instead of materializing them like
+ * {@link IPUtils#getIpsInRange(InetAddress, InetAddress)}.
+ * 
+ * @author <a href="mailto:varra@outlook.com">Rajakrishna V.
+ *         Reddy</a>
+ * @version 1.0
+ * @see IpSubnetCheck
+ */
+@InterfaceAudience.Public
+@InterfaceStability.Evolving
+public class IpRangeSet implements Iterable<InetAddress>
+{
+	
+	/** The high 64 bits of the IPv4 mapped addresses. */
+	private static final long IPV4_MAPPED_HIGH = 0L;
+	
+	/** The prefix of the low 64 bits of the IPv4 mapped addresses. */
+	private static final long IPV4_MAPPED_LOW = 0xFFFF00000000L;
+	
+	/** The intervals. */
+	private volatile Intervals intervals = Intervals.EMPTY;
+	
+	/**
+	 * Instantiates a new empty IP range set.
+	 */
+	public IpRangeSet()
+	{
+	}
+	
+	/**
+	 * Instantiates a new IP range set with the given ranges.
+	 * 
+	 * @param ranges
+	 *            the ranges, see {@link #add(String)}
+	 */
+	public IpRangeSet(final Collection<String> ranges)
+	{
+		addAll(ranges);
+	}
+	
+	/**
+	 * Adds the range, as a single IP (10.1.2.3), a CIDR block (10.0.0.0/8,
+	 * 2001:db8::/32) or a begin and end IP (10.0.0.1-10.0.0.99).
+	 * 
+	 * @param range
+	 *            the range
+	 * @throws IllegalArgumentException
+	 *             if the range is not valid
+	 */
+	public void add(final String range)
+	{
+		addAll(Collections.singletonList(range));
+	}
+	
+	/**
+	 * Adds all the ranges at once, see {@link #add(String)}.
+	 * 
+	 * @param ranges
+	 *            the ranges
+	 * @throws IllegalArgumentException
+	 *             if any of the ranges is not valid, none are added then
+	 */
+	public void addAll(final Collection<String> ranges)
+	{
+		final long[] parsed = new long[ranges.size() * 4];
+		int index = 0;
+		for (final String range : ranges)
+		{
+			parse(range, parsed, index);
+			index += 4;
+		}
+		merge(parsed);
+	}
+	
+	/**
+	 * Adds the range of the IPs from begin to end, both inclusive.
+	 * 
+	 * @param begin
+	 *            the begin
+	 * @param end
+	 *            the end
+	 * @throws IllegalArgumentException
+	 *             if the begin and end are not of the same family, or the
+	 *             begin is after the end
+	 */
+	public void add(final InetAddress begin, final InetAddress end)
+	{
+		final byte[] first = begin.getAddress();
+		final byte[] last = end.getAddress();
+		if (first.length != last.length)
+		{
+			throw new IllegalArgumentException("The begin and end IPs should be of the same family, begin: " + begin + ", end: " + end);
+		}
+		merge(range(first, last, begin + "-" + end));
+	}
+	
+	/**
+	 * Adds the CIDR block of the given address and prefix length.
+	 * 
+	 * @param address
+	 *            the address
+	 * @param prefixLength
+	 *            the prefix length, up to 32 for IPv4 and 128 for IPv6
+	 * @throws IllegalArgumentException
+	 *             if the prefix length is not valid
+	 */
+	public void add(final InetAddress address, final int prefixLength)
+	{
+		final long[] parsed = new long[4];
+		block(address.getAddress(), prefixLength, parsed, 0, address + "/" + prefixLength);
+		merge(parsed);
+	}
+	
+	/**
+	 * Removes all the ranges.
+	 */
+	public synchronized void clear()
+	{
+		intervals = Intervals.EMPTY;
+	}
+	
+	/**
+	 * Checks if the IPv4 address is in any of the ranges.
+	 * 
+	 * @param ipv4
+	 *            the IPv4 address as 32 bit signed integer, like
+	 *            {@link IPUtils#getIpAsInt(InetAddress)}
+	 * @return true, if it is in range
+	 */
+	public boolean contains(final int ipv4)
+	{
+		return intervals.contains(IPV4_MAPPED_HIGH, IPV4_MAPPED_LOW | (ipv4 & 0xFFFFFFFFL));
+	}
+	
+	/**
+	 * Checks if the IPv6 address, given as its high and low 64 bits, is in
+	 * any of the ranges.
+	 * 
+	 * @param high
+	 *            the high 64 bits
+	 * @param low
+	 *            the low 64 bits
+	 * @return true, if it is in range
+	 */
+	public boolean contains(final long high, final long low)
+	{
+		return intervals.contains(high, low);
+	}
+	
+	/**
+	 * Checks if the address, in network byte order as given by
+	 * {@link InetAddress#getAddress()}, is in any of the ranges.
+	 * 
+	 * @param address
+	 *            the address, of 4 bytes for IPv4 and 16 for IPv6
+	 * @return true, if it is in range
+	 * @throws IllegalArgumentException
+	 *             if the address is not of 4 or 16 bytes
+	 */
+	public boolean contains(final byte[] address)
+	{
+		if (address.length == 4)
+		{
+			return contains((int) toLong(address, 0, 4));
+		}
+		if (address.length == 16)
+		{
+			return intervals.contains(toLong(address, 0, 8), toLong(address, 8, 8));
+		}
+		throw new IllegalArgumentException("Invalid address length: " + address.length);
+	}
+	
+	/**
+	 * Checks if the address is in any of the ranges.
+	 * 
+	 * @param address
+	 *            the address
+	 * @return true, if it is in range
+	 */
+	public boolean contains(final InetAddress address)
+	{
+		return contains(address.getAddress());
+	}
+	
+	/**
+	 * Checks if the IP is in any of the ranges, it does not resolve the host
+	 * names.
+	 * 
+	 * @param ip
+	 *            the IP
+	 * @return true, if it is in range
+	 * @throws IllegalArgumentException
+	 *             if the IP is not valid
+	 */
+	public boolean contains(final String ip)
+	{
+		return contains(toBytes(ip, ip));
+	}
+	
+	/**
+	 * Checks if it is empty.
+	 * 
+	 * @return true, if it is empty
+	 */
+	public boolean isEmpty()
+	{
+		return intervals.size == 0;
+	}
+	
+	/**
+	 * Gets the no of ranges, after merging the overlapping and adjacent
+	 * ones.
+	 * 
+	 * @return the range count
+	 */
+	public int getRangeCount()
+	{
+		return intervals.size;
+	}
+	
+	/**
+	 * Iterates the addresses of all the ranges in order, IPv4 ones as
+	 * {@link java.net.Inet4Address}. The addresses are created as they are
+	 * iterated, so even the large ranges can be iterated and it is up to the
+	 * caller to stop early. It iterates the ranges as they were when it was
+	 * created.
+	 * 
+	 * @return the iterator
+	 */
+	@Override
+	public Iterator<InetAddress> iterator()
+	{
+		final Intervals snapshot = intervals;
+		return new Iterator<InetAddress>()
+		{
+			/** The index of the current range. */
+			private int index;
+			
+			/** The high bits of the next address. */
+			private long high = snapshot.size > 0 ? snapshot.startHigh[0] : 0;
+			
+			/** The low bits of the next address. */
+			private long low = snapshot.size > 0 ? snapshot.startLow[0] : 0;
+			
+			@Override
+			public boolean hasNext()
+			{
+				return index < snapshot.size;
+			}
+			
+			@Override
+			public InetAddress next()
+			{
+				if (!hasNext())
+				{
+					throw new NoSuchElementException();
+				}
+				final InetAddress address = toAddress(high, low);
+				if (high == snapshot.endHigh[index] && low == snapshot.endLow[index])
+				{
+					if (++index < snapshot.size)
+					{
+						high = snapshot.startHigh[index];
+						low = snapshot.startLow[index];
+					}
+				}
+				else
+				{
+					low++;
+					if (low == 0)
+					{
+						high++;
+					}
+				}
+				return address;
+			}
+			
+			@Override
+			public void remove()
+			{
+				throw new UnsupportedOperationException("Not supported in this version.");
+			}
+		};
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString()
+	{
+		final Intervals snapshot = intervals;
+		final StringBuilder builder = new StringBuilder();
+		builder.append("IpRangeSet [");
+		for (int index = 0; index < snapshot.size; index++)
+		{
+			if (index > 0)
+			{
+				builder.append(", ");
+			}
+			builder.append(toAddress(snapshot.startHigh[index], snapshot.startLow[index]).getHostAddress());
+			builder.append('-');
+			builder.append(toAddress(snapshot.endHigh[index], snapshot.endLow[index]).getHostAddress());
+		}
+		builder.append("]");
+		return builder.toString();
+	}
+	
+	/**
+	 * Merges the given intervals, as (startHigh, startLow, endHigh, endLow)
+	 * quads, with the existing ones.
+	 * 
+	 * @param quads
+	 *            the quads
+	 */
+	private synchronized void merge(final long[] quads)
+	{
+		final Intervals current = intervals;
+		final int count = current.size + quads.length / 4;
+		final Integer[] order = new Integer[count];
+		final long[] all = new long[count * 4];
+		for (int index = 0; index < current.size; index++)
+		{
+			all[index * 4] = current.startHigh[index];
+			all[index * 4 + 1] = current.startLow[index];
+			all[index * 4 + 2] = current.endHigh[index];
+			all[index * 4 + 3] = current.endLow[index];
+		}
+		System.arraycopy(quads, 0, all, current.size * 4, quads.length);
+		for (int index = 0; index < count; index++)
+		{
+			order[index] = index;
+		}
+		Arrays.sort(order, new Comparator<Integer>()
+		{
+			@Override
+			public int compare(final Integer first, final Integer second)
+			{
+				return compareTo(all[first * 4], all[first * 4 + 1], all[second * 4], all[second * 4 + 1]);
+			}
+		});
+		final Intervals merged = new Intervals(count);
+		for (int index = 0; index < count; index++)
+		{
+			final int at = order[index] * 4;
+			merged.add(all[at], all[at + 1], all[at + 2], all[at + 3]);
+		}
+		intervals = merged;
+	}
+	
+	/**
+	 * Parses the range into the quad at the given index.
+	 * 
+	 * @param range
+	 *            the range
+	 * @param quads
+	 *            the quads
+	 * @param index
+	 *            the index
+	 */
+	private static void parse(final String range, final long[] quads, final int index)
+	{
+		if (range == null)
+		{
+			throw new IllegalArgumentException("Invalid range: null");
+		}
+		final String value = range.trim();
+		final int slash = value.indexOf('/');
+		if (slash >= 0)
+		{
+			final int prefixLength;
+			try
+			{
+				prefixLength = Integer.parseInt(value.substring(slash + 1).trim());
+			}
+			catch (NumberFormatException e)
+			{
+				throw new IllegalArgumentException("Invalid prefix length of the range: " + range, e);
+			}
+			block(toBytes(value.substring(0, slash).trim(), range), prefixLength, quads, index, range);
+			return;
+		}
+		final int dash = value.indexOf('-');
+		final byte[] begin = toBytes(dash >= 0 ? value.substring(0, dash).trim() : value, range);
+		final byte[] end = dash >= 0 ? toBytes(value.substring(dash + 1).trim(), range) : begin;
+		if (begin.length != end.length)
+		{
+			throw new IllegalArgumentException("The begin and end IPs should be of the same family, range: " + range);
+		}
+		System.arraycopy(range(begin, end, range), 0, quads, index, 4);
+	}
+	
+	/**
+	 * Gets the quad of the range from begin to end.
+	 * 
+	 * @param begin
+	 *            the begin
+	 * @param end
+	 *            the end
+	 * @param range
+	 *            the range, for the error message
+	 * @return the quad
+	 */
+	private static long[] range(final byte[] begin, final byte[] end, final String range)
+	{
+		final long[] quad = { high(begin), low(begin), high(end), low(end) };
+		if (compareTo(quad[0], quad[1], quad[2], quad[3]) > 0)
+		{
+			throw new IllegalArgumentException("The begin IP is after the end IP, range: " + range);
+		}
+		return quad;
+	}
+	
+	/**
+	 * Sets the quad of the CIDR block at the given index.
+	 * 
+	 * @param address
+	 *            the address
+	 * @param prefixLength
+	 *            the prefix length
+	 * @param quads
+	 *            the quads
+	 * @param index
+	 *            the index
+	 * @param range
+	 *            the range, for the error message
+	 */
+	private static void block(final byte[] address, final int prefixLength, final long[] quads, final int index, final String range)
+	{
+		final int bits = address.length * 8;
+		if (prefixLength < 0 || prefixLength > bits)
+		{
+			throw new IllegalArgumentException("Invalid prefix length of the range: " + range);
+		}
+		final int length = prefixLength + 128 - bits;
+		final long highMask = length >= 64 ? -1L : length == 0 ? 0L : -1L << (64 - length);
+		final long lowMask = length <= 64 ? 0L : length == 128 ? -1L : -1L << (128 - length);
+		final long high = high(address);
+		final long low = low(address);
+		quads[index] = high & highMask;
+		quads[index + 1] = low & lowMask;
+		quads[index + 2] = high | ~highMask;
+		quads[index + 3] = low | ~lowMask;
+	}
+	
+	/**
+	 * Gets the high 64 bits of the address, IPv4 ones as mapped IPv6.
+	 * 
+	 * @param address
+	 *            the address
+	 * @return the high bits
+	 */
+	private static long high(final byte[] address)
+	{
+		return address.length == 4 ? IPV4_MAPPED_HIGH : toLong(address, 0, 8);
+	}
+	
+	/**
+	 * Gets the low 64 bits of the address, IPv4 ones as mapped IPv6.
+	 * 
+	 * @param address
+	 *            the address
+	 * @return the low bits
+	 */
+	private static long low(final byte[] address)
+	{
+		return address.length == 4 ? IPV4_MAPPED_LOW | toLong(address, 0, 4) : toLong(address, 8, 8);
+	}
+	
+	/**
+	 * Reads the bytes as an unsigned big endian number.
+	 * 
+	 * @param bytes
+	 *            the bytes
+	 * @param offset
+	 *            the offset
+	 * @param length
+	 *            the length, up to 8
+	 * @return the long
+	 */
+	private static long toLong(final byte[] bytes, final int offset, final int length)
+	{
+		long value = 0;
+		for (int index = offset; index < offset + length; index++)
+		{
+			value = (value << 8) | (bytes[index] & 0xFF);
+		}
+		return value;
+	}
+	
+	/**
+	 * Converts the IP literal to its bytes, it never resolves the host names.
+	 * 
+	 * @param ip
+	 *            the ip
+	 * @param range
+	 *            the range, for the error message
+	 * @return the bytes
+	 */
+	private static byte[] toBytes(final String ip, final String range)
+	{
+		if (ip.indexOf(':') >= 0)
+		{
+			try
+			{
+				/** IPv6 literals are parsed, never resolved. */
+				return InetAddress.getByName(ip).getAddress();
+			}
+			catch (UnknownHostException e)
+			{
+				throw new IllegalArgumentException("Invalid IP: " + ip + ", range: " + range, e);
+			}
+		}
+		final byte[] bytes = new byte[4];
+		int part = 0;
+		int value = -1;
+		for (int index = 0; index <= ip.length(); index++)
+		{
+			final char c = index < ip.length() ? ip.charAt(index) : '.';
+			if (c >= '0' && c <= '9' && value < 256)
+			{
+				value = (value < 0 ? 0 : value * 10) + (c - '0');
+			}
+			else if (c == '.' && value >= 0 && value < 256 && part < 4)
+			{
+				bytes[part++] = (byte) value;
+				value = -1;
+			}
+			else
+			{
+				throw new IllegalArgumentException("Invalid IP: " + ip + ", range: " + range);
+			}
+		}
+		if (part != 4)
+		{
+			throw new IllegalArgumentException("Invalid IP: " + ip + ", range: " + range);
+		}
+		return bytes;
+	}
+	
+	/**
+	 * Converts the 128 bit number to its address, IPv4 mapped ones as IPv4.
+	 * 
+	 * @param high
+	 *            the high
+	 * @param low
+	 *            the low
+	 * @return the inet address
+	 */
+	private static InetAddress toAddress(final long high, final long low)
+	{
+		final boolean ipv4 = high == IPV4_MAPPED_HIGH && (low >>> 32) == (IPV4_MAPPED_LOW >>> 32);
+		final byte[] bytes = new byte[ipv4 ? 4 : 16];
+		for (int index = bytes.length - 1, shift = 0; index >= 0; index--, shift += 8)
+		{
+			bytes[index] = (byte) (shift < 64 ? low >>> shift : high >>> (shift - 64));
+		}
+		try
+		{
+			return InetAddress.getByAddress(bytes);
+		}
+		catch (UnknownHostException e)
+		{
+			/** Never happens, as the length is valid. */
+			throw new IllegalStateException(e);
+		}
+	}
+	
+	/**
+	 * Compares the two 128 bit unsigned numbers.
+	 * 
+	 * @param firstHigh
+	 *            the first high
+	 * @param firstLow
+	 *            the first low
+	 * @param secondHigh
+	 *            the second high
+	 * @param secondLow
+	 *            the second low
+	 * @return the int
+	 */
+	private static int compareTo(final long firstHigh, final long firstLow, final long secondHigh, final long secondLow)
+	{
+		final int result = Long.compareUnsigned(firstHigh, secondHigh);
+		return result != 0 ? result : Long.compareUnsigned(firstLow, secondLow);
+	}
+	
+	/**
+	 * The sorted, merged and non overlapping intervals, immutable once built.
+	 */
+	private static final class Intervals
+	{
+		
+		/** The empty intervals. */
+		private static final Intervals EMPTY = new Intervals(0);
+		
+		/** The high bits of the starts. */
+		private final long[] startHigh;
+		
+		/** The low bits of the starts. */
+		private final long[] startLow;
+		
+		/** The high bits of the ends. */
+		private final long[] endHigh;
+		
+		/** The low bits of the ends. */
+		private final long[] endLow;
+		
+		/** The no of intervals. */
+		private int size;
+		
+		/**
+		 * Instantiates new intervals of the given capacity.
+		 * 
+		 * @param capacity
+		 *            the capacity
+		 */
+		private Intervals(final int capacity)
+		{
+			startHigh = new long[capacity];
+			startLow = new long[capacity];
+			endHigh = new long[capacity];
+			endLow = new long[capacity];
+		}
+		
+		/**
+		 * Adds the interval, which should not start before the last one,
+		 * merging it with the last one if they overlap or are adjacent.
+		 * 
+		 * @param fromHigh
+		 *            the from high
+		 * @param fromLow
+		 *            the from low
+		 * @param toHigh
+		 *            the to high
+		 * @param toLow
+		 *            the to low
+		 */
+		private void add(final long fromHigh, final long fromLow, final long toHigh, final long toLow)
+		{
+			if (size > 0)
+			{
+				final int last = size - 1;
+				/** The last end + 1, wraps to zero after the max address. */
+				final long nextLow = endLow[last] + 1;
+				final long nextHigh = nextLow == 0 ? endHigh[last] + 1 : endHigh[last];
+				final boolean atMax = endHigh[last] == -1L && endLow[last] == -1L;
+				if (atMax || compareTo(fromHigh, fromLow, nextHigh, nextLow) <= 0)
+				{
+					if (compareTo(toHigh, toLow, endHigh[last], endLow[last]) > 0)
+					{
+						endHigh[last] = toHigh;
+						endLow[last] = toLow;
+					}
+					return;
+				}
+			}
+			startHigh[size] = fromHigh;
+			startLow[size] = fromLow;
+			endHigh[size] = toHigh;
+			endLow[size] = toLow;
+			size++;
+		}
+		
+		/**
+		 * Checks if the address is in any of the intervals.
+		 * 
+		 * @param high
+		 *            the high
+		 * @param low
+		 *            the low
+		 * @return true, if successful
+		 */
+		private boolean contains(final long high, final long low)
+		{
+			/** Finds the last interval starting at or before the address. */
+			int from = 0;
+			int to = size - 1;
+			while (from <= to)
+			{
+				final int mid = (from + to) >>> 1;
+				if (compareTo(startHigh[mid], startLow[mid], high, low) <= 0)
+				{
+					from = mid + 1;
+				}
+				else
+				{
+					to = mid - 1;
+				}
+			}
+			return to >= 0 && compareTo(high, low, endHigh[to], endLow[to]) <= 0;
+		}
+	}
+}
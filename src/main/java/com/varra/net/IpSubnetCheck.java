@@ -42,6 +42,12 @@ public class IpSubnetCheck
 	/** The end feilds. */
 	private final IpFeilds endFeilds;
 	
+	/** The begin as unsigned 32 bit number. */
+	private final long beginLong;
+	
+	/** The end as unsigned 32 bit number. */
+	private final long endLong;
+	
 	/**
 	 * Instantiates a new iP subnet check.
 	 * 
@@ -54,6 +60,8 @@ public class IpSubnetCheck
 	{
 		beginFeilds = new IpFeilds(begin);
 		endFeilds = new IpFeilds(end);
+		beginLong = IPUtils.getIpAsLong(beginFeilds);
+		endLong = IPUtils.getIpAsLong(endFeilds);
 	}
 	
 	/**
@@ -65,7 +73,21 @@ public class IpSubnetCheck
 	 */
 	public boolean isItInRange(InetAddress check)
 	{
-		return IPUtils.isItInRange(beginFeilds, endFeilds, new IpFeilds(check));
+		return isItInRange(IPUtils.getIpAsInt(check));
+	}
+	
+	/**
+	 * Checks if is it in range, without creating any objects.
+	 * 
+	 * @param check
+	 *            the check, as 32 bit signed integer like
+	 *            {@link IPUtils#getIpAsInt(InetAddress)}
+	 * @return true, if is it in range
+	 */
+	public boolean isItInRange(int check)
+	{
+		final long ipAsLong = check & 0xFFFFFFFFL;
+		return ipAsLong >= beginLong && ipAsLong <= endLong;
 	}
 	
 	/**
@@ -82,6 +82,46 @@ public interface Constants
 	
 	long GT_KEEP_ALIVE_TIME_DEFAULT_VALUE = 1 * 60 * 1000;
 	
+	/** The property to choose the {@link com.varra.util.SchedulerMode} of the GlobalThread. */
+	String GT_SCHEDULER_MODE_PROPERTY = "globalThread.schedulerMode";
+	
+	String GT_SCHEDULER_MODE_DEFAULT_VALUE = "POLLING";
+	
+	/** The property to run the tasks of the GlobalThread on the virtual threads, see {@link com.varra.util.VirtualThreadExecutor}. */
+	String GT_VIRTUAL_THREADS_PROPERTY = "globalThread.virtualThreads";
+	
+	Boolean GT_VIRTUAL_THREADS_DEFAULT_VALUE = Boolean.FALSE;
+	
+	/** The property to limit the no of tasks of the GlobalThread running at a time on the virtual threads. */
+	String GT_MAX_CONCURRENCY_PROPERTY = "globalThread.maxConcurrency";
+	
+	Integer GT_MAX_CONCURRENCY_DEFAULT_VALUE = 1000;
+	
+	/** The property to enable the {@link com.varra.util.SchedulerStats} of the GlobalThread. */
+	String GT_STATS_ENABLED_PROPERTY = "globalThread.stats";
+	
+	Boolean GT_STATS_ENABLED_DEFAULT_VALUE = Boolean.FALSE;
+	
+	/** The property to limit the no of tasks waiting in the queue of the GlobalThread with min and max no of threads. */
+	String GT_QUEUE_CAPACITY_PROPERTY = "globalThread.queueCapacity";
+	
+	Integer GT_QUEUE_CAPACITY_DEFAULT_VALUE = 10000;
+	
+	/** The property to choose the {@link com.varra.util.RejectionPolicy} of the GlobalThread, once its queue is full, CALLER_RUNS stalls its dispatcher. */
+	String GT_REJECTION_POLICY_PROPERTY = "globalThread.rejectionPolicy";
+	
+	String GT_REJECTION_POLICY_DEFAULT_VALUE = "DROP_NEWEST";
+	
+	/** The property to size the GlobalThread by the time the tasks wait in its queue, in ms, 0 to disable. */
+	String GT_TARGET_QUEUE_WAIT_PROPERTY = "globalThread.targetQueueWait";
+	
+	Long GT_TARGET_QUEUE_WAIT_DEFAULT_VALUE = 0L;
+	
+	/** The property to checkpoint the state of the tasks of the GlobalThread to the given file, see {@link com.varra.util.SchedulerCheckpoint}. */
+	String GT_CHECKPOINT_FILE_PROPERTY = "globalThread.checkpointFile";
+	
+	String GT_CHECKPOINT_FILE_DEFAULT_VALUE = "";
+	
 	String THIS_INTERVAL_PROPERTY = "this.interval";
 	
 	//String ENV_VARIABLE_REGEX = ".*\\$\\{(.*)\\}.*";
@@ -221,7 +221,7 @@ public class PropertyFileMonitor extends EnhancedTimerTask implements Shutdownab
 	{
 		try
 		{
-			logger.trace("Going to resolve the properties: "+properties);
+			logger.trace("Going to resolve the properties: {}", properties);
 			final List<String> properties2remove = new ArrayList<String>();
 			final Map<String, Object> properties2add = new HashMap<String, Object>();
 			for (Entry<Object, Object> entry : properties.entrySet())
@@ -238,7 +238,7 @@ public class PropertyFileMonitor extends EnhancedTimerTask implements Shutdownab
 			}
 			removeProperties(properties, properties2remove);
 			properties.putAll(properties2add);
-			logger.trace("Properties after resolve: "+properties);
+			logger.trace("Properties after resolve: {}", properties);
 		}
 		catch (Exception e)
 		{
@@ -0,0 +1,611 @@
+/*
+ * utils4j - AbstractNioEndpoint.java, Oct 18, 2026 4:52:10 PM
+ * 
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.varra.tcp;
+
+import java.io.IOException;
+import java.net.StandardSocketOptions;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.varra.classification.InterfaceAudience;
+import com.varra.classification.InterfaceStability;
+import com.varra.io.DirectBufferPool;
+import com.varra.log.Logger;
+import com.varra.util.ShutdownMode;
+import com.varra.util.Shutdownable;
+
+/**
+ * The common part of the {@link NioServer} and {@link NioClient}: a group of
+ * {@link Reactor} threads which the connections are spread over, the pool of
+ * direct buffers they share, the {@link FrameCodec} and the
+ * {@link ConnectionListener}.
+ * <p>
+ * The settings can be changed only before {@link #start()}.
+ * 
+ * @param <T>
+ *            the message type
+ * @author <a href="mailto:varra@outlook.com">Rajakrishna V.
+ *         Reddy</a>
+ * @version 1.0
+ */
+@InterfaceAudience.Public
+@InterfaceStability.Evolving
+public abstract class AbstractNioEndpoint<T> implements Shutdownable
+{
+	
+	/** The logger. */
+	private static final Logger logger = Logger.getLogger(AbstractNioEndpoint.class);
+	
+	/** The default buffer size, the max frame size. */
+	public static final int DEFAULT_BUFFER_SIZE = 16 * 1024;
+	
+	/** The default max no of free buffers kept in the pool. */
+	public static final int DEFAULT_MAX_POOLED_BUFFERS = 4096;
+	
+	/** The default high water mark of the pending bytes of a connection. */
+	public static final int DEFAULT_HIGH_WATER_MARK = 1024 * 1024;
+	
+	/** The default low water mark of the pending bytes of a connection. */
+	public static final int DEFAULT_LOW_WATER_MARK = 256 * 1024;
+	
+	/** How long the graceful shutdown waits for the connections to close. */
+	private static final long SHUTDOWN_WAIT_MILLIS = 5000;
+	
+	/** The name, used for the threads. */
+	private final String name;
+	
+	/** The codec. */
+	private final FrameCodec<T> codec;
+	
+	/** The listener. */
+	private final ConnectionListener<T> listener;
+	
+	/** The open connections. */
+	private final Set<Connection<T>> connections = Collections.newSetFromMap(new ConcurrentHashMap<Connection<T>, Boolean>());
+	
+	/** The next reactor, round robin. */
+	private final AtomicInteger nextReactor = new AtomicInteger();
+	
+	/** The reactor count. */
+	private int reactorCount = Runtime.getRuntime().availableProcessors();
+	
+	/** The buffer size. */
+	private int bufferSize = DEFAULT_BUFFER_SIZE;
+	
+	/** The max pooled buffers. */
+	private int maxPooledBuffers = DEFAULT_MAX_POOLED_BUFFERS;
+	
+	/** The high water mark. */
+	private int highWaterMark = DEFAULT_HIGH_WATER_MARK;
+	
+	/** The low water mark. */
+	private int lowWaterMark = DEFAULT_LOW_WATER_MARK;
+	
+	/** The tcp no delay. */
+	private boolean tcpNoDelay = true;
+	
+	/** Whether the reactor threads are daemons. */
+	private boolean daemon = true;
+	
+	/** The pool. */
+	private DirectBufferPool pool;
+	
+	/** The reactors. */
+	private Reactor[] reactors;
+	
+	/** The started. */
+	private volatile boolean started;
+	
+	/** The stopped. */
+	private volatile boolean stopped;
+	
+	/**
+	 * Instantiates a new endpoint.
+	 * 
+	 * @param name
+	 *            the name
+	 * @param codec
+	 *            the codec
+	 * @param listener
+	 *            the listener
+	 */
+	protected AbstractNioEndpoint(final String name, final FrameCodec<T> codec, final ConnectionListener<T> listener)
+	{
+		if (codec == null || listener == null)
+		{
+			throw new IllegalArgumentException("Codec and listener should not be null.");
+		}
+		this.name = name;
+		this.codec = codec;
+		this.listener = listener;
+	}
+	
+	/**
+	 * Starts the reactors and the endpoint.
+	 * 
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred.
+	 */
+	public synchronized void start() throws IOException
+	{
+		if (started)
+		{
+			throw new IllegalStateException(name + " is started already.");
+		}
+		pool = new DirectBufferPool(bufferSize, maxPooledBuffers);
+		reactors = new Reactor[reactorCount];
+		try
+		{
+			for (int index = 0; index < reactorCount; index++)
+			{
+				reactors[index] = new Reactor(name + "-Reactor-" + index, daemon);
+				reactors[index].start();
+			}
+			started = true;
+			doStart();
+		}
+		catch (IOException e)
+		{
+			stopReactors();
+			throw e;
+		}
+	}
+	
+	/**
+	 * Starts the endpoint specific part, once the reactors are running.
+	 * 
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred.
+	 */
+	protected abstract void doStart() throws IOException;
+	
+	/**
+	 * Stops the endpoint specific part, before the connections are closed.
+	 */
+	protected abstract void doShutdown();
+	
+	/**
+	 * Shuts down the endpoint. On {@link ShutdownMode#GRACEFUL_SHUTDOWN} the
+	 * connections are closed once their pending messages are written, on
+	 * {@link ShutdownMode#FORCED_SHUTDOWN} right away.
+	 * 
+	 * @param mode
+	 *            the mode
+	 */
+	public synchronized void shutdown(final ShutdownMode mode)
+	{
+		if (!started || stopped)
+		{
+			return;
+		}
+		stopped = true;
+		doShutdown();
+		for (final Connection<T> connection : connections)
+		{
+			if (mode == ShutdownMode.FORCED_SHUTDOWN)
+			{
+				connection.abort();
+			}
+			else
+			{
+				connection.close();
+			}
+		}
+		if (mode != ShutdownMode.FORCED_SHUTDOWN)
+		{
+			final long deadline = System.currentTimeMillis() + SHUTDOWN_WAIT_MILLIS;
+			while (!connections.isEmpty() && System.currentTimeMillis() < deadline)
+			{
+				try
+				{
+					Thread.sleep(10);
+				}
+				catch (InterruptedException e)
+				{
+					Thread.currentThread().interrupt();
+					break;
+				}
+			}
+		}
+		stopReactors();
+		logger.info("{} is shutdown, mode: {}", name, mode.getDescription());
+	}
+	
+	/**
+	 * Stops the reactors, the connections still open are closed by them.
+	 */
+	private void stopReactors()
+	{
+		for (final Reactor reactor : reactors)
+		{
+			if (reactor != null)
+			{
+				reactor.shutdown(SHUTDOWN_WAIT_MILLIS);
+			}
+		}
+	}
+	
+	/**
+	 * Configures the accepted or opened channel.
+	 * 
+	 * @param channel
+	 *            the channel
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred.
+	 */
+	protected void configure(final SocketChannel channel) throws IOException
+	{
+		channel.configureBlocking(false);
+		channel.setOption(StandardSocketOptions.TCP_NODELAY, tcpNoDelay);
+		channel.setOption(StandardSocketOptions.SO_KEEPALIVE, Boolean.TRUE);
+	}
+	
+	/**
+	 * Creates a connection for the channel, bound to the next reactor.
+	 * 
+	 * @param channel
+	 *            the channel
+	 * @return the connection
+	 */
+	Connection<T> newConnection(final SocketChannel channel)
+	{
+		return new Connection<T>(this, channel, nextReactor());
+	}
+	
+	/**
+	 * Gets the next reactor, round robin.
+	 * 
+	 * @return the reactor
+	 */
+	Reactor nextReactor()
+	{
+		return reactors[(nextReactor.getAndIncrement() & Integer.MAX_VALUE) % reactors.length];
+	}
+	
+	/**
+	 * Registers the connection to its reactor, it is reported as connected
+	 * once registered if it is to be read.
+	 * 
+	 * @param connection
+	 *            the connection
+	 * @param ops
+	 *            the interest ops
+	 */
+	void register(final Connection<T> connection, final int ops)
+	{
+		connection.getReactor().execute(new Runnable()
+		{
+			public void run()
+			{
+				try
+				{
+					connection.register(ops);
+					if ((ops & SelectionKey.OP_READ) != 0)
+					{
+						connected(connection);
+						connection.connectFuture.complete(connection);
+					}
+				}
+				catch (IOException e)
+				{
+					connection.closeNow(e);
+				}
+			}
+		});
+	}
+	
+	/**
+	 * Called by the reactor once the connection is established.
+	 * 
+	 * @param connection
+	 *            the connection
+	 */
+	void connected(final Connection<T> connection)
+	{
+		connections.add(connection);
+		if (stopped)
+		{
+			connection.abort();
+			return;
+		}
+		try
+		{
+			listener.onConnected(connection);
+		}
+		catch (RuntimeException e)
+		{
+			logger.error("Got an unExpected Error from the listener, connection: {}", connection, e);
+		}
+	}
+	
+	/**
+	 * Called by the reactor once the connection is closed.
+	 * 
+	 * @param connection
+	 *            the connection
+	 * @param cause
+	 *            the cause
+	 */
+	void disconnected(final Connection<T> connection, final Throwable cause)
+	{
+		if (connections.remove(connection))
+		{
+			try
+			{
+				listener.onDisconnected(connection, cause);
+			}
+			catch (RuntimeException e)
+			{
+				logger.error("Got an unExpected Error from the listener, connection: {}", connection, e);
+			}
+		}
+	}
+	
+	/**
+	 * Checks that the endpoint is not started yet, for the setters.
+	 */
+	private void checkNotStarted()
+	{
+		if (started)
+		{
+			throw new IllegalStateException(name + " is started already, settings can not be changed.");
+		}
+	}
+	
+	/**
+	 * Checks that the endpoint is running.
+	 */
+	protected void checkRunning()
+	{
+		if (!started || stopped)
+		{
+			throw new IllegalStateException(name + " is not running.");
+		}
+	}
+	
+	/**
+	 * Gets the name.
+	 * 
+	 * @return the name
+	 */
+	public String getName()
+	{
+		return name;
+	}
+	
+	/**
+	 * Gets the codec.
+	 * 
+	 * @return the codec
+	 */
+	public FrameCodec<T> getCodec()
+	{
+		return codec;
+	}
+	
+	/**
+	 * Gets the listener.
+	 * 
+	 * @return the listener
+	 */
+	public ConnectionListener<T> getListener()
+	{
+		return listener;
+	}
+	
+	/**
+	 * Gets the pool of the buffers, null till it is started.
+	 * 
+	 * @return the pool
+	 */
+	public DirectBufferPool getPool()
+	{
+		return pool;
+	}
+	
+	/**
+	 * Gets the no of open connections.
+	 * 
+	 * @return the connection count
+	 */
+	public int getConnectionCount()
+	{
+		return connections.size();
+	}
+	
+	/**
+	 * Gets a snapshot of the open connections.
+	 * 
+	 * @return the connections
+	 */
+	public List<Connection<T>> getConnections()
+	{
+		return new ArrayList<Connection<T>>(connections);
+	}
+	
+	/**
+	 * Checks if is running.
+	 * 
+	 * @return true, if is running
+	 */
+	public boolean isRunning()
+	{
+		return started && !stopped;
+	}
+	
+	/**
+	 * Gets the reactor count.
+	 * 
+	 * @return the reactor count
+	 */
+	public int getReactorCount()
+	{
+		return reactorCount;
+	}
+	
+	/**
+	 * Sets the no of reactor threads, defaults to the no of processors.
+	 * 
+	 * @param reactorCount
+	 *            the new reactor count
+	 */
+	public void setReactorCount(final int reactorCount)
+	{
+		checkNotStarted();
+		if (reactorCount <= 0)
+		{
+			throw new IllegalArgumentException("Reactor count should be greater than zero, reactorCount: " + reactorCount);
+		}
+		this.reactorCount = reactorCount;
+	}
+	
+	/**
+	 * Gets the buffer size.
+	 * 
+	 * @return the buffer size
+	 */
+	public int getBufferSize()
+	{
+		return bufferSize;
+	}
+	
+	/**
+	 * Sets the size of the pooled buffers, which is the max size of a frame.
+	 * 
+	 * @param bufferSize
+	 *            the new buffer size
+	 */
+	public void setBufferSize(final int bufferSize)
+	{
+		checkNotStarted();
+		this.bufferSize = bufferSize;
+	}
+	
+	/**
+	 * Gets the max pooled buffers.
+	 * 
+	 * @return the max pooled buffers
+	 */
+	public int getMaxPooledBuffers()
+	{
+		return maxPooledBuffers;
+	}
+	
+	/**
+	 * Sets the max no of free buffers kept in the pool.
+	 * 
+	 * @param maxPooledBuffers
+	 *            the new max pooled buffers
+	 */
+	public void setMaxPooledBuffers(final int maxPooledBuffers)
+	{
+		checkNotStarted();
+		this.maxPooledBuffers = maxPooledBuffers;
+	}
+	
+	/**
+	 * Gets the high water mark.
+	 * 
+	 * @return the high water mark
+	 */
+	public int getHighWaterMark()
+	{
+		return highWaterMark;
+	}
+	
+	/**
+	 * Gets the low water mark.
+	 * 
+	 * @return the low water mark
+	 */
+	public int getLowWaterMark()
+	{
+		return lowWaterMark;
+	}
+	
+	/**
+	 * Sets the water marks of the pending bytes of a connection, see
+	 * {@link Connection#isWritable()}.
+	 * 
+	 * @param lowWaterMark
+	 *            the low water mark
+	 * @param highWaterMark
+	 *            the high water mark
+	 */
+	public void setWaterMarks(final int lowWaterMark, final int highWaterMark)
+	{
+		checkNotStarted();
+		if (lowWaterMark < 0 || lowWaterMark > highWaterMark)
+		{
+			throw new IllegalArgumentException("Invalid water marks, low: " + lowWaterMark + ", high: " + highWaterMark);
+		}
+		this.lowWaterMark = lowWaterMark;
+		this.highWaterMark = highWaterMark;
+	}
+	
+	/**
+	 * Checks if is tcp no delay.
+	 * 
+	 * @return true, if is tcp no delay
+	 */
+	public boolean isTcpNoDelay()
+	{
+		return tcpNoDelay;
+	}
+	
+	/**
+	 * Sets the tcp no delay, true by default.
+	 * 
+	 * @param tcpNoDelay
+	 *            the new tcp no delay
+	 */
+	public void setTcpNoDelay(final boolean tcpNoDelay)
+	{
+		checkNotStarted();
+		this.tcpNoDelay = tcpNoDelay;
+	}
+	
+	/**
+	 * Checks if is daemon.
+	 * 
+	 * @return true, if is daemon
+	 */
+	public boolean isDaemon()
+	{
+		return daemon;
+	}
+	
+	/**
+	 * Sets whether the reactor threads are daemons, true by default.
+	 * 
+	 * @param daemon
+	 *            the new daemon
+	 */
+	public void setDaemon(final boolean daemon)
+	{
+		checkNotStarted();
+		this.daemon = daemon;
+	}
+}
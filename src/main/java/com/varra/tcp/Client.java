@@ -6,14 +6,25 @@
  */
 package com.varra.tcp;
 
+import java.io.Closeable;
 import java.io.IOException;
+import java.net.ConnectException;
 import java.net.InetSocketAddress;
 import java.net.Socket;
 import java.net.SocketAddress;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
 
 import com.varra.classification.InterfaceAudience;
 import com.varra.classification.InterfaceStability;
+import com.varra.listener.MessageListener;
 import com.varra.log.Logger;
+import com.varra.tcp.PortCheckResult.Status;
 
 /**
  * TODO Description go here.
@@ -28,9 +39,11 @@ import com.varra.log.Logger;
 public class Client
 {
 	
-	/** The Constant DEFAULT_CONNECTION_TIMEOUT. */
-	private static final int DEFAULT_CONNECTION_TIMEOUT = 0;
+	/** The Constant DEFAULT_CONNECTION_TIMEOUT, in ms. */
+	public static final int DEFAULT_CONNECTION_TIMEOUT = 3000;
 	
+	/** The Constant DEFAULT_MAX_IN_FLIGHT, the connects at a time. */
+	public static final int DEFAULT_MAX_IN_FLIGHT = 256;
 	
 	/**
 	 * The main method.
@@ -57,18 +70,372 @@ public class Client
 	 */
 	public static Boolean isPortOpened(final String host, final int port)
 	{
+		return isPortOpened(host, port, DEFAULT_CONNECTION_TIMEOUT);
+	}
+	
+	/**
+	 * Checks if port is opened, waits at most the given timeout for the
+	 * connection.
+	 * 
+	 * @param host
+	 *            the host
+	 * @param port
+	 *            the port
+	 * @param timeoutMillis
+	 *            the timeout in ms, 0 waits for ever
+	 * @return the boolean
+	 */
+	public static Boolean isPortOpened(final String host, final int port, final int timeoutMillis)
+	{
+		final Socket socket = new Socket();
 		try
 		{
-			final Socket socket = new Socket();
 			final SocketAddress endpoint = new InetSocketAddress(host, port);
-			socket.connect(endpoint, DEFAULT_CONNECTION_TIMEOUT);
-			socket.close();
+			socket.connect(endpoint, timeoutMillis);
 			return Boolean.TRUE;
 		}
 		catch (IOException e)
 		{
 			Logger.getLogger(Client.class).error("Error while trying to open connection.", e);
 		}
+		finally
+		{
+			closeQuietly(socket);
+		}
 		return Boolean.FALSE;
 	}
+	
+	/**
+	 * Checks the ports of the given targets concurrently with the default
+	 * timeout per target, no global timeout and
+	 * {@link #DEFAULT_MAX_IN_FLIGHT} connects at a time.
+	 * 
+	 * @param targets
+	 *            the targets
+	 * @param listener
+	 *            the listener, notified with the result of each target
+	 * @return the no of targets opened
+	 * @throws IOException
+	 *             if the selector can not be opened
+	 * @see #checkPorts(Collection, long, long, int, MessageListener)
+	 */
+	public static int checkPorts(final Collection<InetSocketAddress> targets, final MessageListener<PortCheckResult> listener) throws IOException
+	{
+		return checkPorts(targets, DEFAULT_CONNECTION_TIMEOUT, 0, DEFAULT_MAX_IN_FLIGHT, listener);
+	}
+	
+	/**
+	 * Checks the ports of the given targets concurrently. The connects are non
+	 * blocking and multiplexed on a single {@link Selector} in the calling
+	 * thread, at most maxInFlight of them at a time, so thousands of targets
+	 * can be checked without a thread or a blocking socket each.<br>
+	 * The result of each target is notified to the listener as soon as it is
+	 * known, from the calling thread, and the method returns once all the
+	 * targets are done or the global timeout elapses, in which case the ones
+	 * left are notified as {@link Status#TIMED_OUT}.
+	 * 
+	 * @param targets
+	 *            the targets, unresolved ones are
+	 *            {@link Status#UNREACHABLE}
+	 * @param targetTimeoutMillis
+	 *            the timeout of each target in ms
+	 * @param globalTimeoutMillis
+	 *            the timeout of all the targets in ms, 0 for no limit
+	 * @param maxInFlight
+	 *            the max no of connects at a time
+	 * @param listener
+	 *            the listener, notified with the result of each target
+	 * @return the no of targets opened
+	 * @throws IOException
+	 *             if the selector can not be opened
+	 */
+	public static int checkPorts(final Collection<InetSocketAddress> targets, final long targetTimeoutMillis, final long globalTimeoutMillis,
+			final int maxInFlight, final MessageListener<PortCheckResult> listener) throws IOException
+	{
+		if (targetTimeoutMillis <= 0 || globalTimeoutMillis < 0 || maxInFlight <= 0)
+		{
+			throw new IllegalArgumentException("Invalid arguments, targetTimeoutMillis: " + targetTimeoutMillis + ", globalTimeoutMillis: "
+					+ globalTimeoutMillis + ", maxInFlight: " + maxInFlight);
+		}
+		final long targetTimeout = TimeUnit.MILLISECONDS.toNanos(targetTimeoutMillis);
+		final long globalDeadline = globalTimeoutMillis == 0 ? Long.MAX_VALUE : System.nanoTime()
+				+ TimeUnit.MILLISECONDS.toNanos(globalTimeoutMillis);
+		final PortCheck check = new PortCheck(listener);
+		final Iterator<InetSocketAddress> pending = targets.iterator();
+		/** Started in order with the same timeout, so the head expires first. */
+		final ArrayDeque<Attempt> attempts = new ArrayDeque<Attempt>(Math.min(maxInFlight, targets.size()) + 1);
+		final Selector selector = Selector.open();
+		try
+		{
+			while (true)
+			{
+				while (check.inFlight < maxInFlight && pending.hasNext())
+				{
+					final Attempt attempt = check.start(pending.next(), selector, targetTimeout);
+					if (attempt != null)
+					{
+						attempts.addLast(attempt);
+					}
+				}
+				if (check.inFlight == 0 && !pending.hasNext())
+				{
+					break;
+				}
+				final long now = System.nanoTime();
+				if (now - globalDeadline >= 0)
+				{
+					for (final Attempt attempt : attempts)
+					{
+						check.complete(attempt, Status.TIMED_OUT, null);
+					}
+					attempts.clear();
+					while (pending.hasNext())
+					{
+						check.notify(new PortCheckResult(pending.next(), Status.TIMED_OUT, 0, null));
+					}
+					break;
+				}
+				Attempt head;
+				while ((head = attempts.peekFirst()) != null && (head.done || now - head.deadline >= 0))
+				{
+					attempts.pollFirst();
+					check.complete(head, Status.TIMED_OUT, null);
+				}
+				long wait = globalDeadline - now;
+				if (head != null)
+				{
+					wait = Math.min(wait, head.deadline - now);
+				}
+				if (check.inFlight > 0 && selector.select(Math.max(1, TimeUnit.NANOSECONDS.toMillis(wait))) > 0)
+				{
+					final Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+					while (keys.hasNext())
+					{
+						final SelectionKey key = keys.next();
+						keys.remove();
+						check.finish((Attempt) key.attachment());
+					}
+				}
+			}
+		}
+		finally
+		{
+			for (final Attempt attempt : attempts)
+			{
+				closeQuietly(attempt.channel);
+			}
+			closeQuietly(selector);
+		}
+		return check.opened;
+	}
+	
+	/**
+	 * Closes the resource quietly.
+	 * 
+	 * @param closeable
+	 *            the closeable
+	 */
+	private static void closeQuietly(final Closeable closeable)
+	{
+		try
+		{
+			closeable.close();
+		}
+		catch (IOException e)
+		{
+			/** Nothing to do. */
+		}
+	}
+	
+	/**
+	 * A connect in progress.
+	 */
+	private static final class Attempt
+	{
+		
+		/** The address. */
+		private final InetSocketAddress address;
+		
+		/** The channel. */
+		private final SocketChannel channel;
+		
+		/** The start time, in nanos. */
+		private final long start;
+		
+		/** The deadline, in nanos. */
+		private final long deadline;
+		
+		/** Whether the result is notified. */
+		private boolean done;
+		
+		/**
+		 * Instantiates a new attempt.
+		 * 
+		 * @param address
+		 *            the address
+		 * @param channel
+		 *            the channel
+		 * @param start
+		 *            the start
+		 * @param deadline
+		 *            the deadline
+		 */
+		private Attempt(final InetSocketAddress address, final SocketChannel channel, final long start, final long deadline)
+		{
+			this.address = address;
+			this.channel = channel;
+			this.start = start;
+			this.deadline = deadline;
+		}
+	}
+	
+	/**
+	 * The state of a {@link Client#checkPorts} call.
+	 */
+	private static final class PortCheck
+	{
+		
+		/** The listener. */
+		private final MessageListener<PortCheckResult> listener;
+		
+		/** The no of connects in progress. */
+		private int inFlight;
+		
+		/** The no of targets opened. */
+		private int opened;
+		
+		/**
+		 * Instantiates a new port check.
+		 * 
+		 * @param listener
+		 *            the listener
+		 */
+		private PortCheck(final MessageListener<PortCheckResult> listener)
+		{
+			this.listener = listener;
+		}
+		
+		/**
+		 * Starts the connect to the given address.
+		 * 
+		 * @param address
+		 *            the address
+		 * @param selector
+		 *            the selector
+		 * @param timeout
+		 *            the timeout in nanos
+		 * @return the attempt, null if the result is known already
+		 */
+		private Attempt start(final InetSocketAddress address, final Selector selector, final long timeout)
+		{
+			final long start = System.nanoTime();
+			if (address == null || address.isUnresolved())
+			{
+				notify(new PortCheckResult(address, Status.UNREACHABLE, 0, null));
+				return null;
+			}
+			SocketChannel channel = null;
+			try
+			{
+				channel = SocketChannel.open();
+				/** Counted once opened, as the failures below give it back. */
+				inFlight++;
+				channel.configureBlocking(false);
+				final Attempt attempt = new Attempt(address, channel, start, start + timeout);
+				if (channel.connect(address))
+				{
+					complete(attempt, Status.OPEN, null);
+					return null;
+				}
+				channel.register(selector, SelectionKey.OP_CONNECT, attempt);
+				return attempt;
+			}
+			catch (IOException e)
+			{
+				if (channel != null)
+				{
+					closeQuietly(channel);
+					inFlight--;
+				}
+				notify(new PortCheckResult(address, statusOf(e), System.nanoTime() - start, e));
+				return null;
+			}
+		}
+		
+		/**
+		 * Finishes the connect of the selected attempt.
+		 * 
+		 * @param attempt
+		 *            the attempt
+		 */
+		private void finish(final Attempt attempt)
+		{
+			try
+			{
+				if (attempt.channel.finishConnect())
+				{
+					complete(attempt, Status.OPEN, null);
+				}
+			}
+			catch (IOException e)
+			{
+				complete(attempt, statusOf(e), e);
+			}
+		}
+		
+		/**
+		 * Completes the attempt, if not done yet, and notifies its result.
+		 * 
+		 * @param attempt
+		 *            the attempt
+		 * @param status
+		 *            the status
+		 * @param cause
+		 *            the cause
+		 */
+		private void complete(final Attempt attempt, final Status status, final Throwable cause)
+		{
+			if (!attempt.done)
+			{
+				attempt.done = true;
+				inFlight--;
+				closeQuietly(attempt.channel);
+				notify(new PortCheckResult(attempt.address, status, System.nanoTime() - attempt.start, cause));
+			}
+		}
+		
+		/**
+		 * Notifies the result to the listener.
+		 * 
+		 * @param result
+		 *            the result
+		 */
+		private void notify(final PortCheckResult result)
+		{
+			if (result.isOpened())
+			{
+				opened++;
+			}
+			try
+			{
+				listener.onMessage(result);
+			}
+			catch (RuntimeException e)
+			{
+				Logger.getLogger(Client.class).error("Error while notifying the port check result: {}", result, e);
+			}
+		}
+		
+		/**
+		 * Gets the status of the failed connect, refused ones are closed.
+		 * 
+		 * @param e
+		 *            the e
+		 * @return the status
+		 */
+		private static Status statusOf(final IOException e)
+		{
+			return e instanceof ConnectException ? Status.CLOSED : Status.UNREACHABLE;
+		}
+	}
 }
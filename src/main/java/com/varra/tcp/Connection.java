@@ -0,0 +1,711 @@
+/*
+ * utils4j - Connection.java, Oct 18, 2026 4:31:26 PM
+ * 
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.varra.tcp;
+
+import java.io.IOException;
+import java.net.SocketAddress;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.varra.classification.InterfaceAudience;
+import com.varra.classification.InterfaceStability;
+import com.varra.log.Logger;
+
+/**
+ * A connection of a {@link NioServer} or {@link NioClient}, bound to one
+ * {@link Reactor} thread for its whole life.
+ * <p>
+ * The messages can be sent from any thread, they are encoded one after the
+ * other into a pooled direct buffer on the caller thread, and the filled
+ * buffers are written by the reactor with gathering writes, hence the sends
+ * made while a write is pending are coalesced.
+ * <p>
+ * <b>Backpressure:</b> once the bytes waiting to be written go above the high
+ * water mark, the connection is not {@link #isWritable()} and it stops
+ * reading from the peer, till the pending bytes go below the low water mark.
+ * The senders can wait for it with {@link #awaitWritable(long, TimeUnit)}.
+ * 
+ * @param <T>
+ *            the message type
+ * @author <a href="mailto:varra@outlook.com">Rajakrishna V.
+ *         Reddy</a>
+ * @version 1.0
+ */
+@InterfaceAudience.Public
+@InterfaceStability.Evolving
+public final class Connection<T>
+{
+	
+	/** The logger. */
+	private static final Logger logger = Logger.getLogger(Connection.class);
+	
+	/** The endpoint. */
+	private final AbstractNioEndpoint<T> endpoint;
+	
+	/** The channel. */
+	private final SocketChannel channel;
+	
+	/** The reactor. */
+	private final Reactor reactor;
+	
+	/** The remote address, kept as the channel forgets it once closed. */
+	private volatile SocketAddress remoteAddress;
+	
+	/** The key, used by the reactor only. */
+	private SelectionKey key;
+	
+	/**
+	 * The buffer of the partial frame, used by the reactor only. Released
+	 * when there is no partial frame, so that idle connections hold no buffer.
+	 */
+	private ByteBuffer readBuffer;
+	
+	/** The encoded messages to be written. */
+	private final Queue<ByteBuffer> writeQueue = new ConcurrentLinkedQueue<ByteBuffer>();
+	
+	/** The lock of the send buffer, keeps the messages in order. */
+	private final Object sendLock = new Object();
+	
+	/**
+	 * The buffer the messages are encoded into, handed over to the write
+	 * queue once it is full or flushed. Guarded by the send lock.
+	 */
+	private ByteBuffer sendBuffer;
+	
+	/** The no of bytes waiting to be written. */
+	private final AtomicLong pendingBytes = new AtomicLong();
+	
+	/** Whether a flush is submitted to the reactor already. */
+	private final AtomicBoolean flushScheduled = new AtomicBoolean();
+	
+	/** The flush task. */
+	private final Runnable flushTask = new Runnable()
+	{
+		public void run()
+		{
+			flush();
+		}
+	};
+	
+	/** The close task. */
+	private final Runnable closeTask = new Runnable()
+	{
+		public void run()
+		{
+			closeAfterFlush = true;
+			flush();
+		}
+	};
+	
+	/** The lock that the senders wait on for the writability. */
+	private final Object writableLock = new Object();
+	
+	/** The no of senders waiting for the writability. */
+	private volatile int waiters;
+	
+	/** Whether the reading is suspended by the backpressure. */
+	private boolean readSuspended;
+	
+	/** Whether to close once the pending bytes are written. */
+	private boolean closeAfterFlush;
+	
+	/** The closed. */
+	private volatile boolean closed;
+	
+	/** The attachment. */
+	private volatile Object attachment;
+	
+	/** Completed once connected, for the client connections. */
+	final CompletableFuture<Connection<T>> connectFuture = new CompletableFuture<Connection<T>>();
+	
+	/**
+	 * Instantiates a new connection.
+	 * 
+	 * @param endpoint
+	 *            the endpoint
+	 * @param channel
+	 *            the channel, non blocking
+	 * @param reactor
+	 *            the reactor
+	 */
+	Connection(final AbstractNioEndpoint<T> endpoint, final SocketChannel channel, final Reactor reactor)
+	{
+		this.endpoint = endpoint;
+		this.channel = channel;
+		this.reactor = reactor;
+		this.remoteAddress = channel.socket().getRemoteSocketAddress();
+	}
+	
+	/**
+	 * Sends the message, it is encoded on the caller thread and written by the
+	 * reactor. It does not wait for the backpressure, see
+	 * {@link #awaitWritable(long, TimeUnit)}.
+	 * 
+	 * @param message
+	 *            the message
+	 * @throws IOException
+	 *             if the connection is closed, or the message can not be
+	 *             encoded
+	 */
+	public void send(final T message) throws IOException
+	{
+		if (closed)
+		{
+			throw new ClosedChannelException();
+		}
+		int encoded;
+		synchronized (sendLock)
+		{
+			/** Checked again, as closeNow() releases the send buffer under this lock. */
+			if (closed)
+			{
+				throw new ClosedChannelException();
+			}
+			if (sendBuffer == null)
+			{
+				sendBuffer = endpoint.getPool().acquire();
+			}
+			encoded = encode(message, sendBuffer);
+			if (encoded < 0 && sendBuffer.position() > 0)
+			{
+				/** The buffer is full, hand it over and encode into a new one. */
+				publishSendBuffer();
+				sendBuffer = endpoint.getPool().acquire();
+				encoded = encode(message, sendBuffer);
+			}
+			if (encoded < 0)
+			{
+				throw new IOException("Frame is bigger than the buffer size: " + sendBuffer.capacity());
+			}
+		}
+		pendingBytes.addAndGet(encoded);
+		if (flushScheduled.compareAndSet(false, true))
+		{
+			reactor.execute(flushTask);
+		}
+	}
+	
+	/**
+	 * Encodes the message with the codec at the end of the buffer, the buffer
+	 * is left as is if it fails.
+	 * 
+	 * @param message
+	 *            the message
+	 * @param buffer
+	 *            the buffer
+	 * @return the no of bytes encoded, -1 if it does not fit in the buffer
+	 * @throws IOException
+	 *             if the message can not be encoded
+	 */
+	private int encode(final T message, final ByteBuffer buffer) throws IOException
+	{
+		final int start = buffer.position();
+		try
+		{
+			endpoint.getCodec().encode(message, buffer);
+			return buffer.position() - start;
+		}
+		catch (BufferOverflowException e)
+		{
+			buffer.position(start);
+			return -1;
+		}
+		catch (IOException e)
+		{
+			buffer.position(start);
+			throw e;
+		}
+		catch (RuntimeException e)
+		{
+			buffer.position(start);
+			throw new IOException("Unable to encode the message: " + message, e);
+		}
+	}
+	
+	/**
+	 * Hands over the send buffer to the write queue, called with the send
+	 * lock held.
+	 */
+	private void publishSendBuffer()
+	{
+		if (sendBuffer != null)
+		{
+			if (sendBuffer.position() > 0)
+			{
+				sendBuffer.flip();
+				writeQueue.offer(sendBuffer);
+			}
+			else
+			{
+				endpoint.getPool().release(sendBuffer);
+			}
+			sendBuffer = null;
+		}
+	}
+	
+	/**
+	 * Submits a flush to the reactor, unless one is submitted already.
+	 */
+	private void scheduleFlush()
+	{
+		if (flushScheduled.compareAndSet(false, true))
+		{
+			reactor.execute(flushTask);
+		}
+	}
+	
+	/**
+	 * Checks if the connection is open and the pending bytes are below the
+	 * high water mark.
+	 * 
+	 * @return true, if is writable
+	 */
+	public boolean isWritable()
+	{
+		return !closed && pendingBytes.get() < endpoint.getHighWaterMark();
+	}
+	
+	/**
+	 * Waits till the connection is writable or closed.
+	 * 
+	 * @param timeout
+	 *            the timeout
+	 * @param unit
+	 *            the unit
+	 * @return true, if it is writable
+	 * @throws InterruptedException
+	 *             if interrupted while waiting
+	 */
+	public boolean awaitWritable(final long timeout, final TimeUnit unit) throws InterruptedException
+	{
+		if (isWritable())
+		{
+			return true;
+		}
+		final long deadline = System.nanoTime() + unit.toNanos(timeout);
+		synchronized (writableLock)
+		{
+			waiters++;
+			try
+			{
+				while (!closed && !isWritable())
+				{
+					final long remaining = deadline - System.nanoTime();
+					if (remaining <= 0)
+					{
+						return false;
+					}
+					TimeUnit.NANOSECONDS.timedWait(writableLock, remaining);
+				}
+			}
+			finally
+			{
+				waiters--;
+			}
+		}
+		return isWritable();
+	}
+	
+	/**
+	 * Gets the no of bytes waiting to be written.
+	 * 
+	 * @return the pending bytes
+	 */
+	public long getPendingBytes()
+	{
+		return pendingBytes.get();
+	}
+	
+	/**
+	 * Closes the connection once the messages sent so far are written.
+	 */
+	public void close()
+	{
+		if (!closed)
+		{
+			reactor.execute(closeTask);
+		}
+	}
+	
+	/**
+	 * Checks if is open.
+	 * 
+	 * @return true, if is open
+	 */
+	public boolean isOpen()
+	{
+		return !closed;
+	}
+	
+	/**
+	 * Gets the remote address.
+	 * 
+	 * @return the remote address
+	 */
+	public SocketAddress getRemoteAddress()
+	{
+		return remoteAddress;
+	}
+	
+	/**
+	 * Gets the local address.
+	 * 
+	 * @return the local address, null if it is closed
+	 */
+	public SocketAddress getLocalAddress()
+	{
+		return channel.socket().getLocalSocketAddress();
+	}
+	
+	/**
+	 * Gets the attachment.
+	 * 
+	 * @return the attachment
+	 */
+	public Object getAttachment()
+	{
+		return attachment;
+	}
+	
+	/**
+	 * Sets the attachment, any state of the protocol for this connection.
+	 * 
+	 * @param attachment
+	 *            the attachment
+	 */
+	public void setAttachment(final Object attachment)
+	{
+		this.attachment = attachment;
+	}
+	
+	/**
+	 * Gets the reactor.
+	 * 
+	 * @return the reactor
+	 */
+	Reactor getReactor()
+	{
+		return reactor;
+	}
+	
+	/**
+	 * Registers the channel to the selector of the reactor, called by the
+	 * reactor.
+	 * 
+	 * @param ops
+	 *            the interest ops
+	 * @throws IOException
+	 *             if the channel is closed
+	 */
+	void register(final int ops) throws IOException
+	{
+		key = channel.register(reactor.getSelector(), ops, this);
+	}
+	
+	/**
+	 * Handles the selected key, called by the reactor.
+	 * 
+	 * @param selected
+	 *            the selected key
+	 */
+	void onSelected(final SelectionKey selected)
+	{
+		try
+		{
+			if (selected.isConnectable())
+			{
+				finishConnect();
+			}
+			if (selected.isValid() && selected.isReadable())
+			{
+				read();
+			}
+			if (selected.isValid() && selected.isWritable())
+			{
+				flush();
+			}
+		}
+		catch (IOException e)
+		{
+			closeNow(e);
+		}
+		catch (RuntimeException e)
+		{
+			logger.error("Got an unExpected Error while handling the connection: {}", this, e);
+			closeNow(e);
+		}
+	}
+	
+	/**
+	 * Completes the connect of a client connection.
+	 * 
+	 * @throws IOException
+	 *             if the connect fails
+	 */
+	private void finishConnect() throws IOException
+	{
+		if (channel.finishConnect())
+		{
+			remoteAddress = channel.socket().getRemoteSocketAddress();
+			key.interestOps(SelectionKey.OP_READ);
+			endpoint.connected(this);
+			connectFuture.complete(this);
+		}
+	}
+	
+	/**
+	 * Reads the available bytes and hands over the decoded messages to the
+	 * listener.
+	 * 
+	 * @throws IOException
+	 *             if the read fails or a frame is malformed
+	 */
+	private void read() throws IOException
+	{
+		ByteBuffer buffer = readBuffer;
+		if (buffer == null)
+		{
+			buffer = endpoint.getPool().acquire();
+			readBuffer = buffer;
+		}
+		final int read = channel.read(buffer);
+		if (read < 0)
+		{
+			closeNow(null);
+			return;
+		}
+		buffer.flip();
+		final FrameCodec<T> codec = endpoint.getCodec();
+		final ConnectionListener<T> listener = endpoint.getListener();
+		T message;
+		while (!closed && (message = codec.decode(buffer)) != null)
+		{
+			listener.onMessage(this, message);
+		}
+		if (closed)
+		{
+			return;
+		}
+		buffer.compact();
+		if (buffer.position() == 0)
+		{
+			readBuffer = null;
+			endpoint.getPool().release(buffer);
+		}
+		else if (!buffer.hasRemaining())
+		{
+			throw new IOException("Frame is bigger than the buffer size: " + buffer.capacity());
+		}
+		if (!readSuspended && pendingBytes.get() >= endpoint.getHighWaterMark())
+		{
+			readSuspended = true;
+			key.interestOps(key.interestOps() & ~SelectionKey.OP_READ);
+		}
+	}
+	
+	/**
+	 * Writes the pending buffers till the socket takes no more, and updates the
+	 * interest ops and the backpressure. Called by the reactor.
+	 */
+	private void flush()
+	{
+		flushScheduled.set(false);
+		if (closed || key == null)
+		{
+			return;
+		}
+		synchronized (sendLock)
+		{
+			publishSendBuffer();
+		}
+		final ByteBuffer[] gather = reactor.gather;
+		try
+		{
+			while (true)
+			{
+				int count = 0;
+				for (final Iterator<ByteBuffer> iterator = writeQueue.iterator(); iterator.hasNext() && count < gather.length;)
+				{
+					gather[count++] = iterator.next();
+				}
+				if (count == 0)
+				{
+					break;
+				}
+				final long written = channel.write(gather, 0, count);
+				pendingBytes.addAndGet(-written);
+				int done = 0;
+				while (done < count && !gather[done].hasRemaining())
+				{
+					endpoint.getPool().release(writeQueue.poll());
+					done++;
+				}
+				for (int index = 0; index < count; index++)
+				{
+					gather[index] = null;
+				}
+				if (done < count)
+				{
+					/** The socket buffer is full. */
+					break;
+				}
+			}
+		}
+		catch (IOException e)
+		{
+			closeNow(e);
+			return;
+		}
+		final boolean flushed = writeQueue.isEmpty();
+		if (flushed && closeAfterFlush)
+		{
+			closeNow(null);
+			return;
+		}
+		int ops = key.interestOps();
+		ops = flushed ? ops & ~SelectionKey.OP_WRITE : ops | SelectionKey.OP_WRITE;
+		if (pendingBytes.get() <= endpoint.getLowWaterMark())
+		{
+			if (readSuspended)
+			{
+				readSuspended = false;
+				ops |= SelectionKey.OP_READ;
+			}
+			signalWaiters();
+		}
+		if (ops != key.interestOps())
+		{
+			key.interestOps(ops);
+		}
+	}
+	
+	/**
+	 * Wakes up the senders waiting for the writability.
+	 */
+	private void signalWaiters()
+	{
+		if (waiters > 0)
+		{
+			synchronized (writableLock)
+			{
+				writableLock.notifyAll();
+			}
+		}
+	}
+	
+	/**
+	 * Closes the connection right away, dropping the pending bytes. Called by
+	 * the reactor.
+	 * 
+	 * @param cause
+	 *            the cause, null if it is closed normally
+	 */
+	void closeNow(final Throwable cause)
+	{
+		if (closed)
+		{
+			return;
+		}
+		closed = true;
+		if (key != null)
+		{
+			key.cancel();
+		}
+		try
+		{
+			channel.close();
+		}
+		catch (IOException e)
+		{
+			logger.debug("Error while closing the channel of: {}", this, e);
+		}
+		if (readBuffer != null)
+		{
+			endpoint.getPool().release(readBuffer);
+			readBuffer = null;
+		}
+		synchronized (sendLock)
+		{
+			publishSendBuffer();
+		}
+		ByteBuffer buffer;
+		while ((buffer = writeQueue.poll()) != null)
+		{
+			endpoint.getPool().release(buffer);
+		}
+		pendingBytes.set(0);
+		signalWaiters();
+		if (!connectFuture.isDone())
+		{
+			connectFuture.completeExceptionally(cause != null ? cause : new ClosedChannelException());
+		}
+		endpoint.disconnected(this, cause);
+	}
+	
+	/**
+	 * Closes the connection right away on the reactor thread, dropping the
+	 * pending bytes.
+	 */
+	void abort()
+	{
+		if (reactor.inReactor())
+		{
+			closeNow(null);
+		}
+		else
+		{
+			reactor.execute(new Runnable()
+			{
+				public void run()
+				{
+					closeNow(null);
+				}
+			});
+		}
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString()
+	{
+		final StringBuilder builder = new StringBuilder();
+		builder.append("Connection [remoteAddress=");
+		builder.append(remoteAddress);
+		builder.append(", pendingBytes=");
+		builder.append(pendingBytes.get());
+		builder.append(", open=");
+		builder.append(!closed);
+		builder.append("]");
+		return builder.toString();
+	}
+}
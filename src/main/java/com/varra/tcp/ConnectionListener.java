@@ -0,0 +1,69 @@
+/*
+ * utils4j - ConnectionListener.java, Oct 18, 2026 4:18:45 PM
+ * 
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.varra.tcp;
+
+import com.varra.classification.InterfaceAudience;
+import com.varra.classification.InterfaceStability;
+
+/**
+ * Receives the events of the {@link Connection}s of a {@link NioServer} or
+ * {@link NioClient}.<br>
+ * The events of a connection are delivered in order by the reactor thread it
+ * belongs to, hence the implementations should not block, the heavy work
+ * should be handed over to another thread.
+ * 
+ * @param <T>
+ *            the message type
+ * @author <a href="mailto:varra@outlook.com">Rajakrishna V.
+ *         Reddy</a>
+ * @version 1.0
+ */
+@InterfaceAudience.Public
+@InterfaceStability.Evolving
+public interface ConnectionListener<T>
+{
+	
+	/**
+	 * Called once the connection is established.
+	 * 
+	 * @param connection
+	 *            the connection
+	 */
+	void onConnected(Connection<T> connection);
+	
+	/**
+	 * Called for every message decoded from the connection.
+	 * 
+	 * @param connection
+	 *            the connection
+	 * @param message
+	 *            the message
+	 */
+	void onMessage(Connection<T> connection, T message);
+	
+	/**
+	 * Called once the connection is closed, by either side.
+	 * 
+	 * @param connection
+	 *            the connection
+	 * @param cause
+	 *            the cause, null if it is closed normally
+	 */
+	void onDisconnected(Connection<T> connection, Throwable cause);
+}
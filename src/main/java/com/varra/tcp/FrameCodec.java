@@ -0,0 +1,75 @@
+/*
+ * utils4j - FrameCodec.java, Oct 18, 2026 4:02:11 PM
+ * 
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.varra.tcp;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import com.varra.classification.InterfaceAudience;
+import com.varra.classification.InterfaceStability;
+
+/**
+ * Converts the messages of a protocol to and from the frames on the wire, used
+ * by the {@link NioServer} and {@link NioClient}.<br>
+ * A single instance is shared by all the connections of an endpoint, hence it
+ * should keep no state other than its configuration, the partial frames are
+ * kept in the read buffer of the connection.
+ * <p>
+ * A frame can not be bigger than the buffer size of the endpoint, see
+ * {@link AbstractNioEndpoint#setBufferSize(int)}.
+ * 
+ * @param <T>
+ *            the message type
+ * @author <a href="mailto:varra@outlook.com">Rajakrishna V.
+ *         Reddy</a>
+ * @version 1.0
+ */
+@InterfaceAudience.Public
+@InterfaceStability.Evolving
+public interface FrameCodec<T>
+{
+	
+	/**
+	 * Decodes the next message from the buffer which is ready to be read. If
+	 * the buffer has a complete frame, it consumes the frame and returns the
+	 * message, else it leaves the position as is and returns null. The
+	 * message must not refer to the buffer, as it is reused.
+	 * 
+	 * @param buffer
+	 *            the buffer
+	 * @return the message, null if the frame is not complete yet
+	 * @throws IOException
+	 *             if the frame is malformed, the connection is closed
+	 */
+	T decode(ByteBuffer buffer) throws IOException;
+	
+	/**
+	 * Encodes the message as a frame into the buffer, from its position.
+	 * 
+	 * @param message
+	 *            the message
+	 * @param buffer
+	 *            the buffer
+	 * @throws IOException
+	 *             if the message can not be encoded
+	 * @throws java.nio.BufferOverflowException
+	 *             if the frame is bigger than the buffer
+	 */
+	void encode(T message, ByteBuffer buffer) throws IOException;
+}
@@ -0,0 +1,119 @@
+/*
+ * utils4j - LengthFieldFrameCodec.java, Oct 18, 2026 4:05:37 PM
+ * 
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.varra.tcp;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import com.varra.classification.InterfaceAudience;
+import com.varra.classification.InterfaceStability;
+
+/**
+ * A {@link FrameCodec} of the binary messages, each frame is a 4 bytes big
+ * endian length followed by the payload.
+ * 
+ * @author <a href="mailto:varra@outlook.com">Rajakrishna V.
+ *         Reddy</a>
+ * @version 1.0
+ */
+@InterfaceAudience.Public
+@InterfaceStability.Evolving
+public class LengthFieldFrameCodec implements FrameCodec<byte[]>
+{
+	
+	/** The size of the length field. */
+	public static final int LENGTH_FIELD_SIZE = 4;
+	
+	/** The max length of the payload. */
+	private final int maxLength;
+	
+	/**
+	 * Instantiates a new codec without a limit other than the buffer size.
+	 */
+	public LengthFieldFrameCodec()
+	{
+		this(Integer.MAX_VALUE - LENGTH_FIELD_SIZE);
+	}
+	
+	/**
+	 * Instantiates a new codec.
+	 * 
+	 * @param maxLength
+	 *            the max length of the payload
+	 */
+	public LengthFieldFrameCodec(final int maxLength)
+	{
+		if (maxLength < 0)
+		{
+			throw new IllegalArgumentException("Max length should not be negative, maxLength: " + maxLength);
+		}
+		this.maxLength = maxLength;
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see com.varra.tcp.FrameCodec#decode(java.nio.ByteBuffer)
+	 */
+	public byte[] decode(final ByteBuffer buffer) throws IOException
+	{
+		if (buffer.remaining() < LENGTH_FIELD_SIZE)
+		{
+			return null;
+		}
+		final int length = buffer.getInt(buffer.position());
+		if (length < 0 || length > maxLength)
+		{
+			throw new IOException("Invalid frame length: " + length + ", max length: " + maxLength);
+		}
+		if (buffer.remaining() < LENGTH_FIELD_SIZE + length)
+		{
+			return null;
+		}
+		buffer.position(buffer.position() + LENGTH_FIELD_SIZE);
+		final byte[] payload = new byte[length];
+		buffer.get(payload);
+		return payload;
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see com.varra.tcp.FrameCodec#encode(java.lang.Object, java.nio.ByteBuffer)
+	 */
+	public void encode(final byte[] message, final ByteBuffer buffer) throws IOException
+	{
+		if (message.length > maxLength)
+		{
+			throw new IOException("Message is too long: " + message.length + ", max length: " + maxLength);
+		}
+		buffer.putInt(message.length);
+		buffer.put(message);
+	}
+	
+	/**
+	 * Gets the max length of the payload.
+	 * 
+	 * @return the max length
+	 */
+	public int getMaxLength()
+	{
+		return maxLength;
+	}
+}
@@ -0,0 +1,97 @@
+/*
+ * utils4j - LineFrameCodec.java, Oct 18, 2026 4:09:52 PM
+ * 
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.varra.tcp;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+
+import com.varra.classification.InterfaceAudience;
+import com.varra.classification.InterfaceStability;
+
+/**
+ * A {@link FrameCodec} of the text messages, each frame is a line terminated
+ * by '\n', an optional '\r' before it is dropped as well. Handy for the
+ * telnet like control protocols.
+ * 
+ * @author <a href="mailto:varra@outlook.com">Rajakrishna V.
+ *         Reddy</a>
+ * @version 1.0
+ */
+@InterfaceAudience.Public
+@InterfaceStability.Evolving
+public class LineFrameCodec implements FrameCodec<String>
+{
+	
+	/** The charset. */
+	private final Charset charset;
+	
+	/**
+	 * Instantiates a new codec with UTF-8.
+	 */
+	public LineFrameCodec()
+	{
+		this(Charset.forName("UTF-8"));
+	}
+	
+	/**
+	 * Instantiates a new codec.
+	 * 
+	 * @param charset
+	 *            the charset
+	 */
+	public LineFrameCodec(final Charset charset)
+	{
+		this.charset = charset;
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see com.varra.tcp.FrameCodec#decode(java.nio.ByteBuffer)
+	 */
+	public String decode(final ByteBuffer buffer) throws IOException
+	{
+		final int start = buffer.position();
+		final int limit = buffer.limit();
+		for (int index = start; index < limit; index++)
+		{
+			if (buffer.get(index) == '\n')
+			{
+				final int end = index > start && buffer.get(index - 1) == '\r' ? index - 1 : index;
+				final byte[] line = new byte[end - start];
+				buffer.get(line);
+				buffer.position(index + 1);
+				return new String(line, charset);
+			}
+		}
+		return null;
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see com.varra.tcp.FrameCodec#encode(java.lang.Object, java.nio.ByteBuffer)
+	 */
+	public void encode(final String message, final ByteBuffer buffer) throws IOException
+	{
+		buffer.put(message.getBytes(charset));
+		buffer.put((byte) '\n');
+	}
+}
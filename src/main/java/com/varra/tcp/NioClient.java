@@ -0,0 +1,297 @@
+/*
+ * utils4j - NioClient.java, Oct 18, 2026 5:21:09 PM
+ * 
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.varra.tcp;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.SocketAddress;
+import java.net.SocketTimeoutException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import com.varra.classification.InterfaceAudience;
+import com.varra.classification.InterfaceStability;
+
+/**
+ * A non-blocking TCP client, the counterpart of the {@link NioServer}. The
+ * connections are made asynchronously with {@link #connect(SocketAddress)},
+ * or taken from the pool of each address with
+ * {@link #getConnection(SocketAddress)}, which keeps up to
+ * {@link #getMaxConnectionsPerAddress()} connections and hands them out round
+ * robin.
+ * <p>
+ * The replies are delivered to the {@link ConnectionListener} by the reactor
+ * threads, like on the server.
+ * 
+ * @param <T>
+ *            the message type
+ * @author <a href="mailto:varra@outlook.com">Rajakrishna V.
+ *         Reddy</a>
+ * @version 1.0
+ */
+@InterfaceAudience.Public
+@InterfaceStability.Evolving
+public class NioClient<T> extends AbstractNioEndpoint<T>
+{
+	
+	/** The default connect timeout in ms. */
+	public static final long DEFAULT_CONNECT_TIMEOUT = 5000;
+	
+	/** The pooled connections of each address. */
+	private final ConcurrentMap<SocketAddress, AtomicReferenceArray<Connection<T>>> pools = new ConcurrentHashMap<SocketAddress, AtomicReferenceArray<Connection<T>>>();
+	
+	/** The next pooled connection, round robin. */
+	private final AtomicInteger nextConnection = new AtomicInteger();
+	
+	/** The max connections per address. */
+	private int maxConnectionsPerAddress = 1;
+	
+	/** The connect timeout. */
+	private long connectTimeout = DEFAULT_CONNECT_TIMEOUT;
+	
+	/**
+	 * Instantiates a new client.
+	 * 
+	 * @param codec
+	 *            the codec
+	 * @param listener
+	 *            the listener
+	 */
+	public NioClient(final FrameCodec<T> codec, final ConnectionListener<T> listener)
+	{
+		super("NioClient", codec, listener);
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see com.varra.tcp.AbstractNioEndpoint#doStart()
+	 */
+	@Override
+	protected void doStart() throws IOException
+	{
+	
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see com.varra.tcp.AbstractNioEndpoint#doShutdown()
+	 */
+	@Override
+	protected void doShutdown()
+	{
+		pools.clear();
+	}
+	
+	/**
+	 * Opens a new connection to the address, the returned future completes
+	 * once it is connected.
+	 * 
+	 * @param address
+	 *            the address
+	 * @return the future of the connection
+	 * @throws IOException
+	 *             if the channel can not be opened
+	 */
+	public Future<Connection<T>> connect(final SocketAddress address) throws IOException
+	{
+		return open(address).connectFuture;
+	}
+	
+	/**
+	 * Opens a new connection to the address.
+	 * 
+	 * @param address
+	 *            the address
+	 * @return the connection, connecting
+	 * @throws IOException
+	 *             if the channel can not be opened
+	 */
+	private Connection<T> open(final SocketAddress address) throws IOException
+	{
+		checkRunning();
+		final SocketChannel channel = SocketChannel.open();
+		final Connection<T> connection;
+		try
+		{
+			configure(channel);
+			connection = newConnection(channel);
+			if (channel.connect(address))
+			{
+				register(connection, SelectionKey.OP_READ);
+			}
+			else
+			{
+				register(connection, SelectionKey.OP_CONNECT);
+			}
+		}
+		catch (IOException e)
+		{
+			channel.close();
+			throw e;
+		}
+		return connection;
+	}
+	
+	/**
+	 * Gets a pooled connection to the address, connects if the slot it picks
+	 * has no open connection, waiting for the connect timeout at most.
+	 * 
+	 * @param address
+	 *            the address
+	 * @return the connection
+	 * @throws IOException
+	 *             if it can not connect
+	 */
+	public Connection<T> getConnection(final SocketAddress address) throws IOException
+	{
+		AtomicReferenceArray<Connection<T>> slots = pools.get(address);
+		if (slots == null)
+		{
+			final AtomicReferenceArray<Connection<T>> newSlots = new AtomicReferenceArray<Connection<T>>(maxConnectionsPerAddress);
+			slots = pools.putIfAbsent(address, newSlots);
+			if (slots == null)
+			{
+				slots = newSlots;
+			}
+		}
+		final int index = (nextConnection.getAndIncrement() & Integer.MAX_VALUE) % slots.length();
+		Connection<T> connection = slots.get(index);
+		if (connection != null && connection.isOpen())
+		{
+			return connection;
+		}
+		synchronized (slots)
+		{
+			connection = slots.get(index);
+			if (connection == null || !connection.isOpen())
+			{
+				connection = await(open(address));
+				slots.set(index, connection);
+			}
+			return connection;
+		}
+	}
+	
+	/**
+	 * Sends the message on a pooled connection to the address.
+	 * 
+	 * @param address
+	 *            the address
+	 * @param message
+	 *            the message
+	 * @throws IOException
+	 *             if it can not connect or send
+	 */
+	public void send(final SocketAddress address, final T message) throws IOException
+	{
+		getConnection(address).send(message);
+	}
+	
+	/**
+	 * Waits for the connect, for the connect timeout at most.
+	 * 
+	 * @param connection
+	 *            the connection
+	 * @return the connection
+	 * @throws IOException
+	 *             if it is not connected in time or fails
+	 */
+	private Connection<T> await(final Connection<T> connection) throws IOException
+	{
+		try
+		{
+			return connection.connectFuture.get(connectTimeout, TimeUnit.MILLISECONDS);
+		}
+		catch (TimeoutException e)
+		{
+			connection.abort();
+			throw new SocketTimeoutException("Connect timed out after " + connectTimeout + " ms");
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+			connection.abort();
+			throw new InterruptedIOException("Interrupted while connecting.");
+		}
+		catch (ExecutionException e)
+		{
+			if (e.getCause() instanceof IOException)
+			{
+				throw (IOException) e.getCause();
+			}
+			throw new IOException("Unable to connect.", e.getCause());
+		}
+	}
+	
+	/**
+	 * Gets the max connections per address.
+	 * 
+	 * @return the max connections per address
+	 */
+	public int getMaxConnectionsPerAddress()
+	{
+		return maxConnectionsPerAddress;
+	}
+	
+	/**
+	 * Sets the max no of pooled connections per address, 1 by default.
+	 * 
+	 * @param maxConnectionsPerAddress
+	 *            the new max connections per address
+	 */
+	public void setMaxConnectionsPerAddress(final int maxConnectionsPerAddress)
+	{
+		if (maxConnectionsPerAddress <= 0)
+		{
+			throw new IllegalArgumentException("Max connections should be greater than zero: " + maxConnectionsPerAddress);
+		}
+		this.maxConnectionsPerAddress = maxConnectionsPerAddress;
+	}
+	
+	/**
+	 * Gets the connect timeout.
+	 * 
+	 * @return the connect timeout in ms
+	 */
+	public long getConnectTimeout()
+	{
+		return connectTimeout;
+	}
+	
+	/**
+	 * Sets the connect timeout of the pooled connections.
+	 * 
+	 * @param connectTimeout
+	 *            the new connect timeout in ms
+	 */
+	public void setConnectTimeout(final long connectTimeout)
+	{
+		this.connectTimeout = connectTimeout;
+	}
+}
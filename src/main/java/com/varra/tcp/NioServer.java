@@ -0,0 +1,232 @@
+/*
+ * utils4j - NioServer.java, Oct 18, 2026 5:07:44 PM
+ * 
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.varra.tcp;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+
+import com.varra.classification.InterfaceAudience;
+import com.varra.classification.InterfaceStability;
+import com.varra.log.Logger;
+
+/**
+ * A non-blocking TCP server, the connections are accepted by the first
+ * {@link Reactor} and spread over all of them round robin. Each connection
+ * decodes its frames with the {@link FrameCodec} and hands over the messages
+ * to the {@link ConnectionListener}.
+ * 
+ * <pre>
+ * final NioServer&lt;String&gt; server = new NioServer&lt;String&gt;(port, new LineFrameCodec(), listener);
+ * server.start();
+ * ...
+ * server.shutdown(ShutdownMode.GRACEFUL_SHUTDOWN);
+ * </pre>
+ * 
+ * @param <T>
+ *            the message type
+ * @author <a href="mailto:varra@outlook.com">Rajakrishna V.
+ *         Reddy</a>
+ * @version 1.0
+ */
+@InterfaceAudience.Public
+@InterfaceStability.Evolving
+public class NioServer<T> extends AbstractNioEndpoint<T>
+{
+	
+	/** The logger. */
+	private static final Logger logger = Logger.getLogger(NioServer.class);
+	
+	/** The max no of connections accepted in one go. */
+	private static final int ACCEPTS_PER_SELECT = 256;
+	
+	/** The address. */
+	private final SocketAddress address;
+	
+	/** The backlog. */
+	private int backlog = 1024;
+	
+	/** The server channel. */
+	private ServerSocketChannel serverChannel;
+	
+	/**
+	 * Instantiates a new server on the given port of all the interfaces, 0 for
+	 * any free port.
+	 * 
+	 * @param port
+	 *            the port
+	 * @param codec
+	 *            the codec
+	 * @param listener
+	 *            the listener
+	 */
+	public NioServer(final int port, final FrameCodec<T> codec, final ConnectionListener<T> listener)
+	{
+		this(new InetSocketAddress(port), codec, listener);
+	}
+	
+	/**
+	 * Instantiates a new server on the given address.
+	 * 
+	 * @param address
+	 *            the address
+	 * @param codec
+	 *            the codec
+	 * @param listener
+	 *            the listener
+	 */
+	public NioServer(final SocketAddress address, final FrameCodec<T> codec, final ConnectionListener<T> listener)
+	{
+		super("NioServer", codec, listener);
+		this.address = address;
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see com.varra.tcp.AbstractNioEndpoint#doStart()
+	 */
+	@Override
+	protected void doStart() throws IOException
+	{
+		serverChannel = ServerSocketChannel.open();
+		serverChannel.socket().setReuseAddress(true);
+		serverChannel.socket().bind(address, backlog);
+		serverChannel.configureBlocking(false);
+		final Reactor reactor = nextReactor();
+		reactor.execute(new Runnable()
+		{
+			public void run()
+			{
+				try
+				{
+					serverChannel.register(reactor.getSelector(), SelectionKey.OP_ACCEPT, new Acceptor());
+				}
+				catch (IOException e)
+				{
+					logger.error("Unable to register the server channel.", e);
+				}
+			}
+		});
+		logger.info("Listening on: {}", serverChannel.socket().getLocalSocketAddress());
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see com.varra.tcp.AbstractNioEndpoint#doShutdown()
+	 */
+	@Override
+	protected void doShutdown()
+	{
+		try
+		{
+			serverChannel.close();
+		}
+		catch (IOException e)
+		{
+			logger.debug("Error while closing the server channel.", e);
+		}
+	}
+	
+	/**
+	 * Gets the local port, useful when it is started on port 0.
+	 * 
+	 * @return the local port, -1 if it is not started
+	 */
+	public int getLocalPort()
+	{
+		return serverChannel == null ? -1 : serverChannel.socket().getLocalPort();
+	}
+	
+	/**
+	 * Gets the backlog.
+	 * 
+	 * @return the backlog
+	 */
+	public int getBacklog()
+	{
+		return backlog;
+	}
+	
+	/**
+	 * Sets the backlog of the pending connections, 1024 by default.
+	 * 
+	 * @param backlog
+	 *            the new backlog
+	 */
+	public void setBacklog(final int backlog)
+	{
+		this.backlog = backlog;
+	}
+	
+	/**
+	 * Accepts the pending connections, run by the reactor the server channel
+	 * is registered to.
+	 */
+	private final class Acceptor implements Runnable
+	{
+		
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see java.lang.Runnable#run()
+		 */
+		public void run()
+		{
+			for (int count = 0; count < ACCEPTS_PER_SELECT; count++)
+			{
+				final SocketChannel channel;
+				try
+				{
+					channel = serverChannel.accept();
+				}
+				catch (IOException e)
+				{
+					logger.warn("Unable to accept the connection.", e);
+					return;
+				}
+				if (channel == null)
+				{
+					return;
+				}
+				try
+				{
+					configure(channel);
+					register(newConnection(channel), SelectionKey.OP_READ);
+				}
+				catch (IOException e)
+				{
+					logger.warn("Unable to configure the connection: {}", channel, e);
+					try
+					{
+						channel.close();
+					}
+					catch (IOException ex)
+					{
+						logger.debug("Error while closing the channel.", ex);
+					}
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,173 @@
+/*
+ * utils4j - PortCheckResult.java, Oct 18, 2026 6:12:48 PM
+ * 
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.varra.tcp;
+
+import java.net.InetSocketAddress;
+
+import com.varra.classification.InterfaceAudience;
+import com.varra.classification.InterfaceStability;
+
+/**
+ * The result of a port check of {@link Client#checkPorts}, tells whether the
+ * port of the host accepted the connection and how long it took.
+ * 
+ * @author <a href="mailto:varra@outlook.com">Rajakrishna V.
+ *         Reddy</a>
+ * @version 1.0
+ */
+@InterfaceAudience.Public
+@InterfaceStability.Evolving
+public class PortCheckResult
+{
+	
+	/**
+	 * The status of a port.
+	 */
+	public enum Status
+	{
+		
+		/** The connection is accepted. */
+		OPEN,
+		
+		/** The connection is refused or reset. */
+		CLOSED,
+		
+		/** No answer within the timeout. */
+		TIMED_OUT,
+		
+		/** The host can not be resolved or reached. */
+		UNREACHABLE;
+	}
+	
+	/** The address. */
+	private final InetSocketAddress address;
+	
+	/** The status. */
+	private final Status status;
+	
+	/** The elapsed nanos. */
+	private final long elapsedNanos;
+	
+	/** The cause, null if it is open or timed out. */
+	private final Throwable cause;
+	
+	/**
+	 * Instantiates a new port check result.
+	 * 
+	 * @param address
+	 *            the address
+	 * @param status
+	 *            the status
+	 * @param elapsedNanos
+	 *            the elapsed nanos
+	 * @param cause
+	 *            the cause
+	 */
+	public PortCheckResult(final InetSocketAddress address, final Status status, final long elapsedNanos, final Throwable cause)
+	{
+		this.address = address;
+		this.status = status;
+		this.elapsedNanos = elapsedNanos;
+		this.cause = cause;
+	}
+	
+	/**
+	 * Gets the address.
+	 * 
+	 * @return the address
+	 */
+	public InetSocketAddress getAddress()
+	{
+		return address;
+	}
+	
+	/**
+	 * Gets the status.
+	 * 
+	 * @return the status
+	 */
+	public Status getStatus()
+	{
+		return status;
+	}
+	
+	/**
+	 * Checks if is opened.
+	 * 
+	 * @return true, if is opened
+	 */
+	public boolean isOpened()
+	{
+		return status == Status.OPEN;
+	}
+	
+	/**
+	 * Gets the time taken by the check, in ms.
+	 * 
+	 * @return the elapsed millis
+	 */
+	public long getElapsedMillis()
+	{
+		return elapsedNanos / 1000000;
+	}
+	
+	/**
+	 * Gets the time taken by the check, in nanos.
+	 * 
+	 * @return the elapsed nanos
+	 */
+	public long getElapsedNanos()
+	{
+		return elapsedNanos;
+	}
+	
+	/**
+	 * Gets the cause.
+	 * 
+	 * @return the cause, null if it is open or timed out
+	 */
+	public Throwable getCause()
+	{
+		return cause;
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString()
+	{
+		final StringBuilder builder = new StringBuilder();
+		builder.append("PortCheckResult [address=");
+		builder.append(address);
+		builder.append(", status=");
+		builder.append(status);
+		builder.append(", elapsedMillis=");
+		builder.append(getElapsedMillis());
+		if (cause != null)
+		{
+			builder.append(", cause=");
+			builder.append(cause.getMessage());
+		}
+		builder.append("]");
+		return builder.toString();
+	}
+}
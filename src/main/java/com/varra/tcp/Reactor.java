@@ -0,0 +1,282 @@
+/*
+ * utils4j - Reactor.java, Oct 18, 2026 4:22:03 PM
+ * 
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.varra.tcp;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.CancelledKeyException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import com.varra.log.Logger;
+
+/**
+ * An event loop, a thread which owns a {@link Selector} and handles the
+ * selected keys of the channels registered to it, along with the tasks
+ * submitted by the other threads.<br>
+ * The tasks submitted while it is busy are run at the end of the current
+ * iteration, and the selector is woken up only once for them.
+ * 
+ * @author <a href="mailto:varra@outlook.com">Rajakrishna V.
+ *         Reddy</a>
+ * @version 1.0
+ */
+final class Reactor implements Runnable
+{
+	
+	/** The logger. */
+	private static final Logger logger = Logger.getLogger(Reactor.class);
+	
+	/** The max no of buffers written in one gathering write. */
+	private static final int GATHER_SIZE = 64;
+	
+	/** The max no of tasks run in one iteration. */
+	private static final int TASKS_PER_ITERATION = 1024;
+	
+	/** The selector. */
+	private final Selector selector;
+	
+	/** The submitted tasks. */
+	private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<Runnable>();
+	
+	/** Whether the selector is woken up already for the tasks. */
+	private final AtomicBoolean wakenUp = new AtomicBoolean();
+	
+	/** The buffers of a gathering write, used by the reactor thread only. */
+	final ByteBuffer[] gather = new ByteBuffer[GATHER_SIZE];
+	
+	/** The thread. */
+	private final Thread thread;
+	
+	/** The running. */
+	private volatile boolean running = true;
+	
+	/**
+	 * Instantiates a new reactor.
+	 * 
+	 * @param name
+	 *            the name of the thread
+	 * @param daemon
+	 *            whether the thread is a daemon
+	 * @throws IOException
+	 *             if the selector can not be opened
+	 */
+	Reactor(final String name, final boolean daemon) throws IOException
+	{
+		selector = Selector.open();
+		thread = new Thread(this, name);
+		thread.setDaemon(daemon);
+	}
+	
+	/**
+	 * Starts the thread.
+	 */
+	void start()
+	{
+		thread.start();
+	}
+	
+	/**
+	 * Gets the selector.
+	 * 
+	 * @return the selector
+	 */
+	Selector getSelector()
+	{
+		return selector;
+	}
+	
+	/**
+	 * Checks if the caller is the reactor thread.
+	 * 
+	 * @return true, if is in the reactor
+	 */
+	boolean inReactor()
+	{
+		return Thread.currentThread() == thread;
+	}
+	
+	/**
+	 * Submits the task to be run by the reactor thread.
+	 * 
+	 * @param task
+	 *            the task
+	 */
+	void execute(final Runnable task)
+	{
+		tasks.offer(task);
+		if (!inReactor() && wakenUp.compareAndSet(false, true))
+		{
+			selector.wakeup();
+		}
+	}
+	
+	/**
+	 * Stops the thread and closes the selector, waits for the thread to finish
+	 * for the given time.
+	 * 
+	 * @param waitMillis
+	 *            the wait millis
+	 */
+	void shutdown(final long waitMillis)
+	{
+		running = false;
+		selector.wakeup();
+		if (!inReactor())
+		{
+			try
+			{
+				thread.join(waitMillis);
+			}
+			catch (InterruptedException e)
+			{
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see java.lang.Runnable#run()
+	 */
+	public void run()
+	{
+		while (running)
+		{
+			try
+			{
+				wakenUp.set(false);
+				if (tasks.isEmpty())
+				{
+					selector.select();
+				}
+				else
+				{
+					selector.selectNow();
+				}
+				processSelectedKeys();
+				runTasks();
+			}
+			catch (Throwable e)
+			{
+				logger.error("Got an unExpected Error in the reactor loop.", e);
+			}
+		}
+		runTasks();
+		closeChannels();
+	}
+	
+	/**
+	 * Handles the selected keys.
+	 */
+	private void processSelectedKeys()
+	{
+		final Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+		while (keys.hasNext())
+		{
+			final SelectionKey key = keys.next();
+			keys.remove();
+			final Object attachment = key.attachment();
+			try
+			{
+				if (!key.isValid())
+				{
+					continue;
+				}
+				if (attachment instanceof Connection)
+				{
+					((Connection<?>) attachment).onSelected(key);
+				}
+				else if (attachment instanceof Runnable)
+				{
+					((Runnable) attachment).run();
+				}
+			}
+			catch (CancelledKeyException e)
+			{
+				if (attachment instanceof Connection)
+				{
+					((Connection<?>) attachment).closeNow(null);
+				}
+			}
+		}
+	}
+	
+	/**
+	 * Runs the submitted tasks.
+	 */
+	private void runTasks()
+	{
+		for (int count = 0; count < TASKS_PER_ITERATION; count++)
+		{
+			final Runnable task = tasks.poll();
+			if (task == null)
+			{
+				return;
+			}
+			try
+			{
+				task.run();
+			}
+			catch (Throwable e)
+			{
+				logger.error("Got an unExpected Error while running the task: {}", task, e);
+			}
+		}
+	}
+	
+	/**
+	 * Closes the channels still registered and the selector.
+	 */
+	private void closeChannels()
+	{
+		for (final SelectionKey key : selector.keys())
+		{
+			final Object attachment = key.attachment();
+			if (attachment instanceof Connection)
+			{
+				((Connection<?>) attachment).closeNow(null);
+			}
+			else
+			{
+				try
+				{
+					key.channel().close();
+				}
+				catch (IOException e)
+				{
+					logger.debug("Error while closing the channel: {}", key.channel(), e);
+				}
+			}
+		}
+		try
+		{
+			selector.close();
+		}
+		catch (IOException e)
+		{
+			logger.debug("Error while closing the selector.", e);
+		}
+	}
+}
@@ -18,12 +18,11 @@
  */
 package com.varra.tcp;
 
-import java.io.*;
-import java.net.*;
+import java.io.IOException;
 
 /**
- * 
- * TODO Description go here.
+ * A telnet like echo server, replies every line in upper case. It runs on the
+ * {@link NioServer}, hence serves any no of clients at the same time.
  * 
  * @author <a href="mailto:varra@outlook.com">Rajakrishna V.
  *         Reddy</a>
@@ -41,29 +40,46 @@ public class Server
 	 * @throws Exception
 	 *             the exception
 	 */
-	@SuppressWarnings("resource")
 	public static void main(String args[]) throws Exception
 	{
 		if (args.length > 0)
 		{
-			String clientSentence;
-			String capitalizedSentence;
-			final ServerSocket welcomeSocket = new ServerSocket(Integer.parseInt(args[0]));
-			System.out.println("Welcome to Telnet serevr. This is echo server, for any issues, please contact Rajakrishna Reddy.");
-			final Socket connectionSocket = welcomeSocket.accept();
-			while (true)
-			{
-				final BufferedReader inFromClient = new BufferedReader(new InputStreamReader(connectionSocket.getInputStream()));
-				final DataOutputStream outToClient = new DataOutputStream(connectionSocket.getOutputStream());
-				clientSentence = inFromClient.readLine();
-				//System.out.println("Client: " + clientSentence);
-				if (clientSentence != null)
-				{
-					capitalizedSentence = clientSentence.toUpperCase() + '\n';
-					outToClient.writeBytes("Server: " + capitalizedSentence);
-					System.out.println("Server: " + capitalizedSentence);
-				}
-			}
+			final NioServer<String> server = new NioServer<String>(Integer.parseInt(args[0]), new LineFrameCodec(),
+					new ConnectionListener<String>()
+					{
+						public void onConnected(Connection<String> connection)
+						{
+							try
+							{
+								connection.send("Welcome to Telnet serevr. This is echo server, for any issues, please contact Rajakrishna Reddy.");
+							}
+							catch (IOException e)
+							{
+								connection.close();
+							}
+						}
+						
+						public void onMessage(Connection<String> connection, String clientSentence)
+						{
+							final String capitalizedSentence = clientSentence.toUpperCase();
+							try
+							{
+								connection.send("Server: " + capitalizedSentence);
+								System.out.println("Server: " + capitalizedSentence);
+							}
+							catch (IOException e)
+							{
+								connection.close();
+							}
+						}
+						
+						public void onDisconnected(Connection<String> connection, Throwable cause)
+						{
+							
+						}
+					});
+			server.setDaemon(false);
+			server.start();
 		}
 		else
 		{
@@ -71,4 +87,4 @@ public class Server
 			System.exit(0);
 		}
 	}
-}
\ No newline at end of file
+}
@@ -0,0 +1,249 @@
+/*
+ * utils4j - AbstractRateLimiter.java, Oct 18, 2026 11:54:36 PM
+ * 
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.varra.util;
+
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import com.varra.classification.InterfaceAudience;
+import com.varra.classification.InterfaceStability;
+
+/**
+ * The base of the {@link RateLimiter}s, implements the waiting on top of
+ * {@link #tryAcquire(int)} and {@link #getWaitTime(int, TimeUnit)}: the
+ * callers park for the expected wait time and try again.
+ * 
+ * @author <a href="mailto:varra@outlook.com">Rajakrishna V.
+ *         Reddy</a>
+ * @version 1.0
+ */
+@InterfaceAudience.Public
+@InterfaceStability.Evolving
+public abstract class AbstractRateLimiter implements RateLimiter
+{
+	
+	/** The least time to wait before trying again, in nanos. */
+	protected static final long MIN_WAIT_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+	
+	/**
+	 * Acquires a permit if it is available right away.
+	 * 
+	 * @return true, if acquired
+	 */
+	public boolean tryAcquire()
+	{
+		return tryAcquire(1);
+	}
+	
+	/**
+	 * Acquires a permit, waiting till it is available.
+	 * 
+	 * @throws InterruptedException
+	 *             if interrupted while waiting
+	 */
+	public void acquire() throws InterruptedException
+	{
+		acquire(1);
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see com.varra.util.RateLimiter#acquire(int)
+	 */
+	public void acquire(final int permits) throws InterruptedException
+	{
+		while (!tryAcquire(permits))
+		{
+			await(getWaitTime(permits, TimeUnit.NANOSECONDS));
+		}
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see com.varra.util.RateLimiter#tryAcquire(int, long,
+	 * java.util.concurrent.TimeUnit)
+	 */
+	public boolean tryAcquire(final int permits, final long timeout, final TimeUnit unit) throws InterruptedException
+	{
+		final long deadline = System.nanoTime() + unit.toNanos(timeout);
+		while (!tryAcquire(permits))
+		{
+			final long remaining = deadline - System.nanoTime();
+			final long wait = getWaitTime(permits, TimeUnit.NANOSECONDS);
+			if (remaining <= 0 || wait > remaining)
+			{
+				/** Gives up early, it would not be available in time. */
+				return false;
+			}
+			await(wait);
+		}
+		return true;
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see com.varra.util.RateLimiter#acquireAsync(int,
+	 * java.util.concurrent.ScheduledExecutorService, java.lang.Runnable)
+	 */
+	public Future<?> acquireAsync(final int permits, final ScheduledExecutorService scheduler, final Runnable task)
+	{
+		final AsyncAcquire acquire = new AsyncAcquire(permits, scheduler, task);
+		acquire.run();
+		return acquire.future;
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see com.varra.util.RateLimiter#release(int)
+	 */
+	public void release(final int permits)
+	{
+		/** Nothing to give back for the rate limits. */
+	}
+	
+	/**
+	 * Waits for the given time, or till woken up.
+	 * 
+	 * @param nanos
+	 *            the nanos
+	 * @throws InterruptedException
+	 *             if interrupted
+	 */
+	protected void await(final long nanos) throws InterruptedException
+	{
+		LockSupport.parkNanos(this, Math.max(MIN_WAIT_NANOS, nanos));
+		if (Thread.interrupted())
+		{
+			throw new InterruptedException();
+		}
+	}
+	
+	/**
+	 * Checks the permits asked for.
+	 * 
+	 * @param permits
+	 *            the permits
+	 * @param max
+	 *            the max permits that can ever be available at a time
+	 */
+	protected static void checkPermits(final int permits, final long max)
+	{
+		if (permits <= 0 || permits > max)
+		{
+			throw new IllegalArgumentException("Permits should be between 1 and " + max + ", permits: " + permits);
+		}
+	}
+	
+	/**
+	 * Converts the wait time to the given unit, rounding it up so that it is
+	 * not woken up early.
+	 * 
+	 * @param nanos
+	 *            the wait time in nanos
+	 * @param unit
+	 *            the unit
+	 * @return the wait time in the given unit, 0 if not positive
+	 */
+	protected static long toUnit(final long nanos, final TimeUnit unit)
+	{
+		if (nanos <= 0)
+		{
+			return 0;
+		}
+		final long unitNanos = unit.toNanos(1);
+		return nanos / unitNanos + (nanos % unitNanos == 0 ? 0 : 1);
+	}
+	
+	/**
+	 * Tries to acquire the permits on the scheduler, and runs the task once
+	 * they are acquired.
+	 */
+	private final class AsyncAcquire implements Runnable
+	{
+		
+		/** The permits. */
+		private final int permits;
+		
+		/** The scheduler. */
+		private final ScheduledExecutorService scheduler;
+		
+		/** The future of the task. */
+		private final FutureTask<Object> future;
+		
+		/**
+		 * Instantiates a new async acquire.
+		 * 
+		 * @param permits
+		 *            the permits
+		 * @param scheduler
+		 *            the scheduler
+		 * @param task
+		 *            the task
+		 */
+		private AsyncAcquire(final int permits, final ScheduledExecutorService scheduler, final Runnable task)
+		{
+			this.permits = permits;
+			this.scheduler = scheduler;
+			this.future = new FutureTask<Object>(task, null);
+		}
+		
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see java.lang.Runnable#run()
+		 */
+		public void run()
+		{
+			if (future.isDone())
+			{
+				return;
+			}
+			if (tryAcquire(permits))
+			{
+				try
+				{
+					scheduler.execute(future);
+				}
+				catch (RejectedExecutionException e)
+				{
+					release(permits);
+					future.cancel(false);
+				}
+				return;
+			}
+			try
+			{
+				scheduler.schedule(this, Math.max(MIN_WAIT_NANOS, getWaitTime(permits, TimeUnit.NANOSECONDS)), TimeUnit.NANOSECONDS);
+			}
+			catch (RejectedExecutionException e)
+			{
+				/** The scheduler is shut down, gives up. */
+				future.cancel(false);
+			}
+		}
+	}
+}
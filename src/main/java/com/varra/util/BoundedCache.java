@@ -0,0 +1,1008 @@
+/*
+ * utils4j - BoundedCache.java, Oct 18, 2026 9:24:13 PM
+ * 
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.varra.util;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+import com.varra.classification.InterfaceAudience;
+import com.varra.classification.InterfaceStability;
+import com.varra.exception.ComputingException;
+import com.varra.jmx.exception.MBeanRegistrationException;
+import com.varra.jmx.mbean.RapidMBean;
+import com.varra.jmx.registry.MBeanManager;
+import com.varra.log.Logger;
+
+/**
+ * A concurrent cache bounded by the no of its entries, or by their total
+ * weight when a {@link Weigher} is given, for the lookups that used to be
+ * cached in a {@link RapidFastMap} growing without a limit.
+ * 
+ * <br>
+ * It evicts with the W-TinyLFU policy, which keeps a higher hit ratio than a
+ * LRU for most of the workloads: the new entries go to a small LRU window
+ * (1% of the maximum), the ones leaving the window are admitted to the main
+ * space only if they are used more often than the ones they would evict, as
+ * estimated by a {@link FrequencySketch}. The main space is a segmented LRU,
+ * the entries used again while on probation are protected (80% of the main
+ * space).
+ * 
+ * <br>
+ * The lookups never block: the entries are in a {@link ConcurrentHashMap}
+ * and the reads are recorded in a lossy {@link RingBufferQueue}, applied to
+ * the policy in batches by whoever gets the eviction lock. The writes apply
+ * the policy under the lock.<br>
+ * {@link #get(Object, CacheLoader)} loads the missing values, the concurrent
+ * loads of the same key are done once and shared.
+ * 
+ * <br>
+ * The hit, miss, load and eviction stats are exposed through JMX, see
+ * {@link #register()}.
+ * 
+ * <br>
+ * Note: <b> Neither the key nor the value can be <tt>null</tt>.</b>
+ * 
+ * @param <K>
+ *            the key type
+ * @param <V>
+ *            the value type
+ * @author Rajakrishna V. Reddy
+ * @version 1.0
+ */
+@InterfaceAudience.Public
+@InterfaceStability.Evolving
+public class BoundedCache<K, V> implements BoundedCacheMBean
+{
+	
+	/** The Constant MBEAN_TYPE. */
+	public static final String MBEAN_TYPE = "BoundedCache";
+	
+	/** The logger to log the debugging messages as application runs. */
+	private static final Logger logger = Logger.getLogger(BoundedCache.class);
+	
+	/** The size of the read buffer. */
+	private static final int READ_BUFFER_SIZE = 128;
+	
+	/** The no of reads buffered at which they are applied. */
+	private static final int READ_DRAIN_THRESHOLD = 32;
+	
+	/** The share of the window in the maximum. */
+	private static final double WINDOW_SHARE = 0.01;
+	
+	/** The share of the protected entries in the main space. */
+	private static final double PROTECTED_SHARE = 0.8;
+	
+	/** The queue of an entry in the window. */
+	private static final int WINDOW = 1;
+	
+	/** The queue of an entry on probation. */
+	private static final int PROBATION = 2;
+	
+	/** The queue of a protected entry. */
+	private static final int PROTECTED = 3;
+	
+	/** The name. */
+	private final String name;
+	
+	/** The weigher, null to weigh every entry as 1. */
+	private final Weigher<? super K, ? super V> weigher;
+	
+	/** The entries. */
+	private final ConcurrentMap<K, Node<K, V>> data = new ConcurrentHashMap<K, Node<K, V>>();
+	
+	/** The loads in progress. */
+	private final ConcurrentMap<K, FutureTask<V>> loads = new ConcurrentHashMap<K, FutureTask<V>>();
+	
+	/** The reads not applied to the policy yet, dropped when full. */
+	private final RingBufferQueue<Node<K, V>> readBuffer = new RingBufferQueue<Node<K, V>>(READ_BUFFER_SIZE);
+	
+	/** Guards the policy, i.e. the queues, weights and the sketch. */
+	private final ReentrantLock evictionLock = new ReentrantLock();
+	
+	/** The frequency sketch. */
+	private final FrequencySketch sketch;
+	
+	/** The window, in LRU order from its next. */
+	private final Node<K, V> window = new Node<K, V>();
+	
+	/** The entries on probation, in LRU order from its next. */
+	private final Node<K, V> probation = new Node<K, V>();
+	
+	/** The protected entries, in LRU order from its next. */
+	private final Node<K, V> protectedEntries = new Node<K, V>();
+	
+	/** The maximum. */
+	private volatile long maximum;
+	
+	/** The maximum of the window. */
+	private long windowMaximum;
+	
+	/** The maximum of the protected entries. */
+	private long protectedMaximum;
+	
+	/** The weighted size. */
+	private volatile long weightedSize;
+	
+	/** The weight of the window. */
+	private long windowWeight;
+	
+	/** The weight of the protected entries. */
+	private long protectedWeight;
+	
+	/** The hit count. */
+	private final AtomicLong hits = new AtomicLong();
+	
+	/** The miss count. */
+	private final AtomicLong misses = new AtomicLong();
+	
+	/** The load success count. */
+	private final AtomicLong loadSuccesses = new AtomicLong();
+	
+	/** The load failure count. */
+	private final AtomicLong loadFailures = new AtomicLong();
+	
+	/** The total load time, in nanos. */
+	private final AtomicLong loadTime = new AtomicLong();
+	
+	/** The eviction count. */
+	private final AtomicLong evictions = new AtomicLong();
+	
+	/** The eviction weight. */
+	private final AtomicLong evictionWeight = new AtomicLong();
+	
+	/** The MBean, if registered. */
+	private RapidMBean mBean;
+	
+	/**
+	 * Instantiates a new cache bounded by the no of entries.
+	 * 
+	 * @param name
+	 *            the name
+	 * @param maximumSize
+	 *            the max no of entries
+	 */
+	public BoundedCache(final String name, final long maximumSize)
+	{
+		this(name, maximumSize, null);
+	}
+	
+	/**
+	 * Instantiates a new cache bounded by the total weight of the entries.
+	 * 
+	 * @param name
+	 *            the name
+	 * @param maximumWeight
+	 *            the max total weight of the entries
+	 * @param weigher
+	 *            the weigher, null to weigh every entry as 1
+	 */
+	public BoundedCache(final String name, final long maximumWeight, final Weigher<? super K, ? super V> weigher)
+	{
+		if (maximumWeight < 0)
+		{
+			throw new IllegalArgumentException("Maximum can't be negative, maximum: " + maximumWeight);
+		}
+		this.name = name;
+		this.weigher = weigher;
+		this.sketch = new FrequencySketch((int) Math.min(weigher == null ? maximumWeight : 1024, Integer.MAX_VALUE));
+		window.previous = window.next = window;
+		probation.previous = probation.next = probation;
+		protectedEntries.previous = protectedEntries.next = protectedEntries;
+		setMaximum(maximumWeight);
+	}
+	
+	/**
+	 * Gets the value of the given key, if there.
+	 * 
+	 * @param key
+	 *            the key
+	 * @return the value, null if not there
+	 */
+	public V getIfPresent(final Object key)
+	{
+		final Node<K, V> node = data.get(key);
+		if (node == null)
+		{
+			misses.incrementAndGet();
+			return null;
+		}
+		hits.incrementAndGet();
+		afterRead(node);
+		return node.value;
+	}
+	
+	/**
+	 * Gets the value of the given key, loading it with the given loader if not
+	 * there. The concurrent loads of the same key are done only once, the
+	 * other callers wait for it and share its value.
+	 * 
+	 * @param key
+	 *            the key
+	 * @param loader
+	 *            the loader
+	 * @return the value, null if the loader returned null
+	 * @throws ComputingException
+	 *             if the loader failed, or interrupted while waiting for it
+	 */
+	public V get(final K key, final CacheLoader<? super K, V> loader) throws ComputingException
+	{
+		final V value = getIfPresent(key);
+		if (value != null)
+		{
+			return value;
+		}
+		final FutureTask<V> load = new FutureTask<V>(new Callable<V>()
+		{
+			public V call() throws Exception
+			{
+				return load(key, loader);
+			}
+		});
+		final FutureTask<V> existing = loads.putIfAbsent(key, load);
+		try
+		{
+			if (existing == null)
+			{
+				load.run();
+				return load.get();
+			}
+			return existing.get();
+		}
+		catch (ExecutionException e)
+		{
+			throw new ComputingException("Unable to load the value of: " + key + " in the cache: " + name, e.getCause());
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+			throw new ComputingException("Interrupted while loading the value of: " + key + " in the cache: " + name, e);
+		}
+		finally
+		{
+			if (existing == null)
+			{
+				loads.remove(key, load);
+			}
+		}
+	}
+	
+	/**
+	 * Loads the value of the key, and puts it unless it is put meanwhile.
+	 * 
+	 * @param key
+	 *            the key
+	 * @param loader
+	 *            the loader
+	 * @return the value
+	 * @throws Exception
+	 *             if the loader failed
+	 */
+	private V load(final K key, final CacheLoader<? super K, V> loader) throws Exception
+	{
+		/** Loaded by someone else just before this load started. */
+		final Node<K, V> node = data.get(key);
+		if (node != null)
+		{
+			return node.value;
+		}
+		final long start = System.nanoTime();
+		try
+		{
+			final V value = loader.load(key);
+			loadSuccesses.incrementAndGet();
+			if (value != null)
+			{
+				put(key, value, true);
+			}
+			return value;
+		}
+		catch (Exception e)
+		{
+			loadFailures.incrementAndGet();
+			throw e;
+		}
+		finally
+		{
+			loadTime.addAndGet(System.nanoTime() - start);
+		}
+	}
+	
+	/**
+	 * Puts the value of the given key.
+	 * 
+	 * @param key
+	 *            the key
+	 * @param value
+	 *            the value
+	 * @return the previous value, null if not there
+	 */
+	public V put(final K key, final V value)
+	{
+		return put(key, value, false);
+	}
+	
+	/**
+	 * Puts the value of the given key, if not there.
+	 * 
+	 * @param key
+	 *            the key
+	 * @param value
+	 *            the value
+	 * @return the value there, null if put
+	 */
+	public V putIfAbsent(final K key, final V value)
+	{
+		return put(key, value, true);
+	}
+	
+	/**
+	 * Puts the value of the given key.
+	 * 
+	 * @param key
+	 *            the key
+	 * @param value
+	 *            the value
+	 * @param onlyIfAbsent
+	 *            whether to keep the value there
+	 * @return the previous value, null if not there
+	 */
+	private V put(final K key, final V value, final boolean onlyIfAbsent)
+	{
+		if (key == null || value == null)
+		{
+			throw new NullPointerException("Neither the key nor the value can be null, key: " + key);
+		}
+		final int weight = weigher == null ? 1 : weigher.weigh(key, value);
+		if (weight < 0)
+		{
+			throw new IllegalArgumentException("Weight can't be negative, key: " + key + ", weight: " + weight);
+		}
+		evictionLock.lock();
+		try
+		{
+			drainReadBuffer();
+			final Node<K, V> node = data.get(key);
+			if (node != null)
+			{
+				final V previous = node.value;
+				if (!onlyIfAbsent)
+				{
+					node.value = value;
+					reweigh(node, weight);
+					onAccess(node);
+					evict();
+				}
+				return previous;
+			}
+			final Node<K, V> added = new Node<K, V>(key, value, weight);
+			data.put(key, added);
+			if (data.size() > sketch.capacity())
+			{
+				sketch.ensureCapacity(data.size());
+			}
+			sketch.increment(key.hashCode());
+			weightedSize += weight;
+			windowWeight += weight;
+			link(window, added, WINDOW);
+			evict();
+			return null;
+		}
+		finally
+		{
+			evictionLock.unlock();
+		}
+	}
+	
+	/**
+	 * Removes the given key.
+	 * 
+	 * @param key
+	 *            the key
+	 * @return the value removed, null if not there
+	 */
+	public V remove(final Object key)
+	{
+		evictionLock.lock();
+		try
+		{
+			final Node<K, V> node = data.remove(key);
+			if (node == null)
+			{
+				return null;
+			}
+			unlink(node);
+			return node.value;
+		}
+		finally
+		{
+			evictionLock.unlock();
+		}
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see com.varra.util.BoundedCacheMBean#invalidateAll()
+	 */
+	public void invalidateAll()
+	{
+		evictionLock.lock();
+		try
+		{
+			readBuffer.clear();
+			for (final Node<K, V> node : data.values())
+			{
+				if (data.remove(node.key, node))
+				{
+					unlink(node);
+				}
+			}
+		}
+		finally
+		{
+			evictionLock.unlock();
+		}
+	}
+	
+	/**
+	 * Checks if the key is there, without counting it as a lookup.
+	 * 
+	 * @param key
+	 *            the key
+	 * @return true, if there
+	 */
+	public boolean containsKey(final Object key)
+	{
+		return data.containsKey(key);
+	}
+	
+	/**
+	 * Records the read, and applies the reads buffered if there are enough of
+	 * them and the lock is free.
+	 * 
+	 * @param node
+	 *            the node
+	 */
+	private void afterRead(final Node<K, V> node)
+	{
+		readBuffer.offer(node);
+		if (readBuffer.size() >= READ_DRAIN_THRESHOLD && evictionLock.tryLock())
+		{
+			try
+			{
+				drainReadBuffer();
+			}
+			finally
+			{
+				evictionLock.unlock();
+			}
+		}
+	}
+	
+	/**
+	 * Applies the reads buffered to the policy, under the lock.
+	 */
+	private void drainReadBuffer()
+	{
+		Node<K, V> node;
+		while ((node = readBuffer.poll()) != null)
+		{
+			onAccess(node);
+		}
+	}
+	
+	/**
+	 * Applies an access of the entry to the policy, under the lock.
+	 * 
+	 * @param node
+	 *            the node
+	 */
+	private void onAccess(final Node<K, V> node)
+	{
+		if (node.queue == 0)
+		{
+			/** Removed meanwhile. */
+			return;
+		}
+		sketch.increment(node.key.hashCode());
+		switch (node.queue)
+		{
+			case WINDOW:
+				moveToTail(window, node);
+				break;
+			case PROBATION:
+				unlinkFromQueue(node);
+				link(protectedEntries, node, PROTECTED);
+				protectedWeight += node.weight;
+				demoteProtected();
+				break;
+			default:
+				moveToTail(protectedEntries, node);
+				break;
+		}
+	}
+	
+	/**
+	 * Moves the protected entries beyond its maximum back to probation, LRU
+	 * first.
+	 */
+	private void demoteProtected()
+	{
+		while (protectedWeight > protectedMaximum && protectedEntries.next != protectedEntries)
+		{
+			final Node<K, V> demoted = protectedEntries.next;
+			unlinkFromQueue(demoted);
+			protectedWeight -= demoted.weight;
+			link(probation, demoted, PROBATION);
+		}
+	}
+	
+	/**
+	 * Changes the weight of the entry, under the lock.
+	 * 
+	 * @param node
+	 *            the node
+	 * @param weight
+	 *            the new weight
+	 */
+	private void reweigh(final Node<K, V> node, final int weight)
+	{
+		final int delta = weight - node.weight;
+		node.weight = weight;
+		weightedSize += delta;
+		if (node.queue == WINDOW)
+		{
+			windowWeight += delta;
+		}
+		else if (node.queue == PROTECTED)
+		{
+			protectedWeight += delta;
+		}
+	}
+	
+	/**
+	 * Evicts the entries beyond the maximum, under the lock. The entries
+	 * beyond the maximum of the window are moved to probation as candidates,
+	 * each of them is admitted only if it is used more often than the LRU
+	 * entry of the main space, which is evicted instead.
+	 */
+	private void evict()
+	{
+		Node<K, V> candidate = null;
+		while (windowWeight > windowMaximum && window.next != window)
+		{
+			final Node<K, V> moved = window.next;
+			unlinkFromQueue(moved);
+			windowWeight -= moved.weight;
+			link(probation, moved, PROBATION);
+			if (candidate == null)
+			{
+				candidate = moved;
+			}
+		}
+		while (weightedSize > maximum)
+		{
+			Node<K, V> victim = probation.next;
+			if (victim == probation || victim == candidate)
+			{
+				/** Only the candidates are on probation, compare with the protected ones. */
+				victim = protectedEntries.next != protectedEntries ? protectedEntries.next : victim;
+			}
+			if (victim == probation)
+			{
+				victim = window.next;
+				if (victim == window)
+				{
+					break;
+				}
+			}
+			if (candidate == null || candidate == victim || candidate.queue != PROBATION)
+			{
+				evict(victim);
+				if (candidate == victim)
+				{
+					candidate = null;
+				}
+				continue;
+			}
+			final Node<K, V> next = candidate.next == probation ? null : candidate.next;
+			if (candidate.weight > maximum || sketch.frequency(candidate.key.hashCode()) <= sketch.frequency(victim.key.hashCode()))
+			{
+				evict(candidate);
+				candidate = next;
+			}
+			else
+			{
+				evict(victim);
+			}
+		}
+	}
+	
+	/**
+	 * Evicts the entry.
+	 * 
+	 * @param node
+	 *            the node
+	 */
+	private void evict(final Node<K, V> node)
+	{
+		if (data.remove(node.key, node))
+		{
+			evictions.incrementAndGet();
+			evictionWeight.addAndGet(node.weight);
+		}
+		unlink(node);
+	}
+	
+	/**
+	 * Unlinks the entry from its queue and takes its weight off.
+	 * 
+	 * @param node
+	 *            the node
+	 */
+	private void unlink(final Node<K, V> node)
+	{
+		if (node.queue == 0)
+		{
+			return;
+		}
+		weightedSize -= node.weight;
+		if (node.queue == WINDOW)
+		{
+			windowWeight -= node.weight;
+		}
+		else if (node.queue == PROTECTED)
+		{
+			protectedWeight -= node.weight;
+		}
+		unlinkFromQueue(node);
+		node.queue = 0;
+	}
+	
+	/**
+	 * Links the entry at the tail of the queue.
+	 * 
+	 * @param head
+	 *            the head of the queue
+	 * @param node
+	 *            the node
+	 * @param queue
+	 *            the queue
+	 */
+	private static <K, V> void link(final Node<K, V> head, final Node<K, V> node, final int queue)
+	{
+		node.queue = queue;
+		node.previous = head.previous;
+		node.next = head;
+		head.previous.next = node;
+		head.previous = node;
+	}
+	
+	/**
+	 * Unlinks the entry from the queue, keeping its weight.
+	 * 
+	 * @param node
+	 *            the node
+	 */
+	private static <K, V> void unlinkFromQueue(final Node<K, V> node)
+	{
+		node.previous.next = node.next;
+		node.next.previous = node.previous;
+		node.previous = node.next = null;
+	}
+	
+	/**
+	 * Moves the entry to the tail of its queue.
+	 * 
+	 * @param head
+	 *            the head of the queue
+	 * @param node
+	 *            the node
+	 */
+	private static <K, V> void moveToTail(final Node<K, V> head, final Node<K, V> node)
+	{
+		if (head.previous != node)
+		{
+			final int queue = node.queue;
+			unlinkFromQueue(node);
+			link(head, node, queue);
+		}
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see com.varra.util.BoundedCacheMBean#setMaximum(long)
+	 */
+	public void setMaximum(final long maximum)
+	{
+		if (maximum < 0)
+		{
+			throw new IllegalArgumentException("Maximum can't be negative, maximum: " + maximum);
+		}
+		evictionLock.lock();
+		try
+		{
+			this.maximum = maximum;
+			windowMaximum = Math.max(Math.min(1, maximum), (long) (maximum * WINDOW_SHARE));
+			protectedMaximum = (long) ((maximum - windowMaximum) * PROTECTED_SHARE);
+			demoteProtected();
+			evict();
+		}
+		finally
+		{
+			evictionLock.unlock();
+		}
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see com.varra.util.BoundedCacheMBean#getMaximum()
+	 */
+	public long getMaximum()
+	{
+		return maximum;
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see com.varra.util.BoundedCacheMBean#getName()
+	 */
+	public String getName()
+	{
+		return name;
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see com.varra.util.BoundedCacheMBean#getSize()
+	 */
+	public int getSize()
+	{
+		return data.size();
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see com.varra.util.BoundedCacheMBean#getWeightedSize()
+	 */
+	public long getWeightedSize()
+	{
+		return weightedSize;
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see com.varra.util.BoundedCacheMBean#getHitCount()
+	 */
+	public long getHitCount()
+	{
+		return hits.get();
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see com.varra.util.BoundedCacheMBean#getMissCount()
+	 */
+	public long getMissCount()
+	{
+		return misses.get();
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see com.varra.util.BoundedCacheMBean#getHitRatio()
+	 */
+	public double getHitRatio()
+	{
+		final long hits = this.hits.get();
+		final long lookups = hits + misses.get();
+		return lookups == 0 ? 1 : (double) hits / lookups;
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see com.varra.util.BoundedCacheMBean#getLoadSuccessCount()
+	 */
+	public long getLoadSuccessCount()
+	{
+		return loadSuccesses.get();
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see com.varra.util.BoundedCacheMBean#getLoadFailureCount()
+	 */
+	public long getLoadFailureCount()
+	{
+		return loadFailures.get();
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see com.varra.util.BoundedCacheMBean#getAverageLoadPenalty()
+	 */
+	public double getAverageLoadPenalty()
+	{
+		final long loads = loadSuccesses.get() + loadFailures.get();
+		return loads == 0 ? 0 : (double) loadTime.get() / loads / TimeUnit.MILLISECONDS.toNanos(1);
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see com.varra.util.BoundedCacheMBean#getEvictionCount()
+	 */
+	public long getEvictionCount()
+	{
+		return evictions.get();
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see com.varra.util.BoundedCacheMBean#getEvictionWeight()
+	 */
+	public long getEvictionWeight()
+	{
+		return evictionWeight.get();
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see com.varra.util.BoundedCacheMBean#resetStats()
+	 */
+	public void resetStats()
+	{
+		hits.set(0);
+		misses.set(0);
+		loadSuccesses.set(0);
+		loadFailures.set(0);
+		loadTime.set(0);
+		evictions.set(0);
+		evictionWeight.set(0);
+	}
+	
+	/**
+	 * Registers the MBean through the {@link MBeanManager}, if not done so
+	 * far.
+	 * 
+	 * @return true, if registered
+	 */
+	public synchronized boolean register()
+	{
+		if (mBean == null)
+		{
+			try
+			{
+				final RapidMBean newMBean = new RapidMBean(this, MBEAN_TYPE, name.replaceAll("[,=:\"*?]", "_"), name);
+				new MBeanManager().register(newMBean);
+				mBean = newMBean;
+			}
+			catch (MBeanRegistrationException e)
+			{
+				logger.warn("Unable to register the cache MBean of: {}", name, e);
+			}
+		}
+		return mBean != null;
+	}
+	
+	/**
+	 * Unregisters the MBean, if registered.
+	 */
+	public synchronized void unRegister()
+	{
+		if (mBean != null)
+		{
+			try
+			{
+				new MBeanManager().unRegister(mBean);
+			}
+			catch (MBeanRegistrationException e)
+			{
+				logger.warn("Unable to unregister the cache MBean of: {}", name, e);
+			}
+			mBean = null;
+		}
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString()
+	{
+		return "BoundedCache [name=" + name + ", size=" + data.size() + ", weightedSize=" + weightedSize + ", maximum=" + maximum + ", hitRatio="
+				+ getHitRatio() + ", evictions=" + evictions.get() + "]";
+	}
+	
+	/**
+	 * An entry of the cache, linked in the queue of the policy it is in.
+	 * 
+	 * @param <K>
+	 *            the key type
+	 * @param <V>
+	 *            the value type
+	 */
+	private static final class Node<K, V>
+	{
+		
+		/** The key. */
+		private final K key;
+		
+		/** The value. */
+		private volatile V value;
+		
+		/** The weight, guarded by the eviction lock. */
+		private int weight;
+		
+		/** The queue it is in, 0 if removed, guarded by the eviction lock. */
+		private int queue;
+		
+		/** The previous node in the queue. */
+		private Node<K, V> previous;
+		
+		/** The next node in the queue. */
+		private Node<K, V> next;
+		
+		/**
+		 * Instantiates the head of a queue.
+		 */
+		private Node()
+		{
+			this.key = null;
+		}
+		
+		/**
+		 * Instantiates a new node.
+		 * 
+		 * @param key
+		 *            the key
+		 * @param value
+		 *            the value
+		 * @param weight
+		 *            the weight
+		 */
+		private Node(final K key, final V value, final int weight)
+		{
+			this.key = key;
+			this.value = value;
+			this.weight = weight;
+		}
+	}
+}
@@ -0,0 +1,133 @@
+/*
+ * utils4j - BoundedCacheMBean.java, Oct 18, 2026 9:19:27 PM
+ * 
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.varra.util;
+
+/**
+ * Describes the management interface of a {@link BoundedCache}, the load
+ * times are in ms.
+ * 
+ * @author Rajakrishna V. Reddy
+ * @version 1.0
+ */
+public interface BoundedCacheMBean
+{
+	
+	/**
+	 * Gets the name.
+	 * 
+	 * @return the name
+	 */
+	public String getName();
+	
+	/**
+	 * Gets the no of entries.
+	 * 
+	 * @return the size
+	 */
+	public int getSize();
+	
+	/**
+	 * Gets the total weight of the entries, same as the size unless a
+	 * {@link Weigher} is given.
+	 * 
+	 * @return the weighted size
+	 */
+	public long getWeightedSize();
+	
+	/**
+	 * Gets the max total weight of the entries.
+	 * 
+	 * @return the maximum
+	 */
+	public long getMaximum();
+	
+	/**
+	 * Sets the max total weight of the entries, evicting the ones beyond it.
+	 * 
+	 * @param maximum
+	 *            the maximum
+	 */
+	public void setMaximum(long maximum);
+	
+	/**
+	 * Gets the no of lookups that found the entry.
+	 * 
+	 * @return the hit count
+	 */
+	public long getHitCount();
+	
+	/**
+	 * Gets the no of lookups that did not find the entry.
+	 * 
+	 * @return the miss count
+	 */
+	public long getMissCount();
+	
+	/**
+	 * Gets the ratio of the lookups that found the entry.
+	 * 
+	 * @return the hit ratio, 1 if no lookups so far
+	 */
+	public double getHitRatio();
+	
+	/**
+	 * Gets the no of values loaded.
+	 * 
+	 * @return the load success count
+	 */
+	public long getLoadSuccessCount();
+	
+	/**
+	 * Gets the no of loads failed.
+	 * 
+	 * @return the load failure count
+	 */
+	public long getLoadFailureCount();
+	
+	/**
+	 * Gets the average time taken to load a value.
+	 * 
+	 * @return the average load penalty in ms
+	 */
+	public double getAverageLoadPenalty();
+	
+	/**
+	 * Gets the no of entries evicted.
+	 * 
+	 * @return the eviction count
+	 */
+	public long getEvictionCount();
+	
+	/**
+	 * Gets the total weight of the entries evicted.
+	 * 
+	 * @return the eviction weight
+	 */
+	public long getEvictionWeight();
+	
+	/**
+	 * Resets the stats.
+	 */
+	public void resetStats();
+	
+	/**
+	 * Removes all the entries.
+	 */
+	public void invalidateAll();
+}
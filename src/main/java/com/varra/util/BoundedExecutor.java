@@ -0,0 +1,775 @@
+/*
+ * utils4j - BoundedExecutor.java, Oct 18, 2026 9:26:48 PM
+ * 
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.varra.util;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.RunnableFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.varra.classification.InterfaceAudience;
+import com.varra.classification.InterfaceStability;
+import com.varra.jmx.exception.MBeanRegistrationException;
+import com.varra.jmx.mbean.RapidMBean;
+import com.varra.jmx.registry.MBeanManager;
+import com.varra.log.Logger;
+
+/**
+ * A {@link ThreadPoolExecutor} with a bounded queue, so a slow downstream
+ * makes the submitters back off, or the tasks dropped, as per the
+ * {@link RejectionPolicy}, instead of the queue growing till the memory runs
+ * out.<br>
+ * The threads grow from the min to the max no of threads as and when the
+ * queue is full. Use {@link #setTargetQueueWait(long)} to grow them sooner,
+ * based on how long the tasks wait in the queue: the core no of threads is
+ * increased when the mean queue wait goes above the target and decreased,
+ * down to the min, when it drops well below it.<br>
+ * The tasks dropped or coalesced are cancelled, and told so through
+ * {@link #onDiscard(Runnable)}.
+ * 
+ * <br>
+ * The queue size, rejections and queue wait are exposed as an MBean, of type
+ * BoundedExecutor and the name of the executor, through the
+ * {@link MBeanManager}, see {@link #register()}.
+ * 
+ * @author <a href="mailto:varra@outlook.com">Rajakrishna V.
+ *         Reddy</a>
+ * @version 1.0
+ */
+@InterfaceAudience.Public
+@InterfaceStability.Evolving
+public class BoundedExecutor extends ThreadPoolExecutor implements BoundedExecutorMBean
+{
+	
+	/** The type of the MBean. */
+	private static final String MBEAN_TYPE = "BoundedExecutor";
+	
+	/** The min time between two adjustments of the core no of threads, in nanos. */
+	private static final long ADJUST_INTERVAL = TimeUnit.MILLISECONDS.toNanos(100);
+	
+	/** The logger to log the debugging messages as application runs. */
+	private static final Logger logger = Logger.getLogger(BoundedExecutor.class);
+	
+	/** The name. */
+	private final String name;
+	
+	/** The min no of threads. */
+	private final int minPoolSize;
+	
+	/** The queue capacity. */
+	private final int queueCapacity;
+	
+	/** The rejection policy. */
+	private final RejectionPolicy policy;
+	
+	/** The tasks waiting in the queue by their names, used to coalesce. */
+	private final ConcurrentMap<String, Queued> waiting = new ConcurrentHashMap<String, Queued>();
+	
+	/** The time the tasks waited in the queue. */
+	private final LatencyHistogram queueWait = new LatencyHistogram();
+	
+	/** The no of tasks submitted. */
+	private final AtomicLong submitted = new AtomicLong();
+	
+	/** The no of times the queue was full. */
+	private final AtomicLong rejected = new AtomicLong();
+	
+	/** The no of tasks run by the submitters. */
+	private final AtomicLong callerRuns = new AtomicLong();
+	
+	/** The no of tasks dropped. */
+	private final AtomicLong dropped = new AtomicLong();
+	
+	/** The no of tasks coalesced. */
+	private final AtomicLong coalesced = new AtomicLong();
+	
+	/** The no of adjustments of the core no of threads. */
+	private final AtomicLong resizes = new AtomicLong();
+	
+	/** The queue wait of the tasks started since the last adjustment. */
+	private final AtomicLong windowWait = new AtomicLong();
+	
+	/** The no of tasks started since the last adjustment. */
+	private final AtomicLong windowCount = new AtomicLong();
+	
+	/** The time of the last adjustment. */
+	private final AtomicLong lastAdjustment = new AtomicLong(System.nanoTime());
+	
+	/** The target queue wait in nanos, 0 if the adaptive sizing is disabled. */
+	private volatile long targetQueueWait;
+	
+	/** The MBean, if registered. */
+	private RapidMBean mBean;
+	
+	/**
+	 * Instantiates a new bounded executor.
+	 * 
+	 * @param name
+	 *            the name
+	 * @param minPoolSize
+	 *            the min no of threads
+	 * @param maxPoolSize
+	 *            the max no of threads
+	 * @param keepAliveMillis
+	 *            the time the threads above the core no of threads are kept
+	 *            idle, in ms
+	 * @param queueCapacity
+	 *            the max no of tasks waiting in the queue
+	 * @param policy
+	 *            the rejection policy
+	 */
+	public BoundedExecutor(final String name, final int minPoolSize, final int maxPoolSize, final long keepAliveMillis, final int queueCapacity,
+			final RejectionPolicy policy)
+	{
+		super(minPoolSize, maxPoolSize, keepAliveMillis, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<Runnable>(queueCapacity), new Rejector());
+		if (policy == null)
+		{
+			throw new IllegalArgumentException("RejectionPolicy should not be null.");
+		}
+		this.name = name;
+		this.minPoolSize = minPoolSize;
+		this.queueCapacity = queueCapacity;
+		this.policy = policy;
+	}
+	
+	/**
+	 * Enables the adaptive sizing, the core no of threads is adjusted to keep
+	 * the mean time the tasks wait in the queue around the given target.
+	 * 
+	 * @param targetQueueWaitMillis
+	 *            the target queue wait in ms, 0 to disable
+	 */
+	public void setTargetQueueWait(final long targetQueueWaitMillis)
+	{
+		if (targetQueueWaitMillis < 0)
+		{
+			throw new IllegalArgumentException("Target queue wait should not be negative, targetQueueWait: " + targetQueueWaitMillis);
+		}
+		this.targetQueueWait = TimeUnit.MILLISECONDS.toNanos(targetQueueWaitMillis);
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see com.varra.util.BoundedExecutorMBean#getTargetQueueWait()
+	 */
+	public long getTargetQueueWait()
+	{
+		return TimeUnit.NANOSECONDS.toMillis(targetQueueWait);
+	}
+	
+	/**
+	 * Checks if the adaptive sizing is enabled.
+	 * 
+	 * @return true, if is adaptive
+	 */
+	public boolean isAdaptive()
+	{
+		return targetQueueWait > 0;
+	}
+	
+	/**
+	 * Gets the policy.
+	 * 
+	 * @return the policy
+	 */
+	public RejectionPolicy getPolicy()
+	{
+		return policy;
+	}
+	
+	/**
+	 * Gets the time the tasks waited in the queue.
+	 * 
+	 * @return the queue wait
+	 */
+	public LatencyHistogram getQueueWait()
+	{
+		return queueWait;
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see java.util.concurrent.ThreadPoolExecutor#execute(java.lang.Runnable)
+	 */
+	@Override
+	public void execute(final Runnable command)
+	{
+		if (command == null)
+		{
+			throw new NullPointerException();
+		}
+		submitted.incrementAndGet();
+		final String taskName = policy == RejectionPolicy.COALESCE ? getTaskName(command) : null;
+		final Queued queued = new Queued(command, taskName, System.nanoTime());
+		if (taskName != null && waiting.putIfAbsent(taskName, queued) != null)
+		{
+			coalesced.incrementAndGet();
+			logger.debug("Coalesced the task: {}, as it is waiting in the queue already.", taskName);
+			discard(command);
+			return;
+		}
+		super.execute(queued);
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see java.util.concurrent.AbstractExecutorService#newTaskFor(java.lang.Runnable, java.lang.Object)
+	 */
+	@Override
+	protected <T> RunnableFuture<T> newTaskFor(final Runnable runnable, final T value)
+	{
+		return new TaskFuture<T>(runnable, value);
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see java.util.concurrent.ThreadPoolExecutor#beforeExecute(java.lang.Thread, java.lang.Runnable)
+	 */
+	@Override
+	protected void beforeExecute(final Thread thread, final Runnable task)
+	{
+		super.beforeExecute(thread, task);
+		if (task instanceof Queued)
+		{
+			final Queued queued = (Queued) task;
+			if (queued.taskName != null)
+			{
+				waiting.remove(queued.taskName, queued);
+			}
+			final long wait = System.nanoTime() - queued.enqueued;
+			queueWait.record(wait);
+			if (targetQueueWait > 0)
+			{
+				adapt(wait);
+			}
+		}
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see java.util.concurrent.ThreadPoolExecutor#terminated()
+	 */
+	@Override
+	protected void terminated()
+	{
+		super.terminated();
+		unRegister();
+	}
+	
+	/**
+	 * Adds the queue wait to the current window and adjusts the core no of
+	 * threads, at most once per {@link #ADJUST_INTERVAL}, by the mean queue
+	 * wait of the window.
+	 * 
+	 * @param wait
+	 *            the wait
+	 */
+	private void adapt(final long wait)
+	{
+		windowWait.addAndGet(wait);
+		windowCount.incrementAndGet();
+		final long now = System.nanoTime();
+		final long last = lastAdjustment.get();
+		if (now - last < ADJUST_INTERVAL || !lastAdjustment.compareAndSet(last, now))
+		{
+			return;
+		}
+		final long count = windowCount.getAndSet(0);
+		final long meanWait = windowWait.getAndSet(0) / Math.max(1, count);
+		final long target = targetQueueWait;
+		final int corePoolSize = getCorePoolSize();
+		int newCorePoolSize = corePoolSize;
+		if (meanWait > target && corePoolSize < getMaximumPoolSize())
+		{
+			/** Grows by a quarter, to catch up with a burst in a few steps. */
+			newCorePoolSize = Math.min(getMaximumPoolSize(), corePoolSize + Math.max(1, corePoolSize / 4));
+		}
+		else if (meanWait < target / 4 && corePoolSize > minPoolSize && getActiveCount() < corePoolSize)
+		{
+			newCorePoolSize = corePoolSize - 1;
+		}
+		if (newCorePoolSize != corePoolSize)
+		{
+			setCorePoolSize(newCorePoolSize);
+			resizes.incrementAndGet();
+			logger.debug("Adjusted the core pool size of: {} from: {} to: {}, as the mean queue wait is: {} ns.", name, corePoolSize,
+					newCorePoolSize, meanWait);
+		}
+	}
+	
+	/**
+	 * Applies the {@link RejectionPolicy} to the task, as the queue is full.
+	 * 
+	 * @param queued
+	 *            the queued
+	 * @throws RejectedExecutionException
+	 *             if the executor is shut down
+	 */
+	private void reject(final Queued queued)
+	{
+		if (isShutdown())
+		{
+			if (queued.taskName != null)
+			{
+				waiting.remove(queued.taskName, queued);
+			}
+			throw new RejectedExecutionException("The executor: " + name + " is shut down, hence rejecting the task: " + queued);
+		}
+		rejected.incrementAndGet();
+		switch (policy)
+		{
+			case CALLER_RUNS:
+				callerRuns.incrementAndGet();
+				queued.run();
+				break;
+			case DROP_OLDEST:
+				final Runnable oldest = getQueue().poll();
+				if (oldest != null)
+				{
+					drop(oldest);
+				}
+				super.execute(queued);
+				break;
+			default:
+				drop(queued);
+				break;
+		}
+	}
+	
+	/**
+	 * Drops the task, and discards it.
+	 * 
+	 * @param task
+	 *            the task
+	 */
+	private void drop(final Runnable task)
+	{
+		dropped.incrementAndGet();
+		if (task instanceof Queued)
+		{
+			final Queued queued = (Queued) task;
+			if (queued.taskName != null)
+			{
+				waiting.remove(queued.taskName, queued);
+			}
+			discard(queued.task);
+		}
+		logger.debug("Dropped the task: {}, as the queue of: {} is full.", task, name);
+	}
+	
+	/**
+	 * Discards the task dropped or coalesced rather than run: cancels it if it
+	 * is a {@link Future}, so the ones waiting for it are not blocked for
+	 * ever, and tells it through {@link #onDiscard(Runnable)}.
+	 * 
+	 * @param task
+	 *            the task
+	 */
+	private void discard(final Runnable task)
+	{
+		if (task instanceof Future)
+		{
+			((Future<?>) task).cancel(false);
+		}
+		try
+		{
+			onDiscard(task instanceof TaskFuture ? ((TaskFuture<?>) task).runnable : task);
+		}
+		catch (RuntimeException e)
+		{
+			logger.error("Failed to clean up after the discarded task: " + task, e);
+		}
+	}
+	
+	/**
+	 * Called when the task is dropped or coalesced rather than run, on the
+	 * thread submitting the task that caused it. By default it tells the
+	 * {@link EnhancedTimerTask}, if it is one, to give back its rate limit
+	 * permit and re-arm its triggers; override to clean up after the others.
+	 * 
+	 * @param task
+	 *            the task, as given to execute or submit
+	 */
+	protected void onDiscard(final Runnable task)
+	{
+		final EnhancedTimerTask timerTask = SafeThreadFactory.getTimerTask(task);
+		if (timerTask != null)
+		{
+			timerTask.onDiscard();
+		}
+	}
+	
+	/**
+	 * Gets the name of the {@link EnhancedTimerTask} of the given task.
+	 * 
+	 * @param command
+	 *            the command
+	 * @return the task name, null if it is not an {@link EnhancedTimerTask}
+	 */
+	private static String getTaskName(final Runnable command)
+	{
+		final Runnable task = command instanceof TaskFuture ? ((TaskFuture<?>) command).runnable : command;
+		final EnhancedTimerTask timerTask = SafeThreadFactory.getTimerTask(task);
+		return timerTask != null ? timerTask.getName() : null;
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see com.varra.util.BoundedExecutorMBean#getName()
+	 */
+	public String getName()
+	{
+		return name;
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see com.varra.util.BoundedExecutorMBean#getRejectionPolicy()
+	 */
+	public String getRejectionPolicy()
+	{
+		return policy.name();
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see com.varra.util.BoundedExecutorMBean#getQueueSize()
+	 */
+	public int getQueueSize()
+	{
+		return getQueue().size();
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see com.varra.util.BoundedExecutorMBean#getQueueCapacity()
+	 */
+	public int getQueueCapacity()
+	{
+		return queueCapacity;
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see com.varra.util.BoundedExecutorMBean#getSubmittedCount()
+	 */
+	public long getSubmittedCount()
+	{
+		return submitted.get();
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see com.varra.util.BoundedExecutorMBean#getRejectedCount()
+	 */
+	public long getRejectedCount()
+	{
+		return rejected.get();
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see com.varra.util.BoundedExecutorMBean#getCallerRunsCount()
+	 */
+	public long getCallerRunsCount()
+	{
+		return callerRuns.get();
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see com.varra.util.BoundedExecutorMBean#getDroppedCount()
+	 */
+	public long getDroppedCount()
+	{
+		return dropped.get();
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see com.varra.util.BoundedExecutorMBean#getCoalescedCount()
+	 */
+	public long getCoalescedCount()
+	{
+		return coalesced.get();
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see com.varra.util.BoundedExecutorMBean#getResizeCount()
+	 */
+	public long getResizeCount()
+	{
+		return resizes.get();
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see com.varra.util.BoundedExecutorMBean#getQueueWaitP50()
+	 */
+	public double getQueueWaitP50()
+	{
+		return LatencyHistogram.toMillis(queueWait.getPercentile(50));
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see com.varra.util.BoundedExecutorMBean#getQueueWaitP99()
+	 */
+	public double getQueueWaitP99()
+	{
+		return LatencyHistogram.toMillis(queueWait.getPercentile(99));
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see com.varra.util.BoundedExecutorMBean#getQueueWaitMax()
+	 */
+	public double getQueueWaitMax()
+	{
+		return LatencyHistogram.toMillis(queueWait.getMax());
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see com.varra.util.BoundedExecutorMBean#reset()
+	 */
+	public void reset()
+	{
+		queueWait.reset();
+		submitted.set(0);
+		rejected.set(0);
+		callerRuns.set(0);
+		dropped.set(0);
+		coalesced.set(0);
+		resizes.set(0);
+	}
+	
+	/**
+	 * Registers the MBean through the {@link MBeanManager}, if not done so
+	 * far.
+	 * 
+	 * @return true, if registered
+	 */
+	public synchronized boolean register()
+	{
+		if (mBean == null)
+		{
+			try
+			{
+				final RapidMBean newMBean = new RapidMBean(this, MBEAN_TYPE, name.replaceAll("[,=:\"*?]", "_"), name);
+				new MBeanManager().register(newMBean);
+				mBean = newMBean;
+			}
+			catch (MBeanRegistrationException e)
+			{
+				logger.warn("Unable to register the MBean of: {}", name, e);
+			}
+		}
+		return mBean != null;
+	}
+	
+	/**
+	 * Unregisters the MBean, if registered.
+	 */
+	public synchronized void unRegister()
+	{
+		if (mBean != null)
+		{
+			try
+			{
+				new MBeanManager().unRegister(mBean);
+			}
+			catch (MBeanRegistrationException e)
+			{
+				logger.warn("Unable to unregister the MBean of: {}", name, e);
+			}
+			mBean = null;
+		}
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see java.util.concurrent.ThreadPoolExecutor#toString()
+	 */
+	@Override
+	public String toString()
+	{
+		final StringBuilder builder = new StringBuilder();
+		builder.append("BoundedExecutor [name=");
+		builder.append(name);
+		builder.append(", policy=");
+		builder.append(policy);
+		builder.append(", queueSize=");
+		builder.append(getQueueSize());
+		builder.append(", queueCapacity=");
+		builder.append(queueCapacity);
+		builder.append(", corePoolSize=");
+		builder.append(getCorePoolSize());
+		builder.append(", poolSize=");
+		builder.append(getPoolSize());
+		builder.append(", rejected=");
+		builder.append(rejected.get());
+		builder.append(", dropped=");
+		builder.append(dropped.get());
+		builder.append(", coalesced=");
+		builder.append(coalesced.get());
+		builder.append(", queueWait=[");
+		builder.append(queueWait);
+		builder.append("]]");
+		return builder.toString();
+	}
+	
+	/**
+	 * Hands the tasks rejected by the {@link ThreadPoolExecutor} over to the
+	 * {@link BoundedExecutor}, as it has to be given to the super constructor.
+	 */
+	private static final class Rejector implements RejectedExecutionHandler
+	{
+		
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see java.util.concurrent.RejectedExecutionHandler#rejectedExecution(java.lang.Runnable, java.util.concurrent.ThreadPoolExecutor)
+		 */
+		public void rejectedExecution(final Runnable task, final ThreadPoolExecutor executor)
+		{
+			((BoundedExecutor) executor).reject((Queued) task);
+		}
+	}
+	
+	/**
+	 * A task along with the time it is queued.
+	 */
+	private static final class Queued implements Runnable
+	{
+		
+		/** The task. */
+		private final Runnable task;
+		
+		/** The name of the task, if coalesced. */
+		private final String taskName;
+		
+		/** The time it is queued, in nanos. */
+		private final long enqueued;
+		
+		/**
+		 * Instantiates a new queued task.
+		 * 
+		 * @param task
+		 *            the task
+		 * @param taskName
+		 *            the task name
+		 * @param enqueued
+		 *            the enqueued
+		 */
+		private Queued(final Runnable task, final String taskName, final long enqueued)
+		{
+			this.task = task;
+			this.taskName = taskName;
+			this.enqueued = enqueued;
+		}
+		
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see java.lang.Runnable#run()
+		 */
+		public void run()
+		{
+			task.run();
+		}
+		
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see java.lang.Object#toString()
+		 */
+		@Override
+		public String toString()
+		{
+			return String.valueOf(task);
+		}
+	}
+	
+	/**
+	 * A {@link FutureTask} that keeps the runnable, to find its name.
+	 * 
+	 * @param <T>
+	 *            the generic type
+	 */
+	private static final class TaskFuture<T> extends FutureTask<T>
+	{
+		
+		/** The runnable. */
+		private final Runnable runnable;
+		
+		/**
+		 * Instantiates a new task future.
+		 * 
+		 * @param runnable
+		 *            the runnable
+		 * @param value
+		 *            the value
+		 */
+		private TaskFuture(final Runnable runnable, final T value)
+		{
+			super(runnable, value);
+			this.runnable = runnable;
+		}
+		
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see java.lang.Object#toString()
+		 */
+		@Override
+		public String toString()
+		{
+			return String.valueOf(runnable);
+		}
+	}
+}
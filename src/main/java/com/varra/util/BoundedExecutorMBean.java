@@ -0,0 +1,172 @@
+/*
+ * utils4j - BoundedExecutorMBean.java, Oct 18, 2026 9:20:05 PM
+ * 
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.varra.util;
+
+/**
+ * Describes the management interface of a {@link BoundedExecutor}, the
+ * latencies are in ms.
+ * 
+ * @author Rajakrishna V. Reddy
+ * @version 1.0
+ */
+public interface BoundedExecutorMBean
+{
+	
+	/**
+	 * Gets the name of the executor.
+	 * 
+	 * @return the name
+	 */
+	public String getName();
+	
+	/**
+	 * Gets the name of the {@link RejectionPolicy}.
+	 * 
+	 * @return the rejection policy
+	 */
+	public String getRejectionPolicy();
+	
+	/**
+	 * Gets the no of tasks waiting in the queue.
+	 * 
+	 * @return the queue size
+	 */
+	public int getQueueSize();
+	
+	/**
+	 * Gets the max no of tasks that can wait in the queue.
+	 * 
+	 * @return the queue capacity
+	 */
+	public int getQueueCapacity();
+	
+	/**
+	 * Gets the core no of threads, changed on the fly if the adaptive sizing
+	 * is enabled.
+	 * 
+	 * @return the core pool size
+	 */
+	public int getCorePoolSize();
+	
+	/**
+	 * Gets the max no of threads.
+	 * 
+	 * @return the maximum pool size
+	 */
+	public int getMaximumPoolSize();
+	
+	/**
+	 * Gets the current no of threads.
+	 * 
+	 * @return the pool size
+	 */
+	public int getPoolSize();
+	
+	/**
+	 * Gets the no of threads running the tasks.
+	 * 
+	 * @return the active count
+	 */
+	public int getActiveCount();
+	
+	/**
+	 * Gets the no of tasks submitted so far.
+	 * 
+	 * @return the submitted count
+	 */
+	public long getSubmittedCount();
+	
+	/**
+	 * Gets the no of tasks completed so far.
+	 * 
+	 * @return the completed task count
+	 */
+	public long getCompletedTaskCount();
+	
+	/**
+	 * Gets the no of times the queue was full and the
+	 * {@link RejectionPolicy} was applied.
+	 * 
+	 * @return the rejected count
+	 */
+	public long getRejectedCount();
+	
+	/**
+	 * Gets the no of tasks run by the submitting threads.
+	 * 
+	 * @return the caller runs count
+	 */
+	public long getCallerRunsCount();
+	
+	/**
+	 * Gets the no of tasks dropped as the queue was full.
+	 * 
+	 * @return the dropped count
+	 */
+	public long getDroppedCount();
+	
+	/**
+	 * Gets the no of tasks dropped as one of the same name was still waiting
+	 * in the queue.
+	 * 
+	 * @return the coalesced count
+	 */
+	public long getCoalescedCount();
+	
+	/**
+	 * Gets the no of times the core no of threads was changed by the adaptive
+	 * sizing.
+	 * 
+	 * @return the resize count
+	 */
+	public long getResizeCount();
+	
+	/**
+	 * Gets the queue wait the adaptive sizing aims for, 0 if disabled.
+	 * 
+	 * @return the target queue wait in ms
+	 */
+	public long getTargetQueueWait();
+	
+	/**
+	 * Gets the 50th percentile of the time the tasks waited in the queue.
+	 * 
+	 * @return the queue wait p50 in ms
+	 */
+	public double getQueueWaitP50();
+	
+	/**
+	 * Gets the 99th percentile of the time the tasks waited in the queue.
+	 * 
+	 * @return the queue wait p99 in ms
+	 */
+	public double getQueueWaitP99();
+	
+	/**
+	 * Gets the max time the tasks waited in the queue.
+	 * 
+	 * @return the queue wait max in ms
+	 */
+	public double getQueueWaitMax();
+	
+	/**
+	 * Resets all the numbers.
+	 */
+	public void reset();
+}
@@ -0,0 +1,50 @@
+/*
+ * utils4j - CacheLoader.java, Oct 18, 2026 9:12:40 PM
+ * 
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.varra.util;
+
+import com.varra.classification.InterfaceAudience;
+import com.varra.classification.InterfaceStability;
+
+/**
+ * Loads the value of a key missing in a {@link BoundedCache}, see
+ * {@link BoundedCache#get(Object, CacheLoader)}.
+ * 
+ * @param <K>
+ *            the key type
+ * @param <V>
+ *            the value type
+ * @author Rajakrishna V. Reddy
+ * @version 1.0
+ */
+@InterfaceAudience.Public
+@InterfaceStability.Evolving
+public interface CacheLoader<K, V>
+{
+	
+	/**
+	 * Loads the value of the given key.
+	 * 
+	 * @param key
+	 *            the key
+	 * @return the value, null not to cache anything
+	 * @throws Exception
+	 *             if it can't be loaded
+	 */
+	V load(K key) throws Exception;
+}
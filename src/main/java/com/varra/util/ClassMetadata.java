@@ -0,0 +1,374 @@
+/*
+ * utils4j - ClassMetadata.java, Oct 18, 2026 12:31:44 PM
+ * 
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.varra.util;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+import com.varra.lang.Void;
+
+/**
+ * The reflection metadata of a class, built once per class and used by
+ * {@link ReflectUtil} to avoid scanning the members and calling
+ * {@link java.lang.reflect.AccessibleObject#setAccessible(boolean)} on every
+ * call.<br>
+ * It indexes the public methods and the declared fields by their names, both
+ * case sensitive and insensitive, keeping the first one found like the
+ * linear scans used to. The members are invoked through {@link MethodHandle}s
+ * created on their first use.
+ * 
+ * @author Rajakrishna V. Reddy
+ * @version 1.0
+ */
+final class ClassMetadata
+{
+	
+	/** The metadata of each class. */
+	private static final ClassValue<ClassMetadata> CACHE = new ClassValue<ClassMetadata>()
+	{
+		@Override
+		protected ClassMetadata computeValue(final Class<?> type)
+		{
+			return new ClassMetadata(type);
+		}
+	};
+	
+	/** The lookup used to create the handles. */
+	private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+	
+	/** The methods by name. */
+	private final Map<String, MethodEntry> methods = new HashMap<String, MethodEntry>();
+	
+	/** The methods by lower case name. */
+	private final Map<String, MethodEntry> methodsIgnoreCase = new HashMap<String, MethodEntry>();
+	
+	/** The fields by name. */
+	private final Map<String, FieldEntry> fields = new HashMap<String, FieldEntry>();
+	
+	/** The fields by lower case name. */
+	private final Map<String, FieldEntry> fieldsIgnoreCase = new HashMap<String, FieldEntry>();
+	
+	/**
+	 * Instantiates the metadata of the given class.
+	 * 
+	 * @param type
+	 *            the type
+	 */
+	private ClassMetadata(final Class<?> type)
+	{
+		for (final Method method : type.getMethods())
+		{
+			final MethodEntry entry = new MethodEntry(method);
+			putIfAbsent(methods, method.getName(), entry);
+			putIfAbsent(methodsIgnoreCase, lowerCase(method.getName()), entry);
+		}
+		for (final Field field : type.getDeclaredFields())
+		{
+			final FieldEntry entry = new FieldEntry(field);
+			putIfAbsent(fields, field.getName(), entry);
+			putIfAbsent(fieldsIgnoreCase, lowerCase(field.getName()), entry);
+		}
+	}
+	
+	/**
+	 * Gets the metadata of the given class.
+	 * 
+	 * @param type
+	 *            the type
+	 * @return the class metadata
+	 */
+	static ClassMetadata of(final Class<?> type)
+	{
+		return CACHE.get(type);
+	}
+	
+	/**
+	 * Gets the public method by its name.
+	 * 
+	 * @param name
+	 *            the name
+	 * @param equalsIgnoreCase
+	 *            the equals ignore case
+	 * @return the method entry, null if not found
+	 */
+	MethodEntry getMethod(final String name, final boolean equalsIgnoreCase)
+	{
+		if (name == null)
+		{
+			return null;
+		}
+		return equalsIgnoreCase ? methodsIgnoreCase.get(lowerCase(name)) : methods.get(name);
+	}
+	
+	/**
+	 * Gets the declared field by its name.
+	 * 
+	 * @param name
+	 *            the name
+	 * @param equalsIgnoreCase
+	 *            the equals ignore case
+	 * @return the field entry, null if not found
+	 */
+	FieldEntry getField(final String name, final boolean equalsIgnoreCase)
+	{
+		if (name == null)
+		{
+			return null;
+		}
+		return equalsIgnoreCase ? fieldsIgnoreCase.get(lowerCase(name)) : fields.get(name);
+	}
+	
+	/**
+	 * Puts the value if the key is not mapped yet, the first member wins.
+	 * 
+	 * @param map
+	 *            the map
+	 * @param key
+	 *            the key
+	 * @param value
+	 *            the value
+	 */
+	private static <V> void putIfAbsent(final Map<String, V> map, final String key, final V value)
+	{
+		if (!map.containsKey(key))
+		{
+			map.put(key, value);
+		}
+	}
+	
+	/**
+	 * Lower cases the name.
+	 * 
+	 * @param name
+	 *            the name
+	 * @return the string
+	 */
+	private static String lowerCase(final String name)
+	{
+		return name.toLowerCase(Locale.ENGLISH);
+	}
+	
+	/**
+	 * Adapts the handle to take the instance as an {@link Object}, ignoring it
+	 * for the static members.
+	 * 
+	 * @param handle
+	 *            the handle
+	 * @param isStatic
+	 *            the is static
+	 * @return the method handle
+	 */
+	private static MethodHandle withInstance(final MethodHandle handle, final boolean isStatic)
+	{
+		return isStatic ? MethodHandles.dropArguments(handle, 0, Object.class) : handle;
+	}
+	
+	/**
+	 * A method along with its cached invoker.
+	 */
+	static final class MethodEntry
+	{
+		
+		/** The method. */
+		private final Method method;
+		
+		/** Whether the method returns nothing. */
+		private final boolean isVoid;
+		
+		/** The invoker, of type (Object, Object[])Object, created lazily. */
+		private volatile MethodHandle invoker;
+		
+		/**
+		 * Instantiates a new method entry.
+		 * 
+		 * @param method
+		 *            the method
+		 */
+		private MethodEntry(final Method method)
+		{
+			this.method = method;
+			this.isVoid = method.getReturnType() == void.class || method.getReturnType() == Void.class;
+		}
+		
+		/**
+		 * Gets the method.
+		 * 
+		 * @return the method
+		 */
+		Method getMethod()
+		{
+			return method;
+		}
+		
+		/**
+		 * Checks if the method returns nothing.
+		 * 
+		 * @return true, if is void
+		 */
+		boolean isVoid()
+		{
+			return isVoid;
+		}
+		
+		/**
+		 * Invokes the method on the given instance.
+		 * 
+		 * @param instance
+		 *            the instance, ignored for static methods
+		 * @param args
+		 *            the args
+		 * @return the value returned, null if void
+		 * @throws IllegalAccessException
+		 *             if the method can not be accessed
+		 * @throws InvocationTargetException
+		 *             if the method throws an exception, or the arguments
+		 *             are wrong
+		 */
+		Object invoke(final Object instance, final Object... args) throws IllegalAccessException, InvocationTargetException
+		{
+			MethodHandle handle = invoker;
+			if (handle == null)
+			{
+				method.setAccessible(true);
+				final int count = method.getParameterTypes().length;
+				handle = LOOKUP.unreflect(method).asFixedArity();
+				handle = withInstance(handle, Modifier.isStatic(method.getModifiers()));
+				handle = handle.asType(MethodType.genericMethodType(count + 1)).asSpreader(Object[].class, count);
+				invoker = handle;
+			}
+			try
+			{
+				return handle.invokeExact(instance, args);
+			}
+			catch (Throwable e)
+			{
+				throw new InvocationTargetException(e);
+			}
+		}
+	}
+	
+	/**
+	 * A field along with its cached accessors.
+	 */
+	static final class FieldEntry
+	{
+		
+		/** The field. */
+		private final Field field;
+		
+		/** The getter, of type (Object)Object, created lazily. */
+		private volatile MethodHandle getter;
+		
+		/** The setter, of type (Object, Object)void, created lazily. */
+		private volatile MethodHandle setter;
+		
+		/**
+		 * Instantiates a new field entry.
+		 * 
+		 * @param field
+		 *            the field
+		 */
+		private FieldEntry(final Field field)
+		{
+			this.field = field;
+		}
+		
+		/**
+		 * Gets the field.
+		 * 
+		 * @return the field
+		 */
+		Field getField()
+		{
+			return field;
+		}
+		
+		/**
+		 * Gets the value of the field from the given instance.
+		 * 
+		 * @param instance
+		 *            the instance, ignored for static fields
+		 * @return the value
+		 * @throws IllegalAccessException
+		 *             if the field can not be accessed
+		 * @throws InvocationTargetException
+		 *             if the instance is not of the right type
+		 */
+		Object get(final Object instance) throws IllegalAccessException, InvocationTargetException
+		{
+			MethodHandle handle = getter;
+			if (handle == null)
+			{
+				field.setAccessible(true);
+				handle = withInstance(LOOKUP.unreflectGetter(field), Modifier.isStatic(field.getModifiers()));
+				handle = handle.asType(MethodType.methodType(Object.class, Object.class));
+				getter = handle;
+			}
+			try
+			{
+				return handle.invokeExact(instance);
+			}
+			catch (Throwable e)
+			{
+				throw new InvocationTargetException(e);
+			}
+		}
+		
+		/**
+		 * Sets the value of the field on the given instance.
+		 * 
+		 * @param instance
+		 *            the instance, ignored for static fields
+		 * @param value
+		 *            the value
+		 * @throws IllegalAccessException
+		 *             if the field can not be accessed, like static final
+		 *             ones
+		 * @throws InvocationTargetException
+		 *             if the instance or value is not of the right type
+		 */
+		void set(final Object instance, final Object value) throws IllegalAccessException, InvocationTargetException
+		{
+			MethodHandle handle = setter;
+			if (handle == null)
+			{
+				field.setAccessible(true);
+				handle = withInstance(LOOKUP.unreflectSetter(field), Modifier.isStatic(field.getModifiers()));
+				handle = handle.asType(MethodType.methodType(void.class, Object.class, Object.class));
+				setter = handle;
+			}
+			try
+			{
+				handle.invokeExact(instance, value);
+			}
+			catch (Throwable e)
+			{
+				throw new InvocationTargetException(e);
+			}
+		}
+	}
+}
@@ -0,0 +1,280 @@
+/*
+ * utils4j - ConcurrencyLimiter.java, Oct 18, 2026 10:12:45 PM
+ * 
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.varra.util;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import com.varra.classification.InterfaceAudience;
+import com.varra.classification.InterfaceStability;
+
+/**
+ * A {@link RateLimiter} on the calls in progress rather than their rate, lets
+ * at most the given no of permits be held at a time, the permits taken have
+ * to be given back with {@link #release(int)} once done.<br>
+ * The permits are taken with a compare and set, the callers waiting for them
+ * are parked and woken up on the release.
+ * 
+ * <br>
+ * Note: <b> As the wait depends on when the permits are given back,
+ * {@link #getWaitTime(int, TimeUnit)} returns a retry interval, which is
+ * what {@link #acquireAsync(int, java.util.concurrent.ScheduledExecutorService, Runnable)}
+ * polls at.</b>
+ * 
+ * @author <a href="mailto:varra@outlook.com">Rajakrishna V.
+ *         Reddy</a>
+ * @version 1.0
+ */
+@InterfaceAudience.Public
+@InterfaceStability.Evolving
+public class ConcurrencyLimiter extends AbstractRateLimiter
+{
+	
+	/** The Constant DEFAULT_RETRY_INTERVAL, in ms. */
+	public static final long DEFAULT_RETRY_INTERVAL = 1;
+	
+	/** The max permits held at a time. */
+	private final int maxConcurrency;
+	
+	/** The permits held. */
+	private final AtomicInteger inUse = new AtomicInteger();
+	
+	/** The threads waiting for the permits. */
+	private final Queue<Thread> waiters = new ConcurrentLinkedQueue<Thread>();
+	
+	/** The retry interval, in nanos. */
+	private final long retryInterval;
+	
+	/**
+	 * Instantiates a new concurrency limiter.
+	 * 
+	 * @param maxConcurrency
+	 *            the max permits held at a time
+	 */
+	public ConcurrencyLimiter(final int maxConcurrency)
+	{
+		this(maxConcurrency, DEFAULT_RETRY_INTERVAL, TimeUnit.MILLISECONDS);
+	}
+	
+	/**
+	 * Instantiates a new concurrency limiter.
+	 * 
+	 * @param maxConcurrency
+	 *            the max permits held at a time
+	 * @param retryInterval
+	 *            the retry interval of the asynchronous acquires
+	 * @param unit
+	 *            the unit
+	 */
+	public ConcurrencyLimiter(final int maxConcurrency, final long retryInterval, final TimeUnit unit)
+	{
+		if (maxConcurrency <= 0 || retryInterval <= 0)
+		{
+			throw new IllegalArgumentException("Max concurrency and retry interval should be greater than zero, maxConcurrency: " + maxConcurrency
+					+ ", retryInterval: " + retryInterval);
+		}
+		this.maxConcurrency = maxConcurrency;
+		this.retryInterval = unit.toNanos(retryInterval);
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see com.varra.util.RateLimiter#tryAcquire(int)
+	 */
+	public boolean tryAcquire(final int permits)
+	{
+		checkPermits(permits, maxConcurrency);
+		while (true)
+		{
+			final int current = inUse.get();
+			if (current + permits > maxConcurrency)
+			{
+				return false;
+			}
+			if (inUse.compareAndSet(current, current + permits))
+			{
+				return true;
+			}
+		}
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see com.varra.util.AbstractRateLimiter#acquire(int)
+	 */
+	@Override
+	public void acquire(final int permits) throws InterruptedException
+	{
+		awaitPermits(permits, -1);
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see com.varra.util.AbstractRateLimiter#tryAcquire(int, long,
+	 * java.util.concurrent.TimeUnit)
+	 */
+	@Override
+	public boolean tryAcquire(final int permits, final long timeout, final TimeUnit unit) throws InterruptedException
+	{
+		return awaitPermits(permits, Math.max(0, unit.toNanos(timeout)));
+	}
+	
+	/**
+	 * Waits for the permits, parked in the waiters till a release.
+	 * 
+	 * @param permits
+	 *            the permits
+	 * @param timeout
+	 *            the timeout in nanos, negative to wait for ever
+	 * @return true, if acquired
+	 * @throws InterruptedException
+	 *             if interrupted while waiting
+	 */
+	private boolean awaitPermits(final int permits, final long timeout) throws InterruptedException
+	{
+		if (tryAcquire(permits))
+		{
+			return true;
+		}
+		final long deadline = System.nanoTime() + timeout;
+		final Thread current = Thread.currentThread();
+		waiters.add(current);
+		try
+		{
+			/** Tries again once added, not to miss a release meanwhile. */
+			while (!tryAcquire(permits))
+			{
+				if (timeout < 0)
+				{
+					LockSupport.park(this);
+				}
+				else
+				{
+					final long remaining = deadline - System.nanoTime();
+					if (remaining <= 0)
+					{
+						return false;
+					}
+					LockSupport.parkNanos(this, remaining);
+				}
+				if (Thread.interrupted())
+				{
+					throw new InterruptedException();
+				}
+			}
+			return true;
+		}
+		finally
+		{
+			waiters.remove(current);
+		}
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see com.varra.util.AbstractRateLimiter#release(int)
+	 */
+	@Override
+	public void release(final int permits)
+	{
+		while (true)
+		{
+			final int current = inUse.get();
+			/** Never below zero, even if released more than acquired. */
+			if (inUse.compareAndSet(current, Math.max(0, current - permits)))
+			{
+				break;
+			}
+		}
+		for (final Thread waiter : waiters)
+		{
+			LockSupport.unpark(waiter);
+		}
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see com.varra.util.RateLimiter#getWaitTime(int,
+	 * java.util.concurrent.TimeUnit)
+	 */
+	public long getWaitTime(final int permits, final TimeUnit unit)
+	{
+		checkPermits(permits, maxConcurrency);
+		return inUse.get() + permits <= maxConcurrency ? 0 : toUnit(retryInterval, unit);
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see com.varra.util.RateLimiter#isIdle()
+	 */
+	public boolean isIdle()
+	{
+		return inUse.get() == 0;
+	}
+	
+	/**
+	 * Gets the permits held.
+	 * 
+	 * @return the permits in use
+	 */
+	public int getInUse()
+	{
+		return inUse.get();
+	}
+	
+	/**
+	 * Gets the permits available right away.
+	 * 
+	 * @return the available permits
+	 */
+	public int getAvailablePermits()
+	{
+		return Math.max(0, maxConcurrency - inUse.get());
+	}
+	
+	/**
+	 * Gets the max concurrency.
+	 * 
+	 * @return the max concurrency
+	 */
+	public int getMaxConcurrency()
+	{
+		return maxConcurrency;
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString()
+	{
+		return "ConcurrencyLimiter [maxConcurrency=" + maxConcurrency + ", inUse=" + inUse.get() + ", waiters=" + waiters.size() + "]";
+	}
+}
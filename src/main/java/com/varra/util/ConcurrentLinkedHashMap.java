@@ -0,0 +1,522 @@
+/*
+ * utils4j - ConcurrentLinkedHashMap.java, Oct 18, 2026 11:48:05 AM
+ * 
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.varra.util;
+
+import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+import com.varra.classification.InterfaceAudience;
+import com.varra.classification.InterfaceStability;
+
+/**
+ * A {@link ConcurrentMap} which remembers the insertion order of its keys,
+ * like {@link java.util.LinkedHashMap} does, without a global lock.<br>
+ * It is backed by a {@link ConcurrentHashMap}, so the reads never block and
+ * the writes only contend on the same hash bin. Every mapping carries the
+ * sequence in which its key was inserted, replacing the value of a key keeps
+ * its place.
+ * 
+ * <br>
+ * The views are weakly consistent, iterating over them takes a snapshot of
+ * the mappings and sorts it by insertion order.
+ * 
+ * <br>
+ * Note: <b> Neither the key nor the value can be <tt>null</tt>.</b>
+ * 
+ * @param <K>
+ *            the key type
+ * @param <V>
+ *            the value type
+ * @author Rajakrishna V. Reddy
+ * @version 1.0
+ */
+@InterfaceAudience.Public
+@InterfaceStability.Evolving
+public class ConcurrentLinkedHashMap<K, V> extends AbstractMap<K, V> implements ConcurrentMap<K, V>, Serializable
+{
+	
+	/** The Constant serialVersionUID. */
+	private static final long serialVersionUID = -2153722469834155174L;
+	
+	/** Orders the nodes by their insertion sequence. */
+	private static final Comparator<Map.Entry<?, ? extends Node<?>>> INSERTION_ORDER = new Comparator<Map.Entry<?, ? extends Node<?>>>()
+	{
+		public int compare(final Map.Entry<?, ? extends Node<?>> first, final Map.Entry<?, ? extends Node<?>> second)
+		{
+			final long order = first.getValue().order;
+			final long otherOrder = second.getValue().order;
+			return order < otherOrder ? -1 : (order == otherOrder ? 0 : 1);
+		}
+	};
+	
+	/** Actual back-end storage for the mappings. */
+	private final ConcurrentHashMap<K, Node<V>> map;
+	
+	/** The insertion sequence. */
+	private final AtomicLong sequence = new AtomicLong();
+	
+	/** The entry set view, created lazily. */
+	private transient Set<Map.Entry<K, V>> entrySet;
+	
+	/**
+	 * Instantiates a new empty map with the default initial capacity.
+	 */
+	public ConcurrentLinkedHashMap()
+	{
+		map = new ConcurrentHashMap<K, Node<V>>();
+	}
+	
+	/**
+	 * Instantiates a new empty map with the given initial capacity.
+	 * 
+	 * @param initialCapacity
+	 *            the initial capacity
+	 */
+	public ConcurrentLinkedHashMap(final int initialCapacity)
+	{
+		map = new ConcurrentHashMap<K, Node<V>>(initialCapacity);
+	}
+	
+	/**
+	 * Instantiates a new map with the given map elements, in the order they
+	 * are returned by the given map.
+	 * 
+	 * @param tempMap
+	 *            the temp map
+	 */
+	public ConcurrentLinkedHashMap(final Map<? extends K, ? extends V> tempMap)
+	{
+		this(Math.max(16, tempMap.size()));
+		putAll(tempMap);
+	}
+	
+	/**
+	 * Creates a new node with the next insertion sequence.
+	 * 
+	 * @param value
+	 *            the value
+	 * @return the node
+	 */
+	private Node<V> newNode(final V value)
+	{
+		return new Node<V>(value, sequence.incrementAndGet());
+	}
+	
+	/**
+	 * Gets the value of the node, if any.
+	 * 
+	 * @param node
+	 *            the node
+	 * @return the value, null if node is null
+	 */
+	private static <V> V valueOf(final Node<V> node)
+	{
+		return node == null ? null : node.value;
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see java.util.AbstractMap#size()
+	 */
+	@Override
+	public int size()
+	{
+		return map.size();
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see java.util.AbstractMap#isEmpty()
+	 */
+	@Override
+	public boolean isEmpty()
+	{
+		return map.isEmpty();
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see java.util.AbstractMap#containsKey(java.lang.Object)
+	 */
+	@Override
+	public boolean containsKey(final Object key)
+	{
+		return map.containsKey(key);
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see java.util.AbstractMap#get(java.lang.Object)
+	 */
+	@Override
+	public V get(final Object key)
+	{
+		return valueOf(map.get(key));
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see java.util.AbstractMap#put(java.lang.Object, java.lang.Object)
+	 */
+	@Override
+	public V put(final K key, final V value)
+	{
+		if (value == null)
+		{
+			throw new NullPointerException();
+		}
+		while (true)
+		{
+			final Node<V> node = map.get(key);
+			if (node == null)
+			{
+				if (map.putIfAbsent(key, newNode(value)) == null)
+				{
+					return null;
+				}
+			}
+			else if (map.replace(key, node, node.with(value)))
+			{
+				return node.value;
+			}
+		}
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see java.util.Map#putIfAbsent(java.lang.Object, java.lang.Object)
+	 */
+	@Override
+	public V putIfAbsent(final K key, final V value)
+	{
+		if (value == null)
+		{
+			throw new NullPointerException();
+		}
+		final Node<V> node = map.get(key);
+		return node != null ? node.value : valueOf(map.putIfAbsent(key, newNode(value)));
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see java.util.AbstractMap#remove(java.lang.Object)
+	 */
+	@Override
+	public V remove(final Object key)
+	{
+		return valueOf(map.remove(key));
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see java.util.Map#remove(java.lang.Object, java.lang.Object)
+	 */
+	@Override
+	public boolean remove(final Object key, final Object value)
+	{
+		if (value == null)
+		{
+			return false;
+		}
+		while (true)
+		{
+			final Node<V> node = map.get(key);
+			if (node == null || !node.value.equals(value))
+			{
+				return false;
+			}
+			if (map.remove(key, node))
+			{
+				return true;
+			}
+		}
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see java.util.Map#replace(java.lang.Object, java.lang.Object,
+	 * java.lang.Object)
+	 */
+	@Override
+	public boolean replace(final K key, final V oldValue, final V newValue)
+	{
+		if (oldValue == null || newValue == null)
+		{
+			throw new NullPointerException();
+		}
+		while (true)
+		{
+			final Node<V> node = map.get(key);
+			if (node == null || !node.value.equals(oldValue))
+			{
+				return false;
+			}
+			if (map.replace(key, node, node.with(newValue)))
+			{
+				return true;
+			}
+		}
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see java.util.Map#replace(java.lang.Object, java.lang.Object)
+	 */
+	@Override
+	public V replace(final K key, final V value)
+	{
+		if (value == null)
+		{
+			throw new NullPointerException();
+		}
+		while (true)
+		{
+			final Node<V> node = map.get(key);
+			if (node == null)
+			{
+				return null;
+			}
+			if (map.replace(key, node, node.with(value)))
+			{
+				return node.value;
+			}
+		}
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see java.util.Map#computeIfAbsent(java.lang.Object,
+	 * java.util.function.Function)
+	 */
+	@Override
+	public V computeIfAbsent(final K key, final Function<? super K, ? extends V> mappingFunction)
+	{
+		final Node<V> node = map.get(key);
+		if (node != null)
+		{
+			return node.value;
+		}
+		return valueOf(map.computeIfAbsent(key, k -> {
+			final V value = mappingFunction.apply(k);
+			return value == null ? null : newNode(value);
+		}));
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see java.util.Map#merge(java.lang.Object, java.lang.Object,
+	 * java.util.function.BiFunction)
+	 */
+	@Override
+	public V merge(final K key, final V value, final BiFunction<? super V, ? super V, ? extends V> remappingFunction)
+	{
+		if (value == null)
+		{
+			throw new NullPointerException();
+		}
+		return valueOf(map.compute(key, (k, node) -> {
+			if (node == null)
+			{
+				return newNode(value);
+			}
+			final V newValue = remappingFunction.apply(node.value, value);
+			return newValue == null ? null : node.with(newValue);
+		}));
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see java.util.AbstractMap#clear()
+	 */
+	@Override
+	public void clear()
+	{
+		map.clear();
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see java.util.AbstractMap#entrySet()
+	 */
+	@Override
+	public Set<Map.Entry<K, V>> entrySet()
+	{
+		if (entrySet == null)
+		{
+			entrySet = new EntrySet();
+		}
+		return entrySet;
+	}
+	
+	/**
+	 * Takes a snapshot of the mappings in their insertion order.
+	 * 
+	 * @return the snapshot
+	 */
+	private List<Map.Entry<K, Node<V>>> snapshot()
+	{
+		final List<Map.Entry<K, Node<V>>> entries = new ArrayList<Map.Entry<K, Node<V>>>(map.size());
+		for (final Map.Entry<K, Node<V>> entry : map.entrySet())
+		{
+			entries.add(new SimpleImmutableEntry<K, Node<V>>(entry));
+		}
+		Collections.sort(entries, INSERTION_ORDER);
+		return entries;
+	}
+	
+	/**
+	 * The entry set view, iterates in the insertion order.
+	 */
+	private final class EntrySet extends AbstractSet<Map.Entry<K, V>>
+	{
+		
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see java.util.AbstractCollection#size()
+		 */
+		@Override
+		public int size()
+		{
+			return ConcurrentLinkedHashMap.this.size();
+		}
+		
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see java.util.AbstractCollection#clear()
+		 */
+		@Override
+		public void clear()
+		{
+			ConcurrentLinkedHashMap.this.clear();
+		}
+		
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see java.util.AbstractCollection#iterator()
+		 */
+		@Override
+		public Iterator<Map.Entry<K, V>> iterator()
+		{
+			final Iterator<Map.Entry<K, Node<V>>> snapshot = snapshot().iterator();
+			return new Iterator<Map.Entry<K, V>>()
+			{
+				
+				/** The current entry. */
+				private Map.Entry<K, V> current;
+				
+				public boolean hasNext()
+				{
+					return snapshot.hasNext();
+				}
+				
+				public Map.Entry<K, V> next()
+				{
+					final Map.Entry<K, Node<V>> entry = snapshot.next();
+					current = new SimpleImmutableEntry<K, V>(entry.getKey(), entry.getValue().value);
+					return current;
+				}
+				
+				public void remove()
+				{
+					if (current == null)
+					{
+						throw new IllegalStateException();
+					}
+					ConcurrentLinkedHashMap.this.remove(current.getKey(), current.getValue());
+					current = null;
+				}
+			};
+		}
+	}
+	
+	/**
+	 * An immutable value holder along with the insertion sequence of its key.
+	 * 
+	 * @param <V>
+	 *            the value type
+	 */
+	static final class Node<V> implements Serializable
+	{
+		
+		/** The Constant serialVersionUID. */
+		private static final long serialVersionUID = 4431577466253384416L;
+		
+		/** The value. */
+		final V value;
+		
+		/** The insertion sequence. */
+		final long order;
+		
+		/**
+		 * Instantiates a new node.
+		 * 
+		 * @param value
+		 *            the value
+		 * @param order
+		 *            the order
+		 */
+		private Node(final V value, final long order)
+		{
+			this.value = value;
+			this.order = order;
+		}
+		
+		/**
+		 * Creates a node with the given value, keeping the insertion order.
+		 * 
+		 * @param newValue
+		 *            the new value
+		 * @return the node
+		 */
+		private Node<V> with(final V newValue)
+		{
+			return new Node<V>(newValue, order);
+		}
+	}
+}
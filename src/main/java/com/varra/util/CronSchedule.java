@@ -0,0 +1,603 @@
+/*
+ * utils4j - CronSchedule.java, Oct 18, 2026 9:17:02 PM
+ * 
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.varra.util;
+
+import java.util.Calendar;
+import java.util.Locale;
+import java.util.TimeZone;
+
+import com.varra.classification.InterfaceAudience;
+import com.varra.classification.InterfaceStability;
+
+/**
+ * A {@link Schedule} given by a cron expression, in a time zone.<br>
+ * The expression is compiled once into bit sets, one per field, and the next
+ * fire time is found by walking the calendar fields with integer arithmetic,
+ * jumping over the months, days, hours and minutes that do not match, so
+ * {@link #getNextFireTime(long)} does not create any objects.
+ * 
+ * <br>
+ * The expression has 5 fields, <i>minute hour day-of-month month
+ * day-of-week</i>, or 6 fields with the <i>second</i> in front. Each field
+ * takes:
+ * <ul>
+ * <li><b>*</b> or <b>?</b> for any value</li>
+ * <li>a value like <b>5</b>, a range like <b>1-5</b> and a list like
+ * <b>1,3,5</b></li>
+ * <li>a step like <b>*&#47;15</b>, <b>5&#47;15</b> or <b>0-30&#47;10</b></li>
+ * <li>the names <b>JAN</b>-<b>DEC</b> for the months and <b>SUN</b>-<b>SAT</b>
+ * for the days of the week, where both 0 and 7 are Sunday</li>
+ * </ul>
+ * Like cron, if both the day of month and the day of week are given, the
+ * day matches either of them. The macros <b>@yearly</b>, <b>@monthly</b>,
+ * <b>@weekly</b>, <b>@daily</b> and <b>@hourly</b> are also supported.
+ * 
+ * <br>
+ * On a daylight saving change, the times skipped fire right after the gap
+ * and the times repeated fire only once.
+ * 
+ * @author <a href="mailto:varra@outlook.com">Rajakrishna V.
+ *         Reddy</a>
+ * @version 1.0
+ */
+@InterfaceAudience.Public
+@InterfaceStability.Evolving
+public class CronSchedule implements Schedule
+{
+	
+	/** The seconds per day. */
+	private static final long SECONDS_PER_DAY = 24 * 60 * 60;
+	
+	/** The days to look ahead, long enough for a 29th of February on a Monday. */
+	private static final long MAX_DAYS_AHEAD = 366L * 28;
+	
+	/** The names of the months. */
+	private static final String[] MONTHS = { "JAN", "FEB", "MAR", "APR", "MAY", "JUN", "JUL", "AUG", "SEP", "OCT", "NOV", "DEC" };
+	
+	/** The names of the days of the week. */
+	private static final String[] DAYS_OF_WEEK = { "SUN", "MON", "TUE", "WED", "THU", "FRI", "SAT" };
+	
+	/** The expression. */
+	private final String expression;
+	
+	/** The time zone. */
+	private final TimeZone timeZone;
+	
+	/** The seconds, bit per second. */
+	private final long seconds;
+	
+	/** The minutes, bit per minute. */
+	private final long minutes;
+	
+	/** The hours, bit per hour. */
+	private final long hours;
+	
+	/** The days of month, bit per day from 1. */
+	private final long daysOfMonth;
+	
+	/** The months, bit per month from 1. */
+	private final long months;
+	
+	/** The days of week, bit per day from Sunday as 0. */
+	private final long daysOfWeek;
+	
+	/** Whether the day is matched by both the day of month and week. */
+	private final boolean matchBothDays;
+	
+	/**
+	 * Instantiates a new cron schedule in the default time zone.
+	 * 
+	 * @param expression
+	 *            the expression
+	 * @throws IllegalArgumentException
+	 *             if the expression is not valid
+	 */
+	public CronSchedule(final String expression)
+	{
+		this(expression, TimeZone.getDefault());
+	}
+	
+	/**
+	 * Instantiates a new cron schedule.
+	 * 
+	 * @param expression
+	 *            the expression
+	 * @param timeZone
+	 *            the time zone
+	 * @throws IllegalArgumentException
+	 *             if the expression is not valid
+	 */
+	public CronSchedule(final String expression, final TimeZone timeZone)
+	{
+		if (expression == null)
+		{
+			throw new IllegalArgumentException("Invalid cron expression: null");
+		}
+		this.expression = expression.trim();
+		this.timeZone = (TimeZone) timeZone.clone();
+		final String[] fields = expand(this.expression).split("\\s+");
+		if (fields.length != 5 && fields.length != 6)
+		{
+			throw new IllegalArgumentException("Cron expression should have 5 or 6 fields, expression: " + expression);
+		}
+		int index = 0;
+		seconds = fields.length == 6 ? parse(fields[index++], 0, 59, null) : 1L;
+		minutes = parse(fields[index++], 0, 59, null);
+		hours = parse(fields[index++], 0, 23, null);
+		final String dayOfMonth = fields[index++];
+		daysOfMonth = parse(dayOfMonth, 1, 31, null);
+		months = parse(fields[index++], 1, 12, MONTHS);
+		final String dayOfWeek = fields[index++];
+		long days = parse(dayOfWeek, 0, 7, DAYS_OF_WEEK);
+		if ((days & (1L << 7)) != 0)
+		{
+			days = (days & ~(1L << 7)) | 1L;
+		}
+		daysOfWeek = days;
+		matchBothDays = isAny(dayOfMonth) || isAny(dayOfWeek);
+	}
+	
+	/**
+	 * Gets the schedule firing every hour at the given minute.
+	 * 
+	 * @param minute
+	 *            the minute
+	 * @return the cron schedule
+	 */
+	public static CronSchedule hourly(final int minute)
+	{
+		return new CronSchedule(minute + " * * * *");
+	}
+	
+	/**
+	 * Gets the schedule firing every day at the given time.
+	 * 
+	 * @param hour
+	 *            the hour
+	 * @param minute
+	 *            the minute
+	 * @return the cron schedule
+	 */
+	public static CronSchedule daily(final int hour, final int minute)
+	{
+		return new CronSchedule(minute + " " + hour + " * * *");
+	}
+	
+	/**
+	 * Gets the schedule firing every week on the given day at the given time.
+	 * 
+	 * @param dayOfWeek
+	 *            the day of week, like {@link Calendar#MONDAY}
+	 * @param hour
+	 *            the hour
+	 * @param minute
+	 *            the minute
+	 * @return the cron schedule
+	 */
+	public static CronSchedule weekly(final int dayOfWeek, final int hour, final int minute)
+	{
+		return new CronSchedule(minute + " " + hour + " * * " + (dayOfWeek - Calendar.SUNDAY));
+	}
+	
+	/**
+	 * Gets the schedule firing every month on the given day at the given time,
+	 * the months without that day are skipped.
+	 * 
+	 * @param dayOfMonth
+	 *            the day of month
+	 * @param hour
+	 *            the hour
+	 * @param minute
+	 *            the minute
+	 * @return the cron schedule
+	 */
+	public static CronSchedule monthly(final int dayOfMonth, final int hour, final int minute)
+	{
+		return new CronSchedule(minute + " " + hour + " " + dayOfMonth + " * *");
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see com.varra.util.Schedule#getNextFireTime(long)
+	 */
+	public long getNextFireTime(final long after)
+	{
+		/** The local time in seconds, starts from the next second. */
+		long time = floorDiv(after + timeZone.getOffset(after), 1000) + 1;
+		final long startDay = floorDiv(time, SECONDS_PER_DAY);
+		while (true)
+		{
+			final long day = floorDiv(time, SECONDS_PER_DAY);
+			if (day - startDay > MAX_DAYS_AHEAD)
+			{
+				return -1;
+			}
+			final long date = toDate(day);
+			final int year = (int) (date >> 9);
+			final int month = (int) (date >> 5) & 0xF;
+			if ((months & (1L << month)) == 0)
+			{
+				time = toDay(month == 12 ? year + 1 : year, month == 12 ? 1 : month + 1, 1) * SECONDS_PER_DAY;
+				continue;
+			}
+			if (!matchesDay((int) date & 0x1F, (int) floorMod(day + 4, 7)))
+			{
+				time = (day + 1) * SECONDS_PER_DAY;
+				continue;
+			}
+			final int secondOfDay = (int) (time - day * SECONDS_PER_DAY);
+			int hour = secondOfDay / 3600;
+			int minute = secondOfDay / 60 % 60;
+			int second = secondOfDay % 60;
+			final int nextHour = next(hours, hour);
+			if (nextHour < 0)
+			{
+				time = (day + 1) * SECONDS_PER_DAY;
+				continue;
+			}
+			if (nextHour > hour)
+			{
+				hour = nextHour;
+				minute = 0;
+				second = 0;
+			}
+			final int nextMinute = next(minutes, minute);
+			if (nextMinute < 0)
+			{
+				time = day * SECONDS_PER_DAY + (hour + 1) * 3600;
+				continue;
+			}
+			if (nextMinute > minute)
+			{
+				minute = nextMinute;
+				second = 0;
+			}
+			final int nextSecond = next(seconds, second);
+			if (nextSecond < 0)
+			{
+				time = day * SECONDS_PER_DAY + hour * 3600 + (minute + 1) * 60;
+				continue;
+			}
+			time = day * SECONDS_PER_DAY + hour * 3600 + minute * 60 + nextSecond;
+			final long fireTime = toUtc(time * 1000);
+			if (fireTime > after)
+			{
+				return fireTime;
+			}
+			/** Repeated local time on a daylight saving change. */
+			time++;
+		}
+	}
+	
+	/**
+	 * Gets the expression.
+	 * 
+	 * @return the expression
+	 */
+	public String getExpression()
+	{
+		return expression;
+	}
+	
+	/**
+	 * Gets the time zone.
+	 * 
+	 * @return the time zone
+	 */
+	public TimeZone getTimeZone()
+	{
+		return (TimeZone) timeZone.clone();
+	}
+	
+	/**
+	 * Checks if the day matches.
+	 * 
+	 * @param dayOfMonth
+	 *            the day of month
+	 * @param dayOfWeek
+	 *            the day of week
+	 * @return true, if successful
+	 */
+	private boolean matchesDay(final int dayOfMonth, final int dayOfWeek)
+	{
+		final boolean monthDay = (daysOfMonth & (1L << dayOfMonth)) != 0;
+		final boolean weekDay = (daysOfWeek & (1L << dayOfWeek)) != 0;
+		return matchBothDays ? monthDay && weekDay : monthDay || weekDay;
+	}
+	
+	/**
+	 * Converts the local time to UTC. A local time seen twice, when the clocks
+	 * go back, is the first one like cron does, and the one skipped, when the
+	 * clocks go forward, is the first instant after the gap, i.e. the
+	 * transition itself.
+	 * 
+	 * @param local
+	 *            the local time in ms
+	 * @return the UTC time in ms
+	 */
+	private long toUtc(final long local)
+	{
+		final long probe = local - timeZone.getRawOffset();
+		/** The offsets of the day before and after, the DST one is the larger. */
+		final int earlier = timeZone.getOffset(probe - SECONDS_PER_DAY * 1000);
+		final int later = timeZone.getOffset(probe + SECONDS_PER_DAY * 1000);
+		final int first = Math.max(earlier, later);
+		if (timeZone.getOffset(local - first) == first)
+		{
+			return local - first;
+		}
+		final int second = Math.min(earlier, later);
+		if (timeZone.getOffset(local - second) == second)
+		{
+			return local - second;
+		}
+		/**
+		 * In the gap, the transition is between the instants the local time
+		 * would be at with the offsets before and after it.
+		 */
+		long low = local - first;
+		long high = local - second;
+		final int before = timeZone.getOffset(low);
+		while (high - low > 1)
+		{
+			final long middle = (low + high) >>> 1;
+			if (timeZone.getOffset(middle) == before)
+			{
+				low = middle;
+			}
+			else
+			{
+				high = middle;
+			}
+		}
+		return high;
+	}
+	
+	/**
+	 * Gets the first value in the bits from the given value, inclusive.
+	 * 
+	 * @param bits
+	 *            the bits
+	 * @param from
+	 *            the from
+	 * @return the value, -1 if none
+	 */
+	private static int next(final long bits, final int from)
+	{
+		final long remaining = bits & (-1L << from);
+		return remaining == 0 ? -1 : Long.numberOfTrailingZeros(remaining);
+	}
+	
+	/**
+	 * Gets the days since the epoch of the given date.
+	 * 
+	 * @param year
+	 *            the year
+	 * @param month
+	 *            the month, from 1
+	 * @param dayOfMonth
+	 *            the day of month
+	 * @return the days
+	 */
+	private static long toDay(final int year, final int month, final int dayOfMonth)
+	{
+		final long y = month <= 2 ? year - 1 : year;
+		final long era = (y >= 0 ? y : y - 399) / 400;
+		final long yearOfEra = y - era * 400;
+		final long dayOfYear = (153 * (month > 2 ? month - 3 : month + 9) + 2) / 5 + dayOfMonth - 1;
+		final long dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+		return era * 146097 + dayOfEra - 719468;
+	}
+	
+	/**
+	 * Gets the date of the given days since the epoch, packed as year &lt;&lt;
+	 * 9 | month &lt;&lt; 5 | day of month.
+	 * 
+	 * @param day
+	 *            the day
+	 * @return the date
+	 */
+	private static long toDate(final long day)
+	{
+		final long shifted = day + 719468;
+		final long era = (shifted >= 0 ? shifted : shifted - 146096) / 146097;
+		final long dayOfEra = shifted - era * 146097;
+		final long yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+		final long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+		final long shiftedMonth = (5 * dayOfYear + 2) / 153;
+		final long dayOfMonth = dayOfYear - (153 * shiftedMonth + 2) / 5 + 1;
+		final long month = shiftedMonth < 10 ? shiftedMonth + 3 : shiftedMonth - 9;
+		final long year = yearOfEra + era * 400 + (month <= 2 ? 1 : 0);
+		return (year << 9) | (month << 5) | dayOfMonth;
+	}
+	
+	/**
+	 * Floor div.
+	 * 
+	 * @param value
+	 *            the value
+	 * @param divisor
+	 *            the divisor
+	 * @return the long
+	 */
+	private static long floorDiv(final long value, final long divisor)
+	{
+		final long quotient = value / divisor;
+		return (value % divisor != 0 && (value < 0)) ? quotient - 1 : quotient;
+	}
+	
+	/**
+	 * Floor mod.
+	 * 
+	 * @param value
+	 *            the value
+	 * @param divisor
+	 *            the divisor
+	 * @return the long
+	 */
+	private static long floorMod(final long value, final long divisor)
+	{
+		return value - floorDiv(value, divisor) * divisor;
+	}
+	
+	/**
+	 * Expands the macros.
+	 * 
+	 * @param expression
+	 *            the expression
+	 * @return the expression
+	 */
+	private static String expand(final String expression)
+	{
+		final String macro = expression.toLowerCase(Locale.ENGLISH);
+		if ("@yearly".equals(macro) || "@annually".equals(macro))
+		{
+			return "0 0 1 1 *";
+		}
+		if ("@monthly".equals(macro))
+		{
+			return "0 0 1 * *";
+		}
+		if ("@weekly".equals(macro))
+		{
+			return "0 0 * * 0";
+		}
+		if ("@daily".equals(macro) || "@midnight".equals(macro))
+		{
+			return "0 0 * * *";
+		}
+		if ("@hourly".equals(macro))
+		{
+			return "0 * * * *";
+		}
+		return expression;
+	}
+	
+	/**
+	 * Checks if the field takes any value.
+	 * 
+	 * @param field
+	 *            the field
+	 * @return true, if it is any
+	 */
+	private static boolean isAny(final String field)
+	{
+		return "*".equals(field) || "?".equals(field);
+	}
+	
+	/**
+	 * Parses the field into its bits.
+	 * 
+	 * @param field
+	 *            the field
+	 * @param min
+	 *            the min value
+	 * @param max
+	 *            the max value
+	 * @param names
+	 *            the names of the values from min, can be null
+	 * @return the bits
+	 */
+	private static long parse(final String field, final int min, final int max, final String[] names)
+	{
+		long bits = 0;
+		for (final String part : field.split(","))
+		{
+			final int slash = part.indexOf('/');
+			final String range = slash >= 0 ? part.substring(0, slash) : part;
+			final int step = slash >= 0 ? parseValue(part.substring(slash + 1), 1, max, null, field) : 1;
+			final int from;
+			final int to;
+			if (isAny(range))
+			{
+				from = min;
+				to = max;
+			}
+			else
+			{
+				final int dash = range.indexOf('-');
+				from = parseValue(dash >= 0 ? range.substring(0, dash) : range, min, max, names, field);
+				to = dash >= 0 ? parseValue(range.substring(dash + 1), min, max, names, field) : (slash >= 0 ? max : from);
+			}
+			if (from > to || step <= 0)
+			{
+				throw new IllegalArgumentException("Invalid cron field: " + field);
+			}
+			for (int value = from; value <= to; value += step)
+			{
+				bits |= 1L << value;
+			}
+		}
+		return bits;
+	}
+	
+	/**
+	 * Parses the value, a number or a name.
+	 * 
+	 * @param value
+	 *            the value
+	 * @param min
+	 *            the min
+	 * @param max
+	 *            the max
+	 * @param names
+	 *            the names of the values from min, can be null
+	 * @param field
+	 *            the field, for the error message
+	 * @return the int
+	 */
+	private static int parseValue(final String value, final int min, final int max, final String[] names, final String field)
+	{
+		if (names != null)
+		{
+			for (int index = 0; index < names.length; index++)
+			{
+				if (names[index].equalsIgnoreCase(value))
+				{
+					return index + (min == 0 ? 0 : 1);
+				}
+			}
+		}
+		try
+		{
+			final int number = Integer.parseInt(value);
+			if (number >= min && number <= max)
+			{
+				return number;
+			}
+		}
+		catch (NumberFormatException e)
+		{
+			/** Reported below. */
+		}
+		throw new IllegalArgumentException("Invalid cron field: " + field);
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString()
+	{
+		return "CronSchedule [expression=" + expression + ", timeZone=" + timeZone.getID() + "]";
+	}
+}
@@ -19,6 +19,10 @@
 package com.varra.util;
 
 import java.util.TimerTask;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.log4j.Logger;
 
@@ -31,6 +35,22 @@ import com.varra.exception.ComputingException;
  * with their name and next execution time.
  * 
  * Note: <b> Use <i>{@link #compute()} </i> method to write the business logic.</b>
+ * <p>
+ * Tasks aligned to the wall clock, like the daily and hourly jobs, can be
+ * given a {@link Schedule} like a {@link CronSchedule} instead of a period, see
+ * {@link #setSchedule(Schedule)}.
+ * <p>
+ * Something that happened and needs this to be executed right away, like a
+ * change notification, can be signalled with {@link #trigger()}. The triggers
+ * are coalesced: the ones received before an execution is dispatched are
+ * served by it, and the ones received while it is waiting for a thread or
+ * running get exactly one more execution once it is done. A burst of
+ * triggers can further be collapsed with {@link #setDebounce(long)} or
+ * {@link #setThrottle(long)}.
+ * <p>
+ * The rate at which it is executed can be limited by a {@link RateLimiter},
+ * declared on the class with {@link RateLimit} or given with
+ * {@link #setRateLimiter(RateLimiter)}.
  * 
  * @author <a href="mailto:varra@outlook.com">Rajakrishna V.
  *         Reddy</a>
@@ -42,6 +62,17 @@ public abstract class EnhancedTimerTask implements Comparable<EnhancedTimerTask>
 	/** The Constant ALWAYS_TRUE. */
 	private static final int ALWAYS_TRUE = 1;
 	
+	/** The rate limiters declared by the task classes, shared by their instances. */
+	private static final ClassValue<RateLimiter> DECLARED_RATE_LIMITERS = new ClassValue<RateLimiter>()
+	{
+		@Override
+		protected RateLimiter computeValue(final Class<?> type)
+		{
+			final RateLimit rateLimit = type.getAnnotation(RateLimit.class);
+			return rateLimit == null ? null : new TokenBucketRateLimiter(rateLimit.permitsPerSecond(), rateLimit.burst());
+		}
+	};
+	
 	/** The next execution time. */
 	private transient long nextExecutionTime;
 	
@@ -72,8 +103,55 @@ public abstract class EnhancedTimerTask implements Comparable<EnhancedTimerTask>
 	/** The no of exec times. */
 	private transient int noOfExecTimes = 0;
 	
-	/** If or not this should be executed immediately. */
-	private transient boolean executeImmediately;
+	/** The no of triggers received so far. */
+	private final transient AtomicLong triggers = new AtomicLong();
+	
+	/** The no of triggers served by the executions started so far. */
+	private transient volatile long servedTriggers;
+	
+	/** The no of executions started for the triggers. */
+	private transient volatile long triggeredExecutions;
+	
+	/** The time of the last trigger. */
+	private transient volatile long lastTriggerTime;
+	
+	/** The time of the last execution started for the triggers. */
+	private transient volatile long lastTriggeredExecutionTime;
+	
+	/**
+	 * The served triggers before the last execution dispatched for them, till
+	 * it is started, -1 once it is started; used to re-arm them if it is
+	 * discarded.
+	 */
+	private final transient AtomicLong unstartedServedTriggers = new AtomicLong(-1);
+	
+	/** The last triggered execution time before the one not started yet. */
+	private transient volatile long unstartedLastTriggeredExecutionTime;
+	
+	/** The debounce window in ms, 0 if not debounced. */
+	private transient volatile long debounce;
+	
+	/** The throttle window in ms, 0 if not throttled. */
+	private transient volatile long throttle;
+	
+	/** The executions dispatched and not done yet, the triggers wait for them. */
+	private final transient AtomicInteger inFlight = new AtomicInteger();
+	
+	/** The rate limiter, null to use the one declared by the class. */
+	private transient volatile RateLimiter rateLimiter;
+	
+	/** Whether the dispatcher is to be woken up once the execution is done. */
+	private transient volatile boolean wakeUpWhenDone;
+	
+	/**
+	 * The permits taken by the dispatcher and not given back yet, as the
+	 * limiters they are taken from; given back to those even if the rate
+	 * limiter is changed meanwhile.
+	 */
+	private final transient ConcurrentLinkedQueue<RateLimiter> heldPermits = new ConcurrentLinkedQueue<RateLimiter>();
+	
+	/** The {@link SafeThread} dispatching this, woken up on the triggers. */
+	private transient volatile SafeThread dispatcher;
 	
 	/** If or not this is . */
 	private transient boolean isDaemon;
@@ -81,12 +159,18 @@ public abstract class EnhancedTimerTask implements Comparable<EnhancedTimerTask>
 	/** The name. */
 	private final String name;
 	
+	/** The key of this in a {@link SchedulerCheckpoint}, null if not checkpointed. */
+	private volatile String checkpointKey;
+	
 	/** The running. */
 	private transient boolean running;
 	
 	/** The single executable. */
 	private transient boolean singleExecutable;
 	
+	/** The schedule, null if it is executed by its period. */
+	private transient Schedule schedule;
+	
 	/**
 	 * Constructor for subclasses.
 	 * 
@@ -122,6 +206,7 @@ public abstract class EnhancedTimerTask implements Comparable<EnhancedTimerTask>
 	 */
 	public void run()
 	{
+		unstartedServedTriggers.set(-1);
 		try
 		{
 			this.setRunning(true);
@@ -132,6 +217,17 @@ public abstract class EnhancedTimerTask implements Comparable<EnhancedTimerTask>
 		{
 			Logger.getLogger(getClass().getName()).error("Error in executing: " + getName(), e);
 		}
+		finally
+		{
+			releasePermit();
+			decrement(inFlight);
+			/** Triggered while waiting or running, needs one more execution. */
+			if (isTriggered() || wakeUpWhenDone)
+			{
+				wakeUpWhenDone = false;
+				wakeUpDispatcher();
+			}
+		}
 	}
 	
 	/**
@@ -197,7 +293,59 @@ public abstract class EnhancedTimerTask implements Comparable<EnhancedTimerTask>
 	 */
 	public void updateNextExecutionTime()
 	{
-		this.nextExecutionTime = System.currentTimeMillis() + getPeriod();
+		if (schedule != null)
+		{
+			final long nextFireTime = schedule.getNextFireTime(System.currentTimeMillis());
+			this.nextExecutionTime = nextFireTime < 0 ? Long.MAX_VALUE : nextFireTime;
+			if (nextFireTime < 0)
+			{
+				setExpired(true);
+			}
+		}
+		else
+		{
+			this.nextExecutionTime = System.currentTimeMillis() + getPeriod();
+		}
+	}
+	
+	/**
+	 * Sets the schedule, so that it is executed at the fire times of the
+	 * schedule rather than for every period, starting from the next fire
+	 * time. It is executed for {@link #getNoOfTimes()}, hence set it or
+	 * {@link #setDaemon(boolean)} to keep it going. It expires once the
+	 * schedule never fires again.
+	 * 
+	 * @param schedule
+	 *            the schedule, null to execute it by its period again
+	 */
+	public void setSchedule(final Schedule schedule)
+	{
+		this.schedule = schedule;
+		if (schedule != null)
+		{
+			this.isPeriodic = true;
+			updateNextExecutionTime();
+		}
+	}
+	
+	/**
+	 * Gets the schedule.
+	 * 
+	 * @return the schedule, null if it is executed by its period
+	 */
+	public Schedule getSchedule()
+	{
+		return schedule;
+	}
+	
+	/**
+	 * Checks if it is executed at the fire times of a {@link Schedule}.
+	 * 
+	 * @return true, if is scheduled
+	 */
+	public boolean isScheduled()
+	{
+		return schedule != null;
 	}
 	
 	/**
@@ -257,11 +405,13 @@ public abstract class EnhancedTimerTask implements Comparable<EnhancedTimerTask>
 	}
 	
 	/**
-	 * Cancels this {@link TimerTask}.
+	 * Cancels this {@link TimerTask}, and wakes up the {@link SafeThread}
+	 * dispatching it to remove it and notify its listeners right away.
 	 */
 	public void cancel()
 	{
 		isCanceled = true;
+		wakeUpDispatcher();
 	}
 	
 	/**
@@ -392,6 +542,50 @@ public abstract class EnhancedTimerTask implements Comparable<EnhancedTimerTask>
 		return noOfExecTimes;
 	}
 	
+	/**
+	 * Restores the execution state recorded by a {@link SchedulerCheckpoint},
+	 * so that it carries on from where it was left rather than running for
+	 * the first time again.
+	 * 
+	 * @param noOfExecTimes
+	 *            the no of exec times
+	 * @param prevExecutionTime
+	 *            the prev execution time
+	 * @param nextExecutionTime
+	 *            the next execution time
+	 */
+	void restore(final int noOfExecTimes, final long prevExecutionTime, final long nextExecutionTime)
+	{
+		this.noOfExecTimes = noOfExecTimes;
+		this.prevExecutionTime = prevExecutionTime;
+		this.nextExecutionTime = nextExecutionTime;
+	}
+	
+	/**
+	 * Sets the key this is recorded with in a {@link SchedulerCheckpoint}. It
+	 * has to be unique among the tasks of the scheduler and stay the same
+	 * across the restarts, the tasks without one are not checkpointed.
+	 * 
+	 * @param checkpointKey
+	 *            the checkpoint key, of 1 to
+	 *            {@link SchedulerCheckpoint#MAX_KEY_LENGTH} UTF-8 bytes, null
+	 *            to not checkpoint this
+	 */
+	public void setCheckpointKey(final String checkpointKey)
+	{
+		this.checkpointKey = checkpointKey;
+	}
+	
+	/**
+	 * Gets the key this is recorded with in a {@link SchedulerCheckpoint}.
+	 * 
+	 * @return the checkpoint key, null if not checkpointed
+	 */
+	public String getCheckpointKey()
+	{
+		return checkpointKey;
+	}
+	
 	/**
 	 * Gets the elapsed time.
 	 * 
@@ -444,7 +638,9 @@ public abstract class EnhancedTimerTask implements Comparable<EnhancedTimerTask>
 	 * received. <br>
 	 * Note: <b> This doesn't guarantee the immediate execution, rather its just
 	 * like requesting, {@link GlobalThread} will run this as soon as it has
-	 * free worker threads.</b>
+	 * free worker threads.</b><br>
+	 * Setting it is same as {@link #trigger()}, clearing it discards the
+	 * triggers not served yet.
 	 * 
 	 * @param executeImmediately
 	 *            the executeImmediately to set
@@ -453,18 +649,322 @@ public abstract class EnhancedTimerTask implements Comparable<EnhancedTimerTask>
 	 */
 	public void setExecuteImmediately(boolean executeImmediately)
 	{
-		this.executeImmediately = executeImmediately;
+		if (executeImmediately)
+		{
+			trigger();
+		}
+		else
+		{
+			servedTriggers = triggers.get();
+		}
 	}
 	
 	/**
 	 * Checks if this is set for immediate execution.
 	 * 
 	 * @return the executeImmediately
+	 * @see #isTriggered()
 	 * @since 3.0
 	 */
 	public boolean isExecuteImmediatelySet()
 	{
-		return executeImmediately;
+		return isTriggered();
+	}
+	
+	/**
+	 * Requests an execution of this as soon as possible, and wakes up the
+	 * {@link SafeThread} dispatching it rather than waiting for its next pass.
+	 * <br>
+	 * The triggers received before an execution is dispatched are served by
+	 * it, the ones received while it is waiting for a thread or running get
+	 * one more execution after it, so a burst of triggers never runs this
+	 * concurrently nor gets lost.
+	 * 
+	 * @see #setDebounce(long)
+	 * @see #setThrottle(long)
+	 */
+	public void trigger()
+	{
+		lastTriggerTime = System.currentTimeMillis();
+		triggers.incrementAndGet();
+		wakeUpDispatcher();
+	}
+	
+	/**
+	 * Checks if it has the triggers not served by an execution yet.
+	 * 
+	 * @return true, if is triggered
+	 */
+	public boolean isTriggered()
+	{
+		return triggers.get() > servedTriggers;
+	}
+	
+	/**
+	 * Gets the time at which the pending triggers can be served, once the
+	 * debounce and throttle windows are elapsed and no execution dispatched
+	 * is waiting for a thread or running.
+	 * 
+	 * @return the trigger due time, {@link Long#MAX_VALUE} if it is not
+	 *         triggered or an execution is in flight
+	 */
+	public long getTriggerDueTime()
+	{
+		if (inFlight.get() > 0 || !isTriggered())
+		{
+			return Long.MAX_VALUE;
+		}
+		long dueTime = 0;
+		if (debounce > 0)
+		{
+			dueTime = lastTriggerTime + debounce;
+		}
+		if (throttle > 0 && lastTriggeredExecutionTime > 0)
+		{
+			dueTime = Math.max(dueTime, lastTriggeredExecutionTime + throttle);
+		}
+		return dueTime;
+	}
+	
+	/**
+	 * Sets the debounce window, the triggers are served only once no more
+	 * triggers are received for the given time, so a burst of them results
+	 * in a single execution after it settles down.
+	 * 
+	 * @param debounce
+	 *            the debounce window in ms, 0 to disable
+	 */
+	public void setDebounce(final long debounce)
+	{
+		if (debounce < 0)
+		{
+			throw new IllegalArgumentException("Debounce can't be negative, debounce: " + debounce);
+		}
+		this.debounce = debounce;
+	}
+	
+	/**
+	 * Gets the debounce window.
+	 * 
+	 * @return the debounce window in ms
+	 */
+	public long getDebounce()
+	{
+		return debounce;
+	}
+	
+	/**
+	 * Sets the throttle window, the triggers are served at most once in the
+	 * given time, the ones received meanwhile are served together once it is
+	 * elapsed.
+	 * 
+	 * @param throttle
+	 *            the throttle window in ms, 0 to disable
+	 */
+	public void setThrottle(final long throttle)
+	{
+		if (throttle < 0)
+		{
+			throw new IllegalArgumentException("Throttle can't be negative, throttle: " + throttle);
+		}
+		this.throttle = throttle;
+	}
+	
+	/**
+	 * Gets the throttle window.
+	 * 
+	 * @return the throttle window in ms
+	 */
+	public long getThrottle()
+	{
+		return throttle;
+	}
+	
+	/**
+	 * Gets the no of triggers received so far.
+	 * 
+	 * @return the trigger count
+	 */
+	public long getTriggerCount()
+	{
+		return triggers.get();
+	}
+	
+	/**
+	 * Gets the no of triggers coalesced, i.e. served by an execution started
+	 * for another one, or discarded by clearing
+	 * {@link #setExecuteImmediately(boolean)}.
+	 * 
+	 * @return the coalesced trigger count
+	 */
+	public long getCoalescedTriggerCount()
+	{
+		return servedTriggers - triggeredExecutions;
+	}
+	
+	/**
+	 * Marks the execution being dispatched as in flight till it is done, and
+	 * the triggers received so far as served by it, called by the dispatcher
+	 * before it is submitted.
+	 * 
+	 * @param now
+	 *            the current time
+	 */
+	void onExecution(final long now)
+	{
+		inFlight.incrementAndGet();
+		final long received = triggers.get();
+		if (received > servedTriggers)
+		{
+			unstartedLastTriggeredExecutionTime = lastTriggeredExecutionTime;
+			unstartedServedTriggers.set(servedTriggers);
+			servedTriggers = received;
+			triggeredExecutions++;
+			lastTriggeredExecutionTime = now;
+		}
+	}
+	
+	/**
+	 * Called when the execution dispatched is discarded without being run,
+	 * like when the thread pool rejects, drops or coalesces it. Gives back the
+	 * permit taken for it, and re-arms the triggers it was to serve so they
+	 * get another execution.
+	 */
+	void onDiscard()
+	{
+		releasePermit();
+		final long served = unstartedServedTriggers.getAndSet(-1);
+		if (served >= 0)
+		{
+			servedTriggers = served;
+			triggeredExecutions--;
+			lastTriggeredExecutionTime = unstartedLastTriggeredExecutionTime;
+		}
+		decrement(inFlight);
+		final SafeThread dispatcher = this.dispatcher;
+		if (dispatcher != null && isTriggered())
+		{
+			dispatcher.onDiscard(this);
+		}
+	}
+	
+	/**
+	 * Sets the rate limiter of this, overriding the one declared by the class
+	 * with {@link RateLimit}. A permit is taken before every execution, the
+	 * ones due without a permit are held back till it is available.
+	 * 
+	 * @param rateLimiter
+	 *            the rate limiter, null to use the declared one
+	 */
+	public void setRateLimiter(final RateLimiter rateLimiter)
+	{
+		this.rateLimiter = rateLimiter;
+	}
+	
+	/**
+	 * Gets the rate limiter of this.
+	 * 
+	 * @return the rate limiter, the one declared by the class if not set,
+	 *         null if none
+	 */
+	public RateLimiter getRateLimiter()
+	{
+		final RateLimiter rateLimiter = this.rateLimiter;
+		return rateLimiter != null ? rateLimiter : DECLARED_RATE_LIMITERS.get(getClass());
+	}
+	
+	/**
+	 * Takes a permit for the execution about to be dispatched, called by the
+	 * dispatcher.
+	 * 
+	 * @return the time to wait for the permit in ms, 0 if taken or not
+	 *         limited
+	 */
+	long acquirePermit()
+	{
+		final RateLimiter rateLimiter = getRateLimiter();
+		if (rateLimiter == null)
+		{
+			return 0;
+		}
+		if (rateLimiter.tryAcquire(1))
+		{
+			heldPermits.offer(rateLimiter);
+			return 0;
+		}
+		return Math.max(1, rateLimiter.getWaitTime(1, TimeUnit.MILLISECONDS));
+	}
+	
+	/**
+	 * Gives back a permit taken by the dispatcher, once the execution is done,
+	 * to the limiter it is taken from. None if this is run without the
+	 * dispatcher.
+	 */
+	private void releasePermit()
+	{
+		final RateLimiter rateLimiter = heldPermits.poll();
+		if (rateLimiter != null)
+		{
+			rateLimiter.release(1);
+		}
+	}
+	
+	/**
+	 * Decrements the counter unless it is zero already, as this can be run
+	 * without the dispatcher too.
+	 * 
+	 * @param counter
+	 *            the counter
+	 * @return true, if decremented
+	 */
+	private static boolean decrement(final AtomicInteger counter)
+	{
+		while (true)
+		{
+			final int current = counter.get();
+			if (current <= 0)
+			{
+				return false;
+			}
+			if (counter.compareAndSet(current, current - 1))
+			{
+				return true;
+			}
+		}
+	}
+	
+	/**
+	 * Sets the dispatcher.
+	 * 
+	 * @param dispatcher
+	 *            the dispatcher
+	 */
+	void setDispatcher(final SafeThread dispatcher)
+	{
+		this.dispatcher = dispatcher;
+	}
+	
+	/**
+	 * Asks for the dispatcher to be woken up once the execution in progress
+	 * is done, as it has overrun and the dispatcher has no interval to look
+	 * at it again.
+	 */
+	void wakeUpDispatcherWhenDone()
+	{
+		wakeUpWhenDone = true;
+	}
+	
+	/**
+	 * Wakes up the dispatcher, if any, to look at the triggers or the
+	 * cancellation.
+	 */
+	private void wakeUpDispatcher()
+	{
+		final SafeThread dispatcher = this.dispatcher;
+		if (dispatcher != null)
+		{
+			dispatcher.onTrigger(this);
+		}
 	}
 	
 	/**
@@ -0,0 +1,1193 @@
+/*
+ * utils4j - ExpiringMap.java, Oct 18, 2026 10:41:05 PM
+ * 
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.varra.util;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+import com.varra.classification.InterfaceAudience;
+import com.varra.classification.InterfaceStability;
+import com.varra.exception.ComputingException;
+import com.varra.listener.BatchMessageListener;
+import com.varra.log.Logger;
+
+/**
+ * A {@link ConcurrentMap} whose entries expire after a time to live since
+ * they are written, or an idle timeout since they are last read or written,
+ * or whichever comes first, given per entry or by default.<br>
+ * The expiry of all the entries is driven by one {@link TimingWheel} and one
+ * periodic {@link EnhancedTimerTask} on the {@link GlobalThread}, instead of
+ * a task per entry, so scheduling and cancelling an expiry is O(1) however
+ * many entries there are.
+ * 
+ * <br>
+ * The reads never block and do not touch the wheel: an entry read after its
+ * expiry is removed on the spot and not returned, an entry read before its
+ * idle timeout is only rescheduled when its timer fires. The writes schedule
+ * the expiry under a lock.
+ * 
+ * <br>
+ * The entries removed, expired or replaced are notified to the
+ * {@link BatchMessageListener}s in batches, by the thread writing the map
+ * once it is out of the lock, or by the cleanup task or {@link #cleanUp()}.
+ * They are not kept at all while there are no listeners. Like the other
+ * tasks, the cleanup task runs once the {@link GlobalThread} is started.
+ * 
+ * <br>
+ * Note: <b> Neither the key nor the value can be <tt>null</tt>, and the
+ * {@link #size()} counts the entries expired but not cleaned up yet.</b>
+ * 
+ * @param <K>
+ *            the key type
+ * @param <V>
+ *            the value type
+ * @author Rajakrishna V. Reddy
+ * @version 1.0
+ */
+@InterfaceAudience.Public
+@InterfaceStability.Evolving
+public class ExpiringMap<K, V> extends AbstractMap<K, V> implements ConcurrentMap<K, V>, Shutdownable
+{
+	
+	/** The Constant DEFAULT_CLEANUP_INTERVAL, in ms. */
+	public static final long DEFAULT_CLEANUP_INTERVAL = 100;
+	
+	/** The max time to live or idle timeout, in nanos, about 73 years. */
+	private static final long MAX_DURATION = Long.MAX_VALUE >> 2;
+	
+	/** The logger to log the debugging messages as application runs. */
+	private static final Logger logger = Logger.getLogger(ExpiringMap.class);
+	
+	/** The name. */
+	private final String name;
+	
+	/** The entries. */
+	private final ConcurrentMap<K, Node<K, V>> data = new ConcurrentHashMap<K, Node<K, V>>();
+	
+	/** Guards the writes and the wheel. */
+	private final ReentrantLock lock = new ReentrantLock();
+	
+	/** The wheel the entries expiring are scheduled on. */
+	private final TimingWheel<Node<K, V>> wheel = new TimingWheel<Node<K, V>>(System.nanoTime());
+	
+	/** The timers expired on advancing the wheel, guarded by the lock. */
+	private final List<Node<K, V>> expired = new ArrayList<Node<K, V>>();
+	
+	/** The removals to be notified. */
+	private final ConcurrentLinkedQueue<Removal<K, V>> removals = new ConcurrentLinkedQueue<Removal<K, V>>();
+	
+	/** Makes sure the removals are notified in order, by one thread. */
+	private final ReentrantLock deliveryLock = new ReentrantLock();
+	
+	/** The removal listeners. */
+	private volatile BatchMessageListener<Removal<K, V>>[] listeners = newListenerArray(0);
+	
+	/** The default time to live, in nanos, 0 for none. */
+	private volatile long timeToLive;
+	
+	/** The default idle timeout, in nanos, 0 for none. */
+	private volatile long idleTimeout;
+	
+	/** The cleanup interval, in ms. */
+	private volatile long cleanupInterval = DEFAULT_CLEANUP_INTERVAL;
+	
+	/** The cleanup task, started with the first entry expiring or listener. */
+	private Cleaner cleaner;
+	
+	/** Whether the cleanup task is started, checked before taking the lock. */
+	private volatile boolean cleanerStarted;
+	
+	/** The entry set view, created lazily. */
+	private Set<Map.Entry<K, V>> entrySet;
+	
+	/**
+	 * Instantiates a new map whose entries do not expire by default.
+	 * 
+	 * @param name
+	 *            the name
+	 */
+	public ExpiringMap(final String name)
+	{
+		this(name, 0, 0, TimeUnit.MILLISECONDS);
+	}
+	
+	/**
+	 * Instantiates a new map with the default time to live and idle timeout
+	 * of its entries.
+	 * 
+	 * @param name
+	 *            the name
+	 * @param timeToLive
+	 *            the time to live since written, 0 for none
+	 * @param idleTimeout
+	 *            the idle timeout since last read or written, 0 for none
+	 * @param unit
+	 *            the unit
+	 */
+	public ExpiringMap(final String name, final long timeToLive, final long idleTimeout, final TimeUnit unit)
+	{
+		this.name = name;
+		this.timeToLive = toNanos(timeToLive, unit);
+		this.idleTimeout = toNanos(idleTimeout, unit);
+	}
+	
+	/**
+	 * Converts the duration to nanos, capped to {@link #MAX_DURATION}.
+	 * 
+	 * @param duration
+	 *            the duration
+	 * @param unit
+	 *            the unit
+	 * @return the nanos
+	 */
+	private static long toNanos(final long duration, final TimeUnit unit)
+	{
+		if (duration < 0)
+		{
+			throw new IllegalArgumentException("Duration can't be negative, duration: " + duration);
+		}
+		return Math.min(unit.toNanos(duration), MAX_DURATION);
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see java.util.AbstractMap#get(java.lang.Object)
+	 */
+	@Override
+	public V get(final Object key)
+	{
+		final Node<K, V> node = data.get(key);
+		if (node == null)
+		{
+			return null;
+		}
+		final long now = System.nanoTime();
+		if (node.isExpired(now))
+		{
+			expire(node);
+			return null;
+		}
+		if (node.idleTimeout > 0)
+		{
+			node.accessTime = now;
+		}
+		return node.value;
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see java.util.AbstractMap#containsKey(java.lang.Object)
+	 */
+	@Override
+	public boolean containsKey(final Object key)
+	{
+		final Node<K, V> node = data.get(key);
+		return node != null && !node.isExpired(System.nanoTime());
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see java.util.AbstractMap#size()
+	 */
+	@Override
+	public int size()
+	{
+		return data.size();
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see java.util.AbstractMap#isEmpty()
+	 */
+	@Override
+	public boolean isEmpty()
+	{
+		return data.isEmpty();
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see java.util.AbstractMap#put(java.lang.Object, java.lang.Object)
+	 */
+	@Override
+	public V put(final K key, final V value)
+	{
+		return put(key, value, timeToLive, idleTimeout, false);
+	}
+	
+	/**
+	 * Puts the value of the given key, expiring after the given time to live
+	 * or idle timeout instead of the default ones.
+	 * 
+	 * @param key
+	 *            the key
+	 * @param value
+	 *            the value
+	 * @param timeToLive
+	 *            the time to live since written, 0 for none
+	 * @param idleTimeout
+	 *            the idle timeout since last read or written, 0 for none
+	 * @param unit
+	 *            the unit
+	 * @return the previous value, null if not there
+	 */
+	public V put(final K key, final V value, final long timeToLive, final long idleTimeout, final TimeUnit unit)
+	{
+		return put(key, value, toNanos(timeToLive, unit), toNanos(idleTimeout, unit), false);
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see java.util.concurrent.ConcurrentMap#putIfAbsent(java.lang.Object,
+	 * java.lang.Object)
+	 */
+	public V putIfAbsent(final K key, final V value)
+	{
+		return put(key, value, timeToLive, idleTimeout, true);
+	}
+	
+	/**
+	 * Puts the value of the given key if not there, expiring after the given
+	 * time to live or idle timeout instead of the default ones.
+	 * 
+	 * @param key
+	 *            the key
+	 * @param value
+	 *            the value
+	 * @param timeToLive
+	 *            the time to live since written, 0 for none
+	 * @param idleTimeout
+	 *            the idle timeout since last read or written, 0 for none
+	 * @param unit
+	 *            the unit
+	 * @return the value there, null if put
+	 */
+	public V putIfAbsent(final K key, final V value, final long timeToLive, final long idleTimeout, final TimeUnit unit)
+	{
+		return put(key, value, toNanos(timeToLive, unit), toNanos(idleTimeout, unit), true);
+	}
+	
+	/**
+	 * Puts the value of the given key, under the lock.
+	 * 
+	 * @param key
+	 *            the key
+	 * @param value
+	 *            the value
+	 * @param timeToLive
+	 *            the time to live, in nanos
+	 * @param idleTimeout
+	 *            the idle timeout, in nanos
+	 * @param onlyIfAbsent
+	 *            whether to keep the value there
+	 * @return the previous value, null if not there
+	 */
+	private V put(final K key, final V value, final long timeToLive, final long idleTimeout, final boolean onlyIfAbsent)
+	{
+		if (key == null || value == null)
+		{
+			throw new NullPointerException("Neither the key nor the value can be null, key: " + key);
+		}
+		final long now = System.nanoTime();
+		lock.lock();
+		try
+		{
+			expireEntries(now);
+			final Node<K, V> existing = current(key, now);
+			if (existing != null && onlyIfAbsent)
+			{
+				return existing.value;
+			}
+			final Node<K, V> node = new Node<K, V>(key, value, timeToLive, idleTimeout, now);
+			data.put(key, node);
+			if (node.expires())
+			{
+				wheel.schedule(node, node.getExpirationTime());
+			}
+			if (existing == null)
+			{
+				return null;
+			}
+			wheel.cancel(existing);
+			addRemoval(key, existing.value, RemovalCause.REPLACED);
+			return existing.value;
+		}
+		finally
+		{
+			lock.unlock();
+			if (timeToLive > 0 || idleTimeout > 0)
+			{
+				ensureCleaner();
+			}
+			afterWrite();
+		}
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see java.util.AbstractMap#remove(java.lang.Object)
+	 */
+	@Override
+	public V remove(final Object key)
+	{
+		final long now = System.nanoTime();
+		lock.lock();
+		try
+		{
+			final Node<K, V> node = current(key, now);
+			if (node == null)
+			{
+				return null;
+			}
+			removeNode(node, RemovalCause.EXPLICIT);
+			return node.value;
+		}
+		finally
+		{
+			lock.unlock();
+			afterWrite();
+		}
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see java.util.concurrent.ConcurrentMap#remove(java.lang.Object,
+	 * java.lang.Object)
+	 */
+	public boolean remove(final Object key, final Object value)
+	{
+		final long now = System.nanoTime();
+		lock.lock();
+		try
+		{
+			final Node<K, V> node = current(key, now);
+			if (node == null || value == null || !node.value.equals(value))
+			{
+				return false;
+			}
+			removeNode(node, RemovalCause.EXPLICIT);
+			return true;
+		}
+		finally
+		{
+			lock.unlock();
+			afterWrite();
+		}
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see java.util.concurrent.ConcurrentMap#replace(java.lang.Object,
+	 * java.lang.Object, java.lang.Object)
+	 */
+	public boolean replace(final K key, final V oldValue, final V newValue)
+	{
+		if (oldValue == null)
+		{
+			throw new NullPointerException();
+		}
+		final long now = System.nanoTime();
+		lock.lock();
+		try
+		{
+			final Node<K, V> node = current(key, now);
+			if (node == null || !node.value.equals(oldValue))
+			{
+				return false;
+			}
+			put(key, newValue, node.timeToLive, node.idleTimeout, false);
+			return true;
+		}
+		finally
+		{
+			lock.unlock();
+			afterWrite();
+		}
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see java.util.concurrent.ConcurrentMap#replace(java.lang.Object,
+	 * java.lang.Object)
+	 */
+	public V replace(final K key, final V value)
+	{
+		final long now = System.nanoTime();
+		lock.lock();
+		try
+		{
+			final Node<K, V> node = current(key, now);
+			return node == null ? null : put(key, value, node.timeToLive, node.idleTimeout, false);
+		}
+		finally
+		{
+			lock.unlock();
+			afterWrite();
+		}
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see java.util.AbstractMap#clear()
+	 */
+	@Override
+	public void clear()
+	{
+		lock.lock();
+		try
+		{
+			for (final Node<K, V> node : data.values())
+			{
+				removeNode(node, RemovalCause.EXPLICIT);
+			}
+		}
+		finally
+		{
+			lock.unlock();
+			afterWrite();
+		}
+	}
+	
+	/**
+	 * Gets the entry of the key, expiring it if due, under the lock.
+	 * 
+	 * @param key
+	 *            the key
+	 * @param now
+	 *            the now
+	 * @return the node, null if not there or expired
+	 */
+	private Node<K, V> current(final Object key, final long now)
+	{
+		final Node<K, V> node = data.get(key);
+		if (node != null && node.isExpired(now))
+		{
+			wheel.cancel(node);
+			expire(node);
+			return null;
+		}
+		return node;
+	}
+	
+	/**
+	 * Removes the entry, under the lock.
+	 * 
+	 * @param node
+	 *            the node
+	 * @param cause
+	 *            the cause
+	 */
+	private void removeNode(final Node<K, V> node, final RemovalCause cause)
+	{
+		wheel.cancel(node);
+		if (data.remove(node.key, node))
+		{
+			addRemoval(node.key, node.value, cause);
+		}
+	}
+	
+	/**
+	 * Queues the removal to be notified, only if there are listeners, so the
+	 * removals do not pile up when nobody is to be notified.
+	 * 
+	 * @param key
+	 *            the key
+	 * @param value
+	 *            the value
+	 * @param cause
+	 *            the cause
+	 */
+	private void addRemoval(final K key, final V value, final RemovalCause cause)
+	{
+		if (listeners.length > 0)
+		{
+			removals.offer(new Removal<K, V>(key, value, cause));
+		}
+	}
+	
+	/**
+	 * Notifies the removals of a write once out of the lock, unless it is
+	 * nested in another write that does so.
+	 */
+	private void afterWrite()
+	{
+		if (!lock.isHeldByCurrentThread())
+		{
+			deliverRemovals();
+		}
+	}
+	
+	/**
+	 * Removes the entry expired, if not removed already. It does not need the
+	 * lock, the timer of the entry is dropped when it fires.
+	 * 
+	 * @param node
+	 *            the node
+	 */
+	private void expire(final Node<K, V> node)
+	{
+		if (data.remove(node.key, node))
+		{
+			addRemoval(node.key, node.value, RemovalCause.EXPIRED);
+		}
+	}
+	
+	/**
+	 * Advances the wheel, expiring the entries due and rescheduling the ones
+	 * read since they were scheduled, under the lock.
+	 * 
+	 * @param now
+	 *            the now
+	 */
+	private void expireEntries(final long now)
+	{
+		if (wheel.advance(now, expired) == 0)
+		{
+			return;
+		}
+		for (int index = 0; index < expired.size(); index++)
+		{
+			final Node<K, V> node = expired.get(index);
+			if (data.get(node.key) != node)
+			{
+				/** Removed on a read meanwhile. */
+				continue;
+			}
+			final long expirationTime = node.getExpirationTime();
+			if (expirationTime - now > 0)
+			{
+				wheel.schedule(node, expirationTime);
+			}
+			else
+			{
+				expire(node);
+			}
+		}
+		expired.clear();
+	}
+	
+	/**
+	 * Expires the entries due and notifies the removals to the listeners. It
+	 * is done by the cleanup task periodically, but can be called any time.
+	 */
+	public void cleanUp()
+	{
+		lock.lock();
+		try
+		{
+			expireEntries(System.nanoTime());
+		}
+		finally
+		{
+			lock.unlock();
+		}
+		deliverRemovals();
+	}
+	
+	/**
+	 * Notifies the removals to the listeners in a batch, if no other thread
+	 * is doing so. The ones removed meanwhile are left for the next one.
+	 */
+	private void deliverRemovals()
+	{
+		if (removals.isEmpty() || !deliveryLock.tryLock())
+		{
+			return;
+		}
+		try
+		{
+			final BatchMessageListener<Removal<K, V>>[] listeners = this.listeners;
+			int size = removals.size();
+			final List<Removal<K, V>> batch = new ArrayList<Removal<K, V>>(size);
+			Removal<K, V> removal;
+			while (size-- > 0 && (removal = removals.poll()) != null)
+			{
+				batch.add(removal);
+			}
+			for (int index = 0; index < listeners.length; index++)
+			{
+				try
+				{
+					for (int position = 0; position < batch.size(); position++)
+					{
+						listeners[index].onMessage(batch.get(position));
+					}
+					listeners[index].onEndOfBatch(batch.size());
+				}
+				catch (RuntimeException e)
+				{
+					logger.error("Error while notifying the removals of: {} to: {}", name, listeners[index], e);
+				}
+			}
+		}
+		finally
+		{
+			deliveryLock.unlock();
+		}
+	}
+	
+	/**
+	 * Starts the cleanup task on the {@link GlobalThread}, if not done so far.
+	 * Only the first put with an expiry takes the lock, the others see it
+	 * started already.
+	 */
+	private void ensureCleaner()
+	{
+		if (cleanerStarted)
+		{
+			return;
+		}
+		synchronized (this)
+		{
+			if (cleaner == null)
+			{
+				cleaner = new Cleaner();
+				GlobalThread.getGlobalThread().onTimerTask(cleaner);
+			}
+			cleanerStarted = true;
+		}
+	}
+	
+	/**
+	 * Adds the listener to be notified with the entries removed.
+	 * 
+	 * @param listener
+	 *            the listener
+	 */
+	public void addRemovalListener(final BatchMessageListener<Removal<K, V>> listener)
+	{
+		if (listener != null)
+		{
+			synchronized (this)
+			{
+				final BatchMessageListener<Removal<K, V>>[] listeners = this.listeners;
+				final BatchMessageListener<Removal<K, V>>[] newListeners = newListenerArray(listeners.length + 1);
+				System.arraycopy(listeners, 0, newListeners, 0, listeners.length);
+				newListeners[listeners.length] = listener;
+				this.listeners = newListeners;
+			}
+			ensureCleaner();
+		}
+	}
+	
+	/**
+	 * Removes the listener.
+	 * 
+	 * @param listener
+	 *            the listener
+	 */
+	public synchronized void removeRemovalListener(final BatchMessageListener<Removal<K, V>> listener)
+	{
+		final BatchMessageListener<Removal<K, V>>[] listeners = this.listeners;
+		for (int index = 0; index < listeners.length; index++)
+		{
+			if (listeners[index].equals(listener))
+			{
+				final BatchMessageListener<Removal<K, V>>[] newListeners = newListenerArray(listeners.length - 1);
+				System.arraycopy(listeners, 0, newListeners, 0, index);
+				System.arraycopy(listeners, index + 1, newListeners, index, listeners.length - index - 1);
+				this.listeners = newListeners;
+				return;
+			}
+		}
+	}
+	
+	/**
+	 * Creates an array of the listeners, generic arrays can't be created
+	 * directly.
+	 * 
+	 * @param length
+	 *            the length
+	 * @return the array
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private static <K, V> BatchMessageListener<Removal<K, V>>[] newListenerArray(final int length)
+	{
+		return new BatchMessageListener[length];
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see com.varra.util.Shutdownable#shutdown(com.varra.util.ShutdownMode)
+	 */
+	public void shutdown(final ShutdownMode mode)
+	{
+		synchronized (this)
+		{
+			if (cleaner != null)
+			{
+				cleaner.cancel();
+				cleaner = null;
+			}
+			cleanerStarted = false;
+		}
+		if (mode != ShutdownMode.FORCED_SHUTDOWN)
+		{
+			cleanUp();
+		}
+	}
+	
+	/**
+	 * Gets the name.
+	 * 
+	 * @return the name
+	 */
+	public String getName()
+	{
+		return name;
+	}
+	
+	/**
+	 * Sets the default time to live of the entries put from now on.
+	 * 
+	 * @param timeToLive
+	 *            the time to live since written, 0 for none
+	 * @param unit
+	 *            the unit
+	 */
+	public void setTimeToLive(final long timeToLive, final TimeUnit unit)
+	{
+		this.timeToLive = toNanos(timeToLive, unit);
+	}
+	
+	/**
+	 * Gets the default time to live.
+	 * 
+	 * @param unit
+	 *            the unit
+	 * @return the time to live, 0 for none
+	 */
+	public long getTimeToLive(final TimeUnit unit)
+	{
+		return unit.convert(timeToLive, TimeUnit.NANOSECONDS);
+	}
+	
+	/**
+	 * Sets the default idle timeout of the entries put from now on.
+	 * 
+	 * @param idleTimeout
+	 *            the idle timeout since last read or written, 0 for none
+	 * @param unit
+	 *            the unit
+	 */
+	public void setIdleTimeout(final long idleTimeout, final TimeUnit unit)
+	{
+		this.idleTimeout = toNanos(idleTimeout, unit);
+	}
+	
+	/**
+	 * Gets the default idle timeout.
+	 * 
+	 * @param unit
+	 *            the unit
+	 * @return the idle timeout, 0 for none
+	 */
+	public long getIdleTimeout(final TimeUnit unit)
+	{
+		return unit.convert(idleTimeout, TimeUnit.NANOSECONDS);
+	}
+	
+	/**
+	 * Sets the interval of the cleanup task, which expires the entries due
+	 * and notifies the removals. The entries read are expired on the spot
+	 * anyway. It runs no more often than the {@link GlobalThread} dispatches
+	 * the tasks, see {@link SchedulerMode}.
+	 * 
+	 * @param cleanupInterval
+	 *            the cleanup interval in ms
+	 */
+	public synchronized void setCleanupInterval(final long cleanupInterval)
+	{
+		if (cleanupInterval <= 0)
+		{
+			throw new IllegalArgumentException("Cleanup interval should be greater than zero, cleanupInterval: " + cleanupInterval);
+		}
+		this.cleanupInterval = cleanupInterval;
+		if (cleaner != null)
+		{
+			cleaner.setPeriod(cleanupInterval);
+		}
+	}
+	
+	/**
+	 * Gets the cleanup interval.
+	 * 
+	 * @return the cleanup interval in ms
+	 */
+	public long getCleanupInterval()
+	{
+		return cleanupInterval;
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see java.util.AbstractMap#entrySet()
+	 */
+	@Override
+	public Set<Map.Entry<K, V>> entrySet()
+	{
+		if (entrySet == null)
+		{
+			entrySet = new EntrySet();
+		}
+		return entrySet;
+	}
+	
+	/**
+	 * The entry set view, skips the entries expired.
+	 */
+	private final class EntrySet extends AbstractSet<Map.Entry<K, V>>
+	{
+		
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see java.util.AbstractCollection#size()
+		 */
+		@Override
+		public int size()
+		{
+			return ExpiringMap.this.size();
+		}
+		
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see java.util.AbstractCollection#clear()
+		 */
+		@Override
+		public void clear()
+		{
+			ExpiringMap.this.clear();
+		}
+		
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see java.util.AbstractCollection#iterator()
+		 */
+		@Override
+		public Iterator<Map.Entry<K, V>> iterator()
+		{
+			final Iterator<Node<K, V>> nodes = data.values().iterator();
+			return new Iterator<Map.Entry<K, V>>()
+			{
+				
+				/** The next entry. */
+				private Map.Entry<K, V> next = advance();
+				
+				/** The current entry. */
+				private Map.Entry<K, V> current;
+				
+				private Map.Entry<K, V> advance()
+				{
+					final long now = System.nanoTime();
+					while (nodes.hasNext())
+					{
+						final Node<K, V> node = nodes.next();
+						if (!node.isExpired(now))
+						{
+							return new SimpleImmutableEntry<K, V>(node.key, node.value);
+						}
+					}
+					return null;
+				}
+				
+				public boolean hasNext()
+				{
+					return next != null;
+				}
+				
+				public Map.Entry<K, V> next()
+				{
+					if (next == null)
+					{
+						throw new NoSuchElementException();
+					}
+					current = next;
+					next = advance();
+					return current;
+				}
+				
+				public void remove()
+				{
+					if (current == null)
+					{
+						throw new IllegalStateException();
+					}
+					ExpiringMap.this.remove(current.getKey(), current.getValue());
+					current = null;
+				}
+			};
+		}
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see java.util.AbstractMap#toString()
+	 */
+	@Override
+	public String toString()
+	{
+		return "ExpiringMap [name=" + name + ", size=" + data.size() + "]";
+	}
+	
+	/**
+	 * The cause of a removal.
+	 */
+	public enum RemovalCause
+	{
+		
+		/** Expired by its time to live or idle timeout. */
+		EXPIRED,
+		
+		/** Removed or cleared. */
+		EXPLICIT,
+		
+		/** Its value is replaced. */
+		REPLACED
+	}
+	
+	/**
+	 * An entry removed, notified to the removal listeners.
+	 * 
+	 * @param <K>
+	 *            the key type
+	 * @param <V>
+	 *            the value type
+	 */
+	public static final class Removal<K, V>
+	{
+		
+		/** The key. */
+		private final K key;
+		
+		/** The value. */
+		private final V value;
+		
+		/** The cause. */
+		private final RemovalCause cause;
+		
+		/**
+		 * Instantiates a new removal.
+		 * 
+		 * @param key
+		 *            the key
+		 * @param value
+		 *            the value
+		 * @param cause
+		 *            the cause
+		 */
+		private Removal(final K key, final V value, final RemovalCause cause)
+		{
+			this.key = key;
+			this.value = value;
+			this.cause = cause;
+		}
+		
+		/**
+		 * Gets the key.
+		 * 
+		 * @return the key
+		 */
+		public K getKey()
+		{
+			return key;
+		}
+		
+		/**
+		 * Gets the value.
+		 * 
+		 * @return the value
+		 */
+		public V getValue()
+		{
+			return value;
+		}
+		
+		/**
+		 * Gets the cause.
+		 * 
+		 * @return the cause
+		 */
+		public RemovalCause getCause()
+		{
+			return cause;
+		}
+		
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see java.lang.Object#toString()
+		 */
+		@Override
+		public String toString()
+		{
+			return "Removal [key=" + key + ", value=" + value + ", cause=" + cause + "]";
+		}
+	}
+	
+	/**
+	 * An entry along with its expiry, scheduled on the wheel if it expires.
+	 * 
+	 * @param <K>
+	 *            the key type
+	 * @param <V>
+	 *            the value type
+	 */
+	static final class Node<K, V> extends TimingWheel.Timer
+	{
+		
+		/** The key. */
+		final K key;
+		
+		/** The value. */
+		final V value;
+		
+		/** The time to live, in nanos, 0 for none. */
+		final long timeToLive;
+		
+		/** The idle timeout, in nanos, 0 for none. */
+		final long idleTimeout;
+		
+		/** The write time, in nanos. */
+		final long writeTime;
+		
+		/** The last access time, in nanos. */
+		volatile long accessTime;
+		
+		/**
+		 * Instantiates a new node.
+		 * 
+		 * @param key
+		 *            the key
+		 * @param value
+		 *            the value
+		 * @param timeToLive
+		 *            the time to live
+		 * @param idleTimeout
+		 *            the idle timeout
+		 * @param now
+		 *            the now
+		 */
+		Node(final K key, final V value, final long timeToLive, final long idleTimeout, final long now)
+		{
+			this.key = key;
+			this.value = value;
+			this.timeToLive = timeToLive;
+			this.idleTimeout = idleTimeout;
+			this.writeTime = now;
+			this.accessTime = now;
+		}
+		
+		/**
+		 * Checks if it expires at all.
+		 * 
+		 * @return true, if it expires
+		 */
+		boolean expires()
+		{
+			return timeToLive > 0 || idleTimeout > 0;
+		}
+		
+		/**
+		 * Gets the expiration time, valid only if it {@link #expires()}.
+		 * 
+		 * @return the expiration time, in nanos
+		 */
+		long getExpirationTime()
+		{
+			if (timeToLive <= 0)
+			{
+				return accessTime + idleTimeout;
+			}
+			final long expirationTime = writeTime + timeToLive;
+			if (idleTimeout > 0 && accessTime + idleTimeout - expirationTime < 0)
+			{
+				return accessTime + idleTimeout;
+			}
+			return expirationTime;
+		}
+		
+		/**
+		 * Checks if it is expired.
+		 * 
+		 * @param now
+		 *            the now
+		 * @return true, if expired
+		 */
+		boolean isExpired(final long now)
+		{
+			return expires() && getExpirationTime() - now <= 0;
+		}
+	}
+	
+	/**
+	 * The task expiring the entries due and notifying the removals.
+	 */
+	private final class Cleaner extends EnhancedTimerTask
+	{
+		
+		/**
+		 * Instantiates a new cleaner.
+		 */
+		private Cleaner()
+		{
+			super(ExpiringMap.class.getSimpleName() + "-" + name);
+			setDaemon(true);
+			setPeriod(cleanupInterval);
+		}
+		
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see com.varra.util.EnhancedTimerTask#compute()
+		 */
+		@Override
+		public void compute() throws ComputingException
+		{
+			cleanUp();
+		}
+	}
+}
@@ -51,7 +51,16 @@ import java.util.concurrent.locks.ReentrantLock;
  * 			
  *            <br>
  *            <br>
- *            by default it is Not fixed.
+ *            by default it is Not fixed. Use {@link RingBufferQueue} for a
+ *            lock-free fixed queue shared by many producers and consumers.
+ * 
+ *            <br>
+ *            <br>
+ *            The consumers can block on {@link #take()} or
+ *            {@link #poll(long, TimeUnit)}, and move the elements in batches
+ *            with {@link #drainTo(Collection, int)}. Every insert wakes up
+ *            exactly one waiting consumer, so there is no need to call
+ *            {@link #signalAll()} after it.
  */
 public class FIFOQueue<E> implements Collection<E>, List<E>, Serializable
 {
@@ -64,9 +73,18 @@ public class FIFOQueue<E> implements Collection<E>, List<E>, Serializable
 	 */
 	private final Lock lock = new ReentrantLock();
 	
-	/** The condition. */
+	/**
+	 * The condition the consumers wait on, signalled once per element
+	 * inserted.
+	 */
 	private final Condition condition = lock.newCondition();
 	
+	/**
+	 * The condition the producers wait on for the space in a fixed queue,
+	 * signalled once per element removed.
+	 */
+	private final Condition notFull = lock.newCondition();
+	
 	/** Actual back-end storage for the elements. */
 	private final LinkedList<E> list;
 	
@@ -130,7 +148,12 @@ public class FIFOQueue<E> implements Collection<E>, List<E>, Serializable
 		lock.lock();
 		try
 		{
-			return list.remove(value);
+			final boolean removed = list.remove(value);
+			if (removed)
+			{
+				signalNotFull(1);
+			}
+			return removed;
 		}
 		finally
 		{
@@ -192,7 +215,10 @@ public class FIFOQueue<E> implements Collection<E>, List<E>, Serializable
 		lock.lock();
 		try
 		{
-			return list.removeAll(c);
+			final int sizeBefore = list.size();
+			final boolean modified = list.removeAll(c);
+			signalNotFull(sizeBefore - list.size());
+			return modified;
 		}
 		finally
 		{
@@ -210,7 +236,10 @@ public class FIFOQueue<E> implements Collection<E>, List<E>, Serializable
 		lock.lock();
 		try
 		{
-			return list.retainAll(c);
+			final int sizeBefore = list.size();
+			final boolean modified = list.retainAll(c);
+			signalNotFull(sizeBefore - list.size());
+			return modified;
 		}
 		finally
 		{
@@ -356,19 +385,19 @@ public class FIFOQueue<E> implements Collection<E>, List<E>, Serializable
 	 */
 	public void add(int index, E element)
 	{
-		final int size = list.size();
 		lock.lock();
 		try
 		{
 			if (isFixed())
 			{
-				if (capacity != -1 && size == capacity)
+				if (capacity != -1 && list.size() >= capacity)
 				{
 					final E e = list.removeLast();
 					notifyListeners(e);
 				}
 			}
 			list.add(index, element);
+			condition.signal();
 		}
 		finally
 		{
@@ -401,7 +430,9 @@ public class FIFOQueue<E> implements Collection<E>, List<E>, Serializable
 		lock.lock();
 		try
 		{
-			return list.remove(index);
+			final E value = list.remove(index);
+			signalNotFull(1);
+			return value;
 		}
 		finally
 		{
@@ -573,6 +604,7 @@ public class FIFOQueue<E> implements Collection<E>, List<E>, Serializable
 		lock.lock();
 		try
 		{
+			signalNotFull(list.size());
 			list.clear();
 		}
 		finally
@@ -643,19 +675,19 @@ public class FIFOQueue<E> implements Collection<E>, List<E>, Serializable
 	 */
 	public final void addFirst(E value)
 	{
-		final int size = list.size();
 		lock.lock();
 		try
 		{
 			if (isFixed())
 			{
-				if (capacity != -1 && size == capacity)
+				if (capacity != -1 && list.size() >= capacity)
 				{
 					final E e = list.removeLast();
 					notifyListeners(e);
 				}
 			}
 			list.addFirst(value);
+			condition.signal();
 		}
 		finally
 		{
@@ -672,19 +704,19 @@ public class FIFOQueue<E> implements Collection<E>, List<E>, Serializable
 	 */
 	public boolean addLast(E value)
 	{
-		final int size = list.size();
 		lock.lock();
 		try
 		{
 			if (isFixed())
 			{
-				if (capacity != -1 && size == capacity)
+				if (capacity != -1 && list.size() >= capacity)
 				{
 					final E e = list.removeLast();
 					notifyListeners(e);
 				}
 			}
 			list.addLast(value);
+			condition.signal();
 			return true;
 		}
 		finally
@@ -726,7 +758,9 @@ public class FIFOQueue<E> implements Collection<E>, List<E>, Serializable
 		lock.lock();
 		try
 		{
-			return list.removeFirst();
+			final E value = list.removeFirst();
+			signalNotFull(1);
+			return value;
 		}
 		finally
 		{
@@ -744,7 +778,202 @@ public class FIFOQueue<E> implements Collection<E>, List<E>, Serializable
 		lock.lock();
 		try
 		{
-			return list.removeLast();
+			final E value = list.removeLast();
+			signalNotFull(1);
+			return value;
+		}
+		finally
+		{
+			lock.unlock();
+		}
+	}
+	
+	/**
+	 * Retrieves and removes the oldest element, waiting if necessary until
+	 * one is available. Unlike {@link #await()} followed by {@link #pop()},
+	 * it takes the lock once and wakes up only when there is an element.
+	 * 
+	 * @return the oldest element
+	 * @throws InterruptedException
+	 *             if interrupted while waiting
+	 */
+	public E take() throws InterruptedException
+	{
+		lock.lockInterruptibly();
+		try
+		{
+			while (list.isEmpty())
+			{
+				condition.await();
+			}
+			return dequeue();
+		}
+		finally
+		{
+			lock.unlock();
+		}
+	}
+	
+	/**
+	 * Retrieves and removes the oldest element, if any.
+	 * 
+	 * @return the oldest element, null if it is empty
+	 */
+	public E poll()
+	{
+		lock.lock();
+		try
+		{
+			return list.isEmpty() ? null : dequeue();
+		}
+		finally
+		{
+			lock.unlock();
+		}
+	}
+	
+	/**
+	 * Retrieves and removes the oldest element, waiting up to the specified
+	 * time if necessary for one to become available.
+	 * 
+	 * @param timeout
+	 *            the timeout
+	 * @param unit
+	 *            the unit
+	 * @return the oldest element, null if the timeout elapsed before one is
+	 *         available
+	 * @throws InterruptedException
+	 *             if interrupted while waiting
+	 */
+	public E poll(final long timeout, final TimeUnit unit) throws InterruptedException
+	{
+		long nanos = unit.toNanos(timeout);
+		lock.lockInterruptibly();
+		try
+		{
+			while (list.isEmpty())
+			{
+				if (nanos <= 0)
+				{
+					return null;
+				}
+				nanos = condition.awaitNanos(nanos);
+			}
+			return dequeue();
+		}
+		finally
+		{
+			lock.unlock();
+		}
+	}
+	
+	/**
+	 * Inserts the element like {@link #push(Object)}, unless it is fixed and
+	 * full, in which case it does not evict the oldest element but returns
+	 * false.
+	 * 
+	 * @param value
+	 *            the value to be inserted
+	 * @return true, if inserted
+	 */
+	public boolean offer(final E value)
+	{
+		lock.lock();
+		try
+		{
+			if (isFull())
+			{
+				return false;
+			}
+			enqueue(value);
+			return true;
+		}
+		finally
+		{
+			lock.unlock();
+		}
+	}
+	
+	/**
+	 * Inserts the element like {@link #push(Object)}, waiting up to the
+	 * specified time if necessary for the space to become available when it is
+	 * fixed and full, rather than evicting the oldest element.
+	 * 
+	 * @param value
+	 *            the value to be inserted
+	 * @param timeout
+	 *            the timeout
+	 * @param unit
+	 *            the unit
+	 * @return true, if inserted, false if the timeout elapsed before the space
+	 *         is available
+	 * @throws InterruptedException
+	 *             if interrupted while waiting
+	 */
+	public boolean offer(final E value, final long timeout, final TimeUnit unit) throws InterruptedException
+	{
+		long nanos = unit.toNanos(timeout);
+		lock.lockInterruptibly();
+		try
+		{
+			while (isFull())
+			{
+				if (nanos <= 0)
+				{
+					return false;
+				}
+				nanos = notFull.awaitNanos(nanos);
+			}
+			enqueue(value);
+			return true;
+		}
+		finally
+		{
+			lock.unlock();
+		}
+	}
+	
+	/**
+	 * Removes all the elements and adds them to the given collection, the
+	 * oldest first.
+	 * 
+	 * @param collection
+	 *            the collection to add the elements to
+	 * @return the no of elements moved
+	 * @see #drainTo(Collection, int)
+	 */
+	public int drainTo(final Collection<? super E> collection)
+	{
+		return drainTo(collection, Integer.MAX_VALUE);
+	}
+	
+	/**
+	 * Removes at most the given no of elements and adds them to the given
+	 * collection, the oldest first. The whole batch is moved under a single
+	 * lock acquisition, rather than a {@link #pop()} per element.
+	 * 
+	 * @param collection
+	 *            the collection to add the elements to
+	 * @param maxElements
+	 *            the max no of elements to move, none if not positive
+	 * @return the no of elements moved
+	 */
+	public int drainTo(final Collection<? super E> collection, final int maxElements)
+	{
+		if (collection == this)
+		{
+			throw new IllegalArgumentException("Can't drain a queue to itself.");
+		}
+		lock.lock();
+		try
+		{
+			final int count = Math.max(0, Math.min(maxElements, list.size()));
+			for (int index = 0; index < count; index++)
+			{
+				collection.add(list.removeLast());
+			}
+			signalNotFull(count);
+			return count;
 		}
 		finally
 		{
@@ -752,6 +981,66 @@ public class FIFOQueue<E> implements Collection<E>, List<E>, Serializable
 		}
 	}
 	
+	/**
+	 * Inserts the element as the newest one and wakes up one consumer, with
+	 * the lock held.
+	 * 
+	 * @param value
+	 *            the value
+	 */
+	private void enqueue(final E value)
+	{
+		list.addFirst(value);
+		condition.signal();
+	}
+	
+	/**
+	 * Removes the oldest element, with the lock held. Wakes up one producer
+	 * waiting for the space, and passes the signal on to the next consumer if
+	 * there are more elements, in case the signals of the inserts got
+	 * coalesced.
+	 * 
+	 * @return the oldest element
+	 */
+	private E dequeue()
+	{
+		final E value = list.removeLast();
+		signalNotFull(1);
+		if (!list.isEmpty())
+		{
+			condition.signal();
+		}
+		return value;
+	}
+	
+	/**
+	 * Checks if it is fixed and full, with the lock held.
+	 * 
+	 * @return true, if full
+	 */
+	private boolean isFull()
+	{
+		return isFixed() && capacity != -1 && list.size() >= capacity;
+	}
+	
+	/**
+	 * Wakes up as many producers waiting for the space as the elements
+	 * removed, with the lock held.
+	 * 
+	 * @param count
+	 *            the no of elements removed
+	 */
+	private void signalNotFull(final int count)
+	{
+		if (isFixed())
+		{
+			for (int index = 0; index < count; index++)
+			{
+				notFull.signal();
+			}
+		}
+	}
+
 	/**
 	 * Sets the fixed.
 	 * 
@@ -0,0 +1,177 @@
+/*
+ * utils4j - FrequencySketch.java, Oct 18, 2026 9:15:51 PM
+ * 
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.varra.util;
+
+/**
+ * A count-min sketch of 4 bit counters, estimates how often the keys of a
+ * {@link BoundedCache} have been used lately, taking a few bytes per entry
+ * whatever the keys are.<br>
+ * Each key has a counter in each of the 4 rows, picked by a different hash,
+ * its frequency is the least of them. All the counters are halved once the
+ * no of increments reaches ten times the capacity, so the old popularity
+ * fades away.
+ * 
+ * <br>
+ * Note: <b> It is not thread safe, {@link BoundedCache} uses it under its
+ * eviction lock.</b>
+ * 
+ * @author Rajakrishna V. Reddy
+ * @version 1.0
+ */
+final class FrequencySketch
+{
+	
+	/** The seeds of the rows. */
+	private static final long[] SEEDS = { 0xC3A5C85C97CB3127L, 0xB492B66FBE98F273L, 0x9AE16A3B2F90404FL, 0xCBF29CE484222325L };
+	
+	/** The mask to halve the 16 counters of a long at once. */
+	private static final long RESET_MASK = 0x7777777777777777L;
+	
+	/** The max capacity. */
+	private static final int MAX_CAPACITY = 1 << 26;
+	
+	/** The counters, 16 per long. */
+	private long[] table;
+	
+	/** The mask of the no of counters in a row. */
+	private int counterMask;
+	
+	/** The no of increments at which the counters are halved. */
+	private int sampleSize;
+	
+	/** The no of increments since the last halving. */
+	private int size;
+	
+	/**
+	 * Instantiates a new frequency sketch.
+	 * 
+	 * @param capacity
+	 *            the no of keys expected
+	 */
+	FrequencySketch(final int capacity)
+	{
+		ensureCapacity(Math.max(16, capacity));
+	}
+	
+	/**
+	 * Grows the sketch for the given no of keys, if not big enough, which
+	 * forgets the frequencies so far.
+	 * 
+	 * @param capacity
+	 *            the no of keys expected
+	 */
+	void ensureCapacity(final int capacity)
+	{
+		final int counters = Integer.highestOneBit(Math.min(MAX_CAPACITY, Math.max(capacity, 16)) - 1) << 1;
+		if (table != null && counters <= counterMask + 1)
+		{
+			return;
+		}
+		/** A row of counters per key expected, i.e. 4 rows in 16 counter longs. */
+		table = new long[Math.max(4, counters >>> 2)];
+		counterMask = counters - 1;
+		sampleSize = 10 * counters;
+		size = 0;
+	}
+	
+	/**
+	 * Gets the capacity.
+	 * 
+	 * @return the capacity
+	 */
+	int capacity()
+	{
+		return counterMask + 1;
+	}
+	
+	/**
+	 * Gets the estimated frequency of the key.
+	 * 
+	 * @param hashCode
+	 *            the hash code of the key
+	 * @return the frequency, up to 15
+	 */
+	int frequency(final int hashCode)
+	{
+		int frequency = 15;
+		for (int row = 0; row < 4; row++)
+		{
+			final int counter = indexOf(hashCode, row);
+			frequency = Math.min(frequency, (int) ((table[counter >>> 4] >>> ((counter & 15) << 2)) & 15L));
+		}
+		return frequency;
+	}
+	
+	/**
+	 * Increments the frequency of the key, halving all the counters once in
+	 * a while.
+	 * 
+	 * @param hashCode
+	 *            the hash code of the key
+	 */
+	void increment(final int hashCode)
+	{
+		boolean added = false;
+		for (int row = 0; row < 4; row++)
+		{
+			final int counter = indexOf(hashCode, row);
+			final int index = counter >>> 4;
+			final int shift = (counter & 15) << 2;
+			if (((table[index] >>> shift) & 15L) != 15L)
+			{
+				table[index] += 1L << shift;
+				added = true;
+			}
+		}
+		if (added && ++size >= sampleSize)
+		{
+			reset();
+		}
+	}
+	
+	/**
+	 * Halves all the counters.
+	 */
+	private void reset()
+	{
+		for (int index = 0; index < table.length; index++)
+		{
+			table[index] = (table[index] >>> 1) & RESET_MASK;
+		}
+		size >>>= 1;
+	}
+	
+	/**
+	 * Gets the counter of the key in the given row, the rows are laid one
+	 * after the other in the table.
+	 * 
+	 * @param hashCode
+	 *            the hash code
+	 * @param row
+	 *            the row
+	 * @return the index of the counter
+	 */
+	private int indexOf(final int hashCode, final int row)
+	{
+		long hash = (hashCode + SEEDS[row]) * SEEDS[row];
+		hash += hash >>> 32;
+		final int rowSize = table.length << 2;
+		return row * rowSize + ((int) hash & (rowSize - 1));
+	}
+}
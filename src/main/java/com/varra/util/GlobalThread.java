@@ -18,13 +18,14 @@
  */
 package com.varra.util;
 
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
-import java.util.concurrent.LinkedBlockingQueue;
-import java.util.concurrent.ThreadPoolExecutor;
-import java.util.concurrent.TimeUnit;
 
 import com.varra.classification.InterfaceAudience;
 import com.varra.classification.InterfaceStability;
+import com.varra.log.Logger;
 import static com.varra.props.VarraProperties.*;
 
 /**
@@ -33,7 +34,13 @@ import static com.varra.props.VarraProperties.*;
  * Use {@link #getGlobalThread(int)} to Initialize the the thread with the
  * specified number of threads. Otherwise it uses
  * {@link Executors#newCachedThreadPool()} and creates number of the threads on
- * demand.
+ * demand.<br>
+ * Use {@link #getVirtualGlobalThread(int)}, or set the
+ * {@link com.varra.props.Constants#GT_VIRTUAL_THREADS_PROPERTY} property, to
+ * run each task on a virtual thread through a {@link VirtualThreadExecutor}.
+ * Set the {@link com.varra.props.Constants#GT_CHECKPOINT_FILE_PROPERTY}
+ * property to carry the state of the tasks with a checkpoint key across the
+ * restarts, see {@link SchedulerCheckpoint}.
  * 
  * @author <a href="mailto:varra@outlook.com">Rajakrishna V.
  *         Reddy</a>
@@ -45,6 +52,9 @@ import static com.varra.props.VarraProperties.*;
 public class GlobalThread extends SafeThread
 {
 	
+	/** The logger to log the debugging messages as application runs. */
+	private static final Logger logger = Logger.getLogger(GlobalThread.class);
+	
 	/** The global thread. */
 	private static GlobalThread globalThread;
 	
@@ -53,7 +63,23 @@ public class GlobalThread extends SafeThread
 	 */
 	private GlobalThread()
 	{
-		super(GlobalThread.class.getSimpleName(), Executors.newCachedThreadPool());
+		super(GlobalThread.class.getSimpleName(), getWrapperProperty(GT_VIRTUAL_THREADS_PROPERTY, GT_VIRTUAL_THREADS_DEFAULT_VALUE) ? new VirtualThreadExecutor(
+				getWrapperProperty(GT_MAX_CONCURRENCY_PROPERTY, GT_MAX_CONCURRENCY_DEFAULT_VALUE)) : Executors.newCachedThreadPool(), getSchedulerMode());
+		enableStatsIfConfigured();
+		setCheckpointIfConfigured();
+	}
+	
+	/**
+	 * Instantiates a new global thread.
+	 * 
+	 * @param threadPool
+	 *            the thread pool
+	 */
+	private GlobalThread(final ExecutorService threadPool)
+	{
+		super(GlobalThread.class.getSimpleName(), threadPool, getSchedulerMode());
+		enableStatsIfConfigured();
+		setCheckpointIfConfigured();
 	}
 	
 	/**
@@ -64,7 +90,9 @@ public class GlobalThread extends SafeThread
 	 */
 	private GlobalThread(final int noOfThreads)
 	{
-		super(GlobalThread.class.getSimpleName(), Executors.newFixedThreadPool(noOfThreads));
+		super(GlobalThread.class.getSimpleName(), Executors.newFixedThreadPool(noOfThreads), getSchedulerMode());
+		enableStatsIfConfigured();
+		setCheckpointIfConfigured();
 	}
 	
 	/**
@@ -77,15 +105,109 @@ public class GlobalThread extends SafeThread
 	 */
 	private GlobalThread(final int minNoOfThreads, final int maxNoOfThreads)
 	{
-		super(GlobalThread.class.getSimpleName(), new ThreadPoolExecutor(minNoOfThreads, maxNoOfThreads, getWrapperProperty(GT_KEEP_ALIVE_TIME_PROPERTY, GT_KEEP_ALIVE_TIME_DEFAULT_VALUE), TimeUnit.MILLISECONDS, new LinkedBlockingQueue<Runnable>()));
+		this(minNoOfThreads, maxNoOfThreads, getWrapperProperty(GT_QUEUE_CAPACITY_PROPERTY, GT_QUEUE_CAPACITY_DEFAULT_VALUE), RejectionPolicy.getPolicy(
+				getWrapperProperty(GT_REJECTION_POLICY_PROPERTY, GT_REJECTION_POLICY_DEFAULT_VALUE), RejectionPolicy.DROP_NEWEST));
+	}
+	
+	/**
+	 * Instantiates a new global thread.
+	 * 
+	 * @param minNoOfThreads
+	 *            the min no of threads
+	 * @param maxNoOfThreads
+	 *            the max no of threads
+	 * @param queueCapacity
+	 *            the queue capacity
+	 * @param policy
+	 *            the rejection policy
+	 */
+	private GlobalThread(final int minNoOfThreads, final int maxNoOfThreads, final int queueCapacity, final RejectionPolicy policy)
+	{
+		super(GlobalThread.class.getSimpleName(), newBoundedExecutor(minNoOfThreads, maxNoOfThreads, queueCapacity, policy), getSchedulerMode());
+		enableStatsIfConfigured();
+		setCheckpointIfConfigured();
+	}
+	
+	/**
+	 * Creates the {@link BoundedExecutor}, sized by the time the tasks wait in
+	 * its queue if the
+	 * {@link com.varra.props.Constants#GT_TARGET_QUEUE_WAIT_PROPERTY} property
+	 * is set, and registers its MBean.
+	 * 
+	 * @param minNoOfThreads
+	 *            the min no of threads
+	 * @param maxNoOfThreads
+	 *            the max no of threads
+	 * @param queueCapacity
+	 *            the queue capacity
+	 * @param policy
+	 *            the rejection policy
+	 * @return the bounded executor
+	 */
+	private static BoundedExecutor newBoundedExecutor(final int minNoOfThreads, final int maxNoOfThreads, final int queueCapacity,
+			final RejectionPolicy policy)
+	{
+		final BoundedExecutor executor = new BoundedExecutor(GlobalThread.class.getSimpleName(), minNoOfThreads, maxNoOfThreads, getWrapperProperty(
+				GT_KEEP_ALIVE_TIME_PROPERTY, GT_KEEP_ALIVE_TIME_DEFAULT_VALUE), queueCapacity, policy);
+		executor.setTargetQueueWait(getWrapperProperty(GT_TARGET_QUEUE_WAIT_PROPERTY, GT_TARGET_QUEUE_WAIT_DEFAULT_VALUE));
+		executor.register();
+		return executor;
+	}
+	
+	/**
+	 * Sets the {@link SchedulerCheckpoint} if configured through the
+	 * {@link com.varra.props.Constants#GT_CHECKPOINT_FILE_PROPERTY} property.
+	 */
+	private void setCheckpointIfConfigured()
+	{
+		final String fileName = getWrapperProperty(GT_CHECKPOINT_FILE_PROPERTY, GT_CHECKPOINT_FILE_DEFAULT_VALUE);
+		if (fileName != null && fileName.trim().length() > 0)
+		{
+			try
+			{
+				setCheckpoint(new SchedulerCheckpoint(new File(fileName.trim())));
+			}
+			catch (IOException e)
+			{
+				logger.error("Unable to open the checkpoint: {}, hence running without it.", fileName, e);
+			}
+		}
+	}
+	
+	/**
+	 * Enables the {@link SchedulerStats} if configured through the
+	 * {@link com.varra.props.Constants#GT_STATS_ENABLED_PROPERTY} property.
+	 */
+	private void enableStatsIfConfigured()
+	{
+		if (getWrapperProperty(GT_STATS_ENABLED_PROPERTY, GT_STATS_ENABLED_DEFAULT_VALUE))
+		{
+			enableStats();
+		}
+	}
+	
+	/**
+	 * Gets the {@link SchedulerMode} configured through the
+	 * {@link com.varra.props.Constants#GT_SCHEDULER_MODE_PROPERTY} property.
+	 * 
+	 * @return the scheduler mode
+	 */
+	private static SchedulerMode getSchedulerMode()
+	{
+		return SchedulerMode.getMode(getWrapperProperty(GT_SCHEDULER_MODE_PROPERTY, GT_SCHEDULER_MODE_DEFAULT_VALUE), SchedulerMode.POLLING);
 	}
 	
 	/**
 	 * Gets the singleton {@link SafeThread}. Instantiates the
 	 * {@link GlobalThread} if not done so far with the number of threads, else
 	 * returns the existing one.<br>
-	 * It uses <b>{@link java.util.concurrent.ThreadPoolExecutor#ThreadPoolExecutor(int, int, long, TimeUnit, java.util.concurrent.BlockingQueue)}</b> to create the
-	 * threads on demand.
+	 * It uses a <b>{@link BoundedExecutor}</b> to create the threads on
+	 * demand, its queue capacity and {@link RejectionPolicy} are configured
+	 * through the {@link com.varra.props.Constants#GT_QUEUE_CAPACITY_PROPERTY}
+	 * and {@link com.varra.props.Constants#GT_REJECTION_POLICY_PROPERTY}
+	 * properties. The policy defaults to {@link RejectionPolicy#DROP_NEWEST},
+	 * an execution dropped gives back its permit and re-arms its triggers,
+	 * see {@link BoundedExecutor#onDiscard(Runnable)}.
 	 *
 	 * @param minNoOfThreads
 	 *            the min no of threads
@@ -102,6 +224,36 @@ public class GlobalThread extends SafeThread
 		return globalThread;
 	}
 	
+	/**
+	 * Gets the singleton {@link SafeThread}. Instantiates the
+	 * {@link GlobalThread} if not done so far with the number of threads, else
+	 * returns the existing one.<br>
+	 * It uses a <b>{@link BoundedExecutor}</b> to create the threads on
+	 * demand, with at most the given no of tasks waiting in its queue. Its
+	 * numbers are available through {@link #getThreadPool()}.
+	 * 
+	 * @param minNoOfThreads
+	 *            the min no of threads
+	 * @param maxNoOfThreads
+	 *            the max no of threads
+	 * @param queueCapacity
+	 *            the queue capacity
+	 * @param policy
+	 *            the rejection policy, applied once the queue is full. Note
+	 *            that {@link RejectionPolicy#CALLER_RUNS} runs the tasks on
+	 *            the dispatcher, stalling the scheduling of all the others
+	 * @return the global thread
+	 */
+	public synchronized static GlobalThread getGlobalThread(final int minNoOfThreads, final int maxNoOfThreads, final int queueCapacity,
+			final RejectionPolicy policy)
+	{
+		if (globalThread == null)
+		{
+			globalThread = new GlobalThread(minNoOfThreads, maxNoOfThreads, queueCapacity, policy);
+		}
+		return globalThread;
+	}
+	
 	/**
 	 * Gets the singleton {@link SafeThread}. Instantiates the
 	 * {@link GlobalThread} if not done so far with the number of threads, else
@@ -122,12 +274,35 @@ public class GlobalThread extends SafeThread
 		return globalThread;
 	}
 	
+	/**
+	 * Gets the singleton {@link SafeThread}. Instantiates the
+	 * {@link GlobalThread} if not done so far, else returns the existing
+	 * one.<br>
+	 * It uses <b>{@link VirtualThreadExecutor}</b> to run each task on a
+	 * virtual thread, at most the given no of them at a time. Falls back to
+	 * the platform threads if the JVM does not support the virtual threads.
+	 * 
+	 * @param maxConcurrency
+	 *            the max no of tasks running at a time
+	 * @return the global thread
+	 */
+	public synchronized static GlobalThread getVirtualGlobalThread(final int maxConcurrency)
+	{
+		if (globalThread == null)
+		{
+			globalThread = new GlobalThread(new VirtualThreadExecutor(maxConcurrency));
+		}
+		return globalThread;
+	}
+	
 	/**
 	 * Gets the singleton {@link SafeThread}. Instantiates the
 	 * {@link GlobalThread} if not done so far with the number of threads, else
 	 * returns the existing one.<br>
 	 * It uses <b>{@link Executors#newCachedThreadPool()}</b> to create the
-	 * threads on demand.
+	 * threads on demand, or a {@link VirtualThreadExecutor} if the
+	 * {@link com.varra.props.Constants#GT_VIRTUAL_THREADS_PROPERTY} property is
+	 * set.
 	 * 
 	 * @return the global thread
 	 */
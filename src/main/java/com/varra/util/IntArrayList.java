@@ -0,0 +1,442 @@
+/*
+ * utils4j - IntArrayList.java, Oct 18, 2026 11:09:46 PM
+ * 
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.varra.util;
+
+import java.util.Arrays;
+
+import com.varra.classification.InterfaceAudience;
+import com.varra.classification.InterfaceStability;
+
+/**
+ * A growable list of primitive <tt>int</tt>s, without the boxing of an
+ * {@link java.util.ArrayList} of {@link Integer}s, it is just an array and a
+ * size. Iterate it with {@link #get(int)} by index, or with
+ * {@link #forEach(Procedure)}, neither of them creates any objects.
+ * 
+ * <br>
+ * Note: <b> It is not thread safe.</b>
+ * 
+ * @author Rajakrishna V. Reddy
+ * @version 1.0
+ */
+@InterfaceAudience.Public
+@InterfaceStability.Evolving
+public class IntArrayList
+{
+	
+	/**
+	 * Called for each element of the list.
+	 */
+	public interface Procedure
+	{
+		
+		/**
+		 * Called for the element.
+		 * 
+		 * @param index
+		 *            the index
+		 * @param value
+		 *            the value
+		 * @return true to carry on, false to stop
+		 */
+		boolean apply(int index, int value);
+	}
+	
+	/** The Constant DEFAULT_INITIAL_CAPACITY. */
+	public static final int DEFAULT_INITIAL_CAPACITY = 10;
+	
+	/** The elements. */
+	private int[] elements;
+	
+	/** The size. */
+	private int size;
+	
+	/**
+	 * Instantiates a new list with the default capacity.
+	 */
+	public IntArrayList()
+	{
+		this(DEFAULT_INITIAL_CAPACITY);
+	}
+	
+	/**
+	 * Instantiates a new list.
+	 * 
+	 * @param initialCapacity
+	 *            the initial capacity
+	 */
+	public IntArrayList(final int initialCapacity)
+	{
+		if (initialCapacity < 0)
+		{
+			throw new IllegalArgumentException("Capacity can't be negative, initialCapacity: " + initialCapacity);
+		}
+		elements = new int[initialCapacity];
+	}
+	
+	/**
+	 * Creates a list of the given values.
+	 * 
+	 * @param values
+	 *            the values
+	 * @return the int array list
+	 */
+	public static IntArrayList of(final int... values)
+	{
+		final IntArrayList list = new IntArrayList(values.length);
+		list.addAll(values);
+		return list;
+	}
+	
+	/**
+	 * Appends the value.
+	 * 
+	 * @param value
+	 *            the value
+	 */
+	public void add(final int value)
+	{
+		if (size == elements.length)
+		{
+			grow(size + 1);
+		}
+		elements[size++] = value;
+	}
+	
+	/**
+	 * Inserts the value at the given index, shifting the ones after it.
+	 * 
+	 * @param index
+	 *            the index
+	 * @param value
+	 *            the value
+	 */
+	public void add(final int index, final int value)
+	{
+		if (index < 0 || index > size)
+		{
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+		}
+		if (size == elements.length)
+		{
+			grow(size + 1);
+		}
+		System.arraycopy(elements, index, elements, index + 1, size - index);
+		elements[index] = value;
+		size++;
+	}
+	
+	/**
+	 * Appends all the values.
+	 * 
+	 * @param values
+	 *            the values
+	 */
+	public void addAll(final int... values)
+	{
+		ensureCapacity(size + values.length);
+		System.arraycopy(values, 0, elements, size, values.length);
+		size += values.length;
+	}
+	
+	/**
+	 * Gets the value at the given index.
+	 * 
+	 * @param index
+	 *            the index
+	 * @return the value
+	 */
+	public int get(final int index)
+	{
+		checkIndex(index);
+		return elements[index];
+	}
+	
+	/**
+	 * Sets the value at the given index.
+	 * 
+	 * @param index
+	 *            the index
+	 * @param value
+	 *            the value
+	 * @return the previous value
+	 */
+	public int set(final int index, final int value)
+	{
+		checkIndex(index);
+		final int previous = elements[index];
+		elements[index] = value;
+		return previous;
+	}
+	
+	/**
+	 * Removes the value at the given index, shifting the ones after it.
+	 * 
+	 * @param index
+	 *            the index
+	 * @return the value removed
+	 */
+	public int removeAt(final int index)
+	{
+		checkIndex(index);
+		final int previous = elements[index];
+		System.arraycopy(elements, index + 1, elements, index, size - index - 1);
+		size--;
+		return previous;
+	}
+	
+	/**
+	 * Removes the first occurrence of the value.
+	 * 
+	 * @param value
+	 *            the value
+	 * @return true, if it was there
+	 */
+	public boolean removeValue(final int value)
+	{
+		final int index = indexOf(value);
+		if (index < 0)
+		{
+			return false;
+		}
+		removeAt(index);
+		return true;
+	}
+	
+	/**
+	 * Gets the index of the first occurrence of the value.
+	 * 
+	 * @param value
+	 *            the value
+	 * @return the index, -1 if not there
+	 */
+	public int indexOf(final int value)
+	{
+		for (int index = 0; index < size; index++)
+		{
+			if (elements[index] == value)
+			{
+				return index;
+			}
+		}
+		return -1;
+	}
+	
+	/**
+	 * Checks if the value is there.
+	 * 
+	 * @param value
+	 *            the value
+	 * @return true, if there
+	 */
+	public boolean contains(final int value)
+	{
+		return indexOf(value) >= 0;
+	}
+	
+	/**
+	 * Calls the procedure for each element, in order. The list must not be
+	 * modified meanwhile.
+	 * 
+	 * @param procedure
+	 *            the procedure
+	 * @return true, if all the elements are visited
+	 */
+	public boolean forEach(final Procedure procedure)
+	{
+		final int[] elements = this.elements;
+		final int size = this.size;
+		for (int index = 0; index < size; index++)
+		{
+			if (!procedure.apply(index, elements[index]))
+			{
+				return false;
+			}
+		}
+		return true;
+	}
+	
+	/**
+	 * Sorts the elements in ascending order.
+	 */
+	public void sort()
+	{
+		Arrays.sort(elements, 0, size);
+	}
+	
+	/**
+	 * Gets the elements as an array.
+	 * 
+	 * @return the array
+	 */
+	public int[] toArray()
+	{
+		return Arrays.copyOf(elements, size);
+	}
+	
+	/**
+	 * Gets the no of elements.
+	 * 
+	 * @return the size
+	 */
+	public int size()
+	{
+		return size;
+	}
+	
+	/**
+	 * Checks if is empty.
+	 * 
+	 * @return true, if is empty
+	 */
+	public boolean isEmpty()
+	{
+		return size == 0;
+	}
+	
+	/**
+	 * Removes all the elements, keeping the capacity.
+	 */
+	public void clear()
+	{
+		size = 0;
+	}
+	
+	/**
+	 * Makes sure it holds the given no of elements without growing.
+	 * 
+	 * @param capacity
+	 *            the capacity
+	 */
+	public void ensureCapacity(final int capacity)
+	{
+		if (capacity > elements.length)
+		{
+			grow(capacity);
+		}
+	}
+	
+	/**
+	 * Trims the capacity to the size.
+	 */
+	public void trimToSize()
+	{
+		if (size < elements.length)
+		{
+			elements = Arrays.copyOf(elements, size);
+		}
+	}
+	
+	/**
+	 * Grows the capacity by half, at least to the given capacity.
+	 * 
+	 * @param capacity
+	 *            the min capacity
+	 */
+	private void grow(final int capacity)
+	{
+		if (capacity < 0)
+		{
+			throw new OutOfMemoryError("Too many elements: " + capacity);
+		}
+		final long grown = elements.length + (elements.length >> 1) + 1L;
+		elements = Arrays.copyOf(elements, (int) Math.min(Integer.MAX_VALUE - 8, Math.max(capacity, grown)));
+	}
+	
+	/**
+	 * Checks the index.
+	 * 
+	 * @param index
+	 *            the index
+	 */
+	private void checkIndex(final int index)
+	{
+		if (index < 0 || index >= size)
+		{
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+		}
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see java.lang.Object#equals(java.lang.Object)
+	 */
+	@Override
+	public boolean equals(final Object other)
+	{
+		if (this == other)
+		{
+			return true;
+		}
+		if (!(other instanceof IntArrayList))
+		{
+			return false;
+		}
+		final IntArrayList list = (IntArrayList) other;
+		if (size != list.size)
+		{
+			return false;
+		}
+		for (int index = 0; index < size; index++)
+		{
+			if (elements[index] != list.elements[index])
+			{
+				return false;
+			}
+		}
+		return true;
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see java.lang.Object#hashCode()
+	 */
+	@Override
+	public int hashCode()
+	{
+		int hash = 1;
+		for (int index = 0; index < size; index++)
+		{
+			hash = 31 * hash + elements[index];
+		}
+		return hash;
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString()
+	{
+		final StringBuilder builder = new StringBuilder("[");
+		for (int index = 0; index < size; index++)
+		{
+			if (index > 0)
+			{
+				builder.append(", ");
+			}
+			builder.append(elements[index]);
+		}
+		return builder.append(']').toString();
+	}
+}
@@ -0,0 +1,492 @@
+/*
+ * utils4j - IntIntMap.java, Oct 18, 2026 10:44:52 PM
+ * 
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.varra.util;
+
+import java.util.Arrays;
+
+import com.varra.classification.InterfaceAudience;
+import com.varra.classification.InterfaceStability;
+
+/**
+ * A map of primitive <tt>int</tt> keys to <tt>int</tt> values, without the
+ * boxing and the entry objects of a {@link java.util.HashMap}, for the
+ * counters and the id to index maps.<br>
+ * It is an open addressing table of two arrays, probed linearly and kept
+ * free of tombstones by shifting the entries back on removal, so the
+ * lookups stay short after any no of removals.
+ * 
+ * <br>
+ * Every key can be stored: the key 0, which marks the free slots, is kept
+ * aside. {@link #get(int)} returns the missing value given at construction
+ * (0 by default) for the keys not there, use {@link #get(int, int)} or
+ * {@link #containsKey(int)} when it may be a legitimate value too.
+ * {@link #forEach(Procedure)} iterates without creating any objects.
+ * 
+ * <br>
+ * Note: <b> It is not thread safe.</b>
+ * 
+ * @author Rajakrishna V. Reddy
+ * @version 1.0
+ */
+@InterfaceAudience.Public
+@InterfaceStability.Evolving
+public class IntIntMap
+{
+	
+	/**
+	 * Called for each entry of the map.
+	 */
+	public interface Procedure
+	{
+		
+		/**
+		 * Called for the entry.
+		 * 
+		 * @param key
+		 *            the key
+		 * @param value
+		 *            the value
+		 * @return true to carry on, false to stop
+		 */
+		boolean apply(int key, int value);
+	}
+	
+	/** The load factor. */
+	private final float loadFactor;
+	
+	/** The value returned for the keys not there. */
+	private final int missingValue;
+	
+	/** The keys, 0 marks a free slot. */
+	private int[] keys;
+	
+	/** The values. */
+	private int[] values;
+	
+	/** The mask of the table size. */
+	private int mask;
+	
+	/** The no of entries at which the table is grown. */
+	private int resizeAt;
+	
+	/** The no of entries in the table. */
+	private int size;
+	
+	/** Whether the key 0 is there. */
+	private boolean hasZeroKey;
+	
+	/** The value of the key 0. */
+	private int zeroValue;
+	
+	/**
+	 * Instantiates a new map with the default capacity.
+	 */
+	public IntIntMap()
+	{
+		this(PrimitiveHashing.DEFAULT_INITIAL_CAPACITY);
+	}
+	
+	/**
+	 * Instantiates a new map that holds the given no of entries without
+	 * growing.
+	 * 
+	 * @param expected
+	 *            the expected no of entries
+	 */
+	public IntIntMap(final int expected)
+	{
+		this(expected, PrimitiveHashing.DEFAULT_LOAD_FACTOR, 0);
+	}
+	
+	/**
+	 * Instantiates a new map.
+	 * 
+	 * @param expected
+	 *            the expected no of entries
+	 * @param loadFactor
+	 *            the load factor, between 0 and 1 exclusive
+	 * @param missingValue
+	 *            the value returned for the keys not there
+	 */
+	public IntIntMap(final int expected, final float loadFactor, final int missingValue)
+	{
+		this.loadFactor = loadFactor;
+		this.missingValue = missingValue;
+		allocate(PrimitiveHashing.tableSize(expected, loadFactor));
+	}
+	
+	/**
+	 * Gets the value of the given key.
+	 * 
+	 * @param key
+	 *            the key
+	 * @return the value, the missing value if not there
+	 */
+	public int get(final int key)
+	{
+		return get(key, missingValue);
+	}
+	
+	/**
+	 * Gets the value of the given key.
+	 * 
+	 * @param key
+	 *            the key
+	 * @param defaultValue
+	 *            the value returned if not there
+	 * @return the value
+	 */
+	public int get(final int key, final int defaultValue)
+	{
+		if (key == 0)
+		{
+			return hasZeroKey ? zeroValue : defaultValue;
+		}
+		final int slot = find(key);
+		return slot < 0 ? defaultValue : values[slot];
+	}
+	
+	/**
+	 * Checks if the key is there.
+	 * 
+	 * @param key
+	 *            the key
+	 * @return true, if there
+	 */
+	public boolean containsKey(final int key)
+	{
+		return key == 0 ? hasZeroKey : find(key) >= 0;
+	}
+	
+	/**
+	 * Puts the value of the given key.
+	 * 
+	 * @param key
+	 *            the key
+	 * @param value
+	 *            the value
+	 * @return the previous value, the missing value if not there
+	 */
+	public int put(final int key, final int value)
+	{
+		if (key == 0)
+		{
+			final int previous = hasZeroKey ? zeroValue : missingValue;
+			zeroValue = value;
+			hasZeroKey = true;
+			return previous;
+		}
+		int slot = PrimitiveHashing.hash(key) & mask;
+		int current;
+		while ((current = keys[slot]) != 0)
+		{
+			if (current == key)
+			{
+				final int previous = values[slot];
+				values[slot] = value;
+				return previous;
+			}
+			slot = (slot + 1) & mask;
+		}
+		keys[slot] = key;
+		values[slot] = value;
+		if (++size > resizeAt)
+		{
+			rehash(keys.length << 1);
+		}
+		return missingValue;
+	}
+	
+	/**
+	 * Adds the delta to the value of the given key, taking the missing value
+	 * if not there, useful for the counters.
+	 * 
+	 * @param key
+	 *            the key
+	 * @param delta
+	 *            the delta
+	 * @return the new value
+	 */
+	public int addTo(final int key, final int delta)
+	{
+		if (key == 0)
+		{
+			zeroValue = (hasZeroKey ? zeroValue : missingValue) + delta;
+			hasZeroKey = true;
+			return zeroValue;
+		}
+		int slot = PrimitiveHashing.hash(key) & mask;
+		int current;
+		while ((current = keys[slot]) != 0)
+		{
+			if (current == key)
+			{
+				return values[slot] += delta;
+			}
+			slot = (slot + 1) & mask;
+		}
+		final int value = missingValue + delta;
+		keys[slot] = key;
+		values[slot] = value;
+		if (++size > resizeAt)
+		{
+			rehash(keys.length << 1);
+		}
+		return value;
+	}
+	
+	/**
+	 * Removes the given key.
+	 * 
+	 * @param key
+	 *            the key
+	 * @return the value removed, the missing value if not there
+	 */
+	public int remove(final int key)
+	{
+		if (key == 0)
+		{
+			final int previous = hasZeroKey ? zeroValue : missingValue;
+			hasZeroKey = false;
+			zeroValue = 0;
+			return previous;
+		}
+		final int slot = find(key);
+		if (slot < 0)
+		{
+			return missingValue;
+		}
+		final int previous = values[slot];
+		shiftBack(slot);
+		size--;
+		return previous;
+	}
+	
+	/**
+	 * Calls the procedure for each entry, in no particular order. The map must
+	 * not be modified meanwhile.
+	 * 
+	 * @param procedure
+	 *            the procedure
+	 * @return true, if all the entries are visited
+	 */
+	public boolean forEach(final Procedure procedure)
+	{
+		if (hasZeroKey && !procedure.apply(0, zeroValue))
+		{
+			return false;
+		}
+		final int[] keys = this.keys;
+		final int[] values = this.values;
+		for (int slot = 0; slot < keys.length; slot++)
+		{
+			if (keys[slot] != 0 && !procedure.apply(keys[slot], values[slot]))
+			{
+				return false;
+			}
+		}
+		return true;
+	}
+	
+	/**
+	 * Gets the keys.
+	 * 
+	 * @return the keys, in no particular order
+	 */
+	public int[] keys()
+	{
+		final int[] result = new int[size()];
+		int index = 0;
+		if (hasZeroKey)
+		{
+			result[index++] = 0;
+		}
+		for (final int key : keys)
+		{
+			if (key != 0)
+			{
+				result[index++] = key;
+			}
+		}
+		return result;
+	}
+	
+	/**
+	 * Gets the no of entries.
+	 * 
+	 * @return the size
+	 */
+	public int size()
+	{
+		return hasZeroKey ? size + 1 : size;
+	}
+	
+	/**
+	 * Checks if is empty.
+	 * 
+	 * @return true, if is empty
+	 */
+	public boolean isEmpty()
+	{
+		return size() == 0;
+	}
+	
+	/**
+	 * Removes all the entries, keeping the table.
+	 */
+	public void clear()
+	{
+		Arrays.fill(keys, 0);
+		Arrays.fill(values, 0);
+		size = 0;
+		hasZeroKey = false;
+		zeroValue = 0;
+	}
+	
+	/**
+	 * Gets the missing value.
+	 * 
+	 * @return the missing value
+	 */
+	public int getMissingValue()
+	{
+		return missingValue;
+	}
+	
+	/**
+	 * Finds the slot of the given non zero key.
+	 * 
+	 * @param key
+	 *            the key
+	 * @return the slot, -1 if not there
+	 */
+	private int find(final int key)
+	{
+		final int[] keys = this.keys;
+		int slot = PrimitiveHashing.hash(key) & mask;
+		int current;
+		while ((current = keys[slot]) != 0)
+		{
+			if (current == key)
+			{
+				return slot;
+			}
+			slot = (slot + 1) & mask;
+		}
+		return -1;
+	}
+	
+	/**
+	 * Frees the given slot, shifting back the entries of the same probe
+	 * sequence that follow it.
+	 * 
+	 * @param slot
+	 *            the slot
+	 */
+	private void shiftBack(int slot)
+	{
+		int free = slot;
+		while (true)
+		{
+			slot = (slot + 1) & mask;
+			final int key = keys[slot];
+			if (key == 0)
+			{
+				break;
+			}
+			if (PrimitiveHashing.canShift(PrimitiveHashing.hash(key) & mask, slot, free, mask))
+			{
+				keys[free] = key;
+				values[free] = values[slot];
+				free = slot;
+			}
+		}
+		keys[free] = 0;
+		values[free] = 0;
+	}
+	
+	/**
+	 * Allocates the table of the given size.
+	 * 
+	 * @param tableSize
+	 *            the table size
+	 */
+	private void allocate(final int tableSize)
+	{
+		keys = new int[tableSize];
+		values = new int[tableSize];
+		mask = tableSize - 1;
+		resizeAt = PrimitiveHashing.resizeAt(tableSize, loadFactor);
+	}
+	
+	/**
+	 * Moves the entries to a table of the given size.
+	 * 
+	 * @param tableSize
+	 *            the table size
+	 */
+	private void rehash(final int tableSize)
+	{
+		if (keys.length == PrimitiveHashing.MAX_CAPACITY)
+		{
+			throw new IllegalStateException("Can't grow beyond the max capacity: " + PrimitiveHashing.MAX_CAPACITY);
+		}
+		final int[] oldKeys = keys;
+		final int[] oldValues = values;
+		allocate(tableSize);
+		for (int index = 0; index < oldKeys.length; index++)
+		{
+			final int key = oldKeys[index];
+			if (key != 0)
+			{
+				int slot = PrimitiveHashing.hash(key) & mask;
+				while (keys[slot] != 0)
+				{
+					slot = (slot + 1) & mask;
+				}
+				keys[slot] = key;
+				values[slot] = oldValues[index];
+			}
+		}
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString()
+	{
+		final StringBuilder builder = new StringBuilder("{");
+		forEach(new Procedure()
+		{
+			public boolean apply(final int key, final int value)
+			{
+				if (builder.length() > 1)
+				{
+					builder.append(", ");
+				}
+				builder.append(key).append('=').append(value);
+				return true;
+			}
+		});
+		return builder.append('}').toString();
+	}
+}
@@ -0,0 +1,456 @@
+/*
+ * utils4j - KeyedRateLimiter.java, Oct 18, 2026 10:20:31 PM
+ * 
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.varra.util;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.varra.classification.InterfaceAudience;
+import com.varra.classification.InterfaceStability;
+
+/**
+ * A {@link RateLimiter} per key, like the limits per tenant, created on the
+ * first use of a key through the given {@link Factory}.<br>
+ * The memory is bounded by the max no of keys: once it is exceeded, the
+ * limiters that are idle (see {@link RateLimiter#isIdle()}) are discarded,
+ * least recently used first, which does not change their limits as they are
+ * created again the same. The ones in use are never discarded, as that would
+ * give those keys a fresh limit and lose the permits held, so the max no of
+ * keys is a soft cap: it is exceeded while all of them are in use.
+ * 
+ * <br>
+ * A limiter is pinned while it is being acquired through this, so it is not
+ * discarded between being looked up and its permits taken; a limiter got
+ * with {@link #get(Object)} and used directly is not.
+ * 
+ * @param <K>
+ *            the key type
+ * @author <a href="mailto:varra@outlook.com">Rajakrishna V.
+ *         Reddy</a>
+ * @version 1.0
+ */
+@InterfaceAudience.Public
+@InterfaceStability.Evolving
+public class KeyedRateLimiter<K>
+{
+	
+	/**
+	 * Creates the {@link RateLimiter} of a key.
+	 * 
+	 * @param <K>
+	 *            the key type
+	 */
+	public interface Factory<K>
+	{
+		
+		/**
+		 * Creates the rate limiter of the given key.
+		 * 
+		 * @param key
+		 *            the key
+		 * @return the rate limiter
+		 */
+		RateLimiter newRateLimiter(K key);
+	}
+	
+	/** The max no of keys. */
+	private final int maxKeys;
+	
+	/** The factory. */
+	private final Factory<K> factory;
+	
+	/** The limiters by their keys. */
+	private final ConcurrentMap<K, Holder<K>> limiters = new ConcurrentHashMap<K, Holder<K>>();
+	
+	/**
+	 * The limiters in the order they are looked at for discarding, the ones
+	 * used since they were last looked at get a second chance at the tail.
+	 */
+	private final ConcurrentLinkedQueue<Holder<K>> order = new ConcurrentLinkedQueue<Holder<K>>();
+	
+	/** Whether the limiters are being discarded. */
+	private final AtomicBoolean evicting = new AtomicBoolean();
+	
+	/** The no of limiters discarded. */
+	private final AtomicLong evictions = new AtomicLong();
+	
+	/**
+	 * Instantiates a new keyed rate limiter.
+	 * 
+	 * @param maxKeys
+	 *            the max no of keys
+	 * @param factory
+	 *            the factory
+	 */
+	public KeyedRateLimiter(final int maxKeys, final Factory<K> factory)
+	{
+		if (maxKeys <= 0 || factory == null)
+		{
+			throw new IllegalArgumentException("Max keys should be greater than zero along with a factory, maxKeys: " + maxKeys + ", factory: " + factory);
+		}
+		this.maxKeys = maxKeys;
+		this.factory = factory;
+	}
+	
+	/**
+	 * Gets the rate limiter of the given key, creates it if not there. It can
+	 * be discarded once idle, use the methods of this to acquire its permits.
+	 * 
+	 * @param key
+	 *            the key
+	 * @return the rate limiter
+	 */
+	public RateLimiter get(final K key)
+	{
+		final Holder<K> holder = pin(key);
+		holder.unpin();
+		return holder.limiter;
+	}
+	
+	/**
+	 * Acquires the given permits of the key if they are available right away.
+	 * 
+	 * @param key
+	 *            the key
+	 * @param permits
+	 *            the permits
+	 * @return true, if acquired
+	 */
+	public boolean tryAcquire(final K key, final int permits)
+	{
+		final Holder<K> holder = pin(key);
+		try
+		{
+			return holder.limiter.tryAcquire(permits);
+		}
+		finally
+		{
+			holder.unpin();
+		}
+	}
+	
+	/**
+	 * Acquires the given permits of the key, waiting at most the given time
+	 * for them.
+	 * 
+	 * @param key
+	 *            the key
+	 * @param permits
+	 *            the permits
+	 * @param timeout
+	 *            the timeout
+	 * @param unit
+	 *            the unit
+	 * @return true, if acquired
+	 * @throws InterruptedException
+	 *             if interrupted while waiting
+	 */
+	public boolean tryAcquire(final K key, final int permits, final long timeout, final TimeUnit unit) throws InterruptedException
+	{
+		final Holder<K> holder = pin(key);
+		try
+		{
+			return holder.limiter.tryAcquire(permits, timeout, unit);
+		}
+		finally
+		{
+			holder.unpin();
+		}
+	}
+	
+	/**
+	 * Acquires the given permits of the key, waiting till they are available.
+	 * 
+	 * @param key
+	 *            the key
+	 * @param permits
+	 *            the permits
+	 * @throws InterruptedException
+	 *             if interrupted while waiting
+	 */
+	public void acquire(final K key, final int permits) throws InterruptedException
+	{
+		final Holder<K> holder = pin(key);
+		try
+		{
+			holder.limiter.acquire(permits);
+		}
+		finally
+		{
+			holder.unpin();
+		}
+	}
+	
+	/**
+	 * Gives back the permits of the key, if its limiter is still there. A
+	 * limiter with permits in use is not idle, so it is not discarded before
+	 * they are given back.
+	 * 
+	 * @param key
+	 *            the key
+	 * @param permits
+	 *            the permits
+	 * @see RateLimiter#release(int)
+	 */
+	public void release(final K key, final int permits)
+	{
+		final Holder<K> holder = limiters.get(key);
+		if (holder != null)
+		{
+			holder.limiter.release(permits);
+		}
+	}
+	
+	/**
+	 * Removes the rate limiter of the given key.
+	 * 
+	 * @param key
+	 *            the key
+	 * @return the rate limiter removed, null if not there
+	 */
+	public RateLimiter remove(final K key)
+	{
+		final Holder<K> holder = limiters.remove(key);
+		return holder != null ? holder.limiter : null;
+	}
+	
+	/**
+	 * Pins the limiter of the given key, creates it if not there, or if the
+	 * one there is being discarded.
+	 * 
+	 * @param key
+	 *            the key
+	 * @return the holder of the limiter, pinned
+	 */
+	private Holder<K> pin(final K key)
+	{
+		while (true)
+		{
+			Holder<K> holder = limiters.get(key);
+			boolean fresh = false;
+			if (holder == null)
+			{
+				final Holder<K> created = new Holder<K>(key, factory.newRateLimiter(key));
+				holder = limiters.putIfAbsent(key, created);
+				if (holder == null)
+				{
+					holder = created;
+					fresh = true;
+					order.offer(created);
+					if (limiters.size() > maxKeys)
+					{
+						evict(created);
+					}
+				}
+			}
+			/** A new one is not marked used, it earns its second chance once used again. */
+			if (holder.pin(!fresh))
+			{
+				return holder;
+			}
+			/** Discarded meanwhile, makes way for a new one. */
+			limiters.remove(key, holder);
+		}
+	}
+	
+	/**
+	 * Discards the idle limiters, least recently used first, till a quarter
+	 * of the room is made. The busy ones are kept even if still more than the
+	 * max no of keys, they are looked at again on the next key created. A
+	 * pass looks at each limiter at most twice, and never sorts them.
+	 * 
+	 * @param created
+	 *            the limiter just created, kept as it is about to be used
+	 */
+	private void evict(final Holder<K> created)
+	{
+		if (!evicting.compareAndSet(false, true))
+		{
+			return;
+		}
+		try
+		{
+			final int target = maxKeys - maxKeys / 4;
+			int budget = 2 * limiters.size();
+			while (limiters.size() > target && budget-- > 0)
+			{
+				final Holder<K> holder = order.poll();
+				if (holder == null)
+				{
+					break;
+				}
+				if (limiters.get(holder.key) != holder)
+				{
+					/** Removed already. */
+					continue;
+				}
+				if (holder != created && !holder.accessed && holder.evict())
+				{
+					limiters.remove(holder.key, holder);
+					evictions.incrementAndGet();
+					continue;
+				}
+				holder.accessed = false;
+				order.offer(holder);
+			}
+		}
+		finally
+		{
+			evicting.set(false);
+		}
+	}
+	
+	/**
+	 * Gets the no of keys.
+	 * 
+	 * @return the size
+	 */
+	public int size()
+	{
+		return limiters.size();
+	}
+	
+	/**
+	 * Gets the max no of keys.
+	 * 
+	 * @return the max keys
+	 */
+	public int getMaxKeys()
+	{
+		return maxKeys;
+	}
+	
+	/**
+	 * Gets the no of limiters discarded so far.
+	 * 
+	 * @return the eviction count
+	 */
+	public long getEvictionCount()
+	{
+		return evictions.get();
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString()
+	{
+		return "KeyedRateLimiter [keys=" + limiters.size() + ", maxKeys=" + maxKeys + ", evictions=" + evictions.get() + "]";
+	}
+	
+	/**
+	 * The limiter of a key, with the no of threads acquiring it.
+	 * 
+	 * @param <K>
+	 *            the key type
+	 */
+	private static final class Holder<K>
+	{
+		
+		/** The key. */
+		private final K key;
+		
+		/** The limiter. */
+		private final RateLimiter limiter;
+		
+		/** The no of threads acquiring it, -1 once discarded. */
+		private final AtomicInteger pins = new AtomicInteger();
+		
+		/** Whether it is used since it was last looked at for discarding. */
+		private volatile boolean accessed;
+		
+		/**
+		 * Instantiates a new holder.
+		 * 
+		 * @param key
+		 *            the key
+		 * @param limiter
+		 *            the limiter
+		 */
+		private Holder(final K key, final RateLimiter limiter)
+		{
+			this.key = key;
+			this.limiter = limiter;
+		}
+		
+		/**
+		 * Pins it, unless discarded.
+		 * 
+		 * @param access
+		 *            whether to mark it used
+		 * @return true, if pinned
+		 */
+		private boolean pin(final boolean access)
+		{
+			while (true)
+			{
+				final int current = pins.get();
+				if (current < 0)
+				{
+					return false;
+				}
+				if (pins.compareAndSet(current, current + 1))
+				{
+					if (access)
+					{
+						accessed = true;
+					}
+					return true;
+				}
+			}
+		}
+		
+		/**
+		 * Unpins it.
+		 */
+		private void unpin()
+		{
+			pins.decrementAndGet();
+		}
+		
+		/**
+		 * Marks it discarded, if it is neither pinned nor has permits in use.
+		 * The limiter is checked again once marked, as it can not be acquired
+		 * any more by then.
+		 * 
+		 * @return true, if discarded
+		 */
+		private boolean evict()
+		{
+			if (!limiter.isIdle() || !pins.compareAndSet(0, -1))
+			{
+				return false;
+			}
+			if (!limiter.isIdle())
+			{
+				pins.set(0);
+				return false;
+			}
+			return true;
+		}
+	}
+}
@@ -0,0 +1,225 @@
+/*
+ * utils4j - LatencyHistogram.java, Oct 18, 2026 7:58:20 PM
+ * 
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.varra.util;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import com.varra.classification.InterfaceAudience;
+import com.varra.classification.InterfaceStability;
+
+/**
+ * A lock-free histogram of the latencies in nanos, to be recorded from any
+ * no of threads at a time with a few atomic increments and no allocation.<br>
+ * The values are counted in log-linear buckets, i.e. each power of two range
+ * is split into 8 equal buckets, so the percentiles are precise within 12.5%
+ * from 1 ns up to the max long value, in a fixed array of 488 counters.
+ * 
+ * <br>
+ * Note: <b> The percentiles are computed from the counters as they are at the
+ * time, the values recorded meanwhile may or may not be seen. Same goes for
+ * {@link #reset()}.</b>
+ * 
+ * @author <a href="mailto:varra@outlook.com">Rajakrishna V.
+ *         Reddy</a>
+ * @version 1.0
+ */
+@InterfaceAudience.Public
+@InterfaceStability.Evolving
+public class LatencyHistogram
+{
+	
+	/** The no of bits used for the buckets of each power of two. */
+	private static final int SUB_BUCKET_BITS = 3;
+	
+	/** The no of buckets of each power of two. */
+	private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+	
+	/** The no of buckets. */
+	private static final int BUCKETS = (64 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+	
+	/** The counts of the buckets. */
+	private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+	
+	/** The count. */
+	private final AtomicLong count = new AtomicLong();
+	
+	/** The sum. */
+	private final AtomicLong sum = new AtomicLong();
+	
+	/** The max. */
+	private final AtomicLong max = new AtomicLong();
+	
+	/**
+	 * Records the value, the negative ones as zero.
+	 * 
+	 * @param nanos
+	 *            the nanos
+	 */
+	public void record(final long nanos)
+	{
+		final long value = nanos < 0 ? 0 : nanos;
+		counts.incrementAndGet(indexOf(value));
+		count.incrementAndGet();
+		sum.addAndGet(value);
+		long current;
+		while (value > (current = max.get()) && !max.compareAndSet(current, value))
+		{
+			/** Someone else has recorded a value, try again. */
+		}
+	}
+	
+	/**
+	 * Gets the no of values recorded.
+	 * 
+	 * @return the count
+	 */
+	public long getCount()
+	{
+		return count.get();
+	}
+	
+	/**
+	 * Gets the max value recorded, in nanos.
+	 * 
+	 * @return the max
+	 */
+	public long getMax()
+	{
+		return max.get();
+	}
+	
+	/**
+	 * Gets the mean of the values recorded, in nanos.
+	 * 
+	 * @return the mean, 0 if none recorded
+	 */
+	public double getMean()
+	{
+		final long total = count.get();
+		return total == 0 ? 0 : (double) sum.get() / total;
+	}
+	
+	/**
+	 * Gets the value at the given percentile, in nanos, it is the highest
+	 * value of the bucket the percentile falls in.
+	 * 
+	 * @param percentile
+	 *            the percentile, from 0 to 100
+	 * @return the value, 0 if none recorded
+	 */
+	public long getPercentile(final double percentile)
+	{
+		long total = 0;
+		for (int index = 0; index < BUCKETS; index++)
+		{
+			total += counts.get(index);
+		}
+		if (total == 0)
+		{
+			return 0;
+		}
+		final long rank = Math.max(1, (long) Math.ceil(total * Math.min(100, Math.max(0, percentile)) / 100));
+		long seen = 0;
+		for (int index = 0; index < BUCKETS; index++)
+		{
+			seen += counts.get(index);
+			if (seen >= rank)
+			{
+				return Math.min(highestOf(index), max.get());
+			}
+		}
+		return max.get();
+	}
+	
+	/**
+	 * Resets all the counters.
+	 */
+	public void reset()
+	{
+		for (int index = 0; index < BUCKETS; index++)
+		{
+			counts.set(index, 0);
+		}
+		count.set(0);
+		sum.set(0);
+		max.set(0);
+	}
+	
+	/**
+	 * Gets the index of the bucket of the value.
+	 * 
+	 * @param value
+	 *            the value
+	 * @return the index
+	 */
+	private static int indexOf(final long value)
+	{
+		if (value < SUB_BUCKETS)
+		{
+			return (int) value;
+		}
+		final int exponent = 63 - Long.numberOfLeadingZeros(value);
+		final int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+		return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+	}
+	
+	/**
+	 * Gets the highest value of the bucket.
+	 * 
+	 * @param index
+	 *            the index
+	 * @return the value
+	 */
+	private static long highestOf(final int index)
+	{
+		if (index < SUB_BUCKETS)
+		{
+			return index;
+		}
+		final int shift = index / SUB_BUCKETS - 1;
+		final long lowest = (long) (SUB_BUCKETS + index % SUB_BUCKETS) << shift;
+		return lowest + (1L << shift) - 1;
+	}
+	
+	/**
+	 * Converts the nanos to millis, with the fraction.
+	 * 
+	 * @param nanos
+	 *            the nanos
+	 * @return the millis
+	 */
+	static double toMillis(final double nanos)
+	{
+		return nanos / TimeUnit.MILLISECONDS.toNanos(1);
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString()
+	{
+		return String.format("count=%d, mean=%.3f ms, p50=%.3f ms, p99=%.3f ms, max=%.3f ms", getCount(), toMillis(getMean()),
+				toMillis(getPercentile(50)), toMillis(getPercentile(99)), toMillis(getMax()));
+	}
+}
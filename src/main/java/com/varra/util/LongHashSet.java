@@ -0,0 +1,379 @@
+/*
+ * utils4j - LongHashSet.java, Oct 18, 2026 11:04:12 PM
+ * 
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.varra.util;
+
+import java.util.Arrays;
+
+import com.varra.classification.InterfaceAudience;
+import com.varra.classification.InterfaceStability;
+
+/**
+ * A set of primitive <tt>long</tt>s, without the boxing and the entry
+ * objects of a {@link java.util.HashSet}, like the sets of ids or of the IPs
+ * from {@link com.varra.net.IPUtils#getIpAsLong(java.net.InetAddress)}.<br>
+ * It is an open addressing table, probed linearly and kept free of
+ * tombstones by shifting the elements back on removal, the same way as
+ * {@link LongLongMap}.
+ * 
+ * <br>
+ * Every value can be stored: the 0, which marks the free slots, is kept
+ * aside. {@link #forEach(Procedure)} iterates without creating any objects.
+ * 
+ * <br>
+ * Note: <b> It is not thread safe.</b>
+ * 
+ * @author Rajakrishna V. Reddy
+ * @version 1.0
+ */
+@InterfaceAudience.Public
+@InterfaceStability.Evolving
+public class LongHashSet
+{
+	
+	/**
+	 * Called for each element of the set.
+	 */
+	public interface Procedure
+	{
+		
+		/**
+		 * Called for the element.
+		 * 
+		 * @param value
+		 *            the value
+		 * @return true to carry on, false to stop
+		 */
+		boolean apply(long value);
+	}
+	
+	/** The load factor. */
+	private final float loadFactor;
+	
+	/** The elements, 0 marks a free slot. */
+	private long[] elements;
+	
+	/** The mask of the table size. */
+	private int mask;
+	
+	/** The no of elements at which the table is grown. */
+	private int resizeAt;
+	
+	/** The no of elements in the table. */
+	private int size;
+	
+	/** Whether the 0 is there. */
+	private boolean hasZero;
+	
+	/**
+	 * Instantiates a new set with the default capacity.
+	 */
+	public LongHashSet()
+	{
+		this(PrimitiveHashing.DEFAULT_INITIAL_CAPACITY);
+	}
+	
+	/**
+	 * Instantiates a new set that holds the given no of elements without
+	 * growing.
+	 * 
+	 * @param expected
+	 *            the expected no of elements
+	 */
+	public LongHashSet(final int expected)
+	{
+		this(expected, PrimitiveHashing.DEFAULT_LOAD_FACTOR);
+	}
+	
+	/**
+	 * Instantiates a new set.
+	 * 
+	 * @param expected
+	 *            the expected no of elements
+	 * @param loadFactor
+	 *            the load factor, between 0 and 1 exclusive
+	 */
+	public LongHashSet(final int expected, final float loadFactor)
+	{
+		this.loadFactor = loadFactor;
+		allocate(PrimitiveHashing.tableSize(expected, loadFactor));
+	}
+	
+	/**
+	 * Adds the value.
+	 * 
+	 * @param value
+	 *            the value
+	 * @return true, if it was not there
+	 */
+	public boolean add(final long value)
+	{
+		if (value == 0)
+		{
+			final boolean added = !hasZero;
+			hasZero = true;
+			return added;
+		}
+		int slot = PrimitiveHashing.hash(value) & mask;
+		long current;
+		while ((current = elements[slot]) != 0)
+		{
+			if (current == value)
+			{
+				return false;
+			}
+			slot = (slot + 1) & mask;
+		}
+		elements[slot] = value;
+		if (++size > resizeAt)
+		{
+			rehash(elements.length << 1);
+		}
+		return true;
+	}
+	
+	/**
+	 * Checks if the value is there.
+	 * 
+	 * @param value
+	 *            the value
+	 * @return true, if there
+	 */
+	public boolean contains(final long value)
+	{
+		return value == 0 ? hasZero : find(value) >= 0;
+	}
+	
+	/**
+	 * Removes the value.
+	 * 
+	 * @param value
+	 *            the value
+	 * @return true, if it was there
+	 */
+	public boolean remove(final long value)
+	{
+		if (value == 0)
+		{
+			final boolean removed = hasZero;
+			hasZero = false;
+			return removed;
+		}
+		final int slot = find(value);
+		if (slot < 0)
+		{
+			return false;
+		}
+		shiftBack(slot);
+		size--;
+		return true;
+	}
+	
+	/**
+	 * Calls the procedure for each element, in no particular order. The set
+	 * must not be modified meanwhile.
+	 * 
+	 * @param procedure
+	 *            the procedure
+	 * @return true, if all the elements are visited
+	 */
+	public boolean forEach(final Procedure procedure)
+	{
+		if (hasZero && !procedure.apply(0))
+		{
+			return false;
+		}
+		final long[] elements = this.elements;
+		for (int slot = 0; slot < elements.length; slot++)
+		{
+			if (elements[slot] != 0 && !procedure.apply(elements[slot]))
+			{
+				return false;
+			}
+		}
+		return true;
+	}
+	
+	/**
+	 * Gets the elements as an array.
+	 * 
+	 * @return the array, in no particular order
+	 */
+	public long[] toArray()
+	{
+		final long[] result = new long[size()];
+		int index = 0;
+		if (hasZero)
+		{
+			result[index++] = 0;
+		}
+		for (final long value : elements)
+		{
+			if (value != 0)
+			{
+				result[index++] = value;
+			}
+		}
+		return result;
+	}
+	
+	/**
+	 * Gets the no of elements.
+	 * 
+	 * @return the size
+	 */
+	public int size()
+	{
+		return hasZero ? size + 1 : size;
+	}
+	
+	/**
+	 * Checks if is empty.
+	 * 
+	 * @return true, if is empty
+	 */
+	public boolean isEmpty()
+	{
+		return size() == 0;
+	}
+	
+	/**
+	 * Removes all the elements, keeping the table.
+	 */
+	public void clear()
+	{
+		Arrays.fill(elements, 0);
+		size = 0;
+		hasZero = false;
+	}
+	
+	/**
+	 * Finds the slot of the given non zero value.
+	 * 
+	 * @param value
+	 *            the value
+	 * @return the slot, -1 if not there
+	 */
+	private int find(final long value)
+	{
+		final long[] elements = this.elements;
+		int slot = PrimitiveHashing.hash(value) & mask;
+		long current;
+		while ((current = elements[slot]) != 0)
+		{
+			if (current == value)
+			{
+				return slot;
+			}
+			slot = (slot + 1) & mask;
+		}
+		return -1;
+	}
+	
+	/**
+	 * Frees the given slot, shifting back the elements of the same probe
+	 * sequence that follow it.
+	 * 
+	 * @param slot
+	 *            the slot
+	 */
+	private void shiftBack(int slot)
+	{
+		int free = slot;
+		while (true)
+		{
+			slot = (slot + 1) & mask;
+			final long value = elements[slot];
+			if (value == 0)
+			{
+				break;
+			}
+			if (PrimitiveHashing.canShift(PrimitiveHashing.hash(value) & mask, slot, free, mask))
+			{
+				elements[free] = value;
+				free = slot;
+			}
+		}
+		elements[free] = 0;
+	}
+	
+	/**
+	 * Allocates the table of the given size.
+	 * 
+	 * @param tableSize
+	 *            the table size
+	 */
+	private void allocate(final int tableSize)
+	{
+		elements = new long[tableSize];
+		mask = tableSize - 1;
+		resizeAt = PrimitiveHashing.resizeAt(tableSize, loadFactor);
+	}
+	
+	/**
+	 * Moves the elements to a table of the given size.
+	 * 
+	 * @param tableSize
+	 *            the table size
+	 */
+	private void rehash(final int tableSize)
+	{
+		if (elements.length == PrimitiveHashing.MAX_CAPACITY)
+		{
+			throw new IllegalStateException("Can't grow beyond the max capacity: " + PrimitiveHashing.MAX_CAPACITY);
+		}
+		final long[] oldElements = elements;
+		allocate(tableSize);
+		for (final long value : oldElements)
+		{
+			if (value != 0)
+			{
+				int slot = PrimitiveHashing.hash(value) & mask;
+				while (elements[slot] != 0)
+				{
+					slot = (slot + 1) & mask;
+				}
+				elements[slot] = value;
+			}
+		}
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString()
+	{
+		final StringBuilder builder = new StringBuilder("[");
+		forEach(new Procedure()
+		{
+			public boolean apply(final long value)
+			{
+				if (builder.length() > 1)
+				{
+					builder.append(", ");
+				}
+				builder.append(value);
+				return true;
+			}
+		});
+		return builder.append(']').toString();
+	}
+}
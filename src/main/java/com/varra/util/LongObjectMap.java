@@ -0,0 +1,475 @@
+/*
+ * utils4j - LongObjectMap.java, Oct 18, 2026 10:58:33 PM
+ * 
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.varra.util;
+
+import java.util.Arrays;
+
+import com.varra.classification.InterfaceAudience;
+import com.varra.classification.InterfaceStability;
+
+/**
+ * A map of primitive <tt>long</tt> keys to objects, without the boxing and
+ * the entry objects of a {@link java.util.HashMap}, for the lookups keyed by
+ * a <tt>long</tt>, like the ids and the IPs from
+ * {@link com.varra.net.IPUtils#getIpAsLong(java.net.InetAddress)}.<br>
+ * It is an open addressing table of two arrays, probed linearly and kept
+ * free of tombstones by shifting the entries back on removal, so the
+ * lookups stay short after any no of removals.
+ * 
+ * <br>
+ * Every key can be stored: the key 0, which marks the free slots, is kept
+ * aside. The values can't be <tt>null</tt>, {@link #get(long)} returns
+ * <tt>null</tt> for the keys not there.
+ * {@link #forEach(Procedure)} iterates without creating any objects.
+ * 
+ * <br>
+ * Note: <b> It is not thread safe.</b>
+ * 
+ * @param <V>
+ *            the value type
+ * @author Rajakrishna V. Reddy
+ * @version 1.0
+ */
+@InterfaceAudience.Public
+@InterfaceStability.Evolving
+public class LongObjectMap<V>
+{
+	
+	/**
+	 * Called for each entry of the map.
+	 * 
+	 * @param <V>
+	 *            the value type
+	 */
+	public interface Procedure<V>
+	{
+		
+		/**
+		 * Called for the entry.
+		 * 
+		 * @param key
+		 *            the key
+		 * @param value
+		 *            the value
+		 * @return true to carry on, false to stop
+		 */
+		boolean apply(long key, V value);
+	}
+	
+	/** The load factor. */
+	private final float loadFactor;
+	
+	/** The keys, 0 marks a free slot. */
+	private long[] keys;
+	
+	/** The values. */
+	private Object[] values;
+	
+	/** The mask of the table size. */
+	private int mask;
+	
+	/** The no of entries at which the table is grown. */
+	private int resizeAt;
+	
+	/** The no of entries in the table. */
+	private int size;
+	
+	/** Whether the key 0 is there. */
+	private boolean hasZeroKey;
+	
+	/** The value of the key 0. */
+	private V zeroValue;
+	
+	/**
+	 * Instantiates a new map with the default capacity.
+	 */
+	public LongObjectMap()
+	{
+		this(PrimitiveHashing.DEFAULT_INITIAL_CAPACITY);
+	}
+	
+	/**
+	 * Instantiates a new map that holds the given no of entries without
+	 * growing.
+	 * 
+	 * @param expected
+	 *            the expected no of entries
+	 */
+	public LongObjectMap(final int expected)
+	{
+		this(expected, PrimitiveHashing.DEFAULT_LOAD_FACTOR);
+	}
+	
+	/**
+	 * Instantiates a new map.
+	 * 
+	 * @param expected
+	 *            the expected no of entries
+	 * @param loadFactor
+	 *            the load factor, between 0 and 1 exclusive
+	 */
+	public LongObjectMap(final int expected, final float loadFactor)
+	{
+		this.loadFactor = loadFactor;
+		allocate(PrimitiveHashing.tableSize(expected, loadFactor));
+	}
+	
+	/**
+	 * Gets the value of the given key.
+	 * 
+	 * @param key
+	 *            the key
+	 * @return the value, null if not there
+	 */
+	public V get(final long key)
+	{
+		return get(key, null);
+	}
+	
+	/**
+	 * Gets the value of the given key.
+	 * 
+	 * @param key
+	 *            the key
+	 * @param defaultValue
+	 *            the value returned if not there
+	 * @return the value
+	 */
+	public V get(final long key, final V defaultValue)
+	{
+		if (key == 0)
+		{
+			return hasZeroKey ? zeroValue : defaultValue;
+		}
+		final int slot = find(key);
+		return slot < 0 ? defaultValue : value(slot);
+	}
+	
+	/**
+	 * Checks if the key is there.
+	 * 
+	 * @param key
+	 *            the key
+	 * @return true, if there
+	 */
+	public boolean containsKey(final long key)
+	{
+		return key == 0 ? hasZeroKey : find(key) >= 0;
+	}
+	
+	/**
+	 * Puts the value of the given key.
+	 * 
+	 * @param key
+	 *            the key
+	 * @param value
+	 *            the value
+	 * @return the previous value, null if not there
+	 */
+	public V put(final long key, final V value)
+	{
+		if (value == null)
+		{
+			throw new NullPointerException("Value can't be null, key: " + key);
+		}
+		if (key == 0)
+		{
+			final V previous = hasZeroKey ? zeroValue : null;
+			zeroValue = value;
+			hasZeroKey = true;
+			return previous;
+		}
+		int slot = PrimitiveHashing.hash(key) & mask;
+		long current;
+		while ((current = keys[slot]) != 0)
+		{
+			if (current == key)
+			{
+				final V previous = value(slot);
+				values[slot] = value;
+				return previous;
+			}
+			slot = (slot + 1) & mask;
+		}
+		keys[slot] = key;
+		values[slot] = value;
+		if (++size > resizeAt)
+		{
+			rehash(keys.length << 1);
+		}
+		return null;
+	}
+	
+	/**
+	 * Puts the value of the given key, if it is not there.
+	 * 
+	 * @param key
+	 *            the key
+	 * @param value
+	 *            the value
+	 * @return the value there, null if put
+	 */
+	public V putIfAbsent(final long key, final V value)
+	{
+		final V current = get(key);
+		return current != null ? current : put(key, value);
+	}
+	
+	/**
+	 * Removes the given key.
+	 * 
+	 * @param key
+	 *            the key
+	 * @return the value removed, null if not there
+	 */
+	public V remove(final long key)
+	{
+		if (key == 0)
+		{
+			final V previous = hasZeroKey ? zeroValue : null;
+			hasZeroKey = false;
+			zeroValue = null;
+			return previous;
+		}
+		final int slot = find(key);
+		if (slot < 0)
+		{
+			return null;
+		}
+		final V previous = value(slot);
+		shiftBack(slot);
+		size--;
+		return previous;
+	}
+	
+	/**
+	 * Calls the procedure for each entry, in no particular order. The map must
+	 * not be modified meanwhile.
+	 * 
+	 * @param procedure
+	 *            the procedure
+	 * @return true, if all the entries are visited
+	 */
+	public boolean forEach(final Procedure<? super V> procedure)
+	{
+		if (hasZeroKey && !procedure.apply(0, zeroValue))
+		{
+			return false;
+		}
+		final long[] keys = this.keys;
+		final Object[] values = this.values;
+		for (int slot = 0; slot < keys.length; slot++)
+		{
+			if (keys[slot] != 0 && !procedure.apply(keys[slot], value(slot)))
+			{
+				return false;
+			}
+		}
+		return true;
+	}
+	
+	/**
+	 * Gets the keys.
+	 * 
+	 * @return the keys, in no particular order
+	 */
+	public long[] keys()
+	{
+		final long[] result = new long[size()];
+		int index = 0;
+		if (hasZeroKey)
+		{
+			result[index++] = 0;
+		}
+		for (final long key : keys)
+		{
+			if (key != 0)
+			{
+				result[index++] = key;
+			}
+		}
+		return result;
+	}
+	
+	/**
+	 * Gets the no of entries.
+	 * 
+	 * @return the size
+	 */
+	public int size()
+	{
+		return hasZeroKey ? size + 1 : size;
+	}
+	
+	/**
+	 * Checks if is empty.
+	 * 
+	 * @return true, if is empty
+	 */
+	public boolean isEmpty()
+	{
+		return size() == 0;
+	}
+	
+	/**
+	 * Removes all the entries, keeping the table.
+	 */
+	public void clear()
+	{
+		Arrays.fill(keys, 0);
+		Arrays.fill(values, null);
+		size = 0;
+		hasZeroKey = false;
+		zeroValue = null;
+	}
+	
+	/**
+	 * Gets the value at the given slot.
+	 * 
+	 * @param slot
+	 *            the slot
+	 * @return the value
+	 */
+	@SuppressWarnings("unchecked")
+	private V value(final int slot)
+	{
+		return (V) values[slot];
+	}
+	
+	/**
+	 * Finds the slot of the given non zero key.
+	 * 
+	 * @param key
+	 *            the key
+	 * @return the slot, -1 if not there
+	 */
+	private int find(final long key)
+	{
+		final long[] keys = this.keys;
+		int slot = PrimitiveHashing.hash(key) & mask;
+		long current;
+		while ((current = keys[slot]) != 0)
+		{
+			if (current == key)
+			{
+				return slot;
+			}
+			slot = (slot + 1) & mask;
+		}
+		return -1;
+	}
+	
+	/**
+	 * Frees the given slot, shifting back the entries of the same probe
+	 * sequence that follow it.
+	 * 
+	 * @param slot
+	 *            the slot
+	 */
+	private void shiftBack(int slot)
+	{
+		int free = slot;
+		while (true)
+		{
+			slot = (slot + 1) & mask;
+			final long key = keys[slot];
+			if (key == 0)
+			{
+				break;
+			}
+			if (PrimitiveHashing.canShift(PrimitiveHashing.hash(key) & mask, slot, free, mask))
+			{
+				keys[free] = key;
+				values[free] = values[slot];
+				free = slot;
+			}
+		}
+		keys[free] = 0;
+		values[free] = null;
+	}
+	
+	/**
+	 * Allocates the table of the given size.
+	 * 
+	 * @param tableSize
+	 *            the table size
+	 */
+	private void allocate(final int tableSize)
+	{
+		keys = new long[tableSize];
+		values = new Object[tableSize];
+		mask = tableSize - 1;
+		resizeAt = PrimitiveHashing.resizeAt(tableSize, loadFactor);
+	}
+	
+	/**
+	 * Moves the entries to a table of the given size.
+	 * 
+	 * @param tableSize
+	 *            the table size
+	 */
+	private void rehash(final int tableSize)
+	{
+		if (keys.length == PrimitiveHashing.MAX_CAPACITY)
+		{
+			throw new IllegalStateException("Can't grow beyond the max capacity: " + PrimitiveHashing.MAX_CAPACITY);
+		}
+		final long[] oldKeys = keys;
+		final Object[] oldValues = values;
+		allocate(tableSize);
+		for (int index = 0; index < oldKeys.length; index++)
+		{
+			final long key = oldKeys[index];
+			if (key != 0)
+			{
+				int slot = PrimitiveHashing.hash(key) & mask;
+				while (keys[slot] != 0)
+				{
+					slot = (slot + 1) & mask;
+				}
+				keys[slot] = key;
+				values[slot] = oldValues[index];
+			}
+		}
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString()
+	{
+		final StringBuilder builder = new StringBuilder("{");
+		forEach(new Procedure<V>()
+		{
+			public boolean apply(final long key, final V value)
+			{
+				if (builder.length() > 1)
+				{
+					builder.append(", ");
+				}
+				builder.append(key).append('=').append(value);
+				return true;
+			}
+		});
+		return builder.append('}').toString();
+	}
+}
@@ -0,0 +1,1476 @@
+/*
+ * utils4j - PersistentFIFOQueue.java, Oct 18, 2026 11:52:19 PM
+ * 
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.varra.util;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FilenameFilter;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import com.varra.classification.InterfaceAudience;
+import com.varra.classification.InterfaceStability;
+import com.varra.log.Logger;
+
+/**
+ * A {@link FIFOQueue} alternative which keeps its elements off the heap, in
+ * memory mapped segment files of a directory, so that a backlog of many GBs
+ * does not blow up the heap and survives the restarts.<br>
+ * The elements are serialized and appended to the last segment, and read
+ * from the first one. A new segment is started when the last one is full, and
+ * a segment read completely is recycled for the next one to be started,
+ * keeping a couple of them spare, or deleted.
+ * 
+ * <br>
+ * The read and write cursors and the no of elements are kept in a small
+ * memory mapped file along with the segments, written alternately in two
+ * slots after each operation, so a cursor being written when the JVM died is
+ * ignored and the previous one used. The elements and cursors reach the files
+ * even if the JVM dies, use {@link #flush()} to get them through a crash of
+ * the machine too.
+ * 
+ * <br>
+ * Like a fixed {@link FIFOQueue}, it evicts the oldest element when it is
+ * full and notifies the evicted element to the registered
+ * {@link BufferOverflowListener}s, see
+ * {@link #addFIFOQueueItemRemovedListener(BufferOverflowListener)}. The
+ * elements are serialized and deserialized outside of its lock, and the
+ * consumers can block on {@link #take()} or {@link #poll(long, TimeUnit)} and
+ * move the elements in batches with {@link #drainTo(Collection, int)}.
+ * 
+ * <br>
+ * Note: <b> It does not permit null elements, an element that can not be
+ * deserialized any more, e.g. as its class is changed incompatibly, is logged
+ * and skipped. A directory is to be used by one queue at a time, it is locked
+ * while the queue is open and opening another queue on it fails.</b>
+ * 
+ * @param <E>
+ *            the element type
+ * @author Rajakrishna V. Reddy
+ * @version 1.0
+ */
+@InterfaceAudience.Public
+@InterfaceStability.Evolving
+public class PersistentFIFOQueue<E extends Serializable> implements Closeable
+{
+	
+	/** The default size of a segment, in bytes. */
+	public static final int DEFAULT_SEGMENT_SIZE = 64 << 20;
+	
+	/** The min size of a segment, in bytes. */
+	public static final int MIN_SEGMENT_SIZE = 4096;
+	
+	/** The name of the file of the cursors. */
+	public static final String CURSORS_FILE = "queue.cursors";
+	
+	/** The suffix of the segment files. */
+	public static final String SEGMENT_SUFFIX = ".segment";
+	
+	/** The magic no of the files, VSPQ. */
+	private static final int MAGIC = 0x56535051;
+	
+	/** The version of the file format. */
+	private static final int VERSION = 1;
+	
+	/** The size of the cursors file. */
+	private static final int CURSORS_FILE_SIZE = 192;
+	
+	/** The offset of the first cursors slot, the header is before it. */
+	private static final int SLOTS = 64;
+	
+	/** The size of a cursors slot. */
+	private static final int SLOT_SIZE = 64;
+	
+	/** The offset of the seq of a slot, odd while the slot is written. */
+	private static final int SEQ = 0;
+	
+	/** The offset of the seq of the segment read. */
+	private static final int READ_SEGMENT = 8;
+	
+	/** The offset of the read offset. */
+	private static final int READ_OFFSET = 16;
+	
+	/** The offset of the seq of the segment written. */
+	private static final int WRITE_SEGMENT = 24;
+	
+	/** The offset of the write offset. */
+	private static final int WRITE_OFFSET = 32;
+	
+	/** The offset of the no of elements. */
+	private static final int COUNT = 40;
+	
+	/** The size of the header of a segment, the magic and its seq. */
+	private static final int SEGMENT_HEADER = 16;
+	
+	/** The length marking the end of the records of a segment. */
+	private static final int END_OF_SEGMENT = 0;
+	
+	/** The max no of segments kept for recycling. */
+	private static final int MAX_SPARE_SEGMENTS = 2;
+	
+	/** The logger to log the debugging messages as application runs. */
+	private static final Logger logger = Logger.getLogger(PersistentFIFOQueue.class);
+	
+	/**
+	 * The canonical paths of the directories of the queues open in this JVM.
+	 * The file lock only keeps out the other processes, and closing the file
+	 * in a second queue would release it, so these are checked first.
+	 */
+	private static final Set<String> OPEN_DIRECTORIES = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+	
+	/** The directory. */
+	private final File directory;
+	
+	/** The canonical path of the directory. */
+	private final String path;
+	
+	/** The size of a segment. */
+	private final int segmentSize;
+	
+	/** Specifies whether it is fixed or not. */
+	private final boolean isFixed;
+	
+	/** The capacity, -1 if not fixed. */
+	private final int capacity;
+	
+	/** Guards the cursors and the segments. */
+	private final ReentrantLock lock = new ReentrantLock();
+	
+	/** The condition the consumers wait on. */
+	private final Condition notEmpty = lock.newCondition();
+	
+	/** The condition the producers wait on for the space. */
+	private final Condition notFull = lock.newCondition();
+	
+	/** The cursors file opened. */
+	private final RandomAccessFile cursorsFile;
+	
+	/** The mapped cursors file. */
+	private final MappedByteBuffer cursors;
+	
+	/** The seq of the last cursors written. */
+	private long cursorsSeq;
+	
+	/** The segments from the one read to the one written. */
+	private final ArrayDeque<Segment> segments = new ArrayDeque<Segment>();
+	
+	/** The segments read completely, kept for recycling. */
+	private final ArrayDeque<Segment> spare = new ArrayDeque<Segment>();
+	
+	/** The offset of the next element to be read in the first segment. */
+	private int readOffset;
+	
+	/** The offset of the next element to be written in the last segment. */
+	private int writeOffset;
+	
+	/** The no of elements. */
+	private long count;
+	
+	/** Whether it is closed. */
+	private boolean closed;
+	
+	/** to hold the Listeners List. */
+	private volatile BufferOverflowListener<E>[] fifoQueueListeners = newListenerArray(0);
+	
+	/**
+	 * Opens the queue in the given directory, not fixed, creates it if not
+	 * found.
+	 * 
+	 * @param directory
+	 *            the directory
+	 * @throws IOException
+	 *             if the queue can not be opened or recovered
+	 */
+	public PersistentFIFOQueue(final File directory) throws IOException
+	{
+		this(directory, -1, false);
+	}
+	
+	/**
+	 * Opens the queue in the given directory, creates it if not found. It is
+	 * fixed to the given capacity if the isFixed tag is true.
+	 * 
+	 * @param directory
+	 *            the directory
+	 * @param capacity
+	 *            the capacity, used if fixed
+	 * @param isFixed
+	 *            the flag to tell whether it is gonna be fixed or not.
+	 * @throws IOException
+	 *             if the queue can not be opened or recovered
+	 */
+	public PersistentFIFOQueue(final File directory, final int capacity, final boolean isFixed) throws IOException
+	{
+		this(directory, capacity, isFixed, DEFAULT_SEGMENT_SIZE);
+	}
+	
+	/**
+	 * Opens the queue in the given directory, creates it with the given
+	 * segment size if not found, an existing queue keeps its segment size.
+	 * The capacity is not kept, the oldest elements of an existing queue
+	 * beyond it are evicted.
+	 * 
+	 * @param directory
+	 *            the directory
+	 * @param capacity
+	 *            the capacity, used if fixed
+	 * @param isFixed
+	 *            the flag to tell whether it is gonna be fixed or not.
+	 * @param segmentSize
+	 *            the segment size in bytes, which limits the size of a
+	 *            serialized element too
+	 * @throws IOException
+	 *             if the queue can not be opened or recovered
+	 */
+	public PersistentFIFOQueue(final File directory, final int capacity, final boolean isFixed, final int segmentSize) throws IOException
+	{
+		if (segmentSize < MIN_SEGMENT_SIZE || (isFixed && capacity <= 0))
+		{
+			throw new IllegalArgumentException("Invalid arguments, segmentSize: " + segmentSize + ", capacity: " + capacity);
+		}
+		if (!directory.isDirectory() && !directory.mkdirs())
+		{
+			throw new IOException("Unable to create the directory: " + directory);
+		}
+		this.directory = directory;
+		this.isFixed = isFixed;
+		this.capacity = isFixed ? capacity : -1;
+		final File file = new File(directory, CURSORS_FILE);
+		path = directory.getCanonicalPath();
+		if (!OPEN_DIRECTORIES.add(path))
+		{
+			throw new IOException("The directory: " + directory + " is in use by another queue of this JVM already.");
+		}
+		boolean opened = false;
+		try
+		{
+			cursorsFile = new RandomAccessFile(file, "rw");
+			try
+			{
+				lock(file);
+				final boolean exists = cursorsFile.length() >= CURSORS_FILE_SIZE;
+				cursors = cursorsFile.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, CURSORS_FILE_SIZE);
+				if (exists && cursors.getInt(0) != 0)
+				{
+					this.segmentSize = recover();
+					logger.info("Recovered {} element(s) in {} segment(s) of the queue: {}", count, segments.size(), directory);
+					trimToCapacity();
+				}
+				else
+				{
+					this.segmentSize = segmentSize;
+					deleteSegments(-1, -1);
+					segments.addLast(Segment.open(directory, 0, segmentSize, true));
+					readOffset = writeOffset = SEGMENT_HEADER;
+					saveCursors();
+					cursors.putInt(4, VERSION);
+					cursors.putInt(8, segmentSize);
+					cursors.putInt(0, MAGIC);
+				}
+			}
+			catch (IOException e)
+			{
+				closeSegments();
+				cursorsFile.close();
+				throw e;
+			}
+			opened = true;
+		}
+		finally
+		{
+			if (!opened)
+			{
+				OPEN_DIRECTORIES.remove(path);
+			}
+		}
+	}
+	
+	/**
+	 * Evicts the oldest elements recovered beyond the capacity, as it is not
+	 * persisted and can be smaller than the one the queue is written with.
+	 * They are evicted before any listener can be added, so only logged.
+	 */
+	private void trimToCapacity()
+	{
+		if (!isFixed || count <= capacity)
+		{
+			return;
+		}
+		logger.warn("Evicting {} element(s) recovered beyond the capacity: {} of the queue: {}", count - capacity, capacity, directory);
+		lock.lock();
+		try
+		{
+			while (count > capacity)
+			{
+				dequeue(false);
+			}
+		}
+		finally
+		{
+			lock.unlock();
+		}
+	}
+	
+	/**
+	 * Locks the cursors file, so no queue of another process opens the
+	 * directory meanwhile. The lock is released once the file is closed.
+	 * 
+	 * @param file
+	 *            the cursors file
+	 * @throws IOException
+	 *             if the directory is in use by another queue
+	 */
+	private void lock(final File file) throws IOException
+	{
+		FileLock fileLock;
+		try
+		{
+			fileLock = cursorsFile.getChannel().tryLock();
+		}
+		catch (OverlappingFileLockException e)
+		{
+			fileLock = null;
+		}
+		if (fileLock == null)
+		{
+			throw new IOException("The directory: " + directory + " is in use by another queue already, as its file: " + file + " is locked.");
+		}
+	}
+	
+	/**
+	 * Reads the cursors of an existing queue and opens its segments.
+	 * 
+	 * @return the segment size
+	 * @throws IOException
+	 *             if it is not a queue, or its segments are missing
+	 */
+	private int recover() throws IOException
+	{
+		if (cursors.getInt(0) != MAGIC || cursors.getInt(4) != VERSION)
+		{
+			throw new IOException("Not a persistent queue of version: " + VERSION + ", directory: " + directory);
+		}
+		final int segmentSize = cursors.getInt(8);
+		int slot = -1;
+		for (int index = 0; index < 2; index++)
+		{
+			final long seq = cursors.getLong(SLOTS + index * SLOT_SIZE + SEQ);
+			if ((seq & 1) == 0 && (slot < 0 || seq > cursorsSeq))
+			{
+				slot = index;
+				cursorsSeq = seq;
+			}
+		}
+		if (slot < 0)
+		{
+			throw new IOException("No valid cursors found, directory: " + directory);
+		}
+		final int base = SLOTS + slot * SLOT_SIZE;
+		final long readSegment = cursors.getLong(base + READ_SEGMENT);
+		final long writeSegment = cursors.getLong(base + WRITE_SEGMENT);
+		readOffset = cursors.getInt(base + READ_OFFSET);
+		writeOffset = cursors.getInt(base + WRITE_OFFSET);
+		count = cursors.getLong(base + COUNT);
+		for (long seq = readSegment; seq <= writeSegment; seq++)
+		{
+			if (!Segment.file(directory, seq).isFile())
+			{
+				throw new IOException("Missing the segment: " + seq + " of the queue: " + directory);
+			}
+			segments.addLast(Segment.open(directory, seq, segmentSize, false));
+		}
+		deleteSegments(readSegment, writeSegment);
+		return segmentSize;
+	}
+	
+	/**
+	 * Deletes the segment files out of the given range, left over by a crash
+	 * or a previous queue.
+	 * 
+	 * @param first
+	 *            the seq of the first segment to keep
+	 * @param last
+	 *            the seq of the last segment to keep
+	 */
+	private void deleteSegments(final long first, final long last)
+	{
+		final File[] files = directory.listFiles(new FilenameFilter()
+		{
+			public boolean accept(final File dir, final String name)
+			{
+				return name.endsWith(SEGMENT_SUFFIX);
+			}
+		});
+		if (files == null)
+		{
+			return;
+		}
+		for (final File file : files)
+		{
+			final long seq = Segment.seqOf(file);
+			if ((seq < first || seq > last) && !file.delete())
+			{
+				logger.warn("Unable to delete the stale segment: {}", file);
+			}
+		}
+	}
+	
+	/**
+	 * Writes the cursors to the older slot, the seq is odd while writing so
+	 * that a slot half written is ignored.
+	 */
+	private void saveCursors()
+	{
+		final long seq = cursorsSeq + 2;
+		final int base = SLOTS + (int) ((seq >> 1) & 1) * SLOT_SIZE;
+		cursors.putLong(base + SEQ, seq - 1);
+		cursors.putLong(base + READ_SEGMENT, segments.peekFirst().seq);
+		cursors.putInt(base + READ_OFFSET, readOffset);
+		cursors.putLong(base + WRITE_SEGMENT, segments.peekLast().seq);
+		cursors.putInt(base + WRITE_OFFSET, writeOffset);
+		cursors.putLong(base + COUNT, count);
+		cursors.putLong(base + SEQ, seq);
+		cursorsSeq = seq;
+	}
+	
+	/**
+	 * Pushes the specified value to this queue as the newest element, evicts
+	 * the oldest one and notifies it to the listeners if the queue is fixed
+	 * and full.
+	 * 
+	 * @param value
+	 *            the value to be inserted.
+	 * @throws IOException
+	 *             if the value can not be serialized, or a new segment can
+	 *             not be created
+	 */
+	public void push(final E value) throws IOException
+	{
+		final byte[] data = serialize(value);
+		byte[] evicted = null;
+		lock.lock();
+		try
+		{
+			ensureOpen();
+			if (isFull())
+			{
+				evicted = dequeue(fifoQueueListeners.length > 0);
+			}
+			enqueue(data);
+		}
+		finally
+		{
+			lock.unlock();
+		}
+		if (evicted != null)
+		{
+			final E element = deserialize(evicted);
+			if (element != null)
+			{
+				notifyListeners(element);
+			}
+		}
+	}
+	
+	/**
+	 * Pushes the specified value, same as {@link #push(Object)}.
+	 * 
+	 * @param value
+	 *            the value to be inserted.
+	 * @return true, always
+	 * @throws IOException
+	 *             if the value can not be serialized, or a new segment can
+	 *             not be created
+	 */
+	public boolean add(final E value) throws IOException
+	{
+		push(value);
+		return true;
+	}
+	
+	/**
+	 * Inserts the element like {@link #push(Object)}, unless it is fixed and
+	 * full, in which case it does not evict the oldest element but returns
+	 * false.
+	 * 
+	 * @param value
+	 *            the value to be inserted
+	 * @return true, if inserted
+	 * @throws IOException
+	 *             if the value can not be serialized, or a new segment can
+	 *             not be created
+	 */
+	public boolean offer(final E value) throws IOException
+	{
+		final byte[] data = serialize(value);
+		lock.lock();
+		try
+		{
+			ensureOpen();
+			if (isFull())
+			{
+				return false;
+			}
+			enqueue(data);
+			return true;
+		}
+		finally
+		{
+			lock.unlock();
+		}
+	}
+	
+	/**
+	 * Inserts the element like {@link #push(Object)}, waiting up to the
+	 * specified time if necessary for the space to become available when it is
+	 * fixed and full, rather than evicting the oldest element.
+	 * 
+	 * @param value
+	 *            the value to be inserted
+	 * @param timeout
+	 *            the timeout
+	 * @param unit
+	 *            the unit
+	 * @return true, if inserted, false if the timeout elapsed before the space
+	 *         is available
+	 * @throws IOException
+	 *             if the value can not be serialized, or a new segment can
+	 *             not be created
+	 * @throws InterruptedException
+	 *             if interrupted while waiting
+	 */
+	public boolean offer(final E value, final long timeout, final TimeUnit unit) throws IOException, InterruptedException
+	{
+		final byte[] data = serialize(value);
+		long nanos = unit.toNanos(timeout);
+		lock.lockInterruptibly();
+		try
+		{
+			ensureOpen();
+			while (isFull())
+			{
+				if (nanos <= 0)
+				{
+					return false;
+				}
+				nanos = notFull.awaitNanos(nanos);
+				ensureOpen();
+			}
+			enqueue(data);
+			return true;
+		}
+		finally
+		{
+			lock.unlock();
+		}
+	}
+	
+	/**
+	 * Pops the oldest element from the queue.
+	 * 
+	 * @return The value to be popped.
+	 * @throws NoSuchElementException
+	 *             if it is empty
+	 */
+	public E pop()
+	{
+		final E value = poll();
+		if (value == null)
+		{
+			throw new NoSuchElementException();
+		}
+		return value;
+	}
+	
+	/**
+	 * Retrieves and removes the oldest element, if any.
+	 * 
+	 * @return the oldest element, null if it is empty
+	 */
+	public E poll()
+	{
+		while (true)
+		{
+			final byte[] data;
+			lock.lock();
+			try
+			{
+				ensureOpen();
+				if (count == 0)
+				{
+					return null;
+				}
+				data = dequeue(true);
+			}
+			finally
+			{
+				lock.unlock();
+			}
+			final E value = deserialize(data);
+			if (value != null)
+			{
+				return value;
+			}
+		}
+	}
+	
+	/**
+	 * Retrieves and removes the oldest element, waiting if necessary until
+	 * one is available.
+	 * 
+	 * @return the oldest element
+	 * @throws InterruptedException
+	 *             if interrupted while waiting
+	 */
+	public E take() throws InterruptedException
+	{
+		while (true)
+		{
+			final byte[] data;
+			lock.lockInterruptibly();
+			try
+			{
+				ensureOpen();
+				while (count == 0)
+				{
+					notEmpty.await();
+					ensureOpen();
+				}
+				data = dequeue(true);
+				if (count > 0)
+				{
+					notEmpty.signal();
+				}
+			}
+			finally
+			{
+				lock.unlock();
+			}
+			final E value = deserialize(data);
+			if (value != null)
+			{
+				return value;
+			}
+		}
+	}
+	
+	/**
+	 * Retrieves and removes the oldest element, waiting up to the specified
+	 * time if necessary for one to become available.
+	 * 
+	 * @param timeout
+	 *            the timeout
+	 * @param unit
+	 *            the unit
+	 * @return the oldest element, null if the timeout elapsed before one is
+	 *         available
+	 * @throws InterruptedException
+	 *             if interrupted while waiting
+	 */
+	public E poll(final long timeout, final TimeUnit unit) throws InterruptedException
+	{
+		long nanos = unit.toNanos(timeout);
+		while (true)
+		{
+			final byte[] data;
+			lock.lockInterruptibly();
+			try
+			{
+				ensureOpen();
+				while (count == 0)
+				{
+					if (nanos <= 0)
+					{
+						return null;
+					}
+					nanos = notEmpty.awaitNanos(nanos);
+					ensureOpen();
+				}
+				data = dequeue(true);
+				if (count > 0)
+				{
+					notEmpty.signal();
+				}
+			}
+			finally
+			{
+				lock.unlock();
+			}
+			final E value = deserialize(data);
+			if (value != null)
+			{
+				return value;
+			}
+		}
+	}
+	
+	/**
+	 * Removes at most the given no of elements and adds them to the given
+	 * collection, the oldest first. The whole batch is read under a single
+	 * lock acquisition, and deserialized after it.
+	 * 
+	 * @param collection
+	 *            the collection to add the elements to
+	 * @param maxElements
+	 *            the max no of elements to move, none if not positive
+	 * @return the no of elements moved
+	 */
+	public int drainTo(final Collection<? super E> collection, final int maxElements)
+	{
+		final List<byte[]> batch;
+		lock.lock();
+		try
+		{
+			ensureOpen();
+			final int size = (int) Math.max(0, Math.min(maxElements, count));
+			batch = new ArrayList<byte[]>(size);
+			for (int index = 0; index < size; index++)
+			{
+				batch.add(dequeue(true));
+			}
+		}
+		finally
+		{
+			lock.unlock();
+		}
+		int moved = 0;
+		for (int index = 0; index < batch.size(); index++)
+		{
+			final E value = deserialize(batch.get(index));
+			if (value != null)
+			{
+				collection.add(value);
+				moved++;
+			}
+		}
+		return moved;
+	}
+	
+	/**
+	 * Removes all the elements and adds them to the given collection, the
+	 * oldest first.
+	 * 
+	 * @param collection
+	 *            the collection to add the elements to
+	 * @return the no of elements moved
+	 * @see #drainTo(Collection, int)
+	 */
+	public int drainTo(final Collection<? super E> collection)
+	{
+		return drainTo(collection, Integer.MAX_VALUE);
+	}
+	
+	/**
+	 * Retrieves, but does not remove, the oldest element.
+	 * 
+	 * @return the oldest element, null if it is empty
+	 */
+	public E peek()
+	{
+		final byte[] data;
+		lock.lock();
+		try
+		{
+			ensureOpen();
+			if (count == 0)
+			{
+				return null;
+			}
+			final Segment segment = skipEndOfSegment();
+			data = read(segment, readOffset);
+		}
+		finally
+		{
+			lock.unlock();
+		}
+		return deserialize(data);
+	}
+	
+	/**
+	 * Removes all the elements, recycling the segments.
+	 */
+	public void clear()
+	{
+		lock.lock();
+		try
+		{
+			ensureOpen();
+			final long removed = count;
+			final List<Segment> read = new ArrayList<Segment>(segments.size());
+			while (segments.size() > 1)
+			{
+				read.add(segments.pollFirst());
+			}
+			readOffset = writeOffset;
+			count = 0;
+			/** Saved before the segments are recycled, so a crash never points at them. */
+			saveCursors();
+			for (int index = 0; index < read.size(); index++)
+			{
+				retire(read.get(index));
+			}
+			signalNotFull(removed);
+		}
+		finally
+		{
+			lock.unlock();
+		}
+	}
+	
+	/**
+	 * Appends the serialized element to the last segment, starting a new one
+	 * if it does not fit, with the lock held.
+	 * 
+	 * @param data
+	 *            the data
+	 * @throws IOException
+	 *             if a new segment can not be created
+	 */
+	private void enqueue(final byte[] data) throws IOException
+	{
+		final int length = 4 + data.length;
+		Segment segment = segments.peekLast();
+		if (writeOffset + length > segmentSize)
+		{
+			final Segment next = nextSegment(segment.seq + 1);
+			if (writeOffset + 4 <= segmentSize)
+			{
+				segment.buffer.putInt(writeOffset, END_OF_SEGMENT);
+			}
+			segments.addLast(next);
+			segment = next;
+			writeOffset = SEGMENT_HEADER;
+		}
+		final ByteBuffer buffer = segment.buffer.duplicate();
+		buffer.position(writeOffset + 4);
+		buffer.put(data);
+		segment.buffer.putInt(writeOffset, data.length);
+		writeOffset += length;
+		count++;
+		saveCursors();
+		notEmpty.signal();
+	}
+	
+	/**
+	 * Removes the oldest element, with the lock held and the queue not empty.
+	 * 
+	 * @param copy
+	 *            whether to copy the element, or just skip it
+	 * @return the serialized element, null if not copied
+	 */
+	private byte[] dequeue(final boolean copy)
+	{
+		final Segment segment = skipEndOfSegment();
+		final int length = segment.buffer.getInt(readOffset);
+		final byte[] data = copy ? read(segment, readOffset) : null;
+		readOffset += 4 + length;
+		count--;
+		saveCursors();
+		signalNotFull(1);
+		return data;
+	}
+	
+	/**
+	 * Moves the read cursor to the next segment if the first one is read
+	 * completely, with the lock held and the queue not empty.
+	 * 
+	 * @return the segment to be read
+	 */
+	private Segment skipEndOfSegment()
+	{
+		final Segment segment = segments.peekFirst();
+		if (readOffset + 4 <= segmentSize && segment.buffer.getInt(readOffset) != END_OF_SEGMENT)
+		{
+			return segment;
+		}
+		segments.pollFirst();
+		readOffset = SEGMENT_HEADER;
+		/** Saved before the segment is recycled, so a crash never points at it. */
+		saveCursors();
+		retire(segment);
+		return segments.peekFirst();
+	}
+	
+	/**
+	 * Reads the serialized element at the given offset.
+	 * 
+	 * @param segment
+	 *            the segment
+	 * @param offset
+	 *            the offset
+	 * @return the data
+	 */
+	private static byte[] read(final Segment segment, final int offset)
+	{
+		final byte[] data = new byte[segment.buffer.getInt(offset)];
+		final ByteBuffer buffer = segment.buffer.duplicate();
+		buffer.position(offset + 4);
+		buffer.get(data);
+		return data;
+	}
+	
+	/**
+	 * Gets the segment to be written next, recycling a spare one if any.
+	 * 
+	 * @param seq
+	 *            the seq of the segment
+	 * @return the segment
+	 * @throws IOException
+	 *             if the segment can not be created
+	 */
+	private Segment nextSegment(final long seq) throws IOException
+	{
+		final Segment segment = spare.pollFirst();
+		if (segment != null)
+		{
+			if (segment.recycle(directory, seq))
+			{
+				return segment;
+			}
+			segment.delete();
+		}
+		return Segment.open(directory, seq, segmentSize, true);
+	}
+	
+	/**
+	 * Keeps the segment read completely for recycling, or deletes it.
+	 * 
+	 * @param segment
+	 *            the segment
+	 */
+	private void retire(final Segment segment)
+	{
+		if (spare.size() < MAX_SPARE_SEGMENTS)
+		{
+			spare.addLast(segment);
+		}
+		else
+		{
+			segment.delete();
+		}
+	}
+	
+	/**
+	 * Checks if it is fixed and full, with the lock held.
+	 * 
+	 * @return true, if full
+	 */
+	private boolean isFull()
+	{
+		return isFixed && count >= capacity;
+	}
+	
+	/**
+	 * Wakes up as many producers waiting for the space as the elements
+	 * removed, with the lock held.
+	 * 
+	 * @param removed
+	 *            the no of elements removed
+	 */
+	private void signalNotFull(final long removed)
+	{
+		if (isFixed)
+		{
+			for (long index = 0; index < removed; index++)
+			{
+				notFull.signal();
+			}
+		}
+	}
+	
+	/**
+	 * Makes sure it is not closed, with the lock held.
+	 */
+	private void ensureOpen()
+	{
+		if (closed)
+		{
+			throw new IllegalStateException("Queue is closed, directory: " + directory);
+		}
+	}
+	
+	/**
+	 * Serializes the element, checking it fits in a segment.
+	 * 
+	 * @param value
+	 *            the value
+	 * @return the data
+	 * @throws IOException
+	 *             if the value can not be serialized
+	 */
+	private byte[] serialize(final E value) throws IOException
+	{
+		if (value == null)
+		{
+			throw new NullPointerException();
+		}
+		final byte[] data = ObjectUtils.objectToByteArray(value);
+		if (data.length == END_OF_SEGMENT || 4 + data.length > segmentSize - SEGMENT_HEADER)
+		{
+			throw new IllegalArgumentException("Element of " + data.length + " bytes does not fit in a segment of " + segmentSize + " bytes.");
+		}
+		return data;
+	}
+	
+	/**
+	 * Deserializes the element, logs and skips it if it can't be.
+	 * 
+	 * @param data
+	 *            the data
+	 * @return the element, null if it can't be deserialized
+	 */
+	@SuppressWarnings("unchecked")
+	private E deserialize(final byte[] data)
+	{
+		try
+		{
+			return (E) ObjectUtils.byteArrayToObject(data);
+		}
+		catch (Exception e)
+		{
+			logger.error("Skipping the element of {} bytes that can not be deserialized, queue: {}", data.length, directory, e);
+			return null;
+		}
+	}
+	
+	/**
+	 * Notifies the {@link BufferOverflowListener} listeners with the item
+	 * removed.
+	 * 
+	 * @param e
+	 *            the e
+	 */
+	private void notifyListeners(final E e)
+	{
+		final BufferOverflowListener<E>[] listeners = fifoQueueListeners;
+		for (int index = 0; index < listeners.length; index++)
+		{
+			listeners[index].itemRemoved(e);
+		}
+	}
+	
+	/**
+	 * Adds the FIFOQueueItemRemovedListener to the list so that it can be
+	 * notified with an item that is evicted.
+	 * 
+	 * @param listener
+	 *            the listener
+	 */
+	public synchronized void addFIFOQueueItemRemovedListener(final BufferOverflowListener<E> listener)
+	{
+		if (listener != null)
+		{
+			final BufferOverflowListener<E>[] listeners = fifoQueueListeners;
+			final BufferOverflowListener<E>[] newListeners = newListenerArray(listeners.length + 1);
+			System.arraycopy(listeners, 0, newListeners, 0, listeners.length);
+			newListeners[listeners.length] = listener;
+			fifoQueueListeners = newListeners;
+		}
+	}
+	
+	/**
+	 * Removes the FIFOQueueItemRemovedListener from the list.
+	 * 
+	 * @param listener
+	 *            the listener
+	 */
+	public synchronized void removeFIFOQueueItemRemovedListener(final BufferOverflowListener<E> listener)
+	{
+		final BufferOverflowListener<E>[] listeners = fifoQueueListeners;
+		for (int index = 0; index < listeners.length; index++)
+		{
+			if (listeners[index].equals(listener))
+			{
+				final BufferOverflowListener<E>[] newListeners = newListenerArray(listeners.length - 1);
+				System.arraycopy(listeners, 0, newListeners, 0, index);
+				System.arraycopy(listeners, index + 1, newListeners, index, listeners.length - index - 1);
+				fifoQueueListeners = newListeners;
+				return;
+			}
+		}
+	}
+	
+	/**
+	 * Creates an array of the listeners, generic arrays can't be created
+	 * directly.
+	 * 
+	 * @param length
+	 *            the length
+	 * @return the array
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private static <E> BufferOverflowListener<E>[] newListenerArray(final int length)
+	{
+		return new BufferOverflowListener[length];
+	}
+	
+	/**
+	 * Gets the no of elements.
+	 * 
+	 * @return the size
+	 */
+	public long size()
+	{
+		lock.lock();
+		try
+		{
+			return count;
+		}
+		finally
+		{
+			lock.unlock();
+		}
+	}
+	
+	/**
+	 * Checks if it is empty.
+	 * 
+	 * @return true, if empty
+	 */
+	public boolean isEmpty()
+	{
+		return size() == 0;
+	}
+	
+	/**
+	 * Checks if is fixed.
+	 * 
+	 * @return true, if is fixed
+	 */
+	public boolean isFixed()
+	{
+		return isFixed;
+	}
+	
+	/**
+	 * Gets the capacity.
+	 * 
+	 * @return the capacity, -1 if not fixed
+	 */
+	public int getCapacity()
+	{
+		return capacity;
+	}
+	
+	/**
+	 * Gets the segment size.
+	 * 
+	 * @return the segment size in bytes
+	 */
+	public int getSegmentSize()
+	{
+		return segmentSize;
+	}
+	
+	/**
+	 * Gets the no of segments in use, besides the spare ones.
+	 * 
+	 * @return the no of segments
+	 */
+	public int getSegmentCount()
+	{
+		lock.lock();
+		try
+		{
+			return segments.size();
+		}
+		finally
+		{
+			lock.unlock();
+		}
+	}
+	
+	/**
+	 * Gets the directory.
+	 * 
+	 * @return the directory
+	 */
+	public File getDirectory()
+	{
+		return directory;
+	}
+	
+	/**
+	 * Writes the segments in use and the cursors through to the disk.
+	 */
+	public void flush()
+	{
+		lock.lock();
+		try
+		{
+			if (!closed)
+			{
+				for (final Segment segment : segments)
+				{
+					segment.buffer.force();
+				}
+				cursors.force();
+			}
+		}
+		finally
+		{
+			lock.unlock();
+		}
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see java.io.Closeable#close()
+	 */
+	public void close() throws IOException
+	{
+		lock.lock();
+		try
+		{
+			if (!closed)
+			{
+				flush();
+				closed = true;
+				closeSegments();
+				cursorsFile.close();
+				OPEN_DIRECTORIES.remove(path);
+				notEmpty.signalAll();
+				notFull.signalAll();
+			}
+		}
+		finally
+		{
+			lock.unlock();
+		}
+	}
+	
+	/**
+	 * Closes the files of the segments, the spare ones are deleted.
+	 */
+	private void closeSegments()
+	{
+		for (final Segment segment : segments)
+		{
+			segment.close();
+		}
+		for (final Segment segment : spare)
+		{
+			segment.delete();
+		}
+		segments.clear();
+		spare.clear();
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString()
+	{
+		final StringBuilder builder = new StringBuilder();
+		builder.append("PersistentFIFOQueue [directory=");
+		builder.append(directory);
+		builder.append(", size=");
+		builder.append(size());
+		builder.append(", capacity=");
+		builder.append(capacity);
+		builder.append(", segmentSize=");
+		builder.append(segmentSize);
+		builder.append("]");
+		return builder.toString();
+	}
+	
+	/**
+	 * A memory mapped segment file.
+	 */
+	private static final class Segment
+	{
+		
+		/** The seq. */
+		private long seq;
+		
+		/** The file. */
+		private File file;
+		
+		/** The file opened. */
+		private final RandomAccessFile raf;
+		
+		/** The mapped file. */
+		private final MappedByteBuffer buffer;
+		
+		/**
+		 * Instantiates a new segment.
+		 * 
+		 * @param seq
+		 *            the seq
+		 * @param file
+		 *            the file
+		 * @param raf
+		 *            the raf
+		 * @param buffer
+		 *            the buffer
+		 */
+		private Segment(final long seq, final File file, final RandomAccessFile raf, final MappedByteBuffer buffer)
+		{
+			this.seq = seq;
+			this.file = file;
+			this.raf = raf;
+			this.buffer = buffer;
+		}
+		
+		/**
+		 * Opens the segment of the given seq, creates it if asked.
+		 * 
+		 * @param directory
+		 *            the directory
+		 * @param seq
+		 *            the seq
+		 * @param size
+		 *            the size
+		 * @param create
+		 *            whether to create it
+		 * @return the segment
+		 * @throws IOException
+		 *             if it can not be opened, or is not the segment
+		 */
+		private static Segment open(final File directory, final long seq, final int size, final boolean create) throws IOException
+		{
+			final File file = file(directory, seq);
+			final RandomAccessFile raf = new RandomAccessFile(file, "rw");
+			try
+			{
+				final MappedByteBuffer buffer = raf.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, size);
+				if (create)
+				{
+					buffer.putLong(8, seq);
+					buffer.putInt(0, MAGIC);
+				}
+				else if (buffer.getInt(0) != MAGIC || buffer.getLong(8) != seq)
+				{
+					throw new IOException("Not the segment: " + seq + ", file: " + file);
+				}
+				return new Segment(seq, file, raf, buffer);
+			}
+			catch (IOException e)
+			{
+				raf.close();
+				throw e;
+			}
+		}
+		
+		/**
+		 * Reuses the segment as the one of the given seq, the records left in
+		 * it are beyond the write cursor hence never read.
+		 * 
+		 * @param directory
+		 *            the directory
+		 * @param seq
+		 *            the seq
+		 * @return true, if recycled
+		 */
+		private boolean recycle(final File directory, final long seq)
+		{
+			final File newFile = file(directory, seq);
+			if (!file.renameTo(newFile))
+			{
+				return false;
+			}
+			this.file = newFile;
+			this.seq = seq;
+			buffer.putLong(8, seq);
+			return true;
+		}
+		
+		/**
+		 * Closes the file, the mapping is released once it is collected.
+		 */
+		private void close()
+		{
+			try
+			{
+				raf.close();
+			}
+			catch (IOException e)
+			{
+				logger.warn("Unable to close the segment: {}", file, e);
+			}
+		}
+		
+		/**
+		 * Closes and deletes the file.
+		 */
+		private void delete()
+		{
+			close();
+			if (!file.delete())
+			{
+				logger.warn("Unable to delete the segment: {}", file);
+			}
+		}
+		
+		/**
+		 * Gets the file of the segment of the given seq.
+		 * 
+		 * @param directory
+		 *            the directory
+		 * @param seq
+		 *            the seq
+		 * @return the file
+		 */
+		private static File file(final File directory, final long seq)
+		{
+			return new File(directory, String.format("%019d", seq) + SEGMENT_SUFFIX);
+		}
+		
+		/**
+		 * Gets the seq of the segment file.
+		 * 
+		 * @param file
+		 *            the file
+		 * @return the seq, -1 if not a segment file
+		 */
+		private static long seqOf(final File file)
+		{
+			final String name = file.getName();
+			try
+			{
+				return Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length()));
+			}
+			catch (NumberFormatException e)
+			{
+				return -1;
+			}
+		}
+	}
+}
@@ -0,0 +1,132 @@
+/*
+ * utils4j - PrimitiveHashing.java, Oct 18, 2026 10:41:07 PM
+ * 
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.varra.util;
+
+/**
+ * The hashing shared by the open addressing primitive collections, like
+ * {@link IntIntMap} and {@link LongHashSet}: the tables are of a power of two
+ * size, probed linearly from the slot given by a multiplicative hash of the
+ * key, which spreads the sequential keys like ids and IPs.
+ * 
+ * @author Rajakrishna V. Reddy
+ * @version 1.0
+ */
+final class PrimitiveHashing
+{
+	
+	/** The Constant DEFAULT_INITIAL_CAPACITY. */
+	static final int DEFAULT_INITIAL_CAPACITY = 16;
+	
+	/** The Constant DEFAULT_LOAD_FACTOR. */
+	static final float DEFAULT_LOAD_FACTOR = 0.5f;
+	
+	/** The Constant MAX_CAPACITY, the max table size. */
+	static final int MAX_CAPACITY = 1 << 30;
+	
+	/**
+	 * Instantiates a new primitive hashing.
+	 */
+	private PrimitiveHashing()
+	{
+	}
+	
+	/**
+	 * Hashes the key.
+	 * 
+	 * @param key
+	 *            the key
+	 * @return the hash
+	 */
+	static int hash(final int key)
+	{
+		final int hash = key * 0x9E3779B9;
+		return hash ^ (hash >>> 16);
+	}
+	
+	/**
+	 * Hashes the key.
+	 * 
+	 * @param key
+	 *            the key
+	 * @return the hash
+	 */
+	static int hash(final long key)
+	{
+		final long hash = key * 0x9E3779B97F4A7C15L;
+		return (int) (hash ^ (hash >>> 32));
+	}
+	
+	/**
+	 * Gets the table size that holds the given no of entries within the load
+	 * factor.
+	 * 
+	 * @param expected
+	 *            the expected no of entries
+	 * @param loadFactor
+	 *            the load factor
+	 * @return the table size, a power of two
+	 */
+	static int tableSize(final int expected, final float loadFactor)
+	{
+		if (expected < 0 || !(loadFactor > 0 && loadFactor < 1))
+		{
+			throw new IllegalArgumentException("Invalid arguments, expected: " + expected + ", loadFactor: " + loadFactor);
+		}
+		final long needed = (long) Math.ceil(Math.max(expected, 2) / (double) loadFactor);
+		if (needed > MAX_CAPACITY)
+		{
+			throw new IllegalArgumentException("Too many entries, expected: " + expected);
+		}
+		return Integer.highestOneBit((int) needed - 1) << 1;
+	}
+	
+	/**
+	 * Gets the no of entries at which the table of the given size is grown.
+	 * 
+	 * @param tableSize
+	 *            the table size
+	 * @param loadFactor
+	 *            the load factor
+	 * @return the resize threshold
+	 */
+	static int resizeAt(final int tableSize, final float loadFactor)
+	{
+		return tableSize == MAX_CAPACITY ? MAX_CAPACITY - 1 : Math.min(tableSize - 1, (int) (tableSize * loadFactor));
+	}
+	
+	/**
+	 * Checks whether the entry found at the given slot, which belongs to the
+	 * home slot, can be shifted back to the free slot, i.e. the free slot
+	 * lies between its home slot and the slot it is at.
+	 * 
+	 * @param home
+	 *            the home slot of the entry
+	 * @param slot
+	 *            the slot of the entry
+	 * @param free
+	 *            the free slot
+	 * @param mask
+	 *            the mask
+	 * @return true, if it can be shifted
+	 */
+	static boolean canShift(final int home, final int slot, final int free, final int mask)
+	{
+		return ((slot - home) & mask) >= ((slot - free) & mask);
+	}
+}
@@ -23,12 +23,25 @@ import java.util.Collection;
 import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
+import java.util.function.Function;
 
 import javax.xml.bind.annotation.XmlElementWrapper;
 
 /**
  * A {@link RapidFastMap} which provides a fast map with concurrency. A thread
  * safe implementation is added on top of the Hash Map mechanism.
+ * <p>
+ * By default it is backed by a {@link LinkedHashMap} and is not thread safe.
+ * Use {@link #RapidFastMap(boolean)} to get it backed by a
+ * {@link ConcurrentHashMap}, or {@link #RapidFastMap(boolean, boolean)} to get
+ * it backed by a {@link ConcurrentLinkedHashMap} which keeps the insertion
+ * order too. In the concurrent modes {@link #putIfAbsent(Object, Object)},
+ * {@link #replace(Object, Object)}, {@link #remove(Object, Object)},
+ * {@link #computeIfAbsent(Object, Function)} and
+ * {@link #merge(Object, Object, BiFunction)} are atomic, and neither the key
+ * nor the value can be <tt>null</tt>.
  * 
  * @param <K>
  *            the key type
@@ -45,7 +58,7 @@ public class RapidFastMap<K, V> implements Cloneable, Serializable
 	
 	/** The map. */
 	@XmlElementWrapper
-	final private LinkedHashMap<K, V> map;
+	final private Map<K, V> map;
 	
 	/**
 	 * Instantiates a new empty rapid fast map with a default initial capacity,
@@ -68,6 +81,52 @@ public class RapidFastMap<K, V> implements Cloneable, Serializable
 		map = new LinkedHashMap<K, V>(tempMap);
 	}
 	
+	/**
+	 * Instantiates a new empty rapid fast map, backed by a
+	 * {@link ConcurrentHashMap} if concurrent, which does not keep the
+	 * insertion order.
+	 * 
+	 * @param concurrent
+	 *            whether it has to be thread safe
+	 */
+	public RapidFastMap(final boolean concurrent)
+	{
+		this(concurrent, false);
+	}
+	
+	/**
+	 * Instantiates a new empty rapid fast map, backed by a
+	 * {@link ConcurrentLinkedHashMap} if concurrent and ordered, by a
+	 * {@link ConcurrentHashMap} if just concurrent.
+	 * 
+	 * @param concurrent
+	 *            whether it has to be thread safe
+	 * @param ordered
+	 *            whether it has to keep the insertion order, always true if
+	 *            not concurrent
+	 */
+	public RapidFastMap(final boolean concurrent, final boolean ordered)
+	{
+		if (concurrent)
+		{
+			map = ordered ? new ConcurrentLinkedHashMap<K, V>() : new ConcurrentHashMap<K, V>();
+		}
+		else
+		{
+			map = new LinkedHashMap<K, V>();
+		}
+	}
+	
+	/**
+	 * Checks if this is thread safe.
+	 * 
+	 * @return true, if is concurrent
+	 */
+	public boolean isConcurrent()
+	{
+		return !(map instanceof LinkedHashMap);
+	}
+	
 	/**
 	 * Returns <tt>true</tt> if this map contains no key-value mappings.
 	 * <p>
@@ -200,9 +259,47 @@ public class RapidFastMap<K, V> implements Cloneable, Serializable
 	 */
 	public V putIfAbsent(K key, V value)
 	{
-		if (map.containsKey(key) && map.get(key).equals(value))
-			return map.put(key, value);
-		return null;
+		return map.putIfAbsent(key, value);
+	}
+	
+	/**
+	 * If the specified key is not already associated with a value, computes
+	 * its value using the given mapping function and enters it into this map
+	 * unless <tt>null</tt>.
+	 * 
+	 * Note: <b>In the concurrent modes the function is applied at most once
+	 * per key, atomically.</b>
+	 * 
+	 * @param key
+	 *            key with which the specified value is to be associated.
+	 * @param mappingFunction
+	 *            the function to compute a value
+	 * @return the current (existing or computed) value associated with the
+	 *         specified key, or null if the computed value is null
+	 */
+	public V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction)
+	{
+		return map.computeIfAbsent(key, mappingFunction);
+	}
+	
+	/**
+	 * If the specified key is not already associated with a value, associates
+	 * it with the given value. Otherwise, replaces the value with the results
+	 * of the given remapping function, or removes if the result is
+	 * <tt>null</tt>.
+	 * 
+	 * @param key
+	 *            key with which the resulting value is to be associated.
+	 * @param value
+	 *            the value to be merged with the existing value.
+	 * @param remappingFunction
+	 *            the function to recompute a value if present
+	 * @return the new value associated with the specified key, or null if no
+	 *         value is associated with the key
+	 */
+	public V merge(K key, V value, BiFunction<? super V, ? super V, ? extends V> remappingFunction)
+	{
+		return map.merge(key, value, remappingFunction);
 	}
 	
 	/**
@@ -260,12 +357,7 @@ public class RapidFastMap<K, V> implements Cloneable, Serializable
 	 */
 	public boolean remove(K key, V value)
 	{
-		if (map.containsKey(key) && map.get(key).equals(value))
-		{
-			map.remove(key);
-			return true;
-		}
-		return false;
+		return map.remove(key, value);
 	}
 	
 	/**
@@ -295,8 +387,7 @@ public class RapidFastMap<K, V> implements Cloneable, Serializable
 	 */
 	public boolean replace(K key, V oldValue, V newValue)
 	{
-		V value = map.put(key, newValue);
-		return value != null && value.equals(oldValue);
+		return map.replace(key, oldValue, newValue);
 	}
 	
 	/**
@@ -321,7 +412,7 @@ public class RapidFastMap<K, V> implements Cloneable, Serializable
 	 */
 	public V replace(K key, V value)
 	{
-		return map.put(key, value);
+		return map.replace(key, value);
 	}
 	
 	/**
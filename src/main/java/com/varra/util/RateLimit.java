@@ -0,0 +1,71 @@
+/*
+ * utils4j - RateLimit.java, Oct 18, 2026 10:25:09 PM
+ * 
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.varra.util;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import com.varra.classification.InterfaceAudience;
+import com.varra.classification.InterfaceStability;
+
+/**
+ * Declares the max rate at which the instances of an
+ * {@link EnhancedTimerTask} class are executed, all of them together, by any
+ * {@link SafeThread}. The executions due beyond the rate are held back till
+ * a permit is available, rather than dropped.
+ * 
+ * <pre>
+ * &#64;RateLimit(permitsPerSecond = 5, burst = 10)
+ * public class ReportMailer extends EnhancedTimerTask
+ * </pre>
+ * 
+ * A task can also be given a {@link RateLimiter} of its own, see
+ * {@link EnhancedTimerTask#setRateLimiter(RateLimiter)}.
+ * 
+ * @author <a href="mailto:varra@outlook.com">Rajakrishna V.
+ *         Reddy</a>
+ * @version 1.0
+ */
+@Documented
+@Inherited
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+@InterfaceAudience.Public
+@InterfaceStability.Evolving
+public @interface RateLimit
+{
+	
+	/**
+	 * The executions per second.
+	 * 
+	 * @return the permits per second
+	 */
+	double permitsPerSecond();
+	
+	/**
+	 * The executions that can be let through at once.
+	 * 
+	 * @return the burst
+	 */
+	int burst() default 1;
+}
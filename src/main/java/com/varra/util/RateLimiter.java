@@ -0,0 +1,130 @@
+/*
+ * utils4j - RateLimiter.java, Oct 18, 2026 11:52:10 PM
+ * 
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.varra.util;
+
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import com.varra.classification.InterfaceAudience;
+import com.varra.classification.InterfaceStability;
+
+/**
+ * Limits the rate, or the concurrency, of the calls made through it, like the
+ * outbound calls made from {@link EnhancedTimerTask#compute()}, replacing the
+ * hand written {@link Thread#sleep(long)}s.<br>
+ * The permits are taken without locking, {@link #tryAcquire(int)} never
+ * blocks, {@link #acquire(int)} blocks till they are available and
+ * {@link #acquireAsync(int, ScheduledExecutorService, Runnable)} runs a task
+ * once they are, without holding a thread meanwhile.
+ * 
+ * <br>
+ * The implementations are {@link TokenBucketRateLimiter},
+ * {@link SlidingWindowRateLimiter}, {@link SlidingLogRateLimiter} and
+ * {@link ConcurrencyLimiter}, use {@link KeyedRateLimiter} for the limits per
+ * tenant and {@link RateLimit} to declare the max rate of a task class.
+ * 
+ * @author <a href="mailto:varra@outlook.com">Rajakrishna V.
+ *         Reddy</a>
+ * @version 1.0
+ */
+@InterfaceAudience.Public
+@InterfaceStability.Evolving
+public interface RateLimiter
+{
+	
+	/**
+	 * Acquires the given permits if they are available right away.
+	 * 
+	 * @param permits
+	 *            the permits
+	 * @return true, if acquired
+	 */
+	boolean tryAcquire(int permits);
+	
+	/**
+	 * Acquires the given permits, waiting at most the given time for them.
+	 * 
+	 * @param permits
+	 *            the permits
+	 * @param timeout
+	 *            the timeout
+	 * @param unit
+	 *            the unit
+	 * @return true, if acquired
+	 * @throws InterruptedException
+	 *             if interrupted while waiting
+	 */
+	boolean tryAcquire(int permits, long timeout, TimeUnit unit) throws InterruptedException;
+	
+	/**
+	 * Acquires the given permits, waiting till they are available.
+	 * 
+	 * @param permits
+	 *            the permits
+	 * @throws InterruptedException
+	 *             if interrupted while waiting
+	 */
+	void acquire(int permits) throws InterruptedException;
+	
+	/**
+	 * Runs the given task on the scheduler once the given permits are
+	 * acquired, retrying when they are expected to be available.
+	 * 
+	 * @param permits
+	 *            the permits
+	 * @param scheduler
+	 *            the scheduler
+	 * @param task
+	 *            the task
+	 * @return the future of the task, cancel it to give up acquiring
+	 */
+	Future<?> acquireAsync(int permits, ScheduledExecutorService scheduler, Runnable task);
+	
+	/**
+	 * Gives back the permits acquired, only meaningful for the limits on
+	 * the calls in progress like {@link ConcurrencyLimiter}, the rate limits
+	 * ignore it.
+	 * 
+	 * @param permits
+	 *            the permits
+	 */
+	void release(int permits);
+	
+	/**
+	 * Gets the time till the given permits are expected to be available, it is
+	 * only a hint as the other callers may take them meanwhile.
+	 * 
+	 * @param permits
+	 *            the permits
+	 * @param unit
+	 *            the unit
+	 * @return the wait time, 0 if they are available right away
+	 */
+	long getWaitTime(int permits, TimeUnit unit);
+	
+	/**
+	 * Checks if it is in the same state as a new one, i.e. no permits are in
+	 * use, so that it can be discarded and created again without changing the
+	 * limits.
+	 * 
+	 * @return true, if is idle
+	 */
+	boolean isIdle();
+}
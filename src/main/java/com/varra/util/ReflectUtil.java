@@ -58,9 +58,6 @@ import static com.varra.util.ObjectUtils.*;
 public class ReflectUtil
 {
 	
-	/** The Constant VOID. */
-	private static final String VOID = "void";
-	
 	/** The Constant LOGGER. */
 	private static final Logger logger = Logger.getLogger(ReflectUtil.class);
 	
@@ -1557,7 +1554,7 @@ public class ReflectUtil
 		}
 		catch (Exception e)
 		{
-			logger.debug("Error while getting the method of type: " + annotation + ", from: " + type, e);
+			logger.debug("Error while getting the method of type: {}, from: {}", annotation, type, e);
 		}
 		return false;
 	}
@@ -1594,7 +1591,7 @@ public class ReflectUtil
 		}
 		catch (Exception e)
 		{
-			logger.debug("Error while getting the list of methods: " + type, e);
+			logger.debug("Error while getting the list of methods: {}", type, e);
 		}
 		return list;
 	}
@@ -1622,9 +1619,8 @@ public class ReflectUtil
 	{
 		try
 		{
-			final Method method = getDeclaredMethod(type, methodName, equalsIgnoreCase);
-			method.setAccessible(true);
-			if (method.getReturnType() == Void.class || method.getReturnType().toString().equals(VOID))
+			final ClassMetadata.MethodEntry method = ClassMetadata.of(type.getClass()).getMethod(methodName, equalsIgnoreCase);
+			if (method.isVoid())
 			{
 				method.invoke(type, args);
 				return (V) Void.getInstance();
@@ -1636,7 +1632,7 @@ public class ReflectUtil
 		}
 		catch (Exception e)
 		{
-			logger.debug("Error while getting the field value of: " + methodName, e);
+			logger.debug("Error while getting the field value of: {}", methodName, e);
 		}
 		return null;
 	}
@@ -1664,27 +1660,26 @@ public class ReflectUtil
 	{
 		try
 		{
-			final Method method = getDeclaredMethod(type, methodName, equalsIgnoreCase);
-			method.setAccessible(true);
-			final Class<?>[] paramTypes = method.getParameterTypes();
-			final List<Object> newArgs = new ArrayList<Object>(args.length);
+			final ClassMetadata.MethodEntry method = ClassMetadata.of(type.getClass()).getMethod(methodName, equalsIgnoreCase);
+			final Class<?>[] paramTypes = method.getMethod().getParameterTypes();
+			final Object[] newArgs = new Object[args.length];
 			for (int j = 0; j < args.length; j++)
 			{
-				newArgs.add(to(args[j], paramTypes[j]));
+				newArgs[j] = to(args[j], paramTypes[j]);
 			}
-			if (method.getReturnType() == Void.class || method.getReturnType().toString().equals(VOID))
+			if (method.isVoid())
 			{
-				method.invoke(type, newArgs.toArray());
+				method.invoke(type, newArgs);
 				return (V) Void.getInstance();
 			}
 			else
 			{
-				return (V) method.invoke(type, newArgs.toArray());
+				return (V) method.invoke(type, newArgs);
 			}
 		}
 		catch (Exception e)
 		{
-			logger.debug("Error while getting the field value of: " + methodName, e);
+			logger.debug("Error while getting the field value of: {}", methodName, e);
 		}
 		return null;
 	}
@@ -1704,18 +1699,8 @@ public class ReflectUtil
 	 */
 	public static <T> Method getDeclaredMethod(T type, String methodName, boolean equalsIgnoreCase)
 	{
-		final Method[] methods = type.getClass().getMethods();
-		for (int i = 0; i < methods.length; i++)
-		{
-			final Method method = methods[i];
-			final String name = method.getName();
-			final boolean isMethodAvailable = equalsIgnoreCase ? name.equalsIgnoreCase(methodName) : name.equals(methodName);
-			if (isMethodAvailable)
-			{
-				return method;
-			}
-		}
-		return null;
+		final ClassMetadata.MethodEntry method = ClassMetadata.of(type.getClass()).getMethod(methodName, equalsIgnoreCase);
+		return isNotNull(method) ? method.getMethod() : null;
 	}
 	
 	/**
@@ -1737,13 +1722,11 @@ public class ReflectUtil
 	{
 		try
 		{
-			final Field field = getDeclaredField(type, name, equalsIgnoreCase);
-			field.setAccessible(true);
-			return (V) field.get(type);
+			return (V) ClassMetadata.of(type.getClass()).getField(name, equalsIgnoreCase).get(type);
 		}
 		catch (Exception e)
 		{
-			logger.debug("Error while setting the field value of: " + name, e);
+			logger.debug("Error while setting the field value of: {}", name, e);
 		}
 		return null;
 	}
@@ -1766,13 +1749,11 @@ public class ReflectUtil
 	{
 		try
 		{
-			final Field field = getDeclaredField(type, name, false);
-			field.setAccessible(true);
-			field.set(type, value);
+			ClassMetadata.of(type.getClass()).getField(name, false).set(type, value);
 		}
 		catch (Exception e)
 		{
-			logger.debug("Error while setting the field value of: " + name, e);
+			logger.debug("Error while setting the field value of: {}", name, e);
 		}
 	}
 	
@@ -1794,14 +1775,13 @@ public class ReflectUtil
 	{
 		try
 		{
-			final Field field = getDeclaredField(type, name, false);
-			field.setAccessible(true);
-			field.set(type, to(value, field.getType()));
+			final ClassMetadata.FieldEntry field = ClassMetadata.of(type.getClass()).getField(name, false);
+			field.set(type, to(value, field.getField().getType()));
 			return true;
 		}
 		catch (Exception e)
 		{
-			logger.debug("Error while setting the field value of: " + name, e);
+			logger.debug("Error while setting the field value of: {}", name, e);
 		}
 		return false;
 	}
@@ -1823,28 +1803,15 @@ public class ReflectUtil
 	{
 		try
 		{
-			final Field[] declaredFields = type.getClass().getDeclaredFields();
-			for (Field field : declaredFields)
+			final ClassMetadata.FieldEntry field = ClassMetadata.of(type.getClass()).getField(name, equalsIgnoreCase);
+			if (isNotNull(field))
 			{
-				if (equalsIgnoreCase)
-				{
-					if (field.getName().equalsIgnoreCase(name))
-					{
-						return field;
-					}
-				}
-				else
-				{
-					if (field.getName().equals(name))
-					{
-						return field;
-					}
-				}
+				return field.getField();
 			}
 		}
 		catch (Exception e)
 		{
-			logger.debug("Error while getting the field value of: " + name, e);
+			logger.debug("Error while getting the field value of: {}", name, e);
 		}
 		return null;
 	}
@@ -1887,7 +1854,7 @@ public class ReflectUtil
 		}
 		catch (Exception e)
 		{
-			logger.debug("Error while getting the field value of: " + name, e);
+			logger.debug("Error while getting the field value of: {}", name, e);
 		}
 		return null;
 	}
@@ -1930,7 +1897,7 @@ public class ReflectUtil
 		}
 		catch (Exception e)
 		{
-			logger.debug("Error while getting the field value of: " + name, e);
+			logger.debug("Error while getting the field value of: {}", name, e);
 		}
 		return null;
 	}
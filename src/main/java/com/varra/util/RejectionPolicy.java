@@ -0,0 +1,81 @@
+/*
+ * utils4j - RejectionPolicy.java, Oct 18, 2026 9:12:37 PM
+ * 
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.varra.util;
+
+import com.varra.classification.InterfaceAudience;
+import com.varra.classification.InterfaceStability;
+
+/**
+ * An {@link Enum} that lists what a {@link BoundedExecutor} does with a task
+ * when its queue is full and all of its threads are busy.
+ * 
+ * @author <a href="mailto:varra@outlook.com">Rajakrishna V.
+ *         Reddy</a>
+ * @version 1.0
+ */
+@InterfaceAudience.Public
+@InterfaceStability.Evolving
+public enum RejectionPolicy
+{
+	
+	/**
+	 * Runs the task in the submitting thread, which slows down the submitter
+	 * as long as the executor can not keep up. Not to be used with a
+	 * {@link SafeThread}, whose dispatcher would then run the tasks itself
+	 * and stop scheduling the others meanwhile.
+	 */
+	CALLER_RUNS,
+	
+	/** Drops the oldest task waiting in the queue and queues the new one. */
+	DROP_OLDEST,
+	
+	/** Drops the new task. */
+	DROP_NEWEST,
+	
+	/**
+	 * Drops a task if one with the same {@link EnhancedTimerTask#getName()} is
+	 * still waiting in the queue, whether the queue is full or not, as running
+	 * it once covers both. Drops the new task when the queue is full.
+	 */
+	COALESCE;
+	
+	/**
+	 * Gets the {@link RejectionPolicy} for the given name, ignoring the case.
+	 * 
+	 * @param name
+	 *            the name
+	 * @param defValue
+	 *            the default value, returned if name is null or unknown
+	 * @return the rejection policy
+	 */
+	public static RejectionPolicy getPolicy(final String name, final RejectionPolicy defValue)
+	{
+		if (name != null)
+		{
+			for (final RejectionPolicy policy : values())
+			{
+				if (policy.name().equalsIgnoreCase(name.trim()))
+				{
+					return policy;
+				}
+			}
+		}
+		return defValue;
+	}
+}
@@ -0,0 +1,396 @@
+/*
+ * utils4j - RingBufferQueue.java, Oct 18, 2026 11:02:17 AM
+ * 
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.varra.util;
+
+import java.util.AbstractQueue;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import com.varra.classification.InterfaceAudience;
+import com.varra.classification.InterfaceStability;
+
+/**
+ * A lock-free, array backed and fixed {@link FIFOQueue} alternative which can
+ * be used by any number of producers and consumers at the same time.<br>
+ * The buffer is allocated up front with the given capacity, hence
+ * {@link #addLast(Object)} and {@link #pop()} do not allocate any memory.
+ * 
+ * <br>
+ * Like a fixed {@link FIFOQueue}, it evicts the oldest element when it is
+ * full and notifies the evicted element to the registered
+ * {@link BufferOverflowListener}s, see
+ * {@link #addFIFOQueueItemRemovedListener(BufferOverflowListener)}.
+ * 
+ * <br>
+ * Note: <b> It does not permit null elements, and the {@link #iterator()} is
+ * a weakly consistent snapshot of the elements.</b>
+ * 
+ * @param <E>
+ *            the element type
+ * @author Rajakrishna V. Reddy
+ * @version 1.0
+ */
+@InterfaceAudience.Public
+@InterfaceStability.Evolving
+public class RingBufferQueue<E> extends AbstractQueue<E>
+{
+	
+	/** The capacity. */
+	private final int capacity;
+	
+	/** The elements. */
+	private final AtomicReferenceArray<E> buffer;
+	
+	/**
+	 * The sequence of each slot, tells whether the slot is ready to be written
+	 * or read by the given position.
+	 */
+	private final AtomicLongArray sequences;
+	
+	/** The position of the next element to be written. */
+	private final AtomicLong tail = new AtomicLong();
+	
+	/** The position of the next element to be read. */
+	private final AtomicLong head = new AtomicLong();
+	
+	/** to hold the Listeners List. */
+	private volatile BufferOverflowListener<E>[] fifoQueueListeners = newListenerArray(0);
+	
+	/**
+	 * Creates a queue of the specified capacity.
+	 * 
+	 * @param capacity
+	 *            the capacity
+	 */
+	public RingBufferQueue(final int capacity)
+	{
+		if (capacity <= 0)
+		{
+			throw new IllegalArgumentException("Capacity should be greater than zero, capacity: " + capacity);
+		}
+		this.capacity = capacity;
+		buffer = new AtomicReferenceArray<E>(capacity);
+		sequences = new AtomicLongArray(capacity);
+		for (int index = 0; index < capacity; index++)
+		{
+			sequences.set(index, index);
+		}
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see java.util.Queue#offer(java.lang.Object)
+	 */
+	public boolean offer(final E value)
+	{
+		if (value == null)
+		{
+			throw new NullPointerException();
+		}
+		while (true)
+		{
+			final long position = tail.get();
+			final int index = (int) (position % capacity);
+			final long difference = sequences.get(index) - position;
+			if (difference == 0)
+			{
+				if (tail.compareAndSet(position, position + 1))
+				{
+					buffer.lazySet(index, value);
+					sequences.lazySet(index, position + 1);
+					return true;
+				}
+			}
+			else if (difference < 0)
+			{
+				/** Full. */
+				return false;
+			}
+		}
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see java.util.Queue#poll()
+	 */
+	public E poll()
+	{
+		while (true)
+		{
+			final long position = head.get();
+			final int index = (int) (position % capacity);
+			final long difference = sequences.get(index) - (position + 1);
+			if (difference == 0)
+			{
+				if (head.compareAndSet(position, position + 1))
+				{
+					final E value = buffer.get(index);
+					buffer.lazySet(index, null);
+					sequences.lazySet(index, position + capacity);
+					return value;
+				}
+			}
+			else if (difference < 0)
+			{
+				/** Empty. */
+				return null;
+			}
+		}
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see java.util.Queue#peek()
+	 */
+	public E peek()
+	{
+		while (true)
+		{
+			final long position = head.get();
+			final int index = (int) (position % capacity);
+			final long difference = sequences.get(index) - (position + 1);
+			if (difference < 0)
+			{
+				return null;
+			}
+			final E value = buffer.get(index);
+			if (difference == 0 && value != null && head.get() == position)
+			{
+				return value;
+			}
+		}
+	}
+	
+	/**
+	 * Appends the specified value to the end of this queue, evicts the oldest
+	 * ones and notifies them to the listeners if the queue is full.
+	 * 
+	 * @param value
+	 *            the value to be inserted.
+	 * @return true, always
+	 */
+	public boolean addLast(final E value)
+	{
+		while (!offer(value))
+		{
+			final E evicted = poll();
+			if (evicted != null)
+			{
+				notifyListeners(evicted);
+			}
+		}
+		return true;
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see java.util.AbstractQueue#add(java.lang.Object)
+	 */
+	@Override
+	public boolean add(final E value)
+	{
+		return addLast(value);
+	}
+	
+	/**
+	 * Pushes the specified value to this queue. This is same as
+	 * {@link #addLast(Object)}, but kept for naming conventions of
+	 * {@link FIFOQueue}.
+	 * 
+	 * @param value
+	 *            the value to be inserted.
+	 */
+	public void push(final E value)
+	{
+		addLast(value);
+	}
+	
+	/**
+	 * Pops the oldest element from the queue. This is same as {@link #poll()},
+	 * but kept for naming conventions of {@link FIFOQueue}.
+	 * 
+	 * @return The value to be popped, null if it is empty.
+	 */
+	public E pop()
+	{
+		return poll();
+	}
+	
+	/**
+	 * Notifies the {@link BufferOverflowListener} listeners with the item
+	 * removed.
+	 * 
+	 * @param e
+	 *            the e
+	 */
+	private void notifyListeners(final E e)
+	{
+		final BufferOverflowListener<E>[] listeners = fifoQueueListeners;
+		for (int index = 0; index < listeners.length; index++)
+		{
+			listeners[index].itemRemoved(e);
+		}
+	}
+	
+	/**
+	 * Adds the FIFOQueueItemRemovedListener to the list so that it can be
+	 * notified with an item that is to be removed.
+	 * 
+	 * @param listener
+	 *            the listener
+	 */
+	public synchronized void addFIFOQueueItemRemovedListener(final BufferOverflowListener<E> listener)
+	{
+		if (listener != null)
+		{
+			final BufferOverflowListener<E>[] listeners = fifoQueueListeners;
+			final BufferOverflowListener<E>[] newListeners = newListenerArray(listeners.length + 1);
+			System.arraycopy(listeners, 0, newListeners, 0, listeners.length);
+			newListeners[listeners.length] = listener;
+			fifoQueueListeners = newListeners;
+		}
+	}
+	
+	/**
+	 * Removes the FIFOQueueItemRemovedListener from the list.
+	 * 
+	 * @param listener
+	 *            the listener
+	 */
+	public synchronized void removeFIFOQueueItemRemovedListener(final BufferOverflowListener<E> listener)
+	{
+		final BufferOverflowListener<E>[] listeners = fifoQueueListeners;
+		for (int index = 0; index < listeners.length; index++)
+		{
+			if (listeners[index].equals(listener))
+			{
+				final BufferOverflowListener<E>[] newListeners = newListenerArray(listeners.length - 1);
+				System.arraycopy(listeners, 0, newListeners, 0, index);
+				System.arraycopy(listeners, index + 1, newListeners, index, listeners.length - index - 1);
+				fifoQueueListeners = newListeners;
+				return;
+			}
+		}
+	}
+	
+	/**
+	 * Creates an array of the listeners, generic arrays can't be created
+	 * directly.
+	 * 
+	 * @param length
+	 *            the length
+	 * @return the array
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private static <E> BufferOverflowListener<E>[] newListenerArray(final int length)
+	{
+		return new BufferOverflowListener[length];
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see java.util.AbstractCollection#size()
+	 */
+	@Override
+	public int size()
+	{
+		while (true)
+		{
+			final long before = head.get();
+			final long written = tail.get();
+			if (head.get() == before)
+			{
+				final long size = written - before;
+				return size <= 0 ? 0 : (int) Math.min(size, capacity);
+			}
+		}
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see java.util.AbstractCollection#isEmpty()
+	 */
+	@Override
+	public boolean isEmpty()
+	{
+		return peek() == null;
+	}
+	
+	/**
+	 * Gets the capacity.
+	 * 
+	 * @return the capacity
+	 */
+	public int getCapacity()
+	{
+		return capacity;
+	}
+	
+	/**
+	 * Checks if is fixed, it is always fixed.
+	 * 
+	 * @return true, always
+	 */
+	public boolean isFixed()
+	{
+		return true;
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see java.util.AbstractCollection#iterator()
+	 */
+	@Override
+	public Iterator<E> iterator()
+	{
+		final List<E> snapshot = new ArrayList<E>(size());
+		final long written = tail.get();
+		for (long position = Math.max(head.get(), written - capacity); position < written; position++)
+		{
+			final E value = buffer.get((int) (position % capacity));
+			if (value != null)
+			{
+				snapshot.add(value);
+			}
+		}
+		return snapshot.iterator();
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see java.util.AbstractCollection#toString()
+	 */
+	@Override
+	public String toString()
+	{
+		return this.getClass().getSimpleName() + ": " + super.toString();
+	}
+}
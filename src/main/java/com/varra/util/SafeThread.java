@@ -20,11 +20,18 @@ package com.varra.util;
 
 import static com.varra.util.ObjectUtils.*;
 
-import java.util.Collections;
-import java.util.LinkedHashMap;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 
 import com.varra.log.Logger;
 import com.varra.classification.InterfaceAudience;
@@ -58,7 +65,31 @@ import com.varra.listener.TimerTaskListener;
  * register for notifications.<br>
  * 
  * Use {@link #removeTimerTaskListener(TimerTaskListener, Class)} to
- * unregister from notifications.
+ * unregister from notifications.<br>
+ * The listeners are notified off the dispatcher thread, in order per
+ * listener, see {@link TimerTaskListeners}.<br>
+ * 
+ * The way the events are dispatched is decided by the {@link SchedulerMode},
+ * {@link SchedulerMode#POLLING} by default. In {@link SchedulerMode#DEADLINE}
+ * mode the flags of a task (like {@link EnhancedTimerTask#setExpired(boolean)})
+ * are looked at on its next deadline, submit it again through
+ * {@link #onTimerTask(EnhancedTimerTask)} to get them looked at right away. A
+ * task cancelled with {@link EnhancedTimerTask#cancel()} wakes this up right
+ * away in both the modes.
+ * 
+ * <br>
+ * A task signalled with {@link EnhancedTimerTask#trigger()} wakes this up
+ * right away in both the modes, rather than waiting for the next interval.
+ * A task with a {@link RateLimiter} (see {@link RateLimit}) is held back,
+ * when due, till a permit is available.
+ * 
+ * <br>
+ * Use {@link #enableStats()} to record the dispatch lag, run time and
+ * overruns of the tasks, see {@link SchedulerStats}.
+ * 
+ * <br>
+ * Use {@link #setCheckpoint(SchedulerCheckpoint)} to carry the state of the
+ * periodic tasks across the restarts.
  * 
  * @author Rajakrishna V. Reddy
  * @version 1.0
@@ -84,7 +115,7 @@ public class SafeThread implements Runnable, TimerTaskReceiver
 	private transient FIFOQueue<EnhancedTimerTask> queue;
 	
 	/** The listeners. */
-	private transient Map<Class<? extends EnhancedTimerTask>, TimerTaskListener> listeners;
+	private final transient TimerTaskListeners listeners;
 	
 	/** The thread pool. */
 	private ExecutorService threadPool;
@@ -92,6 +123,36 @@ public class SafeThread implements Runnable, TimerTaskReceiver
 	/** The interval. */
 	protected long interval = 1000;
 	
+	/** The scheduler mode. */
+	private final SchedulerMode mode;
+	
+	/** The tasks ordered by their deadlines, used in DEADLINE mode. */
+	private transient PriorityBlockingQueue<ScheduledTask> schedule;
+	
+	/** The scheduled tasks, accessed only by the event handler. */
+	private transient Map<EnhancedTimerTask, ScheduledTask> scheduled;
+	
+	/** The tasks drained from the queue, accessed only by the event handler. */
+	private transient List<EnhancedTimerTask> submitted;
+	
+	/** The tasks triggered since the last pass, used in DEADLINE mode. */
+	private final transient ConcurrentLinkedQueue<EnhancedTimerTask> triggered = new ConcurrentLinkedQueue<EnhancedTimerTask>();
+	
+	/** Used to wake up the event handler. */
+	private final Lock wakeUpLock = new ReentrantLock();
+	
+	/** The wake up condition. */
+	private final Condition wakeUpCondition = wakeUpLock.newCondition();
+	
+	/** Whether a wake up has been requested since the last wait. */
+	private boolean wakeUpPending;
+	
+	/** The stats, null unless enabled. */
+	private volatile SchedulerStats stats;
+	
+	/** The checkpoint, null unless set. */
+	private volatile SchedulerCheckpoint checkpoint;
+	
 	/**
 	 * Instantiates a new safe thread.
 	 * 
@@ -113,10 +174,47 @@ public class SafeThread implements Runnable, TimerTaskReceiver
 	 */
 	public SafeThread(final String name, final ExecutorService threadPool)
 	{
+		this(name, threadPool, SchedulerMode.POLLING);
+	}
+	
+	/**
+	 * Instantiates a new safe thread.
+	 * 
+	 * @param name
+	 *            the name
+	 * @param threadPool
+	 *            the thread pool
+	 * @param mode
+	 *            the scheduler mode
+	 */
+	public SafeThread(final String name, final ExecutorService threadPool, final SchedulerMode mode)
+	{
+		this(name, threadPool, mode, null);
+	}
+	
+	/**
+	 * Instantiates a new safe thread, notifying the given listeners.
+	 * 
+	 * @param name
+	 *            the name
+	 * @param threadPool
+	 *            the thread pool
+	 * @param mode
+	 *            the scheduler mode
+	 * @param listeners
+	 *            the listeners, may be shared with the other
+	 *            {@link SafeThread}s, null to have its own
+	 */
+	protected SafeThread(final String name, final ExecutorService threadPool, final SchedulerMode mode, final TimerTaskListeners listeners)
+	{
+		this.mode = isNotNull(mode) ? mode : SchedulerMode.POLLING;
 		eventHandler = new Thread(this, isNotNull(name) ? name : this.getClass().getSimpleName());
 		this.threadPool = threadPool;
 		queue = new FIFOQueue<EnhancedTimerTask>();
-		listeners = new LinkedHashMap<Class<? extends EnhancedTimerTask>, TimerTaskListener>();
+		this.listeners = isNotNull(listeners) ? listeners : new TimerTaskListeners(eventHandler.getName());
+		schedule = new PriorityBlockingQueue<ScheduledTask>();
+		scheduled = new IdentityHashMap<EnhancedTimerTask, ScheduledTask>();
+		submitted = new ArrayList<EnhancedTimerTask>();
 		logger = Logger.getLogger(this.getClass().getName() + "-" + name);
 	}
 	
@@ -171,7 +269,17 @@ public class SafeThread implements Runnable, TimerTaskReceiver
 			logger.info("Received the request to stop the SafeThread, waiting to complete the background work.");
 			stop();
 			queue.signalAll();
+			wakeUp();
 			threadPool.shutdownNow();
+			listeners.shutdown();
+			if (isNotNull(checkpoint))
+			{
+				checkpoint.flush();
+			}
+			if (isNotNull(stats))
+			{
+				stats.unRegister();
+			}
 		}
 		catch (Exception e)
 		{
@@ -186,21 +294,126 @@ public class SafeThread implements Runnable, TimerTaskReceiver
 	 */
 	protected List<EnhancedTimerTask> getTasks()
 	{
+		if (mode == SchedulerMode.DEADLINE)
+		{
+			final List<EnhancedTimerTask> tasks = new ArrayList<EnhancedTimerTask>(queue);
+			for (final Object entry : schedule.toArray())
+			{
+				tasks.add(((ScheduledTask) entry).task);
+			}
+			return tasks;
+		}
 		return queue;
 	}
 	
 	/**
-	 * Gets the listeners.
+	 * Gets the thread pool the tasks are executed on.
 	 * 
-	 * @return the tasks
+	 * @return the thread pool
+	 */
+	public ExecutorService getThreadPool()
+	{
+		return threadPool;
+	}
+	
+	/**
+	 * Gets the scheduler mode.
+	 * 
+	 * @return the mode
+	 */
+	public SchedulerMode getMode()
+	{
+		return mode;
+	}
+	
+	/**
+	 * Enables the stats of the tasks, if not done so far, and registers them
+	 * as an MBean. Only the tasks executed from now on are recorded.
+	 * 
+	 * @return the stats
+	 */
+	public synchronized SchedulerStats enableStats()
+	{
+		if (stats == null)
+		{
+			final SchedulerStats newStats = new SchedulerStats(eventHandler.getName());
+			newStats.register();
+			stats = newStats;
+		}
+		return stats;
+	}
+	
+	/**
+	 * Gets the stats of the tasks.
+	 * 
+	 * @return the stats, null unless enabled through {@link #enableStats()}
+	 */
+	public SchedulerStats getStats()
+	{
+		return stats;
+	}
+	
+	/**
+	 * Sets the checkpoint the state of the tasks is recorded to after each
+	 * execution, and restored from when they are submitted, so that they
+	 * carry on from where they were left after a restart. Only the tasks with
+	 * a unique {@link EnhancedTimerTask#setCheckpointKey(String)} are
+	 * recorded. It is flushed on {@link #shutdown()}, but closed by the owner.
+	 * 
+	 * @param checkpoint
+	 *            the checkpoint, null to stop recording
+	 * @see SchedulerCheckpoint
+	 */
+	public void setCheckpoint(final SchedulerCheckpoint checkpoint)
+	{
+		this.checkpoint = checkpoint;
+	}
+	
+	/**
+	 * Gets the checkpoint.
+	 * 
+	 * @return the checkpoint, null unless set
+	 */
+	public SchedulerCheckpoint getCheckpoint()
+	{
+		return checkpoint;
+	}
+	
+	/**
+	 * Gets the first listener of every task type, use
+	 * {@link #getAllListeners()} to get all of them.
+	 * 
+	 * @return the listeners by their task types
 	 */
 	public Map<Class<? extends EnhancedTimerTask>, TimerTaskListener> getListeners()
 	{
-		return Collections.unmodifiableMap(listeners);
+		return listeners.getFirst();
+	}
+	
+	/**
+	 * Gets all the listeners.
+	 * 
+	 * @return the listeners by their task types, in the order they are added
+	 */
+	public Map<Class<? extends EnhancedTimerTask>, List<TimerTaskListener>> getAllListeners()
+	{
+		return listeners.getAll();
+	}
+	
+	/**
+	 * Gets the {@link TimerTaskListeners}, to look at the notifications
+	 * dropped.
+	 * 
+	 * @return the timer task listeners
+	 */
+	public TimerTaskListeners getTimerTaskListeners()
+	{
+		return listeners;
 	}
 	
 	/**
-	 * Adds the timer task listener.
+	 * Adds the timer task listener, any number of them can listen to the
+	 * same type.
 	 * 
 	 * @param listener
 	 *            the listener
@@ -208,13 +421,9 @@ public class SafeThread implements Runnable, TimerTaskReceiver
 	 *            the type
 	 * @return true, if successful
 	 */
-	public synchronized boolean addTimerTaskListener(TimerTaskListener listener, Class<? extends EnhancedTimerTask> type)
+	public boolean addTimerTaskListener(TimerTaskListener listener, Class<? extends EnhancedTimerTask> type)
 	{
-		if (isNotNull(listener) && isNotNull(type))
-		{
-			return listeners.put(type, listener) != null;
-		}
-		return false;
+		return listeners.add(listener, type);
 	}
 	
 	/**
@@ -226,39 +435,26 @@ public class SafeThread implements Runnable, TimerTaskReceiver
 	 *            the type
 	 * @return true, if successful
 	 */
-	public synchronized boolean removeTimerTaskListener(TimerTaskListener listener, Class<? extends EnhancedTimerTask> type)
+	public boolean removeTimerTaskListener(TimerTaskListener listener, Class<? extends EnhancedTimerTask> type)
 	{
-		if (isNotNull(listener) && isNotNull(type))
-		{
-			return listeners.remove(type) != null;
-		}
-		return false;
+		return listeners.remove(listener, type);
 	}
 	
 	/**
-	 * Call back event.
+	 * Call back event, queues the notifications of the listeners, they are
+	 * called off the dispatcher thread.
 	 * 
 	 * @param task
 	 *            the task
 	 */
-	protected synchronized void callBackEvent(EnhancedTimerTask task)
+	protected void callBackEvent(EnhancedTimerTask task)
 	{
-		final TimerTaskListener listener = listeners.get(task.getClass());
-		if (isNotNull(listener))
+		final SchedulerCheckpoint checkpoint = this.checkpoint;
+		if (isNotNull(checkpoint))
 		{
-			if (task.isCanceled())
-			{
-				listener.omitOnCancel(task);
-			}
-			else if (task.isFinished())
-			{
-				listener.omitOnFinish(task);
-			}
-			else if (task.isExpired())
-			{
-				listener.omitOnExpiry(task);
-			}
+			checkpoint.remove(task);
 		}
+		listeners.callBack(task);
 	}
 	
 	/*
@@ -271,9 +467,15 @@ public class SafeThread implements Runnable, TimerTaskReceiver
 	{
 		if (isNotNull(timerTask))
 		{
-			logger.info("Received a new Timer Task: " + timerTask);
+			logger.info("Received a new Timer Task: {}", timerTask);
+			final SchedulerCheckpoint checkpoint = this.checkpoint;
+			if (isNotNull(checkpoint) && checkpoint.restore(timerTask))
+			{
+				logger.info("Restored the Timer Task from the checkpoint: {}", timerTask);
+			}
+			timerTask.setDispatcher(this);
 			queue.push(timerTask);
-			queue.signalAll();
+			wakeUp();
 		}
 		else
 		{
@@ -282,24 +484,97 @@ public class SafeThread implements Runnable, TimerTaskReceiver
 	}
 	
 	/**
-	 * Wait for some time.
+	 * Called when the given task is triggered, cancelled, or done with an
+	 * execution while triggered, wakes up the event handler to look at it.
 	 * 
-	 * @param interval
-	 *            the interval
+	 * @param task
+	 *            the task
+	 * @see EnhancedTimerTask#trigger()
+	 * @see EnhancedTimerTask#cancel()
 	 */
-	private void waitForSomeTime(final long interval)
+	void onTrigger(final EnhancedTimerTask task)
 	{
-		synchronized (this)
+		if (mode == SchedulerMode.DEADLINE)
 		{
-			try
-			{
-				logger.trace("I'll be in waiting for: " + interval + " ms");
-				this.wait(interval);
-			}
-			catch (InterruptedException e)
+			triggered.offer(task);
+		}
+		wakeUp();
+	}
+	
+	/**
+	 * Called when an execution of the given task is discarded without being
+	 * run and its triggers are re-armed. The event handler discarding it
+	 * while dispatching looks at it again once the pass is done, so it is
+	 * woken up only when discarded by the others, to not spin on a thread pool
+	 * that keeps on rejecting.
+	 * 
+	 * @param task
+	 *            the task
+	 * @see EnhancedTimerTask#onDiscard()
+	 */
+	void onDiscard(final EnhancedTimerTask task)
+	{
+		if (Thread.currentThread() != eventHandler)
+		{
+			onTrigger(task);
+		}
+	}
+	
+	/**
+	 * Wakes up the event handler if it is waiting for the next deadline or
+	 * interval.
+	 */
+	protected void wakeUp()
+	{
+		wakeUpLock.lock();
+		try
+		{
+			wakeUpPending = true;
+			wakeUpCondition.signal();
+		}
+		finally
+		{
+			wakeUpLock.unlock();
+		}
+	}
+	
+	/**
+	 * Waits till the given time is elapsed or someone calls {@link #wakeUp()},
+	 * whichever happens first.
+	 * 
+	 * @param waitTime
+	 *            the time to wait in ms, negative to wait till woken up
+	 */
+	private void waitForWakeUp(final long waitTime)
+	{
+		wakeUpLock.lock();
+		try
+		{
+			long nanos = TimeUnit.MILLISECONDS.toNanos(waitTime);
+			while (!wakeUpPending && isRunning())
 			{
-				logger.error(e);
+				if (waitTime < 0)
+				{
+					wakeUpCondition.await();
+				}
+				else if (nanos > 0)
+				{
+					nanos = wakeUpCondition.awaitNanos(nanos);
+				}
+				else
+				{
+					break;
+				}
 			}
+			wakeUpPending = false;
+		}
+		catch (InterruptedException e)
+		{
+			logger.error(e);
+		}
+		finally
+		{
+			wakeUpLock.unlock();
 		}
 	}
 	
@@ -330,6 +605,21 @@ public class SafeThread implements Runnable, TimerTaskReceiver
 	 * @see java.lang.Runnable#run()
 	 */
 	public void run()
+	{
+		if (mode == SchedulerMode.DEADLINE)
+		{
+			runByDeadline();
+		}
+		else
+		{
+			runByPolling();
+		}
+	}
+	
+	/**
+	 * Dispatches the tasks by walking the whole queue for every interval.
+	 */
+	private void runByPolling()
 	{
 		while (isRunning())
 		{
@@ -361,14 +651,16 @@ public class SafeThread implements Runnable, TimerTaskReceiver
 					break;
 				
 				final int size = queue.size();
-				logger.trace("I've " + size + " Event(s), and going to process.");
+				logger.trace("I've {} Event(s), and going to process.", size);
 				
+				/** The earliest time a trigger or a held back task is due. */
+				long dueTime = Long.MAX_VALUE;
 				for (int index = 0; index < size; index++)
 				{
 					final EnhancedTimerTask task = queue.pop();
 					if (task.isCanceled() || task.isFinished() || task.isExpired())
 					{
-						logger.info("Going to skip the event execution and remove the event from repository as It is " + (task.isFinished() ? "Finished" : (task.isCanceled() ? "cancelled" : "Expired")) + ", event: " + task);
+						logger.info("Going to skip the event execution and remove the event from repository as It is {}, event: {}", (task.isFinished() ? "Finished" : (task.isCanceled() ? "cancelled" : "Expired")), task);
 						
 						/**
 						 * Notifies the task execution status to the listener
@@ -381,18 +673,24 @@ public class SafeThread implements Runnable, TimerTaskReceiver
 					{
 						final long period = task.getPeriod();
 						Boolean executeThis = Boolean.FALSE;
-						if (task.getNoOfExecTimes() == 0) // Initially For the First time.
+						if (task.getNoOfExecTimes() == 0 && !task.isScheduled()) // Initially For the First time.
 						{
 							executeThis = Boolean.TRUE;
 						}
-						else if (period > 0 && task.getElapsedTime() > period)
+						else if (task.isScheduled() ? task.getNextExecutionTime() <= System.currentTimeMillis() : period > 0 && task.getElapsedTime() > period)
 						{
 							 /**
 							  * Being executed already, but because of delayed processing its dragged to next time interval, hence should not execute this again.
 							  */
 							if (task.isRunning())
 							{
-								logger.warn("Being executed already, but because of delayed processing its dragged to next time interval, hence should not execute this again: "+task.getName());
+								logger.warn("Being executed already, but because of delayed processing its dragged to next time interval, hence should not execute this again: {}", task.getName());
+								recordOverrun(task);
+								if (getInterval() <= 0)
+								{
+									/** Not woken up by the interval, it is looked at once done. */
+									task.wakeUpDispatcherWhenDone();
+								}
 								executeThis = Boolean.FALSE;
 							}
 							else
@@ -400,20 +698,25 @@ public class SafeThread implements Runnable, TimerTaskReceiver
 								executeThis = Boolean.TRUE;
 							}
 						}
-						else if (task.isExecuteImmediatelySet()) // Request for immediate execution.
+						else if (task.getTriggerDueTime() <= System.currentTimeMillis()) // Request for immediate execution.
 						{
 							executeThis = Boolean.TRUE;
-							logger.debug("Going to execute the task: " + task.getName()+", as it has requested for immediate execution.");
-							task.setExecuteImmediately(false);
+							logger.debug("Going to execute the task: {}, as it has requested for immediate execution.", task.getName());
 						}
 						if (executeThis)
 						{
-							logger.debug("Going to execute the task: " + task);
-							task.incrementNoOfExecTimes();
-							threadPool.submit(task);
-							task.updateNextExecutionTime();
-							task.setPrevExecutionTime(System.currentTimeMillis());
+							final long permitWait = task.acquirePermit();
+							if (permitWait > 0)
+							{
+								logger.debug("Holding back the task: {}, as it is rate limited for: {} ms", task.getName(), permitWait);
+								dueTime = Math.min(dueTime, System.currentTimeMillis() + permitWait);
+							}
+							else
+							{
+								execute(task);
+							}
 						}
+						dueTime = Math.min(dueTime, task.getTriggerDueTime());
 					}
 					else
 					{
@@ -433,7 +736,7 @@ public class SafeThread implements Runnable, TimerTaskReceiver
 					queue.addFirst(task);
 					// logger.info("Currently Executing Task: " + task);
 				}
-				waitForSomeTime(getInterval());
+				waitForWakeUp(getWaitTime(dueTime));
 			}
 			catch (Exception ex)
 			{
@@ -441,4 +744,318 @@ public class SafeThread implements Runnable, TimerTaskReceiver
 			}
 		}
 	}
-}
\ No newline at end of file
+	
+	/**
+	 * Dispatches the tasks in the order of their deadlines, sleeps till the
+	 * earliest one or till a new task is submitted.
+	 */
+	private void runByDeadline()
+	{
+		while (isRunning())
+		{
+			try
+			{
+				long now = System.currentTimeMillis();
+				drainSubmittedTasks(now);
+				drainTriggeredTasks(now);
+				
+				ScheduledTask entry;
+				while ((entry = schedule.peek()) != null && entry.deadline <= now)
+				{
+					schedule.poll();
+					final long deadline = dispatch(entry.task, now);
+					if (deadline < 0)
+					{
+						scheduled.remove(entry.task);
+					}
+					else
+					{
+						entry.deadline = deadline;
+						schedule.add(entry);
+					}
+				}
+				
+				if (!isRunning())
+					break;
+				
+				entry = schedule.peek();
+				now = System.currentTimeMillis();
+				if (entry == null)
+				{
+					logger.debug("Going to waiting mode as I don't have the events to process.");
+					waitForWakeUp(-1);
+				}
+				else if (entry.deadline == Long.MAX_VALUE)
+				{
+					logger.debug("Going to waiting mode as none of the tasks has a deadline.");
+					waitForWakeUp(-1);
+				}
+				else if (entry.deadline > now)
+				{
+					logger.trace("I'll be in waiting for: {} ms", entry.deadline - now);
+					waitForWakeUp(entry.deadline - now);
+				}
+			}
+			catch (Exception ex)
+			{
+				logger.error("Got an unExpected Error while processing events. Please have a look at stack trace.", ex);
+			}
+		}
+	}
+	
+	/**
+	 * Moves the newly submitted tasks to the schedule, a task submitted again
+	 * is due right away.
+	 * 
+	 * @param now
+	 *            the current time
+	 */
+	private void drainSubmittedTasks(final long now)
+	{
+		queue.drainTo(submitted);
+		for (int index = 0; index < submitted.size(); index++)
+		{
+			final EnhancedTimerTask task = submitted.get(index);
+			ScheduledTask entry = scheduled.get(task);
+			if (entry == null)
+			{
+				entry = new ScheduledTask(task, now);
+				scheduled.put(task, entry);
+			}
+			else
+			{
+				schedule.remove(entry);
+				entry.deadline = now;
+			}
+			schedule.add(entry);
+		}
+		submitted.clear();
+	}
+	
+	/**
+	 * Makes the tasks triggered since the last pass due right away, to get
+	 * their triggers looked at.
+	 * 
+	 * @param now
+	 *            the current time
+	 */
+	private void drainTriggeredTasks(final long now)
+	{
+		EnhancedTimerTask task;
+		while ((task = triggered.poll()) != null)
+		{
+			final ScheduledTask entry = scheduled.get(task);
+			if (entry != null && entry.deadline > now)
+			{
+				schedule.remove(entry);
+				entry.deadline = now;
+				schedule.add(entry);
+			}
+		}
+	}
+	
+	/**
+	 * Gets the time to wait in POLLING mode, the interval unless a trigger or a
+	 * task held back is due earlier.
+	 * 
+	 * @param dueTime
+	 *            the earliest due time
+	 * @return the wait time in ms, negative to wait till woken up
+	 */
+	private long getWaitTime(final long dueTime)
+	{
+		final long interval = getInterval();
+		if (dueTime == Long.MAX_VALUE)
+		{
+			/** Same as Object.wait(0), used to be. */
+			return interval > 0 ? interval : -1;
+		}
+		final long dueIn = Math.max(1, dueTime - System.currentTimeMillis());
+		return interval > 0 ? Math.min(interval, dueIn) : dueIn;
+	}
+	
+	/**
+	 * Dispatches the task that is due, the same way as it is done in the
+	 * POLLING mode, and tells when it has to be looked at again.
+	 * 
+	 * @param task
+	 *            the task
+	 * @param now
+	 *            the current time
+	 * @return the next deadline of the task, -1 if it has to be removed
+	 */
+	private long dispatch(final EnhancedTimerTask task, final long now)
+	{
+		if (task.isCanceled() || task.isFinished() || task.isExpired())
+		{
+			logger.info("Going to skip the event execution and remove the event from repository as It is {}, event: {}", (task.isFinished() ? "Finished" : (task.isCanceled() ? "cancelled" : "Expired")), task);
+			callBackEvent(task);
+			return -1;
+		}
+		if (task.getNoOfPendingTimes() <= 0)
+		{
+			task.setExpired(true);
+			return now;
+		}
+		
+		/** Scheduled tasks wait for their first fire time, unlike the others. */
+		final boolean timed = task.getPeriod() > 0 || task.isScheduled();
+		boolean executeThis = false;
+		if (task.getNoOfExecTimes() == 0 && !task.isScheduled())
+		{
+			executeThis = true;
+		}
+		else if (timed && task.getNextExecutionTime() <= now)
+		{
+			if (task.isRunning())
+			{
+				logger.warn("Being executed already, but because of delayed processing its dragged to next time interval, hence should not execute this again: {}", task.getName());
+				recordOverrun(task);
+				final long deadline = afterInterval(now);
+				if (deadline == Long.MAX_VALUE)
+				{
+					/** Looked at again once done, unless done meanwhile. */
+					task.wakeUpDispatcherWhenDone();
+					return task.isRunning() ? deadline : now;
+				}
+				return deadline;
+			}
+			executeThis = true;
+		}
+		else if (task.getTriggerDueTime() <= now)
+		{
+			logger.debug("Going to execute the task: {}, as it has requested for immediate execution.", task.getName());
+			executeThis = true;
+		}
+		if (executeThis)
+		{
+			final long permitWait = task.acquirePermit();
+			if (permitWait > 0)
+			{
+				logger.debug("Holding back the task: {}, as it is rate limited for: {} ms", task.getName(), permitWait);
+				return now + permitWait;
+			}
+			execute(task);
+		}
+		
+		/**
+		 * Tasks without a period are looked at for every interval, as they
+		 * can only run on an immediate execution request. The ones expired
+		 * meanwhile are removed right away, and the ones with a trigger due
+		 * are looked at by then.
+		 */
+		if (task.isExpired())
+		{
+			return now;
+		}
+		final long deadline = timed ? Math.max(task.getNextExecutionTime(), now) : afterInterval(now);
+		return Math.min(deadline, Math.max(task.getTriggerDueTime(), now + 1));
+	}
+	
+	/**
+	 * Gets the time a task that waits for the interval is looked at again,
+	 * never if the interval is not positive, as in the POLLING mode, where it
+	 * is looked at only when woken up.
+	 * 
+	 * @param now
+	 *            the current time
+	 * @return the deadline, {@link Long#MAX_VALUE} if none
+	 */
+	private long afterInterval(final long now)
+	{
+		final long interval = getInterval();
+		return interval > 0 ? now + interval : Long.MAX_VALUE;
+	}
+	
+	/**
+	 * Submits the task to the thread pool and updates its execution times.
+	 * 
+	 * @param task
+	 *            the task
+	 */
+	private void execute(final EnhancedTimerTask task)
+	{
+		logger.debug("Going to execute the task: {}", task);
+		task.onExecution(System.currentTimeMillis());
+		final SchedulerStats stats = this.stats;
+		try
+		{
+			if (isNotNull(stats))
+			{
+				/** The first and the immediate executions are due right away. */
+				final long lag = task.isScheduled() || (task.getNoOfExecTimes() > 0 && task.getPeriod() > 0) ? System.currentTimeMillis() - task.getNextExecutionTime() : 0;
+				task.incrementNoOfExecTimes();
+				threadPool.submit(stats.timed(task, TimeUnit.MILLISECONDS.toNanos(Math.max(0, lag))));
+			}
+			else
+			{
+				task.incrementNoOfExecTimes();
+				threadPool.submit(task);
+			}
+		}
+		catch (RejectedExecutionException e)
+		{
+			logger.warn("The thread pool has rejected the task: {}, hence discarding this execution, reason: {}", task.getName(), e.getMessage());
+			task.onDiscard();
+		}
+		task.updateNextExecutionTime();
+		task.setPrevExecutionTime(System.currentTimeMillis());
+		final SchedulerCheckpoint checkpoint = this.checkpoint;
+		if (isNotNull(checkpoint))
+		{
+			checkpoint.record(task);
+		}
+	}
+	
+	/**
+	 * Records the overrun of the task, if the stats are enabled.
+	 * 
+	 * @param task
+	 *            the task
+	 */
+	private void recordOverrun(final EnhancedTimerTask task)
+	{
+		final SchedulerStats stats = this.stats;
+		if (isNotNull(stats))
+		{
+			stats.recordOverrun(task);
+		}
+	}
+	
+	/**
+	 * A task along with its deadline in the schedule.
+	 */
+	private static final class ScheduledTask implements Comparable<ScheduledTask>
+	{
+		
+		/** The task. */
+		private final EnhancedTimerTask task;
+		
+		/** The deadline. */
+		private long deadline;
+		
+		/**
+		 * Instantiates a new scheduled task.
+		 * 
+		 * @param task
+		 *            the task
+		 * @param deadline
+		 *            the deadline
+		 */
+		private ScheduledTask(final EnhancedTimerTask task, final long deadline)
+		{
+			this.task = task;
+			this.deadline = deadline;
+		}
+		
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see java.lang.Comparable#compareTo(java.lang.Object)
+		 */
+		public int compareTo(final ScheduledTask other)
+		{
+			return deadline < other.deadline ? -1 : (deadline == other.deadline ? 0 : 1);
+		}
+	}
+}
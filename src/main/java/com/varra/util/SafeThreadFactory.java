@@ -18,6 +18,7 @@
  */
 package com.varra.util;
 
+import java.lang.reflect.Method;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -28,6 +29,12 @@ import com.varra.log.Logger;
  * The Safe thread factory which sets/resets the task's running status flag to
  * avoid the duplicate execution of same kind.
  * 
+ * <br>
+ * It creates virtual threads when asked so through
+ * {@link #SafeThreadFactory(boolean)} and the JVM supports them (Java 21 or
+ * later), they are looked up through reflection as this library is built for
+ * older versions. Otherwise it creates the platform threads.
+ * 
  * @author <a href="mailto:varra@outlook.com">Rajakrishna V.
  *         Reddy</a>
  * @version 1.0
@@ -51,16 +58,144 @@ public class SafeThreadFactory implements ThreadFactory
 	/** The name prefix. */
 	private final String namePrefix;
 	
+	/** The factory of the virtual threads, null for the platform threads. */
+	private final ThreadFactory virtualThreadFactory;
+	
+	/**
+	 * The factory of the virtual threads of the JVM, null if they are not
+	 * supported.
+	 */
+	private static final ThreadFactory VIRTUAL_THREAD_FACTORY = lookupVirtualThreadFactory();
+	
 	/**
 	 * Instantiates a new default thread factory.
 	 */
 	public SafeThreadFactory()
+	{
+		this(false);
+	}
+	
+	/**
+	 * Instantiates a new thread factory, which creates the virtual threads if
+	 * asked so and they are supported by the JVM, else the platform threads.
+	 * 
+	 * @param virtual
+	 *            whether to create the virtual threads
+	 * @see #isVirtualThreadSupported()
+	 */
+	public SafeThreadFactory(final boolean virtual)
 	{
 		final SecurityManager s = System.getSecurityManager();
 		group = (s != null) ? s.getThreadGroup() : Thread.currentThread().getThreadGroup();
-		namePrefix = "pool-" + poolNumber.getAndIncrement() + "-thread-";
+		virtualThreadFactory = virtual ? VIRTUAL_THREAD_FACTORY : null;
+		namePrefix = "pool-" + poolNumber.getAndIncrement() + (virtualThreadFactory != null ? "-virtual-" : "-thread-");
+		if (virtual && virtualThreadFactory == null)
+		{
+			logger.warn("Virtual threads are not supported by this JVM, hence creating the platform threads.");
+		}
 		
-		logger.info("Initialized successfully with group: " + group + ", namePrefix: " + namePrefix);
+		logger.info("Initialized successfully with group: {}, namePrefix: {}", group, namePrefix);
+	}
+	
+	/**
+	 * Checks if the virtual threads are supported by the JVM.
+	 * 
+	 * @return true, if supported
+	 */
+	public static boolean isVirtualThreadSupported()
+	{
+		return VIRTUAL_THREAD_FACTORY != null;
+	}
+	
+	/**
+	 * Checks if it creates the virtual threads.
+	 * 
+	 * @return true, if virtual
+	 */
+	public boolean isVirtual()
+	{
+		return virtualThreadFactory != null;
+	}
+	
+	/**
+	 * Looks up the factory of the virtual threads, i.e.
+	 * <code>Thread.ofVirtual().factory()</code>.
+	 * 
+	 * @return the thread factory, null if not supported
+	 */
+	private static ThreadFactory lookupVirtualThreadFactory()
+	{
+		try
+		{
+			final Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+			final Method factory = Class.forName("java.lang.Thread$Builder").getMethod("factory");
+			return (ThreadFactory) factory.invoke(builder);
+		}
+		catch (Exception e)
+		{
+			return null;
+		}
+	}
+	
+	/**
+	 * Runs the task and resets the running state of the
+	 * {@link EnhancedTimerTask}, if any, once it is done either way.
+	 * 
+	 * @param task
+	 *            the task
+	 * @param timerTask
+	 *            the timer task run by the task, can be null
+	 */
+	static void runSafely(final Runnable task, final EnhancedTimerTask timerTask)
+	{
+		logger.debug("Set the running state to true.");
+		try
+		{
+			if (ObjectUtils.isNotNull(task))
+			{
+				task.run();
+			}
+		}
+		catch (Exception ex)
+		{
+			logger.error("Got an unExpected Error while processing event.", ex);
+		}
+		try
+		{
+			if (timerTask != null)
+			{
+				timerTask.setRunning(false);
+				logger.debug("Set the running state to false.");
+			}
+		}
+		catch (Exception e)
+		{
+			// What can I do here, in fact not required.!!
+		}
+	}
+	
+	/**
+	 * Gets the {@link EnhancedTimerTask} run by the given task, if any.
+	 * 
+	 * @param task
+	 *            the task
+	 * @return the timer task, null if none
+	 */
+	static EnhancedTimerTask getTimerTask(final Runnable task)
+	{
+		if (task instanceof EnhancedTimerTask)
+		{
+			return (EnhancedTimerTask) task;
+		}
+		if (task instanceof SchedulerStats.TimedTask)
+		{
+			return ((SchedulerStats.TimedTask) task).getTask();
+		}
+		if (task instanceof VirtualThreadExecutor.Task)
+		{
+			return ((VirtualThreadExecutor.Task) task).getTimerTask();
+		}
+		return null;
 	}
 	
 	/*
@@ -70,7 +205,27 @@ public class SafeThreadFactory implements ThreadFactory
 	 */
 	public Thread newThread(final Runnable task)
 	{
-		final Thread newThread = new Thread(group, task, namePrefix + threadNumber.getAndIncrement(), 0)
+		final EnhancedTimerTask timerTask = getTimerTask(task);
+		final String name = namePrefix + threadNumber.getAndIncrement();
+		if (virtualThreadFactory != null)
+		{
+			final Thread newThread = virtualThreadFactory.newThread(new Runnable()
+			{
+				/*
+				 * (non-Javadoc)
+				 * 
+				 * @see java.lang.Runnable#run()
+				 */
+				public void run()
+				{
+					runSafely(task, timerTask);
+				}
+			});
+			newThread.setName(name);
+			logger.debug("Created a new virtual thread successfully: {}", newThread);
+			return newThread;
+		}
+		final Thread newThread = new Thread(group, task, name, 0)
 		{
 			/*
 			 * (non-Javadoc)
@@ -80,30 +235,7 @@ public class SafeThreadFactory implements ThreadFactory
 			@Override
 			public void run()
 			{
-				logger.info("Set the running state to true.");
-				try
-				{
-					if (ObjectUtils.isNotNull(task))
-					{
-						task.run();
-					}
-				}
-				catch (Exception ex)
-				{
-					logger.error("Got an unExpected Error while processing event.", ex);
-				}
-				try
-				{
-					if (task instanceof EnhancedTimerTask)
-					{
-						((EnhancedTimerTask) task).setRunning(false);
-						logger.info("Set the running state to false.");
-					}
-				}
-				catch (Exception e)
-				{
-					// What can I do here, in fact not required.!!
-				}
+				runSafely(task, timerTask);
 			}
 		};
 		if (newThread.isDaemon())
@@ -111,7 +243,7 @@ public class SafeThreadFactory implements ThreadFactory
 		if (newThread.getPriority() != Thread.NORM_PRIORITY)
 			newThread.setPriority(Thread.NORM_PRIORITY);
 		
-		logger.info("Created a new thread successfully: " + newThread);
+		logger.info("Created a new thread successfully: {}", newThread);
 		return newThread;
 	}
 }
\ No newline at end of file
@@ -0,0 +1,50 @@
+/*
+ * utils4j - Schedule.java, Oct 18, 2026 9:10:44 PM
+ * 
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.varra.util;
+
+import com.varra.classification.InterfaceAudience;
+import com.varra.classification.InterfaceStability;
+
+/**
+ * Tells when an {@link EnhancedTimerTask} has to be executed next, for the
+ * tasks aligned to the wall clock rather than a fixed period, see
+ * {@link EnhancedTimerTask#setSchedule(Schedule)} and {@link CronSchedule}.
+ * <br>
+ * Implementations should be immutable and cheap to call, as it is called
+ * on every execution of the task.
+ * 
+ * @author <a href="mailto:varra@outlook.com">Rajakrishna V.
+ *         Reddy</a>
+ * @version 1.0
+ */
+@InterfaceAudience.Public
+@InterfaceStability.Evolving
+public interface Schedule
+{
+	
+	/**
+	 * Gets the next fire time strictly after the given time.
+	 * 
+	 * @param after
+	 *            the time in ms since the epoch
+	 * @return the next fire time in ms since the epoch, -1 if it never fires
+	 *         again
+	 */
+	long getNextFireTime(long after);
+}
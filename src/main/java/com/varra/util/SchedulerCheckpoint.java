@@ -0,0 +1,551 @@
+/*
+ * utils4j - SchedulerCheckpoint.java, Oct 18, 2026 11:41:27 PM
+ * 
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.varra.util;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import com.varra.classification.InterfaceAudience;
+import com.varra.classification.InterfaceStability;
+import com.varra.log.Logger;
+
+/**
+ * A durable checkpoint of the execution state of the {@link EnhancedTimerTask}
+ * s of a {@link SafeThread}, so that the periodic tasks carry on from where
+ * they were left after a restart, instead of all of them running for the
+ * first time at once.
+ * 
+ * <br>
+ * The state, i.e. {@link EnhancedTimerTask#getNoOfExecTimes()},
+ * {@link EnhancedTimerTask#getPrevExecutionTime()} and
+ * {@link EnhancedTimerTask#getNextExecutionTime()}, is kept in a fixed size
+ * record per task in a memory mapped file, and the record is overwritten in
+ * place after each execution, hence a checkpoint costs a few stores and no
+ * system call. The records reach the file even if the JVM dies, use
+ * {@link #flush()} to get them through a crash of the machine too. A record
+ * being written when the JVM died is detected and ignored.
+ * 
+ * <br>
+ * A task is restored when it is submitted, if it has not run so far. The
+ * executions missed while down are skipped, keeping the phase of the task:
+ * it next runs at the first of its recorded fire times still to come.
+ * 
+ * <br>
+ * Note: <b> Only the tasks given a checkpoint key, see
+ * {@link EnhancedTimerTask#setCheckpointKey(String)}, are checkpointed. The key
+ * identifies the task across the restarts, so it has to be unique and stay the
+ * same, of at most {@link #MAX_KEY_LENGTH} bytes. A task without a key, with
+ * an invalid key, or with the key of another task still recorded is not
+ * checkpointed, and logged once.</b>
+ * 
+ * @author <a href="mailto:varra@outlook.com">Rajakrishna V.
+ *         Reddy</a>
+ * @version 1.0
+ */
+@InterfaceAudience.Public
+@InterfaceStability.Evolving
+public class SchedulerCheckpoint implements Closeable
+{
+	
+	/** The max length of a checkpoint key, in UTF-8 bytes. */
+	public static final int MAX_KEY_LENGTH = 102;
+	
+	/** The default no of records the file starts with. */
+	public static final int DEFAULT_INITIAL_RECORDS = 1024;
+	
+	/** The magic no of the file, VSCP. */
+	private static final int MAGIC = 0x56534350;
+	
+	/** The version of the file format. */
+	private static final int VERSION = 1;
+	
+	/** The size of the header. */
+	private static final int HEADER_SIZE = 64;
+	
+	/** The size of a record. */
+	private static final int RECORD_SIZE = 128;
+	
+	/** The offset of the seq of a record, odd while the record is written. */
+	private static final int SEQ = 0;
+	
+	/** The offset of the no of exec times. */
+	private static final int EXEC_TIMES = 4;
+	
+	/** The offset of the prev execution time. */
+	private static final int PREV_TIME = 8;
+	
+	/** The offset of the next execution time. */
+	private static final int NEXT_TIME = 16;
+	
+	/** The offset of the key length, 0 if the record is free. */
+	private static final int KEY_LENGTH = 24;
+	
+	/** The offset of the key. */
+	private static final int KEY = 26;
+	
+	/** The charset of the keys. */
+	private static final Charset UTF_8 = Charset.forName("UTF-8");
+	
+	/** The logger to log the debugging messages as application runs. */
+	private static final Logger logger = Logger.getLogger(SchedulerCheckpoint.class);
+	
+	/** The file. */
+	private final File file;
+	
+	/** The file opened. */
+	private final RandomAccessFile raf;
+	
+	/** The mapped file. */
+	private MappedByteBuffer buffer;
+	
+	/** The no of records. */
+	private int capacity;
+	
+	/** The records by the checkpoint keys. */
+	private final Map<String, Integer> records = new HashMap<String, Integer>();
+	
+	/** The tasks recorded by their checkpoint keys. */
+	private final Map<String, EnhancedTimerTask> owners = new HashMap<String, EnhancedTimerTask>();
+	
+	/** The free records. */
+	private final ArrayDeque<Integer> free = new ArrayDeque<Integer>();
+	
+	/** The tasks that can not be recorded, logged once. */
+	private final Set<EnhancedTimerTask> skipped = Collections.newSetFromMap(new IdentityHashMap<EnhancedTimerTask, Boolean>());
+	
+	/**
+	 * Opens the checkpoint in the given file, creates it if not found.
+	 * 
+	 * @param file
+	 *            the file
+	 * @throws IOException
+	 *             if the file can not be opened or is not a checkpoint
+	 */
+	public SchedulerCheckpoint(final File file) throws IOException
+	{
+		this(file, DEFAULT_INITIAL_RECORDS);
+	}
+	
+	/**
+	 * Opens the checkpoint in the given file, creates it with the given no of
+	 * records if not found. It grows as and when needed.
+	 * 
+	 * @param file
+	 *            the file
+	 * @param initialRecords
+	 *            the initial no of records
+	 * @throws IOException
+	 *             if the file can not be opened or is not a checkpoint
+	 */
+	public SchedulerCheckpoint(final File file, final int initialRecords) throws IOException
+	{
+		if (initialRecords <= 0)
+		{
+			throw new IllegalArgumentException("Initial records should be greater than zero, initialRecords: " + initialRecords);
+		}
+		this.file = file;
+		raf = new RandomAccessFile(file, "rw");
+		try
+		{
+			if (raf.length() < HEADER_SIZE || isBlank())
+			{
+				map(initialRecords);
+				buffer.putInt(4, VERSION);
+				buffer.putInt(12, RECORD_SIZE);
+				buffer.putInt(0, MAGIC);
+			}
+			else
+			{
+				logger.info("Recovered {} task(s) from the checkpoint: {}", recover(), file);
+			}
+		}
+		catch (IOException e)
+		{
+			raf.close();
+			throw e;
+		}
+	}
+	
+	/**
+	 * Maps the file with the given no of records, growing it if needed.
+	 * 
+	 * @param records
+	 *            the records
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred.
+	 */
+	private void map(final int records) throws IOException
+	{
+		buffer = raf.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE + (long) records * RECORD_SIZE);
+		for (int index = capacity; index < records; index++)
+		{
+			free.addLast(index);
+		}
+		capacity = records;
+		buffer.putInt(8, records);
+	}
+	
+	/**
+	 * Checks if the header is not written yet, as the JVM died while creating
+	 * the file.
+	 * 
+	 * @return true, if is blank
+	 * @throws IOException
+	 *             Signals that an I/O exception has occurred.
+	 */
+	private boolean isBlank() throws IOException
+	{
+		raf.seek(0);
+		return raf.readInt() == 0;
+	}
+	
+	/**
+	 * Reads the records of an existing file.
+	 * 
+	 * @return the no of tasks recovered
+	 * @throws IOException
+	 *             if it is not a checkpoint
+	 */
+	private int recover() throws IOException
+	{
+		final MappedByteBuffer header = raf.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE);
+		if (header.getInt(0) != MAGIC || header.getInt(4) != VERSION || header.getInt(12) != RECORD_SIZE)
+		{
+			throw new IOException("Not a scheduler checkpoint of version: " + VERSION + ", file: " + file);
+		}
+		final int count = (int) Math.min(header.getInt(8), (raf.length() - HEADER_SIZE) / RECORD_SIZE);
+		buffer = raf.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE + (long) count * RECORD_SIZE);
+		capacity = count;
+		buffer.putInt(8, count);
+		for (int index = 0; index < count; index++)
+		{
+			final int offset = offset(index);
+			final int length = buffer.getShort(offset + KEY_LENGTH);
+			if (length <= 0 || length > MAX_KEY_LENGTH || (buffer.getInt(offset + SEQ) & 1) != 0)
+			{
+				/** Free, or being written when the JVM died. */
+				buffer.putShort(offset + KEY_LENGTH, (short) 0);
+				free.addLast(index);
+				continue;
+			}
+			final byte[] key = new byte[length];
+			for (int position = 0; position < length; position++)
+			{
+				key[position] = buffer.get(offset + KEY + position);
+			}
+			final String checkpointKey = new String(key, UTF_8);
+			if (records.containsKey(checkpointKey))
+			{
+				buffer.putShort(offset + KEY_LENGTH, (short) 0);
+				free.addLast(index);
+			}
+			else
+			{
+				records.put(checkpointKey, index);
+			}
+		}
+		return records.size();
+	}
+	
+	/**
+	 * Claims the checkpoint key of the task for it, if not claimed by another
+	 * task already. The tasks that can not claim it are logged once.
+	 * 
+	 * @param task
+	 *            the task
+	 * @return the checkpoint key, null if the task is not to be checkpointed
+	 */
+	private String claim(final EnhancedTimerTask task)
+	{
+		final String checkpointKey = task.getCheckpointKey();
+		if (checkpointKey == null)
+		{
+			if (skipped.add(task))
+			{
+				logger.warn("Unable to checkpoint the task: {}, it has no checkpoint key, see EnhancedTimerTask#setCheckpointKey.", task.getName());
+			}
+			return null;
+		}
+		final EnhancedTimerTask owner = owners.get(checkpointKey);
+		if (owner == task)
+		{
+			return checkpointKey;
+		}
+		if (owner != null)
+		{
+			if (skipped.add(task))
+			{
+				logger.error("Unable to checkpoint the task: {}, its checkpoint key: {} is used by the task: {} already, the keys should be unique.",
+						task.getName(), checkpointKey, owner.getName());
+			}
+			return null;
+		}
+		final int length = checkpointKey.getBytes(UTF_8).length;
+		if (length == 0 || length > MAX_KEY_LENGTH)
+		{
+			if (skipped.add(task))
+			{
+				logger.error("Unable to checkpoint the task: {}, its checkpoint key: {} should be of 1 to {} bytes.", task.getName(), checkpointKey,
+						MAX_KEY_LENGTH);
+			}
+			return null;
+		}
+		owners.put(checkpointKey, task);
+		skipped.remove(task);
+		return checkpointKey;
+	}
+	
+	/**
+	 * Restores the state of the task, if it has not run so far and is
+	 * recorded. The executions missed meanwhile are skipped.
+	 * 
+	 * @param task
+	 *            the task
+	 * @return true, if restored
+	 */
+	public synchronized boolean restore(final EnhancedTimerTask task)
+	{
+		if (task.getNoOfExecTimes() != 0 || buffer == null)
+		{
+			return false;
+		}
+		final String checkpointKey = claim(task);
+		if (checkpointKey == null)
+		{
+			return false;
+		}
+		final Integer index = records.get(checkpointKey);
+		if (index == null)
+		{
+			return false;
+		}
+		final int offset = offset(index);
+		final int noOfExecTimes = buffer.getInt(offset + EXEC_TIMES);
+		long prevExecutionTime = buffer.getLong(offset + PREV_TIME);
+		long nextExecutionTime = buffer.getLong(offset + NEXT_TIME);
+		if (noOfExecTimes <= 0)
+		{
+			return false;
+		}
+		final long now = System.currentTimeMillis();
+		if (task.isScheduled())
+		{
+			if (nextExecutionTime < now)
+			{
+				final long nextFireTime = task.getSchedule().getNextFireTime(now);
+				nextExecutionTime = nextFireTime < 0 ? Long.MAX_VALUE : nextFireTime;
+			}
+		}
+		else if (task.getPeriod() > 0 && nextExecutionTime < now)
+		{
+			/** Skips the missed ones, keeping the phase. */
+			final long period = task.getPeriod();
+			nextExecutionTime += ((now - nextExecutionTime + period - 1) / period) * period;
+			prevExecutionTime = nextExecutionTime - period;
+		}
+		task.restore(noOfExecTimes, prevExecutionTime, nextExecutionTime);
+		logger.debug("Restored the task: {}, noOfExecTimes: {}, nextExecutionTime: {}", task.getName(), noOfExecTimes, nextExecutionTime);
+		return true;
+	}
+	
+	/**
+	 * Records the state of the task, overwriting its record in place.
+	 * 
+	 * @param task
+	 *            the task
+	 */
+	public synchronized void record(final EnhancedTimerTask task)
+	{
+		if (buffer == null)
+		{
+			return;
+		}
+		final String checkpointKey = claim(task);
+		if (checkpointKey == null)
+		{
+			return;
+		}
+		Integer index = records.get(checkpointKey);
+		if (index == null)
+		{
+			index = allocate(checkpointKey);
+			if (index == null)
+			{
+				return;
+			}
+		}
+		final int offset = offset(index);
+		final int seq = buffer.getInt(offset + SEQ);
+		buffer.putInt(offset + SEQ, seq + 1);
+		buffer.putInt(offset + EXEC_TIMES, task.getNoOfExecTimes());
+		buffer.putLong(offset + PREV_TIME, task.getPrevExecutionTime());
+		buffer.putLong(offset + NEXT_TIME, task.getNextExecutionTime());
+		buffer.putInt(offset + SEQ, seq + 2);
+	}
+	
+	/**
+	 * Removes the record of the task, as it is cancelled, finished or
+	 * expired.
+	 * 
+	 * @param task
+	 *            the task
+	 */
+	public synchronized void remove(final EnhancedTimerTask task)
+	{
+		skipped.remove(task);
+		final String checkpointKey = task.getCheckpointKey();
+		if (buffer == null || checkpointKey == null || owners.get(checkpointKey) != task)
+		{
+			return;
+		}
+		owners.remove(checkpointKey);
+		final Integer index = records.remove(checkpointKey);
+		if (index != null)
+		{
+			buffer.putShort(offset(index) + KEY_LENGTH, (short) 0);
+			free.addLast(index);
+		}
+	}
+	
+	/**
+	 * Allocates a record for the checkpoint key, grows the file if full.
+	 * 
+	 * @param checkpointKey
+	 *            the checkpoint key
+	 * @return the index, null if the file can not grow
+	 */
+	private Integer allocate(final String checkpointKey)
+	{
+		final byte[] key = checkpointKey.getBytes(UTF_8);
+		if (free.isEmpty())
+		{
+			try
+			{
+				map(capacity * 2);
+			}
+			catch (IOException e)
+			{
+				logger.error("Unable to grow the checkpoint: {}", file, e);
+				return null;
+			}
+		}
+		final Integer index = free.pollFirst();
+		final int offset = offset(index);
+		/** Written as odd, so a half written record is ignored. */
+		final int seq = buffer.getInt(offset + SEQ) | 1;
+		buffer.putInt(offset + SEQ, seq);
+		buffer.putInt(offset + EXEC_TIMES, 0);
+		for (int position = 0; position < key.length; position++)
+		{
+			buffer.put(offset + KEY + position, key[position]);
+		}
+		buffer.putShort(offset + KEY_LENGTH, (short) key.length);
+		buffer.putInt(offset + SEQ, seq + 1);
+		records.put(checkpointKey, index);
+		return index;
+	}
+	
+	/**
+	 * Gets the offset of the record.
+	 * 
+	 * @param index
+	 *            the index
+	 * @return the offset
+	 */
+	private static int offset(final int index)
+	{
+		return HEADER_SIZE + index * RECORD_SIZE;
+	}
+	
+	/**
+	 * Gets the no of tasks recorded.
+	 * 
+	 * @return the size
+	 */
+	public synchronized int size()
+	{
+		return records.size();
+	}
+	
+	/**
+	 * Gets the file.
+	 * 
+	 * @return the file
+	 */
+	public File getFile()
+	{
+		return file;
+	}
+	
+	/**
+	 * Writes the records through to the disk.
+	 */
+	public synchronized void flush()
+	{
+		if (buffer != null)
+		{
+			buffer.force();
+		}
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see java.io.Closeable#close()
+	 */
+	public synchronized void close() throws IOException
+	{
+		if (buffer != null)
+		{
+			buffer.force();
+			buffer = null;
+			raf.close();
+		}
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString()
+	{
+		final StringBuilder builder = new StringBuilder();
+		builder.append("SchedulerCheckpoint [file=");
+		builder.append(file);
+		builder.append(", tasks=");
+		builder.append(size());
+		builder.append(", capacity=");
+		builder.append(capacity);
+		builder.append("]");
+		return builder.toString();
+	}
+}
@@ -0,0 +1,74 @@
+/*
+ * utils4j - SchedulerMode.java, Oct 18, 2026 10:12:41 AM
+ * 
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.varra.util;
+
+import com.varra.classification.InterfaceAudience;
+import com.varra.classification.InterfaceStability;
+
+/**
+ * An {@link Enum} that lists the ways a {@link SafeThread} can dispatch its
+ * {@link EnhancedTimerTask}s.
+ * <p>
+ * In {@link #POLLING} mode the dispatcher wakes up for every
+ * {@link SafeThread#getInterval()} ms and walks the whole queue to find the
+ * eligible tasks, this is the legacy behavior.
+ * <p>
+ * In {@link #DEADLINE} mode the tasks are kept in a heap ordered by their
+ * next execution time, the dispatcher sleeps exactly till the earliest
+ * deadline and wakes up as soon as a new task is submitted.
+ * 
+ * @author <a href="mailto:varra@outlook.com">Rajakrishna V.
+ *         Reddy</a>
+ * @version 3.0
+ */
+@InterfaceAudience.Public
+@InterfaceStability.Evolving
+public enum SchedulerMode
+{
+	
+	/** Wakes up for every interval and walks the whole queue. */
+	POLLING,
+	
+	/** Sleeps till the earliest deadline of the tasks. */
+	DEADLINE;
+	
+	/**
+	 * Gets the {@link SchedulerMode} for the given name, ignoring the case.
+	 * 
+	 * @param name
+	 *            the name
+	 * @param defValue
+	 *            the default value, returned if name is null or unknown
+	 * @return the scheduler mode
+	 */
+	public static SchedulerMode getMode(final String name, final SchedulerMode defValue)
+	{
+		if (name != null)
+		{
+			for (final SchedulerMode mode : values())
+			{
+				if (mode.name().equalsIgnoreCase(name.trim()))
+				{
+					return mode;
+				}
+			}
+		}
+		return defValue;
+	}
+}
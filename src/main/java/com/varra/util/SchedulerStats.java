@@ -0,0 +1,567 @@
+/*
+ * utils4j - SchedulerStats.java, Oct 18, 2026 8:12:09 PM
+ * 
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.varra.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.varra.classification.InterfaceAudience;
+import com.varra.classification.InterfaceStability;
+import com.varra.jmx.exception.MBeanRegistrationException;
+import com.varra.jmx.mbean.RapidMBean;
+import com.varra.jmx.registry.MBeanManager;
+import com.varra.log.Logger;
+
+/**
+ * The numbers of a {@link SafeThread} and its tasks, per task name and all
+ * together: how late the tasks started running relative to their
+ * {@link EnhancedTimerTask#getNextExecutionTime()} (dispatch lag), how long
+ * they ran (run time), and how often they were skipped as they were still
+ * running from the previous time (overruns).<br>
+ * The latencies are measured with {@link System#nanoTime()} and recorded in
+ * {@link LatencyHistogram}s, so recording is lock-free and cheap enough to be
+ * left enabled. See {@link SafeThread#enableStats()}.
+ * 
+ * <br>
+ * It is exposed as an MBean, of type SafeThread and the name of the
+ * {@link SafeThread}, through the {@link MBeanManager}.
+ * 
+ * @author <a href="mailto:varra@outlook.com">Rajakrishna V.
+ *         Reddy</a>
+ * @version 1.0
+ */
+@InterfaceAudience.Public
+@InterfaceStability.Evolving
+public class SchedulerStats implements SchedulerStatsMBean
+{
+	
+	/** The type of the MBean. */
+	private static final String MBEAN_TYPE = "SafeThread";
+	
+	/** The logger to log the debugging messages as application runs. */
+	private static final Logger logger = Logger.getLogger(SchedulerStats.class);
+	
+	/** The name. */
+	private final String name;
+	
+	/** The stats of the tasks, by their names. */
+	private final ConcurrentMap<String, TaskStats> tasks = new ConcurrentHashMap<String, TaskStats>();
+	
+	/** The dispatch lag of all the tasks. */
+	private final LatencyHistogram dispatchLag = new LatencyHistogram();
+	
+	/** The run time of all the tasks. */
+	private final LatencyHistogram runTime = new LatencyHistogram();
+	
+	/** The overruns of all the tasks. */
+	private final AtomicLong overruns = new AtomicLong();
+	
+	/** The MBean, if registered. */
+	private RapidMBean mBean;
+	
+	/**
+	 * Instantiates new stats.
+	 * 
+	 * @param name
+	 *            the name of the {@link SafeThread}
+	 */
+	public SchedulerStats(final String name)
+	{
+		this.name = name;
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see com.varra.util.SchedulerStatsMBean#getName()
+	 */
+	public String getName()
+	{
+		return name;
+	}
+	
+	/**
+	 * Gets the stats of the given task, creates them if not done so far.
+	 * 
+	 * @param task
+	 *            the task
+	 * @return the task stats
+	 */
+	TaskStats getTaskStats(final EnhancedTimerTask task)
+	{
+		final String taskName = isNotEmpty(task.getName()) ? task.getName() : task.getClass().getName();
+		TaskStats stats = tasks.get(taskName);
+		if (stats == null)
+		{
+			final TaskStats newStats = new TaskStats(taskName, this);
+			stats = tasks.putIfAbsent(taskName, newStats);
+			if (stats == null)
+			{
+				stats = newStats;
+			}
+		}
+		return stats;
+	}
+	
+	/**
+	 * Gets the stats of the given task.
+	 * 
+	 * @param taskName
+	 *            the task name
+	 * @return the task stats, null if not executed so far
+	 */
+	public TaskStats getTaskStats(final String taskName)
+	{
+		return taskName == null ? null : tasks.get(taskName);
+	}
+	
+	/**
+	 * Gets the dispatch lag of all the tasks.
+	 * 
+	 * @return the dispatch lag
+	 */
+	public LatencyHistogram getDispatchLag()
+	{
+		return dispatchLag;
+	}
+	
+	/**
+	 * Gets the run time of all the tasks.
+	 * 
+	 * @return the run time
+	 */
+	public LatencyHistogram getRunTime()
+	{
+		return runTime;
+	}
+	
+	/**
+	 * Records an overrun of the task.
+	 * 
+	 * @param task
+	 *            the task
+	 */
+	void recordOverrun(final EnhancedTimerTask task)
+	{
+		getTaskStats(task).overruns.incrementAndGet();
+		overruns.incrementAndGet();
+	}
+	
+	/**
+	 * Wraps the task to record its dispatch lag and run time once it runs.
+	 * 
+	 * @param task
+	 *            the task
+	 * @param lagNanos
+	 *            the lag of the task, when it is handed over to the thread
+	 *            pool
+	 * @return the runnable
+	 */
+	Runnable timed(final EnhancedTimerTask task, final long lagNanos)
+	{
+		return new TimedTask(task, getTaskStats(task), lagNanos);
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see com.varra.util.SchedulerStatsMBean#getTaskNames()
+	 */
+	public String[] getTaskNames()
+	{
+		return tasks.keySet().toArray(new String[0]);
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see com.varra.util.SchedulerStatsMBean#getTaskSummaries()
+	 */
+	public String[] getTaskSummaries()
+	{
+		final List<String> summaries = new ArrayList<String>(tasks.size());
+		for (final TaskStats stats : tasks.values())
+		{
+			summaries.add(stats.toString());
+		}
+		return summaries.toArray(new String[summaries.size()]);
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see com.varra.util.SchedulerStatsMBean#getTaskSummary(java.lang.String)
+	 */
+	public String getTaskSummary(final String taskName)
+	{
+		final TaskStats stats = getTaskStats(taskName);
+		return stats == null ? null : stats.toString();
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see com.varra.util.SchedulerStatsMBean#getExecutionCount()
+	 */
+	public long getExecutionCount()
+	{
+		return runTime.getCount();
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see com.varra.util.SchedulerStatsMBean#getOverrunCount()
+	 */
+	public long getOverrunCount()
+	{
+		return overruns.get();
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see com.varra.util.SchedulerStatsMBean#getDispatchLagP50()
+	 */
+	public double getDispatchLagP50()
+	{
+		return LatencyHistogram.toMillis(dispatchLag.getPercentile(50));
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see com.varra.util.SchedulerStatsMBean#getDispatchLagP99()
+	 */
+	public double getDispatchLagP99()
+	{
+		return LatencyHistogram.toMillis(dispatchLag.getPercentile(99));
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see com.varra.util.SchedulerStatsMBean#getDispatchLagMax()
+	 */
+	public double getDispatchLagMax()
+	{
+		return LatencyHistogram.toMillis(dispatchLag.getMax());
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see com.varra.util.SchedulerStatsMBean#getRunTimeP50()
+	 */
+	public double getRunTimeP50()
+	{
+		return LatencyHistogram.toMillis(runTime.getPercentile(50));
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see com.varra.util.SchedulerStatsMBean#getRunTimeP99()
+	 */
+	public double getRunTimeP99()
+	{
+		return LatencyHistogram.toMillis(runTime.getPercentile(99));
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see com.varra.util.SchedulerStatsMBean#getRunTimeMax()
+	 */
+	public double getRunTimeMax()
+	{
+		return LatencyHistogram.toMillis(runTime.getMax());
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see com.varra.util.SchedulerStatsMBean#reset()
+	 */
+	public void reset()
+	{
+		for (final TaskStats stats : tasks.values())
+		{
+			stats.reset();
+		}
+		dispatchLag.reset();
+		runTime.reset();
+		overruns.set(0);
+	}
+	
+	/**
+	 * Registers the MBean through the {@link MBeanManager}, if not done so
+	 * far.
+	 * 
+	 * @return true, if registered
+	 */
+	public synchronized boolean register()
+	{
+		if (mBean == null)
+		{
+			try
+			{
+				final RapidMBean newMBean = new RapidMBean(this, MBEAN_TYPE, name.replaceAll("[,=:\"*?]", "_"), name);
+				new MBeanManager().register(newMBean);
+				mBean = newMBean;
+			}
+			catch (MBeanRegistrationException e)
+			{
+				logger.warn("Unable to register the stats MBean of: {}", name, e);
+			}
+		}
+		return mBean != null;
+	}
+	
+	/**
+	 * Unregisters the MBean, if registered.
+	 */
+	public synchronized void unRegister()
+	{
+		if (mBean != null)
+		{
+			try
+			{
+				new MBeanManager().unRegister(mBean);
+			}
+			catch (MBeanRegistrationException e)
+			{
+				logger.warn("Unable to unregister the stats MBean of: {}", name, e);
+			}
+			mBean = null;
+		}
+	}
+	
+	/**
+	 * Checks if the name is not empty.
+	 * 
+	 * @param name
+	 *            the name
+	 * @return true, if is not empty
+	 */
+	private static boolean isNotEmpty(final String name)
+	{
+		return name != null && name.length() > 0;
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString()
+	{
+		final StringBuilder builder = new StringBuilder();
+		builder.append("SchedulerStats [name=");
+		builder.append(name);
+		builder.append(", overruns=");
+		builder.append(overruns.get());
+		builder.append(", dispatchLag=[");
+		builder.append(dispatchLag);
+		builder.append("], runTime=[");
+		builder.append(runTime);
+		builder.append("]]");
+		return builder.toString();
+	}
+	
+	/**
+	 * The numbers of the tasks of a name.
+	 */
+	public static final class TaskStats
+	{
+		
+		/** The name. */
+		private final String name;
+		
+		/** The stats of the {@link SafeThread}. */
+		private final SchedulerStats parent;
+		
+		/** The dispatch lag. */
+		private final LatencyHistogram dispatchLag = new LatencyHistogram();
+		
+		/** The run time. */
+		private final LatencyHistogram runTime = new LatencyHistogram();
+		
+		/** The overruns. */
+		private final AtomicLong overruns = new AtomicLong();
+		
+		/**
+		 * Instantiates new task stats.
+		 * 
+		 * @param name
+		 *            the name
+		 * @param parent
+		 *            the parent
+		 */
+		private TaskStats(final String name, final SchedulerStats parent)
+		{
+			this.name = name;
+			this.parent = parent;
+		}
+		
+		/**
+		 * Gets the name.
+		 * 
+		 * @return the name
+		 */
+		public String getName()
+		{
+			return name;
+		}
+		
+		/**
+		 * Gets the dispatch lag.
+		 * 
+		 * @return the dispatch lag
+		 */
+		public LatencyHistogram getDispatchLag()
+		{
+			return dispatchLag;
+		}
+		
+		/**
+		 * Gets the run time.
+		 * 
+		 * @return the run time
+		 */
+		public LatencyHistogram getRunTime()
+		{
+			return runTime;
+		}
+		
+		/**
+		 * Gets the no of times the task is skipped, as it is still running
+		 * from the previous time.
+		 * 
+		 * @return the overrun count
+		 */
+		public long getOverrunCount()
+		{
+			return overruns.get();
+		}
+		
+		/**
+		 * Resets all the numbers.
+		 */
+		public void reset()
+		{
+			dispatchLag.reset();
+			runTime.reset();
+			overruns.set(0);
+		}
+		
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see java.lang.Object#toString()
+		 */
+		@Override
+		public String toString()
+		{
+			final StringBuilder builder = new StringBuilder();
+			builder.append(name);
+			builder.append(": overruns=");
+			builder.append(overruns.get());
+			builder.append(", dispatchLag=[");
+			builder.append(dispatchLag);
+			builder.append("], runTime=[");
+			builder.append(runTime);
+			builder.append("]");
+			return builder.toString();
+		}
+	}
+	
+	/**
+	 * Runs the task and records its dispatch lag and run time.
+	 */
+	static final class TimedTask implements Runnable
+	{
+		
+		/** The task. */
+		private final EnhancedTimerTask task;
+		
+		/** The stats. */
+		private final TaskStats stats;
+		
+		/** The lag, when it is handed over to the thread pool. */
+		private final long lagNanos;
+		
+		/** The time it is handed over to the thread pool. */
+		private final long submitted = System.nanoTime();
+		
+		/**
+		 * Instantiates a new timed task.
+		 * 
+		 * @param task
+		 *            the task
+		 * @param stats
+		 *            the stats
+		 * @param lagNanos
+		 *            the lag nanos
+		 */
+		private TimedTask(final EnhancedTimerTask task, final TaskStats stats, final long lagNanos)
+		{
+			this.task = task;
+			this.stats = stats;
+			this.lagNanos = lagNanos;
+		}
+		
+		/**
+		 * Gets the task.
+		 * 
+		 * @return the task
+		 */
+		EnhancedTimerTask getTask()
+		{
+			return task;
+		}
+		
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see java.lang.Runnable#run()
+		 */
+		public void run()
+		{
+			final long start = System.nanoTime();
+			final long lag = lagNanos + (start - submitted);
+			stats.dispatchLag.record(lag);
+			stats.parent.dispatchLag.record(lag);
+			try
+			{
+				task.run();
+			}
+			finally
+			{
+				final long elapsed = System.nanoTime() - start;
+				stats.runTime.record(elapsed);
+				stats.parent.runTime.record(elapsed);
+			}
+		}
+	}
+}
@@ -0,0 +1,123 @@
+/*
+ * utils4j - SchedulerStatsMBean.java, Oct 18, 2026 8:04:51 PM
+ * 
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.varra.util;
+
+/**
+ * Describes the management interface of the {@link SchedulerStats} of a
+ * {@link SafeThread}, the latencies are in ms.
+ * 
+ * @author Rajakrishna V. Reddy
+ * @version 1.0
+ */
+public interface SchedulerStatsMBean
+{
+	
+	/**
+	 * Gets the name of the {@link SafeThread}.
+	 * 
+	 * @return the name
+	 */
+	public String getName();
+	
+	/**
+	 * Gets the names of the tasks executed so far.
+	 * 
+	 * @return the task names
+	 */
+	public String[] getTaskNames();
+	
+	/**
+	 * Gets the summaries of all the tasks, one per task.
+	 * 
+	 * @return the task summaries
+	 */
+	public String[] getTaskSummaries();
+	
+	/**
+	 * Gets the summary of the given task.
+	 * 
+	 * @param taskName
+	 *            the task name
+	 * @return the task summary, null if not executed so far
+	 */
+	public String getTaskSummary(String taskName);
+	
+	/**
+	 * Gets the no of executions of all the tasks.
+	 * 
+	 * @return the execution count
+	 */
+	public long getExecutionCount();
+	
+	/**
+	 * Gets the no of times the tasks are skipped, as they are still running
+	 * from the previous time.
+	 * 
+	 * @return the overrun count
+	 */
+	public long getOverrunCount();
+	
+	/**
+	 * Gets the 50th percentile of the dispatch lag, i.e. how late the tasks
+	 * started running relative to their next execution time.
+	 * 
+	 * @return the dispatch lag p50 in ms
+	 */
+	public double getDispatchLagP50();
+	
+	/**
+	 * Gets the 99th percentile of the dispatch lag.
+	 * 
+	 * @return the dispatch lag p99 in ms
+	 */
+	public double getDispatchLagP99();
+	
+	/**
+	 * Gets the max dispatch lag.
+	 * 
+	 * @return the dispatch lag max in ms
+	 */
+	public double getDispatchLagMax();
+	
+	/**
+	 * Gets the 50th percentile of the run time of the tasks.
+	 * 
+	 * @return the run time p50 in ms
+	 */
+	public double getRunTimeP50();
+	
+	/**
+	 * Gets the 99th percentile of the run time of the tasks.
+	 * 
+	 * @return the run time p99 in ms
+	 */
+	public double getRunTimeP99();
+	
+	/**
+	 * Gets the max run time of the tasks.
+	 * 
+	 * @return the run time max in ms
+	 */
+	public double getRunTimeMax();
+	
+	/**
+	 * Resets all the numbers.
+	 */
+	public void reset();
+}
@@ -0,0 +1,483 @@
+/*
+ * utils4j - ShardedSafeThread.java, Oct 18, 2026 8:46:27 PM
+ * 
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.varra.util;
+
+import static com.varra.util.ObjectUtils.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.varra.classification.InterfaceAudience;
+import com.varra.classification.InterfaceStability;
+import com.varra.listener.TimerTaskListener;
+import com.varra.log.Logger;
+
+/**
+ * A {@link TimerTaskReceiver} that spreads the {@link EnhancedTimerTask}s
+ * across a no of {@link SafeThread} shards, each with its own dispatcher
+ * thread, queue and wake up, so that tens of thousands of tasks can be
+ * dispatched without a single dispatcher walking all of them. All the shards
+ * hand the tasks over to the same thread pool.
+ * 
+ * <br>
+ * A task is owned by one shard from the time it is submitted till it is
+ * cancelled, finished or expired, hence submitting it again through
+ * {@link #onTimerTask(EnhancedTimerTask)} reaches the same shard and its
+ * flags are looked at like in a single {@link SafeThread}. The new tasks are
+ * spread by their identity hash, or with {@link #setLoadBalancing(boolean)}
+ * to the less loaded of two shards, so that the shards owning the long lived
+ * tasks do not pile up.
+ * 
+ * <br>
+ * The {@link TimerTaskListener}s are shared by all the shards, through one
+ * {@link TimerTaskListeners}, and are notified of the cancel, finish and
+ * expiry of the tasks in order the same way.
+ * 
+ * @author <a href="mailto:varra@outlook.com">Rajakrishna V.
+ *         Reddy</a>
+ * @version 1.0
+ */
+@InterfaceAudience.Public
+@InterfaceStability.Evolving
+public class ShardedSafeThread implements TimerTaskReceiver
+{
+	
+	/** The logger to log the debugging messages as application runs. */
+	private final Logger logger;
+	
+	/** The name. */
+	private final String name;
+	
+	/** The listeners, shared by all the shards. */
+	private final TimerTaskListeners listeners;
+	
+	/** The shards. */
+	private final Shard[] shards;
+	
+	/** The shard owning each task. */
+	private final ConcurrentMap<EnhancedTimerTask, Shard> owners = new ConcurrentHashMap<EnhancedTimerTask, Shard>();
+	
+	/** Whether the new tasks go to the less loaded shard. */
+	private volatile boolean loadBalancing;
+	
+	/**
+	 * Instantiates a new sharded safe thread with a shard per available
+	 * processor, in {@link SchedulerMode#POLLING} mode.
+	 * 
+	 * @param name
+	 *            the name
+	 * @param threadPool
+	 *            the thread pool
+	 */
+	public ShardedSafeThread(final String name, final ExecutorService threadPool)
+	{
+		this(name, Runtime.getRuntime().availableProcessors(), threadPool, SchedulerMode.POLLING);
+	}
+	
+	/**
+	 * Instantiates a new sharded safe thread.
+	 * 
+	 * @param name
+	 *            the name, the shards are named as name-index
+	 * @param noOfShards
+	 *            the no of shards
+	 * @param threadPool
+	 *            the thread pool, shared by all the shards
+	 * @param mode
+	 *            the scheduler mode of the shards
+	 */
+	public ShardedSafeThread(final String name, final int noOfShards, final ExecutorService threadPool, final SchedulerMode mode)
+	{
+		if (noOfShards <= 0)
+		{
+			throw new IllegalArgumentException("No of shards should be greater than zero, noOfShards: " + noOfShards);
+		}
+		this.name = isNotNull(name) ? name : getClass().getSimpleName();
+		listeners = new TimerTaskListeners(this.name);
+		shards = new Shard[noOfShards];
+		for (int index = 0; index < noOfShards; index++)
+		{
+			shards[index] = new Shard(this.name + "-" + index, threadPool, mode, this, listeners);
+		}
+		logger = Logger.getLogger(getClass().getName() + "-" + this.name);
+	}
+	
+	/**
+	 * Causes all the shards to begin execution.
+	 */
+	public synchronized void start()
+	{
+		for (final Shard shard : shards)
+		{
+			shard.start();
+		}
+	}
+	
+	/**
+	 * Forces all the shards to stop executing.
+	 */
+	public synchronized void stop()
+	{
+		for (final Shard shard : shards)
+		{
+			shard.stop();
+		}
+	}
+	
+	/**
+	 * Shutdowns all the shards and the thread pool.
+	 */
+	public void shutdown()
+	{
+		logger.info("Received the request to stop the ShardedSafeThread, waiting to complete the background work.");
+		for (final Shard shard : shards)
+		{
+			shard.shutdown();
+		}
+		owners.clear();
+	}
+	
+	/**
+	 * Checks if it is running, i.e. any of the shards is running.
+	 * 
+	 * @return the isRunning
+	 */
+	public boolean isRunning()
+	{
+		for (final Shard shard : shards)
+		{
+			if (shard.isRunning())
+			{
+				return true;
+			}
+		}
+		return false;
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see
+	 * com.varra.util.TimerTaskReceiver#onTimerTask(com.varra.util.EnhancedTimerTask)
+	 */
+	public void onTimerTask(final EnhancedTimerTask timerTask)
+	{
+		if (isNotNull(timerTask))
+		{
+			Shard shard = owners.get(timerTask);
+			if (shard == null)
+			{
+				final Shard candidate = choose(timerTask);
+				shard = owners.putIfAbsent(timerTask, candidate);
+				if (shard == null)
+				{
+					shard = candidate;
+					shard.load.incrementAndGet();
+				}
+			}
+			shard.onTimerTask(timerTask);
+		}
+		else
+		{
+			logger.info("Received a new Timer Task as null, hence discarding it.");
+		}
+	}
+	
+	/**
+	 * Chooses the shard of the new task.
+	 * 
+	 * @param task
+	 *            the task
+	 * @return the shard
+	 */
+	private Shard choose(final EnhancedTimerTask task)
+	{
+		final int hash = System.identityHashCode(task);
+		final Shard shard = shards[((hash ^ (hash >>> 16)) & Integer.MAX_VALUE) % shards.length];
+		if (!loadBalancing || shards.length == 1)
+		{
+			return shard;
+		}
+		final Shard other = shards[ThreadLocalRandom.current().nextInt(shards.length)];
+		return other.load.get() < shard.load.get() ? other : shard;
+	}
+	
+	/**
+	 * Called by the shard when it removes the task as it is cancelled,
+	 * finished or expired.
+	 * 
+	 * @param shard
+	 *            the shard
+	 * @param task
+	 *            the task
+	 */
+	private void removed(final Shard shard, final EnhancedTimerTask task)
+	{
+		if (owners.remove(task, shard))
+		{
+			shard.load.decrementAndGet();
+		}
+	}
+	
+	/**
+	 * Adds the timer task listener, shared by all the shards.
+	 * 
+	 * @param listener
+	 *            the listener
+	 * @param type
+	 *            the type
+	 * @return true, if successful
+	 */
+	public boolean addTimerTaskListener(final TimerTaskListener listener, final Class<? extends EnhancedTimerTask> type)
+	{
+		return listeners.add(listener, type);
+	}
+	
+	/**
+	 * Removes the timer task listener, shared by all the shards.
+	 * 
+	 * @param listener
+	 *            the listener
+	 * @param type
+	 *            the type
+	 * @return true, if successful
+	 */
+	public boolean removeTimerTaskListener(final TimerTaskListener listener, final Class<? extends EnhancedTimerTask> type)
+	{
+		return listeners.remove(listener, type);
+	}
+	
+	/**
+	 * Gets the first listener of every task type, use
+	 * {@link #getAllListeners()} to get all of them.
+	 * 
+	 * @return the listeners by their task types
+	 */
+	public Map<Class<? extends EnhancedTimerTask>, TimerTaskListener> getListeners()
+	{
+		return listeners.getFirst();
+	}
+	
+	/**
+	 * Gets all the listeners.
+	 * 
+	 * @return the listeners by their task types, in the order they are added
+	 */
+	public Map<Class<? extends EnhancedTimerTask>, List<TimerTaskListener>> getAllListeners()
+	{
+		return listeners.getAll();
+	}
+	
+	/**
+	 * Sets the interval of all the shards.
+	 * 
+	 * @param interval
+	 *            the interval to set
+	 */
+	public void setInterval(final long interval)
+	{
+		for (final Shard shard : shards)
+		{
+			shard.setInterval(interval);
+		}
+	}
+	
+	/**
+	 * Gets the interval.
+	 * 
+	 * @return the interval
+	 */
+	public long getInterval()
+	{
+		return shards[0].getInterval();
+	}
+	
+	/**
+	 * Sets whether the new tasks go to the less loaded of two shards, their
+	 * own one by the hash and a random one, instead of their own one always.
+	 * The tasks submitted already stay with their shards.
+	 * 
+	 * @param loadBalancing
+	 *            the load balancing
+	 */
+	public void setLoadBalancing(final boolean loadBalancing)
+	{
+		this.loadBalancing = loadBalancing;
+	}
+	
+	/**
+	 * Checks if the new tasks go to the less loaded shard.
+	 * 
+	 * @return true, if load balancing
+	 */
+	public boolean isLoadBalancing()
+	{
+		return loadBalancing;
+	}
+	
+	/**
+	 * Enables the stats of all the shards, each registered as an MBean of its
+	 * own.
+	 * 
+	 * @return the stats of the shards
+	 * @see SafeThread#enableStats()
+	 */
+	public List<SchedulerStats> enableStats()
+	{
+		final List<SchedulerStats> stats = new ArrayList<SchedulerStats>(shards.length);
+		for (final Shard shard : shards)
+		{
+			stats.add(shard.enableStats());
+		}
+		return stats;
+	}
+	
+	/**
+	 * Sets the checkpoint of all the shards, they share it.
+	 * 
+	 * @param checkpoint
+	 *            the checkpoint, null to stop recording
+	 * @see SafeThread#setCheckpoint(SchedulerCheckpoint)
+	 */
+	public void setCheckpoint(final SchedulerCheckpoint checkpoint)
+	{
+		for (final Shard shard : shards)
+		{
+			shard.setCheckpoint(checkpoint);
+		}
+	}
+	
+	/**
+	 * Gets the no of shards.
+	 * 
+	 * @return the shard count
+	 */
+	public int getShardCount()
+	{
+		return shards.length;
+	}
+	
+	/**
+	 * Gets the no of tasks owned by each shard.
+	 * 
+	 * @return the task counts
+	 */
+	public int[] getTaskCounts()
+	{
+		final int[] counts = new int[shards.length];
+		for (int index = 0; index < shards.length; index++)
+		{
+			counts[index] = shards[index].load.get();
+		}
+		return counts;
+	}
+	
+	/**
+	 * Gets the no of tasks owned by all the shards.
+	 * 
+	 * @return the task count
+	 */
+	public int getTaskCount()
+	{
+		return owners.size();
+	}
+	
+	/**
+	 * Gets the name.
+	 * 
+	 * @return the name
+	 */
+	public String getName()
+	{
+		return name;
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString()
+	{
+		final StringBuilder builder = new StringBuilder();
+		builder.append("ShardedSafeThread [name=");
+		builder.append(name);
+		builder.append(", shards=");
+		builder.append(shards.length);
+		builder.append(", tasks=");
+		builder.append(owners.size());
+		builder.append(", loadBalancing=");
+		builder.append(loadBalancing);
+		builder.append("]");
+		return builder.toString();
+	}
+	
+	/**
+	 * A shard, tells its owner when it removes a task.
+	 */
+	private static final class Shard extends SafeThread
+	{
+		
+		/** The owner. */
+		private final ShardedSafeThread owner;
+		
+		/** The no of tasks owned. */
+		private final AtomicInteger load = new AtomicInteger();
+		
+		/**
+		 * Instantiates a new shard.
+		 * 
+		 * @param name
+		 *            the name
+		 * @param threadPool
+		 *            the thread pool
+		 * @param mode
+		 *            the mode
+		 * @param owner
+		 *            the owner
+		 * @param listeners
+		 *            the listeners
+		 */
+		private Shard(final String name, final ExecutorService threadPool, final SchedulerMode mode, final ShardedSafeThread owner,
+				final TimerTaskListeners listeners)
+		{
+			super(name, threadPool, mode, listeners);
+			this.owner = owner;
+		}
+		
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see com.varra.util.SafeThread#callBackEvent(com.varra.util.EnhancedTimerTask)
+		 */
+		@Override
+		protected void callBackEvent(final EnhancedTimerTask task)
+		{
+			owner.removed(this, task);
+			super.callBackEvent(task);
+		}
+	}
+}
@@ -0,0 +1,197 @@
+/*
+ * utils4j - SlidingLogRateLimiter.java, Oct 18, 2026 11:59:58 PM
+ * 
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.varra.util;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import com.varra.classification.InterfaceAudience;
+import com.varra.classification.InterfaceStability;
+
+/**
+ * A sliding window log {@link RateLimiter}, lets exactly at most limit
+ * permits through in any window of the given length, by logging the time of
+ * the last limit permits.<br>
+ * The log is a ring of limit slots, the permits are claimed with a compare
+ * and set on the position and each slot carries the sequence of its last
+ * write, the same way as the {@link RingBufferQueue} does, so it is lock-free.
+ * It takes memory in proportion to the limit, use
+ * {@link SlidingWindowRateLimiter} for the large limits.
+ * 
+ * @author <a href="mailto:varra@outlook.com">Rajakrishna V.
+ *         Reddy</a>
+ * @version 1.0
+ */
+@InterfaceAudience.Public
+@InterfaceStability.Evolving
+public class SlidingLogRateLimiter extends AbstractRateLimiter
+{
+	
+	/** The limit, the max permits in a window. */
+	private final int limit;
+	
+	/** The window, in nanos. */
+	private final long window;
+	
+	/** The time the permits are logged from. */
+	private final long origin = System.nanoTime();
+	
+	/** The time of each permit, since the origin. */
+	private final AtomicLongArray times;
+	
+	/**
+	 * The sequence of each slot, the position of the permit last logged in it
+	 * plus one.
+	 */
+	private final AtomicLongArray sequences;
+	
+	/** The position of the next permit. */
+	private final AtomicLong position = new AtomicLong();
+	
+	/**
+	 * Instantiates a new sliding log rate limiter.
+	 * 
+	 * @param limit
+	 *            the max permits in a window
+	 * @param window
+	 *            the window
+	 * @param unit
+	 *            the unit
+	 */
+	public SlidingLogRateLimiter(final int limit, final long window, final TimeUnit unit)
+	{
+		if (limit <= 0 || window <= 0)
+		{
+			throw new IllegalArgumentException("Limit and window should be greater than zero, limit: " + limit + ", window: " + window);
+		}
+		this.limit = limit;
+		this.window = unit.toNanos(window);
+		times = new AtomicLongArray(limit);
+		sequences = new AtomicLongArray(limit);
+		for (int index = 0; index < limit; index++)
+		{
+			/** As if logged a window before the origin, by the previous lap. */
+			times.set(index, -this.window);
+			sequences.set(index, index - limit + 1);
+		}
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see com.varra.util.RateLimiter#tryAcquire(int)
+	 */
+	public boolean tryAcquire(final int permits)
+	{
+		checkPermits(permits, limit);
+		outer: while (true)
+		{
+			final long claim = position.get();
+			for (long next = claim; next < claim + permits; next++)
+			{
+				final long difference = sequences.get((int) (next % limit)) - (next - limit + 1);
+				if (difference != 0)
+				{
+					if (difference < 0 && position.get() == claim)
+					{
+						/** The previous lap is still being logged. */
+						Thread.yield();
+					}
+					continue outer;
+				}
+			}
+			/** The permit that would fall out of the window along with these. */
+			final long now = System.nanoTime() - origin;
+			if (now - times.get((int) ((claim + permits - 1) % limit)) < window)
+			{
+				return false;
+			}
+			if (position.compareAndSet(claim, claim + permits))
+			{
+				for (long next = claim; next < claim + permits; next++)
+				{
+					final int index = (int) (next % limit);
+					times.lazySet(index, now);
+					sequences.lazySet(index, next + 1);
+				}
+				return true;
+			}
+		}
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see com.varra.util.RateLimiter#getWaitTime(int,
+	 * java.util.concurrent.TimeUnit)
+	 */
+	public long getWaitTime(final int permits, final TimeUnit unit)
+	{
+		checkPermits(permits, limit);
+		final long claim = position.get();
+		final long now = System.nanoTime() - origin;
+		return toUnit(window - (now - times.get((int) ((claim + permits - 1) % limit))), unit);
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see com.varra.util.RateLimiter#isIdle()
+	 */
+	public boolean isIdle()
+	{
+		final long claim = position.get();
+		final long now = System.nanoTime() - origin;
+		return claim == 0 || now - times.get((int) ((claim - 1) % limit)) >= window;
+	}
+	
+	/**
+	 * Gets the limit.
+	 * 
+	 * @return the limit
+	 */
+	public int getLimit()
+	{
+		return limit;
+	}
+	
+	/**
+	 * Gets the window.
+	 * 
+	 * @param unit
+	 *            the unit
+	 * @return the window
+	 */
+	public long getWindow(final TimeUnit unit)
+	{
+		return unit.convert(window, TimeUnit.NANOSECONDS);
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString()
+	{
+		return "SlidingLogRateLimiter [limit=" + limit + ", window=" + window + "ns]";
+	}
+}
@@ -0,0 +1,229 @@
+/*
+ * utils4j - SlidingWindowRateLimiter.java, Oct 18, 2026 11:59:40 PM
+ * 
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.varra.util;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import com.varra.classification.InterfaceAudience;
+import com.varra.classification.InterfaceStability;
+
+/**
+ * A sliding window counter {@link RateLimiter}, lets at most limit permits
+ * through in any window of the given length, estimated from the counts of
+ * the current and the previous fixed windows: the previous count is weighed
+ * by how much of it still overlaps the sliding window.<br>
+ * It takes constant memory whatever the limit is, but is an estimate as it
+ * takes the permits of the previous window as spread evenly, use
+ * {@link SlidingLogRateLimiter} if it has to be exact.
+ * 
+ * <br>
+ * Each count is kept along with its window in a single long, so a permit is
+ * taken with a single compare and set.
+ * 
+ * @author <a href="mailto:varra@outlook.com">Rajakrishna V.
+ *         Reddy</a>
+ * @version 1.0
+ */
+@InterfaceAudience.Public
+@InterfaceStability.Evolving
+public class SlidingWindowRateLimiter extends AbstractRateLimiter
+{
+	
+	/** The limit, the max permits in a window. */
+	private final int limit;
+	
+	/** The window, in nanos. */
+	private final long window;
+	
+	/** The time the windows are counted from. */
+	private final long origin = System.nanoTime();
+	
+	/**
+	 * The counts of the even and odd windows, the window in the high and the
+	 * count in the low 32 bits.
+	 */
+	private final AtomicLongArray counts = new AtomicLongArray(2);
+	
+	/**
+	 * Instantiates a new sliding window rate limiter.
+	 * 
+	 * @param limit
+	 *            the max permits in a window
+	 * @param window
+	 *            the window
+	 * @param unit
+	 *            the unit
+	 */
+	public SlidingWindowRateLimiter(final int limit, final long window, final TimeUnit unit)
+	{
+		if (limit <= 0 || window <= 0)
+		{
+			throw new IllegalArgumentException("Limit and window should be greater than zero, limit: " + limit + ", window: " + window);
+		}
+		this.limit = limit;
+		this.window = unit.toNanos(window);
+		/** Marks both the counts as of no window yet. */
+		counts.set(0, pack(-2, 0));
+		counts.set(1, pack(-2, 0));
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see com.varra.util.RateLimiter#tryAcquire(int)
+	 */
+	public boolean tryAcquire(final int permits)
+	{
+		checkPermits(permits, limit);
+		while (true)
+		{
+			final long elapsed = System.nanoTime() - origin;
+			final long current = elapsed / window;
+			final int index = (int) (current & 1);
+			final long value = counts.get(index);
+			final int count = countOf(value, current);
+			final int previous = countOf(counts.get(index ^ 1), current - 1);
+			final double overlap = 1 - (double) (elapsed - current * window) / window;
+			if (previous * overlap + count + permits > limit)
+			{
+				return false;
+			}
+			if (counts.compareAndSet(index, value, pack(current, count + permits)))
+			{
+				return true;
+			}
+		}
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see com.varra.util.RateLimiter#getWaitTime(int,
+	 * java.util.concurrent.TimeUnit)
+	 */
+	public long getWaitTime(final int permits, final TimeUnit unit)
+	{
+		checkPermits(permits, limit);
+		final long elapsed = System.nanoTime() - origin;
+		final long current = elapsed / window;
+		final long offset = elapsed - current * window;
+		final int count = countOf(counts.get((int) (current & 1)), current);
+		final int previous = countOf(counts.get((int) ((current - 1) & 1)), current - 1);
+		final long wait;
+		if (count + permits <= limit)
+		{
+			/** Till enough of the previous window slides out. */
+			wait = previous == 0 ? 0 : slideOut(previous, limit - count - permits) - offset;
+		}
+		else
+		{
+			/** Till the next window, and enough of this one slides out. */
+			wait = window - offset + slideOut(count, limit - permits);
+		}
+		return toUnit(wait, unit);
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see com.varra.util.RateLimiter#isIdle()
+	 */
+	public boolean isIdle()
+	{
+		final long current = (System.nanoTime() - origin) / window;
+		return countOf(counts.get((int) (current & 1)), current) == 0 && countOf(counts.get((int) ((current - 1) & 1)), current - 1) == 0;
+	}
+	
+	/**
+	 * Gets the time into a window by which the given count of the previous
+	 * window is weighed down to the given allowance.
+	 * 
+	 * @param count
+	 *            the count
+	 * @param allowance
+	 *            the allowance
+	 * @return the time into the window, in nanos
+	 */
+	private long slideOut(final int count, final int allowance)
+	{
+		return (long) Math.ceil((1 - (double) allowance / count) * window);
+	}
+	
+	/**
+	 * Gets the count of the given window.
+	 * 
+	 * @param value
+	 *            the packed value
+	 * @param expected
+	 *            the window expected
+	 * @return the count, 0 if the value is of some other window
+	 */
+	private static int countOf(final long value, final long expected)
+	{
+		return (int) (value >>> 32) == (int) expected ? (int) value : 0;
+	}
+	
+	/**
+	 * Packs the count along with its window.
+	 * 
+	 * @param window
+	 *            the window
+	 * @param count
+	 *            the count
+	 * @return the packed value
+	 */
+	private static long pack(final long window, final int count)
+	{
+		return (window << 32) | (count & 0xFFFFFFFFL);
+	}
+	
+	/**
+	 * Gets the limit.
+	 * 
+	 * @return the limit
+	 */
+	public int getLimit()
+	{
+		return limit;
+	}
+	
+	/**
+	 * Gets the window.
+	 * 
+	 * @param unit
+	 *            the unit
+	 * @return the window
+	 */
+	public long getWindow(final TimeUnit unit)
+	{
+		return unit.convert(window, TimeUnit.NANOSECONDS);
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString()
+	{
+		return "SlidingWindowRateLimiter [limit=" + limit + ", window=" + window + "ns]";
+	}
+}
@@ -0,0 +1,582 @@
+/*
+ * utils4j - TimerTaskListeners.java, Oct 18, 2026 9:58:21 PM
+ * 
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.varra.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.varra.classification.InterfaceAudience;
+import com.varra.classification.InterfaceStability;
+import com.varra.listener.TimerTaskListener;
+import com.varra.log.Logger;
+
+/**
+ * The {@link TimerTaskListener}s of a {@link SafeThread}, any number of them
+ * per {@link EnhancedTimerTask} type, notified of the cancel, finish and
+ * expiry of the tasks off the dispatcher thread.
+ * 
+ * <br>
+ * The listeners are kept in a copy-on-write map, so {@link #callBack(EnhancedTimerTask)}
+ * takes no lock and only adding or removing a listener copies it. Each
+ * listener has a mailbox of its own, drained by one thread of the executor
+ * at a time, so a listener is notified in the same order as the events
+ * happened and one slow listener neither stalls the dispatcher nor the other
+ * listeners.<br>
+ * A mailbox holds at most the given no of notifications, the ones above it
+ * are dropped and counted, see {@link #getDroppedCount()}. The default
+ * executor drops a mailbox when its queue is full, rather than running it on
+ * the dispatcher thread, and the notifications waiting in it are dropped and
+ * counted the same.
+ * 
+ * @author <a href="mailto:varra@outlook.com">Rajakrishna V.
+ *         Reddy</a>
+ * @version 1.0
+ */
+@InterfaceAudience.Public
+@InterfaceStability.Evolving
+public class TimerTaskListeners
+{
+	
+	/** The default max no of notifications waiting per listener. */
+	public static final int DEFAULT_MAX_PENDING = 10000;
+	
+	/** The max no of notifications delivered before handing the thread over. */
+	private static final int BATCH_SIZE = 64;
+	
+	/** The logger to log the debugging messages as application runs. */
+	private static final Logger logger = Logger.getLogger(TimerTaskListeners.class);
+	
+	/** The empty mailboxes. */
+	private static final Mailbox[] NO_MAILBOXES = new Mailbox[0];
+	
+	/** The mailboxes by task type, replaced on every change. */
+	private volatile Map<Class<? extends EnhancedTimerTask>, Mailbox[]> mailboxes = Collections.emptyMap();
+	
+	/** The executor the listeners are notified on. */
+	private final ExecutorService executor;
+	
+	/** The max no of notifications waiting per listener. */
+	private final int maxPending;
+	
+	/** The no of notifications dropped. */
+	private final AtomicLong dropped = new AtomicLong();
+	
+	/**
+	 * Instantiates new listeners, notified on a {@link BoundedExecutor} of up
+	 * to as many threads as the available processors, 4 at least.
+	 * 
+	 * @param name
+	 *            the name of the {@link SafeThread}
+	 */
+	public TimerTaskListeners(final String name)
+	{
+		this(newExecutor(name), DEFAULT_MAX_PENDING);
+	}
+	
+	/**
+	 * Instantiates new listeners.
+	 * 
+	 * @param executor
+	 *            the executor the listeners are notified on
+	 * @param maxPending
+	 *            the max no of notifications waiting per listener
+	 */
+	public TimerTaskListeners(final ExecutorService executor, final int maxPending)
+	{
+		if (executor == null || maxPending <= 0)
+		{
+			throw new IllegalArgumentException("Invalid arguments, executor: " + executor + ", maxPending: " + maxPending);
+		}
+		this.executor = executor;
+		this.maxPending = maxPending;
+	}
+	
+	/**
+	 * Creates the executor of the listeners, its threads time out when idle.
+	 * A mailbox is dropped when the queue is full, so a slow listener never
+	 * runs on the dispatcher thread, and its notifications are dropped too.
+	 * 
+	 * @param name
+	 *            the name
+	 * @return the bounded executor
+	 */
+	private static BoundedExecutor newExecutor(final String name)
+	{
+		/**
+		 * All core, as the threads above the core start only once the queue is
+		 * full, and a few at least as the listeners tend to block.
+		 */
+		final int noOfThreads = Math.max(4, Runtime.getRuntime().availableProcessors());
+		final BoundedExecutor executor = new BoundedExecutor(name + "-listeners", noOfThreads, noOfThreads, 60 * 1000, 1024, RejectionPolicy.DROP_NEWEST)
+		{
+			/*
+			 * (non-Javadoc)
+			 * 
+			 * @see com.varra.util.BoundedExecutor#onDiscard(java.lang.Runnable)
+			 */
+			@Override
+			protected void onDiscard(final Runnable task)
+			{
+				if (task instanceof Mailbox)
+				{
+					((Mailbox) task).onDiscard();
+				}
+				else
+				{
+					super.onDiscard(task);
+				}
+			}
+		};
+		executor.allowCoreThreadTimeOut(true);
+		return executor;
+	}
+	
+	/**
+	 * Adds the listener of the given type of tasks, if not added already.
+	 * 
+	 * @param listener
+	 *            the listener
+	 * @param type
+	 *            the type
+	 * @return true, if added
+	 */
+	public synchronized boolean add(final TimerTaskListener listener, final Class<? extends EnhancedTimerTask> type)
+	{
+		if (listener == null || type == null)
+		{
+			return false;
+		}
+		final Mailbox[] current = get(mailboxes, type);
+		if (indexOf(current, listener) >= 0)
+		{
+			return false;
+		}
+		/** A listener of many types shares the mailbox, to keep its order. */
+		Mailbox mailbox = null;
+		for (final Mailbox[] others : mailboxes.values())
+		{
+			final int index = indexOf(others, listener);
+			if (index >= 0)
+			{
+				mailbox = others[index];
+				break;
+			}
+		}
+		final Mailbox[] updated = new Mailbox[current.length + 1];
+		System.arraycopy(current, 0, updated, 0, current.length);
+		updated[current.length] = mailbox != null ? mailbox : new Mailbox(listener);
+		final Map<Class<? extends EnhancedTimerTask>, Mailbox[]> copy = new HashMap<Class<? extends EnhancedTimerTask>, Mailbox[]>(mailboxes);
+		copy.put(type, updated);
+		mailboxes = copy;
+		return true;
+	}
+	
+	/**
+	 * Removes the listener of the given type of tasks, the notifications
+	 * waiting for it are still delivered.
+	 * 
+	 * @param listener
+	 *            the listener
+	 * @param type
+	 *            the type
+	 * @return true, if removed
+	 */
+	public synchronized boolean remove(final TimerTaskListener listener, final Class<? extends EnhancedTimerTask> type)
+	{
+		if (listener == null || type == null)
+		{
+			return false;
+		}
+		final Mailbox[] current = get(mailboxes, type);
+		final int index = indexOf(current, listener);
+		if (index < 0)
+		{
+			return false;
+		}
+		final Map<Class<? extends EnhancedTimerTask>, Mailbox[]> copy = new HashMap<Class<? extends EnhancedTimerTask>, Mailbox[]>(mailboxes);
+		if (current.length == 1)
+		{
+			copy.remove(type);
+		}
+		else
+		{
+			final Mailbox[] updated = new Mailbox[current.length - 1];
+			System.arraycopy(current, 0, updated, 0, index);
+			System.arraycopy(current, index + 1, updated, index, current.length - index - 1);
+			copy.put(type, updated);
+		}
+		mailboxes = copy;
+		return true;
+	}
+	
+	/**
+	 * Gets the listeners of the given type of tasks.
+	 * 
+	 * @param type
+	 *            the type
+	 * @return the listeners, in the order they are added
+	 */
+	public List<TimerTaskListener> get(final Class<? extends EnhancedTimerTask> type)
+	{
+		final Mailbox[] current = get(mailboxes, type);
+		final List<TimerTaskListener> listeners = new ArrayList<TimerTaskListener>(current.length);
+		for (final Mailbox mailbox : current)
+		{
+			listeners.add(mailbox.listener);
+		}
+		return Collections.unmodifiableList(listeners);
+	}
+	
+	/**
+	 * Gets all the listeners by their task types.
+	 * 
+	 * @return the listeners
+	 */
+	public Map<Class<? extends EnhancedTimerTask>, List<TimerTaskListener>> getAll()
+	{
+		final Map<Class<? extends EnhancedTimerTask>, List<TimerTaskListener>> all = new LinkedHashMap<Class<? extends EnhancedTimerTask>, List<TimerTaskListener>>();
+		for (final Entry<Class<? extends EnhancedTimerTask>, Mailbox[]> entry : mailboxes.entrySet())
+		{
+			all.put(entry.getKey(), get(entry.getKey()));
+		}
+		return Collections.unmodifiableMap(all);
+	}
+	
+	/**
+	 * Gets the first listener of every task type, the way they were kept
+	 * before many of them were allowed per type.
+	 * 
+	 * @return the first listeners
+	 */
+	public Map<Class<? extends EnhancedTimerTask>, TimerTaskListener> getFirst()
+	{
+		final Map<Class<? extends EnhancedTimerTask>, TimerTaskListener> first = new LinkedHashMap<Class<? extends EnhancedTimerTask>, TimerTaskListener>();
+		for (final Entry<Class<? extends EnhancedTimerTask>, Mailbox[]> entry : mailboxes.entrySet())
+		{
+			first.put(entry.getKey(), entry.getValue()[0].listener);
+		}
+		return Collections.unmodifiableMap(first);
+	}
+	
+	/**
+	 * Notifies the listeners of the type of the task whether it is cancelled,
+	 * finished or expired. It only queues the notifications, the listeners
+	 * are called on the executor.
+	 * 
+	 * @param task
+	 *            the task
+	 */
+	public void callBack(final EnhancedTimerTask task)
+	{
+		final Mailbox[] current = get(mailboxes, task.getClass());
+		if (current.length == 0)
+		{
+			return;
+		}
+		final Event event = task.isCanceled() ? Event.CANCEL : task.isFinished() ? Event.FINISH : task.isExpired() ? Event.EXPIRY : null;
+		if (event == null)
+		{
+			return;
+		}
+		for (final Mailbox mailbox : current)
+		{
+			mailbox.offer(new Notification(task, event));
+		}
+	}
+	
+	/**
+	 * Gets the no of notifications dropped, as the mailbox of the listener or
+	 * the queue of the executor was full.
+	 * 
+	 * @return the dropped count
+	 */
+	public long getDroppedCount()
+	{
+		return dropped.get();
+	}
+	
+	/**
+	 * Gets the executor the listeners are notified on.
+	 * 
+	 * @return the executor
+	 */
+	public ExecutorService getExecutor()
+	{
+		return executor;
+	}
+	
+	/**
+	 * Shutdowns the executor once the waiting notifications are delivered.
+	 */
+	public void shutdown()
+	{
+		executor.shutdown();
+	}
+	
+	/**
+	 * Gets the mailboxes of the given type.
+	 * 
+	 * @param mailboxes
+	 *            the mailboxes
+	 * @param type
+	 *            the type
+	 * @return the mailboxes, never null
+	 */
+	private static Mailbox[] get(final Map<Class<? extends EnhancedTimerTask>, Mailbox[]> mailboxes, final Class<?> type)
+	{
+		final Mailbox[] current = mailboxes.get(type);
+		return current != null ? current : NO_MAILBOXES;
+	}
+	
+	/**
+	 * Gets the index of the mailbox of the listener.
+	 * 
+	 * @param mailboxes
+	 *            the mailboxes
+	 * @param listener
+	 *            the listener
+	 * @return the index, -1 if not found
+	 */
+	private static int indexOf(final Mailbox[] mailboxes, final TimerTaskListener listener)
+	{
+		for (int index = 0; index < mailboxes.length; index++)
+		{
+			if (mailboxes[index].listener.equals(listener))
+			{
+				return index;
+			}
+		}
+		return -1;
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString()
+	{
+		final StringBuilder builder = new StringBuilder();
+		builder.append("TimerTaskListeners [listeners=");
+		builder.append(getAll());
+		builder.append(", dropped=");
+		builder.append(dropped.get());
+		builder.append("]");
+		return builder.toString();
+	}
+	
+	/**
+	 * The events notified to the listeners.
+	 */
+	private static enum Event
+	{
+		
+		/** The task is cancelled. */
+		CANCEL,
+		
+		/** The task is finished. */
+		FINISH,
+		
+		/** The task is expired. */
+		EXPIRY;
+	}
+	
+	/**
+	 * A notification waiting in the mailbox.
+	 */
+	private static final class Notification
+	{
+		
+		/** The task. */
+		private final EnhancedTimerTask task;
+		
+		/** The event. */
+		private final Event event;
+		
+		/**
+		 * Instantiates a new notification.
+		 * 
+		 * @param task
+		 *            the task
+		 * @param event
+		 *            the event
+		 */
+		private Notification(final EnhancedTimerTask task, final Event event)
+		{
+			this.task = task;
+			this.event = event;
+		}
+	}
+	
+	/**
+	 * The notifications of a listener, drained by one thread at a time.
+	 */
+	private final class Mailbox implements Runnable
+	{
+		
+		/** The listener. */
+		private final TimerTaskListener listener;
+		
+		/** The notifications. */
+		private final ConcurrentLinkedQueue<Notification> pending = new ConcurrentLinkedQueue<Notification>();
+		
+		/** The no of notifications. */
+		private final AtomicInteger size = new AtomicInteger();
+		
+		/** Whether it is handed over to the executor. */
+		private final AtomicBoolean scheduled = new AtomicBoolean();
+		
+		/**
+		 * Instantiates a new mailbox.
+		 * 
+		 * @param listener
+		 *            the listener
+		 */
+		private Mailbox(final TimerTaskListener listener)
+		{
+			this.listener = listener;
+		}
+		
+		/**
+		 * Queues the notification, and hands the mailbox over to the executor
+		 * if not done already.
+		 * 
+		 * @param notification
+		 *            the notification
+		 */
+		private void offer(final Notification notification)
+		{
+			if (size.incrementAndGet() > maxPending)
+			{
+				size.decrementAndGet();
+				dropped.incrementAndGet();
+				logger.warn("Dropped the notification of the task: {} to the listener: {}, as it has {} of them waiting already.",
+						notification.task, listener, maxPending);
+				return;
+			}
+			pending.offer(notification);
+			schedule();
+		}
+		
+		/**
+		 * Hands the mailbox over to the executor, if not done already.
+		 */
+		private void schedule()
+		{
+			if (scheduled.compareAndSet(false, true))
+			{
+				try
+				{
+					executor.execute(this);
+				}
+				catch (RejectedExecutionException e)
+				{
+					scheduled.set(false);
+					logger.warn("Unable to notify the listener: {}, as the executor is shut down.", listener);
+				}
+			}
+		}
+		
+		/**
+		 * Called when the executor drops this as its queue is full, drops the
+		 * notifications waiting and counts them. It is handed over again on
+		 * the next notification.
+		 */
+		private void onDiscard()
+		{
+			scheduled.set(false);
+			int count = 0;
+			while (pending.poll() != null)
+			{
+				size.decrementAndGet();
+				count++;
+			}
+			if (count > 0)
+			{
+				dropped.addAndGet(count);
+				logger.warn("Dropped {} notification(s) to the listener: {}, as the queue of the executor is full.", count, listener);
+			}
+		}
+		
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see java.lang.Runnable#run()
+		 */
+		public void run()
+		{
+			for (int count = 0; count < BATCH_SIZE; count++)
+			{
+				final Notification notification = pending.poll();
+				if (notification == null)
+				{
+					break;
+				}
+				size.decrementAndGet();
+				deliver(notification);
+			}
+			scheduled.set(false);
+			if (!pending.isEmpty())
+			{
+				schedule();
+			}
+		}
+		
+		/**
+		 * Delivers the notification to the listener.
+		 * 
+		 * @param notification
+		 *            the notification
+		 */
+		private void deliver(final Notification notification)
+		{
+			try
+			{
+				switch (notification.event)
+				{
+					case CANCEL:
+						listener.omitOnCancel(notification.task);
+						break;
+					case FINISH:
+						listener.omitOnFinish(notification.task);
+						break;
+					default:
+						listener.omitOnExpiry(notification.task);
+						break;
+				}
+			}
+			catch (RuntimeException e)
+			{
+				logger.error("Error while notifying the listener: {} of the task: {}", listener, notification.task, e);
+			}
+		}
+	}
+}
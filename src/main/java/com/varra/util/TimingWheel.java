@@ -0,0 +1,262 @@
+/*
+ * utils4j - TimingWheel.java, Oct 18, 2026 10:12:47 PM
+ * 
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.varra.util;
+
+import java.util.List;
+
+/**
+ * A hierarchical timing wheel, schedules and cancels the timers in O(1) and
+ * expires them in amortized O(1), for the many timers one
+ * {@link EnhancedTimerTask} each would flood the scheduler with.<br>
+ * The time is divided in ticks of {@code 1 << TICK_SHIFT} nanos (about a ms).
+ * Each of the {@link #LEVELS} wheels has 64 slots, the first one a tick each,
+ * the next one 64 ticks each and so on, the timers further than the last
+ * wheel wait in an overflow slot. A timer goes to the finest wheel that spans
+ * its delay and moves down to the finer wheels as the time advances, at most
+ * once per wheel.
+ * 
+ * <br>
+ * The timers are intrusive, i.e. the {@link Timer}s are linked in the slots
+ * themselves, so nothing is allocated to schedule them.
+ * 
+ * <br>
+ * Note: <b> It is not thread safe, the callers guard it.</b>
+ * 
+ * @param <T>
+ *            the timer type
+ * @author Rajakrishna V. Reddy
+ * @version 1.0
+ */
+final class TimingWheel<T extends TimingWheel.Timer>
+{
+	
+	/** The shift of the nanos to the ticks. */
+	static final int TICK_SHIFT = 20;
+	
+	/** The no of wheels, besides the overflow slot. */
+	static final int LEVELS = 4;
+	
+	/** The bits of the slot index. */
+	private static final int SLOT_BITS = 6;
+	
+	/** The slot mask. */
+	private static final int SLOT_MASK = (1 << SLOT_BITS) - 1;
+	
+	/** The wheels, the last one is the overflow slot. */
+	private final Timer[][] wheels = new Timer[LEVELS + 1][];
+	
+	/** The time the ticks are counted from. */
+	private final long origin;
+	
+	/** The current tick. */
+	private long ticks;
+	
+	/** The no of timers scheduled. */
+	private int size;
+	
+	/**
+	 * Instantiates a new timing wheel.
+	 * 
+	 * @param now
+	 *            the current time, in nanos
+	 */
+	TimingWheel(final long now)
+	{
+		this.origin = now;
+		for (int level = 0; level <= LEVELS; level++)
+		{
+			wheels[level] = new Timer[level < LEVELS ? 1 << SLOT_BITS : 1];
+			for (int index = 0; index < wheels[level].length; index++)
+			{
+				final Timer sentinel = new Timer();
+				sentinel.previous = sentinel.next = sentinel;
+				wheels[level][index] = sentinel;
+			}
+		}
+	}
+	
+	/**
+	 * Schedules the timer to expire at the given deadline, rescheduling it if
+	 * scheduled already. The deadlines gone expire on the next
+	 * {@link #advance(long, List)}.
+	 * 
+	 * @param timer
+	 *            the timer
+	 * @param deadline
+	 *            the deadline, in nanos
+	 */
+	void schedule(final T timer, final long deadline)
+	{
+		cancel(timer);
+		timer.deadline = deadline;
+		link(timer);
+	}
+	
+	/**
+	 * Cancels the timer, if scheduled.
+	 * 
+	 * @param timer
+	 *            the timer
+	 */
+	void cancel(final T timer)
+	{
+		if (timer.next != null)
+		{
+			timer.previous.next = timer.next;
+			timer.next.previous = timer.previous;
+			timer.previous = timer.next = null;
+			size--;
+		}
+	}
+	
+	/**
+	 * Advances the time, collecting the timers expired in the given list,
+	 * they are not scheduled any more.
+	 * 
+	 * @param now
+	 *            the current time, in nanos
+	 * @param expired
+	 *            the list to collect the timers expired in
+	 * @return the no of timers expired
+	 */
+	@SuppressWarnings("unchecked")
+	int advance(final long now, final List<T> expired)
+	{
+		final long previous = ticks;
+		final long current = toTicks(now);
+		if (current - previous <= 0)
+		{
+			return 0;
+		}
+		ticks = current;
+		int count = 0;
+		for (int level = 0; level <= LEVELS; level++)
+		{
+			final int shift = SLOT_BITS * level;
+			final long delta = (current >>> shift) - (previous >>> shift);
+			if (delta <= 0)
+			{
+				/** The coarser wheels did not turn either. */
+				break;
+			}
+			final Timer[] slots = wheels[level];
+			final int mask = slots.length - 1;
+			final int start = (int) ((previous >>> shift) & mask);
+			final int end = start + (int) Math.min(delta + 1, slots.length);
+			for (int index = start; index < end; index++)
+			{
+				final Timer sentinel = slots[index & mask];
+				Timer timer = sentinel.next;
+				sentinel.previous = sentinel.next = sentinel;
+				while (timer != sentinel)
+				{
+					final Timer next = timer.next;
+					timer.previous = timer.next = null;
+					size--;
+					if (timer.deadline - now <= 0)
+					{
+						expired.add((T) timer);
+						count++;
+					}
+					else
+					{
+						/** Moves down to a finer wheel. */
+						link(timer);
+					}
+					timer = next;
+				}
+			}
+		}
+		return count;
+	}
+	
+	/**
+	 * Gets the no of timers scheduled.
+	 * 
+	 * @return the size
+	 */
+	int size()
+	{
+		return size;
+	}
+	
+	/**
+	 * Links the timer in the slot of its deadline.
+	 * 
+	 * @param timer
+	 *            the timer
+	 */
+	private void link(final Timer timer)
+	{
+		final long due = Math.max(toTicks(timer.deadline), ticks);
+		final long delay = due - ticks;
+		Timer sentinel = wheels[LEVELS][0];
+		for (int level = 0; level < LEVELS; level++)
+		{
+			if (delay < 1L << (SLOT_BITS * (level + 1)))
+			{
+				sentinel = wheels[level][(int) ((due >>> (SLOT_BITS * level)) & SLOT_MASK)];
+				break;
+			}
+		}
+		timer.next = sentinel;
+		timer.previous = sentinel.previous;
+		sentinel.previous.next = timer;
+		sentinel.previous = timer;
+		size++;
+	}
+	
+	/**
+	 * Converts the time to the ticks.
+	 * 
+	 * @param nanos
+	 *            the nanos
+	 * @return the ticks
+	 */
+	private long toTicks(final long nanos)
+	{
+		return (nanos - origin) >> TICK_SHIFT;
+	}
+	
+	/**
+	 * A timer of the wheel, extended by the ones scheduled on it.
+	 */
+	static class Timer
+	{
+		
+		/** The deadline, in nanos. */
+		long deadline;
+		
+		/** The previous timer in the slot, null if not scheduled. */
+		Timer previous;
+		
+		/** The next timer in the slot, null if not scheduled. */
+		Timer next;
+		
+		/**
+		 * Checks if it is scheduled.
+		 * 
+		 * @return true, if scheduled
+		 */
+		boolean isScheduled()
+		{
+			return next != null;
+		}
+	}
+}
@@ -0,0 +1,182 @@
+/*
+ * utils4j - TokenBucketRateLimiter.java, Oct 18, 2026 11:58:02 PM
+ * 
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.varra.util;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.varra.classification.InterfaceAudience;
+import com.varra.classification.InterfaceStability;
+
+/**
+ * A token bucket {@link RateLimiter}, the bucket holds up to burst permits
+ * and is refilled at the given rate, so short bursts are let through while
+ * the average rate is kept.<br>
+ * The bucket is kept as the time at which it would be full again (the
+ * generic cell rate algorithm), so a permit is taken with a single compare
+ * and set, without a lock or a refill thread.
+ * 
+ * @author <a href="mailto:varra@outlook.com">Rajakrishna V.
+ *         Reddy</a>
+ * @version 1.0
+ */
+@InterfaceAudience.Public
+@InterfaceStability.Evolving
+public class TokenBucketRateLimiter extends AbstractRateLimiter
+{
+	
+	/** The permits per second. */
+	private final double permitsPerSecond;
+	
+	/** The burst, the max permits held by the bucket. */
+	private final int burst;
+	
+	/** The time taken to refill a permit, in nanos. */
+	private final long interval;
+	
+	/** The time taken to refill the whole bucket, in nanos. */
+	private final long tolerance;
+	
+	/** The time at which the bucket would be full again, in nanos. */
+	private final AtomicLong fullAt;
+	
+	/**
+	 * Instantiates a new token bucket rate limiter with no bursts.
+	 * 
+	 * @param permitsPerSecond
+	 *            the permits per second
+	 */
+	public TokenBucketRateLimiter(final double permitsPerSecond)
+	{
+		this(permitsPerSecond, 1);
+	}
+	
+	/**
+	 * Instantiates a new token bucket rate limiter, starting with a full
+	 * bucket.
+	 * 
+	 * @param permitsPerSecond
+	 *            the permits per second
+	 * @param burst
+	 *            the max permits that can be taken at once
+	 */
+	public TokenBucketRateLimiter(final double permitsPerSecond, final int burst)
+	{
+		if (!(permitsPerSecond > 0) || burst <= 0)
+		{
+			throw new IllegalArgumentException("Rate and burst should be greater than zero, permitsPerSecond: " + permitsPerSecond + ", burst: " + burst);
+		}
+		this.permitsPerSecond = permitsPerSecond;
+		this.burst = burst;
+		this.interval = Math.max(1, Math.round(TimeUnit.SECONDS.toNanos(1) / permitsPerSecond));
+		this.tolerance = interval * burst;
+		this.fullAt = new AtomicLong(System.nanoTime());
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see com.varra.util.RateLimiter#tryAcquire(int)
+	 */
+	public boolean tryAcquire(final int permits)
+	{
+		checkPermits(permits, burst);
+		while (true)
+		{
+			final long now = System.nanoTime();
+			final long current = fullAt.get();
+			final long next = (current - now > 0 ? current : now) + permits * interval;
+			if (next - now > tolerance)
+			{
+				return false;
+			}
+			if (fullAt.compareAndSet(current, next))
+			{
+				return true;
+			}
+		}
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see com.varra.util.RateLimiter#getWaitTime(int,
+	 * java.util.concurrent.TimeUnit)
+	 */
+	public long getWaitTime(final int permits, final TimeUnit unit)
+	{
+		checkPermits(permits, burst);
+		final long now = System.nanoTime();
+		final long current = fullAt.get();
+		final long wait = (current - now > 0 ? current - now : 0) + permits * interval - tolerance;
+		return toUnit(wait, unit);
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see com.varra.util.RateLimiter#isIdle()
+	 */
+	public boolean isIdle()
+	{
+		return fullAt.get() - System.nanoTime() <= 0;
+	}
+	
+	/**
+	 * Gets the permits available right away.
+	 * 
+	 * @return the available permits
+	 */
+	public int getAvailablePermits()
+	{
+		final long used = fullAt.get() - System.nanoTime();
+		return used <= 0 ? burst : (int) ((tolerance - used) / interval);
+	}
+	
+	/**
+	 * Gets the permits per second.
+	 * 
+	 * @return the permits per second
+	 */
+	public double getPermitsPerSecond()
+	{
+		return permitsPerSecond;
+	}
+	
+	/**
+	 * Gets the burst.
+	 * 
+	 * @return the burst
+	 */
+	public int getBurst()
+	{
+		return burst;
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString()
+	{
+		return "TokenBucketRateLimiter [permitsPerSecond=" + permitsPerSecond + ", burst=" + burst + ", available=" + getAvailablePermits() + "]";
+	}
+}
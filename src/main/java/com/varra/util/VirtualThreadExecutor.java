@@ -0,0 +1,432 @@
+/*
+ * utils4j - VirtualThreadExecutor.java, Oct 18, 2026 7:08:36 PM
+ * 
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.varra.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RunnableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import com.varra.classification.InterfaceAudience;
+import com.varra.classification.InterfaceStability;
+
+/**
+ * An {@link java.util.concurrent.ExecutorService} that runs each task on a
+ * thread of its own, created by a {@link SafeThreadFactory}, a virtual thread
+ * where the JVM supports them. It suits the {@link EnhancedTimerTask}s which
+ * mostly block on I/O, as the blocked ones do not starve the others like in a
+ * fixed pool and do not pin a platform thread each like in a cached pool.<br>
+ * At most the given no of tasks run at a time, the rest wait in an unbounded
+ * queue and are started as the running ones complete, so
+ * {@link #execute(Runnable)} never blocks the dispatcher of the
+ * {@link SafeThread}. The running state of the {@link EnhancedTimerTask}s is
+ * reset by the {@link SafeThreadFactory} once they are done, like for the
+ * platform threads.
+ * 
+ * <br>
+ * Use it with a {@link SafeThread} like:
+ * 
+ * <pre>
+ * new SafeThread(name, new VirtualThreadExecutor(1000), SchedulerMode.DEADLINE);
+ * </pre>
+ * 
+ * or see {@link GlobalThread#getVirtualGlobalThread(int)}.
+ * 
+ * @author <a href="mailto:varra@outlook.com">Rajakrishna V.
+ *         Reddy</a>
+ * @version 1.0
+ */
+@InterfaceAudience.Public
+@InterfaceStability.Evolving
+public class VirtualThreadExecutor extends AbstractExecutorService
+{
+	
+	/** The thread factory. */
+	private final SafeThreadFactory threadFactory;
+	
+	/** The max no of tasks running at a time. */
+	private final int maxConcurrency;
+	
+	/** The no of tasks running. */
+	private final AtomicInteger active = new AtomicInteger();
+	
+	/** The tasks waiting for their turn. */
+	private final ConcurrentLinkedQueue<Task> pending = new ConcurrentLinkedQueue<Task>();
+	
+	/** The threads running the tasks, to interrupt them on shutdownNow. */
+	private final Set<Thread> threads = ConcurrentHashMap.newKeySet();
+	
+	/** The is shutdown. */
+	private volatile boolean isShutdown;
+	
+	/** The termination lock. */
+	private final Lock terminationLock = new ReentrantLock();
+	
+	/** The termination condition. */
+	private final Condition terminated = terminationLock.newCondition();
+	
+	/**
+	 * Instantiates a new executor running at most the given no of tasks at a
+	 * time on the virtual threads.
+	 * 
+	 * @param maxConcurrency
+	 *            the max no of tasks running at a time
+	 */
+	public VirtualThreadExecutor(final int maxConcurrency)
+	{
+		this(maxConcurrency, new SafeThreadFactory(true));
+	}
+	
+	/**
+	 * Instantiates a new executor running at most the given no of tasks at a
+	 * time on the threads of the given factory.
+	 * 
+	 * @param maxConcurrency
+	 *            the max no of tasks running at a time
+	 * @param threadFactory
+	 *            the thread factory
+	 */
+	public VirtualThreadExecutor(final int maxConcurrency, final SafeThreadFactory threadFactory)
+	{
+		if (maxConcurrency <= 0)
+		{
+			throw new IllegalArgumentException("Max concurrency should be greater than zero, maxConcurrency: " + maxConcurrency);
+		}
+		this.maxConcurrency = maxConcurrency;
+		this.threadFactory = threadFactory;
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see java.util.concurrent.Executor#execute(java.lang.Runnable)
+	 */
+	public void execute(final Runnable command)
+	{
+		if (command == null)
+		{
+			throw new NullPointerException();
+		}
+		if (isShutdown)
+		{
+			throw new RejectedExecutionException("The executor is shutdown, hence rejecting the task: " + command);
+		}
+		pending.offer(new Task(command));
+		dispatch();
+	}
+	
+	/**
+	 * Starts the pending tasks as long as the no of running ones is below the
+	 * limit.
+	 */
+	private void dispatch()
+	{
+		while (true)
+		{
+			final int count = active.get();
+			if (count >= maxConcurrency || pending.isEmpty())
+			{
+				return;
+			}
+			if (active.compareAndSet(count, count + 1))
+			{
+				final Task task = pending.poll();
+				if (task == null)
+				{
+					active.decrementAndGet();
+					continue;
+				}
+				try
+				{
+					threadFactory.newThread(task).start();
+				}
+				catch (RuntimeException e)
+				{
+					active.decrementAndGet();
+					throw e;
+				}
+			}
+		}
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see java.util.concurrent.AbstractExecutorService#newTaskFor(java.lang.Runnable, java.lang.Object)
+	 */
+	@Override
+	protected <T> RunnableFuture<T> newTaskFor(final Runnable runnable, final T value)
+	{
+		return new TaskFuture<T>(runnable, value);
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see java.util.concurrent.ExecutorService#shutdown()
+	 */
+	public void shutdown()
+	{
+		isShutdown = true;
+		signalIfTerminated();
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see java.util.concurrent.ExecutorService#shutdownNow()
+	 */
+	public List<Runnable> shutdownNow()
+	{
+		isShutdown = true;
+		final List<Runnable> tasks = new ArrayList<Runnable>();
+		Task task;
+		while ((task = pending.poll()) != null)
+		{
+			tasks.add(task.command);
+		}
+		for (final Thread thread : threads)
+		{
+			thread.interrupt();
+		}
+		signalIfTerminated();
+		return tasks;
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see java.util.concurrent.ExecutorService#isShutdown()
+	 */
+	public boolean isShutdown()
+	{
+		return isShutdown;
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see java.util.concurrent.ExecutorService#isTerminated()
+	 */
+	public boolean isTerminated()
+	{
+		return isShutdown && active.get() == 0 && pending.isEmpty();
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see java.util.concurrent.ExecutorService#awaitTermination(long, java.util.concurrent.TimeUnit)
+	 */
+	public boolean awaitTermination(final long timeout, final TimeUnit unit) throws InterruptedException
+	{
+		long nanos = unit.toNanos(timeout);
+		terminationLock.lock();
+		try
+		{
+			while (!isTerminated())
+			{
+				if (nanos <= 0)
+				{
+					return false;
+				}
+				nanos = terminated.awaitNanos(nanos);
+			}
+			return true;
+		}
+		finally
+		{
+			terminationLock.unlock();
+		}
+	}
+	
+	/**
+	 * Signals the waiting threads if it is terminated.
+	 */
+	private void signalIfTerminated()
+	{
+		if (isTerminated())
+		{
+			terminationLock.lock();
+			try
+			{
+				terminated.signalAll();
+			}
+			finally
+			{
+				terminationLock.unlock();
+			}
+		}
+	}
+	
+	/**
+	 * Gets the max no of tasks running at a time.
+	 * 
+	 * @return the max concurrency
+	 */
+	public int getMaxConcurrency()
+	{
+		return maxConcurrency;
+	}
+	
+	/**
+	 * Gets the no of tasks running.
+	 * 
+	 * @return the active count
+	 */
+	public int getActiveCount()
+	{
+		return active.get();
+	}
+	
+	/**
+	 * Gets the no of tasks waiting for their turn.
+	 * 
+	 * @return the queue size
+	 */
+	public int getQueueSize()
+	{
+		return pending.size();
+	}
+	
+	/**
+	 * Checks if the tasks run on the virtual threads.
+	 * 
+	 * @return true, if virtual
+	 */
+	public boolean isVirtual()
+	{
+		return threadFactory.isVirtual();
+	}
+	
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString()
+	{
+		final StringBuilder builder = new StringBuilder();
+		builder.append("VirtualThreadExecutor [maxConcurrency=");
+		builder.append(maxConcurrency);
+		builder.append(", active=");
+		builder.append(active.get());
+		builder.append(", queueSize=");
+		builder.append(pending.size());
+		builder.append(", virtual=");
+		builder.append(isVirtual());
+		builder.append(", isShutdown=");
+		builder.append(isShutdown);
+		builder.append("]");
+		return builder.toString();
+	}
+	
+	/**
+	 * A future that remembers the task submitted, so that the running state
+	 * of the {@link EnhancedTimerTask}s can be looked at.
+	 * 
+	 * @param <T>
+	 *            the generic type
+	 */
+	private static final class TaskFuture<T> extends FutureTask<T>
+	{
+		
+		/** The runnable. */
+		private final Runnable runnable;
+		
+		/**
+		 * Instantiates a new task future.
+		 * 
+		 * @param runnable
+		 *            the runnable
+		 * @param value
+		 *            the value
+		 */
+		private TaskFuture(final Runnable runnable, final T value)
+		{
+			super(runnable, value);
+			this.runnable = runnable;
+		}
+	}
+	
+	/**
+	 * A task run on a thread of its own, starts the next pending task once it
+	 * is done.
+	 */
+	final class Task implements Runnable
+	{
+		
+		/** The command. */
+		private final Runnable command;
+		
+		/**
+		 * Instantiates a new task.
+		 * 
+		 * @param command
+		 *            the command
+		 */
+		private Task(final Runnable command)
+		{
+			this.command = command;
+		}
+		
+		/**
+		 * Gets the {@link EnhancedTimerTask} run by this task, if any.
+		 * 
+		 * @return the timer task, null if none
+		 */
+		EnhancedTimerTask getTimerTask()
+		{
+			return SafeThreadFactory.getTimerTask(command instanceof TaskFuture ? ((TaskFuture<?>) command).runnable : command);
+		}
+		
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see java.lang.Runnable#run()
+		 */
+		public void run()
+		{
+			final Thread thread = Thread.currentThread();
+			threads.add(thread);
+			try
+			{
+				command.run();
+			}
+			finally
+			{
+				threads.remove(thread);
+				active.decrementAndGet();
+				dispatch();
+				signalIfTerminated();
+			}
+		}
+	}
+}
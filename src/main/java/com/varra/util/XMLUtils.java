@@ -22,16 +22,33 @@ import static com.varra.util.StringPool.NEWLINE;
 import static com.varra.util.StringPool.RETURN;
 import static com.varra.util.StringPool.SPACE;
 
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.StringReader;
 import java.io.StringWriter;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import javax.xml.bind.JAXBContext;
 import javax.xml.bind.JAXBException;
+import javax.xml.bind.Marshaller;
+import javax.xml.bind.Unmarshaller;
 
 /**
  * XML related utilities
+ * <p>
+ * The {@link JAXBContext}s are cached by their class with a {@link ClassValue},
+ * so the cache never keeps the class, nor its class loader, from being
+ * unloaded. The ones of the context paths are cached only if they are loaded
+ * by the class loader of this class or its parents, at most
+ * {@link #CACHE_SIZE} of them, and created for every call otherwise.<br>
+ * As the {@link Marshaller}s and {@link Unmarshaller}s are not thread safe,
+ * a few of them are pooled along with their context, and the regular
+ * expressions are compiled once.
  * 
  * @author <a href="mailto:varra@outlook.com">Rajakrishna V.
  *         Reddy</a>
@@ -44,9 +61,38 @@ public final class XMLUtils
 	/** The Constant TYPE_REGEX. */
 	public static final String TYPE_REGEX = ".*<.*type=\"(.*)\">.*";
 	
+	/** The max no of context paths and patterns cached. */
+	public static final int CACHE_SIZE = 256;
+	
+	/** The max no of marshallers and unmarshallers pooled per context. */
+	private static final int MAX_POOLED = 16;
+	
 	/** The type pattern. */
 	private static final Pattern typePattern = Pattern.compile(TYPE_REGEX);
 	
+	/** The contexts, by their class. */
+	private static final ClassValue<PooledContext> contexts = new ClassValue<PooledContext>()
+	{
+		@Override
+		protected PooledContext computeValue(final Class<?> type)
+		{
+			try
+			{
+				return new PooledContext(JAXBContext.newInstance(type));
+			}
+			catch (JAXBException e)
+			{
+				throw new ContextCreationException(e);
+			}
+		}
+	};
+	
+	/** The contexts, by their context path. */
+	private static final ConcurrentMap<String, PooledContext> pathContexts = new ConcurrentHashMap<String, PooledContext>();
+	
+	/** The patterns, by their regex. */
+	private static final ConcurrentMap<String, Pattern> patterns = new ConcurrentHashMap<String, Pattern>();
+	
 	/**
 	 * Instantiates a new xML utils.
 	 */
@@ -68,13 +114,31 @@ public final class XMLUtils
 	 */
 	public static <T> String getXML(T type) throws JAXBException
 	{
-		final JAXBContext context = JAXBContext.newInstance(type.getClass());
 		final StringWriter stringWriter = new StringWriter();
-		context.createMarshaller().marshal(type, stringWriter);
+		marshal(getPooledContext(type.getClass()), type, stringWriter);
 		final String result = stringWriter.toString();
 		return result.substring(result.indexOf(">") + 1).replace(type.getClass().getSimpleName().toLowerCase(), type.getClass().getName());
 	}
 	
+	/**
+	 * Writes the xML of the given type to the stream, as it is generated by
+	 * JAXB. Unlike {@link #getXML(Object)}, the xml declaration and the
+	 * element names are kept as they are.
+	 * 
+	 * @param <T>
+	 *            the generic type
+	 * @param type
+	 *            the type
+	 * @param out
+	 *            the stream to write to, not closed
+	 * @throws JAXBException
+	 *             the jAXB exception
+	 */
+	public static <T> void writeXML(T type, OutputStream out) throws JAXBException
+	{
+		marshal(getPooledContext(type.getClass()), type, out);
+	}
+	
 	/**
 	 * Gets the.
 	 * 
@@ -91,8 +155,26 @@ public final class XMLUtils
 	@SuppressWarnings("unchecked")
 	public static <T> T get(String xml, Class<T> klass) throws JAXBException
 	{
-		final JAXBContext context = JAXBContext.newInstance(klass);
-		return (T) context.createUnmarshaller().unmarshal(new StringReader(xml));
+		return (T) unmarshal(getPooledContext(klass), new StringReader(xml), null);
+	}
+	
+	/**
+	 * Gets the object by reading the xml from the stream.
+	 * 
+	 * @param <T>
+	 *            the generic type
+	 * @param in
+	 *            the stream to read from, not closed
+	 * @param klass
+	 *            the klass
+	 * @return the t
+	 * @throws JAXBException
+	 *             the jAXB exception
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T> T get(InputStream in, Class<T> klass) throws JAXBException
+	{
+		return (T) unmarshal(getPooledContext(klass), null, in);
 	}
 	
 	/**
@@ -111,8 +193,7 @@ public final class XMLUtils
 	public static <T> T getByType(String xml) throws JAXBException
 	{
 		final String klass = parse(xml, typePattern);
-		final JAXBContext context = JAXBContext.newInstance(klass);
-		return (T) context.createUnmarshaller().unmarshal(new StringReader(xml));
+		return (T) unmarshal(getPooledContext(klass), new StringReader(xml), null);
 	}
 	
 	/**
@@ -132,10 +213,214 @@ public final class XMLUtils
 	@SuppressWarnings("unchecked")
 	public static <T> T get(String xml, String regex) throws JAXBException
 	{
-		final Pattern pattern = Pattern.compile(regex);
-		final String klass = parse(xml, pattern);
-		final JAXBContext context = JAXBContext.newInstance(klass);
-		return (T) context.createUnmarshaller().unmarshal(new StringReader(xml));
+		final String klass = parse(xml, getPattern(regex));
+		return (T) unmarshal(getPooledContext(klass), new StringReader(xml), null);
+	}
+	
+	/**
+	 * Gets the cached {@link JAXBContext} of the given class, creates it if
+	 * not available.
+	 * 
+	 * @param klass
+	 *            the klass
+	 * @return the context
+	 * @throws JAXBException
+	 *             the jAXB exception
+	 */
+	public static JAXBContext getContext(Class<?> klass) throws JAXBException
+	{
+		return getPooledContext(klass).context;
+	}
+	
+	/**
+	 * Gets the {@link JAXBContext} of the given context path, creates it if
+	 * not available. It is cached only if the context class loader of the
+	 * current thread is the one of this class or its parent, as it would keep
+	 * the class loader otherwise.
+	 * 
+	 * @param contextPath
+	 *            the context path
+	 * @return the context
+	 * @throws JAXBException
+	 *             the jAXB exception
+	 */
+	public static JAXBContext getContext(String contextPath) throws JAXBException
+	{
+		return getPooledContext(contextPath).context;
+	}
+	
+	/**
+	 * Gets the pooled context of the given class.
+	 * 
+	 * @param klass
+	 *            the klass
+	 * @return the pooled context
+	 * @throws JAXBException
+	 *             the jAXB exception
+	 */
+	private static PooledContext getPooledContext(Class<?> klass) throws JAXBException
+	{
+		try
+		{
+			return contexts.get(klass);
+		}
+		catch (ContextCreationException e)
+		{
+			throw e.getCause();
+		}
+	}
+	
+	/**
+	 * Gets the pooled context of the given context path.
+	 * 
+	 * @param contextPath
+	 *            the context path
+	 * @return the pooled context
+	 * @throws JAXBException
+	 *             the jAXB exception
+	 */
+	private static PooledContext getPooledContext(String contextPath) throws JAXBException
+	{
+		if (contextPath == null || !isCacheable(Thread.currentThread().getContextClassLoader()))
+		{
+			return new PooledContext(JAXBContext.newInstance(contextPath));
+		}
+		PooledContext pooled = pathContexts.get(contextPath);
+		if (pooled == null)
+		{
+			pooled = new PooledContext(JAXBContext.newInstance(contextPath));
+			if (pathContexts.size() < CACHE_SIZE)
+			{
+				final PooledContext existing = pathContexts.putIfAbsent(contextPath, pooled);
+				if (existing != null)
+				{
+					pooled = existing;
+				}
+			}
+		}
+		return pooled;
+	}
+	
+	/**
+	 * Checks if the contexts loaded by the given class loader can be cached,
+	 * i.e. it lives as long as this class.
+	 * 
+	 * @param loader
+	 *            the loader
+	 * @return true, if it is the class loader of this class or its parent
+	 */
+	private static boolean isCacheable(final ClassLoader loader)
+	{
+		if (loader == null)
+		{
+			return true;
+		}
+		for (ClassLoader own = XMLUtils.class.getClassLoader(); own != null; own = own.getParent())
+		{
+			if (own == loader)
+			{
+				return true;
+			}
+		}
+		return false;
+	}
+	
+	/**
+	 * Marshals the object with a pooled {@link Marshaller} of the context.
+	 * 
+	 * @param pooled
+	 *            the pooled context
+	 * @param type
+	 *            the object
+	 * @param writer
+	 *            the writer
+	 * @throws JAXBException
+	 *             the jAXB exception
+	 */
+	private static void marshal(PooledContext pooled, Object type, StringWriter writer) throws JAXBException
+	{
+		final Marshaller marshaller = pooled.borrowMarshaller();
+		try
+		{
+			marshaller.marshal(type, writer);
+		}
+		finally
+		{
+			pooled.release(marshaller);
+		}
+	}
+	
+	/**
+	 * Marshals the object with a pooled {@link Marshaller} of the context.
+	 * 
+	 * @param pooled
+	 *            the pooled context
+	 * @param type
+	 *            the object
+	 * @param out
+	 *            the stream
+	 * @throws JAXBException
+	 *             the jAXB exception
+	 */
+	private static void marshal(PooledContext pooled, Object type, OutputStream out) throws JAXBException
+	{
+		final Marshaller marshaller = pooled.borrowMarshaller();
+		try
+		{
+			marshaller.marshal(type, out);
+		}
+		finally
+		{
+			pooled.release(marshaller);
+		}
+	}
+	
+	/**
+	 * Unmarshals the xml with a pooled {@link Unmarshaller} of the context,
+	 * from either the reader or the stream.
+	 * 
+	 * @param pooled
+	 *            the pooled context
+	 * @param reader
+	 *            the reader, null to read the stream
+	 * @param in
+	 *            the stream
+	 * @return the object
+	 * @throws JAXBException
+	 *             the jAXB exception
+	 */
+	private static Object unmarshal(PooledContext pooled, StringReader reader, InputStream in) throws JAXBException
+	{
+		final Unmarshaller unmarshaller = pooled.borrowUnmarshaller();
+		try
+		{
+			return reader != null ? unmarshaller.unmarshal(reader) : unmarshaller.unmarshal(in);
+		}
+		finally
+		{
+			pooled.release(unmarshaller);
+		}
+	}
+	
+	/**
+	 * Gets the compiled pattern of the regex.
+	 * 
+	 * @param regex
+	 *            the regex
+	 * @return the pattern
+	 */
+	private static Pattern getPattern(String regex)
+	{
+		Pattern pattern = patterns.get(regex);
+		if (pattern == null)
+		{
+			pattern = Pattern.compile(regex);
+			if (patterns.size() < CACHE_SIZE)
+			{
+				patterns.putIfAbsent(regex, pattern);
+			}
+		}
+		return pattern;
 	}
 	
 	/**
@@ -149,11 +434,150 @@ public final class XMLUtils
 	 */
 	private static String parse(String message, Pattern pattern)
 	{
-		final Matcher m = pattern.matcher(message.replaceAll(NEWLINE, SPACE).replaceAll(RETURN, SPACE));
+		final Matcher m = pattern.matcher(message.replace(NEWLINE, SPACE).replace(RETURN, SPACE));
 		if (m.matches())
 		{
 			return m.groupCount() > 0 ? m.group(1) : null;
 		}
 		return null;
 	}
+	
+	/**
+	 * A {@link JAXBContext} along with a few of its {@link Marshaller}s and
+	 * {@link Unmarshaller}s, borrowed by a thread at a time.
+	 */
+	private static final class PooledContext
+	{
+		
+		/** The context. */
+		private final JAXBContext context;
+		
+		/** The idle marshallers. */
+		private final ConcurrentLinkedQueue<Marshaller> marshallers = new ConcurrentLinkedQueue<Marshaller>();
+		
+		/** The idle unmarshallers. */
+		private final ConcurrentLinkedQueue<Unmarshaller> unmarshallers = new ConcurrentLinkedQueue<Unmarshaller>();
+		
+		/** The no of idle marshallers. */
+		private final AtomicInteger idleMarshallers = new AtomicInteger();
+		
+		/** The no of idle unmarshallers. */
+		private final AtomicInteger idleUnmarshallers = new AtomicInteger();
+		
+		/**
+		 * Instantiates a new pooled context.
+		 * 
+		 * @param context
+		 *            the context
+		 */
+		private PooledContext(final JAXBContext context)
+		{
+			this.context = context;
+		}
+		
+		/**
+		 * Borrows an idle marshaller, creates one if none.
+		 * 
+		 * @return the marshaller
+		 * @throws JAXBException
+		 *             the jAXB exception
+		 */
+		private Marshaller borrowMarshaller() throws JAXBException
+		{
+			final Marshaller marshaller = marshallers.poll();
+			if (marshaller == null)
+			{
+				return context.createMarshaller();
+			}
+			idleMarshallers.decrementAndGet();
+			return marshaller;
+		}
+		
+		/**
+		 * Gives back the marshaller, dropped if there are enough idle ones.
+		 * 
+		 * @param marshaller
+		 *            the marshaller
+		 */
+		private void release(final Marshaller marshaller)
+		{
+			if (idleMarshallers.incrementAndGet() <= MAX_POOLED)
+			{
+				marshallers.offer(marshaller);
+			}
+			else
+			{
+				idleMarshallers.decrementAndGet();
+			}
+		}
+		
+		/**
+		 * Borrows an idle unmarshaller, creates one if none.
+		 * 
+		 * @return the unmarshaller
+		 * @throws JAXBException
+		 *             the jAXB exception
+		 */
+		private Unmarshaller borrowUnmarshaller() throws JAXBException
+		{
+			final Unmarshaller unmarshaller = unmarshallers.poll();
+			if (unmarshaller == null)
+			{
+				return context.createUnmarshaller();
+			}
+			idleUnmarshallers.decrementAndGet();
+			return unmarshaller;
+		}
+		
+		/**
+		 * Gives back the unmarshaller, dropped if there are enough idle ones.
+		 * 
+		 * @param unmarshaller
+		 *            the unmarshaller
+		 */
+		private void release(final Unmarshaller unmarshaller)
+		{
+			if (idleUnmarshallers.incrementAndGet() <= MAX_POOLED)
+			{
+				unmarshallers.offer(unmarshaller);
+			}
+			else
+			{
+				idleUnmarshallers.decrementAndGet();
+			}
+		}
+	}
+	
+	/**
+	 * Carries the {@link JAXBException} out of the {@link ClassValue}, which
+	 * can't throw the checked ones.
+	 */
+	private static final class ContextCreationException extends RuntimeException
+	{
+		
+		/** The Constant serialVersionUID. */
+		private static final long serialVersionUID = -2718394871365237811L;
+		
+		/**
+		 * Instantiates a new context creation exception.
+		 * 
+		 * @param cause
+		 *            the cause
+		 */
+		private ContextCreationException(final JAXBException cause)
+		{
+			super(cause);
+		}
+		
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see java.lang.Throwable#getCause()
+		 */
+		@Override
+		public synchronized JAXBException getCause()
+		{
+			return (JAXBException) super.getCause();
+		}
+	}
 }
@@ -0,0 +1,501 @@
+/*
+ * utils4j - BoundedCacheTest.java, Oct 18, 2026 7:14:52 PM
+ * 
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package utils4j;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import com.varra.exception.ComputingException;
+import com.varra.util.BoundedCache;
+import com.varra.util.CacheLoader;
+import com.varra.util.Weigher;
+
+/**
+ * Checks the {@link BoundedCache}: it never holds more than its maximum,
+ * by count or by weight, and its weighted size is the one of the entries
+ * there; on a skewed trace it hits more often than an LRU of the same size
+ * and keeps the popular entries through a scan; concurrent loads of a key
+ * run the loader once and its failures surface; and many threads on it keep
+ * it within bounds.<br>
+ * Run it with the main method, it fails with an {@link AssertionError} on the
+ * first bound exceeded or value not as put.
+ * 
+ * @author Rajakrishna V. Reddy
+ * @version 1.0
+ */
+public class BoundedCacheTest
+{
+	
+	/** The random, seeded so a failure can be reproduced. */
+	private static final Random random = new Random(42);
+	
+	/**
+	 * Weighs a string by its length.
+	 */
+	private static class LengthWeigher implements Weigher<Integer, String>
+	{
+		
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see com.varra.util.Weigher#weigh(java.lang.Object, java.lang.Object)
+		 */
+		public int weigh(Integer key, String value)
+		{
+			return value.length();
+		}
+	}
+	
+	/**
+	 * Picks the keys of a Zipf distribution, the first ones the most popular.
+	 */
+	private static class Zipf
+	{
+		
+		/** The cumulative probabilities of the keys. */
+		private final double[] cumulative;
+		
+		/**
+		 * Instantiates a new Zipf of the given no of keys and skew.
+		 * 
+		 * @param keys
+		 *            the no of keys
+		 * @param skew
+		 *            the skew
+		 */
+		private Zipf(int keys, double skew)
+		{
+			cumulative = new double[keys];
+			double sum = 0;
+			for (int index = 0; index < keys; index++)
+			{
+				sum += 1 / Math.pow(index + 1, skew);
+				cumulative[index] = sum;
+			}
+			for (int index = 0; index < keys; index++)
+			{
+				cumulative[index] /= sum;
+			}
+		}
+		
+		/**
+		 * Picks the next key.
+		 * 
+		 * @return the key
+		 */
+		private int next()
+		{
+			final double picked = random.nextDouble();
+			int low = 0;
+			int high = cumulative.length - 1;
+			while (low < high)
+			{
+				final int middle = (low + high) >>> 1;
+				if (cumulative[middle] < picked)
+				{
+					low = middle + 1;
+				}
+				else
+				{
+					high = middle;
+				}
+			}
+			return low;
+		}
+	}
+	
+	/**
+	 * An LRU of a fixed no of entries, to compare the hit ratio with.
+	 */
+	private static class Lru extends LinkedHashMap<Integer, Integer>
+	{
+		
+		/** The serial version UID. */
+		private static final long serialVersionUID = 1L;
+		
+		/** The max no of entries. */
+		private final int maximum;
+		
+		/**
+		 * Instantiates a new LRU of the given max no of entries.
+		 * 
+		 * @param maximum
+		 *            the max no of entries
+		 */
+		private Lru(int maximum)
+		{
+			super(16, 0.75f, true);
+			this.maximum = maximum;
+		}
+		
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see java.util.LinkedHashMap#removeEldestEntry(java.util.Map.Entry)
+		 */
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<Integer, Integer> eldest)
+		{
+			return size() > maximum;
+		}
+	}
+	
+	/**
+	 * Checks the values are as expected.
+	 * 
+	 * @param what
+	 *            what is checked
+	 * @param expected
+	 *            the expected
+	 * @param actual
+	 *            the actual
+	 */
+	private static void check(String what, Object expected, Object actual)
+	{
+		if (!expected.equals(actual))
+		{
+			throw new AssertionError(what + ": expected " + expected + ", but was " + actual);
+		}
+	}
+	
+	/**
+	 * Checks the value is at most the maximum.
+	 * 
+	 * @param what
+	 *            what is checked
+	 * @param maximum
+	 *            the maximum
+	 * @param actual
+	 *            the actual
+	 */
+	private static void checkAtMost(String what, long maximum, long actual)
+	{
+		if (actual > maximum)
+		{
+			throw new AssertionError(what + ": expected at most " + maximum + ", but was " + actual);
+		}
+	}
+	
+	/**
+	 * Puts, reads and removes random keys of random weights, and checks the
+	 * bounds, the weighted size and the values after each of them.
+	 */
+	private static void checkBounds()
+	{
+		final BoundedCache<Integer, String> counted = new BoundedCache<Integer, String>("counted", 100);
+		final BoundedCache<Integer, String> weighted = new BoundedCache<Integer, String>("weighted", 1000, new LengthWeigher());
+		final Map<Integer, String> latest = new HashMap<Integer, String>();
+		for (int operation = 0; operation < 200000; operation++)
+		{
+			final int key = random.nextInt(1000);
+			switch (random.nextInt(4))
+			{
+				case 0:
+				case 1:
+					final StringBuilder value = new StringBuilder();
+					final int length = random.nextInt(50) == 0 ? 1001 : random.nextInt(40);
+					for (int index = 0; index < length; index++)
+					{
+						value.append('x');
+					}
+					value.append(operation);
+					counted.put(key, value.toString());
+					weighted.put(key, value.toString());
+					latest.put(key, value.toString());
+					break;
+				case 2:
+					counted.remove(key);
+					weighted.remove(key);
+					latest.remove(key);
+					break;
+				default:
+					final String expected = latest.get(key);
+					final String read = counted.getIfPresent(key);
+					if (read != null && !read.equals(expected))
+					{
+						throw new AssertionError("Expected the value as put of: " + key + ", but was " + read);
+					}
+					weighted.getIfPresent(key);
+			}
+			checkAtMost("size", 100, counted.getSize());
+			checkAtMost("weighted size", 1000, weighted.getWeightedSize());
+		}
+		long sum = 0;
+		int present = 0;
+		for (final Map.Entry<Integer, String> entry : latest.entrySet())
+		{
+			if (weighted.containsKey(entry.getKey()))
+			{
+				sum += entry.getValue().length();
+				present++;
+			}
+		}
+		check("weighted size as the sum of the weights there", sum, weighted.getWeightedSize());
+		check("size of the weighted", present, weighted.getSize());
+		check("size of the counted", 100, counted.getSize());
+		
+		/** Shrunk, it evicts down to the new maximum. */
+		counted.setMaximum(10);
+		check("size once shrunk", 10, counted.getSize());
+		counted.invalidateAll();
+		check("size once invalidated", 0, counted.getSize());
+		System.out.println("Bounds: " + counted.getEvictionCount() + " evicted by count, " + weighted.getEvictionWeight() + " of weight evicted");
+	}
+	
+	/**
+	 * Runs a Zipf trace through the cache and an LRU of the same size, and
+	 * checks the cache hits more often; then scans once through many keys
+	 * and checks the popular ones are still there.
+	 */
+	private static void checkHitRatio()
+	{
+		final int maximum = 1000;
+		final BoundedCache<Integer, Integer> cache = new BoundedCache<Integer, Integer>("zipf", maximum);
+		final Lru lru = new Lru(maximum);
+		final Zipf zipf = new Zipf(100000, 0.9);
+		int lruHits = 0;
+		final int lookups = 500000;
+		for (int index = 0; index < lookups; index++)
+		{
+			final Integer key = zipf.next();
+			if (cache.getIfPresent(key) == null)
+			{
+				cache.put(key, key);
+			}
+			if (lru.get(key) != null)
+			{
+				lruHits++;
+			}
+			else
+			{
+				lru.put(key, key);
+			}
+		}
+		final double lruRatio = lruHits / (double) lookups;
+		final double ratio = cache.getHitRatio();
+		if (ratio <= lruRatio)
+		{
+			throw new AssertionError("Expected a hit ratio above the one of the LRU: " + lruRatio + ", but was " + ratio);
+		}
+		
+		/** A scan of one-off keys, the LRU loses them all. */
+		for (int key = 1000000; key < 1000000 + 10 * maximum; key++)
+		{
+			cache.put(key, key);
+		}
+		int kept = 0;
+		for (int key = 0; key < 100; key++)
+		{
+			if (cache.containsKey(key))
+			{
+				kept++;
+			}
+		}
+		if (kept < 90)
+		{
+			throw new AssertionError("Expected the 100 most popular keys kept through a scan, but kept " + kept);
+		}
+		System.out.printf("Hit ratio: %.3f against %.3f for an LRU, kept %d of the 100 most popular through a scan%n", ratio, lruRatio, kept);
+	}
+	
+	/**
+	 * Loads a key from many threads at once and checks the loader ran once;
+	 * then checks a failing loader surfaces and is not cached.
+	 * 
+	 * @throws InterruptedException
+	 *             if interrupted
+	 * @throws ComputingException
+	 *             if the key can not be loaded once the failures are over
+	 */
+	private static void checkLoads() throws InterruptedException, ComputingException
+	{
+		final BoundedCache<Integer, String> cache = new BoundedCache<Integer, String>("loads", 100);
+		final AtomicInteger calls = new AtomicInteger();
+		final CacheLoader<Integer, String> slow = new CacheLoader<Integer, String>()
+		{
+			public String load(Integer key) throws Exception
+			{
+				calls.incrementAndGet();
+				Thread.sleep(100);
+				return "loaded-" + key;
+			}
+		};
+		final int threads = 16;
+		final CountDownLatch start = new CountDownLatch(1);
+		final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+		final List<Thread> loaders = new ArrayList<Thread>();
+		for (int index = 0; index < threads; index++)
+		{
+			final Thread thread = new Thread()
+			{
+				@Override
+				public void run()
+				{
+					try
+					{
+						start.await();
+						check("loaded", "loaded-7", cache.get(7, slow));
+					}
+					catch (Throwable e)
+					{
+						failure.compareAndSet(null, e);
+					}
+				}
+			};
+			loaders.add(thread);
+			thread.start();
+		}
+		start.countDown();
+		for (final Thread thread : loaders)
+		{
+			thread.join();
+		}
+		if (failure.get() != null)
+		{
+			throw new AssertionError(failure.get());
+		}
+		check("loader calls for " + threads + " threads", 1, calls.get());
+		check("load successes", 1L, cache.getLoadSuccessCount());
+		
+		final CacheLoader<Integer, String> failing = new CacheLoader<Integer, String>()
+		{
+			public String load(Integer key) throws Exception
+			{
+				calls.incrementAndGet();
+				throw new IllegalStateException("Unable to load: " + key);
+			}
+		};
+		for (int attempt = 0; attempt < 2; attempt++)
+		{
+			try
+			{
+				cache.get(8, failing);
+				throw new AssertionError("Expected the failure of the loader surfaced");
+			}
+			catch (ComputingException e)
+			{
+				check("cause", IllegalStateException.class, e.getCause().getClass());
+			}
+		}
+		check("loader calls once failed twice", 3, calls.get());
+		check("load failures", 2L, cache.getLoadFailureCount());
+		check("cached once failed", false, cache.containsKey(8));
+		check("loaded once failed", "loaded-8", cache.get(8, slow));
+		System.out.println("Loads: one loader call for " + threads + " threads, failures surfaced and not cached");
+	}
+	
+	/**
+	 * Reads, puts and removes from many threads, and checks the bounds and
+	 * the weighted size once done.
+	 * 
+	 * @throws InterruptedException
+	 *             if interrupted
+	 */
+	private static void checkConcurrent() throws InterruptedException
+	{
+		final BoundedCache<Integer, String> cache = new BoundedCache<Integer, String>("concurrent", 5000, new LengthWeigher());
+		final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+		final List<Thread> threads = new ArrayList<Thread>();
+		for (int index = 0; index < 8; index++)
+		{
+			final Thread thread = new Thread()
+			{
+				@Override
+				public void run()
+				{
+					try
+					{
+						final ThreadLocalRandom random = ThreadLocalRandom.current();
+						for (int operation = 0; operation < 200000; operation++)
+						{
+							final int key = random.nextInt(2000);
+							final int choice = random.nextInt(10);
+							if (choice < 6)
+							{
+								final String value = cache.getIfPresent(key);
+								if (value != null && !value.startsWith(key + ":"))
+								{
+									throw new AssertionError("Expected a value of: " + key + ", but was " + value);
+								}
+							}
+							else if (choice < 9)
+							{
+								cache.put(key, key + ":" + random.nextInt(1000));
+							}
+							else
+							{
+								cache.remove(key);
+							}
+						}
+					}
+					catch (Throwable e)
+					{
+						failure.compareAndSet(null, e);
+					}
+				}
+			};
+			threads.add(thread);
+			thread.start();
+		}
+		for (final Thread thread : threads)
+		{
+			thread.join();
+		}
+		if (failure.get() != null)
+		{
+			throw new AssertionError(failure.get());
+		}
+		checkAtMost("weighted size", 5000, cache.getWeightedSize());
+		long sum = 0;
+		for (int key = 0; key < 2000; key++)
+		{
+			if (cache.containsKey(key))
+			{
+				sum += cache.getIfPresent(key).length();
+			}
+		}
+		check("weighted size as the sum of the weights there", sum, cache.getWeightedSize());
+		System.out.println("Concurrent: " + cache);
+	}
+	
+	/**
+	 * The main method.
+	 * 
+	 * @param args
+	 *            the arguments
+	 * @throws Exception
+	 *             if interrupted, or a key can not be loaded
+	 */
+	public static void main(String[] args) throws Exception
+	{
+		checkBounds();
+		checkHitRatio();
+		checkLoads();
+		checkConcurrent();
+		System.out.println("All checks passed.");
+	}
+}
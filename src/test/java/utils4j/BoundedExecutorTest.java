@@ -0,0 +1,409 @@
+/*
+ * utils4j - BoundedExecutorTest.java, Oct 18, 2026 5:41:27 PM
+ * 
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package utils4j;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import com.varra.exception.ComputingException;
+import com.varra.util.BoundedExecutor;
+import com.varra.util.EnhancedTimerTask;
+import com.varra.util.RejectionPolicy;
+
+/**
+ * Checks each {@link RejectionPolicy} of the {@link BoundedExecutor}: a
+ * thread is kept busy while more tasks are submitted than its queue holds,
+ * and the tasks run, dropped, coalesced or run by the submitter are checked,
+ * along with the ones told through {@link BoundedExecutor#onDiscard(Runnable)}
+ * and the futures of the ones dropped being cancelled.<br>
+ * Run it with the main method, it fails with an {@link AssertionError} on the
+ * first task handled against its policy.
+ * 
+ * @author Rajakrishna V. Reddy
+ * @version 1.0
+ */
+public class BoundedExecutorTest
+{
+	
+	/** The capacity of the queue. */
+	private static final int QUEUE_CAPACITY = 2;
+	
+	/** The no of tasks submitted behind the busy one. */
+	private static final int TASKS = 4;
+	
+	/**
+	 * A bounded executor recording the tasks discarded.
+	 */
+	private static class RecordingExecutor extends BoundedExecutor
+	{
+		
+		/** The tasks discarded. */
+		private final List<Runnable> discarded = Collections.synchronizedList(new ArrayList<Runnable>());
+		
+		/**
+		 * Instantiates a new recording executor, of a single thread.
+		 * 
+		 * @param policy
+		 *            the rejection policy
+		 */
+		private RecordingExecutor(RejectionPolicy policy)
+		{
+			super("bounded-executor-test-" + policy, 1, 1, 0, QUEUE_CAPACITY, policy);
+		}
+		
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see com.varra.util.BoundedExecutor#onDiscard(java.lang.Runnable)
+		 */
+		@Override
+		protected void onDiscard(Runnable task)
+		{
+			discarded.add(task);
+			super.onDiscard(task);
+		}
+	}
+	
+	/**
+	 * A task recording the order it ran in, and the thread it ran on.
+	 */
+	private static class Task implements Runnable
+	{
+		
+		/** The id. */
+		private final int id;
+		
+		/** The ids of the tasks run, in order. */
+		private final List<Integer> ran;
+		
+		/** The thread it ran on. */
+		private volatile Thread thread;
+		
+		/**
+		 * Instantiates a new task.
+		 * 
+		 * @param id
+		 *            the id
+		 * @param ran
+		 *            the ids of the tasks run
+		 */
+		private Task(int id, List<Integer> ran)
+		{
+			this.id = id;
+			this.ran = ran;
+		}
+		
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see java.lang.Runnable#run()
+		 */
+		public void run()
+		{
+			thread = Thread.currentThread();
+			ran.add(id);
+		}
+	}
+	
+	/**
+	 * A timer task of the given name, coalesced with the others of the same
+	 * name.
+	 */
+	private static class NamedTask extends EnhancedTimerTask
+	{
+		
+		/** The ids of the tasks run, in order. */
+		private final List<Integer> ran;
+		
+		/** The id. */
+		private final int id;
+		
+		/**
+		 * Instantiates a new named task.
+		 * 
+		 * @param name
+		 *            the name
+		 * @param id
+		 *            the id
+		 * @param ran
+		 *            the ids of the tasks run
+		 */
+		private NamedTask(String name, int id, List<Integer> ran)
+		{
+			super(name);
+			this.id = id;
+			this.ran = ran;
+		}
+		
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see com.varra.util.EnhancedTimerTask#compute()
+		 */
+		@Override
+		public void compute() throws ComputingException
+		{
+			ran.add(id);
+		}
+	}
+	
+	/**
+	 * Keeps the only thread of the executor busy till the latch is released.
+	 * 
+	 * @param executor
+	 *            the executor
+	 * @param release
+	 *            the latch
+	 * @throws InterruptedException
+	 *             if interrupted
+	 */
+	private static void block(BoundedExecutor executor, final CountDownLatch release) throws InterruptedException
+	{
+		final CountDownLatch started = new CountDownLatch(1);
+		executor.execute(new Runnable()
+		{
+			public void run()
+			{
+				started.countDown();
+				try
+				{
+					release.await();
+				}
+				catch (InterruptedException e)
+				{
+					Thread.currentThread().interrupt();
+				}
+			}
+		});
+		started.await();
+	}
+	
+	/**
+	 * Shuts the executor down, after running the tasks queued.
+	 * 
+	 * @param executor
+	 *            the executor
+	 * @throws InterruptedException
+	 *             if interrupted
+	 */
+	private static void finish(BoundedExecutor executor) throws InterruptedException
+	{
+		executor.shutdown();
+		if (!executor.awaitTermination(5, TimeUnit.SECONDS))
+		{
+			throw new AssertionError(executor.getName() + ": not terminated");
+		}
+	}
+	
+	/**
+	 * Checks the values are as expected.
+	 * 
+	 * @param what
+	 *            what is checked
+	 * @param expected
+	 *            the expected
+	 * @param actual
+	 *            the actual
+	 */
+	private static void check(String what, Object expected, Object actual)
+	{
+		if (!expected.equals(actual))
+		{
+			throw new AssertionError(what + ": expected " + expected + ", but was " + actual);
+		}
+	}
+	
+	/**
+	 * Submits the tasks behind a busy one with the given dropping policy, and
+	 * checks the ones run and discarded.
+	 * 
+	 * @param policy
+	 *            the policy
+	 * @param expectedRan
+	 *            the ids of the tasks expected to run, in order
+	 * @param expectedDropped
+	 *            the ids of the tasks expected to be dropped, in order
+	 * @throws InterruptedException
+	 *             if interrupted
+	 */
+	private static void checkDrop(RejectionPolicy policy, List<Integer> expectedRan, List<Integer> expectedDropped) throws InterruptedException
+	{
+		final RecordingExecutor executor = new RecordingExecutor(policy);
+		final List<Integer> ran = Collections.synchronizedList(new ArrayList<Integer>());
+		final List<Future<?>> futures = new ArrayList<Future<?>>();
+		final CountDownLatch release = new CountDownLatch(1);
+		block(executor, release);
+		for (int id = 1; id <= TASKS; id++)
+		{
+			futures.add(executor.submit(new Task(id, ran)));
+		}
+		release.countDown();
+		finish(executor);
+		check(policy + " ran", expectedRan, ran);
+		final List<Integer> dropped = new ArrayList<Integer>();
+		for (int index = 0; index < executor.discarded.size(); index++)
+		{
+			dropped.add(((Task) executor.discarded.get(index)).id);
+		}
+		check(policy + " dropped", expectedDropped, dropped);
+		check(policy + " dropped count", (long) expectedDropped.size(), executor.getDroppedCount());
+		for (int index = 0; index < expectedDropped.size(); index++)
+		{
+			if (!futures.get(expectedDropped.get(index) - 1).isCancelled())
+			{
+				throw new AssertionError(policy + ": the future of the dropped task: " + expectedDropped.get(index) + " is not cancelled");
+			}
+		}
+		System.out.println(policy + ": ran=" + ran + " dropped=" + dropped);
+	}
+	
+	/**
+	 * Submits the tasks behind a busy one, the ones beyond the queue are to be
+	 * run by the submitter.
+	 * 
+	 * @throws InterruptedException
+	 *             if interrupted
+	 */
+	private static void checkCallerRuns() throws InterruptedException
+	{
+		final RecordingExecutor executor = new RecordingExecutor(RejectionPolicy.CALLER_RUNS);
+		final List<Integer> ran = Collections.synchronizedList(new ArrayList<Integer>());
+		final List<Task> tasks = new ArrayList<Task>();
+		final CountDownLatch release = new CountDownLatch(1);
+		block(executor, release);
+		for (int id = 1; id <= TASKS; id++)
+		{
+			final Task task = new Task(id, ran);
+			tasks.add(task);
+			executor.execute(task);
+		}
+		check("CALLER_RUNS ran by the submitter", list(3, 4), ran);
+		release.countDown();
+		finish(executor);
+		check("CALLER_RUNS ran", list(3, 4, 1, 2), ran);
+		for (int index = 0; index < tasks.size(); index++)
+		{
+			final boolean byCaller = tasks.get(index).thread == Thread.currentThread();
+			check("CALLER_RUNS task: " + (index + 1) + " ran by the submitter", index >= QUEUE_CAPACITY, byCaller);
+		}
+		check("CALLER_RUNS caller runs count", 2L, executor.getCallerRunsCount());
+		check("CALLER_RUNS discarded", 0, executor.discarded.size());
+		System.out.println("CALLER_RUNS: ran=" + ran);
+	}
+	
+	/**
+	 * Submits the timer tasks of two names behind a busy one, the ones of a
+	 * name waiting in the queue already are coalesced, whether the queue is
+	 * full or not.
+	 * 
+	 * @throws InterruptedException
+	 *             if interrupted
+	 */
+	private static void checkCoalesce() throws InterruptedException
+	{
+		final RecordingExecutor executor = new RecordingExecutor(RejectionPolicy.COALESCE);
+		final List<Integer> ran = Collections.synchronizedList(new ArrayList<Integer>());
+		final CountDownLatch release = new CountDownLatch(1);
+		block(executor, release);
+		executor.execute(new NamedTask("first", 1, ran));
+		executor.execute(new NamedTask("first", 2, ran));
+		executor.execute(new NamedTask("second", 3, ran));
+		executor.execute(new NamedTask("second", 4, ran));
+		executor.execute(new NamedTask("first", 5, ran));
+		release.countDown();
+		finish(executor);
+		check("COALESCE ran", list(1, 3), ran);
+		check("COALESCE coalesced count", 3L, executor.getCoalescedCount());
+		check("COALESCE dropped count", 0L, executor.getDroppedCount());
+		final List<Integer> discarded = new ArrayList<Integer>();
+		for (int index = 0; index < executor.discarded.size(); index++)
+		{
+			discarded.add(((NamedTask) executor.discarded.get(index)).id);
+		}
+		check("COALESCE discarded", list(2, 4, 5), discarded);
+		
+		/** Once it is out of the queue, the next one of the name is queued again. */
+		final RecordingExecutor again = new RecordingExecutor(RejectionPolicy.COALESCE);
+		ran.clear();
+		again.execute(new NamedTask("first", 6, ran));
+		finish(again);
+		check("COALESCE ran after the queue", list(6), ran);
+		System.out.println("COALESCE: coalesced=" + discarded);
+	}
+	
+	/**
+	 * Checks a task submitted after the shut down is rejected, whatever the
+	 * policy.
+	 */
+	private static void checkShutdown()
+	{
+		for (RejectionPolicy policy : RejectionPolicy.values())
+		{
+			final RecordingExecutor executor = new RecordingExecutor(policy);
+			executor.shutdown();
+			try
+			{
+				executor.execute(new Task(1, new ArrayList<Integer>()));
+				throw new AssertionError(policy + ": the task submitted after the shut down is not rejected");
+			}
+			catch (RejectedExecutionException e)
+			{
+				/** Expected. */
+			}
+		}
+		System.out.println("Shutdown: rejected for every policy");
+	}
+	
+	/**
+	 * Makes a list of the given ids.
+	 * 
+	 * @param ids
+	 *            the ids
+	 * @return the list
+	 */
+	private static List<Integer> list(Integer... ids)
+	{
+		final List<Integer> list = new ArrayList<Integer>();
+		Collections.addAll(list, ids);
+		return list;
+	}
+	
+	/**
+	 * The main method.
+	 * 
+	 * @param args
+	 *            the arguments
+	 * @throws InterruptedException
+	 *             if interrupted
+	 */
+	public static void main(String[] args) throws InterruptedException
+	{
+		checkDrop(RejectionPolicy.DROP_NEWEST, list(1, 2), list(3, 4));
+		checkDrop(RejectionPolicy.DROP_OLDEST, list(3, 4), list(1, 2));
+		checkCallerRuns();
+		checkCoalesce();
+		checkShutdown();
+		System.out.println("All checks passed.");
+	}
+}
@@ -0,0 +1,218 @@
+/*
+ * utils4j - CronScheduleTest.java, Oct 18, 2026 4:31:27 PM
+ * 
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package utils4j;
+
+import java.util.Calendar;
+import java.util.TimeZone;
+
+import com.varra.util.CronSchedule;
+
+/**
+ * Checks the fire times of the {@link CronSchedule}, the fields, names,
+ * macros and invalid expressions, and the daylight saving changes: a time
+ * skipped when the clocks go forward fires at the transition, and a time
+ * repeated when they go back fires only once.<br>
+ * Run it with the main method, it fails with an {@link AssertionError} on the
+ * first wrong fire time.
+ * 
+ * @author Rajakrishna V. Reddy
+ * @version 1.0
+ */
+public class CronScheduleTest
+{
+	
+	/** The UTC time zone. */
+	private static final TimeZone UTC = TimeZone.getTimeZone("UTC");
+	
+	/** A time zone with daylight saving, on CET/CEST. */
+	private static final TimeZone BERLIN = TimeZone.getTimeZone("Europe/Berlin");
+	
+	/** The no of checks passed. */
+	private static int passed;
+	
+	/**
+	 * Gets the UTC time of the given date and time.
+	 * 
+	 * @param year
+	 *            the year
+	 * @param month
+	 *            the month, from 1
+	 * @param day
+	 *            the day
+	 * @param hour
+	 *            the hour
+	 * @param minute
+	 *            the minute
+	 * @return the time in ms
+	 */
+	private static long utc(int year, int month, int day, int hour, int minute)
+	{
+		final Calendar calendar = Calendar.getInstance(UTC);
+		calendar.clear();
+		calendar.set(year, month - 1, day, hour, minute, 0);
+		return calendar.getTimeInMillis();
+	}
+	
+	/**
+	 * Checks the next fire time of the expression.
+	 * 
+	 * @param expression
+	 *            the expression
+	 * @param timeZone
+	 *            the time zone
+	 * @param after
+	 *            the time after which it fires
+	 * @param expected
+	 *            the expected fire time, -1 if never
+	 * @return the fire time
+	 */
+	private static long check(String expression, TimeZone timeZone, long after, long expected)
+	{
+		final long actual = new CronSchedule(expression, timeZone).getNextFireTime(after);
+		if (actual != expected)
+		{
+			throw new AssertionError("'" + expression + "' in " + timeZone.getID() + " after " + format(after) + ": expected " + format(expected)
+					+ " but was " + format(actual));
+		}
+		passed++;
+		return actual;
+	}
+	
+	/**
+	 * Checks the expression is rejected.
+	 * 
+	 * @param expression
+	 *            the expression
+	 */
+	private static void checkInvalid(String expression)
+	{
+		try
+		{
+			new CronSchedule(expression, UTC);
+		}
+		catch (IllegalArgumentException e)
+		{
+			passed++;
+			return;
+		}
+		throw new AssertionError("'" + expression + "' should be rejected");
+	}
+	
+	/**
+	 * Formats the time in UTC.
+	 * 
+	 * @param time
+	 *            the time
+	 * @return the string
+	 */
+	private static String format(long time)
+	{
+		if (time < 0)
+		{
+			return "never";
+		}
+		final java.text.SimpleDateFormat format = new java.text.SimpleDateFormat("yyyy-MM-dd HH:mm:ss'Z'");
+		format.setTimeZone(UTC);
+		return format.format(time);
+	}
+	
+	/**
+	 * Checks the fields, names and macros.
+	 */
+	private static void fields()
+	{
+		check("*/15 * * * *", UTC, utc(2020, 6, 10, 10, 7), utc(2020, 6, 10, 10, 15));
+		check("*/15 * * * *", UTC, utc(2020, 6, 10, 10, 45), utc(2020, 6, 10, 11, 0));
+		check("0 9 * * MON-FRI", UTC, utc(2020, 6, 13, 12, 0), utc(2020, 6, 15, 9, 0));
+		check("0 9 * * 1-5", UTC, utc(2020, 6, 15, 9, 0), utc(2020, 6, 16, 9, 0));
+		check("0 0 1,15 * *", UTC, utc(2020, 6, 2, 0, 0), utc(2020, 6, 15, 0, 0));
+		check("0 0 1 JAN *", UTC, utc(2020, 6, 2, 0, 0), utc(2021, 1, 1, 0, 0));
+		check("0-30/10 8 * * *", UTC, utc(2020, 6, 10, 8, 21), utc(2020, 6, 10, 8, 30));
+		check("0 0 * * 7", UTC, utc(2020, 6, 10, 0, 0), utc(2020, 6, 14, 0, 0));
+		check("@daily", UTC, utc(2020, 6, 10, 0, 0), utc(2020, 6, 11, 0, 0));
+		check("@hourly", UTC, utc(2020, 6, 10, 23, 30), utc(2020, 6, 11, 0, 0));
+		check("@monthly", UTC, utc(2020, 12, 10, 0, 0), utc(2021, 1, 1, 0, 0));
+		check("*/10 * * * * *", UTC, utc(2020, 6, 10, 8, 0) + 5000, utc(2020, 6, 10, 8, 0) + 10000);
+		/** Either the day of month or the day of week, like cron. */
+		check("0 0 13 * FRI", UTC, utc(2020, 6, 10, 0, 0), utc(2020, 6, 12, 0, 0));
+		check("0 0 13 * FRI", UTC, utc(2020, 6, 12, 0, 0), utc(2020, 6, 13, 0, 0));
+		check("0 0 29 2 *", UTC, utc(2021, 1, 1, 0, 0), utc(2024, 2, 29, 0, 0));
+		check("0 0 31 2 *", UTC, utc(2021, 1, 1, 0, 0), -1);
+		checkInvalid("");
+		checkInvalid("* * * *");
+		checkInvalid("61 * * * *");
+		checkInvalid("* 24 * * *");
+		checkInvalid("* * 0 * *");
+		checkInvalid("* * * 13 *");
+		checkInvalid("a b c d e");
+		checkInvalid("*/0 * * * *");
+	}
+	
+	/**
+	 * Checks the clocks going forward, 2020-03-29 02:00 CET to 03:00 CEST in
+	 * Berlin, i.e. 01:00 UTC.
+	 */
+	private static void springForward()
+	{
+		final long transition = utc(2020, 3, 29, 1, 0);
+		/** 02:30 is skipped, fires at 03:00 CEST rather than an hour early. */
+		check("30 2 * * *", BERLIN, utc(2020, 3, 28, 11, 0), transition);
+		/** After 01:45 CET it still fires on the day, not the next one. */
+		check("30 2 * * *", BERLIN, utc(2020, 3, 29, 0, 45), transition);
+		check("30 2 * * *", BERLIN, transition, utc(2020, 3, 30, 0, 30));
+		/** All the times in the gap fire once at the transition. */
+		check("*/15 2 * * *", BERLIN, utc(2020, 3, 29, 0, 50), transition);
+		check("*/15 2 * * *", BERLIN, transition, utc(2020, 3, 30, 0, 0));
+		/** The times around the gap are not moved. */
+		check("59 1 * * *", BERLIN, utc(2020, 3, 28, 11, 0), utc(2020, 3, 29, 0, 59));
+		check("0 3 * * *", BERLIN, utc(2020, 3, 29, 0, 59), transition);
+		check("0 * * * *", BERLIN, utc(2020, 3, 29, 0, 30), transition);
+		check("0 * * * *", BERLIN, transition, utc(2020, 3, 29, 2, 0));
+	}
+	
+	/**
+	 * Checks the clocks going back, 2020-10-25 03:00 CEST to 02:00 CET in
+	 * Berlin, i.e. 01:00 UTC.
+	 */
+	private static void fallBack()
+	{
+		/** 02:30 is seen twice, fires only on the first one. */
+		final long first = check("30 2 * * *", BERLIN, utc(2020, 10, 24, 10, 0), utc(2020, 10, 25, 0, 30));
+		check("30 2 * * *", BERLIN, first, utc(2020, 10, 26, 1, 30));
+		check("30 2 * * *", BERLIN, utc(2020, 10, 25, 1, 0), utc(2020, 10, 26, 1, 30));
+		/** The hours go on from 02:00 CEST to 03:00 CET, the repeated 02:00 is skipped. */
+		check("0 * * * *", BERLIN, utc(2020, 10, 25, 0, 0), utc(2020, 10, 25, 2, 0));
+		check("0 * * * *", BERLIN, utc(2020, 10, 25, 1, 30), utc(2020, 10, 25, 2, 0));
+		check("0 3 * * *", BERLIN, utc(2020, 10, 24, 10, 0), utc(2020, 10, 25, 2, 0));
+	}
+	
+	/**
+	 * The main method.
+	 * 
+	 * @param args
+	 *            the arguments
+	 */
+	public static void main(String[] args)
+	{
+		fields();
+		springForward();
+		fallBack();
+		System.out.println("All " + passed + " checks passed.");
+	}
+}
@@ -0,0 +1,177 @@
+/*
+ * utils4j - EventBusBenchmark.java, Oct 18, 2026 11:12:44 PM
+ * 
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package utils4j;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import com.varra.listener.BatchMessageListener;
+import com.varra.listener.ProducerType;
+import com.varra.listener.Topic;
+import com.varra.listener.WaitStrategy;
+import com.varra.util.LatencyHistogram;
+
+/**
+ * Measures the throughput and latency of the {@link Topic}s of an
+ * {@link com.varra.listener.EventBus}, for each {@link ProducerType} and
+ * {@link WaitStrategy}. The producers publish as fast as they can, so the
+ * latency, from publishing a message till its listener gets it, includes the
+ * time it waited in the full ring buffer.<br>
+ * Run it with the main method, optionally with the wait strategies to run,
+ * it prints the messages per second and the p50/p99/p99.9 latency.
+ * {@link WaitStrategy#BUSY_SPIN} needs a core per thread to be meaningful.
+ * 
+ * @author Rajakrishna V. Reddy
+ * @version 1.0
+ */
+public class EventBusBenchmark
+{
+	
+	/** The no of messages per round. */
+	private static final int MESSAGES = 2000000;
+	
+	/** The capacity of the topics. */
+	private static final int CAPACITY = 8192;
+	
+	/** The no of producers in {@link ProducerType#MULTI} mode. */
+	private static final int PRODUCERS = 4;
+	
+	/** The no of rounds, the first one is the warm up. */
+	private static final int ROUNDS = 3;
+	
+	/**
+	 * Records the latency of the messages, a message is the time it is
+	 * published at.
+	 */
+	private static final class Recorder implements BatchMessageListener<Long>
+	{
+		
+		/** The latency. */
+		private final LatencyHistogram latency = new LatencyHistogram();
+		
+		/** Counted down for each batch. */
+		private final CountDownLatch done;
+		
+		/** The no of batches. */
+		private long batches;
+		
+		/**
+		 * Instantiates a new recorder.
+		 * 
+		 * @param messages
+		 *            the no of messages to wait for
+		 */
+		private Recorder(final int messages)
+		{
+			done = new CountDownLatch(messages);
+		}
+		
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see com.varra.listener.MessageListener#onMessage(java.lang.Object)
+		 */
+		public void onMessage(final Long message)
+		{
+			latency.record(System.nanoTime() - message.longValue());
+			done.countDown();
+		}
+		
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see com.varra.listener.BatchMessageListener#onEndOfBatch(int)
+		 */
+		public void onEndOfBatch(final int size)
+		{
+			batches++;
+		}
+	}
+	
+	/**
+	 * Publishes the messages to a new topic and prints the results.
+	 * 
+	 * @param producerType
+	 *            the producer type
+	 * @param waitStrategy
+	 *            the wait strategy
+	 * @throws InterruptedException
+	 *             the interrupted exception
+	 */
+	private static void run(final ProducerType producerType, final WaitStrategy waitStrategy) throws InterruptedException
+	{
+		final Topic<Long> topic = new Topic<Long>("benchmark", Long.class, CAPACITY, producerType, waitStrategy);
+		final Recorder recorder = new Recorder(MESSAGES);
+		topic.addListener(recorder);
+		final int producers = producerType == ProducerType.SINGLE ? 1 : PRODUCERS;
+		final Thread[] threads = new Thread[producers];
+		final long start = System.nanoTime();
+		for (int index = 0; index < producers; index++)
+		{
+			threads[index] = new Thread(new Runnable()
+			{
+				public void run()
+				{
+					for (int count = MESSAGES / producers; count > 0; count--)
+					{
+						topic.publish(Long.valueOf(System.nanoTime()));
+					}
+				}
+			});
+			threads[index].start();
+		}
+		recorder.done.await(2, TimeUnit.MINUTES);
+		final long elapsed = System.nanoTime() - start;
+		topic.shutdown();
+		final LatencyHistogram latency = recorder.latency;
+		System.out.println(String.format("%-6s %-9s %12.0f msgs/s, batch avg=%6.1f, latency p50=%8d us, p99=%8d us, p99.9=%8d us", producerType,
+				waitStrategy, latency.getCount() * 1e9 / elapsed, latency.getCount() / (double) Math.max(1, recorder.batches),
+				TimeUnit.NANOSECONDS.toMicros(latency.getPercentile(50)), TimeUnit.NANOSECONDS.toMicros(latency.getPercentile(99)),
+				TimeUnit.NANOSECONDS.toMicros(latency.getPercentile(99.9))));
+	}
+	
+	/**
+	 * The main method.
+	 * 
+	 * @param args
+	 *            the wait strategies to run, all of them if none
+	 * @throws Exception
+	 *             the exception
+	 */
+	public static void main(String[] args) throws Exception
+	{
+		final WaitStrategy[] strategies = new WaitStrategy[args.length > 0 ? args.length : WaitStrategy.values().length];
+		for (int index = 0; index < strategies.length; index++)
+		{
+			strategies[index] = args.length > 0 ? WaitStrategy.getStrategy(args[index], WaitStrategy.PARK) : WaitStrategy.values()[index];
+		}
+		System.out.println("Messages: " + MESSAGES + ", capacity: " + CAPACITY + ", processors: " + Runtime.getRuntime().availableProcessors());
+		for (int round = 0; round < ROUNDS; round++)
+		{
+			System.out.println("Round " + round + ":");
+			for (final ProducerType producerType : ProducerType.values())
+			{
+				for (final WaitStrategy waitStrategy : strategies)
+				{
+					run(producerType, waitStrategy);
+				}
+			}
+		}
+	}
+}
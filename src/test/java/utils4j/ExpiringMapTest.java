@@ -0,0 +1,436 @@
+/*
+ * utils4j - ExpiringMapTest.java, Oct 18, 2026 5:24:12 PM
+ * 
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package utils4j;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+import com.varra.listener.BatchMessageListener;
+import com.varra.util.ExpiringMap;
+import com.varra.util.ExpiringMap.Removal;
+import com.varra.util.ExpiringMap.RemovalCause;
+import com.varra.util.ShutdownMode;
+
+/**
+ * Checks the expiry of the {@link ExpiringMap} and the timing wheel driving
+ * it, with random timers.<br>
+ * The wheel is driven by a simulated clock, with 200k timers of a ms up to
+ * hours, cancelled and rescheduled at random, and the clock jumping ahead by
+ * up to hours at once: none expires before its deadline, or stays scheduled
+ * for more than a tick after it. The map is driven by the real clock, with
+ * the entries of random times to live and idle timeouts: none is returned
+ * after its expiry, or expires before it, and all are notified as expired
+ * soon after.<br>
+ * Run it with the main method, it fails with an {@link AssertionError} on the
+ * first timer or entry expired early or late.
+ * 
+ * @author Rajakrishna V. Reddy
+ * @version 1.0
+ */
+public class ExpiringMapTest
+{
+	
+	/** The no of timers of the wheel. */
+	private static final int TIMERS = 200 * 1000;
+	
+	/** The length of a tick of the wheel, in nanos. */
+	private static final long TICK = 1L << 20;
+	
+	/** The no of entries of the map. */
+	private static final int ENTRIES = 20 * 1000;
+	
+	/** The max time to live of an entry, in ms. */
+	private static final long MAX_TIME_TO_LIVE = 1500;
+	
+	/** How late an entry can be notified as expired, in ms. */
+	private static final long MAX_LATENESS = 500;
+	
+	/**
+	 * The package private timing wheel of {@link ExpiringMap}, called through
+	 * the reflection.
+	 */
+	private static class Wheel
+	{
+		
+		/** The wheel. */
+		private final Object wheel;
+		
+		/** The constructor of the timers. */
+		private final Constructor<?> timer;
+		
+		/** The schedule method. */
+		private final Method schedule;
+		
+		/** The cancel method. */
+		private final Method cancel;
+		
+		/** The advance method. */
+		private final Method advance;
+		
+		/** The size method. */
+		private final Method size;
+		
+		/**
+		 * Instantiates a new wheel.
+		 * 
+		 * @param now
+		 *            the current time, in nanos
+		 * @throws Exception
+		 *             if the wheel is not found
+		 */
+		private Wheel(long now) throws Exception
+		{
+			final Class<?> type = Class.forName("com.varra.util.TimingWheel");
+			final Class<?> timerType = Class.forName("com.varra.util.TimingWheel$Timer");
+			final Constructor<?> constructor = type.getDeclaredConstructor(long.class);
+			constructor.setAccessible(true);
+			wheel = constructor.newInstance(now);
+			timer = timerType.getDeclaredConstructor();
+			timer.setAccessible(true);
+			schedule = accessible(type.getDeclaredMethod("schedule", timerType, long.class));
+			cancel = accessible(type.getDeclaredMethod("cancel", timerType));
+			advance = accessible(type.getDeclaredMethod("advance", long.class, List.class));
+			size = accessible(type.getDeclaredMethod("size"));
+		}
+		
+		/**
+		 * Makes the method accessible.
+		 * 
+		 * @param method
+		 *            the method
+		 * @return the method
+		 */
+		private static Method accessible(Method method)
+		{
+			method.setAccessible(true);
+			return method;
+		}
+		
+		/**
+		 * Creates a timer.
+		 * 
+		 * @return the timer
+		 * @throws Exception
+		 *             if not created
+		 */
+		private Object newTimer() throws Exception
+		{
+			return timer.newInstance();
+		}
+		
+		/**
+		 * Schedules the timer.
+		 * 
+		 * @param timer
+		 *            the timer
+		 * @param deadline
+		 *            the deadline, in nanos
+		 * @throws Exception
+		 *             if not called
+		 */
+		private void schedule(Object timer, long deadline) throws Exception
+		{
+			schedule.invoke(wheel, timer, deadline);
+		}
+		
+		/**
+		 * Cancels the timer.
+		 * 
+		 * @param timer
+		 *            the timer
+		 * @throws Exception
+		 *             if not called
+		 */
+		private void cancel(Object timer) throws Exception
+		{
+			cancel.invoke(wheel, timer);
+		}
+		
+		/**
+		 * Advances the time.
+		 * 
+		 * @param now
+		 *            the current time, in nanos
+		 * @param expired
+		 *            the list to collect the timers expired in
+		 * @throws Exception
+		 *             if not called
+		 */
+		private void advance(long now, List<Object> expired) throws Exception
+		{
+			advance.invoke(wheel, now, expired);
+		}
+		
+		/**
+		 * Gets the no of timers scheduled.
+		 * 
+		 * @return the size
+		 * @throws Exception
+		 *             if not called
+		 */
+		private int size() throws Exception
+		{
+			return (Integer) size.invoke(wheel);
+		}
+	}
+	
+	/**
+	 * Gets a random delay, a ms up to hours, most of them short.
+	 * 
+	 * @param random
+	 *            the random
+	 * @return the delay, in nanos
+	 */
+	private static long randomDelay(Random random)
+	{
+		final long[] spans = { TimeUnit.MILLISECONDS.toNanos(2), TimeUnit.SECONDS.toNanos(1), TimeUnit.MINUTES.toNanos(1),
+				TimeUnit.HOURS.toNanos(10) };
+		return (long) (random.nextDouble() * spans[random.nextInt(spans.length)]);
+	}
+	
+	/**
+	 * Schedules the timers at random on a simulated clock, cancelling and
+	 * rescheduling some, and advances the clock by random steps till all of
+	 * them expired.
+	 * 
+	 * @throws Exception
+	 *             if the wheel can not be called
+	 */
+	private static void checkWheel() throws Exception
+	{
+		final Random random = new Random(42);
+		long now = random.nextLong();
+		final Wheel wheel = new Wheel(now);
+		final Object[] timers = new Object[TIMERS];
+		final long[] deadlines = new long[TIMERS];
+		
+		/** The timers scheduled, soonest first. */
+		final TreeSet<Integer> scheduled = new TreeSet<Integer>(new Comparator<Integer>()
+		{
+			public int compare(Integer first, Integer second)
+			{
+				final long diff = deadlines[first] - deadlines[second];
+				return diff != 0 ? (diff < 0 ? -1 : 1) : first.compareTo(second);
+			}
+		});
+		final IdentityHashMap<Object, Integer> ids = new IdentityHashMap<Object, Integer>();
+		for (int index = 0; index < TIMERS; index++)
+		{
+			timers[index] = wheel.newTimer();
+			ids.put(timers[index], index);
+		}
+		int next = 0;
+		long expiredCount = 0;
+		final List<Object> expired = new ArrayList<Object>();
+		while (next < TIMERS || !scheduled.isEmpty())
+		{
+			/** Schedules a few, and cancels or reschedules a few of the ones scheduled. */
+			for (int count = random.nextInt(200); count > 0 && next < TIMERS; count--, next++)
+			{
+				deadlines[next] = now + randomDelay(random);
+				wheel.schedule(timers[next], deadlines[next]);
+				scheduled.add(next);
+			}
+			for (int count = random.nextInt(20); count > 0 && next > 0; count--)
+			{
+				final int id = random.nextInt(next);
+				if (scheduled.remove(id))
+				{
+					if (random.nextBoolean())
+					{
+						wheel.cancel(timers[id]);
+					}
+					else
+					{
+						deadlines[id] = now + randomDelay(random);
+						wheel.schedule(timers[id], deadlines[id]);
+						scheduled.add(id);
+					}
+				}
+			}
+			
+			/** Mostly small steps, at times a jump of the clock ahead by up to hours. */
+			final int jump = random.nextInt(1000);
+			now += jump == 0 ? randomDelay(random) : (jump < 10 ? TimeUnit.SECONDS.toNanos(random.nextInt(60)) : random.nextInt(3 * (int) TICK));
+			expired.clear();
+			wheel.advance(now, expired);
+			for (int index = 0; index < expired.size(); index++)
+			{
+				final int id = ids.get(expired.get(index));
+				if (deadlines[id] - now > 0)
+				{
+					throw new AssertionError("Timer: " + id + " expired " + (deadlines[id] - now) + " ns before its deadline");
+				}
+				if (!scheduled.remove(id))
+				{
+					throw new AssertionError("Timer: " + id + " expired, but not scheduled");
+				}
+			}
+			expiredCount += expired.size();
+			if (!scheduled.isEmpty())
+			{
+				final int first = scheduled.first();
+				if (now - deadlines[first] >= TICK)
+				{
+					throw new AssertionError("Timer: " + first + " not expired " + (now - deadlines[first]) + " ns after its deadline");
+				}
+			}
+			if (wheel.size() != scheduled.size())
+			{
+				throw new AssertionError("Expected " + scheduled.size() + " timers scheduled, but the wheel has " + wheel.size());
+			}
+		}
+		System.out.println("Wheel: " + expiredCount + " timers expired on time.");
+	}
+	
+	/**
+	 * Puts the entries with random times to live, reads them at random while
+	 * they expire, and checks they are notified as expired on time. Some of
+	 * them have an idle timeout and are kept alive by the reads for a while.
+	 * 
+	 * @throws InterruptedException
+	 *             if interrupted
+	 */
+	private static void checkMap() throws InterruptedException
+	{
+		final Random random = new Random(7);
+		final ExpiringMap<Integer, Long> map = new ExpiringMap<Integer, Long>("expiring-map-test");
+		final ConcurrentMap<Integer, Long> notified = new ConcurrentHashMap<Integer, Long>();
+		map.addRemovalListener(new BatchMessageListener<Removal<Integer, Long>>()
+		{
+			public void onMessage(Removal<Integer, Long> removal)
+			{
+				if (removal.getCause() != RemovalCause.EXPIRED)
+				{
+					throw new AssertionError("Unexpected removal: " + removal);
+				}
+				notified.put(removal.getKey(), System.nanoTime());
+			}
+			
+			public void onEndOfBatch(int size)
+			{
+			}
+		});
+		try
+		{
+			final long[] deadlines = new long[ENTRIES];
+			final boolean[] idle = new boolean[ENTRIES];
+			final long idleTimeout = TimeUnit.MILLISECONDS.toNanos(200);
+			for (int key = 0; key < ENTRIES; key++)
+			{
+				/** The deadline is taken before the put, so the entry expires after it. */
+				final long timeToLive = 1 + random.nextInt((int) MAX_TIME_TO_LIVE);
+				idle[key] = key % 10 == 0;
+				deadlines[key] = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeToLive);
+				map.put(key, deadlines[key], idle[key] ? 0 : timeToLive, idle[key] ? 200 : 0, TimeUnit.MILLISECONDS);
+			}
+			
+			/** Reads the entries at random, the ones with an idle timeout are read often enough to be kept alive till the end. */
+			final long end = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(MAX_TIME_TO_LIVE);
+			while (System.nanoTime() - end < 0)
+			{
+				for (int key = 0; key < ENTRIES; key += 10)
+				{
+					if (map.get(key) == null)
+					{
+						throw new AssertionError("Entry: " + key + " expired while read within its idle timeout");
+					}
+				}
+				for (int count = 0; count < 1000; count++)
+				{
+					final int key = random.nextInt(ENTRIES);
+					if (idle[key])
+					{
+						continue;
+					}
+					final long before = System.nanoTime();
+					final Long value = map.get(key);
+					final long after = System.nanoTime();
+					if (value != null && after - deadlines[key] > 0 && before - deadlines[key] > TimeUnit.MILLISECONDS.toNanos(1))
+					{
+						throw new AssertionError("Entry: " + key + " read " + (before - deadlines[key]) + " ns after its expiry");
+					}
+					if (value == null && deadlines[key] - after > 0)
+					{
+						throw new AssertionError("Entry: " + key + " expired " + (deadlines[key] - after) + " ns before its time to live");
+					}
+				}
+				map.cleanUp();
+				Thread.sleep(10);
+			}
+			
+			/** The idle ones are left alone now, and expire too. */
+			final long idleSince = System.nanoTime();
+			final long wait = idleSince + idleTimeout + TimeUnit.MILLISECONDS.toNanos(MAX_LATENESS);
+			while (notified.size() < ENTRIES && System.nanoTime() - wait < 0)
+			{
+				map.cleanUp();
+				Thread.sleep(10);
+			}
+			if (notified.size() != ENTRIES)
+			{
+				throw new AssertionError("Expected " + ENTRIES + " entries notified as expired, but was " + notified.size());
+			}
+			long maxLateness = 0;
+			for (int key = 0; key < ENTRIES; key++)
+			{
+				final long deadline = idle[key] ? idleSince + idleTimeout : deadlines[key];
+				final long lateness = notified.get(key) - deadline;
+				if (!idle[key] && lateness < 0)
+				{
+					throw new AssertionError("Entry: " + key + " notified as expired " + -lateness + " ns before its time to live");
+				}
+				maxLateness = Math.max(maxLateness, lateness);
+			}
+			if (maxLateness > TimeUnit.MILLISECONDS.toNanos(MAX_LATENESS))
+			{
+				throw new AssertionError("An entry is notified as expired " + maxLateness + " ns after its expiry");
+			}
+			System.out.println("Map: " + ENTRIES + " entries expired on time, max lateness=" + TimeUnit.NANOSECONDS.toMillis(maxLateness) + " ms");
+		}
+		finally
+		{
+			map.shutdown(ShutdownMode.FORCED_SHUTDOWN);
+		}
+	}
+	
+	/**
+	 * The main method.
+	 * 
+	 * @param args
+	 *            the arguments
+	 * @throws Exception
+	 *             if the wheel can not be called
+	 */
+	public static void main(String[] args) throws Exception
+	{
+		checkWheel();
+		checkMap();
+		System.out.println("All checks passed.");
+	}
+}
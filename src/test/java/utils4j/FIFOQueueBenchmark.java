@@ -0,0 +1,223 @@
+/*
+ * utils4j - FIFOQueueBenchmark.java, Oct 18, 2026 11:26:40 PM
+ * 
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package utils4j;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.varra.util.FIFOQueue;
+
+/**
+ * Compares the consumers of a {@link FIFOQueue} looping on
+ * {@link FIFOQueue#await()}, {@link FIFOQueue#size()} and
+ * {@link FIFOQueue#pop()}, the way it used to be done, against the ones
+ * using {@link FIFOQueue#take()} and {@link FIFOQueue#drainTo(java.util.Collection, int)}.<br>
+ * Run it with the main method, it prints the average time taken and the
+ * lock acquisitions of the consumer per element passed from the producers to
+ * the consumer.
+ * 
+ * @author Rajakrishna V. Reddy
+ * @version 1.0
+ */
+public class FIFOQueueBenchmark
+{
+	
+	/** The no of elements passed per producer per round. */
+	private static final int ELEMENTS = 500000;
+	
+	/** The no of producers. */
+	private static final int PRODUCERS = 2;
+	
+	/** The max no of elements drained at once. */
+	private static final int BATCH = 256;
+	
+	/** The no of rounds, the first ones are the warm up. */
+	private static final int ROUNDS = 5;
+	
+	/** The end of the stream, one per producer. */
+	private static final Integer POISON = Integer.valueOf(-1);
+	
+	/** Keeps the results alive. */
+	private static long sink;
+	
+	/** The no of times the consumer took the lock of the queue. */
+	private static long locks;
+	
+	/**
+	 * A consumer of the queue.
+	 */
+	private interface Consumer
+	{
+		
+		/**
+		 * Consumes the elements till all the producers are done.
+		 * 
+		 * @param queue
+		 *            the queue
+		 * @throws InterruptedException
+		 *             the interrupted exception
+		 */
+		void consume(FIFOQueue<Integer> queue) throws InterruptedException;
+	}
+	
+	/**
+	 * The old path: waits for a signal, then pops the elements one by one.
+	 */
+	private static final Consumer POP = new Consumer()
+	{
+		public void consume(final FIFOQueue<Integer> queue) throws InterruptedException
+		{
+			int done = 0;
+			long sum = 0;
+			while (done < PRODUCERS)
+			{
+				locks++;
+				if (queue.size() == 0)
+				{
+					locks++;
+					queue.await();
+				}
+				locks++;
+				final int size = queue.size();
+				for (int index = 0; index < size; index++)
+				{
+					locks++;
+					final Integer value = queue.pop();
+					if (value == POISON)
+					{
+						done++;
+					}
+					else
+					{
+						sum += value;
+					}
+				}
+			}
+			sink += sum;
+		}
+	};
+	
+	/**
+	 * The new path: takes one element when empty, then drains a batch.
+	 */
+	private static final Consumer DRAIN = new Consumer()
+	{
+		public void consume(final FIFOQueue<Integer> queue) throws InterruptedException
+		{
+			final List<Integer> batch = new ArrayList<Integer>(BATCH);
+			int done = 0;
+			long sum = 0;
+			while (done < PRODUCERS)
+			{
+				locks++;
+				if (queue.drainTo(batch, BATCH) == 0)
+				{
+					locks++;
+					batch.add(queue.take());
+				}
+				for (int index = 0; index < batch.size(); index++)
+				{
+					final Integer value = batch.get(index);
+					if (value == POISON)
+					{
+						done++;
+					}
+					else
+					{
+						sum += value;
+					}
+				}
+				batch.clear();
+			}
+			sink += sum;
+		}
+	};
+	
+	/**
+	 * Passes the elements from the producers to the consumer.
+	 * 
+	 * @param consumer
+	 *            the consumer
+	 * @return the time taken, in nanos, the lock acquisitions are counted in
+	 *         {@link #locks}
+	 * @throws InterruptedException
+	 *             the interrupted exception
+	 */
+	private static long run(final Consumer consumer) throws InterruptedException
+	{
+		final FIFOQueue<Integer> queue = new FIFOQueue<Integer>();
+		locks = 0;
+		final Thread[] producers = new Thread[PRODUCERS];
+		for (int index = 0; index < PRODUCERS; index++)
+		{
+			producers[index] = new Thread()
+			{
+				@Override
+				public void run()
+				{
+					for (int element = 0; element < ELEMENTS; element++)
+					{
+						queue.push(element & 1023);
+						/** The old producers had to signal themselves. */
+						if (consumer == POP)
+						{
+							queue.signalAll();
+						}
+					}
+					queue.push(POISON);
+					queue.signalAll();
+				}
+			};
+		}
+		final long start = System.nanoTime();
+		for (final Thread producer : producers)
+		{
+			producer.start();
+		}
+		consumer.consume(queue);
+		for (final Thread producer : producers)
+		{
+			producer.join();
+		}
+		return System.nanoTime() - start;
+	}
+	
+	/**
+	 * The main method.
+	 * 
+	 * @param args
+	 *            the arguments
+	 * @throws Exception
+	 *             the exception
+	 */
+	public static void main(String[] args) throws Exception
+	{
+		final int total = ELEMENTS * PRODUCERS;
+		for (int round = 0; round < ROUNDS; round++)
+		{
+			final long pop = run(POP);
+			final double popLocks = (double) locks / total;
+			final long drain = run(DRAIN);
+			final double drainLocks = (double) locks / total;
+			System.out.println("Round " + round + ": await/size/pop=" + (pop / total) + " ns, " + popLocks + " locks, take/drainTo=" + (drain / total)
+					+ " ns, " + drainLocks + " locks per element");
+		}
+		System.out.println(sink);
+	}
+}
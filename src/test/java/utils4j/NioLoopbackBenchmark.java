@@ -0,0 +1,216 @@
+/*
+ * utils4j - NioLoopbackBenchmark.java, Oct 18, 2026 5:46:33 PM
+ * 
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package utils4j;
+
+import java.net.InetSocketAddress;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.varra.tcp.Connection;
+import com.varra.tcp.ConnectionListener;
+import com.varra.tcp.LengthFieldFrameCodec;
+import com.varra.tcp.NioClient;
+import com.varra.tcp.NioServer;
+import com.varra.util.ShutdownMode;
+
+/**
+ * Measures the {@link NioServer} and {@link NioClient} over the loopback: the
+ * round trip latency of one connection doing ping-pong, and the throughput of
+ * many connections pipelining the messages with the backpressure.<br>
+ * Run it with the main method, optional arguments: connections, messages per
+ * connection and payload size.
+ * 
+ * @author Rajakrishna V. Reddy
+ * @version 1.0
+ */
+public class NioLoopbackBenchmark
+{
+	
+	/** The no of round trips measured for the latency. */
+	private static final int ROUND_TRIPS = 20000;
+	
+	/**
+	 * Echoes every message back.
+	 */
+	private static class EchoListener implements ConnectionListener<byte[]>
+	{
+		
+		public void onConnected(Connection<byte[]> connection)
+		{
+		
+		}
+		
+		public void onMessage(Connection<byte[]> connection, byte[] message)
+		{
+			try
+			{
+				connection.send(message);
+			}
+			catch (Exception e)
+			{
+				connection.close();
+			}
+		}
+		
+		public void onDisconnected(Connection<byte[]> connection, Throwable cause)
+		{
+		
+		}
+	}
+	
+	/**
+	 * Hands over or counts the replies.
+	 */
+	private static class ReplyListener implements ConnectionListener<byte[]>
+	{
+		
+		/** The replies of the ping-pong. */
+		private final SynchronousQueue<byte[]> replies = new SynchronousQueue<byte[]>();
+		
+		/** The no of replies of the pipelining. */
+		private final AtomicLong received = new AtomicLong();
+		
+		/** Whether it is the ping-pong. */
+		private volatile boolean pingPong = true;
+		
+		/** Counted down once all the replies are received. */
+		private volatile CountDownLatch done;
+		
+		public void onConnected(Connection<byte[]> connection)
+		{
+		
+		}
+		
+		public void onMessage(Connection<byte[]> connection, byte[] message)
+		{
+			if (pingPong)
+			{
+				try
+				{
+					replies.put(message);
+				}
+				catch (InterruptedException e)
+				{
+					Thread.currentThread().interrupt();
+				}
+			}
+			else
+			{
+				received.incrementAndGet();
+				done.countDown();
+			}
+		}
+		
+		public void onDisconnected(Connection<byte[]> connection, Throwable cause)
+		{
+		
+		}
+	}
+	
+	/**
+	 * The main method.
+	 * 
+	 * @param args
+	 *            the arguments
+	 * @throws Exception
+	 *             the exception
+	 */
+	public static void main(String[] args) throws Exception
+	{
+		final int connections = args.length > 0 ? Integer.parseInt(args[0]) : 16;
+		final int messages = args.length > 1 ? Integer.parseInt(args[1]) : 100000;
+		final int payloadSize = args.length > 2 ? Integer.parseInt(args[2]) : 128;
+		
+		final NioServer<byte[]> server = new NioServer<byte[]>(new InetSocketAddress("127.0.0.1", 0), new LengthFieldFrameCodec(), new EchoListener());
+		server.start();
+		final ReplyListener listener = new ReplyListener();
+		final NioClient<byte[]> client = new NioClient<byte[]>(new LengthFieldFrameCodec(), listener);
+		client.setMaxConnectionsPerAddress(connections);
+		client.start();
+		final InetSocketAddress address = new InetSocketAddress("127.0.0.1", server.getLocalPort());
+		final byte[] payload = new byte[payloadSize];
+		
+		/** Latency. */
+		final Connection<byte[]> single = client.connect(address).get();
+		final long[] latencies = new long[ROUND_TRIPS];
+		for (int round = 0; round < 2; round++)
+		{
+			for (int index = 0; index < ROUND_TRIPS; index++)
+			{
+				final long start = System.nanoTime();
+				single.send(payload);
+				listener.replies.take();
+				latencies[index] = System.nanoTime() - start;
+			}
+		}
+		Arrays.sort(latencies);
+		System.out.println("Round trip latency (us): p50=" + latencies[ROUND_TRIPS / 2] / 1000 + ", p99=" + latencies[ROUND_TRIPS * 99 / 100] / 1000
+				+ ", p99.9=" + latencies[ROUND_TRIPS * 999 / 1000] / 1000 + ", max=" + latencies[ROUND_TRIPS - 1] / 1000);
+		single.close();
+		
+		/** Throughput. */
+		listener.pingPong = false;
+		listener.done = new CountDownLatch(connections * messages);
+		final Thread[] senders = new Thread[connections];
+		for (int index = 0; index < connections; index++)
+		{
+			final Connection<byte[]> connection = client.connect(address).get();
+			senders[index] = new Thread()
+			{
+				public void run()
+				{
+					try
+					{
+						for (int count = 0; count < messages; count++)
+						{
+							if (!connection.isWritable())
+							{
+								connection.awaitWritable(10, TimeUnit.SECONDS);
+							}
+							connection.send(payload);
+						}
+					}
+					catch (Exception e)
+					{
+						e.printStackTrace();
+					}
+				}
+			};
+		}
+		final long start = System.nanoTime();
+		for (final Thread sender : senders)
+		{
+			sender.start();
+		}
+		if (!listener.done.await(120, TimeUnit.SECONDS))
+		{
+			System.out.println("Timed out, received: " + listener.received.get());
+		}
+		final long elapsed = System.nanoTime() - start;
+		final long total = listener.received.get();
+		System.out.println("Throughput: " + connections + " connections, " + total + " echoes of " + payloadSize + " bytes in " + elapsed / 1000000
+				+ " ms, " + (total * 1000000000L / elapsed) + " msgs/s, " + (total * (payloadSize + 4) * 2 * 1000L / elapsed) + " MB/s");
+		System.out.println("Server: " + server.getPool() + ", client: " + client.getPool());
+		client.shutdown(ShutdownMode.GRACEFUL_SHUTDOWN);
+		server.shutdown(ShutdownMode.GRACEFUL_SHUTDOWN);
+	}
+}
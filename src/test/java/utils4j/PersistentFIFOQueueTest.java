@@ -0,0 +1,469 @@
+/*
+ * utils4j - PersistentFIFOQueueTest.java, Oct 18, 2026 7:31:09 PM
+ * 
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package utils4j;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import com.varra.util.BufferOverflowListener;
+import com.varra.util.PersistentFIFOQueue;
+
+/**
+ * Checks the {@link PersistentFIFOQueue}: the elements come out in order
+ * across many small segments, which are recycled as they are read; they are
+ * recovered after the queue is closed, after the JVM writing them is halted
+ * without closing it, and from the previous cursors if the last ones were
+ * being written; a fixed queue evicts the oldest ones to its listeners, or
+ * makes the offers wait; and a directory is opened by one queue at a time,
+ * in this JVM or another.<br>
+ * The crash is a child JVM running the main method of this class with the
+ * arguments "crash" or "open" and the directory.<br>
+ * Run it with the main method, it fails with an {@link AssertionError} on the
+ * first element lost, duplicated or out of order.
+ * 
+ * @author Rajakrishna V. Reddy
+ * @version 1.0
+ */
+public class PersistentFIFOQueueTest
+{
+	
+	/** The size of the segments, the smallest allowed. */
+	private static final int SEGMENT_SIZE = PersistentFIFOQueue.MIN_SEGMENT_SIZE;
+	
+	/** The no of elements pushed by the crashing JVM. */
+	private static final int CRASH_PUSHED = 1000;
+	
+	/** The no of elements polled by the crashing JVM. */
+	private static final int CRASH_POLLED = 300;
+	
+	/** The exit code of the child JVM if the queue could not be opened. */
+	private static final int NOT_OPENED = 3;
+	
+	/**
+	 * Gets the element of the given no, long enough to fill a segment with
+	 * a few dozens of them.
+	 * 
+	 * @param no
+	 *            the no
+	 * @return the element
+	 */
+	private static String element(int no)
+	{
+		return "element-" + no + "-of-a-queue-long-enough-to-fill-a-segment-of-4-KB-with-a-few-dozens-of-them";
+	}
+	
+	/**
+	 * Creates a new empty directory.
+	 * 
+	 * @return the directory
+	 * @throws IOException
+	 *             if not created
+	 */
+	private static File newDirectory() throws IOException
+	{
+		final File directory = File.createTempFile("queue", "");
+		if (!directory.delete() || !directory.mkdir())
+		{
+			throw new IOException("Unable to create the directory: " + directory);
+		}
+		return directory;
+	}
+	
+	/**
+	 * Deletes the directory with its files.
+	 * 
+	 * @param directory
+	 *            the directory
+	 */
+	private static void delete(File directory)
+	{
+		final File[] files = directory.listFiles();
+		if (files != null)
+		{
+			for (final File file : files)
+			{
+				file.delete();
+			}
+		}
+		directory.delete();
+	}
+	
+	/**
+	 * Checks the values are as expected.
+	 * 
+	 * @param what
+	 *            what is checked
+	 * @param expected
+	 *            the expected
+	 * @param actual
+	 *            the actual
+	 */
+	private static void check(String what, Object expected, Object actual)
+	{
+		if (!expected.equals(actual))
+		{
+			throw new AssertionError(what + ": expected " + expected + ", but was " + actual);
+		}
+	}
+	
+	/**
+	 * Polls all the elements, and checks they are the ones of the given nos
+	 * in order.
+	 * 
+	 * @param queue
+	 *            the queue
+	 * @param first
+	 *            the no of the first one
+	 * @param last
+	 *            the no of the last one
+	 */
+	private static void checkPolled(PersistentFIFOQueue<String> queue, int first, int last)
+	{
+		for (int no = first; no <= last; no++)
+		{
+			check("polled", element(no), queue.poll());
+		}
+		check("polled once empty", "null", String.valueOf(queue.poll()));
+		check("size once empty", 0L, queue.size());
+	}
+	
+	/**
+	 * Runs a child JVM on the main method of this class.
+	 * 
+	 * @param mode
+	 *            the mode, crash or open
+	 * @param directory
+	 *            the directory of the queue
+	 * @return the exit code
+	 * @throws Exception
+	 *             if it can not be run
+	 */
+	private static int runChild(String mode, File directory) throws Exception
+	{
+		final String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+		final Process process = new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"), PersistentFIFOQueueTest.class.getName(), mode,
+				directory.getPath()).redirectErrorStream(true).redirectOutput(new File(directory.getParentFile(), directory.getName() + ".log")).start();
+		if (!process.waitFor(60, TimeUnit.SECONDS))
+		{
+			process.destroy();
+			throw new AssertionError("The child JVM of the mode: " + mode + " did not exit in time");
+		}
+		new File(directory.getParentFile(), directory.getName() + ".log").delete();
+		return process.exitValue();
+	}
+	
+	/**
+	 * Pushes and polls in step and in bursts across many segments, and checks
+	 * the order and the segments recycled.
+	 * 
+	 * @throws Exception
+	 *             if the queue can not be used
+	 */
+	private static void checkOrder() throws Exception
+	{
+		final File directory = newDirectory();
+		final PersistentFIFOQueue<String> queue = new PersistentFIFOQueue<String>(directory, -1, false, SEGMENT_SIZE);
+		int pushed = 0;
+		int polled = 0;
+		int maxSegments = 0;
+		for (int round = 0; round < 50; round++)
+		{
+			final int burst = 1 + (round * 37) % 200;
+			for (int index = 0; index < burst; index++)
+			{
+				queue.push(element(++pushed));
+			}
+			maxSegments = Math.max(maxSegments, queue.getSegmentCount());
+			final int drain = Math.min(pushed - polled, 1 + (round * 53) % 220);
+			for (int index = 0; index < drain; index++)
+			{
+				check("polled", element(++polled), queue.poll());
+			}
+			check("size", (long) (pushed - polled), queue.size());
+		}
+		check("peeked", pushed > polled ? element(polled + 1) : "null", String.valueOf(queue.peek()));
+		checkPolled(queue, polled + 1, pushed);
+		check("segments once read", 1, queue.getSegmentCount());
+		final String[] files = directory.list();
+		if (files.length > 2 + 2)
+		{
+			throw new AssertionError("Expected the segments read recycled or deleted, but found " + files.length + " files");
+		}
+		queue.close();
+		delete(directory);
+		System.out.println("Order: " + pushed + " elements in order across up to " + maxSegments + " segments of " + SEGMENT_SIZE + " bytes");
+	}
+	
+	/**
+	 * Closes and reopens the queue, then halts a JVM writing it without
+	 * closing, and checks the elements are recovered in order each time.
+	 * 
+	 * @throws Exception
+	 *             if the queue can not be used
+	 */
+	private static void checkRecovery() throws Exception
+	{
+		final File directory = newDirectory();
+		PersistentFIFOQueue<String> queue = new PersistentFIFOQueue<String>(directory, -1, false, SEGMENT_SIZE);
+		for (int no = 1; no <= 500; no++)
+		{
+			queue.push(element(no));
+		}
+		for (int no = 1; no <= 100; no++)
+		{
+			check("polled", element(no), queue.poll());
+		}
+		queue.close();
+		
+		/** An existing queue keeps its segment size. */
+		queue = new PersistentFIFOQueue<String>(directory);
+		check("segment size once reopened", SEGMENT_SIZE, queue.getSegmentSize());
+		check("size once reopened", 400L, queue.size());
+		checkPolled(queue, 101, 500);
+		queue.close();
+		
+		/** Halted while open, the elements pushed and polled so far are kept as they were. */
+		check("exit code of the crash", 0, runChild("crash", directory));
+		queue = new PersistentFIFOQueue<String>(directory);
+		check("size once crashed", (long) (CRASH_PUSHED - CRASH_POLLED), queue.size());
+		checkPolled(queue, CRASH_POLLED + 1, CRASH_PUSHED);
+		queue.close();
+		delete(directory);
+		System.out.println("Recovery: " + (CRASH_PUSHED - CRASH_POLLED) + " elements recovered in order after the JVM was halted");
+	}
+	
+	/**
+	 * Marks the last cursors written as being written, as if the JVM died
+	 * meanwhile, and checks the previous ones are used.
+	 * 
+	 * @throws Exception
+	 *             if the queue can not be used
+	 */
+	private static void checkTornCursors() throws Exception
+	{
+		final File directory = newDirectory();
+		PersistentFIFOQueue<String> queue = new PersistentFIFOQueue<String>(directory, -1, false, SEGMENT_SIZE);
+		for (int no = 1; no <= 10; no++)
+		{
+			queue.push(element(no));
+		}
+		queue.close();
+		
+		/** The two slots of 64 bytes after the header of 64, each starts with its seq, odd while written. */
+		final RandomAccessFile raf = new RandomAccessFile(new File(directory, PersistentFIFOQueue.CURSORS_FILE), "rw");
+		try
+		{
+			raf.seek(64);
+			final long first = raf.readLong();
+			raf.seek(128);
+			final long second = raf.readLong();
+			raf.seek(first > second ? 64 : 128);
+			raf.writeLong(Math.max(first, second) - 1);
+		}
+		finally
+		{
+			raf.close();
+		}
+		queue = new PersistentFIFOQueue<String>(directory);
+		check("size from the previous cursors", 9L, queue.size());
+		checkPolled(queue, 1, 9);
+		queue.push(element(11));
+		check("polled after the torn cursors", element(11), queue.poll());
+		queue.close();
+		delete(directory);
+		System.out.println("Torn cursors: recovered from the previous ones");
+	}
+	
+	/**
+	 * Checks a fixed queue evicts the oldest elements to its listeners on a
+	 * push, refuses or makes wait the offers, drains in batches, and evicts
+	 * the elements beyond a smaller capacity once reopened.
+	 * 
+	 * @throws Exception
+	 *             if the queue can not be used
+	 */
+	private static void checkFixed() throws Exception
+	{
+		final File directory = newDirectory();
+		final PersistentFIFOQueue<String> queue = new PersistentFIFOQueue<String>(directory, 100, true, SEGMENT_SIZE);
+		final List<String> evicted = new ArrayList<String>();
+		queue.addFIFOQueueItemRemovedListener(new BufferOverflowListener<String>()
+		{
+			public void itemRemoved(String item)
+			{
+				evicted.add(item);
+			}
+		});
+		for (int no = 1; no <= 150; no++)
+		{
+			queue.push(element(no));
+		}
+		check("size once full", 100L, queue.size());
+		check("evicted", 50, evicted.size());
+		for (int no = 1; no <= 50; no++)
+		{
+			check("evicted", element(no), evicted.get(no - 1));
+		}
+		check("offered once full", false, queue.offer(element(0)));
+		long start = System.nanoTime();
+		check("offered in time once full", false, queue.offer(element(0), 50, TimeUnit.MILLISECONDS));
+		if (System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(40))
+		{
+			throw new AssertionError("Expected the offer to wait for the timeout");
+		}
+		
+		/** A consumer makes room for the offer waiting. */
+		final Thread consumer = new Thread()
+		{
+			@Override
+			public void run()
+			{
+				try
+				{
+					Thread.sleep(50);
+				}
+				catch (InterruptedException e)
+				{
+					Thread.currentThread().interrupt();
+				}
+				queue.poll();
+			}
+		};
+		consumer.start();
+		check("offered once polled", true, queue.offer(element(151), 5, TimeUnit.SECONDS));
+		consumer.join();
+		final List<String> drained = new ArrayList<String>();
+		check("drained with a negative max", 0, queue.drainTo(drained, -1));
+		check("drained", 10, queue.drainTo(drained, 10));
+		for (int no = 52; no <= 61; no++)
+		{
+			check("drained", element(no), drained.get(no - 52));
+		}
+		check("size once drained", 90L, queue.size());
+		queue.close();
+		
+		/** Reopened with a smaller capacity, the oldest ones beyond it are evicted. */
+		final PersistentFIFOQueue<String> smaller = new PersistentFIFOQueue<String>(directory, 40, true, SEGMENT_SIZE);
+		check("size once reopened smaller", 40L, smaller.size());
+		checkPolled(smaller, 112, 151);
+		start = System.nanoTime();
+		check("polled in time once empty", "null", String.valueOf(smaller.poll(50, TimeUnit.MILLISECONDS)));
+		if (System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(40))
+		{
+			throw new AssertionError("Expected the poll to wait for the timeout");
+		}
+		smaller.close();
+		delete(directory);
+		System.out.println("Fixed: " + evicted.size() + " oldest evicted to the listener, offers refused or made to wait");
+	}
+	
+	/**
+	 * Checks a second queue on the directory of an open one fails, in this
+	 * JVM and in another, and the directory can be opened again once closed.
+	 * 
+	 * @throws Exception
+	 *             if the queue can not be used
+	 */
+	private static void checkExclusive() throws Exception
+	{
+		final File directory = newDirectory();
+		final PersistentFIFOQueue<String> queue = new PersistentFIFOQueue<String>(directory, -1, false, SEGMENT_SIZE);
+		queue.push(element(1));
+		try
+		{
+			new PersistentFIFOQueue<String>(directory).close();
+			throw new AssertionError("Expected the second queue on the directory to fail in this JVM");
+		}
+		catch (IOException e)
+		{
+			/** Expected. */
+		}
+		check("exit code of the second queue in another JVM", NOT_OPENED, runChild("open", directory));
+		check("polled after the second queues failed", element(1), queue.poll());
+		queue.close();
+		check("exit code once closed", 0, runChild("open", directory));
+		delete(directory);
+		System.out.println("Exclusive: a second queue on the directory fails in this JVM and another");
+	}
+	
+	/**
+	 * Runs the child JVM: crash pushes and polls, then halts without closing
+	 * the queue; open opens and closes the queue, exiting with
+	 * {@link #NOT_OPENED} if it fails.
+	 * 
+	 * @param mode
+	 *            the mode
+	 * @param directory
+	 *            the directory of the queue
+	 * @throws Exception
+	 *             if the queue can not be used
+	 */
+	private static void child(String mode, File directory) throws Exception
+	{
+		if ("crash".equals(mode))
+		{
+			final PersistentFIFOQueue<String> queue = new PersistentFIFOQueue<String>(directory);
+			for (int no = 1; no <= CRASH_PUSHED; no++)
+			{
+				queue.push(element(no));
+			}
+			for (int no = 1; no <= CRASH_POLLED; no++)
+			{
+				queue.poll();
+			}
+			Runtime.getRuntime().halt(0);
+		}
+		try
+		{
+			new PersistentFIFOQueue<String>(directory).close();
+		}
+		catch (IOException e)
+		{
+			Runtime.getRuntime().halt(NOT_OPENED);
+		}
+	}
+	
+	/**
+	 * The main method.
+	 * 
+	 * @param args
+	 *            none to run the checks, or the mode and directory of the
+	 *            child JVM
+	 * @throws Exception
+	 *             if a queue can not be used
+	 */
+	public static void main(String[] args) throws Exception
+	{
+		if (args.length == 2)
+		{
+			child(args[0], new File(args[1]));
+			return;
+		}
+		checkOrder();
+		checkRecovery();
+		checkTornCursors();
+		checkFixed();
+		checkExclusive();
+		System.out.println("All checks passed.");
+	}
+}
@@ -0,0 +1,264 @@
+/*
+ * utils4j - PrimitiveCollectionsBenchmark.java, Oct 18, 2026 11:16:20 PM
+ * 
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package utils4j;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import com.varra.util.IntIntMap;
+import com.varra.util.LongHashSet;
+import com.varra.util.LongLongMap;
+
+/**
+ * Compares the primitive collections, {@link IntIntMap}, {@link LongLongMap}
+ * and {@link LongHashSet}, against the boxed {@link HashMap} and
+ * {@link HashSet} they replace: the memory taken by a million entries, and
+ * the time taken per put and get.<br>
+ * Run it with the main method, preferably with a fixed heap like -Xms1g
+ * -Xmx1g so that the memory used is measured steadily.
+ * 
+ * @author Rajakrishna V. Reddy
+ * @version 1.0
+ */
+public class PrimitiveCollectionsBenchmark
+{
+	
+	/** The no of entries. */
+	private static final int ENTRIES = 1000000;
+	
+	/** The no of rounds, the first ones are the warm up. */
+	private static final int ROUNDS = 5;
+	
+	/** Keeps the collections and results alive. */
+	private static Object sink;
+	
+	/** Keeps the results alive. */
+	private static long total;
+	
+	/** The keys, random so that neither side gains from their order. */
+	private static final int[] KEYS = new int[ENTRIES];
+	
+	static
+	{
+		final Random random = new Random(42);
+		for (int index = 0; index < ENTRIES; index++)
+		{
+			KEYS[index] = random.nextInt();
+		}
+	}
+	
+	/**
+	 * Gets the memory used after a gc.
+	 * 
+	 * @return the used memory
+	 */
+	private static long usedMemory()
+	{
+		final Runtime runtime = Runtime.getRuntime();
+		for (int index = 0; index < 3; index++)
+		{
+			System.gc();
+		}
+		return runtime.totalMemory() - runtime.freeMemory();
+	}
+	
+	/**
+	 * Builds a collection and measures the memory it takes.
+	 */
+	private abstract static class Footprint
+	{
+		
+		/**
+		 * Builds the collection.
+		 * 
+		 * @return the collection
+		 */
+		abstract Object build();
+		
+		/**
+		 * Measures the memory taken per entry.
+		 * 
+		 * @return the bytes per entry
+		 */
+		long measure()
+		{
+			final long before = usedMemory();
+			sink = build();
+			final long used = usedMemory() - before;
+			sink = null;
+			return used / ENTRIES;
+		}
+	}
+	
+	/**
+	 * Prints the memory taken per entry by the collections built.
+	 */
+	private static void footprint()
+	{
+		final long intInt = new Footprint()
+		{
+			Object build()
+			{
+				final IntIntMap map = new IntIntMap();
+				for (int index = 0; index < ENTRIES; index++)
+				{
+					map.put(KEYS[index], index);
+				}
+				return map;
+			}
+		}.measure();
+		final long boxedInt = new Footprint()
+		{
+			Object build()
+			{
+				final Map<Integer, Integer> map = new HashMap<Integer, Integer>();
+				for (int index = 0; index < ENTRIES; index++)
+				{
+					map.put(KEYS[index], index);
+				}
+				return map;
+			}
+		}.measure();
+		final long longLong = new Footprint()
+		{
+			Object build()
+			{
+				final LongLongMap map = new LongLongMap();
+				for (int index = 0; index < ENTRIES; index++)
+				{
+					map.put(KEYS[index], index);
+				}
+				return map;
+			}
+		}.measure();
+		final long boxedLong = new Footprint()
+		{
+			Object build()
+			{
+				final Map<Long, Long> map = new HashMap<Long, Long>();
+				for (int index = 0; index < ENTRIES; index++)
+				{
+					map.put((long) KEYS[index], (long) index);
+				}
+				return map;
+			}
+		}.measure();
+		final long longSet = new Footprint()
+		{
+			Object build()
+			{
+				final LongHashSet set = new LongHashSet();
+				for (int index = 0; index < ENTRIES; index++)
+				{
+					set.add(KEYS[index]);
+				}
+				return set;
+			}
+		}.measure();
+		final long boxedLongSet = new Footprint()
+		{
+			Object build()
+			{
+				final Set<Long> set = new HashSet<Long>();
+				for (int index = 0; index < ENTRIES; index++)
+				{
+					set.add((long) KEYS[index]);
+				}
+				return set;
+			}
+		}.measure();
+		System.out.println("Bytes per entry: IntIntMap=" + intInt + ", HashMap<Integer, Integer>=" + boxedInt + " | LongLongMap=" + longLong
+				+ ", HashMap<Long, Long>=" + boxedLong + " | LongHashSet=" + longSet + ", HashSet<Long>=" + boxedLongSet);
+	}
+	
+	/**
+	 * The main method.
+	 * 
+	 * @param args
+	 *            the arguments
+	 */
+	public static void main(String[] args)
+	{
+		footprint();
+		for (int round = 0; round < ROUNDS; round++)
+		{
+			long start = System.nanoTime();
+			final IntIntMap intIntMap = new IntIntMap();
+			for (int index = 0; index < ENTRIES; index++)
+			{
+				intIntMap.put(KEYS[index], index);
+			}
+			final long primitivePut = System.nanoTime() - start;
+			
+			start = System.nanoTime();
+			for (int index = 0; index < ENTRIES; index++)
+			{
+				total += intIntMap.get(KEYS[index]);
+			}
+			final long primitiveGet = System.nanoTime() - start;
+			
+			start = System.nanoTime();
+			final Map<Integer, Integer> integerMap = new HashMap<Integer, Integer>();
+			for (int index = 0; index < ENTRIES; index++)
+			{
+				integerMap.put(KEYS[index], index);
+			}
+			final long boxedPut = System.nanoTime() - start;
+			
+			start = System.nanoTime();
+			for (int index = 0; index < ENTRIES; index++)
+			{
+				total += integerMap.get(KEYS[index]);
+			}
+			final long boxedGet = System.nanoTime() - start;
+			
+			start = System.nanoTime();
+			final LongHashSet longHashSet = new LongHashSet();
+			for (int index = 0; index < ENTRIES; index++)
+			{
+				longHashSet.add(KEYS[index]);
+			}
+			for (int index = 0; index < ENTRIES; index++)
+			{
+				total += longHashSet.contains(KEYS[index]) ? 1 : 0;
+			}
+			final long primitiveSet = System.nanoTime() - start;
+			
+			start = System.nanoTime();
+			final Set<Long> boxedSet = new HashSet<Long>();
+			for (int index = 0; index < ENTRIES; index++)
+			{
+				boxedSet.add((long) KEYS[index]);
+			}
+			for (int index = 0; index < ENTRIES; index++)
+			{
+				total += boxedSet.contains((long) KEYS[index]) ? 1 : 0;
+			}
+			final long boxedSetTime = System.nanoTime() - start;
+			
+			System.out.println("Round " + round + ": put IntIntMap=" + (primitivePut / ENTRIES) + " ns, HashMap=" + (boxedPut / ENTRIES) + " ns | get IntIntMap="
+					+ (primitiveGet / ENTRIES) + " ns, HashMap=" + (boxedGet / ENTRIES) + " ns | add+contains LongHashSet=" + (primitiveSet / ENTRIES)
+					+ " ns, HashSet=" + (boxedSetTime / ENTRIES) + " ns");
+		}
+		System.out.println(total);
+	}
+}
@@ -0,0 +1,425 @@
+/*
+ * utils4j - PrimitiveCollectionsTest.java, Oct 18, 2026 7:02:36 PM
+ * 
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package utils4j;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import com.varra.util.IntArrayList;
+import com.varra.util.IntIntMap;
+import com.varra.util.LongHashSet;
+import com.varra.util.LongLongMap;
+import com.varra.util.LongObjectMap;
+
+/**
+ * Checks the primitive collections against the ones of java.util, with
+ * random operations on keys picked to collide: a few keys in a small range,
+ * the strides of the table sizes, the zero key stored aside, and the min and
+ * max values. Every key is looked up after each round, so an entry lost by a
+ * removal shifting back the others is caught.<br>
+ * Run it with the main method, it fails with an {@link AssertionError} on the
+ * first value differing from the one of java.util.
+ * 
+ * @author Rajakrishna V. Reddy
+ * @version 1.0
+ */
+public class PrimitiveCollectionsTest
+{
+	
+	/** The no of rounds. */
+	private static final int ROUNDS = 200;
+	
+	/** The no of operations per round. */
+	private static final int OPERATIONS = 2000;
+	
+	/** The value returned for the missing keys, so it is not taken for a real 0. */
+	private static final int MISSING = -1;
+	
+	/** The random, seeded so a failure can be reproduced. */
+	private static final Random random = new Random(42);
+	
+	/**
+	 * Picks a key likely to collide with the others.
+	 * 
+	 * @return the key
+	 */
+	private static long nextKey()
+	{
+		switch (random.nextInt(5))
+		{
+			case 0:
+				return 0;
+			case 1:
+				return random.nextBoolean() ? Long.MIN_VALUE : Long.MAX_VALUE;
+			case 2:
+				/** The strides of the table sizes. */
+				return (long) random.nextInt(64) << (4 + random.nextInt(8));
+			case 3:
+				return -random.nextInt(64);
+			default:
+				return random.nextInt(256);
+		}
+	}
+	
+	/**
+	 * Picks an int key likely to collide with the others.
+	 * 
+	 * @return the key
+	 */
+	private static int nextIntKey()
+	{
+		final long key = nextKey();
+		return key == Long.MIN_VALUE ? Integer.MIN_VALUE : key == Long.MAX_VALUE ? Integer.MAX_VALUE : (int) key;
+	}
+	
+	/**
+	 * Checks the values are as expected.
+	 * 
+	 * @param what
+	 *            what is checked
+	 * @param expected
+	 *            the expected
+	 * @param actual
+	 *            the actual
+	 */
+	private static void check(String what, Object expected, Object actual)
+	{
+		if (!expected.equals(actual))
+		{
+			throw new AssertionError(what + ": expected " + expected + ", but was " + actual);
+		}
+	}
+	
+	/**
+	 * Checks the {@link IntIntMap}, with the counters of addTo.
+	 */
+	private static void checkIntIntMap()
+	{
+		final IntIntMap map = new IntIntMap(4, 0.75f, MISSING);
+		final Map<Integer, Integer> expected = new HashMap<Integer, Integer>();
+		for (int round = 0; round < ROUNDS; round++)
+		{
+			for (int operation = 0; operation < OPERATIONS; operation++)
+			{
+				final int key = nextIntKey();
+				final Integer previous = expected.get(key);
+				final int missing = previous == null ? MISSING : previous;
+				switch (random.nextInt(4))
+				{
+					case 0:
+						final int value = random.nextInt();
+						check("put: " + key, missing, map.put(key, value));
+						expected.put(key, value);
+						break;
+					case 1:
+						check("addTo: " + key, missing + 3, map.addTo(key, 3));
+						expected.put(key, missing + 3);
+						break;
+					case 2:
+						check("remove: " + key, missing, map.remove(key));
+						expected.remove(key);
+						break;
+					default:
+						check("get: " + key, missing, map.get(key));
+						check("containsKey: " + key, previous != null, map.containsKey(key));
+				}
+			}
+			check("size", expected.size(), map.size());
+			for (int index = 0; index < 4096; index++)
+			{
+				final int key = nextIntKey();
+				final Integer value = expected.get(key);
+				check("get of round " + round + ": " + key, value == null ? 7 : value, map.get(key, 7));
+			}
+			final List<Integer> keys = new ArrayList<Integer>();
+			for (final int key : map.keys())
+			{
+				keys.add(key);
+			}
+			Collections.sort(keys);
+			final List<Integer> expectedKeys = new ArrayList<Integer>(expected.keySet());
+			Collections.sort(expectedKeys);
+			check("keys of round " + round, expectedKeys, keys);
+			final long[] sum = new long[1];
+			map.forEach(new IntIntMap.Procedure()
+			{
+				public boolean apply(int key, int value)
+				{
+					sum[0] += value;
+					return true;
+				}
+			});
+			long expectedSum = 0;
+			for (final int value : expected.values())
+			{
+				expectedSum += value;
+			}
+			check("sum of round " + round, expectedSum, sum[0]);
+			if (round % 50 == 49)
+			{
+				map.clear();
+				expected.clear();
+				check("empty once cleared", true, map.isEmpty());
+				check("get once cleared", MISSING, map.get(0));
+			}
+		}
+		System.out.println("IntIntMap: " + ROUNDS * OPERATIONS + " operations as in a HashMap");
+	}
+	
+	/**
+	 * Checks the {@link LongLongMap}.
+	 */
+	private static void checkLongLongMap()
+	{
+		final LongLongMap map = new LongLongMap(4, 0.5f, MISSING);
+		final Map<Long, Long> expected = new HashMap<Long, Long>();
+		for (int round = 0; round < ROUNDS; round++)
+		{
+			for (int operation = 0; operation < OPERATIONS; operation++)
+			{
+				final long key = nextKey();
+				final Long previous = expected.get(key);
+				final long missing = previous == null ? MISSING : previous;
+				switch (random.nextInt(4))
+				{
+					case 0:
+						final long value = random.nextLong();
+						check("put: " + key, missing, map.put(key, value));
+						expected.put(key, value);
+						break;
+					case 1:
+						check("addTo: " + key, missing - 5, map.addTo(key, -5));
+						expected.put(key, missing - 5);
+						break;
+					case 2:
+						check("remove: " + key, missing, map.remove(key));
+						expected.remove(key);
+						break;
+					default:
+						check("get: " + key, missing, map.get(key));
+						check("containsKey: " + key, previous != null, map.containsKey(key));
+				}
+			}
+			check("size", expected.size(), map.size());
+			final long[] keys = map.keys();
+			check("no of keys of round " + round, expected.size(), keys.length);
+			for (final long key : keys)
+			{
+				check("key of round " + round + ": " + key, expected.get(key), map.get(key));
+			}
+			for (final Map.Entry<Long, Long> entry : expected.entrySet())
+			{
+				check("get of round " + round + ": " + entry.getKey(), entry.getValue(), map.get(entry.getKey(), 7));
+			}
+		}
+		System.out.println("LongLongMap: " + ROUNDS * OPERATIONS + " operations as in a HashMap");
+	}
+	
+	/**
+	 * Checks the {@link LongObjectMap}, with putIfAbsent and a forEach
+	 * stopped early.
+	 */
+	private static void checkLongObjectMap()
+	{
+		final LongObjectMap<String> map = new LongObjectMap<String>();
+		final Map<Long, String> expected = new HashMap<Long, String>();
+		for (int round = 0; round < ROUNDS; round++)
+		{
+			for (int operation = 0; operation < OPERATIONS; operation++)
+			{
+				final long key = nextKey();
+				final String value = "v" + random.nextInt(100);
+				switch (random.nextInt(4))
+				{
+					case 0:
+						check("put: " + key, String.valueOf(expected.put(key, value)), String.valueOf(map.put(key, value)));
+						break;
+					case 1:
+						final String current = expected.get(key);
+						if (current == null)
+						{
+							expected.put(key, value);
+						}
+						check("putIfAbsent: " + key, String.valueOf(current), String.valueOf(map.putIfAbsent(key, value)));
+						break;
+					case 2:
+						check("remove: " + key, String.valueOf(expected.remove(key)), String.valueOf(map.remove(key)));
+						break;
+					default:
+						check("get: " + key, String.valueOf(expected.get(key)), String.valueOf(map.get(key)));
+				}
+			}
+			check("size", expected.size(), map.size());
+			final Map<Long, String> visited = new HashMap<Long, String>();
+			map.forEach(new LongObjectMap.Procedure<String>()
+			{
+				public boolean apply(long key, String value)
+				{
+					visited.put(key, value);
+					return true;
+				}
+			});
+			check("entries of round " + round, expected, visited);
+			final int[] calls = new int[1];
+			final boolean completed = map.forEach(new LongObjectMap.Procedure<String>()
+			{
+				public boolean apply(long key, String value)
+				{
+					return ++calls[0] < 2;
+				}
+			});
+			check("forEach completed with " + map.size() + " entries", map.size() < 2, completed);
+			check("calls of a forEach stopped", Math.min(2, map.size()), calls[0]);
+		}
+		System.out.println("LongObjectMap: " + ROUNDS * OPERATIONS + " operations as in a HashMap");
+	}
+	
+	/**
+	 * Checks the {@link LongHashSet}.
+	 */
+	private static void checkLongHashSet()
+	{
+		final LongHashSet set = new LongHashSet(2);
+		final Set<Long> expected = new HashSet<Long>();
+		for (int round = 0; round < ROUNDS; round++)
+		{
+			for (int operation = 0; operation < OPERATIONS; operation++)
+			{
+				final long value = nextKey();
+				switch (random.nextInt(3))
+				{
+					case 0:
+						check("add: " + value, expected.add(value), set.add(value));
+						break;
+					case 1:
+						check("remove: " + value, expected.remove(value), set.remove(value));
+						break;
+					default:
+						check("contains: " + value, expected.contains(value), set.contains(value));
+				}
+			}
+			check("size", expected.size(), set.size());
+			final long[] values = set.toArray();
+			final Set<Long> actual = new HashSet<Long>();
+			for (final long value : values)
+			{
+				actual.add(value);
+			}
+			check("no of values of round " + round, expected.size(), values.length);
+			check("values of round " + round, expected, actual);
+		}
+		System.out.println("LongHashSet: " + ROUNDS * OPERATIONS + " operations as in a HashSet");
+	}
+	
+	/**
+	 * Checks the {@link IntArrayList}, with inserts and removals in the
+	 * middle.
+	 */
+	private static void checkIntArrayList()
+	{
+		final IntArrayList list = new IntArrayList(0);
+		final List<Integer> expected = new ArrayList<Integer>();
+		for (int operation = 0; operation < ROUNDS * OPERATIONS / 10; operation++)
+		{
+			final int value = random.nextInt(100);
+			switch (random.nextInt(6))
+			{
+				case 0:
+					list.add(value);
+					expected.add(value);
+					break;
+				case 1:
+					final int at = random.nextInt(expected.size() + 1);
+					list.add(at, value);
+					expected.add(at, value);
+					break;
+				case 2:
+					if (!expected.isEmpty())
+					{
+						final int index = random.nextInt(expected.size());
+						check("removeAt: " + index, expected.remove(index), list.removeAt(index));
+					}
+					break;
+				case 3:
+					check("removeValue: " + value, expected.remove(Integer.valueOf(value)), list.removeValue(value));
+					break;
+				case 4:
+					if (!expected.isEmpty())
+					{
+						final int index = random.nextInt(expected.size());
+						check("set: " + index, expected.set(index, value), list.set(index, value));
+					}
+					break;
+				default:
+					check("indexOf: " + value, expected.indexOf(value), list.indexOf(value));
+			}
+			check("size", expected.size(), list.size());
+		}
+		final int[] values = list.toArray();
+		for (int index = 0; index < values.length; index++)
+		{
+			check("value at: " + index, expected.get(index), values[index]);
+		}
+		try
+		{
+			list.get(list.size());
+			throw new AssertionError("Expected the index past the size rejected");
+		}
+		catch (IndexOutOfBoundsException e)
+		{
+			/** Expected. */
+		}
+		list.sort();
+		Collections.sort(expected);
+		final IntArrayList sorted = new IntArrayList();
+		for (final int value : expected)
+		{
+			sorted.add(value);
+		}
+		check("sorted", sorted, list);
+		check("hash code", sorted.hashCode(), list.hashCode());
+		list.trimToSize();
+		check("of", IntArrayList.of(1, 2, 3), IntArrayList.of(new int[] { 1, 2, 3 }));
+		check("toArray once trimmed", Arrays.toString(sorted.toArray()), Arrays.toString(list.toArray()));
+		System.out.println("IntArrayList: " + ROUNDS * OPERATIONS / 10 + " operations as in an ArrayList");
+	}
+	
+	/**
+	 * The main method.
+	 * 
+	 * @param args
+	 *            the arguments
+	 */
+	public static void main(String[] args)
+	{
+		checkIntIntMap();
+		checkLongLongMap();
+		checkLongObjectMap();
+		checkLongHashSet();
+		checkIntArrayList();
+		System.out.println("All checks passed.");
+	}
+}
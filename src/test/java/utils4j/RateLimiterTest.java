@@ -0,0 +1,484 @@
+/*
+ * utils4j - RateLimiterTest.java, Oct 18, 2026 6:43:18 PM
+ * 
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package utils4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.varra.util.ConcurrencyLimiter;
+import com.varra.util.KeyedRateLimiter;
+import com.varra.util.RateLimiter;
+import com.varra.util.SlidingLogRateLimiter;
+import com.varra.util.SlidingWindowRateLimiter;
+import com.varra.util.TokenBucketRateLimiter;
+
+/**
+ * Checks the math of the {@link RateLimiter}s: the permits let through by
+ * many threads stay within the rate and burst, the sliding log is exact in
+ * every window, a permit is available once its wait time is over, and the
+ * {@link ConcurrencyLimiter} never lets more through at a time than its max.
+ * It also checks the {@link KeyedRateLimiter} keeps the limiters in use and
+ * the ones used recently, and discards the others.<br>
+ * Run it with the main method, it fails with an {@link AssertionError} on the
+ * first permit let through beyond a limit, or held back for too long.
+ * 
+ * @author Rajakrishna V. Reddy
+ * @version 1.0
+ */
+public class RateLimiterTest
+{
+	
+	/** The no of threads taking the permits at once. */
+	private static final int THREADS = 4;
+	
+	/** The time the threads take the permits for, in ms. */
+	private static final long DURATION = 1000;
+	
+	/**
+	 * Takes the permits with {@link RateLimiter#tryAcquire()} from many
+	 * threads for the given time.
+	 * 
+	 * @param limiter
+	 *            the limiter
+	 * @param millis
+	 *            the time, in ms
+	 * @return the no of permits taken
+	 * @throws InterruptedException
+	 *             if interrupted
+	 */
+	private static long hammer(final RateLimiter limiter, final long millis) throws InterruptedException
+	{
+		final AtomicLong acquired = new AtomicLong();
+		final long end = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(millis);
+		final List<Thread> threads = new ArrayList<Thread>();
+		for (int index = 0; index < THREADS; index++)
+		{
+			final Thread thread = new Thread()
+			{
+				@Override
+				public void run()
+				{
+					while (System.nanoTime() - end < 0)
+					{
+						if (limiter.tryAcquire(1))
+						{
+							acquired.incrementAndGet();
+						}
+					}
+				}
+			};
+			threads.add(thread);
+			thread.start();
+		}
+		for (int index = 0; index < threads.size(); index++)
+		{
+			threads.get(index).join();
+		}
+		return acquired.get();
+	}
+	
+	/**
+	 * Checks the count is within the bounds.
+	 * 
+	 * @param what
+	 *            what is checked
+	 * @param count
+	 *            the count
+	 * @param min
+	 *            the min
+	 * @param max
+	 *            the max
+	 */
+	private static void checkBetween(String what, long count, double min, double max)
+	{
+		if (count < min || count > max)
+		{
+			throw new AssertionError(what + ": expected between " + (long) min + " and " + (long) max + ", but was " + count);
+		}
+	}
+	
+	/**
+	 * Takes all the permits available, and checks one is available again
+	 * once the wait time told is over, and not much before.
+	 * 
+	 * @param limiter
+	 *            the limiter
+	 * @throws InterruptedException
+	 *             if interrupted
+	 */
+	private static void checkWaitTime(RateLimiter limiter) throws InterruptedException
+	{
+		long wait = 0;
+		for (int attempt = 0; attempt < 10 && wait <= 0; attempt++)
+		{
+			while (limiter.tryAcquire(1))
+			{
+				/** Drains it. */
+			}
+			/** A permit may be freed right after draining, as the window moves on. */
+			wait = limiter.getWaitTime(1, TimeUnit.NANOSECONDS);
+		}
+		if (wait <= 0)
+		{
+			throw new AssertionError(limiter + ": expected a wait once drained, but was " + wait);
+		}
+		TimeUnit.NANOSECONDS.sleep(wait);
+		if (!limiter.tryAcquire(1))
+		{
+			throw new AssertionError(limiter + ": expected a permit once the wait of " + wait + " ns is over");
+		}
+	}
+	
+	/**
+	 * Checks the token bucket lets the burst through at once, and the rate
+	 * after it.
+	 * 
+	 * @throws InterruptedException
+	 *             if interrupted
+	 */
+	private static void checkTokenBucket() throws InterruptedException
+	{
+		final double rate = 200;
+		final int burst = 20;
+		final TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(rate, burst);
+		for (int index = 0; index < burst; index++)
+		{
+			if (!limiter.tryAcquire(1))
+			{
+				throw new AssertionError("Expected the burst of " + burst + " let through at once, but stopped at " + index);
+			}
+		}
+		if (limiter.tryAcquire(1))
+		{
+			throw new AssertionError("Expected no permit beyond the burst");
+		}
+		final long wait = limiter.getWaitTime(1, TimeUnit.MICROSECONDS);
+		checkBetween("Token bucket wait time in us", wait, 0, 1000000 / rate + 100);
+		
+		/** Refilled, then taken at the rate. */
+		Thread.sleep((long) (1000 * burst / rate) + 10);
+		final long acquired = hammer(limiter, DURATION);
+		final double expected = burst + rate * DURATION / 1000;
+		checkBetween("Token bucket permits in " + DURATION + " ms", acquired, expected * 0.9, expected + 1);
+		
+		/** Blocks at the rate. */
+		final long start = System.nanoTime();
+		for (int index = 0; index < 40; index++)
+		{
+			limiter.acquire(1);
+		}
+		final long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+		checkBetween("Token bucket ms to acquire 40 permits", elapsed, 40 * 1000 / rate - 2 * 1000 / rate, 40 * 1000 / rate + 100);
+		checkWaitTime(limiter);
+		try
+		{
+			limiter.tryAcquire(burst + 1);
+			throw new AssertionError("Expected the permits beyond the burst rejected");
+		}
+		catch (IllegalArgumentException e)
+		{
+			/** Expected. */
+		}
+		System.out.println("Token bucket: " + acquired + " permits in " + DURATION + " ms at " + rate + "/s with a burst of " + burst);
+	}
+	
+	/**
+	 * Checks the sliding log lets at most the limit through in every window,
+	 * and about the limit per window in all.
+	 * 
+	 * @throws InterruptedException
+	 *             if interrupted
+	 */
+	private static void checkSlidingLog() throws InterruptedException
+	{
+		final int limit = 20;
+		final long window = 100;
+		final SlidingLogRateLimiter limiter = new SlidingLogRateLimiter(limit, window, TimeUnit.MILLISECONDS);
+		
+		/** A single thread, so a permit is taken between the times around it. */
+		final List<long[]> taken = new ArrayList<long[]>();
+		final long end = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(DURATION);
+		while (System.nanoTime() - end < 0)
+		{
+			final long before = System.nanoTime();
+			if (limiter.tryAcquire(1))
+			{
+				taken.add(new long[] { before, System.nanoTime() });
+			}
+		}
+		final long windowNanos = TimeUnit.MILLISECONDS.toNanos(window);
+		for (int index = 0; index + limit < taken.size(); index++)
+		{
+			final long apart = taken.get(index + limit)[1] - taken.get(index)[0];
+			if (apart < windowNanos)
+			{
+				throw new AssertionError("Sliding log let " + (limit + 1) + " permits through in " + apart + " ns, within a window of " + windowNanos);
+			}
+		}
+		final double expected = limit * (DURATION / (double) window + 1);
+		checkBetween("Sliding log permits in " + DURATION + " ms", taken.size(), expected * 0.8, expected);
+		final long concurrent = hammer(limiter, DURATION);
+		checkBetween("Sliding log permits from " + THREADS + " threads", concurrent, expected * 0.8, expected);
+		checkWaitTime(limiter);
+		System.out.println("Sliding log: " + taken.size() + " permits in " + DURATION + " ms, at most " + limit + " in every " + window + " ms");
+	}
+	
+	/**
+	 * Checks the sliding window lets about the limit through per window.
+	 * 
+	 * @throws InterruptedException
+	 *             if interrupted
+	 */
+	private static void checkSlidingWindow() throws InterruptedException
+	{
+		final int limit = 50;
+		final long window = 100;
+		final SlidingWindowRateLimiter limiter = new SlidingWindowRateLimiter(limit, window, TimeUnit.MILLISECONDS);
+		final long acquired = hammer(limiter, DURATION);
+		final double expected = limit * (DURATION / (double) window + 1);
+		checkBetween("Sliding window permits in " + DURATION + " ms", acquired, expected * 0.8, expected);
+		checkWaitTime(limiter);
+		Thread.sleep(2 * window);
+		if (!limiter.isIdle())
+		{
+			throw new AssertionError("Expected the sliding window idle after two windows without a permit");
+		}
+		System.out.println("Sliding window: " + acquired + " permits in " + DURATION + " ms at " + limit + " per " + window + " ms");
+	}
+	
+	/**
+	 * Checks the concurrency limiter never lets more than its max through at
+	 * a time, and wakes up the waiters on the release.
+	 * 
+	 * @throws InterruptedException
+	 *             if interrupted
+	 */
+	private static void checkConcurrency() throws InterruptedException
+	{
+		final int max = 3;
+		final ConcurrencyLimiter limiter = new ConcurrencyLimiter(max);
+		final AtomicInteger inside = new AtomicInteger();
+		final AtomicInteger maxInside = new AtomicInteger();
+		final AtomicLong calls = new AtomicLong();
+		final List<Thread> threads = new ArrayList<Thread>();
+		for (int index = 0; index < 2 * THREADS; index++)
+		{
+			final Thread thread = new Thread()
+			{
+				@Override
+				public void run()
+				{
+					try
+					{
+						for (int call = 0; call < 2000; call++)
+						{
+							limiter.acquire(1);
+							try
+							{
+								final int now = inside.incrementAndGet();
+								while (true)
+								{
+									final int seen = maxInside.get();
+									if (now <= seen || maxInside.compareAndSet(seen, now))
+									{
+										break;
+									}
+								}
+								if (ThreadLocalRandom.current().nextInt(100) == 0)
+								{
+									Thread.sleep(1);
+								}
+								inside.decrementAndGet();
+								calls.incrementAndGet();
+							}
+							finally
+							{
+								limiter.release(1);
+							}
+						}
+					}
+					catch (InterruptedException e)
+					{
+						Thread.currentThread().interrupt();
+					}
+				}
+			};
+			threads.add(thread);
+			thread.start();
+		}
+		for (int index = 0; index < threads.size(); index++)
+		{
+			threads.get(index).join();
+		}
+		checkBetween("Concurrency limiter max calls at once", maxInside.get(), 1, max);
+		checkBetween("Concurrency limiter calls", calls.get(), 2 * THREADS * 2000, 2 * THREADS * 2000);
+		checkBetween("Concurrency limiter in use once done", limiter.getInUse(), 0, 0);
+		
+		/** A waiter times out while full, and is let in by a release. */
+		limiter.acquire(max);
+		if (limiter.tryAcquire(1, 20, TimeUnit.MILLISECONDS))
+		{
+			throw new AssertionError("Expected no permit while full");
+		}
+		final Thread releaser = new Thread()
+		{
+			@Override
+			public void run()
+			{
+				try
+				{
+					Thread.sleep(50);
+				}
+				catch (InterruptedException e)
+				{
+					Thread.currentThread().interrupt();
+				}
+				limiter.release(1);
+			}
+		};
+		releaser.start();
+		final long start = System.nanoTime();
+		if (!limiter.tryAcquire(1, 5, TimeUnit.SECONDS))
+		{
+			throw new AssertionError("Expected the permit once released");
+		}
+		checkBetween("Concurrency limiter ms to be let in", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), 0, 1000);
+		releaser.join();
+		System.out.println("Concurrency: at most " + maxInside.get() + " of " + calls.get() + " calls at once");
+	}
+	
+	/**
+	 * Checks the keyed limiter keeps the limiters in use and the ones used
+	 * recently, discards the idle ones, and never loses a permit under
+	 * eviction pressure.
+	 * 
+	 * @throws InterruptedException
+	 *             if interrupted
+	 */
+	private static void checkKeyed() throws InterruptedException
+	{
+		final int maxKeys = 8;
+		final KeyedRateLimiter<Integer> keyed = new KeyedRateLimiter<Integer>(maxKeys, new KeyedRateLimiter.Factory<Integer>()
+		{
+			public RateLimiter newRateLimiter(Integer key)
+			{
+				return new ConcurrencyLimiter(1);
+			}
+		});
+		
+		/** Busy ones are kept beyond the max keys. */
+		for (int key = 0; key < 2 * maxKeys; key++)
+		{
+			if (!keyed.tryAcquire(key, 1))
+			{
+				throw new AssertionError("Expected the permit of the new key: " + key);
+			}
+		}
+		checkBetween("Keyed limiter size while all busy", keyed.size(), 2 * maxKeys, 2 * maxKeys);
+		checkBetween("Keyed limiter evictions while all busy", keyed.getEvictionCount(), 0, 0);
+		for (int key = 0; key < 2 * maxKeys; key++)
+		{
+			if (keyed.tryAcquire(key, 1))
+			{
+				throw new AssertionError("Expected the limiter of the busy key: " + key + " kept, with its permit held");
+			}
+			keyed.release(key, 1);
+		}
+		
+		/**
+		 * Once idle, the ones not used recently are discarded first. The first
+		 * pass finds all of them used, so it is let through before the check.
+		 */
+		for (int key = 100; key < 200; key++)
+		{
+			keyed.tryAcquire(key, 1);
+			keyed.release(key, 1);
+		}
+		final RateLimiter hot = keyed.get(0);
+		for (int key = 200; key < 300; key++)
+		{
+			keyed.tryAcquire(0, 1);
+			keyed.release(0, 1);
+			keyed.tryAcquire(key, 1);
+			keyed.release(key, 1);
+		}
+		if (keyed.get(0) != hot)
+		{
+			throw new AssertionError("Expected the limiter used recently kept");
+		}
+		checkBetween("Keyed limiter size once idle", keyed.size(), 1, maxKeys + 1);
+		
+		/** Many threads on a few keys under eviction pressure, the permits held are never lost. */
+		final AtomicLong broken = new AtomicLong();
+		final List<Thread> threads = new ArrayList<Thread>();
+		for (int index = 0; index < 2 * THREADS; index++)
+		{
+			final Thread thread = new Thread()
+			{
+				@Override
+				public void run()
+				{
+					final ThreadLocalRandom random = ThreadLocalRandom.current();
+					for (int call = 0; call < 100000; call++)
+					{
+						final int key = random.nextInt(8 * maxKeys);
+						if (keyed.tryAcquire(key, 1))
+						{
+							if (((ConcurrencyLimiter) keyed.get(key)).getInUse() != 1)
+							{
+								broken.incrementAndGet();
+							}
+							keyed.release(key, 1);
+						}
+					}
+				}
+			};
+			threads.add(thread);
+			thread.start();
+		}
+		for (int index = 0; index < threads.size(); index++)
+		{
+			threads.get(index).join();
+		}
+		checkBetween("Keyed limiter permits held by a discarded limiter", broken.get(), 0, 0);
+		System.out.println("Keyed: " + keyed.getEvictionCount() + " idle limiters discarded, none in use");
+	}
+	
+	/**
+	 * The main method.
+	 * 
+	 * @param args
+	 *            the arguments
+	 * @throws InterruptedException
+	 *             if interrupted
+	 */
+	public static void main(String[] args) throws InterruptedException
+	{
+		checkTokenBucket();
+		checkSlidingLog();
+		checkSlidingWindow();
+		checkConcurrency();
+		checkKeyed();
+		System.out.println("All checks passed.");
+	}
+}
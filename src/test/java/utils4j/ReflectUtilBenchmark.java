@@ -0,0 +1,175 @@
+/*
+ * utils4j - ReflectUtilBenchmark.java, Oct 18, 2026 12:58:10 PM
+ * 
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package utils4j;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+
+import com.varra.util.ReflectUtil;
+
+/**
+ * Compares the cached {@link ReflectUtil} lookups and invokers against the
+ * linear scan and {@link java.lang.reflect.AccessibleObject#setAccessible(boolean)}
+ * on every call, the way it used to be done.<br>
+ * Run it with the main method, it prints the average time taken per call.
+ * 
+ * @author Rajakrishna V. Reddy
+ * @version 1.0
+ */
+public class ReflectUtilBenchmark
+{
+	
+	/** The no of calls measured per round. */
+	private static final int CALLS = 2000000;
+	
+	/** The no of rounds, the first ones are the warm up. */
+	private static final int ROUNDS = 5;
+	
+	/** Keeps the results alive. */
+	private static Object sink;
+	
+	/**
+	 * A bean with a few properties, like the ones bound from the properties.
+	 */
+	public static class Bean
+	{
+		
+		/** The name. */
+		private String name = "utils4j";
+		
+		/** The port. */
+		private int port = 8080;
+		
+		/**
+		 * Gets the name.
+		 * 
+		 * @return the name
+		 */
+		public String getName()
+		{
+			return name;
+		}
+		
+		/**
+		 * Sets the port.
+		 * 
+		 * @param port
+		 *            the port
+		 */
+		public void setPort(int port)
+		{
+			this.port = port;
+		}
+	}
+	
+	/**
+	 * The old path: scans the public methods and makes it accessible.
+	 * 
+	 * @param bean
+	 *            the bean
+	 * @param methodName
+	 *            the method name
+	 * @return the object
+	 * @throws Exception
+	 *             the exception
+	 */
+	private static Object scanAndInvoke(Object bean, String methodName) throws Exception
+	{
+		for (final Method method : bean.getClass().getMethods())
+		{
+			if (method.getName().equalsIgnoreCase(methodName))
+			{
+				method.setAccessible(true);
+				return method.invoke(bean);
+			}
+		}
+		return null;
+	}
+	
+	/**
+	 * The old path: scans the declared fields and makes it accessible.
+	 * 
+	 * @param bean
+	 *            the bean
+	 * @param fieldName
+	 *            the field name
+	 * @return the object
+	 * @throws Exception
+	 *             the exception
+	 */
+	private static Object scanAndGet(Object bean, String fieldName) throws Exception
+	{
+		for (final Field field : bean.getClass().getDeclaredFields())
+		{
+			if (field.getName().equals(fieldName))
+			{
+				field.setAccessible(true);
+				return field.get(bean);
+			}
+		}
+		return null;
+	}
+	
+	/**
+	 * The main method.
+	 * 
+	 * @param args
+	 *            the arguments
+	 * @throws Exception
+	 *             the exception
+	 */
+	public static void main(String[] args) throws Exception
+	{
+		final Bean bean = new Bean();
+		for (int round = 0; round < ROUNDS; round++)
+		{
+			long start = System.nanoTime();
+			for (int i = 0; i < CALLS; i++)
+			{
+				sink = scanAndInvoke(bean, "getname");
+			}
+			final long scanMethod = System.nanoTime() - start;
+			
+			start = System.nanoTime();
+			for (int i = 0; i < CALLS; i++)
+			{
+				sink = ReflectUtil.executeMethod(bean, "getname", true);
+			}
+			final long cachedMethod = System.nanoTime() - start;
+			
+			start = System.nanoTime();
+			for (int i = 0; i < CALLS; i++)
+			{
+				sink = scanAndGet(bean, "port");
+			}
+			final long scanField = System.nanoTime() - start;
+			
+			start = System.nanoTime();
+			for (int i = 0; i < CALLS; i++)
+			{
+				sink = ReflectUtil.getFieldValue(bean, "port", false);
+			}
+			final long cachedField = System.nanoTime() - start;
+			
+			System.out.println("Round " + round + ": executeMethod scan=" + (scanMethod / CALLS) + " ns, cached=" + (cachedMethod / CALLS)
+					+ " ns | getFieldValue scan=" + (scanField / CALLS) + " ns, cached=" + (cachedField / CALLS) + " ns");
+		}
+		System.out.println(sink);
+	}
+}
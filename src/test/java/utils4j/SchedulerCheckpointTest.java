@@ -0,0 +1,313 @@
+/*
+ * utils4j - SchedulerCheckpointTest.java, Oct 18, 2026 6:21:45 PM
+ * 
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package utils4j;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+
+import com.varra.exception.ComputingException;
+import com.varra.util.EnhancedTimerTask;
+import com.varra.util.SchedulerCheckpoint;
+
+/**
+ * Checks the {@link SchedulerCheckpoint}: the state of the tasks recorded is
+ * restored after reopening the file, the executions missed meanwhile are
+ * skipped keeping the phase, only the tasks of a unique and valid checkpoint
+ * key are recorded, the file grows as needed and a record being written when
+ * the JVM died is ignored.<br>
+ * Run it with the main method, it fails with an {@link AssertionError} on the
+ * first state not restored as recorded.
+ * 
+ * @author Rajakrishna V. Reddy
+ * @version 1.0
+ */
+public class SchedulerCheckpointTest
+{
+	
+	/** The period of the tasks, in ms. */
+	private static final long PERIOD = 100;
+	
+	/**
+	 * A periodic task.
+	 */
+	private static class Task extends EnhancedTimerTask
+	{
+		
+		/**
+		 * Instantiates a new periodic task of the given checkpoint key.
+		 * 
+		 * @param checkpointKey
+		 *            the checkpoint key, null for none
+		 */
+		private Task(String checkpointKey)
+		{
+			super(String.valueOf(checkpointKey));
+			setCheckpointKey(checkpointKey);
+			setPeriod(PERIOD);
+		}
+		
+		/**
+		 * Makes it look as if it ran the given no of times, the last one now.
+		 * 
+		 * @param times
+		 *            the no of times
+		 * @return this
+		 */
+		private Task ran(int times)
+		{
+			for (int index = 0; index < times; index++)
+			{
+				incrementNoOfExecTimes();
+			}
+			setPrevExecutionTime(System.currentTimeMillis());
+			updateNextExecutionTime();
+			return this;
+		}
+		
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see com.varra.util.EnhancedTimerTask#compute()
+		 */
+		@Override
+		public void compute() throws ComputingException
+		{
+		}
+	}
+	
+	/**
+	 * Creates a new file for a checkpoint, deleted on exit.
+	 * 
+	 * @return the file
+	 * @throws IOException
+	 *             if not created
+	 */
+	private static File newFile() throws IOException
+	{
+		final File file = File.createTempFile("checkpoint", ".dat");
+		file.delete();
+		file.deleteOnExit();
+		return file;
+	}
+	
+	/**
+	 * Checks the values are as expected.
+	 * 
+	 * @param what
+	 *            what is checked
+	 * @param expected
+	 *            the expected
+	 * @param actual
+	 *            the actual
+	 */
+	private static void check(String what, Object expected, Object actual)
+	{
+		if (!expected.equals(actual))
+		{
+			throw new AssertionError(what + ": expected " + expected + ", but was " + actual);
+		}
+	}
+	
+	/**
+	 * Records a task, reopens the file and restores it, before and after its
+	 * next execution time.
+	 * 
+	 * @throws Exception
+	 *             if the file can not be used
+	 */
+	private static void checkRestore() throws Exception
+	{
+		final File file = newFile();
+		SchedulerCheckpoint checkpoint = new SchedulerCheckpoint(file);
+		final Task recorded = new Task("restore").ran(7);
+		checkpoint.record(recorded);
+		checkpoint.close();
+		
+		/** Reopened before the next execution, the state is as recorded. */
+		checkpoint = new SchedulerCheckpoint(file);
+		check("recovered", 1, checkpoint.size());
+		final Task restored = new Task("restore");
+		check("restored", true, checkpoint.restore(restored));
+		check("no of exec times", 7, restored.getNoOfExecTimes());
+		check("prev execution time", recorded.getPrevExecutionTime(), restored.getPrevExecutionTime());
+		check("next execution time", recorded.getNextExecutionTime(), restored.getNextExecutionTime());
+		check("restored once it ran", false, checkpoint.restore(new Task("restore").ran(1)));
+		checkpoint.close();
+		
+		/** Reopened a few periods later, the missed ones are skipped keeping the phase. */
+		Thread.sleep(3 * PERIOD + PERIOD / 2);
+		checkpoint = new SchedulerCheckpoint(file);
+		final Task late = new Task("restore");
+		final long now = System.currentTimeMillis();
+		check("restored late", true, checkpoint.restore(late));
+		final long next = late.getNextExecutionTime();
+		if (next < now || next > now + PERIOD || (next - recorded.getNextExecutionTime()) % PERIOD != 0)
+		{
+			throw new AssertionError("Expected the next execution time in the next period, in phase with: " + recorded.getNextExecutionTime()
+					+ ", but was " + next + ", now: " + now);
+		}
+		check("prev execution time of the late one", next - PERIOD, late.getPrevExecutionTime());
+		checkpoint.close();
+		System.out.println("Restore: restored as recorded, and skipped " + (next - recorded.getNextExecutionTime()) / PERIOD
+				+ " missed execution(s) in phase");
+	}
+	
+	/**
+	 * Checks the tasks without a checkpoint key, with an invalid one or with
+	 * the one of another task are not recorded, and a key is taken over once
+	 * its owner is removed.
+	 * 
+	 * @throws Exception
+	 *             if the file can not be used
+	 */
+	private static void checkKeys() throws Exception
+	{
+		final SchedulerCheckpoint checkpoint = new SchedulerCheckpoint(newFile());
+		checkpoint.record(new Task(null).ran(1));
+		check("recorded without a key", 0, checkpoint.size());
+		checkpoint.record(new Task("").ran(1));
+		check("recorded with an empty key", 0, checkpoint.size());
+		final StringBuilder longest = new StringBuilder();
+		for (int index = 0; index < SchedulerCheckpoint.MAX_KEY_LENGTH; index++)
+		{
+			longest.append('k');
+		}
+		checkpoint.record(new Task(longest + "k").ran(1));
+		check("recorded with a key too long", 0, checkpoint.size());
+		checkpoint.record(new Task(longest.toString()).ran(1));
+		check("recorded with the longest key", 1, checkpoint.size());
+		
+		final Task owner = new Task("shared").ran(1);
+		final Task other = new Task("shared").ran(5);
+		checkpoint.record(owner);
+		checkpoint.record(other);
+		check("recorded with a shared key", 2, checkpoint.size());
+		check("restored while the key is owned", false, checkpoint.restore(new Task("shared")));
+		checkpoint.remove(other);
+		check("removed by the other task", 2, checkpoint.size());
+		checkpoint.remove(owner);
+		check("removed by the owner", 1, checkpoint.size());
+		checkpoint.record(other);
+		check("recorded by the other task once the owner is removed", 2, checkpoint.size());
+		checkpoint.close();
+		System.out.println("Keys: only the tasks of a unique and valid key are recorded");
+	}
+	
+	/**
+	 * Records more tasks than the file starts with, and checks all of them
+	 * are recovered.
+	 * 
+	 * @throws Exception
+	 *             if the file can not be used
+	 */
+	private static void checkGrowth() throws Exception
+	{
+		final File file = newFile();
+		SchedulerCheckpoint checkpoint = new SchedulerCheckpoint(file, 16);
+		final int tasks = 3000;
+		for (int index = 0; index < tasks; index++)
+		{
+			checkpoint.record(new Task("task-" + index).ran(index + 1));
+		}
+		checkpoint.close();
+		checkpoint = new SchedulerCheckpoint(file);
+		check("recovered", tasks, checkpoint.size());
+		for (int index = 0; index < tasks; index += 97)
+		{
+			final Task task = new Task("task-" + index);
+			check("restored: " + index, true, checkpoint.restore(task));
+			check("no of exec times of: " + index, index + 1, task.getNoOfExecTimes());
+		}
+		checkpoint.close();
+		System.out.println("Growth: " + tasks + " tasks recovered from a file of 16 records at first");
+	}
+	
+	/**
+	 * Marks the only record as being written, as if the JVM died meanwhile,
+	 * and checks it is ignored; and checks a file of something else is not
+	 * taken for a checkpoint.
+	 * 
+	 * @throws Exception
+	 *             if the file can not be used
+	 */
+	private static void checkTornRecord() throws Exception
+	{
+		final File file = newFile();
+		SchedulerCheckpoint checkpoint = new SchedulerCheckpoint(file);
+		checkpoint.record(new Task("torn").ran(3));
+		checkpoint.close();
+		
+		/** The seq of the first record, after the header of 64 bytes, is odd while it is written. */
+		final RandomAccessFile raf = new RandomAccessFile(file, "rw");
+		try
+		{
+			raf.seek(64);
+			final int seq = raf.readInt();
+			raf.seek(64);
+			raf.writeInt(seq | 1);
+		}
+		finally
+		{
+			raf.close();
+		}
+		checkpoint = new SchedulerCheckpoint(file);
+		check("recovered a torn record", 0, checkpoint.size());
+		check("restored from a torn record", false, checkpoint.restore(new Task("torn")));
+		checkpoint.close();
+		
+		final File other = newFile();
+		final RandomAccessFile garbage = new RandomAccessFile(other, "rw");
+		try
+		{
+			garbage.writeUTF("not a checkpoint, but long enough to have a header of 64 bytes or more.");
+		}
+		finally
+		{
+			garbage.close();
+		}
+		try
+		{
+			new SchedulerCheckpoint(other).close();
+			throw new AssertionError("Expected a file of something else not to be opened");
+		}
+		catch (IOException e)
+		{
+			/** Expected. */
+		}
+		System.out.println("Torn record: ignored on recovery");
+	}
+	
+	/**
+	 * The main method.
+	 * 
+	 * @param args
+	 *            the arguments
+	 * @throws Exception
+	 *             if a file can not be used
+	 */
+	public static void main(String[] args) throws Exception
+	{
+		checkRestore();
+		checkKeys();
+		checkGrowth();
+		checkTornRecord();
+		System.out.println("All checks passed.");
+	}
+}
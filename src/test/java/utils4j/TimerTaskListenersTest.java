@@ -0,0 +1,417 @@
+/*
+ * utils4j - TimerTaskListenersTest.java, Oct 18, 2026 5:58:03 PM
+ * 
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package utils4j;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.varra.exception.ComputingException;
+import com.varra.listener.TimerTaskListener;
+import com.varra.util.EnhancedTimerTask;
+import com.varra.util.TimerTaskListeners;
+
+/**
+ * Checks the {@link TimerTaskListeners}: the registry of many listeners per
+ * task type, every listener notified in the order of the events off the
+ * calling thread, a slow listener holding up neither the caller nor the
+ * others, and the notifications above the limits dropped and counted rather
+ * than run on the caller.<br>
+ * Run it with the main method, it fails with an {@link AssertionError} on the
+ * first notification lost, reordered, run on the caller or not counted.
+ * 
+ * @author Rajakrishna V. Reddy
+ * @version 1.0
+ */
+public class TimerTaskListenersTest
+{
+	
+	/** The no of tasks notified. */
+	private static final int TASKS = 1000;
+	
+	/**
+	 * A task type with listeners.
+	 */
+	private static class FirstTask extends EnhancedTimerTask
+	{
+		
+		/**
+		 * Instantiates a new task, cancelled so it is notified.
+		 * 
+		 * @param name
+		 *            the name
+		 */
+		private FirstTask(String name)
+		{
+			super(name);
+			cancel();
+		}
+		
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see com.varra.util.EnhancedTimerTask#compute()
+		 */
+		@Override
+		public void compute() throws ComputingException
+		{
+		}
+	}
+	
+	/**
+	 * Another task type with listeners, not notified to the ones of its super
+	 * class as they are looked up by the exact type.
+	 */
+	private static class SecondTask extends FirstTask
+	{
+		
+		/**
+		 * Instantiates a new task, cancelled so it is notified.
+		 * 
+		 * @param name
+		 *            the name
+		 */
+		private SecondTask(String name)
+		{
+			super(name);
+		}
+	}
+	
+	/**
+	 * A listener recording the names of the tasks cancelled, optionally
+	 * blocked till a latch is released.
+	 */
+	private static class RecordingListener implements TimerTaskListener
+	{
+		
+		/** The names of the tasks notified, in order. */
+		private final List<String> names = Collections.synchronizedList(new ArrayList<String>());
+		
+		/** The no of notifications on the calling thread. */
+		private final AtomicInteger onCaller = new AtomicInteger();
+		
+		/** The calling thread. */
+		private final Thread caller = Thread.currentThread();
+		
+		/** The latch to wait for, if any. */
+		private final CountDownLatch release;
+		
+		/**
+		 * Instantiates a new recording listener.
+		 * 
+		 * @param release
+		 *            the latch to wait for before each notification, null
+		 *            for none
+		 */
+		private RecordingListener(CountDownLatch release)
+		{
+			this.release = release;
+		}
+		
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see com.varra.listener.TimerTaskListener#omitOnCancel(com.varra.util.EnhancedTimerTask)
+		 */
+		public void omitOnCancel(EnhancedTimerTask task)
+		{
+			if (Thread.currentThread() == caller)
+			{
+				onCaller.incrementAndGet();
+			}
+			if (release != null)
+			{
+				try
+				{
+					release.await();
+				}
+				catch (InterruptedException e)
+				{
+					Thread.currentThread().interrupt();
+				}
+			}
+			names.add(task.getName());
+		}
+		
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see com.varra.listener.TimerTaskListener#omitOnExpiry(com.varra.util.EnhancedTimerTask)
+		 */
+		public void omitOnExpiry(EnhancedTimerTask task)
+		{
+			throw new AssertionError("Unexpected expiry of: " + task);
+		}
+		
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see com.varra.listener.TimerTaskListener#omitOnFinish(com.varra.util.EnhancedTimerTask)
+		 */
+		public void omitOnFinish(EnhancedTimerTask task)
+		{
+			throw new AssertionError("Unexpected finish of: " + task);
+		}
+		
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see java.lang.Object#toString()
+		 */
+		@Override
+		public String toString()
+		{
+			return "RecordingListener@" + Integer.toHexString(System.identityHashCode(this));
+		}
+	}
+	
+	/**
+	 * Waits till the listener is notified of the given no of tasks, or the
+	 * time out.
+	 * 
+	 * @param listener
+	 *            the listener
+	 * @param count
+	 *            the no of tasks
+	 * @throws InterruptedException
+	 *             if interrupted
+	 */
+	private static void await(RecordingListener listener, int count) throws InterruptedException
+	{
+		final long deadline = System.currentTimeMillis() + 10 * 1000;
+		while (listener.names.size() < count && System.currentTimeMillis() < deadline)
+		{
+			Thread.sleep(10);
+		}
+	}
+	
+	/**
+	 * Checks the values are as expected.
+	 * 
+	 * @param what
+	 *            what is checked
+	 * @param expected
+	 *            the expected
+	 * @param actual
+	 *            the actual
+	 */
+	private static void check(String what, Object expected, Object actual)
+	{
+		if (!expected.equals(actual))
+		{
+			throw new AssertionError(what + ": expected " + expected + ", but was " + actual);
+		}
+	}
+	
+	/**
+	 * Checks adding, removing and getting the listeners of many types.
+	 */
+	private static void checkRegistry()
+	{
+		final ExecutorService executor = Executors.newSingleThreadExecutor();
+		final TimerTaskListeners listeners = new TimerTaskListeners(executor, 10);
+		final RecordingListener first = new RecordingListener(null);
+		final RecordingListener second = new RecordingListener(null);
+		check("added", true, listeners.add(first, FirstTask.class));
+		check("added", true, listeners.add(second, FirstTask.class));
+		check("added again", false, listeners.add(first, FirstTask.class));
+		check("added of another type", true, listeners.add(second, SecondTask.class));
+		final List<TimerTaskListener> expected = new ArrayList<TimerTaskListener>();
+		expected.add(first);
+		expected.add(second);
+		check("listeners of the type", expected, listeners.get(FirstTask.class));
+		check("first listener of the type", first, listeners.getFirst().get(FirstTask.class));
+		check("types", 2, listeners.getAll().size());
+		check("removed", true, listeners.remove(first, FirstTask.class));
+		check("removed again", false, listeners.remove(first, FirstTask.class));
+		check("first listener after the remove", second, listeners.getFirst().get(FirstTask.class));
+		check("removed the last of the type", true, listeners.remove(second, SecondTask.class));
+		check("types after the remove", 1, listeners.getAll().size());
+		check("listeners of no type", 0, listeners.get(SecondTask.class).size());
+		executor.shutdown();
+		System.out.println("Registry: add, remove and get are consistent");
+	}
+	
+	/**
+	 * Notifies the tasks of two types to many listeners on a pool, one of
+	 * which is slow, and checks each listener gets its own tasks in order.
+	 * 
+	 * @throws InterruptedException
+	 *             if interrupted
+	 */
+	private static void checkOrder() throws InterruptedException
+	{
+		final ExecutorService executor = Executors.newFixedThreadPool(4);
+		final TimerTaskListeners listeners = new TimerTaskListeners(executor, TASKS);
+		final CountDownLatch release = new CountDownLatch(1);
+		final RecordingListener slow = new RecordingListener(release);
+		final List<RecordingListener> firsts = new ArrayList<RecordingListener>();
+		listeners.add(slow, FirstTask.class);
+		for (int index = 0; index < 8; index++)
+		{
+			final RecordingListener listener = new RecordingListener(null);
+			firsts.add(listener);
+			listeners.add(listener, FirstTask.class);
+		}
+		final RecordingListener both = new RecordingListener(null);
+		listeners.add(both, FirstTask.class);
+		listeners.add(both, SecondTask.class);
+		final List<String> expectedFirst = new ArrayList<String>();
+		final List<String> expectedBoth = new ArrayList<String>();
+		final long start = System.nanoTime();
+		for (int index = 0; index < TASKS; index++)
+		{
+			final String name = "task-" + index;
+			final FirstTask task = index % 3 == 0 ? new SecondTask(name) : new FirstTask(name);
+			if (!(task instanceof SecondTask))
+			{
+				expectedFirst.add(name);
+			}
+			expectedBoth.add(name);
+			listeners.callBack(task);
+		}
+		final long callBackMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+		
+		/** The others are done while the slow one is still blocked. */
+		for (int index = 0; index < firsts.size(); index++)
+		{
+			await(firsts.get(index), expectedFirst.size());
+			check("listener: " + index, expectedFirst, firsts.get(index).names);
+			check("listener: " + index + " notifications on the caller", 0, firsts.get(index).onCaller.get());
+		}
+		await(both, expectedBoth.size());
+		check("listener of both types", expectedBoth, both.names);
+		check("slow listener while blocked", 0, slow.names.size());
+		release.countDown();
+		await(slow, expectedFirst.size());
+		check("slow listener", expectedFirst, slow.names);
+		check("dropped", 0L, listeners.getDroppedCount());
+		listeners.shutdown();
+		executor.awaitTermination(5, TimeUnit.SECONDS);
+		System.out.println("Order: " + TASKS + " tasks in order to every listener, callBack took " + callBackMillis + " ms in all");
+	}
+	
+	/**
+	 * Blocks a listener with a small mailbox, and checks the notifications
+	 * above it are dropped and counted, and the others still delivered.
+	 * 
+	 * @throws InterruptedException
+	 *             if interrupted
+	 */
+	private static void checkMailboxDrops() throws InterruptedException
+	{
+		final ExecutorService executor = Executors.newFixedThreadPool(2);
+		final int maxPending = 10;
+		final TimerTaskListeners listeners = new TimerTaskListeners(executor, maxPending);
+		final CountDownLatch release = new CountDownLatch(1);
+		final RecordingListener blocked = new RecordingListener(release);
+		listeners.add(blocked, FirstTask.class);
+		for (int index = 0; index < 100; index++)
+		{
+			listeners.callBack(new FirstTask("task-" + index));
+		}
+		release.countDown();
+		final long dropped = listeners.getDroppedCount();
+		await(blocked, (int) (100 - dropped));
+		Thread.sleep(100);
+		if (dropped < 100 - maxPending - 1 || dropped > 100 - maxPending)
+		{
+			throw new AssertionError("Expected about " + (100 - maxPending) + " notifications dropped, but was " + dropped);
+		}
+		check("delivered and dropped", 100L, blocked.names.size() + dropped);
+		check("first notified", "task-0", blocked.names.get(0));
+		
+		/** Delivered as usual once there is room again. */
+		listeners.callBack(new FirstTask("task-after"));
+		await(blocked, (int) (101 - dropped));
+		check("notified after the drops", "task-after", blocked.names.get(blocked.names.size() - 1));
+		listeners.shutdown();
+		executor.awaitTermination(5, TimeUnit.SECONDS);
+		System.out.println("Mailbox: " + dropped + " of 100 notifications dropped and counted");
+	}
+	
+	/**
+	 * Blocks more listeners than the default executor has threads and queue
+	 * for, and checks the mailboxes above it are dropped and counted, never
+	 * run on the caller.
+	 * 
+	 * @throws InterruptedException
+	 *             if interrupted
+	 */
+	private static void checkExecutorDrops() throws InterruptedException
+	{
+		final TimerTaskListeners listeners = new TimerTaskListeners("timer-task-listeners-test");
+		final CountDownLatch release = new CountDownLatch(1);
+		final List<RecordingListener> all = new ArrayList<RecordingListener>();
+		for (int index = 0; index < 1200 + Runtime.getRuntime().availableProcessors(); index++)
+		{
+			final RecordingListener listener = new RecordingListener(release);
+			all.add(listener);
+			listeners.add(listener, FirstTask.class);
+		}
+		listeners.callBack(new FirstTask("task"));
+		release.countDown();
+		final long dropped = listeners.getDroppedCount();
+		if (dropped == 0)
+		{
+			throw new AssertionError("Expected the mailboxes above the queue dropped");
+		}
+		int delivered = 0;
+		final long deadline = System.currentTimeMillis() + 10 * 1000;
+		while (System.currentTimeMillis() < deadline)
+		{
+			delivered = 0;
+			for (int index = 0; index < all.size(); index++)
+			{
+				delivered += all.get(index).names.size();
+				check("notifications on the caller", 0, all.get(index).onCaller.get());
+			}
+			if (delivered + dropped >= all.size())
+			{
+				break;
+			}
+			Thread.sleep(10);
+		}
+		check("delivered and dropped", (long) all.size(), delivered + dropped);
+		listeners.shutdown();
+		System.out.println("Executor: " + dropped + " of " + all.size() + " notifications dropped and counted, none on the caller");
+	}
+	
+	/**
+	 * The main method.
+	 * 
+	 * @param args
+	 *            the arguments
+	 * @throws InterruptedException
+	 *             if interrupted
+	 */
+	public static void main(String[] args) throws InterruptedException
+	{
+		checkRegistry();
+		checkOrder();
+		checkMailboxDrops();
+		checkExecutorDrops();
+		System.out.println("All checks passed.");
+	}
+}
@@ -0,0 +1,207 @@
+/*
+ * utils4j - TriggerSingleFlightTest.java, Oct 18, 2026 6:12:40 PM
+ * 
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package utils4j;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.varra.exception.ComputingException;
+import com.varra.util.EnhancedTimerTask;
+import com.varra.util.SafeThread;
+import com.varra.util.SchedulerMode;
+
+/**
+ * Checks that a burst of triggers never runs an {@link EnhancedTimerTask}
+ * concurrently, even when its execution is waiting for a thread: the pool is
+ * kept busy while the burst comes in, and the task computes slowly.<br>
+ * Run it with the main method, it fails with an {@link AssertionError} if the
+ * task runs more than once at a time, or more than once after the execution
+ * serving the first trigger.
+ * 
+ * @author Rajakrishna V. Reddy
+ * @version 1.0
+ */
+public class TriggerSingleFlightTest
+{
+	
+	/** The no of threads in the pool. */
+	private static final int THREADS = 4;
+	
+	/** The time a compute takes, in ms. */
+	private static final long COMPUTE_TIME = 200;
+	
+	/**
+	 * A task that computes slowly and records how many of its executions ran
+	 * at once.
+	 */
+	private static class SlowTask extends EnhancedTimerTask
+	{
+		
+		/** The executions done. */
+		private final AtomicInteger runs = new AtomicInteger();
+		
+		/** The executions running now. */
+		private final AtomicInteger running = new AtomicInteger();
+		
+		/** The most executions seen running at once. */
+		private final AtomicInteger maxConcurrent = new AtomicInteger();
+		
+		/*
+		 * (non-Javadoc)
+		 * 
+		 * @see com.varra.util.EnhancedTimerTask#compute()
+		 */
+		@Override
+		public void compute() throws ComputingException
+		{
+			final int now = running.incrementAndGet();
+			while (true)
+			{
+				final int max = maxConcurrent.get();
+				if (now <= max || maxConcurrent.compareAndSet(max, now))
+				{
+					break;
+				}
+			}
+			try
+			{
+				Thread.sleep(COMPUTE_TIME);
+			}
+			catch (InterruptedException e)
+			{
+				Thread.currentThread().interrupt();
+			}
+			finally
+			{
+				running.decrementAndGet();
+				runs.incrementAndGet();
+			}
+		}
+	}
+	
+	/**
+	 * Waits till the task is done with the given no of executions and nothing
+	 * is running, or the time out.
+	 * 
+	 * @param task
+	 *            the task
+	 * @param runs
+	 *            the no of executions
+	 * @throws InterruptedException
+	 *             if interrupted
+	 */
+	private static void awaitRuns(SlowTask task, int runs) throws InterruptedException
+	{
+		final long deadline = System.currentTimeMillis() + 10 * 1000;
+		while ((task.runs.get() < runs || task.running.get() > 0) && System.currentTimeMillis() < deadline)
+		{
+			Thread.sleep(10);
+		}
+	}
+	
+	/**
+	 * Triggers the task in a burst while the pool is busy, and checks how it
+	 * was run.
+	 * 
+	 * @param mode
+	 *            the scheduler mode
+	 * @throws InterruptedException
+	 *             if interrupted
+	 */
+	private static void check(SchedulerMode mode) throws InterruptedException
+	{
+		final ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+		final SafeThread scheduler = new SafeThread("single-flight-" + mode, pool, mode);
+		scheduler.start();
+		try
+		{
+			final SlowTask task = new SlowTask();
+			task.setDaemon(true);
+			scheduler.onTimerTask(task);
+			awaitRuns(task, 1);
+			final int first = task.runs.get();
+			
+			/** Keeps every thread busy while the burst comes in. */
+			final CountDownLatch release = new CountDownLatch(1);
+			for (int index = 0; index < THREADS; index++)
+			{
+				pool.execute(new Runnable()
+				{
+					public void run()
+					{
+						try
+						{
+							release.await();
+						}
+						catch (InterruptedException e)
+						{
+							Thread.currentThread().interrupt();
+						}
+					}
+				});
+			}
+			for (int index = 0; index < 50; index++)
+			{
+				task.trigger();
+				Thread.sleep(2);
+			}
+			release.countDown();
+			
+			/** The burst is served by one execution, plus one for the triggers after it was dispatched. */
+			awaitRuns(task, first + 1);
+			Thread.sleep(3 * COMPUTE_TIME);
+			awaitRuns(task, first + 1);
+			final int after = task.runs.get() - first;
+			System.out.println(mode + ": runs after first=" + after + " maxConcurrent=" + task.maxConcurrent.get());
+			if (task.maxConcurrent.get() != 1)
+			{
+				throw new AssertionError(mode + ": expected one execution at a time, but " + task.maxConcurrent.get() + " ran at once");
+			}
+			if (after < 1 || after > 2)
+			{
+				throw new AssertionError(mode + ": expected the burst to be served by 1 or 2 executions, but was " + after);
+			}
+			task.cancel();
+		}
+		finally
+		{
+			scheduler.shutdown();
+			pool.shutdownNow();
+			pool.awaitTermination(5, TimeUnit.SECONDS);
+		}
+	}
+	
+	/**
+	 * The main method.
+	 * 
+	 * @param args
+	 *            the arguments
+	 * @throws InterruptedException
+	 *             if interrupted
+	 */
+	public static void main(String[] args) throws InterruptedException
+	{
+		check(SchedulerMode.POLLING);
+		check(SchedulerMode.DEADLINE);
+		System.out.println("All checks passed.");
+	}
+}
@@ -0,0 +1,126 @@
+/*
+ * utils4j - VirtualThreadBenchmark.java, Oct 18, 2026 7:31:12 PM
+ * 
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package utils4j;
+
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import com.varra.util.SafeThreadFactory;
+import com.varra.util.VirtualThreadExecutor;
+
+/**
+ * Compares the {@link VirtualThreadExecutor} against the platform thread
+ * pools {@link com.varra.util.GlobalThread} can be built on, with the tasks
+ * blocking for a while like the I/O bound
+ * {@link com.varra.util.EnhancedTimerTask}s do.<br>
+ * Run it with the main method, on Java 21 or later to get the virtual
+ * threads, it prints the task throughput and the p50/p99 dispatch latency,
+ * i.e. the time from the submission of a task till it starts running.
+ * 
+ * @author Rajakrishna V. Reddy
+ * @version 1.0
+ */
+public class VirtualThreadBenchmark
+{
+	
+	/** The no of tasks per round. */
+	private static final int TASKS = 20000;
+	
+	/** The time each task blocks for, in ms. */
+	private static final int BLOCK_MILLIS = 10;
+	
+	/** The no of threads of the fixed pool. */
+	private static final int FIXED_THREADS = 200;
+	
+	/** The max concurrency of the virtual thread executor. */
+	private static final int MAX_CONCURRENCY = 10000;
+	
+	/** The no of rounds, the first one is the warm up. */
+	private static final int ROUNDS = 3;
+	
+	/**
+	 * Runs the tasks on the executor and prints the results.
+	 * 
+	 * @param name
+	 *            the name
+	 * @param executor
+	 *            the executor
+	 * @throws InterruptedException
+	 *             the interrupted exception
+	 */
+	private static void run(final String name, final ExecutorService executor) throws InterruptedException
+	{
+		final long[] latencies = new long[TASKS];
+		final CountDownLatch done = new CountDownLatch(TASKS);
+		final long start = System.nanoTime();
+		for (int i = 0; i < TASKS; i++)
+		{
+			final int index = i;
+			final long submitted = System.nanoTime();
+			executor.execute(new Runnable()
+			{
+				public void run()
+				{
+					latencies[index] = System.nanoTime() - submitted;
+					try
+					{
+						Thread.sleep(BLOCK_MILLIS);
+					}
+					catch (InterruptedException e)
+					{
+						Thread.currentThread().interrupt();
+					}
+					done.countDown();
+				}
+			});
+		}
+		done.await();
+		final long elapsed = System.nanoTime() - start;
+		executor.shutdown();
+		executor.awaitTermination(1, TimeUnit.MINUTES);
+		Arrays.sort(latencies);
+		System.out.println(String.format("%-28s %10.0f tasks/s, dispatch p50=%8d us, p99=%8d us", name, TASKS * 1e9 / elapsed,
+				TimeUnit.NANOSECONDS.toMicros(latencies[TASKS / 2]), TimeUnit.NANOSECONDS.toMicros(latencies[TASKS * 99 / 100])));
+	}
+	
+	/**
+	 * The main method.
+	 * 
+	 * @param args
+	 *            the arguments
+	 * @throws Exception
+	 *             the exception
+	 */
+	public static void main(String[] args) throws Exception
+	{
+		System.out.println("Virtual threads supported: " + SafeThreadFactory.isVirtualThreadSupported() + ", tasks: " + TASKS + ", blocking: "
+				+ BLOCK_MILLIS + " ms");
+		for (int round = 0; round < ROUNDS; round++)
+		{
+			System.out.println("Round " + round + ":");
+			run("fixed(" + FIXED_THREADS + ")", Executors.newFixedThreadPool(FIXED_THREADS, new SafeThreadFactory()));
+			run("cached", Executors.newCachedThreadPool(new SafeThreadFactory()));
+			run("virtual(" + MAX_CONCURRENCY + ")", new VirtualThreadExecutor(MAX_CONCURRENCY));
+			run("virtual(" + FIXED_THREADS + ")", new VirtualThreadExecutor(FIXED_THREADS));
+		}
+	}
+}